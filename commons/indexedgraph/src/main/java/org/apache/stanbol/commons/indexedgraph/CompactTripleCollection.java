@@ -0,0 +1,715 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.commons.indexedgraph;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.apache.clerezza.rdf.core.NonLiteral;
+import org.apache.clerezza.rdf.core.Resource;
+import org.apache.clerezza.rdf.core.Triple;
+import org.apache.clerezza.rdf.core.TripleCollection;
+import org.apache.clerezza.rdf.core.UriRef;
+import org.apache.clerezza.rdf.core.impl.AbstractTripleCollection;
+import org.apache.clerezza.rdf.core.impl.TripleImpl;
+
+/**
+ * {@link TripleCollection} implementation that stores triples as dictionary
+ * encoded <code>int</code> values in sorted primitive arrays. Like the
+ * {@link IndexedTripleCollection} it maintains indexes for <ul>
+ * <li> subject, predicate, object [SPO]
+ * <li> predicate, object, subject [POS]
+ * <li> object, subject, predicate [OSP]
+ * </ul>
+ * but instead of three {@link java.util.TreeSet}s of {@link Triple} instances
+ * every index is a single <code>int[]</code> with three values per triple.
+ * {@link Resource}s are mapped to <code>int</code> ids by a dictionary
+ * (based on {@link Resource#equals(Object)} and {@link Resource#hashCode()}).
+ * <p>
+ * Added triples are collected in a small sorted buffer that is merged into
+ * the indexes when it gets full. The size of the buffer grows with the square
+ * root of the number of indexed triples so that the cost of merges stays low
+ * for large collections. {@link #filter(NonLiteral, UriRef, Resource)}
+ * requests are answered by using both the indexes and the buffer, so
+ * workloads that add and filter triples alternately do not trigger a merge
+ * for every request.
+ * Removed triples are only marked as deleted and physically removed by the
+ * next merge. Because of that the memory used by this implementation only
+ * decreases after new triples are added. Resources are never removed from
+ * the dictionary.<p>
+ * Iterators returned by {@link #filter(NonLiteral, UriRef, Resource)} support
+ * {@link Iterator#remove()} and fail fast with a
+ * {@link ConcurrentModificationException} if the collection is modified by
+ * other means.<p>
+ * This class is not public, implementations should use {@link CompactGraph}
+ * or {@link CompactMGraph}.
+ */
+class CompactTripleCollection extends AbstractTripleCollection implements TripleCollection {
+
+    /**
+     * The minimum number of triples in the add buffer before it is merged
+     * with the indexes.
+     */
+    private static final int MIN_BUFFER_SIZE = 256;
+    /**
+     * Used for values not set in filter requests. Valid ids are
+     * <code>&gt;= 0</code>
+     */
+    private static final int NONE = -1;
+    /*
+     * Component offsets of the indexes
+     */
+    private static final int S = 0;
+    private static final int P = 1;
+    private static final int O = 2;
+
+    /**
+     * Maps {@link Resource}s to ids
+     */
+    private final Map<Resource,Integer> ids = new HashMap<Resource,Integer>();
+    /**
+     * Maps ids to {@link Resource}s
+     */
+    private Resource[] resources = new Resource[64];
+    /**
+     * The number of {@link Resource}s in the dictionary
+     */
+    private int resourceCount = 0;
+
+    private final Index spo = new Index(S, P, O);
+    private final Index pos = new Index(P, O, S);
+    private final Index osp = new Index(O, S, P);
+    /**
+     * Triples not yet merged with the indexes (sorted in SPO order)
+     */
+    private int[] buffer = new int[MIN_BUFFER_SIZE * 3];
+    /**
+     * The number of triples in the {@link #buffer}
+     */
+    private int bufferSize = 0;
+    /**
+     * Incremented on every modification. Used by iterators to detect
+     * concurrent modifications
+     */
+    private int modCount = 0;
+
+    /**
+     * Creates an empty {@link CompactTripleCollection}
+     */
+    public CompactTripleCollection() {
+        super();
+    }
+
+    /**
+     * Creates a {@link CompactTripleCollection} using the passed iterator, the
+     * iterator is consumed before the constructor returns
+     *
+     * @param iterator
+     */
+    public CompactTripleCollection(Iterator<Triple> iterator) {
+        super();
+        int[] triples = new int[MIN_BUFFER_SIZE * 3];
+        int size = 0;
+        while (iterator.hasNext()) {
+            if(size * 3 == triples.length){
+                triples = Arrays.copyOf(triples, triples.length * 2);
+            }
+            encode(iterator.next(), triples, size);
+            size++;
+        }
+        load(triples, size);
+    }
+
+    /**
+     * Creates a {@link CompactTripleCollection} for the specified collection
+     * of triples, subsequent modification of baseSet do not affect the
+     * created instance.
+     *
+     * @param baseCollection the triples
+     */
+    public CompactTripleCollection(Collection<Triple> baseCollection) {
+        super();
+        int[] triples = new int[Math.max(1, baseCollection.size()) * 3];
+        int size = 0;
+        for(Triple triple : baseCollection){
+            if(size * 3 == triples.length){ //in case the collection was modified
+                triples = Arrays.copyOf(triples, triples.length * 2);
+            }
+            encode(triple, triples, size);
+            size++;
+        }
+        load(triples, size);
+    }
+
+    /**
+     * Initialises the indexes with the parsed triples
+     * @param triples the triples (in SPO order, may contain duplicates)
+     * @param size the number of triples
+     */
+    private void load(int[] triples, int size) {
+        sort(triples, size);
+        //remove duplicates
+        int unique = 0;
+        for(int i = 0; i < size; i++){
+            if(unique == 0 || compare(triples, (unique - 1) * 3, triples, i * 3) != 0){
+                if(unique != i){
+                    System.arraycopy(triples, i * 3, triples, unique * 3, 3);
+                }
+                unique++;
+            }
+        }
+        spo.data = unique * 3 == triples.length ? triples : Arrays.copyOf(triples, unique * 3);
+        spo.size = unique;
+        pos.data = spo.reorder(spo.data, unique, pos);
+        pos.size = unique;
+        sort(pos.data, unique);
+        osp.data = spo.reorder(spo.data, unique, osp);
+        osp.size = unique;
+        sort(osp.data, unique);
+    }
+
+    @Override
+    protected Iterator<Triple> performFilter(final NonLiteral subject, final UriRef predicate, final Resource object) {
+        int s = NONE;
+        int p = NONE;
+        int o = NONE;
+        if(subject != null && (s = getId(subject)) == NONE ||
+                predicate != null && (p = getId(predicate)) == NONE ||
+                object != null && (o = getId(object)) == NONE){
+            //one of the parsed resources is not used by any triple
+            return Collections.<Triple>emptyList().iterator();
+        }
+        if(s != NONE){
+            if(o == NONE || p != NONE){ //[S,n,n], [S,P,n], [S,P,O]
+                return createIterator(spo, s, p, o, s, p, o);
+            } else { //[S,n,O]
+                return createIterator(osp, o, s, NONE, s, p, o);
+            }
+        } else if(p != NONE){ //[n,P,n], [n,P,O]
+            return createIterator(pos, p, o, NONE, s, p, o);
+        } else if(o != NONE){ //[n,n,O]
+            return createIterator(osp, o, NONE, NONE, s, p, o);
+        } else { //[n,n,n]
+            return createIterator(spo, NONE, NONE, NONE, s, p, o);
+        }
+    }
+
+    @Override
+    protected boolean performAdd(Triple triple) {
+        int s = addId(triple.getSubject());
+        int p = addId(triple.getPredicate());
+        int o = addId(triple.getObject());
+        int index = spo.indexOf(s, p, o);
+        if(index >= 0){
+            if(!spo.deleted.get(index)){
+                return false; //already present
+            }
+            //re-add a deleted triple
+            spo.undelete(index);
+            pos.undelete(pos.indexOf(p, o, s));
+            osp.undelete(osp.indexOf(o, s, p));
+            modCount++;
+            return true;
+        }
+        int insert = bufferIndexOf(s, p, o);
+        if(insert >= 0){
+            return false; //already present
+        }
+        if(bufferSize >= Math.max(MIN_BUFFER_SIZE, (int)Math.sqrt(spo.size))){
+            flush();
+            insert = -1; //insert at the start of the empty buffer
+        }
+        insert = -(insert + 1); //the insertion point
+        if((bufferSize + 1) * 3 > buffer.length){
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        System.arraycopy(buffer, insert * 3, buffer, (insert + 1) * 3, (bufferSize - insert) * 3);
+        buffer[insert * 3] = s;
+        buffer[insert * 3 + 1] = p;
+        buffer[insert * 3 + 2] = o;
+        bufferSize++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    protected boolean performRemove(Triple triple) {
+        int s = getId(triple.getSubject());
+        int p = getId(triple.getPredicate());
+        int o = getId(triple.getObject());
+        if(s == NONE || p == NONE || o == NONE){
+            return false;
+        }
+        if(remove(s, p, o)){
+            modCount++;
+            return true;
+        } else {
+            return false;
+        }
+    }
+    /**
+     * Removes the triple with the parsed ids
+     * @return if the triple was removed
+     */
+    private boolean remove(int s, int p, int o){
+        int index = spo.indexOf(s, p, o);
+        if(index >= 0){
+            if(spo.deleted.get(index)){
+                return false;
+            }
+            spo.delete(index);
+            pos.delete(pos.indexOf(p, o, s));
+            osp.delete(osp.indexOf(o, s, p));
+            return true;
+        }
+        index = bufferIndexOf(s, p, o);
+        if(index >= 0){
+            System.arraycopy(buffer, (index + 1) * 3, buffer, index * 3, (bufferSize - index - 1) * 3);
+            bufferSize--;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if(!(o instanceof Triple)){
+            return false;
+        }
+        Triple triple = (Triple)o;
+        int s = getId(triple.getSubject());
+        int p = getId(triple.getPredicate());
+        int ob = getId(triple.getObject());
+        if(s == NONE || p == NONE || ob == NONE){
+            return false;
+        }
+        int index = spo.indexOf(s, p, ob);
+        return index >= 0 ? !spo.deleted.get(index) : bufferIndexOf(s, p, ob) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return spo.size - spo.deletedCount + bufferSize;
+    }
+
+    /**
+     * Merges the {@link #buffer} with the indexes. Deleted triples are
+     * removed from the indexes by this operation.<p>
+     * NOTE: This changes the positions of triples within the indexes. This
+     * is only allowed if there are no valid iterators (iterators where no
+     * concurrent modification happened since their creation). This is the
+     * case as this is only called while a triple is added.
+     */
+    private void flush(){
+        if(bufferSize > 0){
+            spo.merge(buffer, bufferSize);
+            pos.merge(spo.reorder(buffer, bufferSize, pos), bufferSize);
+            osp.merge(spo.reorder(buffer, bufferSize, osp), bufferSize);
+            bufferSize = 0;
+            if(buffer.length > MIN_BUFFER_SIZE * 3 * 16){ //release memory
+                buffer = new int[MIN_BUFFER_SIZE * 3];
+            }
+        }
+    }
+    /**
+     * Binary search in the {@link #buffer}
+     * @return the index or <code>-(insertionPoint + 1)</code> if not present
+     */
+    private int bufferIndexOf(int s, int p, int o){
+        return binarySearch(buffer, bufferSize, s, p, o);
+    }
+
+    private int getId(Resource resource){
+        Integer id = ids.get(resource);
+        return id == null ? NONE : id.intValue();
+    }
+
+    private int addId(Resource resource){
+        Integer id = ids.get(resource);
+        if(id == null){
+            if(resourceCount == resources.length){
+                resources = Arrays.copyOf(resources, resources.length * 2);
+            }
+            id = Integer.valueOf(resourceCount);
+            resources[resourceCount] = resource;
+            resourceCount++;
+            ids.put(resource, id);
+        }
+        return id.intValue();
+    }
+    /**
+     * Encodes the parsed triple to the parsed array
+     */
+    private void encode(Triple triple, int[] triples, int index){
+        triples[index * 3] = addId(triple.getSubject());
+        triples[index * 3 + 1] = addId(triple.getPredicate());
+        triples[index * 3 + 2] = addId(triple.getObject());
+    }
+
+    /**
+     * Creates an iterator over all (not deleted) triples in the parsed index
+     * that start with the parsed values followed by all triples in the
+     * {@link #buffer} that match the parsed subject, predicate and object.
+     * Parse {@link #NONE} for wildcards. Wildcards are only supported at the
+     * end of the index values.
+     */
+    private Iterator<Triple> createIterator(final Index index, int k0, int k1, int k2,
+                                            final int s, final int p, final int o){
+        final int start;
+        final int end;
+        if(k0 == NONE){
+            start = 0;
+            end = index.size;
+        } else if(k1 == NONE){
+            start = index.lowerBound(k0, NONE, NONE);
+            end = index.lowerBound(k0 + 1, NONE, NONE);
+        } else if(k2 == NONE){
+            start = index.lowerBound(k0, k1, NONE);
+            end = index.lowerBound(k0, k1 + 1, NONE);
+        } else {
+            start = index.lowerBound(k0, k1, k2);
+            end = index.lowerBound(k0, k1, k2 + 1);
+        }
+        //the buffer is sorted in SPO order
+        final int bufferStart;
+        final int bufferEnd;
+        if(s == NONE || bufferSize == 0){
+            bufferStart = 0;
+            bufferEnd = bufferSize;
+        } else if(p == NONE){
+            bufferStart = lowerBound(buffer, bufferSize, s, NONE, NONE);
+            bufferEnd = lowerBound(buffer, bufferSize, s + 1, NONE, NONE);
+        } else if(o == NONE){
+            bufferStart = lowerBound(buffer, bufferSize, s, p, NONE);
+            bufferEnd = lowerBound(buffer, bufferSize, s, p + 1, NONE);
+        } else {
+            bufferStart = lowerBound(buffer, bufferSize, s, p, o);
+            bufferEnd = lowerBound(buffer, bufferSize, s, p, o + 1);
+        }
+        return new Iterator<Triple>() {
+
+            private int expectedModCount = modCount;
+            private int next = index.nextNotDeleted(start, end);
+            private int nextBuffered = nextMatchInBuffer(bufferStart, bufferEnd);
+            /**
+             * The end of the range within the buffer. Decremented if triples
+             * are removed from the buffer by this iterator
+             */
+            private int bufferedEnd = bufferEnd;
+            private int current = -1;
+            private boolean currentBuffered = false;
+
+            @Override
+            public boolean hasNext() {
+                return next < end || nextBuffered < bufferedEnd;
+            }
+
+            @Override
+            public Triple next() {
+                checkModCount();
+                if(next < end){
+                    current = next;
+                    currentBuffered = false;
+                    next = index.nextNotDeleted(next + 1, end);
+                    return createTriple(index, index.data, current * 3);
+                } else if(nextBuffered < bufferedEnd){
+                    current = nextBuffered;
+                    currentBuffered = true;
+                    nextBuffered = nextMatchInBuffer(nextBuffered + 1, bufferedEnd);
+                    return createTriple(spo, buffer, current * 3);
+                } else {
+                    throw new NoSuchElementException();
+                }
+            }
+
+            @Override
+            public void remove() {
+                if(current < 0){
+                    throw new IllegalStateException();
+                }
+                checkModCount();
+                Index order = currentBuffered ? spo : index;
+                int[] data = currentBuffered ? buffer : index.data;
+                int offset = current * 3;
+                CompactTripleCollection.this.remove(data[offset + order.sOffset],
+                    data[offset + order.pOffset], data[offset + order.oOffset]);
+                if(currentBuffered){ //the following triples in the buffer where moved
+                    bufferedEnd--;
+                    nextBuffered--;
+                }
+                current = -1;
+                modCount++;
+                expectedModCount = modCount;
+            }
+
+            private void checkModCount() {
+                if(expectedModCount != modCount){
+                    throw new ConcurrentModificationException();
+                }
+            }
+            /**
+             * @return the position of the next triple in the buffer that
+             * matches the filter or <code>end</code> if there is none
+             */
+            private int nextMatchInBuffer(int position, int end){
+                while(position < end){
+                    int offset = position * 3;
+                    if((s == NONE || buffer[offset] == s) &&
+                            (p == NONE || buffer[offset + 1] == p) &&
+                            (o == NONE || buffer[offset + 2] == o)){
+                        return position;
+                    }
+                    position++;
+                }
+                return end;
+            }
+        };
+    }
+    /**
+     * Decodes the triple at the parsed offset
+     * @param order the index defining the order of the triple components
+     * @param data the encoded triples
+     * @param offset the offset of the triple
+     */
+    private Triple createTriple(Index order, int[] data, int offset){
+        return new TripleImpl(
+            (NonLiteral)resources[data[offset + order.sOffset]],
+            (UriRef)resources[data[offset + order.pOffset]],
+            resources[data[offset + order.oOffset]]);
+    }
+
+    /**
+     * A sorted index over the encoded triples. Values are stored in the
+     * order of the index (e.g. [predicate, object, subject] for the POS
+     * index). The {@link #sOffset}, {@link #pOffset} and {@link #oOffset}
+     * are the offsets of the subject, predicate and object relative to the
+     * start of a triple.
+     */
+    private static final class Index {
+        /**
+         * the offsets of the triple components in SPO order within this index
+         */
+        private final int[] order;
+        private final int sOffset;
+        private final int pOffset;
+        private final int oOffset;
+
+        private int[] data = new int[0];
+        private int size = 0;
+        private BitSet deleted = new BitSet();
+        private int deletedCount = 0;
+
+        /**
+         * @param c0 the first component of this index
+         * @param c1 the second component of this index
+         * @param c2 the third component of this index
+         */
+        private Index(int c0, int c1, int c2){
+            this.order = new int[]{c0, c1, c2};
+            int[] offsets = new int[3];
+            offsets[c0] = 0;
+            offsets[c1] = 1;
+            offsets[c2] = 2;
+            this.sOffset = offsets[S];
+            this.pOffset = offsets[P];
+            this.oOffset = offsets[O];
+        }
+        /**
+         * Reorders triples from the order of this index to the order of the
+         * parsed index.
+         * @return a new array with the reordered (but not sorted) triples
+         */
+        private int[] reorder(int[] triples, int size, Index target){
+            int[] reordered = new int[size * 3];
+            for(int i = 0; i < size * 3; i = i + 3){
+                reordered[i] = triples[i + offset(target.order[0])];
+                reordered[i + 1] = triples[i + offset(target.order[1])];
+                reordered[i + 2] = triples[i + offset(target.order[2])];
+            }
+            return reordered;
+        }
+        /**
+         * @return the offset of the parsed triple component in this index
+         */
+        private int offset(int component){
+            return component == S ? sOffset : component == P ? pOffset : oOffset;
+        }
+
+        private int indexOf(int k0, int k1, int k2){
+            return binarySearch(data, size, k0, k1, k2);
+        }
+        /**
+         * @return the index of the first triple <code>&gt;=</code> the parsed
+         * values
+         */
+        private int lowerBound(int k0, int k1, int k2){
+            return CompactTripleCollection.lowerBound(data, size, k0, k1, k2);
+        }
+
+        private int nextNotDeleted(int index, int end){
+            if(deletedCount == 0){
+                return index;
+            }
+            int next = deleted.nextClearBit(index);
+            return next > end ? end : next;
+        }
+
+        private void delete(int index){
+            deleted.set(index);
+            deletedCount++;
+        }
+
+        private void undelete(int index){
+            deleted.clear(index);
+            deletedCount--;
+        }
+        /**
+         * Merges the parsed (unsorted) triples with this index. Deleted
+         * triples are removed.
+         * @param triples the triples to merge (in the order of this index).
+         * MUST NOT contain triples already present in this index.
+         * @param num the number of triples
+         */
+        private void merge(int[] triples, int num){
+            if(order[0] == S && order[1] == P){
+                //the buffer is already sorted in SPO order
+            } else {
+                sort(triples, num);
+            }
+            int[] merged = new int[(size - deletedCount + num) * 3];
+            int i = nextNotDeleted(0, size);
+            int j = 0;
+            int m = 0;
+            while(i < size || j < num){
+                if(j >= num || (i < size && compare(data, i * 3, triples, j * 3) < 0)){
+                    System.arraycopy(data, i * 3, merged, m, 3);
+                    i = nextNotDeleted(i + 1, size);
+                } else {
+                    System.arraycopy(triples, j * 3, merged, m, 3);
+                    j++;
+                }
+                m = m + 3;
+            }
+            data = merged;
+            size = merged.length / 3;
+            if(deletedCount > 0){
+                deleted = new BitSet();
+                deletedCount = 0;
+            }
+        }
+    }
+
+    /*
+     * Static utilities for int[] encoded triples
+     */
+
+    /**
+     * Compares the triple at offset <code>a</code> in <code>aData</code> with
+     * the triple at offset <code>b</code> in <code>bData</code>
+     */
+    private static int compare(int[] aData, int a, int[] bData, int b){
+        for(int i = 0; i < 3; i++){
+            int av = aData[a + i];
+            int bv = bData[b + i];
+            if(av != bv){
+                return av < bv ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+    /**
+     * Binary search over the sorted triples. {@link #NONE} can be used for
+     * k1 and k2 as it is smaller than any valid id.
+     * @return the index or <code>-(insertionPoint + 1)</code> if not present
+     */
+    private static int binarySearch(int[] data, int size, int k0, int k1, int k2){
+        int low = 0;
+        int high = size - 1;
+        while(low <= high){
+            int mid = (low + high) >>> 1;
+            int offset = mid * 3;
+            int c = data[offset] != k0 ? (data[offset] < k0 ? -1 : 1) :
+                data[offset + 1] != k1 ? (data[offset + 1] < k1 ? -1 : 1) :
+                    data[offset + 2] != k2 ? (data[offset + 2] < k2 ? -1 : 1) : 0;
+            if(c < 0){
+                low = mid + 1;
+            } else if(c > 0){
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+    /**
+     * @return the index of the first triple <code>&gt;=</code> the parsed
+     * values
+     */
+    private static int lowerBound(int[] data, int size, int k0, int k1, int k2){
+        int index = binarySearch(data, size, k0, k1, k2);
+        return index >= 0 ? index : -(index + 1);
+    }
+    /**
+     * Sorts the first <code>size</code> triples of the parsed array by using
+     * a merge sort over the triple indexes.
+     */
+    private static void sort(int[] triples, int size){
+        if(size < 2){
+            return;
+        }
+        int[] order = new int[size];
+        for(int i = 0; i < size; i++){
+            order[i] = i;
+        }
+        int[] tmp = new int[size];
+        for(int width = 1; width < size; width = width * 2){
+            for(int low = 0; low < size - width; low = low + width * 2){
+                int mid = low + width;
+                int high = Math.min(low + width * 2, size);
+                if(compare(triples, order[mid - 1] * 3, triples, order[mid] * 3) <= 0){
+                    continue; //already in order
+                }
+                int i = low;
+                int j = mid;
+                int k = low;
+                while(i < mid && j < high){
+                    tmp[k++] = compare(triples, order[i] * 3, triples, order[j] * 3) <= 0 ?
+                            order[i++] : order[j++];
+                }
+                while(i < mid){
+                    tmp[k++] = order[i++];
+                }
+                while(j < high){
+                    tmp[k++] = order[j++];
+                }
+                System.arraycopy(tmp, low, order, low, high - low);
+            }
+        }
+        int[] sorted = new int[size * 3];
+        for(int i = 0; i < size; i++){
+            System.arraycopy(triples, order[i] * 3, sorted, i * 3, 3);
+        }
+        System.arraycopy(sorted, 0, triples, 0, size * 3);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.commons.indexedgraph;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.clerezza.rdf.core.MGraph;
+import org.apache.clerezza.rdf.core.Resource;
+import org.apache.clerezza.rdf.core.Triple;
+import org.apache.clerezza.rdf.core.UriRef;
+import org.apache.clerezza.rdf.core.impl.PlainLiteralImpl;
+import org.apache.clerezza.rdf.core.impl.TripleImpl;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the memory usage and the performance of the {@link CompactMGraph}
+ * with the {@link IndexedMGraph} for loading triples and for a workload that
+ * alternately adds and filters triples. Only executed with the
+ * <code>benchmark</code> profile (<code>mvn test -P benchmark</code>).
+ */
+public class CompactGraphBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(CompactGraphBenchmark.class);
+
+    private static final int GRAPH_SIZE = 500000;
+    private static final int INTERLEAVED_SIZE = 100000;
+
+    @Test
+    public void benchmarkMemory() {
+        List<Triple> triples = createTriples(GRAPH_SIZE, 42);
+        log.info("Memory usage for {} triples", triples.size());
+        long before = usedMemory();
+        long start = System.currentTimeMillis();
+        MGraph indexed = new IndexedMGraph(triples);
+        long duration = System.currentTimeMillis() - start;
+        log.info("  ... {}: {}MB (load: {}ms)", new Object[]{indexed.getClass().getSimpleName(),
+                (usedMemory() - before) / (1024 * 1024), duration});
+        before = usedMemory();
+        start = System.currentTimeMillis();
+        MGraph compact = new CompactMGraph(triples);
+        duration = System.currentTimeMillis() - start;
+        log.info("  ... {}: {}MB (load: {}ms)", new Object[]{compact.getClass().getSimpleName(),
+                (usedMemory() - before) / (1024 * 1024), duration});
+        Assert.assertEquals(indexed.size(), compact.size());
+    }
+
+    @Test
+    public void benchmarkInterleavedAddAndFilter() {
+        List<Triple> triples = createTriples(INTERLEAVED_SIZE, 42);
+        log.info("Add and filter {} triples", triples.size());
+        long indexedResults = addAndFilter(new IndexedMGraph(), triples);
+        long compactResults = addAndFilter(new CompactMGraph(), triples);
+        Assert.assertEquals(indexedResults, compactResults);
+    }
+
+    /**
+     * Adds the parsed triples and filters for the subject of the added
+     * triple after every add.
+     * @return the number of filter results
+     */
+    private long addAndFilter(MGraph graph, List<Triple> triples) {
+        long results = 0;
+        long start = System.currentTimeMillis();
+        for(Triple triple : triples){
+            graph.add(triple);
+            Iterator<Triple> it = graph.filter(triple.getSubject(), null, null);
+            while(it.hasNext()){
+                it.next();
+                results++;
+            }
+        }
+        log.info("  ... {}: {}ms ({} results)", new Object[]{graph.getClass().getSimpleName(),
+                System.currentTimeMillis() - start, results});
+        return results;
+    }
+
+    private static List<Triple> createTriples(int size, long seed) {
+        Random rnd = new Random(seed);
+        int resources = size / 5;
+        List<Triple> triples = new ArrayList<Triple>(size);
+        for(int i = 0; i < size; i++){
+            UriRef subject = new UriRef("http://www.test.org/resource" + rnd.nextInt(resources));
+            UriRef predicate = new UriRef("http://www.test.org/property" + rnd.nextInt(20));
+            Resource object = rnd.nextBoolean() ?
+                    new UriRef("http://www.test.org/resource" + rnd.nextInt(resources)) :
+                        new PlainLiteralImpl("literal value " + rnd.nextInt(resources));
+            triples.add(new TripleImpl(subject, predicate, object));
+        }
+        return triples;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for(int i = 0; i < 3; i++){
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,210 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.commons.indexedgraph;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.clerezza.rdf.core.BNode;
+import org.apache.clerezza.rdf.core.MGraph;
+import org.apache.clerezza.rdf.core.NonLiteral;
+import org.apache.clerezza.rdf.core.Resource;
+import org.apache.clerezza.rdf.core.Triple;
+import org.apache.clerezza.rdf.core.TripleCollection;
+import org.apache.clerezza.rdf.core.UriRef;
+import org.apache.clerezza.rdf.core.impl.PlainLiteralImpl;
+import org.apache.clerezza.rdf.core.impl.TripleImpl;
+import org.apache.clerezza.rdf.core.test.MGraphTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompactGraphTest extends MGraphTest {
+
+    private UriRef uriRef1 = new UriRef("http://example.org/foo");
+    private UriRef uriRef2 = new UriRef("http://example.org/bar");
+    private UriRef uriRef3 = new UriRef("http://example.org/test");
+    private Triple triple1 = new TripleImpl(uriRef1, uriRef2, uriRef3);
+    private Triple triple2 = new TripleImpl(uriRef2, uriRef2, uriRef1);
+    private Triple triple3 = new TripleImpl(uriRef3, uriRef1, uriRef3);
+    private Triple triple4 = new TripleImpl(uriRef1, uriRef3, uriRef2);
+    private Triple triple5 = new TripleImpl(uriRef2, uriRef3, uriRef2);
+
+    @Override
+    protected MGraph getEmptyMGraph() {
+        return new CompactMGraph();
+    }
+
+    @Test
+    public void iteratorRemove() {
+        TripleCollection ctc = createTestCollection();
+        Iterator<Triple> iter = ctc.iterator();
+        while (iter.hasNext()) {
+            iter.next();
+            iter.remove();
+        }
+        Assert.assertEquals(0, ctc.size());
+    }
+
+    @Test
+    public void removeAll() {
+        TripleCollection ctc = createTestCollection();
+        TripleCollection ctc2 = new CompactTripleCollection();
+        ctc2.add(triple1);
+        ctc2.add(triple3);
+        ctc2.add(triple5);
+        ctc.removeAll(ctc2);
+        Assert.assertEquals(2, ctc.size());
+    }
+
+    @Test
+    public void filterIteratorRemove() {
+        TripleCollection ctc = createTestCollection();
+        Iterator<Triple> iter = ctc.filter(uriRef1, null, null);
+        while (iter.hasNext()) {
+            iter.next();
+            iter.remove();
+        }
+        Assert.assertEquals(3, ctc.size());
+    }
+
+    @Test(expected=ConcurrentModificationException.class)
+    public void remove() {
+        TripleCollection ctc = createTestCollection();
+        Iterator<Triple> iter = ctc.filter(uriRef1, null, null);
+        while (iter.hasNext()) {
+            Triple triple = iter.next();
+            ctc.remove(triple);
+        }
+        Assert.assertEquals(3, ctc.size());
+    }
+    /**
+     * Tests that triples removed and added again are correctly handled
+     * by the deleted markers and the add buffer
+     */
+    @Test
+    public void removeAndAdd() {
+        //load the triples directly into the indexes
+        TripleCollection ctc = new CompactTripleCollection(createTestCollection());
+        Assert.assertTrue(ctc.remove(triple1));
+        Assert.assertFalse(ctc.contains(triple1));
+        Assert.assertFalse(ctc.filter(uriRef1, uriRef2, uriRef3).hasNext());
+        Assert.assertTrue(ctc.add(triple1));
+        Assert.assertFalse(ctc.add(triple1));
+        Assert.assertTrue(ctc.filter(uriRef1, uriRef2, uriRef3).hasNext());
+        BNode bNode = new BNode();
+        Assert.assertTrue(ctc.add(new TripleImpl(bNode, uriRef1, uriRef2)));
+        Assert.assertTrue(ctc.remove(new TripleImpl(bNode, uriRef1, uriRef2)));
+        Assert.assertEquals(5, ctc.size());
+        Assert.assertFalse(ctc.filter(bNode, null, null).hasNext());
+    }
+
+    /**
+     * Alternately adds, removes and filters triples and validates the
+     * results against a {@link HashSet}. Most of the added triples are still
+     * in the add buffer when filter requests are processed.
+     */
+    @Test
+    public void filterBufferedTriples() {
+        Random rnd = new Random(42);
+        List<Triple> initial = new ArrayList<Triple>();
+        for(int i = 0; i < 2000; i++){
+            initial.add(createTriple(rnd));
+        }
+        TripleCollection ctc = new CompactTripleCollection(initial);
+        Set<Triple> expected = new HashSet<Triple>(initial);
+        for(int i = 0; i < 2000; i++){
+            Triple triple = createTriple(rnd);
+            Assert.assertEquals(expected.add(triple), ctc.add(triple));
+            if(i % 7 == 0){
+                triple = createTriple(rnd);
+                Assert.assertEquals(expected.remove(triple), ctc.remove(triple));
+            }
+            Triple pattern = createTriple(rnd);
+            NonLiteral s = rnd.nextBoolean() ? pattern.getSubject() : null;
+            UriRef p = rnd.nextBoolean() ? pattern.getPredicate() : null;
+            Resource o = rnd.nextBoolean() ? pattern.getObject() : null;
+            Set<Triple> results = new HashSet<Triple>();
+            Iterator<Triple> it = ctc.filter(s, p, o);
+            while(it.hasNext()){
+                Assert.assertTrue(results.add(it.next()));
+            }
+            Assert.assertEquals(filter(expected, s, p, o), results);
+            Assert.assertEquals(expected.size(), ctc.size());
+        }
+    }
+
+    /**
+     * Removes triples that are partly in the indexes and partly in the add
+     * buffer by using the filter iterator
+     */
+    @Test
+    public void filterIteratorRemoveBuffered() {
+        //load the triples directly into the indexes
+        TripleCollection ctc = new CompactTripleCollection(createTestCollection());
+        BNode bNode = new BNode();
+        ctc.add(new TripleImpl(uriRef1, uriRef1, bNode));
+        ctc.add(new TripleImpl(uriRef2, uriRef1, bNode));
+        ctc.add(new TripleImpl(uriRef1, uriRef2, bNode));
+        Iterator<Triple> iter = ctc.filter(uriRef1, null, null);
+        int removed = 0;
+        while (iter.hasNext()) {
+            iter.next();
+            iter.remove();
+            removed++;
+        }
+        Assert.assertEquals(4, removed);
+        Assert.assertFalse(ctc.filter(uriRef1, null, null).hasNext());
+        Assert.assertEquals(4, ctc.size());
+        Assert.assertTrue(ctc.contains(new TripleImpl(uriRef2, uriRef1, bNode)));
+    }
+
+    private static Set<Triple> filter(Set<Triple> triples, NonLiteral s, UriRef p, Resource o){
+        Set<Triple> results = new HashSet<Triple>();
+        for(Triple triple : triples){
+            if((s == null || s.equals(triple.getSubject())) &&
+                    (p == null || p.equals(triple.getPredicate())) &&
+                    (o == null || o.equals(triple.getObject()))){
+                results.add(triple);
+            }
+        }
+        return results;
+    }
+
+    private static Triple createTriple(Random rnd){
+        UriRef subject = new UriRef("http://www.test.org/subject" + rnd.nextInt(50));
+        UriRef predicate = new UriRef("http://www.test.org/predicate" + rnd.nextInt(5));
+        Resource object = rnd.nextBoolean() ?
+                new UriRef("http://www.test.org/subject" + rnd.nextInt(50)) :
+                    new PlainLiteralImpl("literal " + rnd.nextInt(50));
+        return new TripleImpl(subject, predicate, object);
+    }
+
+    private TripleCollection createTestCollection() {
+        TripleCollection ctc = new CompactTripleCollection();
+        ctc.add(triple1);
+        ctc.add(triple2);
+        ctc.add(triple3);
+        ctc.add(triple4);
+        ctc.add(triple5);
+        return ctc;
+    }
+}
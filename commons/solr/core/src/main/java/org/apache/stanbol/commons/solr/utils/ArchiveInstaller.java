@@ -0,0 +1,323 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.commons.solr.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Installs the data of a Solr core from an {@link ArchiveInputStream}.<p>
+ * In contrast to {@link ConfigUtils#copyCore(ArchiveInputStream, File, String, boolean)}
+ * this uses a pipeline of two threads: the calling thread reads (and
+ * decompresses) the archive while a writer thread writes the data to the
+ * files within the core directory. The amount of data in the pipeline is
+ * bounded to {@link #CHUNK_SIZE} * {@link #MAX_PENDING_CHUNKS} bytes.<p>
+ * Files are written to a temporary '<code>{name}.part</code>' file and
+ * renamed after all data are written. This allows to resume the
+ * installation into a partially installed core directory: Files that
+ * already exist (and have the size of the archive entry if known) are
+ * skipped.<p>
+ * The progress of the installation is reported to the
+ * {@link ProgressListener}.
+ */
+public final class ArchiveInstaller {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveInstaller.class);
+
+    /**
+     * The suffix used for files currently written
+     */
+    public static final String PART_SUFFIX = ".part";
+    /**
+     * The size of the chunks passed from the reading to the writing thread
+     */
+    public static final int CHUNK_SIZE = 1024 * 1024;
+    /**
+     * The maximum number of chunks in the pipeline
+     */
+    public static final int MAX_PENDING_CHUNKS = 32;
+    /**
+     * The minimum interval in milliseconds between two calls to
+     * {@link ProgressListener#progress(int, long)}
+     */
+    private static final long PROGRESS_INTERVAL = 5000;
+
+    /**
+     * Listener for the progress of an installation
+     */
+    public static interface ProgressListener {
+        /**
+         * Called periodically and after the installation has completed
+         * @param files the number of installed files (including skipped
+         * files of a resumed installation)
+         * @param bytes the number of installed bytes
+         */
+        void progress(int files, long bytes);
+    }
+
+    private final File coreDir;
+    private final String coreName;
+    private final ProgressListener listener;
+
+    /**
+     * Creates an installer for the parsed core directory
+     * @param coreDir the core directory. Created if it does not exist.
+     * Existing directories are used to resume an installation
+     * @param coreName the name of the core (used as context when reading
+     * relative paths from the archive)
+     * @param listener the listener or <code>null</code> if none
+     */
+    public ArchiveInstaller(File coreDir, String coreName, ProgressListener listener) {
+        if (coreDir == null) {
+            throw new IllegalArgumentException("The parsed core directory MUST NOT be NULL!");
+        }
+        if (coreDir.exists() && !coreDir.isDirectory()) {
+            throw new IllegalStateException("The parsed core directory " + coreDir.getAbsolutePath()
+                                            + " extists but is not a directory!");
+        }
+        if (coreName == null || coreName.isEmpty()) {
+            throw new IllegalArgumentException("The parsed core name MUST NOT be NULL or empty!");
+        }
+        this.coreDir = coreDir;
+        this.coreName = coreName;
+        this.listener = listener;
+    }
+
+    /**
+     * Installs the data of the parsed archive
+     * @param ais the archive (not closed by this method)
+     * @throws IOException on any error while reading the archive or writing
+     * the data
+     */
+    public void install(ArchiveInputStream ais) throws IOException {
+        if (ais == null) {
+            throw new IllegalArgumentException("The parsed ArchiveInputStream MUST NOT be NULL!");
+        }
+        long start = System.currentTimeMillis();
+        ChunkWriter writer = new ChunkWriter();
+        Thread writerThread = new Thread(writer, "Solr core installer (core: " + coreName + ")");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        int skipped = 0;
+        try {
+            ArchiveEntry entry;
+            while ((entry = ais.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue; // directories are created automatically
+                }
+                File file = ConfigUtils.prepairCopy(entry.getName(), coreDir, coreName);
+                if (file == null) {
+                    continue; // logging already provided
+                }
+                if (file.isFile() && (entry.getSize() < 0 || entry.getSize() == file.length())) {
+                    // already installed by a previous (interrupted) installation
+                    skipped++;
+                    writer.enqueue(new Chunk(file, null, 0, true));
+                    continue; // the data of the entry are skipped by getNextEntry()
+                }
+                boolean last;
+                do {
+                    byte[] buffer = writer.takeBuffer();
+                    int len = fill(ais, buffer);
+                    last = len < buffer.length;
+                    writer.enqueue(new Chunk(file, buffer, len, last));
+                } while (!last);
+            }
+            writer.enqueue(Chunk.END);
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException ie = new InterruptedIOException(
+                    "Interrupted while installing core " + coreName + " to " + coreDir);
+            ie.initCause(e);
+            throw ie;
+        } finally {
+            if (writerThread.isAlive()) { // on errors while reading the archive
+                writerThread.interrupt();
+            }
+        }
+        writer.checkError();
+        writer.notifyProgress();
+        log.info("installed {} files ({} bytes, {} skipped) of core {} to {} in {}ms",
+            new Object[] {writer.files, writer.bytes, skipped, coreName, coreDir,
+                          System.currentTimeMillis() - start});
+    }
+
+    /**
+     * Reads data until the buffer is full or the end of the stream is reached
+     * @return the number of bytes read
+     */
+    private static int fill(InputStream in, byte[] buffer) throws IOException {
+        int len = 0;
+        int read;
+        while (len < buffer.length && (read = in.read(buffer, len, buffer.length - len)) >= 0) {
+            len += read;
+        }
+        return len;
+    }
+
+    /**
+     * A chunk of data for a file
+     */
+    private static final class Chunk {
+
+        static final Chunk END = new Chunk(null, null, 0, true);
+
+        final File file;
+        /**
+         * the data or <code>null</code> if the file is already installed
+         */
+        final byte[] data;
+        final int len;
+        final boolean last;
+
+        Chunk(File file, byte[] data, int len, boolean last) {
+            this.file = file;
+            this.data = data;
+            this.len = len;
+            this.last = last;
+        }
+    }
+
+    /**
+     * Writes the chunks to the files. Buffers are recycled.
+     */
+    private final class ChunkWriter implements Runnable {
+
+        private final BlockingQueue<Chunk> queue = new ArrayBlockingQueue<Chunk>(MAX_PENDING_CHUNKS);
+        private final BlockingQueue<byte[]> buffers = new ArrayBlockingQueue<byte[]>(MAX_PENDING_CHUNKS);
+        private int allocated;
+        private volatile IOException error;
+        private volatile int files;
+        private volatile long bytes;
+        private long lastProgress = System.currentTimeMillis();
+
+        /**
+         * Getter for an empty buffer. Blocks if {@link #MAX_PENDING_CHUNKS}
+         * are in the pipeline
+         */
+        byte[] takeBuffer() throws InterruptedException, IOException {
+            checkError();
+            byte[] buffer = buffers.poll();
+            if (buffer == null) {
+                if (allocated < MAX_PENDING_CHUNKS) {
+                    allocated++;
+                    buffer = new byte[CHUNK_SIZE];
+                } else {
+                    buffer = buffers.take();
+                }
+            }
+            return buffer;
+        }
+
+        void enqueue(Chunk chunk) throws InterruptedException, IOException {
+            checkError();
+            queue.put(chunk);
+        }
+
+        void checkError() throws IOException {
+            if (error != null) {
+                throw new IOException("Unable to write data of core " + coreName + " to "
+                                      + coreDir, error);
+            }
+        }
+
+        void notifyProgress() {
+            if (listener != null) {
+                try {
+                    listener.progress(files, bytes);
+                } catch (RuntimeException e) {
+                    log.warn("Exception while notifying progress of core " + coreName
+                             + " installation", e);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            File current = null;
+            File part = null;
+            OutputStream out = null;
+            try {
+                Chunk chunk;
+                while ((chunk = queue.take()) != Chunk.END) {
+                    if (error != null) { // consume chunks until END
+                        if (chunk.data != null) {
+                            buffers.offer(chunk.data);
+                        }
+                        continue;
+                    }
+                    try {
+                        if (chunk.data == null) { // already installed
+                            bytes += chunk.file.length();
+                        } else {
+                            if (!chunk.file.equals(current)) {
+                                current = chunk.file;
+                                part = new File(current.getParentFile(), current.getName() + PART_SUFFIX);
+                                out = FileUtils.openOutputStream(part);
+                            }
+                            out.write(chunk.data, 0, chunk.len);
+                            bytes += chunk.len;
+                            buffers.offer(chunk.data);
+                        }
+                        if (chunk.last) {
+                            if (chunk.data != null) {
+                                out.close();
+                                out = null;
+                                if (current.exists()) { // incomplete file of a previous installation
+                                    FileUtils.forceDelete(current);
+                                }
+                                if (!part.renameTo(current)) {
+                                    throw new IOException("Unable to rename " + part + " to " + current);
+                                }
+                                log.debug(" > copy {}", current);
+                                current = null;
+                            }
+                            files++;
+                            long now = System.currentTimeMillis();
+                            if (now - lastProgress > PROGRESS_INTERVAL) {
+                                lastProgress = now;
+                                notifyProgress();
+                            }
+                        }
+                    } catch (IOException e) {
+                        error = e;
+                        IOUtils.closeQuietly(out);
+                        out = null;
+                    }
+                }
+            } catch (InterruptedException e) {
+                // reading the archive failed
+                log.debug("installation of core {} to {} interrupted", coreName, coreDir);
+            } finally {
+                IOUtils.closeQuietly(out);
+            }
+        }
+    }
+}
@@ -386,7 +386,7 @@ public final class ConfigUtils {
      * @return the file representing the resource within the target directory. In cases the context can not be
      *         found in the parsed resource this method returns <code>null</code>
      */
-    private static File prepairCopy(String resource, File targetDir, String context) throws IOException {
+    static File prepairCopy(String resource, File targetDir, String context) throws IOException {
         context = FilenameUtils.separatorsToSystem(context);
         if (!(context.charAt(context.length() - 1) == File.separatorChar)) {
             context = context + File.separatorChar;
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.commons.solr.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests installing and resuming the installation of Solr cores with the
+ * {@link ArchiveInstaller}
+ */
+public class ArchiveInstallerTest {
+
+    private static final String CORE_NAME = "testcore";
+
+    private File coreDir;
+    /**
+     * The files of the test archive (relative to the core directory)
+     */
+    private final Map<String,byte[]> files = new LinkedHashMap<String,byte[]>();
+    private byte[] archive;
+
+    @Before
+    public void createArchive() throws IOException {
+        coreDir = new File(System.getProperty("java.io.tmpdir"),
+            "stanbol-archive-installer-" + System.nanoTime());
+        Random random = new Random(42);
+        files.put("conf/solrconfig.xml", "<config/>".getBytes("UTF-8"));
+        files.put("conf/empty.txt", new byte[0]);
+        //larger as the chunk size to test multiple chunks per file
+        byte[] data = new byte[ArchiveInstaller.CHUNK_SIZE * 2 + 42];
+        random.nextBytes(data);
+        files.put("data/index/_0.fdt", data);
+        //exactly the chunk size
+        data = new byte[ArchiveInstaller.CHUNK_SIZE];
+        random.nextBytes(data);
+        files.put("data/index/_0.fdx", data);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ZipArchiveOutputStream zip = new ZipArchiveOutputStream(out);
+        for(Entry<String,byte[]> file : files.entrySet()){
+            zip.putArchiveEntry(new ZipArchiveEntry(CORE_NAME + '/' + file.getKey()));
+            zip.write(file.getValue());
+            zip.closeArchiveEntry();
+        }
+        zip.close();
+        archive = out.toByteArray();
+    }
+
+    @After
+    public void deleteCoreDir(){
+        FileUtils.deleteQuietly(coreDir);
+    }
+
+    private void install(ArchiveInstaller.ProgressListener listener) throws IOException {
+        ZipArchiveInputStream ais = new ZipArchiveInputStream(new ByteArrayInputStream(archive));
+        try {
+            new ArchiveInstaller(coreDir, CORE_NAME, listener).install(ais);
+        } finally {
+            ais.close();
+        }
+    }
+
+    private void assertInstalled() throws IOException {
+        for(Entry<String,byte[]> file : files.entrySet()){
+            File installed = new File(coreDir, file.getKey());
+            Assert.assertTrue(installed + " not installed", installed.isFile());
+            Assert.assertTrue(installed + " has wrong content",
+                Arrays.equals(file.getValue(), FileUtils.readFileToByteArray(installed)));
+            Assert.assertFalse(new File(coreDir, file.getKey() + ArchiveInstaller.PART_SUFFIX).exists());
+        }
+    }
+
+    @Test
+    public void testInstall() throws IOException {
+        final AtomicInteger installedFiles = new AtomicInteger();
+        final AtomicLong installedBytes = new AtomicLong();
+        install(new ArchiveInstaller.ProgressListener() {
+            @Override
+            public void progress(int files, long bytes) {
+                installedFiles.set(files);
+                installedBytes.set(bytes);
+            }
+        });
+        assertInstalled();
+        long size = 0;
+        for(byte[] data : files.values()){
+            size += data.length;
+        }
+        Assert.assertEquals(files.size(), installedFiles.get());
+        Assert.assertEquals(size, installedBytes.get());
+    }
+
+    @Test
+    public void testResume() throws IOException {
+        install(null);
+        //simulate an interrupted installation: the index files are missing
+        //and one was partially written
+        File completed = new File(coreDir, "conf/solrconfig.xml");
+        long lastModified = completed.lastModified() - 100000;
+        Assert.assertTrue(completed.setLastModified(lastModified));
+        Assert.assertTrue(new File(coreDir, "data/index/_0.fdx").delete());
+        File fdt = new File(coreDir, "data/index/_0.fdt");
+        byte[] data = files.get("data/index/_0.fdt");
+        File part = new File(coreDir, "data/index/_0.fdt" + ArchiveInstaller.PART_SUFFIX);
+        FileUtils.writeByteArrayToFile(part, Arrays.copyOf(data, 1000));
+        Assert.assertTrue(fdt.delete());
+        install(null);
+        assertInstalled();
+        //already installed files are not written again
+        Assert.assertEquals(lastModified, completed.lastModified());
+    }
+}
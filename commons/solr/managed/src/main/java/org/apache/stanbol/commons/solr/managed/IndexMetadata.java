@@ -77,6 +77,24 @@ public final class IndexMetadata extends Properties {
      * as reported by the the {@link Exception} that caused the Error
      */
     protected static final String STACK_TRACE = "Stack-Trace";
+    /**
+     * The directory the index is currently installed to. Used to resume
+     * interrupted installations
+     */
+    protected static final String INSTALL_DIRECTORY = "Install-Directory";
+    /**
+     * The archive the index is currently installed from. An interrupted
+     * installation is only resumed for the same archive.
+     */
+    protected static final String INSTALL_ARCHIVE = "Install-Archive";
+    /**
+     * The number of files installed by the current installation
+     */
+    protected static final String INSTALLED_FILES = "Installed-Files";
+    /**
+     * The number of bytes installed by the current installation
+     */
+    protected static final String INSTALLED_BYTES = "Installed-Bytes";
     
     private static List<String> EMPTY_LIST_OF_STRING = Collections.emptyList();
     
@@ -221,6 +239,78 @@ public final class IndexMetadata extends Properties {
             setProperty(DIRECTORY, directory);
         }
     }
+    /**
+     * The directory (relative to the managed directory) the index is currently
+     * installed to.
+     * @return the directory or <code>null</code> if no installation is in
+     * progress (or was interrupted)
+     */
+    public String getInstallDirectory(){
+        return getProperty(INSTALL_DIRECTORY);
+    }
+    /**
+     * The archive the index is currently installed from
+     * @return the archive or <code>null</code> if unknown or no installation
+     * is in progress (or was interrupted)
+     */
+    public String getInstallArchive(){
+        return getProperty(INSTALL_ARCHIVE);
+    }
+    /**
+     * Marks the start of an installation. Removes the progress of previous
+     * installations.
+     * @param directory the directory the index is installed to
+     * @param archive the archive the index is installed from or <code>null</code>
+     * if not known
+     */
+    public void startInstallation(String directory, String archive){
+        if(directory == null || directory.isEmpty()){
+            throw new IllegalArgumentException("The parsed directory MUST NOT be NULL nor empty!");
+        }
+        setProperty(INSTALL_DIRECTORY, directory);
+        if(archive == null){
+            remove(INSTALL_ARCHIVE);
+        } else {
+            setProperty(INSTALL_ARCHIVE, archive);
+        }
+        setInstallProgress(0, 0);
+    }
+    /**
+     * Sets the progress of the current installation
+     * @param files the number of installed files
+     * @param bytes the number of installed bytes
+     */
+    public void setInstallProgress(int files, long bytes){
+        setProperty(INSTALLED_FILES, Integer.toString(files));
+        setProperty(INSTALLED_BYTES, Long.toString(bytes));
+    }
+    /**
+     * The number of files installed by the current installation
+     * @return the number of files or <code>-1</code> if no installation is
+     * in progress
+     */
+    public int getInstalledFiles(){
+        String value = getProperty(INSTALLED_FILES);
+        return value == null ? -1 : Integer.parseInt(value);
+    }
+    /**
+     * The number of bytes installed by the current installation
+     * @return the number of bytes or <code>-1</code> if no installation is
+     * in progress
+     */
+    public long getInstalledBytes(){
+        String value = getProperty(INSTALLED_BYTES);
+        return value == null ? -1 : Long.parseLong(value);
+    }
+    /**
+     * Removes all information about the installation after it has completed
+     */
+    public void completeInstallation(){
+        remove(INSTALL_DIRECTORY);
+        remove(INSTALL_ARCHIVE);
+        remove(INSTALLED_FILES);
+        remove(INSTALLED_BYTES);
+    }
     public ManagedIndexState getState(){
         String state = getProperty(STATE);
         if(state == null){
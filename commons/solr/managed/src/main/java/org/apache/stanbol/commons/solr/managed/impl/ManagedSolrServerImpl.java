@@ -67,6 +67,8 @@ import org.apache.stanbol.commons.solr.managed.ManagedIndexState;
 import org.apache.stanbol.commons.solr.managed.ManagedSolrServer;
 import org.apache.stanbol.commons.solr.managed.standalone.ClassPathDataFileProvider;
 import org.apache.stanbol.commons.solr.managed.util.ManagementUtils;
+import org.apache.stanbol.commons.solr.utils.ArchiveInstaller;
+import org.apache.stanbol.commons.solr.utils.ArchiveInstaller.ProgressListener;
 import org.apache.stanbol.commons.solr.utils.ConfigUtils;
 import org.apache.stanbol.commons.stanboltools.datafileprovider.DataFileListener;
 import org.apache.stanbol.commons.stanboltools.datafileprovider.DataFileProvider;
@@ -562,6 +564,12 @@ public class ManagedSolrServerImpl implements ManagedSolrServer {
                             serverName),e); 
                 }
             }
+            //also delete the data of an interrupted installation
+            String installDirName = metadata.getInstallDirectory();
+            if(installDirName != null){
+                FileUtils.deleteQuietly(new File(managedSolrDir, installDirName));
+            }
+            metadata.completeInstallation();
         }
         metadata.setState(ManagedIndexState.UNINITIALISED);
     }
@@ -611,10 +619,17 @@ public class ManagedSolrServerImpl implements ManagedSolrServer {
         if(ais == null){
             throw new IOException("The parsed ArchiveInputStream MUST NOT be NULL!");
         }
+        IndexMetadata oldMetadata = managedCores.getIndexMetadata(indexName);
         IndexMetadata metadata = new IndexMetadata();
         metadata.setServerName(serverName);
         metadata.setIndexName(indexName);
         metadata.setSynchronized(false);
+        if(oldMetadata != null && oldMetadata.getState() != null){
+            metadata.setState(oldMetadata.getState()); //same as for the old version
+            metadata.setDirectory(oldMetadata.getDirectory());
+        } else { //uninitialised until the data are installed
+            metadata.setState(ManagedIndexState.UNINITIALISED);
+        }
         if (archiveCoreName != null) {
             metadata.setArchive(archiveCoreName);
         }
@@ -748,22 +763,32 @@ public class ManagedSolrServerImpl implements ManagedSolrServer {
         } else { //no old version
             currentCoreDir = null;
         }
-        String coreDirName; //the name of the "new" core directory
-        synchronized (coreSuffixDateFormat) {
-            //SimpleDateFormat is not thread save. It may fail badly on two 
-            //concurrent calls. 
-            coreDirName = coreName+'-'+coreSuffixDateFormat.format(new Date());
-        }
-        File coreDir = new File(managedSolrDir, coreDirName);
-        int count = 1;
-        while(coreDir.exists()){
-            //if this is the second call on a day ... add a count
-            //if directories get deleted directories with a higher count might
-            //be older versions than directories without or with a lower count!
-            coreDir = new File(managedSolrDir, coreDirName+"-"+count);
-            count++;
-        }
-        metadata.setDirectory(coreDir.getName()); //TODO maybe we need to call getAbsolute path
+        File coreDir = getResumableInstallDir(metadata, currentCoreDir);
+        if(coreDir != null){
+            log.info(" ... resume installation of index {} (archive: {}) to {}", 
+                new Object[]{coreName, metadata.getArchive(), coreDir});
+        } else {
+            String coreDirName; //the name of the "new" core directory
+            synchronized (coreSuffixDateFormat) {
+                //SimpleDateFormat is not thread save. It may fail badly on two 
+                //concurrent calls. 
+                coreDirName = coreName+'-'+coreSuffixDateFormat.format(new Date());
+            }
+            coreDir = new File(managedSolrDir, coreDirName);
+            int count = 1;
+            while(coreDir.exists()){
+                //if this is the second call on a day ... add a count
+                //if directories get deleted directories with a higher count might
+                //be older versions than directories without or with a lower count!
+                coreDir = new File(managedSolrDir, coreDirName+"-"+count);
+                count++;
+            }
+        }
+        //NOTE: the Directory is only set after the data are installed. Until
+        //      than the install directory is used to resume interrupted
+        //      installations
+        metadata.startInstallation(coreDir.getName(), metadata.getArchive());
+        storeInstallProgress(metadata);
         // no the initialisation/update of this core starts!
         synchronized (initCores) {
             log.debug(" > start initializing SolrIndex {}" + coreName);
@@ -774,7 +799,15 @@ public class ManagedSolrServerImpl implements ManagedSolrServer {
                 //not the third parameter (coreName) is not the name of this
                 //core, but the original name within the indexArchive
                 String archiveCoreName = getArchiveCoreName(metadata);
-                ConfigUtils.copyCore(ais, coreDir, archiveCoreName, false);
+                new ArchiveInstaller(coreDir, archiveCoreName, new ProgressListener() {
+                    @Override
+                    public void progress(int files, long bytes) {
+                        metadata.setInstallProgress(files, bytes);
+                        storeInstallProgress(metadata);
+                    }
+                }).install(ais);
+                metadata.setDirectory(coreDir.getName()); //TODO maybe we need to call getAbsolute path
+                metadata.completeInstallation();
             } catch (IOException e) {
                 e =  new IOException(String.format(
                     "Unable to copy Data for index '%s' (server '%s')",
@@ -824,6 +857,56 @@ public class ManagedSolrServerImpl implements ManagedSolrServer {
         }
     }
     
+    /**
+     * Getter for the directory of an interrupted installation of the archive
+     * currently used by the parsed index. Directories of interrupted
+     * installations of other (or synchronized) archives are deleted.
+     * @param metadata the metadata of the index
+     * @param currentCoreDir the directory of the currently active version
+     * of the index or <code>null</code> if none
+     * @return the directory to resume the installation or <code>null</code>
+     * if none
+     */
+    private File getResumableInstallDir(IndexMetadata metadata, File currentCoreDir){
+        String installDirName = metadata.getInstallDirectory();
+        if(installDirName == null){
+            return null;
+        }
+        File installDir = new File(managedSolrDir, installDirName);
+        if(!installDir.isDirectory() || installDir.equals(currentCoreDir)){
+            return null;
+        }
+        String archive = metadata.getArchive();
+        //only resume for index archives provided by the DataFileProvider. The
+        //data of synchronized archives may change without changing the name
+        if(archive != null && archive.equals(metadata.getInstallArchive()) && 
+                metadata.getIndexArchives().contains(archive) && 
+                !metadata.isSynchronized()){
+            return installDir;
+        } else { //an other archive -> delete the data of the old installation
+            log.info(" ... delete directory {} of an interrupted installation of index {} "
+                + "(archive: {})", new Object[]{installDir, metadata.getIndexName(), 
+                        metadata.getInstallArchive()});
+            FileUtils.deleteQuietly(installDir);
+            return null;
+        }
+    }
+    /**
+     * Stores the progress of the installation (if the metadata are valid).
+     * Errors are only logged as they MUST NOT stop the installation.
+     * @param metadata the metadata
+     */
+    private void storeInstallProgress(IndexMetadata metadata){
+        if(metadata.getState() == null){
+            return; //invalid metadata can not be stored
+        }
+        try {
+            managedCores.store(metadata);
+        } catch (RuntimeException e) {
+            log.warn("Unable to store installation progress for index "
+                    + metadata.getIndexName(), e);
+        }
+    }
     /**
      * Activates the core and updates the parsed metadata accordingly
      * @param metadata the metadata. Not modified by this method
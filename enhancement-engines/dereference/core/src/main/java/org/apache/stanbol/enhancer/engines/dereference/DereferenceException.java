@@ -16,18 +16,76 @@
  */
 package org.apache.stanbol.enhancer.engines.dereference;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 import org.apache.clerezza.rdf.core.UriRef;
 
 public class DereferenceException extends Exception {
     
     private static final long serialVersionUID = 1524436328783083428L;
 
+    private final Set<UriRef> failedEntities;
+    
+    private final Set<UriRef> dereferencedEntities;
+    
     public DereferenceException(UriRef entity, Throwable t){
         super("Unable to dereference Entity " + entity+ "!", t);
+        this.failedEntities = Collections.singleton(entity);
+        this.dereferencedEntities = Collections.emptySet();
     }
     public DereferenceException(UriRef entity, String reason){
         super("Unable to dereference Entity " + entity + 
             (reason != null ? ": "+ reason : "") + "!");
+        this.failedEntities = Collections.singleton(entity);
+        this.dereferencedEntities = Collections.emptySet();
+    }
+    public DereferenceException(Collection<UriRef> entities, Throwable t){
+        super("Unable to dereference Entities " + entities + "!", t);
+        this.failedEntities = unmodifiableSet(entities);
+        this.dereferencedEntities = Collections.emptySet();
+    }
+    public DereferenceException(Collection<UriRef> entities, String reason){
+        super("Unable to dereference Entities " + entities + 
+            (reason != null ? ": "+ reason : "") + "!");
+        this.failedEntities = unmodifiableSet(entities);
+        this.dereferencedEntities = Collections.emptySet();
+    }
+    /**
+     * Constructor used if only some of the requested Entities could not
+     * be dereferenced.
+     * @param failed the Entities that could not be dereferenced
+     * @param dereferenced the Entities that were dereferenced
+     * @param t the error of the first failed Entity
+     */
+    public DereferenceException(Collection<UriRef> failed, Collection<UriRef> dereferenced, Throwable t){
+        super("Unable to dereference Entities " + failed + " (dereferenced " 
+            + (dereferenced == null ? 0 : dereferenced.size()) + " others)!", t);
+        this.failedEntities = unmodifiableSet(failed);
+        this.dereferencedEntities = unmodifiableSet(dereferenced);
+    }
+    
+    private static Set<UriRef> unmodifiableSet(Collection<UriRef> entities){
+        return entities == null ? Collections.<UriRef>emptySet() :
+            Collections.unmodifiableSet(new LinkedHashSet<UriRef>(entities));
+    }
+    /**
+     * Getter for the Entities that could not be dereferenced
+     * @return the failed Entities
+     */
+    public Set<UriRef> getFailedEntities() {
+        return failedEntities;
+    }
+    /**
+     * Getter for the Entities that were dereferenced regardless of this
+     * Exception. Those are only present if dereferencing failed only
+     * for some of the requested Entities.
+     * @return the dereferenced Entities. An empty set if none
+     */
+    public Set<UriRef> getDereferencedEntities() {
+        return dereferencedEntities;
     }
 
 }
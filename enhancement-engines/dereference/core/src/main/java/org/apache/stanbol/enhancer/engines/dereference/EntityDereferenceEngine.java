@@ -32,6 +32,7 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.locks.Lock;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -62,6 +63,14 @@ public class EntityDereferenceEngine implements EnhancementEngine, ServiceProper
      * By default the EntityDereferenceEngine does use {@link ServiceProperties#ORDERING_POST_PROCESSING}
      */
     public static final int DEFAULT_ENGINE_ORDERING = ServiceProperties.ORDERING_POST_PROCESSING;
+    /**
+     * The maximum number of Entities dereferenced by a single call to
+     * {@link EntityDereferencer#dereference(java.util.Collection, MGraph, Lock, DereferenceContext)}.
+     * Referenced Entities are split into batches of this size. If the
+     * {@link EntityDereferencer} provides an {@link ExecutorService} batches
+     * are dereferenced concurrently.
+     */
+    public static final int DEREFERENCE_BATCH_SIZE = 50;
     
     /**
      * If the offline mode is enabled enforced for dereferencing Entities
@@ -257,12 +266,26 @@ public class EntityDereferenceEngine implements EnhancementEngine, ServiceProper
         ExecutorService executor = dereferencer.getExecutor();
         Set<UriRef> failedEntities = new HashSet<UriRef>();
         int dereferencedCount = 0;
-        List<DereferenceJob> dereferenceJobs = new ArrayList<DereferenceJob>(
-                referencedEntities.size());
-        if(executor != null && !executor.isShutdown()){ //dereference using executor
-            //schedule all entities to dereference
-            for(final UriRef entity : referencedEntities){
-                DereferenceJob dereferenceJob = new DereferenceJob(entity, 
+        boolean useExecutor = executor != null && !executor.isShutdown();
+        //split the entities in batches dereferenced by a single call
+        int batchSize = getBatchSize(referencedEntities.size(), useExecutor ? executor : null);
+        List<List<UriRef>> batches = new ArrayList<List<UriRef>>(
+                referencedEntities.size()/batchSize + 1);
+        List<UriRef> batch = null;
+        for(UriRef entity : referencedEntities){
+            if(batch == null || batch.size() >= batchSize){
+                batch = new ArrayList<UriRef>(Math.min(batchSize,
+                    referencedEntities.size()));
+                batches.add(batch);
+            }
+            batch.add(entity);
+        }
+        if(useExecutor){ //dereference using executor
+            List<DereferenceJob> dereferenceJobs = new ArrayList<DereferenceJob>(
+                    batches.size());
+            //schedule all batches to dereference
+            for(List<UriRef> entities : batches){
+                DereferenceJob dereferenceJob = new DereferenceJob(entities, 
                     metadata, writeLock, derefContext);
                 dereferenceJob.setFuture(executor.submit(dereferenceJob));
                 dereferenceJobs.add(dereferenceJob);
@@ -270,9 +293,7 @@ public class EntityDereferenceEngine implements EnhancementEngine, ServiceProper
             //wait for all entities to be dereferenced
             for(DereferenceJob dereferenceJob : dereferenceJobs){
                 try {
-                    if(dereferenceJob.await()){
-                        dereferencedCount++;
-                    }
+                    dereferencedCount += dereferenceJob.await().size();
                 } catch (InterruptedException e) {
                     // Restore the interrupted status
                     Thread.currentThread().interrupt();
@@ -280,29 +301,30 @@ public class EntityDereferenceEngine implements EnhancementEngine, ServiceProper
                         "Interupted while waiting for dereferencing Entities", e);
                 } catch (ExecutionException e) {
                     if(e.getCause() instanceof DereferenceException){
-                        failedEntities.add(dereferenceJob.entity);
+                        DereferenceException de = (DereferenceException)e.getCause();
+                        failedEntities.addAll(de.getFailedEntities());
+                        dereferencedCount += de.getDereferencedEntities().size();
                         log.debug(" ... error while dereferencing " 
-                            + dereferenceJob.entity + "!", e);
+                            + de.getFailedEntities() + "!", e);
                     } else { //unknown error
                         throw new EngineException(this,ci, "Unchecked Error while "
-                            + "dereferencing Entity " + dereferenceJob.entity
+                            + "dereferencing Entities " + dereferenceJob.entities
                             + "!", e);
                     }
                 }
             }
         } else { //dereference using the current thread
-            for(UriRef entity : referencedEntities){
+            for(List<UriRef> entities : batches){
                 try {
-                    log.trace("  ... dereference {}", entity);
-                    if(dereferencer.dereference(entity, metadata, writeLock, derefContext)){
-                        dereferencedCount++;
-                        log.trace("    + success");
-                    } else {
-                        log.trace("    - not found");
-                    }
+                    log.trace("  ... dereference {}", entities);
+                    Set<UriRef> dereferenced = dereferencer.dereference(
+                        entities, metadata, writeLock, derefContext);
+                    dereferencedCount += dereferenced.size();
+                    log.trace("    + dereferenced {} of {}", dereferenced.size(), entities.size());
                 } catch (DereferenceException e) {
-                    log.debug(" ... error while dereferencing " + entity + "!", e);
-                    failedEntities.add(entity);
+                    log.debug(" ... error while dereferencing " + e.getFailedEntities() + "!", e);
+                    failedEntities.addAll(e.getFailedEntities());
+                    dereferencedCount += e.getDereferencedEntities().size();
                 }
             }
         }
@@ -325,6 +347,30 @@ public class EntityDereferenceEngine implements EnhancementEngine, ServiceProper
         
     }
 
+    /**
+     * Getter for the number of Entities dereferenced by a single call to
+     * {@link EntityDereferencer#dereference(java.util.Collection, MGraph, Lock, DereferenceContext)}.
+     * This is {@link #DEREFERENCE_BATCH_SIZE} unless Entities are dereferenced
+     * by a {@link ThreadPoolExecutor}. In this case smaller batches are used
+     * if the Entities would otherwise not be distributed over all threads
+     * of the pool. This ensures that Entities referenced by smaller
+     * documents are still dereferenced concurrently.
+     * @param entityCount the number of Entities to dereference
+     * @param executor the executor or <code>null</code> if Entities are
+     * dereferenced by the current thread
+     * @return the batch size
+     */
+    protected int getBatchSize(int entityCount, ExecutorService executor){
+        if(executor instanceof ThreadPoolExecutor){
+            int threads = ((ThreadPoolExecutor)executor).getMaximumPoolSize();
+            if(threads > 1){
+                int batchSize = (entityCount + threads - 1)/threads;
+                return Math.max(1, Math.min(DEREFERENCE_BATCH_SIZE, batchSize));
+            }
+        }
+        return DEREFERENCE_BATCH_SIZE;
+    }
+
 	@Override
     public String getName() {
         return name;
@@ -405,44 +451,43 @@ public class EntityDereferenceEngine implements EnhancementEngine, ServiceProper
     
     /**
      * Used both as {@link Callable} submitted to the {@link ExecutorService}
-     * and as object to {@link #await()} the completion of the task.
+     * and as object to {@link #await()} the completion of the task. A job
+     * dereferences a batch of Entities by a single call to
+     * {@link EntityDereferencer#dereference(java.util.Collection, MGraph, Lock, DereferenceContext)}
      * @author Rupert Westenthaler
      *
      */
-    class DereferenceJob implements Callable<Boolean> {
+    class DereferenceJob implements Callable<Set<UriRef>> {
         
-        final UriRef entity;
+        final List<UriRef> entities;
         final MGraph metadata;
         final Lock writeLock;
         final DereferenceContext derefContext;
 
-        private Future<Boolean> future;
+        private Future<Set<UriRef>> future;
         
-        DereferenceJob(UriRef entity, MGraph metadata, Lock writeLock, 
+        DereferenceJob(List<UriRef> entities, MGraph metadata, Lock writeLock, 
             DereferenceContext derefContext){
-            this.entity = entity;
+            this.entities = entities;
             this.metadata = metadata;
             this.writeLock = writeLock;
             this.derefContext = derefContext;
         }
         
         @Override
-        public Boolean call() throws DereferenceException {
-            log.trace("  ... dereference {}", entity);
-            boolean state = dereferencer.dereference(entity, metadata, writeLock, derefContext);
-            if(state){
-                log.trace("    + success");
-            } else {
-                log.trace("    - not found");
-            }
-            return state;
+        public Set<UriRef> call() throws DereferenceException {
+            log.trace("  ... dereference {}", entities);
+            Set<UriRef> dereferenced = dereferencer.dereference(entities, metadata, 
+                writeLock, derefContext);
+            log.trace("    + dereferenced {} of {}", dereferenced.size(), entities.size());
+            return dereferenced;
         }
 
-        void setFuture(Future<Boolean> future){
+        void setFuture(Future<Set<UriRef>> future){
             this.future = future;
         }
         
-        public boolean await() throws InterruptedException, ExecutionException {
+        public Set<UriRef> await() throws InterruptedException, ExecutionException {
             return future.get();
         }
     }
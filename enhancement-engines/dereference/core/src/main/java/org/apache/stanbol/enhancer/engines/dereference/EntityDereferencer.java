@@ -16,7 +16,9 @@
  */
 package org.apache.stanbol.enhancer.engines.dereference;
 
+import java.util.Collection;
 import java.util.ConcurrentModificationException;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.locks.Lock;
 
@@ -74,5 +76,32 @@ public interface EntityDereferencer {
      */
     boolean dereference(UriRef entity, MGraph graph, Lock writeLock, 
             DereferenceContext dereferenceContext) throws DereferenceException;
+    
+    /**
+     * Dereferences the Entities with the parsed {@link UriRef}s by copying
+     * the data to the parsed graph. Implementations are expected to lookup
+     * all parsed entities with as few requests as possible and to add the
+     * dereferenced data to the parsed graph within a single
+     * <code>{@link Lock#lock() writeLock#lock()}</code>.<p>
+     * Implementations that can not lookup several Entities at once can
+     * simple call {@link #dereference(UriRef, MGraph, Lock, DereferenceContext)}
+     * for every parsed entity.
+     * @param entities the uris of the Entities to dereference
+     * @param graph the graph to add the dereferenced entities 
+     * @param writeLock The writeLock for the graph. See 
+     * {@link #dereference(UriRef, MGraph, Lock, DereferenceContext)} for details
+     * @param dereferenceContext Context information for the {@link EntityDereferencer}
+     * @return the dereferenced entities. Entities that where not found are
+     * not included.
+     * @throws DereferenceException on any error while dereferencing the
+     * requested Entities. Errors for single Entities MUST NOT prevent the
+     * dereferencing of the other Entities. In that case the data of those
+     * is added to the graph and the Exception provides the 
+     * {@link DereferenceException#getFailedEntities() failed} and the
+     * {@link DereferenceException#getDereferencedEntities() dereferenced}
+     * Entities.
+     */
+    Set<UriRef> dereference(Collection<UriRef> entities, MGraph graph, Lock writeLock, 
+            DereferenceContext dereferenceContext) throws DereferenceException;
         
 }
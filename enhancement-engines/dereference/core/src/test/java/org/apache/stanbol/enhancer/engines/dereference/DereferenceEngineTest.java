@@ -22,9 +22,14 @@ import static org.apache.stanbol.enhancer.servicesapi.rdf.Properties.RDFS_LABEL;
 import static org.apache.stanbol.enhancer.servicesapi.rdf.Properties.RDF_TYPE;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.locks.Lock;
@@ -169,6 +174,96 @@ public class DereferenceEngineTest {
         validateDereferencedEntities(ci.getMetadata());
     }
 
+    /**
+     * Entities are dereferenced in batches of {@link EntityDereferenceEngine#DEREFERENCE_BATCH_SIZE}
+     */
+    @Test
+    public void testBatchDereferencing() throws Exception {
+        ContentItem ci = getContentItem("urn:test:testBatchDereferencing");
+        TestDereferencer dereferencer = new TestDereferencer(null);
+        EntityDereferenceEngine engine = new EntityDereferenceEngine(dereferencer,
+            new DereferenceEngineConfig("batch", false, false));
+        engine.computeEnhancements(ci);
+        validateDereferencedEntities(ci.getMetadata());
+        int referenced = getReferencedEntities().size();
+        int requested = 0;
+        for(Integer batchSize : dereferencer.batches){
+            Assert.assertTrue(batchSize <= EntityDereferenceEngine.DEREFERENCE_BATCH_SIZE);
+            requested += batchSize;
+        }
+        Assert.assertEquals(referenced, requested);
+        Assert.assertEquals((referenced + EntityDereferenceEngine.DEREFERENCE_BATCH_SIZE - 1)/
+            EntityDereferenceEngine.DEREFERENCE_BATCH_SIZE, dereferencer.batches.size());
+    }
+    /**
+     * Entities of smaller documents need to be distributed over all threads
+     * of the thread pool
+     */
+    @Test
+    public void testBatchSize() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            EntityDereferenceEngine engine = new EntityDereferenceEngine(syncDereferencer,
+                new DereferenceEngineConfig("batch", false, false));
+            int batchSize = EntityDereferenceEngine.DEREFERENCE_BATCH_SIZE;
+            Assert.assertEquals(batchSize, engine.getBatchSize(1000, null));
+            Assert.assertEquals(batchSize, engine.getBatchSize(10, null));
+            Assert.assertEquals(batchSize, engine.getBatchSize(1000, executor));
+            Assert.assertEquals(3, engine.getBatchSize(10, executor));
+            Assert.assertEquals(1, engine.getBatchSize(3, executor));
+            Assert.assertEquals(1, engine.getBatchSize(0, executor));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSyncPartialFailure() throws Exception {
+        testPartialFailure(null);
+    }
+
+    @Test
+    public void testAsyncPartialFailure() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            testPartialFailure(executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+    /**
+     * An error for a single Entity MUST NOT prevent dereferencing the other
+     * Entities of the same batch
+     */
+    private void testPartialFailure(ExecutorService executor) throws Exception {
+        ContentItem ci = getContentItem("urn:test:testPartialFailure");
+        TestDereferencer dereferencer = new TestDereferencer(executor);
+        Iterator<UriRef> referenced = getReferencedEntities().iterator();
+        for(int i = 0; i < 3 && referenced.hasNext(); i++){
+            dereferencer.failing.add(referenced.next());
+        }
+        EntityDereferenceEngine engine = new EntityDereferenceEngine(dereferencer,
+            new DereferenceEngineConfig("partial", false, false));
+        engine.computeEnhancements(ci);
+        MGraph metadata = ci.getMetadata();
+        for(UriRef entity : getReferencedEntities()){
+            Iterator<Triple> expected = testData.filter(entity, null, null);
+            boolean failed = dereferencer.failing.contains(entity);
+            while(expected.hasNext()){
+                Assert.assertEquals(!failed, metadata.contains(expected.next()));
+            }
+        }
+    }
+
+    private static Set<UriRef> getReferencedEntities(){
+        Set<UriRef> referenced = new HashSet<UriRef>();
+        Iterator<Triple> it = testMetadata.filter(null, ENHANCER_ENTITY_REFERENCE, null);
+        while(it.hasNext()){
+            referenced.add((UriRef)it.next().getObject());
+        }
+        return referenced;
+    }
+
     private void validateDereferencedEntities(TripleCollection metadata) {
         Iterator<Triple> referenced = metadata.filter(null, ENHANCER_ENTITY_REFERENCE, null);
         MGraph expected = new IndexedMGraph();
@@ -188,6 +283,14 @@ public class DereferenceEngineTest {
     private static class TestDereferencer implements EntityDereferencer {
 
         private final ExecutorService executorService;
+        /**
+         * The sizes of the dereferenced batches
+         */
+        final List<Integer> batches = Collections.synchronizedList(new ArrayList<Integer>());
+        /**
+         * Entities that can not be dereferenced
+         */
+        final Set<UriRef> failing = new HashSet<UriRef>();
         
         public TestDereferencer(ExecutorService executorService) {
             this.executorService = executorService;
@@ -221,6 +324,36 @@ public class DereferenceEngineTest {
             }
         }
         
+        @Override
+        public Set<UriRef> dereference(Collection<UriRef> entities, MGraph graph, Lock writeLock, 
+                DereferenceContext dereferenceContext) throws DereferenceException {
+            batches.add(entities.size());
+            Set<UriRef> dereferenced = new HashSet<UriRef>();
+            Set<UriRef> failed = new HashSet<UriRef>();
+            writeLock.lock();
+            try {
+                for(UriRef entity : entities){
+                    if(failing.contains(entity)){
+                        failed.add(entity);
+                        continue;
+                    }
+                    Iterator<Triple> entityTriples = testData.filter(entity, null, null);
+                    if(entityTriples.hasNext()){
+                        dereferenced.add(entity);
+                        do {
+                            graph.add(entityTriples.next());
+                        } while (entityTriples.hasNext());
+                    }
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            if(!failed.isEmpty()){
+                throw new DereferenceException(failed, dereferenced, null);
+            }
+            return dereferenced;
+        }
+        
     }
     
 }
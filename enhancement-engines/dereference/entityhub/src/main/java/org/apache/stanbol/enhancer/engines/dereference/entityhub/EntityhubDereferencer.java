@@ -16,14 +16,27 @@
 */
 package org.apache.stanbol.enhancer.engines.dereference.entityhub;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.apache.stanbol.enhancer.engines.dereference.EntityDereferencer;
 import org.apache.stanbol.entityhub.ldpath.backend.EntityhubBackend;
 import org.apache.stanbol.entityhub.servicesapi.Entityhub;
 import org.apache.stanbol.entityhub.servicesapi.EntityhubException;
 import org.apache.stanbol.entityhub.servicesapi.model.Entity;
+import org.apache.stanbol.entityhub.servicesapi.model.ManagedEntityState;
+import org.apache.stanbol.entityhub.servicesapi.model.Reference;
 import org.apache.stanbol.entityhub.servicesapi.model.Representation;
+import org.apache.stanbol.entityhub.servicesapi.model.rdf.RdfResourceEnum;
+import org.apache.stanbol.entityhub.servicesapi.util.ModelUtils;
+import org.apache.stanbol.entityhub.servicesapi.yard.Yard;
 import org.osgi.framework.BundleContext;
 import org.osgi.util.tracker.ServiceTrackerCustomizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import at.newmedialab.ldpath.api.backend.RDFBackend;
 
@@ -35,6 +48,13 @@ import at.newmedialab.ldpath.api.backend.RDFBackend;
 public final class EntityhubDereferencer extends TrackingDereferencerBase<Entityhub> implements EntityDereferencer {
     
     
+    /**
+     * The suffix the Entityhub uses for the ids of the metadata of Entities
+     */
+    private static final String METADATA_SUFFIX = ".meta";
+    
+    private final Logger log = LoggerFactory.getLogger(EntityhubDereferencer.class);
+    
     public EntityhubDereferencer(BundleContext context) {
         this(context,null,null);
     }
@@ -50,6 +70,61 @@ public final class EntityhubDereferencer extends TrackingDereferencerBase<Entity
         Entity e = eh.getEntity(id);
         return e == null ? null : e.getRepresentation();
     }
+    /**
+     * Loads the Representations and the metadata with a single request from the
+     * {@link Entityhub#getYard() Entityhub Yard}. Like
+     * {@link Entityhub#getEntity(String)} only Entities managed by the
+     * Entityhub are returned. Metadata of Entities are looked up by using
+     * {@link Entityhub#getEntity(String)} as this returns the data of the
+     * Entity described by the metadata.
+     */
+    @Override
+    protected Map<String,Representation> getRepresentations(Entityhub eh, Collection<String> ids,
+            boolean offlineMode) throws EntityhubException {
+        Yard yard = eh.getYard();
+        List<String> lookup = new ArrayList<String>(ids.size()*2);
+        for(String id : ids){
+            lookup.add(id);
+            lookup.add(id + METADATA_SUFFIX);
+        }
+        Map<String,Representation> found = yard.getRepresentations(lookup, null);
+        Map<String,Representation> reps = new LinkedHashMap<String,Representation>(ids.size()*2);
+        for(String id : ids){
+            Representation rep = found.get(id);
+            if(rep == null){
+                continue; //not found
+            }
+            if(ModelUtils.getAboutRepresentation(rep) != null){ //metadata
+                rep = getRepresentation(eh, id, offlineMode);
+            } else if(!isManagedEntity(rep, found.get(id + METADATA_SUFFIX))){
+                log.debug("The id {} does not represent a locally managed Entity", id);
+                rep = null;
+            }
+            if(rep != null){
+                reps.put(id, rep);
+            }
+        }
+        return reps;
+    }
+    /**
+     * Checks if the parsed data and metadata represent an Entity managed
+     * by the Entityhub. This is the same check as performed by
+     * {@link Entityhub#getEntity(String)} (see <code>ManagedEntity#canWrap(Entity)</code>
+     * that is not exported by the Entityhub core bundle).
+     * @param data the data of the Entity
+     * @param metadata the metadata of the Entity or <code>null</code> if none
+     * @return if the Entity is managed by the Entityhub
+     */
+    private static boolean isManagedEntity(Representation data, Representation metadata){
+        if(metadata == null){
+            return false;
+        }
+        Reference state = metadata.getFirstReference(RdfResourceEnum.hasState.getUri());
+        if(state == null || !ManagedEntityState.isState(state.getReference())){
+            return false;
+        }
+        return data.getId().equals(ModelUtils.getAboutRepresentation(metadata));
+    }
     
     @Override
     public boolean supportsOfflineMode() {
@@ -16,7 +16,9 @@
 */
 package org.apache.stanbol.enhancer.engines.dereference.entityhub;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 
 import org.apache.stanbol.entityhub.ldpath.backend.SiteBackend;
@@ -61,6 +63,15 @@ public final class SiteDereferencer extends TrackingDereferencerBase<Site> {
         Entity entity = site.getEntity(id);
         return entity == null ? null : entity.getRepresentation();
     }
+    /**
+     * Uses {@link Site#getRepresentations(Iterable, java.util.Set)} to
+     * lookup all Entities with a single request.
+     */
+    @Override
+    protected Map<String,Representation> getRepresentations(Site site, Collection<String> ids,
+            boolean offlineMode) throws EntityhubException {
+        return site.getRepresentations(ids, null);
+    }
     @Override
     protected RDFBackend<Object> createRdfBackend(Site service) {
         return new SiteBackend(service);
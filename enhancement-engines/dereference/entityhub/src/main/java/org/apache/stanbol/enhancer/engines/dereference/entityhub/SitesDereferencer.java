@@ -16,6 +16,8 @@
 */
 package org.apache.stanbol.enhancer.engines.dereference.entityhub;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 
 import org.apache.stanbol.entityhub.ldpath.backend.SiteManagerBackend;
@@ -53,6 +55,15 @@ public final class SitesDereferencer extends TrackingDereferencerBase<SiteManage
         Entity entity = sm.getEntity(id);
         return entity == null ? null : entity.getRepresentation();
     }
+    /**
+     * Uses {@link SiteManager#getRepresentations(Iterable, java.util.Set)} to
+     * lookup all Entities managed by a Site with a single request.
+     */
+    @Override
+    protected Map<String,Representation> getRepresentations(SiteManager sm, Collection<String> ids,
+            boolean offlineMode) throws EntityhubException {
+        return sm.getRepresentations(ids, null);
+    }
     
     @Override
     protected RDFBackend<Object> createRdfBackend(SiteManager service) {
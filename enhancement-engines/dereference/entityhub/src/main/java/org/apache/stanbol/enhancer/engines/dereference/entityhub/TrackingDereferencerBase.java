@@ -25,6 +25,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -282,37 +283,104 @@ public abstract class TrackingDereferencerBase<T> implements EntityDereferencer
     
     @Override
     public final boolean dereference(UriRef uri, MGraph graph, Lock writeLock, DereferenceContext derefContext) throws DereferenceException {
+        return !dereference(Collections.singleton(uri), graph, writeLock, derefContext).isEmpty();
+    }
+    
+    @Override
+    public final Set<UriRef> dereference(Collection<UriRef> uris, MGraph graph, Lock writeLock, 
+            DereferenceContext derefContext) throws DereferenceException {
         T service = getService();
         if(service == null){
-            throw new DereferenceException(uri, serviceClass.getClass().getSimpleName() 
+            throw new DereferenceException(uris, serviceClass.getSimpleName() 
                 + "service is currently not available");
         }
-        Representation rep;
+        Map<String,UriRef> ids = new LinkedHashMap<String,UriRef>(uris.size()*2);
+        for(UriRef uri : uris){
+            ids.put(uri.getUnicodeString(), uri);
+        }
+        Set<UriRef> failed = new HashSet<UriRef>();
+        Throwable error = null;
+        Map<String,Representation> reps;
         try {
-            rep = getRepresentation(service, uri.getUnicodeString(), derefContext.isOfflineMode());
+            reps = getRepresentations(service, ids.keySet(), derefContext.isOfflineMode());
         } catch(EntityhubException e){
-            throw new DereferenceException(uri,e);
+            if(ids.size() <= 1){
+                throw new DereferenceException(uris,e);
+            }
+            //lookup the Entities one by one to find the failed ones
+            log.debug("Unable to lookup Entities " + ids.keySet() 
+                + " with a single request (lookup them one by one)", e);
+            reps = new LinkedHashMap<String,Representation>(ids.size()*2);
+            for(Entry<String,UriRef> entry : ids.entrySet()){
+                try {
+                    Representation rep = getRepresentation(service, entry.getKey(), 
+                        derefContext.isOfflineMode());
+                    if(rep != null){
+                        reps.put(entry.getKey(), rep);
+                    }
+                } catch (EntityhubException ee) {
+                    failed.add(entry.getValue());
+                    error = error == null ? ee : error;
+                }
+            }
         }
         //we need the languages as strings
         final Set<String> langs = derefContext.getLanguages();
-        
-        if(rep != null){
-            if(fieldMapper == null && ldpathProgram == null && langs.isEmpty()){
-                copyAll(uri, rep, graph, writeLock);
-            } else { //we need to apply some filters while dereferencing
-                if(fieldMapper != null || !langs.isEmpty()){
-                    //this considers speficied fields and included languages
-                    copyMapped(uri, rep, langs, graph, writeLock);
-                }
-                if(ldpathProgram != null){
-                    //this executes LDPath statements
-                    copyLdPath(uri, getRdfBackend(service), langs, graph, writeLock);
+        //the field mapper is only needed if fields or languages are filtered
+        FieldMapper fieldMapper = !reps.isEmpty() && (this.fieldMapper != null || !langs.isEmpty()) ?
+                getFieldMapper(langs) : null;
+        RDFBackend<Object> rdfBackend = !reps.isEmpty() && ldpathProgram != null ? 
+                getRdfBackend(service) : null;
+        //dereference all entities to an intermediate graph so that the results 
+        //can be added to the parsed graph within a single write lock. Every
+        //entity is first dereferenced to its own graph so that no partial
+        //results of failed entities are added
+        MGraph results = new SimpleMGraph();
+        Set<UriRef> dereferenced = new HashSet<UriRef>(reps.size()*2);
+        for(Entry<String,Representation> entry : reps.entrySet()){
+            UriRef uri = ids.get(entry.getKey());
+            if(uri == null){ //should not happen
+                uri = new UriRef(entry.getKey());
+            }
+            Representation rep = entry.getValue();
+            MGraph entityGraph = new SimpleMGraph();
+            try {
+                if(fieldMapper == null && ldpathProgram == null){
+                    copyAll(uri, rep, entityGraph);
+                } else { //we need to apply some filters while dereferencing
+                    if(fieldMapper != null){
+                        //this considers speficied fields and included languages
+                        copyMapped(uri, rep, fieldMapper, entityGraph);
+                    }
+                    if(ldpathProgram != null){
+                        //this executes LDPath statements
+                        copyLdPath(uri, rdfBackend, langs, entityGraph);
+                    }
                 }
+            } catch (DereferenceException e) {
+                failed.add(uri);
+                error = error == null ? e : error;
+                continue;
+            } catch (RuntimeException e) {
+                failed.add(uri);
+                error = error == null ? e : error;
+                continue;
+            }
+            results.addAll(entityGraph);
+            dereferenced.add(uri);
+        }
+        if(!results.isEmpty()){ //copy the results
+            writeLock.lock();
+            try {
+                graph.addAll(results);
+            } finally {
+                writeLock.unlock();
             }
-            return true;
-        } else {
-            return false;
         }
+        if(!failed.isEmpty()){
+            throw new DereferenceException(failed, dereferenced, error);
+        }
+        return dereferenced;
     }
     /**
      * Executes the {@link #ldpathProgram} using the parsed URI as context and
@@ -321,18 +389,14 @@ public abstract class TrackingDereferencerBase<T> implements EntityDereferencer
      * @param rdfBackend the RdfBackend the LDPath program is executed on
      * @param langs the set of languages to dereference
      * @param graph the graph to store the results
-     * @param writeLock the write lock for the graph
      * @throws DereferenceException on any {@link EntityhubException} while
      * executing the LDPath program
      */
     private void copyLdPath(UriRef uri, RDFBackend<Object> rdfBackend, 
-            Set<String> langs, MGraph graph, Lock writeLock) throws DereferenceException {
+            Set<String> langs, MGraph graph) throws DereferenceException {
         //A RdfReference needs to be used as context
         RdfReference context = valueFactory.createReference(uri);
-        //create the representation that stores results in an intermediate
-        //graph (we do not want partial results on an error
-        MGraph ldPathResults = new SimpleMGraph();
-        RdfRepresentation result = valueFactory.createRdfRepresentation(uri, ldPathResults);
+        RdfRepresentation result = valueFactory.createRdfRepresentation(uri, graph);
         //execute the LDPath Program and write results to the RDF Graph
         try {
             for(at.newmedialab.ldpath.model.fields.FieldMapping<?,Object> mapping : ldpathProgram.getFields()) {
@@ -357,15 +421,6 @@ public abstract class TrackingDereferencerBase<T> implements EntityDereferencer
        	if(log.isTraceEnabled()){
     		log.trace("dereferenced via LDPath {}", ModelUtils.getRepresentationInfo(result));
     	}
-
-        if(!ldPathResults.isEmpty()){ //copy the results
-            writeLock.lock();
-            try {
-                graph.addAll(ldPathResults);
-            } finally {
-                writeLock.unlock();
-            }
-        }
     }
     /**
      * Getter for the {@link RDFBackend} for the parsed service. This tries to
@@ -385,41 +440,42 @@ public abstract class TrackingDereferencerBase<T> implements EntityDereferencer
     }
     
     /**
-     * Applies the field mappings to the representation and stores the results
-     * in the graph
-     * @param uri the uri of the entity to dereference
-     * @param rep the data for the entity as in the entityhub
+     * Getter for the {@link FieldMapper} used to dereference Entities
      * @param langs the set of languages to dereference
-     * @param graph the graph to store the mapping results
-     * @param writeLock the write lock for the graph
+     * @return the configured field mapper extended by a global filter for the
+     * parsed languages
      */
-    private void copyMapped(UriRef uri, Representation rep, Set<String> langs, 
-            MGraph graph, Lock writeLock) {
-        //init the fieldMapper
-        FieldMapper fieldMapper;
+    private FieldMapper getFieldMapper(Set<String> langs){
         if(!langs.isEmpty()){ //if we need to filter for specific languages
             //we need to modify the field and add a global filter for the
             //languages. NOTE that the field might be null. In that case we
             //need just filter literals by language
             //TODO: maybe cache fieldMappers for sets of languages
-            fieldMapper = this.fieldMapper != null ? this.fieldMapper.clone() :
+            FieldMapper fieldMapper = this.fieldMapper != null ? this.fieldMapper.clone() :
                 new DefaultFieldMapperImpl(ValueConverterFactory.getDefaultInstance());
             fieldMapper.addMapping(new FieldMapping(new TextConstraint(
-                (String)null, langs.toArray(new String[graph.size()]))));
+                (String)null, langs.toArray(new String[langs.size()]))));
+            return fieldMapper;
         } else { //just use the fieldMapper as parsed in the config
-            fieldMapper = this.fieldMapper;
+            return this.fieldMapper;
         }
+    }
+    /**
+     * Applies the field mappings to the representation and stores the results
+     * in the graph
+     * @param uri the uri of the entity to dereference
+     * @param rep the data for the entity as in the entityhub
+     * @param fieldMapper the field mapper
+     * @param graph the graph to store the mapping results
+     */
+    private void copyMapped(UriRef uri, Representation rep, FieldMapper fieldMapper, 
+            MGraph graph) {
         //execute the field mappings
-        writeLock.lock();
-        try {
-            RdfRepresentation clerezzaRep = valueFactory.createRdfRepresentation(uri, graph);
-            fieldMapper.applyMappings(rep, clerezzaRep, valueFactory);
-           	if(log.isTraceEnabled()){
-        		log.trace("dereferenced via Mappings {}", ModelUtils.getRepresentationInfo(clerezzaRep));
-        	}
-        } finally {
-            writeLock.unlock();
-        }
+        RdfRepresentation clerezzaRep = valueFactory.createRdfRepresentation(uri, graph);
+        fieldMapper.applyMappings(rep, clerezzaRep, valueFactory);
+       	if(log.isTraceEnabled()){
+    		log.trace("dereferenced via Mappings {}", ModelUtils.getRepresentationInfo(clerezzaRep));
+    	}
     }
     /**
      * Copies all data form the representation to the graph. This is used
@@ -427,28 +483,22 @@ public abstract class TrackingDereferencerBase<T> implements EntityDereferencer
      * @param uri the uri of the entity to copy
      * @param rep the {@link Representation} with the data of the entity
      * @param graph the graph to copy the data
-     * @param writeLock the write lock for the graph
      */
-    private void copyAll(UriRef uri, Representation rep, MGraph graph, Lock writeLock) {
-        writeLock.lock();
-        try {
-        	if(log.isTraceEnabled()){
-        		log.trace("dereferenced all of {}", ModelUtils.getRepresentationInfo(rep));
-        	}
-            if(rep instanceof RdfRepresentation){
-                graph.addAll(((RdfRepresentation)rep).getRdfGraph());
-            } else {
-                RdfRepresentation clerezzaRep = valueFactory.createRdfRepresentation(uri,graph);
-                //convert all values for all fields
-                for (Iterator<String> fields = rep.getFieldNames(); fields.hasNext();) {
-                    String field = fields.next();
-                    for (Iterator<Object> fieldValues = rep.get(field); fieldValues.hasNext();) {
-                        clerezzaRep.add(field, fieldValues.next());
-                    }
+    private void copyAll(UriRef uri, Representation rep, MGraph graph) {
+    	if(log.isTraceEnabled()){
+    		log.trace("dereferenced all of {}", ModelUtils.getRepresentationInfo(rep));
+    	}
+        if(rep instanceof RdfRepresentation){
+            graph.addAll(((RdfRepresentation)rep).getRdfGraph());
+        } else {
+            RdfRepresentation clerezzaRep = valueFactory.createRdfRepresentation(uri,graph);
+            //convert all values for all fields
+            for (Iterator<String> fields = rep.getFieldNames(); fields.hasNext();) {
+                String field = fields.next();
+                for (Iterator<Object> fieldValues = rep.get(field); fieldValues.hasNext();) {
+                    clerezzaRep.add(field, fieldValues.next());
                 }
             }
-        } finally {
-            writeLock.unlock();
         }
     }
     /**
@@ -459,6 +509,28 @@ public abstract class TrackingDereferencerBase<T> implements EntityDereferencer
      * @throws DereferenceException 
      */
     protected abstract Representation getRepresentation(T service, String id, boolean offlineMode) throws EntityhubException;
+    /**
+     * Provides the Representations for the parsed ids. This default 
+     * implementation calls {@link #getRepresentation(Object, String, boolean)}
+     * for every parsed id. Subclasses SHOULD override this if the service
+     * supports to lookup several Entities with a single request.
+     * @param ids the ids
+     * @param offlineMode off line mode state
+     * @return the found Representations by id. Ids of Entities that are not
+     * found are not contained.
+     * @throws EntityhubException on any error while looking up the Entities
+     */
+    protected Map<String,Representation> getRepresentations(T service, Collection<String> ids, 
+            boolean offlineMode) throws EntityhubException {
+        Map<String,Representation> reps = new LinkedHashMap<String,Representation>(ids.size()*2);
+        for(String id : ids){
+            Representation rep = getRepresentation(service, id, offlineMode);
+            if(rep != null){
+                reps.put(id, rep);
+            }
+        }
+        return reps;
+    }
     /**
      * Creates an RDFBackend for the parsed service
      * @param service
@@ -164,6 +164,22 @@ public class InMemoryEntityIndex implements EntitySearcher {
        }
         return resultList;
     }
+    
+    @Override
+    public Map<List<String>,Collection<? extends Entity>> lookup(UriRef field,
+                                           Set<UriRef> includeFields,
+                                           Collection<List<String>> searches,
+                                           String[] languages, Integer numResults) throws IllegalStateException {
+        //in-memory lookups are cheap. So just process them sequentially
+        Map<List<String>,Collection<? extends Entity>> results = 
+                new HashMap<List<String>,Collection<? extends Entity>>();
+        for(List<String> search : searches){
+            if(!results.containsKey(search)){
+                results.put(search, lookup(field, includeFields, search, languages, numResults, null));
+            }
+        }
+        return results;
+    }
 
     private static final Comparator<Collection<?>> COLLECTION_SIZE_COMPARATOR = new Comparator<Collection<?>>() {
 
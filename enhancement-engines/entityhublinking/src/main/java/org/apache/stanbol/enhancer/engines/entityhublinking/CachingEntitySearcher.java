@@ -0,0 +1,365 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.engines.entityhublinking;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.clerezza.rdf.core.Resource;
+import org.apache.clerezza.rdf.core.UriRef;
+import org.apache.stanbol.enhancer.engines.entitylinking.Entity;
+import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcher;
+import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcherException;
+import org.apache.stanbol.entityhub.servicesapi.yard.Yard;
+
+/**
+ * {@link EntitySearcher} decorator that caches the results of
+ * {@link #lookup(UriRef, Set, List, String[], Integer, Integer) lookups}.
+ * In contrast to the per document cache of the EntityLinker this cache is
+ * shared by all requests processed by an engine. Because of that frequently
+ * mentioned entities (e.g. "Berlin") need not to be searched in the
+ * {@link Yard} for every processed document.<p>
+ * Results are cached by the field, the normalised search strings, the
+ * languages, the selected fields, the limit and the offset. The cache is
+ * bounded by the maximum number of cached lookups (least recently used
+ * lookups are evicted first) and cached results expire after the configured
+ * time to live.<p>
+ * {@link #invalidate()} needs to be called if the data of the {@link Yard}
+ * change. The {@link EntityhubLinkingEngine} does this if the tracked
+ * Site or Entityhub service is added, modified or removed. It also registers
+ * the cache as OSGi service so that its statistics can be monitored and
+ * other components can invalidate it.<p>
+ * {@link #get(UriRef, Set, String...)} requests are not cached.
+ */
+public class CachingEntitySearcher implements EntitySearcher {
+
+    private final EntitySearcher searcher;
+
+    private final int maxSize;
+
+    private final long ttl;
+    /**
+     * The cache (in access order) used as LRU cache. Also used as lock
+     */
+    private final LinkedHashMap<LookupKey,CachedResult> cache;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Creates a cache for the parsed {@link EntitySearcher}
+     * @param searcher the searcher used for lookups. MUST NOT be <code>null</code>
+     * @param maxSize the maximum number of cached lookups. MUST BE &gt; 0
+     * @param ttl the time to live of cached results in milliseconds. Values
+     * &lt;= 0 deactivate expiration.
+     */
+    public CachingEntitySearcher(EntitySearcher searcher, int maxSize, long ttl) {
+        if(searcher == null){
+            throw new IllegalArgumentException("The parsed EntitySearcher MUST NOT be NULL!");
+        }
+        if(maxSize <= 0){
+            throw new IllegalArgumentException("The parsed maximum size MUST BE > 0 (parsed: "
+                + maxSize + ")!");
+        }
+        this.searcher = searcher;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.cache = new LinkedHashMap<LookupKey,CachedResult>(
+                Math.min(maxSize, 1024), 0.75f, true){
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected boolean removeEldestEntry(Entry<LookupKey,CachedResult> eldest) {
+                if(size() > CachingEntitySearcher.this.maxSize){
+                    evictions.incrementAndGet();
+                    return true;
+                } else {
+                    return false;
+                }
+            }
+        };
+    }
+    /**
+     * The {@link EntitySearcher} used for lookups not present in the cache
+     * @return the searcher
+     */
+    public EntitySearcher getSearcher() {
+        return searcher;
+    }
+
+    @Override
+    public Collection<? extends Entity> lookup(UriRef field, Set<UriRef> selectedFields,
+            List<String> search, String[] languages, Integer limit, Integer offset)
+                    throws EntitySearcherException {
+        LookupKey key = new LookupKey(field, selectedFields, search, languages, limit, offset);
+        Collection<? extends Entity> results = getCached(key);
+        if(results == null){
+            results = searcher.lookup(field, selectedFields, search, languages, limit, offset);
+            results = putCached(key, results);
+        }
+        return results;
+    }
+
+    @Override
+    public Map<List<String>,Collection<? extends Entity>> lookup(UriRef field,
+            Set<UriRef> selectedFields, Collection<List<String>> searches,
+            String[] languages, Integer limit) throws EntitySearcherException {
+        if(searches == null){
+            throw new IllegalArgumentException("The parsed search groups MUST NOT be NULL!");
+        }
+        Map<List<String>,Collection<? extends Entity>> results =
+                new HashMap<List<String>,Collection<? extends Entity>>(searches.size()*2);
+        Map<List<String>,LookupKey> missing = new LinkedHashMap<List<String>,LookupKey>();
+        for(List<String> search : searches){
+            if(!results.containsKey(search) && !missing.containsKey(search)){
+                LookupKey key = new LookupKey(field, selectedFields, search, languages, limit, null);
+                Collection<? extends Entity> cached = getCached(key);
+                if(cached != null){
+                    results.put(search, cached);
+                } else {
+                    missing.put(search, key);
+                }
+            }
+        }
+        if(!missing.isEmpty()){
+            Map<List<String>,Collection<? extends Entity>> found = searcher.lookup(
+                field, selectedFields, new ArrayList<List<String>>(missing.keySet()),
+                languages, limit);
+            for(Entry<List<String>,LookupKey> entry : missing.entrySet()){
+                Collection<? extends Entity> groupResults = found.get(entry.getKey());
+                if(groupResults != null){
+                    results.put(entry.getKey(), putCached(entry.getValue(), groupResults));
+                }
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public Entity get(UriRef id, Set<UriRef> selectedFields, String... languages)
+            throws EntitySearcherException {
+        return searcher.get(id, selectedFields, languages);
+    }
+
+    @Override
+    public boolean supportsOfflineMode() {
+        return searcher.supportsOfflineMode();
+    }
+
+    @Override
+    public Integer getLimit() {
+        return searcher.getLimit();
+    }
+
+    @Override
+    public Map<UriRef,Collection<Resource>> getOriginInformation() {
+        return searcher.getOriginInformation();
+    }
+    /**
+     * Removes all cached lookup results. Needs to be called if the data of
+     * the {@link Yard} searched by the wrapped {@link EntitySearcher} change.
+     */
+    public void invalidate(){
+        synchronized (cache) {
+            cache.clear();
+        }
+        invalidations.incrementAndGet();
+    }
+    /**
+     * The number of lookups answered by the cache
+     */
+    public long getHits(){
+        return hits.get();
+    }
+    /**
+     * The number of lookups forwarded to the wrapped {@link EntitySearcher}
+     */
+    public long getMisses(){
+        return misses.get();
+    }
+    /**
+     * The number of cached lookups evicted because the maximum size was
+     * reached
+     */
+    public long getEvictions(){
+        return evictions.get();
+    }
+    /**
+     * The number of times the cache was {@link #invalidate() invalidated}
+     */
+    public long getInvalidations(){
+        return invalidations.get();
+    }
+    /**
+     * The percentage of lookups answered by the cache
+     * @return the hit ratio [0..1] or {@link Float#NaN} if no lookups were
+     * performed
+     */
+    public float getHitRatio(){
+        long hits = this.hits.get();
+        long total = hits + misses.get();
+        return total > 0 ? hits/(float)total : Float.NaN;
+    }
+    /**
+     * The number of currently cached lookups
+     */
+    public int size(){
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private Collection<? extends Entity> getCached(LookupKey key){
+        CachedResult cached;
+        synchronized (cache) {
+            cached = cache.get(key);
+            if(cached != null && cached.isExpired()){
+                cache.remove(key);
+                cached = null;
+            }
+        }
+        if(cached == null){
+            misses.incrementAndGet();
+            return null;
+        } else {
+            hits.incrementAndGet();
+            return cached.results;
+        }
+    }
+
+    private Collection<? extends Entity> putCached(LookupKey key,
+            Collection<? extends Entity> results){
+        //store a copy as the wrapped searcher might reuse the collection
+        Collection<? extends Entity> cached = results.isEmpty() ?
+                Collections.<Entity>emptyList() :
+                    Collections.unmodifiableList(new ArrayList<Entity>(results));
+        synchronized (cache) {
+            cache.put(key, new CachedResult(cached,
+                ttl > 0 ? System.currentTimeMillis() + ttl : Long.MAX_VALUE));
+        }
+        return cached;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CachingEntitySearcher[size: %d/%d, hits: %d, misses: %d, "
+            + "evictions: %d, invalidations: %d | searcher: %s]", size(), maxSize,
+            hits.get(), misses.get(), evictions.get(), invalidations.get(), searcher);
+    }
+
+    /**
+     * The cached results and the expiration time
+     */
+    private static final class CachedResult {
+
+        final Collection<? extends Entity> results;
+        final long expires;
+
+        CachedResult(Collection<? extends Entity> results, long expires){
+            this.results = results;
+            this.expires = expires;
+        }
+
+        boolean isExpired(){
+            return expires < System.currentTimeMillis();
+        }
+    }
+    /**
+     * The key used for cached lookups. Search strings are normalised by
+     * trimming them and collapsing sequences of whitespaces. Languages and
+     * selected fields are compared as sets.
+     */
+    private static final class LookupKey {
+
+        private final UriRef field;
+        private final Set<String> selectedFields;
+        private final List<String> search;
+        private final Set<String> languages;
+        private final Integer limit;
+        private final int offset;
+        private final int hash;
+
+        LookupKey(UriRef field, Set<UriRef> selectedFields, List<String> search,
+                String[] languages, Integer limit, Integer offset){
+            if(search == null){
+                throw new IllegalArgumentException("The parsed search strings MUST NOT be NULL!");
+            }
+            this.field = field;
+            if(selectedFields == null || selectedFields.isEmpty()){
+                this.selectedFields = Collections.emptySet();
+            } else {
+                Set<String> fields = new TreeSet<String>();
+                for(UriRef selected : selectedFields){
+                    fields.add(selected.getUnicodeString());
+                }
+                this.selectedFields = fields;
+            }
+            List<String> normalised = new ArrayList<String>(search.size());
+            for(String s : search){
+                normalised.add(s == null ? null : s.trim().replaceAll("\\s+", " "));
+            }
+            this.search = normalised;
+            if(languages == null || languages.length == 0){
+                this.languages = Collections.emptySet();
+            } else {
+                //NOTE: TreeSet does not support null values (the default language)
+                Set<String> langs = new TreeSet<String>();
+                for(String lang : languages){
+                    langs.add(lang == null ? "" : lang);
+                }
+                this.languages = langs;
+            }
+            this.limit = limit != null && limit > 0 ? limit : null;
+            this.offset = offset != null && offset > 0 ? offset : 0;
+            this.hash = Arrays.hashCode(new Object[]{field, this.selectedFields,
+                    this.search, this.languages, this.limit, this.offset});
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(obj == this){
+                return true;
+            }
+            if(obj instanceof LookupKey){
+                LookupKey other = (LookupKey)obj;
+                return hash == other.hash && offset == other.offset &&
+                        (field == null ? other.field == null : field.equals(other.field)) &&
+                        (limit == null ? other.limit == null : limit.equals(other.limit)) &&
+                        search.equals(other.search) && languages.equals(other.languages) &&
+                        selectedFields.equals(other.selectedFields);
+            } else {
+                return false;
+            }
+        }
+    }
+}
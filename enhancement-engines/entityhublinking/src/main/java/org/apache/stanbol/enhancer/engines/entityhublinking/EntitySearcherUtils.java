@@ -18,6 +18,7 @@ package org.apache.stanbol.enhancer.engines.entityhublinking;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -78,5 +79,24 @@ public class EntitySearcherUtils {
         query.setConstraint(field.getUnicodeString(),tc);
         return query;
     }
+    /**
+     * Getter for the fields selected by queries created by
+     * {@link #createFieldQuery(FieldQueryFactory, UriRef, Set, List, String...)}
+     * for the parsed parameter
+     * @param field the search field
+     * @param includeFields the included fields or <code>null</code>
+     * @return the selected fields
+     */
+    public final static Set<String> getSelectedFields(UriRef field, Set<UriRef> includeFields){
+        Set<String> fields = new HashSet<String>();
+        fields.add(field.getUnicodeString());
+        if(includeFields != null){
+            for(UriRef select : includeFields){
+                fields.add(select.getUnicodeString());
+            }
+        }
+        fields.add(RdfResourceEnum.entityRank.getUri());
+        return fields;
+    }
 
 }
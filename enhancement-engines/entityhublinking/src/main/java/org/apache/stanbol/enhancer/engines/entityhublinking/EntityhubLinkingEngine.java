@@ -127,6 +127,10 @@ import org.slf4j.LoggerFactory;
     @Property(name=DEREFERENCE_ENTITIES, boolValue=DEFAULT_DEREFERENCE_ENTITIES_STATE),
     @Property(name=DEREFERENCE_ENTITIES_FIELDS,cardinality=Integer.MAX_VALUE,
     	value={"rdfs:comment","geo:lat","geo:long","foaf:depiction","dbp-ont:thumbnail"}),
+    @Property(name=EntityhubLinkingEngine.LOOKUP_CACHE_SIZE, 
+        intValue=EntityhubLinkingEngine.DEFAULT_LOOKUP_CACHE_SIZE),
+    @Property(name=EntityhubLinkingEngine.LOOKUP_CACHE_TTL, 
+        intValue=EntityhubLinkingEngine.DEFAULT_LOOKUP_CACHE_TTL),
     @Property(name=SERVICE_RANKING,intValue=0)
 })
 public class EntityhubLinkingEngine implements ServiceTrackerCustomizer {
@@ -141,6 +145,27 @@ public class EntityhubLinkingEngine implements ServiceTrackerCustomizer {
      * To match against the Entityhub use "entityhub" as value.
      */
     public static final String SITE_ID = "enhancer.engines.linking.entityhub.siteId";
+    /**
+     * The maximum number of lookups cached by the {@link CachingEntitySearcher}.
+     * Values &lt;= 0 deactivate the cache. The Entityhub does not notify about
+     * changed Entities. So the cache should only be activated for Sites with
+     * data that do not change (or if outdated results are acceptable for the
+     * configured {@link #LOOKUP_CACHE_TTL}).
+     */
+    public static final String LOOKUP_CACHE_SIZE = "enhancer.engines.linking.entityhub.lookupCacheSize";
+    /**
+     * The default size of the lookup cache (<code>0</code> - deactivated)
+     */
+    public static final int DEFAULT_LOOKUP_CACHE_SIZE = 0;
+    /**
+     * The time (in seconds) cached lookups are valid. Values &lt;= 0 deactivate
+     * the expiration of cached lookups.
+     */
+    public static final String LOOKUP_CACHE_TTL = "enhancer.engines.linking.entityhub.lookupCacheTtl";
+    /**
+     * The default time to live (in seconds) of cached lookups
+     */
+    public static final int DEFAULT_LOOKUP_CACHE_TTL = 600;
 
     /**
      * The engine initialised based on the configuration of this component
@@ -155,6 +180,17 @@ public class EntityhubLinkingEngine implements ServiceTrackerCustomizer {
      * The EntitySearcher used for the {@link #entityLinkingEngine}
      */
     private TrackingEntitySearcher<?> entitySearcher;
+    /**
+     * The cache for lookups of the {@link #entitySearcher} or <code>null</code>
+     * if deactivated
+     */
+    private CachingEntitySearcher cachingSearcher;
+    /**
+     * The registration of the {@link #cachingSearcher}. Allows to monitor
+     * the cache statistics and to {@link CachingEntitySearcher#invalidate()
+     * invalidate} the cache after the data of the Site have changed.
+     */
+    private ServiceRegistration cacheRegistration;
     int trackedServiceCount = 0;
     
     /**
@@ -216,6 +252,43 @@ public class EntityhubLinkingEngine implements ServiceTrackerCustomizer {
         } else {
             entitySearcher = new ReferencedSiteSearcher(bundleContext,siteName,10,this);
         }
+        //init the lookup cache
+        value = properties.get(LOOKUP_CACHE_SIZE);
+        int cacheSize;
+        if(value instanceof Number){
+            cacheSize = ((Number)value).intValue();
+        } else if(value != null && !value.toString().isEmpty()){
+            try {
+                cacheSize = Integer.parseInt(value.toString());
+            } catch (NumberFormatException e) {
+                throw new ConfigurationException(LOOKUP_CACHE_SIZE, "Values MUST be valid Integer values",e);
+            }
+        } else {
+            cacheSize = DEFAULT_LOOKUP_CACHE_SIZE;
+        }
+        if(cacheSize > 0){
+            value = properties.get(LOOKUP_CACHE_TTL);
+            int ttl;
+            if(value instanceof Number){
+                ttl = ((Number)value).intValue();
+            } else if(value != null && !value.toString().isEmpty()){
+                try {
+                    ttl = Integer.parseInt(value.toString());
+                } catch (NumberFormatException e) {
+                    throw new ConfigurationException(LOOKUP_CACHE_TTL, "Values MUST be valid Integer values",e);
+                }
+            } else {
+                ttl = DEFAULT_LOOKUP_CACHE_TTL;
+            }
+            cachingSearcher = new CachingEntitySearcher(entitySearcher, cacheSize, ttl*1000L);
+            Dictionary<String,Object> cacheProperties = new Hashtable<String,Object>();
+            cacheProperties.put(PROPERTY_NAME, engineName);
+            cacheProperties.put(SITE_ID, siteName);
+            cacheRegistration = bundleContext.registerService(
+                CachingEntitySearcher.class.getName(), cachingSearcher, cacheProperties);
+        } else {
+            cachingSearcher = null;
+        }
         labelTokenizerTracker = new ServiceTracker(bundleContext, LabelTokenizer.class.getName(), 
                 new ServiceTrackerCustomizer() {
                     
@@ -303,7 +376,8 @@ public class EntityhubLinkingEngine implements ServiceTrackerCustomizer {
                 });
         //create the engine
         entityLinkingEngine = new EntityLinkingEngine(engineName,
-            entitySearcher, //the searcher might not be available
+            //the searcher might not be available
+            cachingSearcher == null ? entitySearcher : cachingSearcher,
             textProcessingConfig, linkerConfig, 
             null);
         //start tracking
@@ -330,9 +404,29 @@ public class EntityhubLinkingEngine implements ServiceTrackerCustomizer {
         //close the tracking EntitySearcher
         entitySearcher.close();
         entitySearcher = null;
+        if(cacheRegistration != null){
+            cacheRegistration.unregister();
+            cacheRegistration = null;
+        }
+        if(cachingSearcher != null){
+            log.info(" ... lookup cache statistics: {}", cachingSearcher);
+            cachingSearcher = null;
+        }
+    }
+    /**
+     * Invalidates the lookup cache (if present). Called if the tracked
+     * service is added, modified or removed as this indicates that the data
+     * of the Yard might have changed
+     */
+    private void invalidateLookupCache(){
+        CachingEntitySearcher cache = cachingSearcher;
+        if(cache != null){
+            cache.invalidate();
+        }
     }
     @Override
     public Object addingService(ServiceReference reference) {
+        invalidateLookupCache();
         BundleContext bc = this.bundleContext;
         if(bc != null){
             Object service =  bc.getService(reference);
@@ -355,10 +449,12 @@ public class EntityhubLinkingEngine implements ServiceTrackerCustomizer {
     }
     @Override
     public void modifiedService(ServiceReference reference, Object service) {
+        invalidateLookupCache();
     }
     
     @Override
     public void removedService(ServiceReference reference, Object service) {
+        invalidateLookupCache();
         BundleContext bc = this.bundleContext;
         if(bc != null){
             trackedServiceCount--;
@@ -37,6 +37,7 @@ import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.apache.stanbol.entityhub.servicesapi.model.rdf.RdfResourceEnum;
 import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
 import org.apache.stanbol.entityhub.servicesapi.query.QueryResultList;
+import org.apache.stanbol.entityhub.servicesapi.yard.Yard;
 import org.osgi.framework.BundleContext;
 import org.osgi.util.tracker.ServiceTrackerCustomizer;
 
@@ -98,16 +99,8 @@ public final class EntityhubSearcher extends TrackingEntitySearcher<Entityhub> i
         if(entityhub == null){
             throw new EntitySearcherException("The Entityhub is currently not active");
         }
-        FieldQuery query = EntitySearcherUtils.createFieldQuery(entityhub.getQueryFactory(),
-            field, includeFields, search, languages);
-        if(limit != null && limit > 0){
-            query.setLimit(limit);
-        } else if(this.limit != null){
-            query.setLimit(this.limit);
-        }
-        if(offset != null && offset.intValue() > 0){
-            query.setOffset(offset.intValue());
-        }
+        FieldQuery query = createFieldQuery(entityhub, field, includeFields, search,
+            languages, limit, offset);
         QueryResultList<Representation> results;
         try {
             results = entityhub.find(query);
@@ -127,6 +120,58 @@ public final class EntityhubSearcher extends TrackingEntitySearcher<Entityhub> i
         }
     }
 
+    @Override
+    protected Collection<? extends String> lookupIds(UriRef field, Set<UriRef> includeFields,
+                                           List<String> search, String[] languages,
+                                           Integer limit) throws EntitySearcherException {
+        Entityhub entityhub = getSearchService();
+        if(entityhub == null){
+            throw new EntitySearcherException("The Entityhub is currently not active");
+        }
+        FieldQuery query = createFieldQuery(entityhub, field, includeFields, search,
+            languages, limit, null);
+        try {
+            return entityhub.findEntityReferences(query).results();
+        } catch (EntityhubException e) {
+            throw new EntitySearcherException("Exception while searchign for "+
+                search+'@'+Arrays.toString(languages)+"in the Entityhub", e);
+        }
+    }
+
+    @Override
+    protected Map<String,Representation> getRepresentations(Set<String> ids,
+            Set<String> fields) throws EntitySearcherException {
+        Entityhub entityhub = getSearchService();
+        if(entityhub == null){
+            throw new EntitySearcherException("The Entityhub is currently not active");
+        }
+        //NOTE: the Entityhub does not support to get multiple Entities, but
+        //      Entityhub#find(..) used by lookup(..) does also return the
+        //      Representations stored in the Yard of the Entityhub
+        Yard yard = entityhub.getYard();
+        try {
+            return yard.getRepresentations(ids, fields);
+        } catch (EntityhubException e) {
+            throw new EntitySearcherException("Exception while getting "+
+                ids.size()+" Entities from the Entityhub", e);
+        }
+    }
+
+    private FieldQuery createFieldQuery(Entityhub entityhub, UriRef field, Set<UriRef> includeFields,
+            List<String> search, String[] languages, Integer limit, Integer offset) {
+        FieldQuery query = EntitySearcherUtils.createFieldQuery(entityhub.getQueryFactory(),
+            field, includeFields, search, languages);
+        if(limit != null && limit > 0){
+            query.setLimit(limit);
+        } else if(this.limit != null){
+            query.setLimit(this.limit);
+        }
+        if(offset != null && offset.intValue() > 0){
+            query.setOffset(offset.intValue());
+        }
+        return query;
+    }
+
     @Override
     public boolean supportsOfflineMode() {
         return true; //the entityhub is always offline
@@ -110,16 +110,8 @@ public final class ReferencedSiteSearcher extends TrackingEntitySearcher<Site> i
             throw new IllegalStateException("ReferencedSite "+siteId+" is currently not available");
         }
         queryStats.begin();
-        FieldQuery query = EntitySearcherUtils.createFieldQuery(site.getQueryFactory(), 
-            field, includeFields, search, languages);
-        if(limit != null && limit > 0){
-            query.setLimit(limit);
-        } else if(this.limit != null){
-            query.setLimit(this.limit);
-        }
-        if(offset != null && offset.intValue() > 0){
-            query.setOffset(offset.intValue());
-        }
+        FieldQuery query = createFieldQuery(site, field, includeFields, search,
+            languages, limit, offset);
         QueryResultList<Representation> results;
         try {
             results = site.find(query);
@@ -143,6 +135,56 @@ public final class ReferencedSiteSearcher extends TrackingEntitySearcher<Site> i
         }
     }
 
+    @Override
+    protected Collection<? extends String> lookupIds(UriRef field, Set<UriRef> includeFields,
+                                           List<String> search, String[] languages,
+                                           Integer limit) throws IllegalStateException {
+        Site site = getSearchService();
+        if(site == null){
+            throw new IllegalStateException("ReferencedSite "+siteId+" is currently not available");
+        }
+        //NOTE: queryStats are not used as this is called concurrently
+        FieldQuery query = createFieldQuery(site, field, includeFields, search,
+            languages, limit, null);
+        try {
+            return site.findReferences(query).results();
+        } catch (SiteException e) {
+            throw new IllegalStateException("Exception while searchign for "+
+                search+'@'+Arrays.toString(languages)+"in the ReferencedSite "+
+                site.getId(), e);
+        }
+    }
+
+    @Override
+    protected Map<String,Representation> getRepresentations(Set<String> ids,
+            Set<String> fields) throws IllegalStateException {
+        Site site = getSearchService();
+        if(site == null){
+            throw new IllegalStateException("ReferencedSite "+siteId+" is currently not available");
+        }
+        try {
+            return site.getRepresentations(ids, fields);
+        } catch (SiteException e) {
+            throw new IllegalStateException("Exception while getting "+ids.size()+
+                " Entities from the ReferencedSite "+site.getId(), e);
+        }
+    }
+
+    private FieldQuery createFieldQuery(Site site, UriRef field, Set<UriRef> includeFields,
+            List<String> search, String[] languages, Integer limit, Integer offset) {
+        FieldQuery query = EntitySearcherUtils.createFieldQuery(site.getQueryFactory(), 
+            field, includeFields, search, languages);
+        if(limit != null && limit > 0){
+            query.setLimit(limit);
+        } else if(this.limit != null){
+            query.setLimit(this.limit);
+        }
+        if(offset != null && offset.intValue() > 0){
+            query.setOffset(offset.intValue());
+        }
+        return query;
+    }
+
     @Override
     public boolean supportsOfflineMode() {
         Site site = getSearchService();
@@ -16,10 +16,31 @@
 */
 package org.apache.stanbol.enhancer.engines.entityhublinking;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.clerezza.rdf.core.UriRef;
+import org.apache.stanbol.enhancer.engines.entitylinking.Entity;
 import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcher;
+import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcherException;
+import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.Filter;
 import org.osgi.framework.InvalidSyntaxException;
@@ -34,8 +55,19 @@ import org.osgi.util.tracker.ServiceTrackerCustomizer;
  */
 public abstract class TrackingEntitySearcher<T> implements EntitySearcher {
     
+    /**
+     * The maximum number of id searches executed concurrently by
+     * {@link #lookup(UriRef, Set, Collection, String[], Integer)}
+     */
+    public static final int MAX_CONCURRENT_LOOKUPS = 4;
+    
     private ServiceTracker searchServiceTracker;
     protected BundleContext bundleContext; 
+    /**
+     * Executes the id searches of batch lookups. Lazily initialised and shut
+     * down on {@link #close()}
+     */
+    private ExecutorService lookupExecutor;
     /**
      * Creates a new instance for the parsed parameter
      * @param context the BundleContexed used to create the {@link ServiceTracker}
@@ -91,10 +123,168 @@ public abstract class TrackingEntitySearcher<T> implements EntitySearcher {
         }
     }
     
+    /**
+     * Batch lookup implementation that first searches the ids of the
+     * Entities matching the parsed search token groups and than retrieves
+     * the {@link Representation}s of all found Entities with a single
+     * {@link #getRepresentations(Set, Set)} request. The
+     * {@link org.apache.stanbol.entityhub.servicesapi.query.FieldQuery} API
+     * does not allow to combine multiple queries in a single request.
+     * Because of that the id searches are executed concurrently (by using up
+     * to {@link #MAX_CONCURRENT_LOOKUPS} threads) so that a batch lookup
+     * only takes two sequential round-trips. Entities found for several
+     * groups are only loaded once.
+     */
+    @Override
+    public Map<List<String>,Collection<? extends Entity>> lookup(UriRef field,
+                                           Set<UriRef> selectedFields,
+                                           Collection<List<String>> searches,
+                                           String[] languages,
+                                           Integer limit) throws EntitySearcherException {
+        if(searches == null){
+            throw new IllegalArgumentException("The parsed search groups MUST NOT be NULL!");
+        }
+        //(1) search the ids of the Entities for all groups
+        Map<List<String>,Collection<? extends String>> groupIds = 
+                searchIds(field, selectedFields, new LinkedHashSet<List<String>>(searches), 
+                    languages, limit);
+        Set<String> ids = new LinkedHashSet<String>();
+        for(Collection<? extends String> found : groupIds.values()){
+            ids.addAll(found);
+        }
+        //(2) get the Representations of all found Entities
+        Map<String,Representation> representations;
+        if(ids.isEmpty()){
+            representations = Collections.emptyMap();
+        } else {
+            representations = getRepresentations(ids,
+                EntitySearcherUtils.getSelectedFields(field, selectedFields));
+        }
+        //(3) create the results for the groups
+        Set<String> languagesSet = new HashSet<String>(Arrays.asList(languages));
+        Map<List<String>,Collection<? extends Entity>> results =
+                new HashMap<List<String>,Collection<? extends Entity>>(groupIds.size()*2);
+        for(Entry<List<String>,Collection<? extends String>> group : groupIds.entrySet()){
+            List<Entity> groupResults = new ArrayList<Entity>(group.getValue().size());
+            for(String id : group.getValue()){ //keep the order of the search results
+                Representation rep = representations.get(id);
+                if(rep != null){
+                    groupResults.add(new EntityhubEntity(rep, null, languagesSet));
+                } //else deleted since the search
+            }
+            results.put(group.getKey(), groupResults);
+        }
+        return results;
+    }
+    /**
+     * Searches the ids of the Entities for the parsed search groups. If there
+     * is more than a single group the searches are executed concurrently.
+     * @return the ids of the found Entities by search group in the order of
+     * the parsed groups
+     */
+    private Map<List<String>,Collection<? extends String>> searchIds(final UriRef field,
+            final Set<UriRef> selectedFields, Set<List<String>> groups, final String[] languages,
+            final Integer limit) throws EntitySearcherException {
+        Map<List<String>,Collection<? extends String>> groupIds =
+                new LinkedHashMap<List<String>,Collection<? extends String>>(groups.size()*2);
+        if(groups.size() < 2){ //no need to use an other thread
+            for(List<String> search : groups){
+                groupIds.put(search, lookupIds(field, selectedFields, search, languages, limit));
+            }
+            return groupIds;
+        }
+        ExecutorService executor = getLookupExecutor();
+        List<Future<Collection<? extends String>>> futures = 
+                new ArrayList<Future<Collection<? extends String>>>(groups.size());
+        for(final List<String> search : groups){
+            futures.add(executor.submit(new Callable<Collection<? extends String>>() {
+                @Override
+                public Collection<? extends String> call() throws Exception {
+                    return lookupIds(field, selectedFields, search, languages, limit);
+                }
+            }));
+        }
+        try {
+            int i = 0;
+            for(List<String> search : groups){
+                groupIds.put(search, futures.get(i).get());
+                i++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EntitySearcherException("Interrupted while waiting for the "
+                + "results of a batch lookup", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof EntitySearcherException){
+                throw (EntitySearcherException)cause;
+            } else if(cause instanceof RuntimeException){
+                throw (RuntimeException)cause;
+            } else {
+                throw new EntitySearcherException("Exception during a batch lookup", cause);
+            }
+        } finally { //cancel remaining searches in case of an Exception
+            for(Future<?> future : futures){
+                future.cancel(true);
+            }
+        }
+        return groupIds;
+    }
+    
+    private synchronized ExecutorService getLookupExecutor(){
+        if(lookupExecutor == null){
+            final String name = getClass().getSimpleName() + "-lookup-";
+            final AtomicInteger count = new AtomicInteger();
+            lookupExecutor = Executors.newFixedThreadPool(MAX_CONCURRENT_LOOKUPS, 
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread t = new Thread(r, name + count.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    }
+                });
+        }
+        return lookupExecutor;
+    }
+    /**
+     * Searches the ids of the Entities matching the parsed search tokens.
+     * Used by {@link #lookup(UriRef, Set, Collection, String[], Integer)}.
+     * Implementations need to be thread safe as this method is called
+     * concurrently for the groups of a batch lookup.
+     * @param field the field used to search for values in the parsed languages
+     * @param selectedFields the fields selected by the search
+     * @param search the tokens to search for
+     * @param languages the languages to include in the search
+     * @param limit The maximum number of resutls of <code>null</code> to use the default
+     * @return the ids of the found Entities in the order of the search results
+     * @throws EntitySearcherException on any error while searching
+     */
+    protected abstract Collection<? extends String> lookupIds(UriRef field, Set<UriRef> selectedFields,
+            List<String> search, String[] languages, Integer limit) throws EntitySearcherException;
+    /**
+     * Retrieves the Representations for the parsed ids with a single request.
+     * Used by {@link #lookup(UriRef, Set, Collection, String[], Integer)}
+     * @param ids the ids
+     * @param fields the fields that need to be included in the returned
+     * Representations
+     * @return the found Representations by id
+     * @throws EntitySearcherException on any error while retrieving the
+     * Representations
+     */
+    protected abstract Map<String,Representation> getRepresentations(Set<String> ids,
+            Set<String> fields) throws EntitySearcherException;
+
     /**
      * Closes the {@link ServiceTracker} used to track the service.
      */
     public void close(){
+        synchronized (this) {
+            if(lookupExecutor != null){
+                lookupExecutor.shutdownNow();
+                lookupExecutor = null;
+            }
+        }
         searchServiceTracker.close();
         searchServiceTracker = null;
         bundleContext = null;
@@ -0,0 +1,190 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.engines.entityhublinking;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.clerezza.rdf.core.Resource;
+import org.apache.clerezza.rdf.core.UriRef;
+import org.apache.clerezza.rdf.core.impl.SimpleMGraph;
+import org.apache.stanbol.enhancer.engines.entitylinking.Entity;
+import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcher;
+import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcherException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CachingEntitySearcherTest {
+
+    private static final UriRef FIELD = new UriRef("http://www.w3.org/2000/01/rdf-schema#label");
+    private static final String[] LANGUAGES = new String[]{null, "en"};
+
+    private CountingSearcher searcher;
+
+    @Before
+    public void initSearcher(){
+        searcher = new CountingSearcher();
+    }
+
+    @Test
+    public void testCachedLookup() throws EntitySearcherException {
+        CachingEntitySearcher cache = new CachingEntitySearcher(searcher, 10, -1);
+        Collection<? extends Entity> results = cache.lookup(FIELD, null,
+            Arrays.asList("Paris"), LANGUAGES, 5, null);
+        Assert.assertEquals(1, searcher.lookups);
+        Assert.assertEquals(1, results.size());
+        //search strings are normalised and languages compared as set
+        Collection<? extends Entity> cached = cache.lookup(FIELD, null,
+            Arrays.asList(" Paris  "), new String[]{"en", null}, 5, null);
+        Assert.assertEquals(1, searcher.lookups);
+        Assert.assertEquals(results, cached);
+        //different limits are different lookups
+        cache.lookup(FIELD, null, Arrays.asList("Paris"), LANGUAGES, 10, null);
+        Assert.assertEquals(2, searcher.lookups);
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertEquals(2, cache.getMisses());
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testBatchLookupForwardsMissingGroups() throws EntitySearcherException {
+        CachingEntitySearcher cache = new CachingEntitySearcher(searcher, 10, -1);
+        cache.lookup(FIELD, null, Arrays.asList("Paris"), LANGUAGES, 5, null);
+        List<List<String>> searches = new ArrayList<List<String>>();
+        searches.add(Arrays.asList("Paris"));
+        searches.add(Arrays.asList("Berlin"));
+        searches.add(Arrays.asList("Berlin")); //duplicate group
+        Map<List<String>,Collection<? extends Entity>> results = cache.lookup(
+            FIELD, null, searches, LANGUAGES, 5);
+        Assert.assertEquals(2, results.size());
+        Assert.assertEquals(1, searcher.batchLookups);
+        Assert.assertEquals(Collections.singletonList(Arrays.asList("Berlin")),
+            searcher.lastBatch);
+        //now all groups are cached
+        results = cache.lookup(FIELD, null, searches, LANGUAGES, 5);
+        Assert.assertEquals(2, results.size());
+        Assert.assertEquals(1, searcher.batchLookups);
+        Assert.assertEquals(1, searcher.lookups);
+    }
+
+    @Test
+    public void testEviction() throws EntitySearcherException {
+        CachingEntitySearcher cache = new CachingEntitySearcher(searcher, 2, -1);
+        cache.lookup(FIELD, null, Arrays.asList("Paris"), LANGUAGES, 5, null);
+        cache.lookup(FIELD, null, Arrays.asList("Berlin"), LANGUAGES, 5, null);
+        //access Paris so that Berlin is the least recently used lookup
+        cache.lookup(FIELD, null, Arrays.asList("Paris"), LANGUAGES, 5, null);
+        cache.lookup(FIELD, null, Arrays.asList("Vienna"), LANGUAGES, 5, null);
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.getEvictions());
+        cache.lookup(FIELD, null, Arrays.asList("Paris"), LANGUAGES, 5, null);
+        Assert.assertEquals(3, searcher.lookups);
+        cache.lookup(FIELD, null, Arrays.asList("Berlin"), LANGUAGES, 5, null);
+        Assert.assertEquals(4, searcher.lookups);
+    }
+
+    @Test
+    public void testExpiration() throws EntitySearcherException, InterruptedException {
+        CachingEntitySearcher cache = new CachingEntitySearcher(searcher, 10, 1);
+        cache.lookup(FIELD, null, Arrays.asList("Paris"), LANGUAGES, 5, null);
+        Thread.sleep(10);
+        cache.lookup(FIELD, null, Arrays.asList("Paris"), LANGUAGES, 5, null);
+        Assert.assertEquals(2, searcher.lookups);
+        Assert.assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void testInvalidate() throws EntitySearcherException {
+        CachingEntitySearcher cache = new CachingEntitySearcher(searcher, 10, -1);
+        cache.lookup(FIELD, null, Arrays.asList("Paris"), LANGUAGES, 5, null);
+        cache.invalidate();
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(1, cache.getInvalidations());
+        cache.lookup(FIELD, null, Arrays.asList("Paris"), LANGUAGES, 5, null);
+        Assert.assertEquals(2, searcher.lookups);
+        Assert.assertEquals(0f, cache.getHitRatio(), 0.001f);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testInvalidSize(){
+        new CachingEntitySearcher(searcher, 0, -1);
+    }
+
+    /**
+     * {@link EntitySearcher} that returns a single Entity for every lookup
+     * and counts the lookups
+     */
+    private static class CountingSearcher implements EntitySearcher {
+
+        int lookups;
+        int batchLookups;
+        List<List<String>> lastBatch;
+
+        @Override
+        public Collection<? extends Entity> lookup(UriRef field, Set<UriRef> selectedFields,
+                List<String> search, String[] languages, Integer limit, Integer offset) {
+            lookups++;
+            return createResults(search);
+        }
+
+        @Override
+        public Map<List<String>,Collection<? extends Entity>> lookup(UriRef field,
+                Set<UriRef> selectedFields, Collection<List<String>> searches,
+                String[] languages, Integer limit) {
+            batchLookups++;
+            lastBatch = new ArrayList<List<String>>(searches);
+            Map<List<String>,Collection<? extends Entity>> results =
+                    new HashMap<List<String>,Collection<? extends Entity>>();
+            for(List<String> search : searches){
+                results.put(search, createResults(search));
+            }
+            return results;
+        }
+
+        private Collection<? extends Entity> createResults(List<String> search) {
+            return Collections.singletonList(new Entity(
+                new UriRef("urn:test:" + search.get(0).trim()), new SimpleMGraph()));
+        }
+
+        @Override
+        public Entity get(UriRef id, Set<UriRef> selectedFields, String...languages) {
+            return null;
+        }
+
+        @Override
+        public boolean supportsOfflineMode() {
+            return true;
+        }
+
+        @Override
+        public Integer getLimit() {
+            return null;
+        }
+
+        @Override
+        public Map<UriRef,Collection<Resource>> getOriginInformation() {
+            return Collections.emptyMap();
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.engines.entityhublinking;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.clerezza.rdf.core.UriRef;
+import org.apache.stanbol.enhancer.engines.entitylinking.Entity;
+import org.apache.stanbol.enhancer.engines.entitylinking.EntitySearcherException;
+import org.apache.stanbol.entityhub.model.clerezza.RdfValueFactory;
+import org.apache.stanbol.entityhub.servicesapi.model.Representation;
+import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
+import org.apache.stanbol.entityhub.servicesapi.query.FieldQueryFactory;
+import org.apache.stanbol.entityhub.servicesapi.query.QueryResultList;
+import org.apache.stanbol.entityhub.servicesapi.query.TextConstraint;
+import org.apache.stanbol.entityhub.servicesapi.site.Site;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Filter;
+import org.osgi.framework.ServiceReference;
+
+/**
+ * Counts the requests sent to the {@link Site} by the batch lookup of the
+ * {@link ReferencedSiteSearcher}
+ */
+public class ReferencedSiteSearcherTest {
+
+    private static final UriRef FIELD = new UriRef("http://www.w3.org/2000/01/rdf-schema#label");
+    private static final String[] LANGUAGES = new String[]{null, "en"};
+    /**
+     * Found for every search
+     */
+    private static final String SHARED = "urn:test:shared";
+
+    private TestSite site;
+    private ReferencedSiteSearcher searcher;
+
+    @Before
+    public void initSearcher(){
+        site = new TestSite();
+        searcher = new ReferencedSiteSearcher(createBundleContext(site.proxy), "test", 10);
+        searcher.open();
+    }
+
+    @After
+    public void closeSearcher(){
+        searcher.close();
+    }
+
+    /**
+     * A batch lookup needs a single id search per distinct group and a single
+     * request for the Representations of all found Entities. The id searches
+     * are executed concurrently.
+     */
+    @Test
+    public void testBatchLookupRoundTrips() throws EntitySearcherException {
+        List<List<String>> searches = new ArrayList<List<String>>();
+        searches.add(Arrays.asList("Paris"));
+        searches.add(Arrays.asList("Berlin"));
+        searches.add(Arrays.asList("Rome", "Roma"));
+        searches.add(Arrays.asList("Berlin")); //duplicate group
+        //all three id searches need to wait for each other
+        site.concurrentSearches = new CountDownLatch(3);
+        Map<List<String>,Collection<? extends Entity>> results = searcher.lookup(
+            FIELD, null, searches, LANGUAGES, 5);
+        Assert.assertEquals(3, site.searches.get());
+        Assert.assertEquals(3, site.concurrent.get());
+        Assert.assertEquals(1, site.loads.get());
+        Assert.assertEquals(0, site.finds.get());
+        //the shared Entity is only loaded once
+        Assert.assertEquals(5, site.loaded.size());
+        Assert.assertEquals(3, results.size());
+        Assert.assertEquals(Arrays.asList("urn:test:Rome", "urn:test:Roma", SHARED),
+            getIds(results.get(Arrays.asList("Rome", "Roma"))));
+        Assert.assertEquals(Arrays.asList("urn:test:Berlin", SHARED),
+            getIds(results.get(Arrays.asList("Berlin"))));
+    }
+
+    @Test
+    public void testSingleGroupBatchLookup() throws EntitySearcherException {
+        List<List<String>> searches = new ArrayList<List<String>>();
+        searches.add(Arrays.asList("Paris"));
+        Map<List<String>,Collection<? extends Entity>> results = searcher.lookup(
+            FIELD, null, searches, LANGUAGES, 5);
+        Assert.assertEquals(1, site.searches.get());
+        Assert.assertEquals(1, site.loads.get());
+        Assert.assertEquals(Arrays.asList("urn:test:Paris", SHARED),
+            getIds(results.get(Arrays.asList("Paris"))));
+    }
+
+    private static List<String> getIds(Collection<? extends Entity> entities){
+        List<String> ids = new ArrayList<String>(entities.size());
+        for(Entity entity : entities){
+            ids.add(entity.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Creates a BundleContext that provides the parsed Site to the
+     * ServiceTracker of the {@link ReferencedSiteSearcher}
+     */
+    private static BundleContext createBundleContext(final Site site){
+        final ServiceReference reference = proxy(ServiceReference.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                return null; //no service properties
+            }
+        });
+        return proxy(BundleContext.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if("createFilter".equals(method.getName())){
+                    return createFilter((String)args[0]);
+                } else if("getServiceReferences".equals(method.getName()) ||
+                        "getAllServiceReferences".equals(method.getName())){
+                    return new ServiceReference[]{reference};
+                } else if("getService".equals(method.getName())){
+                    return site;
+                } else if(method.getReturnType() == boolean.class){
+                    return Boolean.TRUE; //ungetService
+                }
+                return null; //service listener and properties
+            }
+        });
+    }
+
+    private static Filter createFilter(final String filter){
+        return proxy(Filter.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if("toString".equals(method.getName())){
+                    return filter;
+                }
+                return Boolean.TRUE; //match
+            }
+        });
+    }
+
+    /**
+     * Creates a proxy that uses the identity for equals and hashCode
+     */
+    private static <T> T proxy(Class<T> type, final InvocationHandler handler){
+        return type.cast(Proxy.newProxyInstance(ReferencedSiteSearcherTest.class.getClassLoader(),
+            new Class<?>[]{type}, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    if("equals".equals(method.getName()) && args != null && args.length == 1){
+                        return proxy == args[0];
+                    } else if("hashCode".equals(method.getName()) && args == null){
+                        return System.identityHashCode(proxy);
+                    }
+                    return handler.invoke(proxy, method, args);
+                }
+            }));
+    }
+
+    /**
+     * Site that finds an Entity for every search text and the
+     * {@link ReferencedSiteSearcherTest#SHARED} Entity for all searches.
+     * Counts the requests.
+     */
+    private static class TestSite implements InvocationHandler {
+
+        final Site proxy = proxy(Site.class, this);
+        final AtomicInteger searches = new AtomicInteger();
+        final AtomicInteger loads = new AtomicInteger();
+        final AtomicInteger finds = new AtomicInteger();
+        /**
+         * The number of id searches that were executed concurrently
+         */
+        final AtomicInteger concurrent = new AtomicInteger();
+        volatile CountDownLatch concurrentSearches;
+        final Set<String> loaded = Collections.synchronizedSet(new HashSet<String>());
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if("getId".equals(name)){
+                return "test";
+            } else if("getQueryFactory".equals(name)){
+                return proxy(FieldQueryFactory.class, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        return proxy(FieldQuery.class, new TestQuery());
+                    }
+                });
+            } else if("findReferences".equals(name)){
+                searches.incrementAndGet();
+                CountDownLatch latch = concurrentSearches;
+                if(latch != null){
+                    latch.countDown();
+                    if(latch.await(5, TimeUnit.SECONDS)){
+                        concurrent.incrementAndGet();
+                    }
+                }
+                TestQuery query = (TestQuery)Proxy.getInvocationHandler(args[0]);
+                final List<String> ids = new ArrayList<String>();
+                for(String text : query.constraint.getTexts()){
+                    ids.add("urn:test:" + text);
+                }
+                ids.add(SHARED);
+                return proxy(QueryResultList.class, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if("results".equals(method.getName())){
+                            return ids;
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+            } else if("getRepresentations".equals(name)){
+                loads.incrementAndGet();
+                Map<String,Representation> representations = new HashMap<String,Representation>();
+                for(Object id : (Iterable<?>)args[0]){
+                    loaded.add((String)id);
+                    representations.put((String)id,
+                        RdfValueFactory.getInstance().createRepresentation((String)id));
+                }
+                return representations;
+            } else if("find".equals(name)){
+                finds.incrementAndGet();
+            }
+            throw new UnsupportedOperationException(name);
+        }
+    }
+
+    /**
+     * FieldQuery that only keeps the {@link TextConstraint}
+     */
+    private static class TestQuery implements InvocationHandler {
+
+        volatile TextConstraint constraint;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if("setConstraint".equals(method.getName())){
+                constraint = (TextConstraint)args[1];
+            }
+            return null; //selected fields, limit and offset
+        }
+    }
+}
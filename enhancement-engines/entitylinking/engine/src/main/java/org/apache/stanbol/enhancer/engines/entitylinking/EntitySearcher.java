@@ -55,6 +55,32 @@ public interface EntitySearcher {
     Collection<? extends Entity> lookup(UriRef field, Set<UriRef> selectedFields, 
         List<String> search, String[] languages, Integer limit, Integer offset) 
                 throws EntitySearcherException;
+    /**
+     * Lookup Entities for multiple groups of search tokens (e.g. all the
+     * search tokens of a sentence) with a single call. This allows
+     * implementations to reduce the number of round-trips to the vocabulary
+     * (e.g. by combining or parallelizing requests).<p>
+     * The returned map uses the parsed search token groups as keys. For
+     * every group the first page of results is returned - the same as
+     * returned by {@link #lookup(UriRef, Set, List, String[], Integer, Integer)}
+     * with an offset of <code>0</code>. Duplicated groups are only searched
+     * once.
+     * @param field the field used to search for values in the parsed languages
+     * @param selectedFields A set of fields that need to be included within the
+     * returned {@link Representation}s
+     * @param searches the groups of search tokens. MUST NOT be <code>null</code>
+     * @param languages the languages to include in the search
+     * @param limit The maximum number of results per group or <code>null</code>
+     * to use the default
+     * @return the Entities found for the parsed search token groups
+     * @throws EntitySearcherException An exception while searching for concepts
+     * @throws IllegalArgumentException if the parsed field is <code>null</code>;
+     * the collection with the search groups is <code>null</code> or contains
+     * a <code>null</code> or empty list;
+     */
+    Map<List<String>,Collection<? extends Entity>> lookup(UriRef field,
+        Set<UriRef> selectedFields, Collection<List<String>> searches,
+        String[] languages, Integer limit) throws EntitySearcherException;
     /**
      * Lookup an Entity of the linked vocabulary by the id.
      * @param id the id
@@ -98,6 +98,15 @@ public class EntityLinkerConfig {
      * @see EntityLinkerConfig#DEFAULT_LEMMA_MATCHING_STATE
      */
     public static final String LEMMA_MATCHING_STATE = "enhancer.engines.linking.lemmaMatching";
+    /**
+     * If enabled the search tokens of all linkable tokens of a section are
+     * collected before the matching and looked up by a single
+     * {@link EntitySearcher#lookup(UriRef, Set, java.util.Collection, String[], Integer)
+     * batch lookup}.
+     * @see EntityLinkerConfig#isBatchLookup()
+     * @see EntityLinkerConfig#DEFAULT_BATCH_LOOKUP_STATE
+     */
+    public static final String BATCH_LOOKUP_STATE = "enhancer.engines.linking.batchLookup";
     /**
      * Can be used to that the "default language" from <code>null</code>
      * (labels without language tag) to an other value (e.g. "en").<p>
@@ -271,6 +280,12 @@ public class EntityLinkerConfig {
      * By default Lemma based matching is deactivated.
      */
     public static final boolean DEFAULT_LEMMA_MATCHING_STATE = false;
+    /**
+     * By default batch lookups are deactivated. Searchers that can not combine
+     * the searches of a batch need at least as many requests as single lookups
+     * and search tokens consumed by an earlier match are also looked up.
+     */
+    public static final boolean DEFAULT_BATCH_LOOKUP_STATE = false;
     public static final double DEFAULT_MIN_LABEL_SCORE = 0.75;
     public static final double DEFAULT_MIN_TEXT_SCORE = 0.4;
     public static final double DEFAULT_MIN_MATCH_SCORE = 0.3;
@@ -468,6 +483,10 @@ public class EntityLinkerConfig {
      * and match Entities within the linked vocabulary
      */
     private boolean lemmaMatchingState = DEFAULT_LEMMA_MATCHING_STATE;
+    /**
+     * If search tokens of sections are looked up by batch lookups
+     */
+    private boolean batchLookupState = DEFAULT_BATCH_LOOKUP_STATE;
     private double minLabelScore = DEFAULT_MIN_LABEL_SCORE;
     private double minTextScore = DEFAULT_MIN_TEXT_SCORE;
     private double minMatchScore = DEFAULT_MIN_MATCH_SCORE;
@@ -686,6 +705,14 @@ public class EntityLinkerConfig {
             linkerConfig.setLemmaMatchingState(Boolean.parseBoolean(value.toString()));
         }
         
+        //init BATCH_LOOKUP_STATE
+        value = configuration.get(BATCH_LOOKUP_STATE);
+        if(value instanceof Boolean){
+            linkerConfig.setBatchLookupState((Boolean)value);
+        } else if (value != null){
+            linkerConfig.setBatchLookupState(Boolean.parseBoolean(value.toString()));
+        }
+        
         //init MAX_SEARCH_TOKENS
         value = configuration.get(MAX_SEARCH_TOKENS);
         Integer maxSearchTokens;
@@ -1299,6 +1326,22 @@ public class EntityLinkerConfig {
             this.lemmaMatchingState = lemmaMatchingState;
         }
     }
+    /**
+     * If the search tokens of all linkable tokens of a section are looked up
+     * by a single batch lookup before the matching.
+     * @return the batch lookup state
+     */
+    public boolean isBatchLookup() {
+        return batchLookupState;
+    }
+    
+    public void setBatchLookupState(Boolean batchLookupState) {
+        if(batchLookupState == null){
+            this.batchLookupState = DEFAULT_BATCH_LOOKUP_STATE;
+        } else {
+            this.batchLookupState = batchLookupState;
+        }
+    }
     /**
      * The minimum LabelScore required to suggest an Entity.<p>
      * The "Label Score" [0..1] represents how much of the
@@ -24,9 +24,11 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.NavigableMap;
 import java.util.Set;
 import java.util.TreeMap;
@@ -87,6 +89,8 @@ public class EntityLinker {
     private Statistic textProcessingStats = new Statistic("Text Processing");
     private Statistic lookupStats = new Statistic("Vocabulary Lookup");
     private int cacheHits = 0;
+    private Statistic batchLookupStats = new Statistic("Batch Lookup");
+    private int prefetchHits = 0;
     private int numQueryResults = 0;
     private int numFilteredResults = 0;
     private Statistic matchingStats = new Statistic("Label Matching");
@@ -97,6 +101,20 @@ public class EntityLinker {
     private long processingTime = -1;
 
     private HashMap<List<String>,List<Entity>> lookupCache;
+    /**
+     * The results of the batch lookup for the current section. Used instead
+     * of requesting the first page of results for search strings
+     */
+    private final Map<List<String>,Collection<? extends Entity>> prefetched = 
+            new HashMap<List<String>,Collection<? extends Entity>>();
+    /**
+     * The tokens of the section {@link #prefetched} was initialised for
+     */
+    private List<TokenData> prefetchedTokens;
+    /**
+     * The languages used for lookups
+     */
+    private String[] languages;
 
 
     public EntityLinker(AnalysedText analysedText, String language,
@@ -161,104 +179,18 @@ public class EntityLinker {
                         token.isLinkable, token.isMatchable, token.inChunk != null ? 
                                 (token.inChunk.chunk + " "+ token.inChunk.chunk.getSpan()) : "none"});
             }
-            List<TokenData> searchStrings = new ArrayList<TokenData>(linkerConfig.getMaxSearchTokens());
-            getSearchString(token);
-            searchStrings.add(token);
-            //Determine the range we are allowed to search for tokens
-            final int minIncludeIndex;
-            final int maxIndcludeIndex;
-            int consumedIndex = state.getConsumedIndex();
-            //NOTE: testing has shown that using Chunks to restrict search for
-            //      additional matchable tokens does have an negative impact on
-            //      recall. Because of that this restriction is for now deactivated
-//            if(token.inChunk != null && !textProcessingConfig.isIgnoreChunks()){
-//                minIncludeIndex = token.inChunk.getStartTokenIndex();
-//                maxIndcludeIndex = token.inChunk.getEndTokenIndex();
-//                log.debug("  - restrict context to chunk[{}, {}]",
-//                    minIncludeIndex, maxIndcludeIndex);
-//            } else {
-                maxIndcludeIndex = state.getTokens().size() - 1;
-                minIncludeIndex = 0;
-//            }
-            int prevIndex = token.index;
-            int pastIndex = token.index;
-            int pastNonMatchable = 0;
-            int prevNonMatchable = 0;
-            int distance = 0;
-            do { 
-                distance++;//keep track of the distance
-                //get the past token at the given distance (However ignore
-                //non AlphaNumeric tokens when calculating the distance)
-                pastIndex++;
-                TokenData pastToken = null;
-                while(pastToken == null && maxIndcludeIndex >= pastIndex &&
-                        pastNonMatchable <= 1){
-                    TokenData td = state.getTokens().get(pastIndex);
-                    if(td.hasAlphaNumeric){
-                        pastToken = td;
-                    } else {
-                        pastIndex++;
-                    }
-                }
-                //get the previous token at the given distance (However ignore
-                //non AlphaNumeric tokens when calculating the distance)
-                prevIndex--;
-                TokenData prevToken = null;
-                while(prevToken == null && minIncludeIndex <= prevIndex &&
-                        //allow one nonMatchable token if prevIndex > the last
-                        //consumed one and zero nonMatchable if prevIndex is <=
-                        //the last consumed one
-                        ((prevIndex > consumedIndex && prevNonMatchable <= 1) ||
-                                prevIndex <= consumedIndex && prevNonMatchable < 1)){
-                    TokenData td = state.getTokens().get(prevIndex);
-                    if(td.hasAlphaNumeric){
-                        prevToken = td;
-                    } else {
-                        prevIndex--;
-                    }
-                }
-                //now that we know the tokens at this distance check if they are matchable
-                //Fist the past token
-                if(pastToken != null){
-                    if(log.isDebugEnabled()){
-                        log.debug("    {} {}:'{}' (lemma: {}) linkable={}, matchable={}",new Object[]{
-                                pastToken.isMatchable? '+':'-',pastToken.index,
-                                pastToken.getTokenText(), pastToken.getTokenLemma(),
-                                pastToken.isLinkable, pastToken.isMatchable
-                        });
-                    }
-                    if(pastToken.isMatchable){
-                        searchStrings.add(pastToken);
-                    } else {
-                        pastNonMatchable++;
-                    }
-                }
-                //Second in the previous token
-                if(prevToken != null){
-                    if(log.isDebugEnabled()){
-                        log.debug("    {} {}:'{}' (lemma: {}) linkable={}, matchable={}",new Object[]{
-                            prevToken.isMatchable? '+':'-',prevToken.index,
-                            prevToken.getTokenText(), prevToken.getTokenLemma(),
-                            prevToken.isLinkable, prevToken.isMatchable
-                        });
-                    }
-                    if(prevToken.isMatchable){
-                        getSearchString(prevToken);
-                        searchStrings.add(0,prevToken);
-                    } else {
-                        prevNonMatchable++;
-                    }
-                }
-            } while(searchStrings.size() < linkerConfig.getMaxSearchTokens() && distance <
-                    linkerConfig.getMaxSearchDistance() &&
-                    (prevIndex > minIncludeIndex || pastIndex < maxIndcludeIndex) &&
-                    (prevNonMatchable <= 1 || pastNonMatchable <= 1));
-            //we might have an additional element in the list
-            if(searchStrings.size() > linkerConfig.getMaxSearchTokens()){
-                searchStrings = searchStrings.subList( //the last part of the list
-                    searchStrings.size()-linkerConfig.getMaxSearchTokens(), 
-                    searchStrings.size());
+            if(linkerConfig.isBatchLookup() && state.getTokens() != prefetchedTokens){
+                //a new section ... collect and lookup the search tokens of
+                //all linkable tokens of the section
+                //NOTE: suspend the text processing statistic so that the
+                //      batch lookup is excluded without increasing the count
+                textProcessingStats.suspend();
+                prefetchedTokens = state.getTokens();
+                prefetch(prefetchedTokens);
+                textProcessingStats.resume();
             }
+            List<TokenData> searchStrings = getSearchTokens(token, state.getTokens(), 
+                state.getConsumedIndex());
             if(log.isDebugEnabled()){
                 List<String> list = new ArrayList<String>(searchStrings.size());
                 for(TokenData dt : searchStrings){
@@ -393,6 +325,155 @@ public class EntityLinker {
         }
         this.processingTime = System.currentTimeMillis()-startTime;
     }
+    /**
+     * Collects the tokens used to search for Entities for the parsed token.
+     * Those are the parsed token and the matchable tokens in its context as
+     * restricted by the {@link EntityLinkerConfig#getMaxSearchTokens()} and
+     * {@link EntityLinkerConfig#getMaxSearchDistance()}.
+     * @param token the token
+     * @param tokens the tokens of the current section
+     * @param consumedIndex the index of the last consumed token of the
+     * section or <code>-1</code> if none
+     * @return the search tokens in the order as they appear in the text
+     */
+    private List<TokenData> getSearchTokens(TokenData token, List<TokenData> tokens, int consumedIndex) {
+        List<TokenData> searchStrings = new ArrayList<TokenData>(linkerConfig.getMaxSearchTokens());
+        getSearchString(token);
+        searchStrings.add(token);
+        //Determine the range we are allowed to search for tokens
+        final int minIncludeIndex;
+        final int maxIndcludeIndex;
+        //NOTE: testing has shown that using Chunks to restrict search for
+        //      additional matchable tokens does have an negative impact on
+        //      recall. Because of that this restriction is for now deactivated
+//            if(token.inChunk != null && !textProcessingConfig.isIgnoreChunks()){
+//                minIncludeIndex = token.inChunk.getStartTokenIndex();
+//                maxIndcludeIndex = token.inChunk.getEndTokenIndex();
+//                log.debug("  - restrict context to chunk[{}, {}]",
+//                    minIncludeIndex, maxIndcludeIndex);
+//            } else {
+            maxIndcludeIndex = tokens.size() - 1;
+            minIncludeIndex = 0;
+//            }
+        int prevIndex = token.index;
+        int pastIndex = token.index;
+        int pastNonMatchable = 0;
+        int prevNonMatchable = 0;
+        int distance = 0;
+        do { 
+            distance++;//keep track of the distance
+            //get the past token at the given distance (However ignore
+            //non AlphaNumeric tokens when calculating the distance)
+            pastIndex++;
+            TokenData pastToken = null;
+            while(pastToken == null && maxIndcludeIndex >= pastIndex &&
+                    pastNonMatchable <= 1){
+                TokenData td = tokens.get(pastIndex);
+                if(td.hasAlphaNumeric){
+                    pastToken = td;
+                } else {
+                    pastIndex++;
+                }
+            }
+            //get the previous token at the given distance (However ignore
+            //non AlphaNumeric tokens when calculating the distance)
+            prevIndex--;
+            TokenData prevToken = null;
+            while(prevToken == null && minIncludeIndex <= prevIndex &&
+                    //allow one nonMatchable token if prevIndex > the last
+                    //consumed one and zero nonMatchable if prevIndex is <=
+                    //the last consumed one
+                    ((prevIndex > consumedIndex && prevNonMatchable <= 1) ||
+                            prevIndex <= consumedIndex && prevNonMatchable < 1)){
+                TokenData td = tokens.get(prevIndex);
+                if(td.hasAlphaNumeric){
+                    prevToken = td;
+                } else {
+                    prevIndex--;
+                }
+            }
+            //now that we know the tokens at this distance check if they are matchable
+            //Fist the past token
+            if(pastToken != null){
+                if(log.isDebugEnabled()){
+                    log.debug("    {} {}:'{}' (lemma: {}) linkable={}, matchable={}",new Object[]{
+                            pastToken.isMatchable? '+':'-',pastToken.index,
+                            pastToken.getTokenText(), pastToken.getTokenLemma(),
+                            pastToken.isLinkable, pastToken.isMatchable
+                    });
+                }
+                if(pastToken.isMatchable){
+                    searchStrings.add(pastToken);
+                } else {
+                    pastNonMatchable++;
+                }
+            }
+            //Second in the previous token
+            if(prevToken != null){
+                if(log.isDebugEnabled()){
+                    log.debug("    {} {}:'{}' (lemma: {}) linkable={}, matchable={}",new Object[]{
+                        prevToken.isMatchable? '+':'-',prevToken.index,
+                        prevToken.getTokenText(), prevToken.getTokenLemma(),
+                        prevToken.isLinkable, prevToken.isMatchable
+                    });
+                }
+                if(prevToken.isMatchable){
+                    getSearchString(prevToken);
+                    searchStrings.add(0,prevToken);
+                } else {
+                    prevNonMatchable++;
+                }
+            }
+        } while(searchStrings.size() < linkerConfig.getMaxSearchTokens() && distance <
+                linkerConfig.getMaxSearchDistance() &&
+                (prevIndex > minIncludeIndex || pastIndex < maxIndcludeIndex) &&
+                (prevNonMatchable <= 1 || pastNonMatchable <= 1));
+        //we might have an additional element in the list
+        if(searchStrings.size() > linkerConfig.getMaxSearchTokens()){
+            searchStrings = searchStrings.subList( //the last part of the list
+                searchStrings.size()-linkerConfig.getMaxSearchTokens(), 
+                searchStrings.size());
+        }
+        return searchStrings;
+    }
+    /**
+     * Collects the search tokens of all linkable tokens of a section and
+     * looks them up by using {@link EntitySearcher#lookup(UriRef, Set, Collection, String[], Integer)
+     * batch lookups} (one per number of search tokens as this defines the
+     * lookup limit). The results are stored in {@link #prefetched} and are
+     * used by {@link #performLookup(List, String[], List, List, List)}
+     * instead of requesting the first page of results.<p>
+     * As tokens consumed by matches are not known in advance the search
+     * tokens are calculated as if no token was consumed. Lookups for search
+     * tokens that differ because of consumed tokens are performed as usual.
+     * @param tokens the tokens of the section
+     * @throws EntitySearcherException on any error during the batch lookup
+     */
+    private void prefetch(List<TokenData> tokens) throws EntitySearcherException {
+        prefetched.clear();
+        Map<Integer,Set<List<String>>> searches = new TreeMap<Integer,Set<List<String>>>();
+        for(TokenData token : tokens){
+            if(token.isLinkable){
+                List<String> searchStrings = getSearchStrings(getSearchTokens(token, tokens, -1));
+                if(!lookupCache.containsKey(searchStrings)){
+                    Set<List<String>> group = searches.get(searchStrings.size());
+                    if(group == null){
+                        group = new LinkedHashSet<List<String>>();
+                        searches.put(searchStrings.size(), group);
+                    }
+                    group.add(searchStrings);
+                }
+            }
+        }
+        for(Entry<Integer,Set<List<String>>> entry : searches.entrySet()){
+            log.debug(" > batch lookup of {} search token groups", entry.getValue().size());
+            batchLookupStats.begin();
+            prefetched.putAll(entitySearcher.lookup(linkerConfig.getNameField(),
+                linkerConfig.getSelectedFields(), entry.getValue(), getLanguages(),
+                getLookupLimit(entry.getKey())));
+            batchLookupStats.complete();
+        }
+    }
     /**
      * @param suggestions
      */
@@ -574,18 +655,8 @@ public class EntityLinker {
      * @throws EntitySearcherException 
      */
     private List<Suggestion> lookupEntities(List<TokenData> searchTokens) throws EntitySearcherException {
-        Set<String> languages = new HashSet<String>();
-        languages.add(linkerConfig.getDefaultLanguage());
-        languages.add(state.getLanguage());
-        int countryCodeIndex = state.getLanguage() == null ? -1 : state.getLanguage().indexOf('-');
-        if(countryCodeIndex >= 2){
-            languages.add(state.getLanguage().substring(0,countryCodeIndex));
-        }
-        List<String> searchStrings = new ArrayList<String>(searchTokens.size());
-        for(Iterator<TokenData> it = searchTokens.iterator();it.hasNext();){
-            searchStrings.add(getSearchString(it.next()));
-        }
-        String[] languageArray = languages.toArray(new String[languages.size()]);
+        List<String> searchStrings = getSearchStrings(searchTokens);
+        String[] languageArray = getLanguages();
         List<Suggestion> suggestions = new ArrayList<Suggestion>();
         //check if we have the search strings in the cache
         List<Entity> results = lookupCache.get(searchStrings);
@@ -632,6 +703,48 @@ public class EntityLinker {
         }
         return suggestions;
     }
+    /**
+     * The languages used to lookup Entities. This includes the
+     * {@link EntityLinkerConfig#getDefaultLanguage() default language}, the
+     * language of the document and the main language if the language of the
+     * document defines a country code.
+     * @return the languages
+     */
+    private String[] getLanguages(){
+        if(languages == null){
+            Set<String> languageSet = new HashSet<String>();
+            languageSet.add(linkerConfig.getDefaultLanguage());
+            languageSet.add(state.getLanguage());
+            int countryCodeIndex = state.getLanguage() == null ? -1 : state.getLanguage().indexOf('-');
+            if(countryCodeIndex >= 2){
+                languageSet.add(state.getLanguage().substring(0,countryCodeIndex));
+            }
+            languages = languageSet.toArray(new String[languageSet.size()]);
+        }
+        return languages;
+    }
+    /**
+     * Getter for the {@link #getSearchString(TokenData) search strings} of
+     * the parsed tokens
+     * @param searchTokens the tokens
+     * @return the search strings
+     */
+    private List<String> getSearchStrings(List<TokenData> searchTokens){
+        List<String> searchStrings = new ArrayList<String>(searchTokens.size());
+        for(Iterator<TokenData> it = searchTokens.iterator();it.hasNext();){
+            searchStrings.add(getSearchString(it.next()));
+        }
+        return searchStrings;
+    }
+    /**
+     * The number of Entities requested by a lookup for the parsed number of
+     * search tokens
+     * @param numSearchTokens the number of search tokens
+     * @return the lookup limit
+     */
+    private int getLookupLimit(int numSearchTokens){
+        return Math.max(MIN_SEARCH_LIMIT, linkerConfig.getMaxSuggestions()*2*numSearchTokens);
+    }
     /**
      * @param searchStrings
      * @param languageArray
@@ -648,7 +761,7 @@ public class EntityLinker {
             List<Suggestion> suggestions, List<TokenData> searchTokens, 
             List<Entity> queryResults) throws EntitySearcherException {
         int minProcessedResults = linkerConfig.getMaxSuggestions()*3;
-        int lookupLimit = Math.max(MIN_SEARCH_LIMIT, linkerConfig.getMaxSuggestions()*2*searchTokens.size());
+        int lookupLimit = getLookupLimit(searchTokens.size());
         int maxResults = lookupLimit*2;
         int offset = 0;
         int numFiltered = 0;
@@ -667,13 +780,18 @@ public class EntityLinker {
         while(suggestions.size() < linkerConfig.getMaxSuggestions() &&
                 moreResultsAvailable && (numResults-numFiltered) < (minProcessedResults) &&
                 numResults < maxResults){
-            Collection<? extends Entity> results;
-            log.debug("   > request entities [{}-{}] entities ...",offset,(offset+lookupLimit));
-            lookupStats.begin(); //keep statistics
-            results = entitySearcher.lookup(linkerConfig.getNameField(),
-                linkerConfig.getSelectedFields(), searchStrings, languageArray,
-                lookupLimit, offset);
-            lookupStats.complete();
+            Collection<? extends Entity> results = offset == 0 ? 
+                    prefetched.remove(searchStrings) : null;
+            if(results != null){ //use the results of the batch lookup
+                prefetchHits++;
+            } else {
+                log.debug("   > request entities [{}-{}] entities ...",offset,(offset+lookupLimit));
+                lookupStats.begin(); //keep statistics
+                results = entitySearcher.lookup(linkerConfig.getNameField(),
+                    linkerConfig.getSelectedFields(), searchStrings, languageArray,
+                    lookupLimit, offset);
+                lookupStats.complete();
+            }
             log.debug("      < found {} entities ...",results.size());
             //queries might return more as the requested results
             moreResultsAvailable = results.size() >= lookupLimit;
@@ -1262,7 +1380,7 @@ public class EntityLinker {
     public void logStatistics(Logger log){
         log.info("EntityLinking Statistics:");
         double textProcessingDuration = textProcessingStats.getDuration();
-        double lookupDuration = lookupStats.getDuration();
+        double lookupDuration = lookupStats.getDuration() + batchLookupStats.getDuration();
         double matchingDuration = matchingStats.getDuration();
         double rankingDuration = rankingStats.getDuration();
         double other = processingTime-textProcessingDuration-lookupDuration-matchingDuration;
@@ -1279,6 +1397,8 @@ public class EntityLinker {
         float cacheHitPercentage = lookupStats.count > 0 ? //avoid division by zero
                 cacheHits*100f/(float)lookupStats.count : Float.NaN;
         log.info("    - cache hits: {} ({}%)",cacheHits,cacheHitPercentage);
+        batchLookupStats.printStatistics(log);
+        log.info("    - batch lookup hits: {}",prefetchHits);
         log.info("      - {} query results ({} filtered - {}%)",
             new Object[]{numQueryResults,numFilteredResults, 
                 numFilteredResults*100f/(float)numQueryResults});
@@ -24,6 +24,7 @@ public class Statistic {
     int count = 0;
     int closedCount = 0;
     boolean started = false;
+    boolean suspended = false;
     long start;
     long duration;
     long max = -1;
@@ -55,6 +56,28 @@ public class Statistic {
         count--;
         started = false;
     }
+    /**
+     * Suspends the current measurement without completing it. The time until
+     * {@link #resume()} is called is not included in the duration and the
+     * count of this statistic is not changed.
+     */
+    public void suspend(){
+        if(started){
+            start = System.nanoTime() - start; //keep the elapsed time
+            started = false;
+            suspended = true;
+        }
+    }
+    /**
+     * Resumes a measurement previously {@link #suspend() suspended}
+     */
+    public void resume(){
+        if(suspended){
+            start = System.nanoTime() - start;
+            started = true;
+            suspended = false;
+        }
+    }
     public void complete(){
         if(started){
             long end = System.nanoTime();
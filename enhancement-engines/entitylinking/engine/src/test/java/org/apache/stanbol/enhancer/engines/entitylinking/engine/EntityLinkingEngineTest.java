@@ -342,6 +342,56 @@ public class EntityLinkingEngineTest {
                 Arrays.asList("urn:test:UniversityOfOtago","urn:test:UniversityOfOtago_Texas")));
         validateEntityLinkerResults(linker, expectedResults);
     }
+    /**
+     * Tests that the search tokens of the sections are looked up by batch
+     * lookups and that this does not change the linking results.
+     * @throws Exception
+     */
+    @Test
+    public void testEntityLinkerWithBatchLookup() throws Exception {
+        LanguageProcessingConfig tpc = new LanguageProcessingConfig();
+        tpc.setLinkedLexicalCategories(LanguageProcessingConfig.DEFAULT_LINKED_LEXICAL_CATEGORIES);
+        tpc.setLinkedPos(Collections.EMPTY_SET);
+        EntityLinkerConfig config = new EntityLinkerConfig();
+        config.setMinFoundTokens(2);//this is assumed by this test
+        config.setRedirectProcessingMode(RedirectProcessingMode.FOLLOW);
+        //first without batch lookups
+        config.setBatchLookupState(false);
+        searcher.resetStatistics();
+        EntityLinker linker = new EntityLinker(TEST_ANALYSED_TEXT,"en",
+            tpc, searcher, config, labelTokenizer);
+        linker.process();
+        assertEquals(0, searcher.getNumBatchLookups());
+        int numLookups = searcher.getNumLookups();
+        validateEntityLinkerResults(linker, getExpectedNounResults());
+        //now with batch lookups
+        config.setBatchLookupState(true);
+        searcher.resetStatistics();
+        linker = new EntityLinker(TEST_ANALYSED_TEXT,"en",
+            tpc, searcher, config, labelTokenizer);
+        linker.process();
+        assertTrue("No batch lookup performed", searcher.getNumBatchLookups() > 0);
+        assertTrue("Batch lookups MUST replace lookups (lookups with batch: "
+            + searcher.getNumLookups()+" | without: "+numLookups+")",
+            searcher.getNumLookups() < numLookups);
+        validateEntityLinkerResults(linker, getExpectedNounResults());
+    }
+    /**
+     * The expected results for {@link #TEST_ANALYSED_TEXT} when linking
+     * {@link LexicalCategory#Noun}s
+     */
+    private Map<String,List<String>> getExpectedNounResults() {
+        Map<String,List<String>> expectedResults = new HashMap<String,List<String>>();
+        expectedResults.put("Patrick Marshall", new ArrayList<String>(
+                Arrays.asList("urn:test:PatrickMarshall")));
+        expectedResults.put("geologist", new ArrayList<String>(
+                Arrays.asList("urn:test:redirect:Geologist"))); //the redirected entity
+        expectedResults.put("New Zealand", new ArrayList<String>(
+                Arrays.asList("urn:test:NewZealand")));
+        expectedResults.put("University of Otago", new ArrayList<String>(
+                Arrays.asList("urn:test:UniversityOfOtago","urn:test:UniversityOfOtago_Texas")));
+        return expectedResults;
+    }
     private void validateEntityLinkerResults(EntityLinker linker, Map<String,List<String>> expectedResults) {
         log.info("---------------------");
         log.info("- Validating Results-");
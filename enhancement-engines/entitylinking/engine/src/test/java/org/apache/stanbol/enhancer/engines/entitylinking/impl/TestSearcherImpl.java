@@ -46,6 +46,11 @@ public class TestSearcherImpl implements EntitySearcher {
     private SortedMap<String,Collection<Entity>> data = new TreeMap<String,Collection<Entity>>(String.CASE_INSENSITIVE_ORDER);
     private Map<UriRef,Entity> entities = new HashMap<UriRef,Entity>();
     private Map<UriRef,Collection<Resource>> originInfo;
+    /*
+     * The number of lookups and batch lookups
+     */
+    private int numLookups = 0;
+    private int numBatchLookups = 0;
 
     
     public TestSearcherImpl(String siteId,UriRef nameField, LabelTokenizer tokenizer) {
@@ -85,6 +90,11 @@ public class TestSearcherImpl implements EntitySearcher {
                                            Set<UriRef> includeFields,
                                            List<String> search,
                                            String[] languages,Integer numResults, Integer offset) throws IllegalStateException {
+        numLookups++;
+        return search(field, search, offset);
+    }
+
+    private Collection<? extends Entity> search(UriRef field, List<String> search, Integer offset){
         if(field.equals(nameField)){
             //we do not need sorting
             //Representation needs to implement equals, therefore results filters multiple matches
@@ -112,6 +122,41 @@ public class TestSearcherImpl implements EntitySearcher {
         }
     }
 
+    @Override
+    public Map<List<String>,Collection<? extends Entity>> lookup(UriRef field,
+                                           Set<UriRef> includeFields,
+                                           Collection<List<String>> searches,
+                                           String[] languages, Integer limit) throws IllegalStateException {
+        numBatchLookups++;
+        Map<List<String>,Collection<? extends Entity>> results = 
+                new HashMap<List<String>,Collection<? extends Entity>>();
+        for(List<String> search : searches){
+            if(!results.containsKey(search)){
+                results.put(search, search(field, search, null));
+            }
+        }
+        return results;
+    }
+    /**
+     * The number of {@link #lookup(UriRef, Set, List, String[], Integer, Integer)}
+     * calls since the last {@link #resetStatistics()}
+     */
+    public int getNumLookups() {
+        return numLookups;
+    }
+    /**
+     * The number of {@link #lookup(UriRef, Set, Collection, String[], Integer)}
+     * calls since the last {@link #resetStatistics()}
+     */
+    public int getNumBatchLookups() {
+        return numBatchLookups;
+    }
+
+    public void resetStatistics() {
+        numLookups = 0;
+        numBatchLookups = 0;
+    }
+
     @Override
     public boolean supportsOfflineMode() {
         return true;
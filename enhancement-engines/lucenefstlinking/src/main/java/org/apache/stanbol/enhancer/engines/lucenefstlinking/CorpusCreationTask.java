@@ -16,6 +16,7 @@
 */
 package org.apache.stanbol.enhancer.engines.lucenefstlinking;
 
+import java.io.File;
 import java.io.IOException;
 import java.security.AccessController;
 import java.security.PrivilegedActionException;
@@ -42,6 +43,10 @@ import org.slf4j.LoggerFactory;
 public class CorpusCreationTask implements Runnable{
 
     private final Logger log = LoggerFactory.getLogger(CorpusCreationTask.class);
+    /**
+     * The suffix of the temporary file used to write FST corpora
+     */
+    private static final String TMP_FILE_SUFFIX = ".tmp";
     
     private final CorpusInfo fstInfo;
     private final IndexConfiguration indexConfig;
@@ -102,12 +107,27 @@ public class CorpusCreationTask implements Runnable{
             try { //STANBOL-1177: save FST models in AccessController.doPrivileged(..)
                 AccessController.doPrivileged(new PrivilegedExceptionAction<Object>() {
                     public Object run() throws IOException {
-                        if(fstInfo.fst.exists()){
-                            if(!FileUtils.deleteQuietly(fstInfo.fst)){
-                                log.warn("Unable to delete existing FST file for {}", fstInfo);
+                        //write to a temporary file and replace the existing
+                        //file afterwards. This ensures that TaggingSessions
+                        //opening the FST file never see a partially written
+                        //corpus and that the existing corpus stays available
+                        //until the new one is completely written
+                        File tmp = new File(fstInfo.fst.getParentFile(),
+                            fstInfo.fst.getName() + TMP_FILE_SUFFIX);
+                        FileUtils.deleteQuietly(tmp);
+                        try {
+                            corpus.save(tmp);
+                            if(!tmp.renameTo(fstInfo.fst)){
+                                //renameTo fails on some platforms if the
+                                //target exists
+                                if(fstInfo.fst.exists() && !FileUtils.deleteQuietly(fstInfo.fst)){
+                                    log.warn("Unable to delete existing FST file for {}", fstInfo);
+                                }
+                                FileUtils.moveFile(tmp, fstInfo.fst);
                             }
+                        } finally {
+                            FileUtils.deleteQuietly(tmp);
                         }
-                        corpus.save(fstInfo.fst);
                         return null; //not used
                     }
                 });
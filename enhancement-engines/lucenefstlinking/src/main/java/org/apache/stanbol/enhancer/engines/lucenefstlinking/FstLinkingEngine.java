@@ -28,6 +28,7 @@ import static org.apache.stanbol.enhancer.servicesapi.rdf.Properties.RDF_TYPE;
 import static org.apache.stanbol.enhancer.servicesapi.rdf.TechnicalClasses.ENHANCER_TEXTANNOTATION;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -41,6 +42,10 @@ import java.util.NavigableMap;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.clerezza.rdf.core.Language;
 import org.apache.clerezza.rdf.core.Literal;
@@ -54,6 +59,7 @@ import org.apache.clerezza.rdf.core.impl.PlainLiteralImpl;
 import org.apache.clerezza.rdf.core.impl.TripleImpl;
 import org.apache.commons.io.input.CharSequenceReader;
 import org.apache.commons.lang.StringUtils;
+import org.apache.lucene.analysis.CharFilter;
 import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.util.IntsRef;
 import org.apache.lucene.util.OpenBitSet;
@@ -67,7 +73,9 @@ import org.apache.stanbol.enhancer.engines.entitylinking.impl.LinkedEntity;
 import org.apache.stanbol.enhancer.engines.entitylinking.impl.Suggestion;
 import org.apache.stanbol.enhancer.engines.entitylinking.impl.LinkedEntity.Occurrence;
 import org.apache.stanbol.enhancer.engines.lucenefstlinking.TaggingSession.Corpus;
+import org.apache.stanbol.enhancer.engines.lucenefstlinking.cache.EntityCacheManager;
 import org.apache.stanbol.enhancer.nlp.model.AnalysedText;
+import org.apache.stanbol.enhancer.nlp.model.Sentence;
 import org.apache.stanbol.enhancer.servicesapi.ContentItem;
 import org.apache.stanbol.enhancer.servicesapi.EngineException;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
@@ -91,6 +99,16 @@ public class FstLinkingEngine implements EnhancementEngine, ServiceProperties {
     public static final Integer ENGINE_ORDERING = EntityLinkingEngine.DEFAULT_ORDER;
     private static final Map<String,Object> SERVICE_PROPERTIES = Collections.unmodifiableMap(Collections
             .singletonMap(ServiceProperties.ENHANCEMENT_ENGINE_ORDERING, (Object) ENGINE_ORDERING));
+    /**
+     * Prefix used for the {@link EntityCacheManager#getStatistics() statistics}
+     * of the EntityCache included in the {@link #getServiceProperties()}
+     */
+    public static final String ENTITY_CACHE_STATISTICS_PREFIX = "enhancer.engines.linking.lucenefst.entityCache.";
+    /**
+     * Prefix used for the {@link FstLinkingStatistics#getValues() statistics}
+     * of this engine included in the {@link #getServiceProperties()}
+     */
+    public static final String STATISTICS_PREFIX = "enhancer.engines.linking.lucenefst.statistics.";
 
     private final LiteralFactory literalFactory = LiteralFactory.getInstance();
     
@@ -100,10 +118,35 @@ public class FstLinkingEngine implements EnhancementEngine, ServiceProperties {
     protected final EntityLinkerConfig elConfig;
 
     private IndexConfiguration indexConfig;
-
+    /**
+     * Used to tag the corpora and shards of the text concurrently or 
+     * <code>null</code> to tag sequentially
+     */
+    private final ExecutorService taggingExecutor;
+    /**
+     * The minimum number of chars of a shard. Texts longer as this are tagged
+     * in shards (if a {@link #taggingExecutor} is present).
+     */
+    private final int shardSize;
+    
+    private final FstLinkingStatistics statistics = new FstLinkingStatistics();
 
     public FstLinkingEngine(String name, IndexConfiguration indexConfig,
             TextProcessingConfig tpConfig, EntityLinkerConfig elConfig) {
+        this(name, indexConfig, tpConfig, elConfig, null, -1);
+    }
+    /**
+     * Creates an engine that uses the parsed executor to tag the language and
+     * default corpus as well as shards of long texts concurrently.
+     * @param taggingExecutor the executor used for tagging or <code>null</code>
+     * to tag sequentially
+     * @param shardSize the minimum number of chars of a shard. Texts longer
+     * as this are split along sentence borders. Values &lt;= 0 deactivate
+     * sharding.
+     */
+    public FstLinkingEngine(String name, IndexConfiguration indexConfig,
+            TextProcessingConfig tpConfig, EntityLinkerConfig elConfig, 
+            ExecutorService taggingExecutor, int shardSize) {
         if (StringUtils.isBlank(name)) {
             throw new IllegalArgumentException("The parsed name MUST NOT be NULL nor blank!");
         }
@@ -120,16 +163,35 @@ public class FstLinkingEngine implements EnhancementEngine, ServiceProperties {
             throw new IllegalArgumentException("The parsed Entity Linking configuration MUST NOT be NULL");
         }
         this.elConfig = elConfig;
+        this.taggingExecutor = taggingExecutor;
+        this.shardSize = shardSize;
     }
 
     @Override
     public String getName() {
         return name;
     }
+    /**
+     * The statistics about the time spent in the different processing phases
+     * @return the statistics
+     */
+    public FstLinkingStatistics getStatistics() {
+        return statistics;
+    }
 
     @Override
     public Map<String,Object> getServiceProperties() {
-        return SERVICE_PROPERTIES;
+        Map<String,Object> properties = new HashMap<String,Object>(SERVICE_PROPERTIES);
+        for(Entry<String,Object> stat : statistics.getValues().entrySet()){
+            properties.put(STATISTICS_PREFIX + stat.getKey(), stat.getValue());
+        }
+        EntityCacheManager cacheManager = indexConfig.getEntityCacheManager();
+        if(cacheManager != null){
+            for(Entry<String,Object> stat : cacheManager.getStatistics().entrySet()){
+                properties.put(ENTITY_CACHE_STATISTICS_PREFIX + stat.getKey(), stat.getValue());
+            }
+        }
+        return Collections.unmodifiableMap(properties);
     }
 
     @Override
@@ -172,49 +234,40 @@ public class FstLinkingEngine implements EnhancementEngine, ServiceProperties {
         } catch (CorpusException e) {
             throw new EngineException(this, ci, e);
         }
-        long taggingStart = System.currentTimeMillis();
+        long taggingStart = System.nanoTime();
         final NavigableMap<int[],Tag> tags = new TreeMap<int[],Tag>(Tag.SPAN_COMPARATOR);
+        int taggingTasks;
+        long matchingStart;
         try {
+            List<Corpus> corpora = new ArrayList<Corpus>(2);
             //process the language of the document
-            Corpus corpus = null;
             if(session.getLanguageCorpus() != null){
-                corpus = session.getLanguageCorpus();
-                long t = System.currentTimeMillis();
-                int d = tag(at, session,corpus,tags);
-                log.info(" - {}: fst: {}ms (callback: {}ms)", new Object[]{
-                        corpus.getIndexedField(), System.currentTimeMillis()-t, d
-                });
+                corpora.add(session.getLanguageCorpus());
             }
             if(session.getDefaultCorpus() != null){
-                if(corpus == null){
-                    corpus = session.getDefaultCorpus();
-                }
-                long t = System.currentTimeMillis();
-                int d = tag(at, session, session.getDefaultCorpus(),tags);
-                log.info(" - {}: fst: {}ms (callback: {}ms)",new Object[]{
-                        session.getDefaultCorpus().getIndexedField(), 
-                        System.currentTimeMillis()-t, d});
+                corpora.add(session.getDefaultCorpus());
             }
-            long taggingEnd = System.currentTimeMillis();
-            if(corpus == null){
+            if(corpora.isEmpty()){
                 throw new EngineException(this,ci,"No FST corpus found to process contentItem "
                     + "language '"+session.getLanguage()+"'!",null);
-            } else {
-                if(session.getLanguageCorpus() != null && session.getDefaultCorpus() != null){
-                    log.info(" - sum fst: {} ms", taggingEnd - taggingStart);
-                }
             }
+            taggingTasks = tag(at, session, corpora, tags);
+            matchingStart = System.nanoTime();
+            log.debug(" - tagging: {}ms ({} corpora, {} tasks)", new Object[]{
+                    (matchingStart - taggingStart)/1000000, corpora.size(), taggingTasks});
             int matches = match(at,tags.values());
             log.debug(" - loaded {} ({} loaded, {} cached, {} appended) Matches in {} ms", 
                     new Object[]{matches, session.getSessionDocLoaded(),
                         session.getSessionDocCached(), session.getSessionDocAppended(),
-                        System.currentTimeMillis()-taggingEnd});
+                        (System.nanoTime()-matchingStart)/1000000});
             if(log.isDebugEnabled() && session.getDocumentCache() != null){
                 log.debug("EntityCache Statistics: {}", 
                     session.getDocumentCache().printStatistics());
             }
         } catch (IOException e) {
             throw new EngineException(this,ci,e);
+        } catch (CorpusException e) {
+            throw new EngineException(this,ci,e);
         } finally {
             session.close();
         }
@@ -224,12 +277,16 @@ public class FstLinkingEngine implements EnhancementEngine, ServiceProperties {
                 log.trace("[{},{}]: {}", new Object[]{tag.getStart(),tag.getEnd(),tag.getMatches()});
             }
         }
+        long writingStart = System.nanoTime();
         ci.getLock().writeLock().lock();
         try {
             writeEnhancements(ci,at.getSpan(),tags.values(),language);
         } finally {
             ci.getLock().writeLock().unlock();
         }
+        long writingEnd = System.nanoTime();
+        statistics.addDocument(taggingTasks, matchingStart - taggingStart, 
+            writingStart - matchingStart, writingEnd - writingStart);
         tags.clear(); //help the GC
     }
 
@@ -354,22 +411,138 @@ public class FstLinkingEngine implements EnhancementEngine, ServiceProperties {
         }
     }
     /**
-     * Uses the {@link Corpus} to tag the the {@link AnalysedText} and adds 
-     * tagging results to the parsed tag map.
+     * Tags the {@link AnalysedText} with the parsed corpora. If a
+     * {@link #taggingExecutor} is available the corpora are tagged concurrently.
+     * Texts longer as the {@link #shardSize} are in addition split into
+     * shards along sentence borders that are also tagged concurrently. The
+     * results of all tagging tasks are merged into the parsed tags map.
+     * @param at the AnalyzedText
+     * @param session the tagging session of the text
+     * @param corpora the corpora to tag the content with
+     * @param tags the Tags map used to store the tagging results
+     * @return the number of tagging tasks
+     * @throws IOException on any error while accessing the {@link SolrCore}
+     * @throws CorpusException if a FST corpus is not available
+     */
+    private int tag(final AnalysedText at, final TaggingSession session, 
+            List<Corpus> corpora, NavigableMap<int[],Tag> tags) throws IOException, CorpusException {
+        List<Shard> shards = getShards(at);
+        int numTasks = corpora.size() * shards.size();
+        if(taggingExecutor == null || numTasks < 2){
+            for(Corpus corpus : corpora){
+                for(Shard shard : shards){
+                    long t = System.currentTimeMillis();
+                    int d = tag(at, shard, session, corpus, tags);
+                    log.debug(" - {}: fst: {}ms (callback: {}ms)", new Object[]{
+                            corpus.getIndexedField(), System.currentTimeMillis()-t, d});
+                }
+            }
+            return numTasks;
+        }
+        List<Future<NavigableMap<int[],Tag>>> results = 
+                new ArrayList<Future<NavigableMap<int[],Tag>>>(numTasks);
+        try {
+            for(final Corpus corpus : corpora){
+                for(final Shard shard : shards){
+                    results.add(taggingExecutor.submit(new Callable<NavigableMap<int[],Tag>>() {
+                        @Override
+                        public NavigableMap<int[],Tag> call() throws IOException, CorpusException {
+                            NavigableMap<int[],Tag> shardTags = 
+                                    new TreeMap<int[],Tag>(Tag.SPAN_COMPARATOR);
+                            long t = System.currentTimeMillis();
+                            int d = tag(at, shard, session, corpus, shardTags);
+                            log.debug(" - {} {}: fst: {}ms (callback: {}ms)", new Object[]{
+                                    corpus.getIndexedField(), shard, 
+                                    System.currentTimeMillis()-t, d});
+                            return shardTags;
+                        }
+                    }));
+                }
+            }
+            //merge the results
+            for(Future<NavigableMap<int[],Tag>> result : results){
+                for(Entry<int[],Tag> entry : result.get().entrySet()){
+                    Tag tag = tags.get(entry.getKey());
+                    if(tag == null){
+                        tags.put(entry.getKey(), entry.getValue());
+                    } else {
+                        tag.addIds(entry.getValue().getMatches());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for tagging results", e);
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof IOException){
+                throw (IOException)e.getCause();
+            } else if(e.getCause() instanceof CorpusException){
+                throw (CorpusException)e.getCause();
+            } else if(e.getCause() instanceof RuntimeException){
+                throw (RuntimeException)e.getCause();
+            } else {
+                throw new IOException("Unable to tag "+at, e.getCause());
+            }
+        } finally { //in case of an exception cancel remaining tasks
+            for(Future<?> result : results){
+                result.cancel(false);
+            }
+        }
+        return numTasks;
+    }
+    /**
+     * Splits the parsed {@link AnalysedText} in shards of consecutive
+     * {@link Sentence}s with at least {@link #shardSize} chars.
+     * @param at the analysed text
+     * @return the shards. A single shard with <code>null</code> values if
+     * the text does not need to be split.
+     */
+    private List<Shard> getShards(AnalysedText at){
+        if(taggingExecutor == null || shardSize <= 0 || at.getEnd() <= shardSize){
+            return Collections.<Shard>singletonList(null);
+        }
+        List<Shard> shards = new ArrayList<Shard>();
+        List<Sentence> sentences = new ArrayList<Sentence>();
+        int start = 0;
+        for(Iterator<Sentence> it = at.getSentences(); it.hasNext();){
+            Sentence sentence = it.next();
+            sentences.add(sentence);
+            if(sentence.getEnd() - start >= shardSize){
+                shards.add(new Shard(start, sentence.getEnd(), sentences));
+                sentences = new ArrayList<Sentence>();
+                start = sentence.getEnd();
+            }
+        }
+        if(!sentences.isEmpty()){
+            shards.add(new Shard(start, at.getEnd(), sentences));
+        }
+        if(shards.size() < 2){ //no sentences or a single shard
+            return Collections.<Shard>singletonList(null);
+        }
+        log.debug(" - split text with {} chars in {} shards", at.getEnd(), shards.size());
+        return shards;
+    }
+    /**
+     * Uses the {@link Corpus} to tag the parsed shard of the {@link AnalysedText}
+     * and adds tagging results to the parsed tag map.
      * @param at the AnalyzedText
+     * @param shard the shard of the text to tag or <code>null</code> to tag
+     * the whole text
      * @param session the tagging session of the text
      * @param corpus the corpus o the session to tag the content with
      * @param tags the Tags map used to store the tagging results
      * @return the time in milliseconds spent in the tag callback.
      * @throws IOException on any error while accessing the {@link SolrCore}
+     * @throws CorpusException if the FST corpus is not available
      */
-    private int tag(final AnalysedText at, final TaggingSession session, 
-            final Corpus corpus, final Map<int[],Tag> tags) throws IOException {
+    private int tag(final AnalysedText at, final Shard shard, final TaggingSession session, 
+            final Corpus corpus, final Map<int[],Tag> tags) throws IOException, CorpusException {
         final OpenBitSet matchDocIdsBS = new OpenBitSet(session.getSearcher().maxDoc());
         TokenStream baseTokenStream = corpus.getTaggingAnalyzer().tokenStream("", 
-            new CharSequenceReader(at.getText()));
+            shard == null ? new CharSequenceReader(at.getText()) : shard.getReader(at.getText()));
         LinkableTokenFilter linkableTokenFilter = new LinkableTokenFilter(baseTokenStream, 
-            at, session.getLanguage(), tpConfig.getConfiguration(session.getLanguage()),
+            at, shard == null ? null : shard.sections, session.getLanguage(), 
+            tpConfig.getConfiguration(session.getLanguage()),
             elConfig.getMinChunkMatchScore(), elConfig.getMinFoundTokens());
         //we use two TagClusterReducer implementations.
         // (1) the linkableTokenFilter filters all tags that do not overlap any
@@ -623,4 +796,58 @@ public class FstLinkingEngine implements EnhancementEngine, ServiceProperties {
         }
         return dcTypes;
     }
+    /**
+     * A shard of the text consisting of consecutive sentences
+     */
+    private static final class Shard {
+        
+        final int start;
+        final int end;
+        final List<Sentence> sections;
+        
+        Shard(int start, int end, List<Sentence> sections){
+            this.start = start;
+            this.end = end;
+            this.sections = sections;
+        }
+        /**
+         * The reader for the text of this shard. Only the chars of the shard
+         * are read, but offsets are corrected by the start of the shard. This
+         * allows to use the offsets of the {@link TokenStream} without any
+         * further correction.
+         * @param text the text
+         * @return the reader for the shard
+         */
+        Reader getReader(CharSequence text){
+            return new ShardReader(text.subSequence(start, end), start);
+        }
+        
+        @Override
+        public String toString() {
+            return "shard ["+start+", "+end+"]";
+        }
+    }
+    /**
+     * {@link CharFilter} that reads the text of a {@link Shard} and corrects
+     * offsets by the start of the shard
+     */
+    private static final class ShardReader extends CharFilter {
+        
+        private final int offset;
+        
+        ShardReader(CharSequence shardText, int offset){
+            super(new CharSequenceReader(shardText));
+            this.offset = offset;
+        }
+        
+        @Override
+        protected int correct(int currentOff) {
+            return currentOff + offset;
+        }
+        
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            return input.read(cbuf, off, len);
+        }
+    }
 }
@@ -72,6 +72,7 @@ import org.apache.stanbol.commons.solr.IndexReference;
 import org.apache.stanbol.commons.solr.RegisteredSolrServerTracker;
 import org.apache.stanbol.enhancer.engines.entitylinking.config.EntityLinkerConfig;
 import org.apache.stanbol.enhancer.engines.entitylinking.config.TextProcessingConfig;
+import org.apache.stanbol.enhancer.engines.lucenefstlinking.cache.CompactEntityCacheManager;
 import org.apache.stanbol.enhancer.engines.lucenefstlinking.cache.EntityCacheManager;
 import org.apache.stanbol.enhancer.engines.lucenefstlinking.cache.FastLRUCacheManager;
 import org.apache.stanbol.enhancer.nlp.utils.LanguageConfiguration;
@@ -153,6 +154,14 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
         intValue=FstLinkingEngineComponent.DEFAULT_FST_THREAD_POOL_SIZE),
     @Property(name=FstLinkingEngineComponent.ENTITY_CACHE_SIZE, 
         intValue=FstLinkingEngineComponent.DEFAULT_ENTITY_CACHE_SIZE),
+    @Property(name=FstLinkingEngineComponent.ENTITY_CACHE_COMPACT, 
+        boolValue=FstLinkingEngineComponent.DEFAULT_ENTITY_CACHE_COMPACT),
+    @Property(name=FstLinkingEngineComponent.ENTITY_CACHE_AUTOWARM_COUNT, 
+        intValue=FstLinkingEngineComponent.DEFAULT_ENTITY_CACHE_AUTOWARM_COUNT),
+    @Property(name=FstLinkingEngineComponent.TAGGING_THREAD_POOL_SIZE,
+        intValue=FstLinkingEngineComponent.DEFAULT_TAGGING_THREAD_POOL_SIZE),
+    @Property(name=FstLinkingEngineComponent.TAGGING_SHARD_SIZE,
+        intValue=FstLinkingEngineComponent.DEFAULT_TAGGING_SHARD_SIZE),
     @Property(name=SUGGESTIONS, intValue=DEFAULT_SUGGESTIONS),
     @Property(name=CASE_SENSITIVE,boolValue=DEFAULT_CASE_SENSITIVE_MATCHING_STATE),
     @Property(name=PROCESS_ONLY_PROPER_NOUNS_STATE, boolValue=DEFAULT_PROCESS_ONLY_PROPER_NOUNS_STATE),
@@ -213,6 +222,54 @@ public class FstLinkingEngineComponent {
      * The default size of the Entity Cache is set to 65k entities.
      */
     public static final int DEFAULT_ENTITY_CACHE_SIZE = 65536;
+    /**
+     * If enabled the {@link CompactEntityCacheManager} is used for the 
+     * EntityCache. It only keeps the values of the loaded fields, is 
+     * optimised for concurrent access and only admits entities that are
+     * requested more frequently as the one it would evict. If disabled the
+     * Solr FastLRUCache based {@link FastLRUCacheManager} is used.
+     */
+    public static final String ENTITY_CACHE_COMPACT = "enhancer.engines.linking.lucenefst.entityCacheCompact";
+    /**
+     * By default the {@link FastLRUCacheManager} is used
+     */
+    public static final boolean DEFAULT_ENTITY_CACHE_COMPACT = false;
+    /**
+     * The number of the most frequently used entities of the EntityCache
+     * that are loaded into the new cache after the index was updated. Only
+     * supported by the compact EntityCache (see {@link #ENTITY_CACHE_COMPACT}).
+     * Values &lt;= 0 deactivate autowarming.
+     */
+    public static final String ENTITY_CACHE_AUTOWARM_COUNT = "enhancer.engines.linking.lucenefst.entityCacheAutowarmCount";
+    /**
+     * By default the 1024 most frequently used entities are autowarmed
+     */
+    public static final int DEFAULT_ENTITY_CACHE_AUTOWARM_COUNT = 1024;
+    /**
+     * The size of the thread pool used to tag texts. The pool is used to tag
+     * the language specific and the default FST corpus concurrently as well as
+     * to tag shards of long texts (see {@link #TAGGING_SHARD_SIZE}). If set
+     * to a value &lt;= 1 texts are tagged sequentially by the thread calling
+     * the engine.
+     */
+    public static final String TAGGING_THREAD_POOL_SIZE = "enhancer.engines.linking.lucenefst.taggingThreadPoolSize";
+    /**
+     * The default number of threads used to tag texts (default=1). Texts are
+     * tagged sequentially by default as concurrent tagging only pays off for
+     * long texts and on servers with otherwise idle cores.
+     */
+    public static final int DEFAULT_TAGGING_THREAD_POOL_SIZE = 1;
+    /**
+     * Texts with more chars as the configured value are split along sentence
+     * borders in shards that are tagged concurrently. Shards will have at least
+     * the configured number of chars. Values &lt;= 0 deactivate sharding.
+     * Only used if {@link #TAGGING_THREAD_POOL_SIZE} is &gt; 1.
+     */
+    public static final String TAGGING_SHARD_SIZE = "enhancer.engines.linking.lucenefst.taggingShardSize";
+    /**
+     * The default shard size is set to 20k chars.
+     */
+    public static final int DEFAULT_TAGGING_SHARD_SIZE = 20000;
 
     /**
      * Changed default for the {@link EntityLinkerConfig#MIN_FOUND_TOKENS} property.
@@ -284,6 +341,10 @@ public class FstLinkingEngineComponent {
      * Holds the OSGI service registration for the {@link FstLinkingEngine}
      */
     private ServiceRegistration engineRegistration;
+    /**
+     * The currently registered engine (used to log its statistics)
+     */
+    private FstLinkingEngine engine;
     /**
      * Holds the metadata registered with the {@link #engineRegistration}
      */
@@ -300,6 +361,17 @@ public class FstLinkingEngineComponent {
      * @see #DEFAULT_FST_THREAD_POOL_SIZE
      */
     private ExecutorService fstCreatorService;
+    /**
+     * Thread pool used for tagging texts or <code>null</code> if texts are
+     * tagged sequentially
+     * @see #TAGGING_THREAD_POOL_SIZE
+     */
+    private ExecutorService taggingService;
+    /**
+     * The minimum number of chars of shards
+     * @see #TAGGING_SHARD_SIZE
+     */
+    private int taggingShardSize;
 
     /**
      * The field name in the configured Solr index holding type information for
@@ -481,8 +553,20 @@ public class FstLinkingEngineComponent {
             documentCacheFactory = null;
         } else {
             int size = ecSize < 0 ? DEFAULT_ENTITY_CACHE_SIZE : ecSize;
-        	log.info(" ... create EntityCache (size: {})",size);
-            documentCacheFactory = new FastLRUCacheManager(size);
+            value = properties.get(ENTITY_CACHE_COMPACT);
+            boolean compact = value instanceof Boolean ? ((Boolean)value).booleanValue() :
+                value != null ? Boolean.parseBoolean(value.toString()) : 
+                    DEFAULT_ENTITY_CACHE_COMPACT;
+            if(compact){
+                int autowarmCount = getIntValue(properties, ENTITY_CACHE_AUTOWARM_COUNT, 
+                    DEFAULT_ENTITY_CACHE_AUTOWARM_COUNT);
+                log.info(" ... create compact EntityCache (size: {}, autowarm: {})",
+                    size, autowarmCount);
+                documentCacheFactory = new CompactEntityCacheManager(size, autowarmCount);
+            } else {
+            	log.info(" ... create EntityCache (size: {})",size);
+                documentCacheFactory = new FastLRUCacheManager(size);
+            }
         }
         
         //(7) parse the Entity type field
@@ -500,7 +584,22 @@ public class FstLinkingEngineComponent {
             solrRankingField = value.toString().trim();
         }
         
-        //(9) start tracking the SolrCore
+        //(9) Create the ThreadPool used for tagging
+        int taggingPoolSize = getIntValue(properties, TAGGING_THREAD_POOL_SIZE, 
+            DEFAULT_TAGGING_THREAD_POOL_SIZE);
+        if(taggingPoolSize > 1){
+            ThreadFactoryBuilder taggingTfBuilder = new ThreadFactoryBuilder();
+            taggingTfBuilder.setDaemon(true);
+            taggingTfBuilder.setNameFormat(engineName+"-FstTagging-thread-%d");
+            taggingService = Executors.newFixedThreadPool(taggingPoolSize, 
+                taggingTfBuilder.build());
+            log.info(" ... tag texts by using {} threads", taggingPoolSize);
+        } else {
+            taggingService = null;
+        }
+        taggingShardSize = getIntValue(properties, TAGGING_SHARD_SIZE, DEFAULT_TAGGING_SHARD_SIZE);
+        
+        //(10) start tracking the SolrCore
         try {
             solrServerTracker = new RegisteredSolrServerTracker(
                 bundleContext, indexReference, null){
@@ -649,12 +748,13 @@ public class FstLinkingEngineComponent {
             //set the index configuration to the field;
             this.indexConfig = indexConfig;
             FstLinkingEngine engine = new FstLinkingEngine(engineName, indexConfig,
-                textProcessingConfig, entityLinkerConfig);
+                textProcessingConfig, entityLinkerConfig, taggingService, taggingShardSize);
             String[] services = new String [] {
                     EnhancementEngine.class.getName(),
                     ServiceProperties.class.getName()};
             log.info(" ... register {}: {}", engine.getClass().getSimpleName(),engineName);
             this.engineRegistration = bundleContext.registerService(services,engine, engineMetadata);
+            this.engine = engine;
             this.solrServerReference = reference;
             this.solrCore = core;
         }
@@ -705,6 +805,11 @@ public class FstLinkingEngineComponent {
             engineRegistration.unregister();
             this.engineRegistration = null; //reset the field
         }
+        FstLinkingEngine engine = this.engine;
+        if(engine != null){
+            log.info(" ... {}", engine.getStatistics());
+            this.engine = null;
+        }
         solrServerReference = null;
         SolrCore solrServer = this.solrCore;
         if(solrServer != null){
@@ -773,6 +878,11 @@ public class FstLinkingEngineComponent {
             //do not set NULL, as we want to warn users an re-activation if old
             //threads are still running.
         }
+        if(taggingService != null){
+            //also here we MUST NOT call shutdownNow() (see above)
+            taggingService.shutdown();
+            taggingService = null;
+        }
         indexReference = null;
         engineMetadata = null;
         textProcessingConfig = null;
@@ -785,6 +895,32 @@ public class FstLinkingEngineComponent {
         skipAltTokensConfig = null;
     }
     
+    /**
+     * Parses an integer configuration
+     * @param properties the configuration
+     * @param key the key
+     * @param defaultValue the default used if the value is not present
+     * @return the configured value
+     * @throws ConfigurationException if the configured value is not an integer
+     */
+    private static int getIntValue(Dictionary<String,Object> properties, String key, 
+            int defaultValue) throws ConfigurationException {
+        Object value = properties.get(key);
+        if(value instanceof Number){
+            return ((Number)value).intValue();
+        } else if(value != null){
+            try {
+                return Integer.parseInt(value.toString());
+            } catch (NumberFormatException e) {
+                throw new ConfigurationException(key, "Unable to parse the integer "
+                    + "value from the configured "+value.getClass().getSimpleName()
+                    + " '" + value+"'!",e);
+            }
+        } else {
+            return defaultValue;
+        }
+    }
+    
     /**
      * {@link StrSubstitutor} {@link StrLookup} implementation used for
      * determining the directory for storing FST files based on the configured
@@ -0,0 +1,119 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.engines.lucenefstlinking;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects the time spent by the {@link FstLinkingEngine} in the different
+ * processing phases:<ul>
+ * <li> <b>tagging</b>: the FST tagging of the text with the language and
+ * the default corpus (wall clock time)
+ * <li> <b>matching</b>: loading the tagged Entities and matching their labels
+ * <li> <b>writing</b>: writing the enhancements to the metadata of the
+ * ContentItem
+ * </ul>
+ * In addition it counts the processed documents and the tagging tasks
+ * (one per corpus and shard of the text).<p>
+ * The {@link FstLinkingEngine} includes the {@link #getValues() values} in
+ * its service properties. Instances are thread safe.
+ */
+public final class FstLinkingStatistics {
+
+    private final AtomicLong documents = new AtomicLong();
+    private final AtomicLong taggingTasks = new AtomicLong();
+    private final AtomicLong tagging = new AtomicLong();
+    private final AtomicLong matching = new AtomicLong();
+    private final AtomicLong writing = new AtomicLong();
+
+    FstLinkingStatistics() {}
+
+    /**
+     * Adds the times of a processed document
+     * @param tasks the number of tagging tasks
+     * @param tagging the tagging time in nano seconds
+     * @param matching the matching time in nano seconds
+     * @param writing the time needed to write the enhancements in nano seconds
+     */
+    void addDocument(int tasks, long tagging, long matching, long writing){
+        this.documents.incrementAndGet();
+        this.taggingTasks.addAndGet(tasks);
+        this.tagging.addAndGet(tagging);
+        this.matching.addAndGet(matching);
+        this.writing.addAndGet(writing);
+    }
+    /**
+     * The number of processed documents
+     */
+    public long getDocumentCount() {
+        return documents.get();
+    }
+    /**
+     * The number of tagging tasks (one per corpus and shard of the text)
+     */
+    public long getTaggingTaskCount() {
+        return taggingTasks.get();
+    }
+    /**
+     * The overall tagging time in milliseconds
+     */
+    public double getTaggingTime() {
+        return tagging.get()/1000000d;
+    }
+    /**
+     * The overall matching time in milliseconds
+     */
+    public double getMatchingTime() {
+        return matching.get()/1000000d;
+    }
+    /**
+     * The overall time needed to write enhancements in milliseconds
+     */
+    public double getWritingTime() {
+        return writing.get()/1000000d;
+    }
+
+    /**
+     * The statistics as map with the keys <code>documents</code>,
+     * <code>taggingTasks</code>, <code>taggingTime</code>,
+     * <code>matchingTime</code> and <code>writingTime</code> (times in
+     * milliseconds)
+     * @return the current values of the statistics
+     */
+    public Map<String,Object> getValues() {
+        Map<String,Object> values = new LinkedHashMap<String,Object>();
+        values.put("documents", getDocumentCount());
+        values.put("taggingTasks", getTaggingTaskCount());
+        values.put("taggingTime", getTaggingTime());
+        values.put("matchingTime", getMatchingTime());
+        values.put("writingTime", getWritingTime());
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        long docs = documents.get();
+        return String.format("FST linking statistics: %d documents (%d tagging tasks) | "
+            + "tagging: %.2fms (avg: %.2fms) | matching: %.2fms (avg: %.2fms) | "
+            + "writing: %.2fms (avg: %.2fms)", docs, taggingTasks.get(),
+            getTaggingTime(), docs > 0 ? getTaggingTime()/docs : 0d,
+            getMatchingTime(), docs > 0 ? getMatchingTime()/docs : 0d,
+            getWritingTime(), docs > 0 ? getWritingTime()/docs : 0d);
+    }
+}
@@ -21,6 +21,7 @@ import static org.apache.stanbol.enhancer.engines.entitylinking.config.TextProce
 import java.io.IOException;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.Iterator;
@@ -117,6 +118,11 @@ public final class LinkableTokenFilter extends TokenFilter implements TagCluster
      */
     private LanguageProcessingConfig lpc;
 
+    /**
+     * The sections processed by this filter or <code>null</code> to process
+     * all sentences of the {@link AnalysedText}
+     */
+    private final Collection<? extends Section> processedSections;
     /**
      * Iterator over all sections of the {@link AnalysedText}
      */
@@ -169,7 +175,22 @@ public final class LinkableTokenFilter extends TokenFilter implements TagCluster
     
     protected LinkableTokenFilter(TokenStream input, AnalysedText at, 
             String lang, LanguageProcessingConfig lpc, double minChunkMatchScore, int minFoundTokens) {
+        this(input, at, null, lang, lpc, minChunkMatchScore, minFoundTokens);
+    }
+    /**
+     * Creates a filter that only processes the parsed sections. This is used
+     * if the text is tagged in shards. In this case the parsed
+     * {@link TokenStream} is expected to only contain tokens within the
+     * parsed sections.
+     * @param sections the sections (typically sentences) processed by this
+     * filter or <code>null</code> to process all sentences of the parsed
+     * {@link AnalysedText}
+     */
+    protected LinkableTokenFilter(TokenStream input, AnalysedText at, 
+            Collection<? extends Section> sections, String lang, 
+            LanguageProcessingConfig lpc, double minChunkMatchScore, int minFoundTokens) {
         super(input);
+        this.processedSections = sections;
         //STANBOL-1177: add attributes in doPrivileged to avoid 
         //AccessControlException: access denied ("java.lang.RuntimePermission" "getClassLoader")
         termAtt = AccessController.doPrivileged(new PrivilegedAction<CharTermAttribute>() {
@@ -196,8 +217,12 @@ public final class LinkableTokenFilter extends TokenFilter implements TagCluster
     @Override
     public void reset() throws IOException {
         super.reset();
-        Iterator<Sentence> sentences = at.getSentences();
-        this.sections = sentences.hasNext() ? sentences : Collections.singleton(at).iterator();
+        if(processedSections != null){
+            this.sections = processedSections.iterator();
+        } else {
+            Iterator<Sentence> sentences = at.getSentences();
+            this.sections = sentences.hasNext() ? sentences : Collections.singleton(at).iterator();
+        }
         sectionData = null;
         tokenIt = null;
         incrementCount = 0;
@@ -25,6 +25,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.apache.clerezza.rdf.core.Language;
 import org.apache.clerezza.rdf.core.Literal;
@@ -40,12 +42,14 @@ import org.apache.lucene.document.StringField;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.queries.function.valuesource.IfFunction;
 import org.apache.solr.schema.SchemaField;
 import org.apache.solr.search.SolrIndexSearcher;
 import org.apache.solr.util.RefCounted;
 import org.apache.stanbol.enhancer.engines.lucenefstlinking.Match.FieldLoader;
 import org.apache.stanbol.enhancer.engines.lucenefstlinking.Match.FieldType;
+import org.apache.stanbol.enhancer.engines.lucenefstlinking.cache.CompactEntityCache;
 import org.apache.stanbol.enhancer.engines.lucenefstlinking.cache.EntityCache;
 import org.apache.stanbol.enhancer.engines.lucenefstlinking.impl.ValueSourceAccessor;
 import org.apache.stanbol.enhancer.servicesapi.ContentItem;
@@ -148,8 +152,7 @@ public class TaggingSession implements Closeable {
                 +language+"' and also no default FST Corpus is present.!");
         }
         if(langCorpusInfo != null){
-            this.langCorpus = new Corpus(langCorpusInfo,
-                obtainFstCorpus(indexVersion,langCorpusInfo));
+            this.langCorpus = new Corpus(langCorpusInfo);
             this.labelField = langCorpusInfo.storedField;
             solrDocfields.add(labelField);
             this.labelLang = langCorpusInfo.language == null || 
@@ -160,8 +163,7 @@ public class TaggingSession implements Closeable {
             this.labelLang = null; 
         }
         if(defaultCorpusInfo != null && !defaultCorpusInfo.equals(langCorpusInfo)){
-            this.defaultCorpus = new Corpus(defaultCorpusInfo,
-                obtainFstCorpus(indexVersion,defaultCorpusInfo));
+            this.defaultCorpus = new Corpus(defaultCorpusInfo);
             this.defaultLabelField = defaultCorpusInfo.storedField;
             solrDocfields.add(defaultLabelField);
             this.defaultLabelLang = defaultCorpusInfo.language == null || 
@@ -205,7 +207,88 @@ public class TaggingSession implements Closeable {
 //        uniqueKeyCache = new ValueSourceAccessor(searcher, idSchemaField.getType()
 //            .getValueSource(idSchemaField, null));
         fieldLoader = new FieldLoaderImpl(searcher.getIndexReader());
-
+        if(documentCacheRef != null && documentCacheRef.get() instanceof CompactEntityCache){
+            List<Document> warmupDocs = ((CompactEntityCache)documentCacheRef.get())
+                    .pollWarmupDocuments();
+            if(!warmupDocs.isEmpty()){
+                warmUp(warmupDocs, idSchemaField);
+            }
+        }
+    }
+    /**
+     * Loads the documents used to warm up a new version of the 
+     * {@link CompactEntityCache} in the background by using the
+     * {@link IndexConfiguration#getExecutorService()}. If no executor is
+     * available the documents are loaded by the calling thread.
+     * @param docs the warm-up documents
+     * @param idSchemaField the unique key field
+     */
+    private void warmUp(List<Document> docs, SchemaField idSchemaField) {
+        WarmupTask task = new WarmupTask(docs, idSchemaField);
+        ExecutorService executor = config.getExecutorService();
+        if(executor != null){
+            try {
+                executor.execute(task);
+                return;
+            } catch (RejectedExecutionException e) {
+                log.debug(" - unable to warm up the EntityCache in the background", e);
+            }
+        }
+        task.run();
+    }
+    /**
+     * Loads the documents used to warm up a new version of the 
+     * {@link CompactEntityCache}. Warm-up documents are from the previous
+     * version of the index. So their Lucene document ids are looked up by
+     * using the unique key. The task holds references to the 
+     * {@link SolrIndexSearcher} and the {@link EntityCache} of the session
+     * until it completes.
+     */
+    private class WarmupTask implements Runnable {
+        
+        private final List<Document> docs;
+        private final SchemaField idSchemaField;
+        private final RefCounted<SolrIndexSearcher> searcherRef;
+        private final RefCounted<EntityCache> cacheRef;
+        
+        WarmupTask(List<Document> docs, SchemaField idSchemaField){
+            this.docs = docs;
+            this.idSchemaField = idSchemaField;
+            this.searcherRef = TaggingSession.this.searcherRef.incref();
+            this.cacheRef = documentCacheRef.incref();
+        }
+        
+        @Override
+        public void run() {
+            CompactEntityCache cache = (CompactEntityCache)cacheRef.get();
+            long start = System.currentTimeMillis();
+            int warmed = 0;
+            try {
+                SolrIndexSearcher searcher = searcherRef.get();
+                //NOTE: use an own FieldLoader as FieldLoaderImpl is not thread safe
+                FieldLoaderImpl loader = new FieldLoaderImpl(searcher.getIndexReader());
+                for(Document doc : docs){
+                    String id = doc.get(idField);
+                    if(id != null){
+                        int docId = searcher.getFirstMatch(new Term(idField, 
+                            idSchemaField.getType().toInternal(id)));
+                        if(docId >= 0){
+                            cache.cache(docId, loader.loadDocument(docId, solrDocfields));
+                            warmed++;
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Unable to warm up "+cache+" (warmed: "+warmed+"/"
+                    + docs.size()+")!", e);
+            } finally {
+                cache.warmed(warmed);
+                cacheRef.decref();
+                searcherRef.decref();
+            }
+            log.debug(" - warmed {}/{} documents in {}ms", new Object[]{warmed, docs.size(),
+                    System.currentTimeMillis() - start});
+        }
     }
     /**
      * Used to instantiate {@link Match}es 
@@ -429,6 +512,27 @@ public class TaggingSession implements Closeable {
             }
         }
         
+        /**
+         * Loads the parsed fields of the document from the index. The 
+         * returned Document includes the information about the loaded
+         * fields.
+         * @param id the Lucene document id
+         * @param fields the fields to load
+         * @return the document
+         * @throws IOException on any error while loading the document
+         */
+        Document loadDocument(int id, Set<String> fields) throws IOException {
+            Document doc = reader.document(id, fields);
+            //if we read a doc from the index we need to add information about
+            //the fields we loaded (especially the languages of labels loaded
+            //NOTE that those information will never be stored in the index. They
+            //are only kept in-memory when caching this document.
+            for(Field loadedFieldsField : loadedFieldsFields){
+                doc.add(loadedFieldsField);
+            }
+            return doc;
+        }
+        
         @Override
         public Map<FieldType,Object> load(int id) throws IOException {
             //load the Lucene Document for the id 
@@ -437,14 +541,7 @@ public class TaggingSession implements Closeable {
             if(doc == null){
                 doc = cache != null ? cache.get(ID) : null;
                 if(doc == null){
-                    doc = reader.document(id, solrDocfields);
-                    //if we read a doc from the index we need to add information about
-                    //the fields we loaded (especially the languages of labels loaded
-                    //NOTE that those information will never be stored in the index. They
-                    //are only kept in-memory when caching this document.
-                    for(Field loadedFieldsField : loadedFieldsFields){
-                        doc.add(loadedFieldsField);
-                    }
+                    doc = loadDocument(id, solrDocfields);
                     docLoaded++;
                     if(cache != null){
                         cache.cache(ID, doc);
@@ -460,7 +557,13 @@ public class TaggingSession implements Closeable {
                     if(!fields.isEmpty()){ //we are missing some fields
                         //need to load it from the index
                         Document tmp = reader.document(id, fields);
-                        //add the additional fields to the cached doc
+                        //cached documents might be used by other sessions.
+                        //So create a copy before adding the additional fields
+                        Document cached = doc;
+                        doc = new Document();
+                        for(IndexableField field : cached.getFields()){
+                            doc.add(field);
+                        }
                         for(IndexableField field : tmp.getFields()){
                             doc.add(field);
                         }
@@ -469,9 +572,8 @@ public class TaggingSession implements Closeable {
                             doc.add(new StringField(LOADED_FIELDS_FIELD_NAME, 
                                 loadedField, Store.NO));
                         }
-                        //NOTE: no need to update the cache, as we have updated the
-                        //cached value.
-                        //cache.cache(ID, doc);
+                        //replace the cached document with the extended copy
+                        cache.cache(ID, doc);
                         docAppended++;
                     } else {
                         docCached++;
@@ -555,14 +657,20 @@ public class TaggingSession implements Closeable {
         }
     }
 
+    /**
+     * A FST corpus used by this session. The {@link TaggerFstCorpus} is
+     * opened lazily on the first call to {@link #getFst()}. This allows to
+     * open (and if necessary load) the language specific and the default 
+     * corpus concurrently by the tagging threads of the engine and prevents
+     * loading corpora that are not used for tagging.
+     */
     public class Corpus {
         
-        private CorpusInfo corpusInfo;
+        private final CorpusInfo corpusInfo;
         private TaggerFstCorpus fst;
 
-        Corpus(CorpusInfo corpusInfo, TaggerFstCorpus fst){
+        Corpus(CorpusInfo corpusInfo){
             this.corpusInfo = corpusInfo;
-            this.fst = fst;
         }
         
         public String getLanugage(){
@@ -576,7 +684,21 @@ public class TaggingSession implements Closeable {
             return corpusInfo.taggingAnalyzer;
         }
         
-        public TaggerFstCorpus getFst(){
+        /**
+         * Getter for the FST corpus. Opens the corpus on the first call.
+         * @return the FST corpus
+         * @throws CorpusException if the corpus is currently not available
+         * (e.g. enqueued for creation or the FST file could not be loaded)
+         */
+        public synchronized TaggerFstCorpus getFst() throws CorpusException {
+            if(fst == null){
+                fst = obtainFstCorpus(indexVersion, corpusInfo);
+                if(fst == null){
+                    throw new CorpusException("The FST corpus for language '"
+                        + corpusInfo.language + "' (field: " + corpusInfo.indexedField
+                        + ") is not available (" + corpusInfo + ")!", null);
+                }
+            }
             return fst;
         }
 
@@ -0,0 +1,362 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.engines.lucenefstlinking.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map.Entry;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.util.BytesRef;
+
+/**
+ * {@link EntityCache} implementation optimised for concurrent access by
+ * multiple TaggingSessions and low memory usage.<ul>
+ * <li> <b>striped</b>: the cache is split in segments based on the Lucene
+ * document id. Each segment is an LRU cache with its own lock.
+ * <li> <b>compact</b>: only the names and values of the fields of cached
+ * documents are kept (see {@link #compact(Document)}). Cached documents
+ * are shared by all sessions and MUST NOT be modified by users.
+ * <li> <b>admission control</b>: each segment tracks the access frequency
+ * of document ids (including misses) in a small count-min sketch. If a
+ * segment is full a new document is only admitted if it was requested more
+ * frequently as the least recently used one. This prevents rarely mentioned
+ * entities from evicting frequently mentioned ones.
+ * <li> <b>warm-up</b>: the most frequently used documents of the previous
+ * version can be {@link #pollWarmupDocuments() polled} by the first session
+ * using this cache to load them again for the new version of the index.
+ * </ul>
+ * Instances are created by the {@link CompactEntityCacheManager}.
+ */
+public class CompactEntityCache implements EntityCache {
+
+    /**
+     * The maximum number of segments
+     */
+    private static final int MAX_SEGMENTS = 16;
+    /**
+     * The minimum size of a segment
+     */
+    private static final int MIN_SEGMENT_SIZE = 64;
+    
+    private final Object version;
+    private final int maxSize;
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final CompactEntityCacheManager.Statistics stats;
+    private List<Document> warmupDocuments;
+    private volatile boolean closed;
+    
+    CompactEntityCache(Object version, int maxSize, List<Document> warmupDocuments,
+            CompactEntityCacheManager.Statistics stats) {
+        this.version = version;
+        this.maxSize = maxSize;
+        this.stats = stats;
+        int numSegments = 1;
+        while(numSegments < MAX_SEGMENTS && numSegments * MIN_SEGMENT_SIZE * 2 <= maxSize){
+            numSegments = numSegments << 1;
+        }
+        segments = new Segment[numSegments];
+        int segmentSize = (maxSize + numSegments - 1) / numSegments;
+        for(int i = 0; i < numSegments; i++){
+            segments[i] = new Segment(segmentSize);
+        }
+        segmentMask = numSegments - 1;
+        this.warmupDocuments = warmupDocuments;
+    }
+    
+    @Override
+    public Object getVersion() {
+        return version;
+    }
+
+    @Override
+    public Document get(Integer docId) {
+        if(closed){
+            return null;
+        }
+        Document doc = getSegment(docId).get(docId);
+        if(doc == null){
+            stats.misses.incrementAndGet();
+        } else {
+            stats.hits.incrementAndGet();
+        }
+        return doc;
+    }
+
+    @Override
+    public void cache(Integer docId, Document doc) {
+        if(!closed && doc != null){
+            getSegment(docId).put(docId, compact(doc));
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for(Segment segment : segments){
+            size = size + segment.size();
+        }
+        return size;
+    }
+    /**
+     * The maximum number of cached documents
+     * @return the maximum size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+    /**
+     * Getter for the most frequently used documents of the previous version
+     * of the cache. Only the first call returns the documents. Later calls
+     * (e.g. by other sessions) will return an empty list.<p>
+     * The Lucene document ids of the returned documents are no longer valid.
+     * Callers need to lookup the new ids (e.g. by the unique key) and 
+     * {@link #cache(Integer, Document) cache} the documents loaded from the
+     * new version of the index.
+     * @return the documents to warm up this cache.
+     */
+    public synchronized List<Document> pollWarmupDocuments(){
+        List<Document> docs = warmupDocuments;
+        warmupDocuments = null;
+        return docs == null ? Collections.<Document>emptyList() : docs;
+    }
+    /**
+     * Reports the number of documents loaded for the 
+     * {@link #pollWarmupDocuments() warm-up documents}
+     * @param num the number of warmed documents
+     */
+    public void warmed(int num){
+        stats.warmed.addAndGet(num);
+    }
+    
+    @Override
+    public String printStatistics() {
+        return new StringBuilder("CompactEntityCache[version: ").append(version)
+            .append(" | size: ").append(size()).append('/').append(maxSize)
+            .append(" | segments: ").append(segments.length)
+            .append(" | ").append(stats).append(']').toString();
+    }
+    
+    @Override
+    public String toString() {
+        return printStatistics();
+    }
+    /**
+     * The <code>num</code> most frequently used documents of this cache.
+     * @param num the maximum number of returned documents
+     * @return the documents sorted by the access frequency
+     */
+    List<Document> getHotDocuments(int num){
+        if(num <= 0 || closed){
+            return Collections.emptyList();
+        }
+        List<HotEntry> entries = new ArrayList<HotEntry>(Math.min(num, maxSize));
+        for(Segment segment : segments){
+            segment.collect(entries);
+        }
+        Collections.sort(entries, HotEntry.FREQUENCY_COMPARATOR);
+        List<Document> docs = new ArrayList<Document>(Math.min(num, entries.size()));
+        for(Iterator<HotEntry> it = entries.iterator(); it.hasNext() && docs.size() < num;){
+            docs.add(it.next().doc);
+        }
+        return docs;
+    }
+    
+    void close(){
+        closed = true;
+        synchronized (this) {
+            warmupDocuments = null;
+        }
+        for(Segment segment : segments){
+            segment.clear();
+        }
+    }
+    
+    /**
+     * Creates a compact copy of the parsed document. Only the names and the
+     * values of the fields are kept as {@link StoredField}s. {@link Number}s
+     * are stored as such, binary values as copies of the bytes and all other
+     * values as {@link String}s. Field types and indexing information are
+     * not kept.
+     * @param doc the document
+     * @return the compact copy
+     */
+    static Document compact(Document doc){
+        Document compact = new Document();
+        for(IndexableField field : doc.getFields()){
+            String name = field.name();
+            Number number = field.numericValue();
+            String string = number == null ? field.stringValue() : null;
+            BytesRef bytes = number == null && string == null ? field.binaryValue() : null;
+            if(string != null){
+                compact.add(new StoredField(name, string));
+            } else if(number instanceof Integer){
+                compact.add(new StoredField(name, number.intValue()));
+            } else if(number instanceof Long){
+                compact.add(new StoredField(name, number.longValue()));
+            } else if(number instanceof Float){
+                compact.add(new StoredField(name, number.floatValue()));
+            } else if(number != null){
+                compact.add(new StoredField(name, number.doubleValue()));
+            } else if(bytes != null){
+                compact.add(new StoredField(name, BytesRef.deepCopyOf(bytes)));
+            } //else ignore fields without a value
+        }
+        return compact;
+    }
+    
+    private Segment getSegment(int docId){
+        //the doc id is spread so that consecutive ids use different segments
+        int h = docId * 0x9E3779B9;
+        return segments[(h ^ (h >>> 16)) & segmentMask];
+    }
+    
+    /**
+     * A segment of the cache. An LRU cache with an own lock and frequency
+     * sketch.
+     */
+    private final class Segment {
+        
+        private final int capacity;
+        private final LinkedHashMap<Integer,Document> map;
+        private final FrequencySketch sketch;
+        
+        Segment(int capacity){
+            this.capacity = capacity;
+            this.map = new LinkedHashMap<Integer,Document>(
+                    Math.min(capacity, 1024), 0.75f, true);
+            this.sketch = new FrequencySketch(capacity);
+        }
+        
+        synchronized Document get(int docId){
+            sketch.increment(docId);
+            return map.get(docId);
+        }
+        
+        synchronized void put(Integer docId, Document doc){
+            if(map.size() < capacity || map.containsKey(docId)){
+                map.put(docId, doc);
+            } else {
+                Iterator<Entry<Integer,Document>> it = map.entrySet().iterator();
+                Integer victim = it.next().getKey();
+                if(sketch.frequency(docId) > sketch.frequency(victim)){
+                    it.remove();
+                    map.put(docId, doc);
+                    stats.evictions.incrementAndGet();
+                } else {
+                    stats.rejections.incrementAndGet();
+                }
+            }
+        }
+        
+        synchronized int size(){
+            return map.size();
+        }
+        
+        synchronized void clear(){
+            map.clear();
+        }
+        
+        synchronized void collect(List<HotEntry> entries){
+            for(Entry<Integer,Document> entry : map.entrySet()){
+                entries.add(new HotEntry(entry.getValue(), 
+                    sketch.frequency(entry.getKey())));
+            }
+        }
+    }
+    /**
+     * A cached document and its access frequency
+     */
+    private static final class HotEntry {
+        
+        static final Comparator<HotEntry> FREQUENCY_COMPARATOR = new Comparator<HotEntry>() {
+            @Override
+            public int compare(HotEntry e1, HotEntry e2) {
+                return e1.frequency > e2.frequency ? -1 : e1.frequency == e2.frequency ? 0 : 1;
+            }
+        };
+        
+        final Document doc;
+        final int frequency;
+        
+        HotEntry(Document doc, int frequency){
+            this.doc = doc;
+            this.frequency = frequency;
+        }
+    }
+    /**
+     * A count-min sketch with four hash functions and counters up to 
+     * <code>15</code>. All counters are halved after a sample of ten times
+     * the capacity of the segment so that the frequencies reflect the recent
+     * usage. Not thread safe (used within the lock of a segment).
+     */
+    static final class FrequencySketch {
+        
+        private static final int[] SEEDS = new int[]{
+            0x97CB3127, 0xC2B2AE35, 0x27D4EB2F, 0x165667B1};
+        private static final int MAX_COUNT = 15;
+        
+        private final byte[] table;
+        private final int mask;
+        private final int sampleSize;
+        private int increments;
+        
+        FrequencySketch(int capacity){
+            sampleSize = Math.max(10 * capacity, 160);
+            //one counter per sampled access keeps the error low
+            int width = Integer.highestOneBit(sampleSize - 1) << 1;
+            table = new byte[width];
+            mask = width - 1;
+        }
+        
+        void increment(int key){
+            for(int seed : SEEDS){
+                int i = index(key, seed);
+                if(table[i] < MAX_COUNT){
+                    table[i]++;
+                }
+            }
+            if(++increments >= sampleSize){
+                for(int i = 0; i < table.length; i++){
+                    table[i] = (byte)(table[i] >>> 1);
+                }
+                increments = increments >>> 1;
+            }
+        }
+        
+        int frequency(int key){
+            int frequency = MAX_COUNT;
+            for(int seed : SEEDS){
+                frequency = Math.min(frequency, table[index(key, seed)]);
+            }
+            return frequency;
+        }
+        
+        private int index(int key, int seed){
+            int h = (key + seed) * 0x9E3779B9;
+            h ^= h >>> 16;
+            return h & mask;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.engines.lucenefstlinking.cache;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.lucene.document.Document;
+import org.apache.solr.util.RefCounted;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link EntityCacheManager} that manages {@link CompactEntityCache}s. On a
+ * new version of the index the most frequently used documents of the current
+ * cache are handed over to the new cache so that users can warm it up (see
+ * {@link CompactEntityCache#pollWarmupDocuments()}). Statistics are
+ * collected over all versions.
+ */
+public class CompactEntityCacheManager implements EntityCacheManager {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+    
+    private RefCounted<EntityCache> current;
+    private final int size;
+    private final int autowarmCount;
+    private final Statistics stats = new Statistics();
+    
+    /**
+     * Creates a cache manager with the parsed maximum size.
+     * @param size the maximum number of cached documents. MUST BE &gt; 0
+     * @param autowarmCount the number of the most frequently used documents
+     * of an outdated version used to warm up the cache of the new version.
+     * Values &lt;= 0 deactivate autowarming.
+     */
+    public CompactEntityCacheManager(int size, int autowarmCount){
+        if(size <= 0){
+            throw new IllegalArgumentException("The parsed size MUST BE > 0 (parsed: "
+                + size + ")!");
+        }
+        this.size = size;
+        this.autowarmCount = autowarmCount < 0 ? 0 : Math.min(autowarmCount, size);
+    }
+    
+    @Override
+    public synchronized RefCounted<EntityCache> getCache(Object version) {
+        if(current == null || !current.get().getVersion().equals(version)){
+            List<Document> warmup = Collections.emptyList();
+            if(current != null){
+                log.debug(" > invalidate EntityCache for version {}", current.get().getVersion());
+                warmup = ((CompactEntityCache)current.get()).getHotDocuments(autowarmCount);
+                //remove the reference to the old instance. This will allow to
+                //destroy the old cache as soon as it is no longer used
+                current.decref(); 
+                current = null;
+                stats.versions.incrementAndGet();
+            }
+            log.debug(" > create EntityCache for version {} ({} warm-up documents)", 
+                version, warmup.size());
+            current = new RefCountedImpl(new CompactEntityCache(version, size, warmup, stats));
+            //add a reference to the new cache by this class. This will be removed
+            //as soon as the instance is outdated
+            current.incref(); 
+        }
+        current.incref(); //this increase is for the holder of the returned instance
+        return current;
+    }
+    
+    @Override
+    public Map<String,Object> getStatistics() {
+        Map<String,Object> statistics = new LinkedHashMap<String,Object>();
+        RefCounted<EntityCache> current;
+        synchronized (this) {
+            current = this.current;
+        }
+        statistics.put("size", current == null ? 0 : current.get().size());
+        statistics.put("maxSize", size);
+        stats.addTo(statistics);
+        return statistics;
+    }
+
+    @Override
+    public synchronized void close() {
+        if(current != null){
+            current.decref();
+            current = null;
+        }
+    }
+    
+    /**
+     * {@link RefCounted} implementation that closes the {@link CompactEntityCache}
+     * when {@link #close()} is called by the super implementation.
+     */
+    private class RefCountedImpl extends RefCounted<EntityCache>{
+        
+        public RefCountedImpl(CompactEntityCache resource) {
+            super(resource);
+        }
+
+        protected void close(){
+            log.debug(" > close EntityCache for version {}", get().getVersion());
+            ((CompactEntityCache)get()).close();
+        }
+    }
+    /**
+     * Statistics shared by all {@link CompactEntityCache} instances of a
+     * manager.
+     */
+    static final class Statistics {
+        
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong evictions = new AtomicLong();
+        final AtomicLong rejections = new AtomicLong();
+        final AtomicLong warmed = new AtomicLong();
+        final AtomicLong versions = new AtomicLong();
+        
+        float getHitRatio(){
+            long hits = this.hits.get();
+            long total = hits + misses.get();
+            return total > 0 ? hits/(float)total : Float.NaN;
+        }
+        
+        void addTo(Map<String,Object> statistics){
+            statistics.put("hits", hits.get());
+            statistics.put("misses", misses.get());
+            statistics.put("hitRatio", getHitRatio());
+            statistics.put("evictions", evictions.get());
+            statistics.put("rejections", rejections.get());
+            statistics.put("warmed", warmed.get());
+            statistics.put("versions", versions.get());
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("hits: %d | misses: %d | hit ratio: %.3f | evictions: %d | "
+                + "rejections: %d | warmed: %d | versions: %d", hits.get(), misses.get(), 
+                getHitRatio(), evictions.get(), rejections.get(), warmed.get(), versions.get());
+        }
+    }
+}
@@ -16,6 +16,8 @@
 */
 package org.apache.stanbol.enhancer.engines.lucenefstlinking.cache;
 
+import java.util.Map;
+
 import org.apache.lucene.document.Document;
 import org.apache.solr.search.SolrIndexSearcher;
 import org.apache.solr.util.RefCounted;
@@ -48,6 +50,12 @@ public interface EntityCacheManager {
      * @return A counting reference to the EntityCache
      */
     RefCounted<EntityCache> getCache(Object version);
+    
+    /**
+     * Statistics about the managed cache (e.g. the size, hits, misses ...)
+     * @return the statistics. An empty map if no statistics are available
+     */
+    Map<String,Object> getStatistics();
 
     /**
      * Called if the EntityCacheManager is no longer used
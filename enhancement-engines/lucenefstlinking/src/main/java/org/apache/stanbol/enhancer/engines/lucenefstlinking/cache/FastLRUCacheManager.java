@@ -99,6 +99,16 @@ public class FastLRUCacheManager implements EntityCacheManager {
         return current;
     }
 
+    @Override
+    public Map<String,Object> getStatistics() {
+        RefCounted<EntityCache> current = this.current;
+        if(current == null){
+            return Collections.emptyMap();
+        } else {
+            return ((SolrEntityCache)current.get()).getStatistics();
+        }
+    }
+
     @Override
     public void close() {
     	if(current != null){
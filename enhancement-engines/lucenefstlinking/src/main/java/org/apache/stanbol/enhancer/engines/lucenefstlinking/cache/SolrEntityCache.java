@@ -16,7 +16,11 @@
 */
 package org.apache.stanbol.enhancer.engines.lucenefstlinking.cache;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.apache.lucene.document.Document;
+import org.apache.solr.common.util.NamedList;
 import org.apache.solr.search.FastLRUCache;
 import org.apache.solr.search.SolrCache;
 
@@ -64,6 +68,19 @@ public class SolrEntityCache implements EntityCache {
         return cache.getStatistics().toString();
     }
     
+    /**
+     * The {@link SolrCache#getStatistics() statistics} of the SolrCache
+     * @return the statistics as map
+     */
+    Map<String,Object> getStatistics(){
+        NamedList<?> stats = cache.getStatistics();
+        Map<String,Object> statistics = new LinkedHashMap<String,Object>();
+        for(int i = 0; stats != null && i < stats.size(); i++){
+            statistics.put(stats.getName(i), stats.getVal(i));
+        }
+        return statistics;
+    }
+    
     @Override
     public String toString() {
         return cache.getDescription();
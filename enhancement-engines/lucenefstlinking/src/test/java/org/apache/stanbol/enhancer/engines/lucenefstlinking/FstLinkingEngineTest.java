@@ -332,6 +332,44 @@ public class FstLinkingEngineTest {
                 DBPEDIA+"Election", DBPEDIA+"Party", DBPEDIA+"Policy"));
     }
 
+    /**
+     * Tags the test text with a thread pool and shards of about 100 chars and
+     * validates that the results are the same as when tagging sequentially
+     */
+    @Test
+    public void testFstLinkingWithShards() throws Exception {
+        Dictionary<String,Object> dict = new Hashtable<String,Object>();
+        dict.put(PROCESSED_LANGUAGES, Arrays.asList("en;lmmtip;uc=LINK;prob=0.75;pprob=0.75"));
+        dict.put(PROCESS_ONLY_PROPER_NOUNS_STATE, false);
+        TextProcessingConfig tpc = TextProcessingConfig.createInstance(dict);
+        EntityLinkerConfig elc = new EntityLinkerConfig();
+        elc.setMinFoundTokens(2);//this is assumed by this test
+        elc.setRedirectProcessingMode(RedirectProcessingMode.FOLLOW);
+        ExecutorService taggingExecutor = Executors.newFixedThreadPool(2);
+        try {
+            FstLinkingEngine engine = new FstLinkingEngine("sharded-linking", 
+                fstConfig, tpc, elc, taggingExecutor, 100);
+            processConentItem(engine);
+            //the text is split in more as a single shard
+            Assert.assertEquals(1, engine.getStatistics().getDocumentCount());
+            Assert.assertTrue(engine.getStatistics().getTaggingTaskCount() > 1);
+            //the statistics are included in the service properties
+            Assert.assertEquals(Long.valueOf(1), engine.getServiceProperties().get(
+                FstLinkingEngine.STATISTICS_PREFIX + "documents"));
+        } finally {
+            taggingExecutor.shutdown();
+        }
+        validateEnhancements(
+            Arrays.asList(
+                "Chancellor", "Angela Merkel", "Greece", "Greeks", "Germany", "SPD",
+                "change","election", "party", "policy"),
+            Arrays.asList(
+                DBPEDIA+"Christian_Democratic_Union_(Germany)", 
+                DBPEDIA+"Angela_Merkel", DBPEDIA+"Greece", DBPEDIA+"Germany", 
+                DBPEDIA+"Social_Democratic_Party_of_Germany", DBPEDIA+"Chancellor",
+                DBPEDIA+"Election", DBPEDIA+"Party", DBPEDIA+"Policy"));
+    }
+
     /**
      * @param expected
      */
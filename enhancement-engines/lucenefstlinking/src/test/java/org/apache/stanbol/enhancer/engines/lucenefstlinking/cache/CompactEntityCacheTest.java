@@ -0,0 +1,182 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.engines.lucenefstlinking.cache;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.util.BytesRef;
+import org.apache.solr.util.RefCounted;
+import org.apache.stanbol.enhancer.engines.lucenefstlinking.cache.CompactEntityCache.FrequencySketch;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompactEntityCacheTest {
+
+    private static final String ID_FIELD = "uri";
+
+    @Test
+    public void testCompactDocument() {
+        CompactEntityCacheManager manager = new CompactEntityCacheManager(128, 0);
+        RefCounted<EntityCache> ref = manager.getCache("v1");
+        EntityCache cache = ref.get();
+        Document doc = createDocument(1);
+        doc.add(new StoredField("rank", 0.5f));
+        doc.add(new StoredField("binary", new BytesRef(new byte[]{1,2,3})));
+        cache.cache(1, doc);
+        Document cached = cache.get(1);
+        Assert.assertNotNull(cached);
+        Assert.assertNotSame(doc, cached);
+        Assert.assertEquals(doc.getFields().size(), cached.getFields().size());
+        Assert.assertEquals("urn:test:1", cached.get(ID_FIELD));
+        Assert.assertArrayEquals(doc.getValues("label"), cached.getValues("label"));
+        Assert.assertEquals(0.5f, cached.getFields().get(2).numericValue().floatValue(), 0f);
+        Assert.assertArrayEquals(new byte[]{1,2,3}, cached.getFields().get(3).binaryValue().bytes);
+        //cache hits do not copy the cached document
+        Assert.assertSame(cached, cache.get(1));
+        Assert.assertNull(cache.get(2));
+        Map<String,Object> statistics = manager.getStatistics();
+        Assert.assertEquals(1, statistics.get("size"));
+        Assert.assertEquals(2L, statistics.get("hits"));
+        Assert.assertEquals(1L, statistics.get("misses"));
+        ref.decref();
+        manager.close();
+    }
+
+    @Test
+    public void testAdmission() {
+        //a size of 64 results in a single segment
+        CompactEntityCacheManager manager = new CompactEntityCacheManager(64, 0);
+        RefCounted<EntityCache> ref = manager.getCache("v1");
+        EntityCache cache = ref.get();
+        for(int i = 0; i < 64; i++){
+            Assert.assertNull(cache.get(i));
+            cache.cache(i, createDocument(i));
+        }
+        Assert.assertEquals(64, cache.size());
+        //requested as often as the least recently used document
+        Assert.assertNull(cache.get(100));
+        cache.cache(100, createDocument(100));
+        Assert.assertNull(cache.get(100));
+        Assert.assertNotNull(cache.get(0));
+        //requested more often as the least recently used document (1)
+        for(int i = 0; i < 3; i++){
+            Assert.assertNull(cache.get(101));
+        }
+        cache.cache(101, createDocument(101));
+        Assert.assertNotNull(cache.get(101));
+        Assert.assertNull(cache.get(1)); //evicted
+        Assert.assertEquals(64, cache.size());
+        Map<String,Object> statistics = manager.getStatistics();
+        Assert.assertEquals(1L, statistics.get("rejections"));
+        Assert.assertEquals(1L, statistics.get("evictions"));
+        ref.decref();
+        manager.close();
+    }
+
+    @Test
+    public void testFrequencySketchHalving() {
+        FrequencySketch sketch = new FrequencySketch(16); //sample size of 160
+        for(int i = 0; i < 20; i++){
+            sketch.increment(1);
+        }
+        Assert.assertEquals(15, sketch.frequency(1)); //the maximum count
+        Assert.assertEquals(0, sketch.frequency(2));
+        for(int i = 0; i < 139; i++){
+            sketch.increment(2);
+        }
+        Assert.assertEquals(15, sketch.frequency(1));
+        sketch.increment(2); //the 160th increment halves all counters
+        Assert.assertEquals(7, sketch.frequency(1));
+        Assert.assertEquals(7, sketch.frequency(2));
+    }
+
+    @Test
+    public void testHotDocuments() {
+        CompactEntityCacheManager manager = new CompactEntityCacheManager(128, 2);
+        RefCounted<EntityCache> ref = manager.getCache("v1");
+        CompactEntityCache cache = (CompactEntityCache)ref.get();
+        for(int i = 0; i < 10; i++){
+            cache.cache(i, createDocument(i));
+        }
+        for(int i = 0; i < 5; i++){
+            cache.get(7);
+        }
+        for(int i = 0; i < 3; i++){
+            cache.get(3);
+        }
+        cache.get(5);
+        List<Document> hot = cache.getHotDocuments(2);
+        Assert.assertEquals(2, hot.size());
+        Assert.assertEquals("urn:test:7", hot.get(0).get(ID_FIELD));
+        Assert.assertEquals("urn:test:3", hot.get(1).get(ID_FIELD));
+        Assert.assertTrue(cache.getHotDocuments(0).isEmpty());
+        ref.decref();
+        manager.close();
+    }
+
+    @Test
+    public void testWarmupDocuments() {
+        CompactEntityCacheManager manager = new CompactEntityCacheManager(128, 2);
+        RefCounted<EntityCache> ref = manager.getCache("v1");
+        CompactEntityCache cache = (CompactEntityCache)ref.get();
+        //the first version has no warm-up documents
+        Assert.assertTrue(cache.pollWarmupDocuments().isEmpty());
+        for(int i = 0; i < 10; i++){
+            cache.cache(i, createDocument(i));
+        }
+        for(int i = 0; i < 3; i++){
+            cache.get(4);
+            cache.get(8);
+        }
+        cache.get(4);
+        //the same version returns the same cache
+        RefCounted<EntityCache> sameRef = manager.getCache("v1");
+        Assert.assertSame(cache, sameRef.get());
+        sameRef.decref();
+        //a new version gets the hot documents of the old one
+        RefCounted<EntityCache> newRef = manager.getCache("v2");
+        CompactEntityCache newCache = (CompactEntityCache)newRef.get();
+        Assert.assertNotSame(cache, newCache);
+        Assert.assertEquals(0, newCache.size());
+        List<Document> warmup = newCache.pollWarmupDocuments();
+        Assert.assertEquals(2, warmup.size());
+        Assert.assertEquals("urn:test:4", warmup.get(0).get(ID_FIELD));
+        Assert.assertEquals("urn:test:8", warmup.get(1).get(ID_FIELD));
+        //only the first call returns the documents
+        Assert.assertTrue(newCache.pollWarmupDocuments().isEmpty());
+        newCache.warmed(warmup.size());
+        Assert.assertEquals(2L, manager.getStatistics().get("warmed"));
+        Assert.assertEquals(1L, manager.getStatistics().get("versions"));
+        //the old cache is closed as soon as the last user releases it
+        Assert.assertNotNull(cache.get(4));
+        ref.decref();
+        Assert.assertNull(cache.get(4));
+        Assert.assertEquals(0, cache.size());
+        newRef.decref();
+        manager.close();
+    }
+
+    private static Document createDocument(int id){
+        Document doc = new Document();
+        doc.add(new StoredField(ID_FIELD, "urn:test:" + id));
+        doc.add(new StoredField("label", "Label " + id));
+        return doc;
+    }
+}
@@ -296,34 +296,34 @@ public class RefactorEnhancementEngine extends AbstractEnhancementEngine<Runtime
             log.debug("Refactoring recipe IRI is : " + engineConfiguration.getRecipeId());
 
             /*
-             * We pass the ontology and the recipe IRI to the Refactor that returns the refactored graph
-             * expressed by using the given vocabulary.
+             * We pass the ontology and the recipe IRI to the Refactor that adds the refactored triples
+             * expressed by using the given vocabulary to the metadata graph.
              * 
              * To perform the refactoring of the ontology to a given vocabulary we use the Stanbol Refactor.
+             * The recipe is not fetched from the rule store for every content item, as the Refactor keeps
+             * compiled recipes in memory.
              */
-            Recipe recipe = ruleStore.getRecipe(new UriRef(engineConfiguration.getRecipeId()));
-
-            log.debug("Recipe {} contains {} rules.", recipe, recipe.getRuleList().size());
             log.debug("The ontology to be refactor is {}", ontology);
 
-            TripleCollection tc = refactorer.graphRefactoring(
-                OWLAPIToClerezzaConverter.owlOntologyToClerezzaMGraph(ontology), recipe);
+            TripleCollection dataset = OWLAPIToClerezzaConverter.owlOntologyToClerezzaMGraph(ontology);
+            UriRef recipeId = new UriRef(engineConfiguration.getRecipeId());
 
-            /*
-             * ontology = refactorer .ontologyRefactoring(ontology,
-             * IRI.create(engineConfiguration.getRecipeId()));
-             */
             /*
              * The newly generated ontology is converted to Clarezza format and then added os substitued to
              * the old mGraph.
              */
             if (engineConfiguration.isInGraphAppendMode()) {
                 log.debug("Metadata of the content will replace old ones.", this);
+                // refactored triples can be added directly to the metadata
+                refactorer.graphRefactoring(dataset, recipeId, metadataGraph);
             } else {
+                // only replace the existing metadata if the refactoring succeeds
+                MGraph refactored = new IndexedMGraph();
+                refactorer.graphRefactoring(dataset, recipeId, refactored);
                 metadataGraph.clear();
                 log.debug("Content metadata will be appended to the existing ones.", this);
+                metadataGraph.addAll(refactored);
             }
-            metadataGraph.addAll(tc);
 
         } catch (RefactoringException e) {
             String msg = "Refactor engine execution failed on content item " + ci + ".";
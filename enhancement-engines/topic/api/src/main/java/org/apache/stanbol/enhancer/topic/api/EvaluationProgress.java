@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.enhancer.topic.api;
+
+import java.util.Date;
+
+/**
+ * Data transfer object to report the progress of a running performance evaluation (see
+ * {@link TopicClassifier#updatePerformanceEstimates(boolean)}).
+ *
+ * <p>
+ * The k-folds of the cross validation may be processed concurrently. Each fold evaluates every topic of the
+ * model, hence the evaluation is completed after {@link #topicCount} * {@link #foldCount} topic evaluations.
+ * </p>
+ */
+public class EvaluationProgress {
+
+    /**
+     * The number of folds used by the cross validation.
+     */
+    public final int foldCount;
+
+    /**
+     * The number of folds that are already completely processed.
+     */
+    public final int completedFolds;
+
+    /**
+     * The number of topics registered in the model at the start of the evaluation.
+     */
+    public final int topicCount;
+
+    /**
+     * The number of topic evaluations completed over all folds.
+     */
+    public final int evaluatedTopics;
+
+    public final Date startDate;
+
+    public EvaluationProgress(int foldCount, int completedFolds, int topicCount, int evaluatedTopics,
+                              Date startDate) {
+        this.foldCount = foldCount;
+        this.completedFolds = completedFolds;
+        this.topicCount = topicCount;
+        this.evaluatedTopics = evaluatedTopics;
+        this.startDate = startDate;
+    }
+
+    /**
+     * @return the completed part of the evaluation in the range [0..1]
+     */
+    public float getCompletedRatio() {
+        long total = (long) topicCount * foldCount;
+        return total <= 0 ? 0 : Math.min(1f, evaluatedTopics / (float) total);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EvaluationProgress: %.1f%% (%d/%d topic evaluations, %d/%d folds completed)"
+                             + " started at %s", getCompletedRatio() * 100, evaluatedTopics,
+            (long) topicCount * foldCount, completedFolds, foldCount, startDate);
+    }
+
+}
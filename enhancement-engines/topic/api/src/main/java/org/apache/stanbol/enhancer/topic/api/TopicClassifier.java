@@ -149,6 +149,14 @@ public interface TopicClassifier {
     public int updatePerformanceEstimates(boolean incremental) throws ClassifierException,
                                                               TrainingSetException;
 
+    /**
+     * Report the progress of a running call to {@link #updatePerformanceEstimates(boolean)}. This method
+     * does not block while the evaluation is running.
+     *
+     * @return the progress or <code>null</code> if no evaluation is currently running
+     */
+    EvaluationProgress getEvaluationProgress();
+
     /**
      * Tell the classifier which slice of data to keep aside while training for model evaluation using k-folds
      * cross validation.
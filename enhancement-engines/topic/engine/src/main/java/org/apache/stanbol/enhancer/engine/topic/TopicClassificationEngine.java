@@ -28,12 +28,26 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.xml.parsers.ParserConfigurationException;
 
 import org.apache.clerezza.rdf.core.Graph;
 import org.apache.clerezza.rdf.core.LiteralFactory;
@@ -91,6 +105,7 @@ import org.apache.stanbol.enhancer.topic.api.Batch;
 import org.apache.stanbol.enhancer.topic.api.BatchProcessor;
 import org.apache.stanbol.enhancer.topic.api.ClassificationReport;
 import org.apache.stanbol.enhancer.topic.api.ClassifierException;
+import org.apache.stanbol.enhancer.topic.api.EvaluationProgress;
 import org.apache.stanbol.enhancer.topic.api.TopicClassifier;
 import org.apache.stanbol.enhancer.topic.api.TopicSuggestion;
 import org.apache.stanbol.enhancer.topic.api.training.Example;
@@ -112,6 +127,7 @@ import org.osgi.service.component.ComponentContext;
 import org.osgi.util.tracker.ServiceTracker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.xml.sax.SAXException;
 
 /**
  * Enhancement Engine that provides the ability to assign a text document to a set of concepts indexed in a
@@ -167,6 +183,10 @@ import org.slf4j.LoggerFactory;
 //             @Property(name = TopicClassificationEngine.NEGATIVE_SUPPORT_FIELD, value = TopicClassificationEngine.DEFAULT_NEGATIVE_SUPPORT_FIELD),
 //             @Property(name = TopicClassificationEngine.ORDER, intValue = TopicClassificationEngine.DEFAULT_ENGINE_ORDER),
         @Property(name = TopicClassificationEngine.TRAINING_SET_ID),
+        @Property(name = TopicClassificationEngine.CV_FOLD_COUNT,
+            intValue = TopicClassificationEngine.DEFAULT_CV_FOLD_COUNT),
+        @Property(name = TopicClassificationEngine.EVALUATION_THREADS,
+            intValue = TopicClassificationEngine.DEFAULT_EVALUATION_THREADS),
         @Property(name = Constants.SERVICE_RANKING, intValue = 0)
 })
 public class TopicClassificationEngine extends ConfiguredSolrCoreTracker implements EnhancementEngine,
@@ -258,6 +278,23 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
     
     public static final String TRAINING_SET_ID = "org.apache.stanbol.enhancer.engine.topic.trainingSetId";
 
+    /**
+     * The number of folds used by the k-folds cross validation performed by
+     * {@link #updatePerformanceEstimates(boolean)} (default: 3)
+     */
+    public static final String CV_FOLD_COUNT = "org.apache.stanbol.enhancer.engine.topic.cvFoldCount";
+
+    public static final int DEFAULT_CV_FOLD_COUNT = 3;
+
+    /**
+     * The maximum number of threads used by the cross validation (default: 4). Folds are processed
+     * concurrently up to this number and the remaining threads are used to evaluate the topics of the
+     * folds.
+     */
+    public static final String EVALUATION_THREADS = "org.apache.stanbol.enhancer.engine.topic.evaluationThreads";
+
+    public static final int DEFAULT_EVALUATION_THREADS = 4;
+
     private static final Logger log = LoggerFactory.getLogger(TopicClassificationEngine.class);
 
     /**
@@ -290,6 +327,9 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
     // documents for this concept.
     public int MIN_EVALUATION_SAMPLES = 10;
 
+    // The number of topics evaluated before the performance metadata are committed.
+    private static final int EVALUATION_BATCH_SIZE = 1000;
+
     public int MAX_CHARS_PER_TOPIC = 100000;
 
     public Integer MAX_ROOTS = 1000;
@@ -352,7 +392,15 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
 
     protected int cvFoldCount = 0;
 
-    protected boolean evaluationRunning = false;
+    // configuration of the model evaluation (see #updatePerformanceEstimates(boolean))
+    protected int evaluationFoldCount = DEFAULT_CV_FOLD_COUNT;
+
+    protected int evaluationThreads = DEFAULT_EVALUATION_THREADS;
+
+    /**
+     * The state of the currently running evaluation or <code>null</code> if none
+     */
+    private final AtomicReference<CrossValidation> evaluation = new AtomicReference<CrossValidation>();
 
     @Reference(cardinality = ReferenceCardinality.OPTIONAL_UNARY, bind = "bindManagedSolrServer", unbind = "unbindManagedSolrServer", strategy = ReferenceStrategy.EVENT, policy = ReferencePolicy.DYNAMIC)
     protected ManagedSolrServer managedSolrServerDummy; // trick to call the super class binders
@@ -365,12 +413,12 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
     private File embeddedSolrServerDir;
 
     /**
-     * Embedded Solr server used for {@link #performCVFold(File, int, int, int, boolean)}
-     * if no ManagedSolrServer is present (e.g. when running outside of OSGI).
-     * Lazily initialised relative to {@link #embeddedSolrServerDir} on the first
-     * call to performCVFold
+     * Embedded Solr servers (one for each fold) used by
+     * {@link #performCVFold(CrossValidation, int)} if no ManagedSolrServer is present
+     * (e.g. when running outside of OSGI). Lazily initialised relative to
+     * {@link #embeddedSolrServerDir} on the first call to performCVFold
      */
-    private EmbeddedSolrServer __evaluationServer;
+    private final Map<Integer,EmbeddedSolrServer> __evaluationServers = new HashMap<Integer,EmbeddedSolrServer>();
 
     private File __evaluationServerDir;
 
@@ -411,16 +459,8 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
         if (trainingSetTracker != null) {
             trainingSetTracker.close();
         }
-        //shutdown the evaluation server and delete the data of the evaluation server
-        if(__evaluationServer != null){
-            try {
-                __evaluationServer.getCoreContainer().shutdown();
-            }catch (Exception e){
-              //ignore  
-            } finally {
-                FileUtils.deleteQuietly(__evaluationServerDir);
-            }
-        }
+        //shutdown the evaluation servers and delete the data of the evaluation servers
+        shutdownEvaluationServers();
         context = null;
     }
 
@@ -460,6 +500,30 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
         } else {
             order = DEFAULT_ENGINE_ORDER;
         }
+        evaluationFoldCount = getIntParam(config, CV_FOLD_COUNT, DEFAULT_CV_FOLD_COUNT, 2);
+        evaluationThreads = getIntParam(config, EVALUATION_THREADS, DEFAULT_EVALUATION_THREADS, 1);
+    }
+
+    private static int getIntParam(Dictionary<String,Object> config, String key, int defaultValue, int min)
+            throws ConfigurationException {
+        Object value = config.get(key);
+        int intValue;
+        if (value instanceof Number) {
+            intValue = ((Number) value).intValue();
+        } else if (value != null && !value.toString().trim().isEmpty()) {
+            try {
+                intValue = Integer.parseInt(value.toString().trim());
+            } catch (NumberFormatException e) {
+                throw new ConfigurationException(key, "The configured value MUST BE an Integer value!", e);
+            }
+        } else {
+            intValue = defaultValue;
+        }
+        if (intValue < min) {
+            throw new ConfigurationException(key, "The configured value MUST BE >= " + min + " (configured: "
+                                                  + intValue + ")!");
+        }
+        return intValue;
     }
 
     @Override
@@ -644,25 +708,31 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
             StreamQueryRequest request = new StreamQueryRequest(query);
             QueryResponse response = request.process(solrServer);
             SolrDocumentList results = response.getResults();
-            for (SolrDocument result : results.toArray(new SolrDocument[0])) {
+            // concept URIs and scores in the order of the results
+            List<String> conceptUris = new ArrayList<String>(results.size());
+            List<Float> scores = new ArrayList<Float>(results.size());
+            for (SolrDocument result : results) {
                 String conceptUri = (String) result.getFirstValue(conceptUriField);
                 if (conceptUri == null) {
                     throw new ClassifierException(String.format(
                         "Solr Core '%s' is missing required field '%s'.", solrCoreId, conceptUriField));
                 }
-                Float score = (Float) result.getFirstValue("score");
-
-                // fetch metadata
-                SolrQuery metadataQuery = new SolrQuery("*:*");
-                // use filter queries to leverage the Solr cache explicitly
-                metadataQuery.addFilterQuery(entryTypeField + ":" + METADATA_ENTRY);
-                metadataQuery
-                        .addFilterQuery(conceptUriField + ":" + ClientUtils.escapeQueryChars(conceptUri));
-                metadataQuery.setFields(conceptUriField, broaderField, primaryTopicUriField);
-                SolrDocument metadata = solrServer.query(metadataQuery).getResults().get(0);
+                conceptUris.add(conceptUri);
+                scores.add((Float) result.getFirstValue("score"));
+            }
+            // fetch the metadata of all suggested concepts with a single query
+            Map<String,SolrDocument> metadataEntries = getMetadataEntries(solrServer, conceptUris);
+            for (int i = 0; i < conceptUris.size(); i++) {
+                String conceptUri = conceptUris.get(i);
+                SolrDocument metadata = metadataEntries.get(conceptUri);
+                if (metadata == null) {
+                    throw new ClassifierException(String.format(
+                        "Solr Core '%s' is missing the metadata entry for concept '%s'.", solrCoreId,
+                        conceptUri));
+                }
                 String primaryTopicUri = (String) metadata.getFirstValue(primaryTopicUriField);
                 suggestedTopics.add(new TopicSuggestion(conceptUri, primaryTopicUri, metadata
-                        .getFieldValues(broaderField), score));
+                        .getFieldValues(broaderField), scores.get(i)));
             }
         } catch (SolrServerException e) {
             if ("unknown handler: /mlt".equals(e.getCause().getMessage())) {
@@ -698,6 +768,44 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
         return filteredSuggestions;
     }
 
+    /**
+     * Fetches the metadata entries (broader concepts and primary topic) of
+     * the parsed concepts with a single query.
+     * 
+     * @param solrServer
+     *            the Solr server
+     * @param conceptUris
+     *            the URIs of the concepts
+     * @return the metadata entries by concept URI
+     */
+    protected Map<String,SolrDocument> getMetadataEntries(SolrServer solrServer,
+                                                          Collection<String> conceptUris) throws SolrServerException {
+        Map<String,SolrDocument> metadataEntries = new HashMap<String,SolrDocument>(conceptUris.size() * 2);
+        if (conceptUris.isEmpty()) {
+            return metadataEntries;
+        }
+        StringBuilder queryString = new StringBuilder(conceptUriField).append(":(");
+        boolean first = true;
+        for (String conceptUri : new LinkedHashSet<String>(conceptUris)) {
+            if (first) {
+                first = false;
+            } else {
+                queryString.append(" OR ");
+            }
+            queryString.append(ClientUtils.escapeQueryChars(conceptUri));
+        }
+        queryString.append(')');
+        SolrQuery metadataQuery = new SolrQuery(queryString.toString());
+        // use a filter query for the entry type to leverage the Solr cache explicitly
+        metadataQuery.addFilterQuery(entryTypeField + ":" + METADATA_ENTRY);
+        metadataQuery.setFields(conceptUriField, broaderField, primaryTopicUriField);
+        metadataQuery.setRows(conceptUris.size());
+        for (SolrDocument metadata : solrServer.query(metadataQuery).getResults()) {
+            metadataEntries.put((String) metadata.getFirstValue(conceptUriField), metadata);
+        }
+        return metadataEntries;
+    }
+
     @Override
     public Set<String> getNarrowerConcepts(String broadTopicId) throws ClassifierException {
         LinkedHashSet<String> narrowerConcepts = new LinkedHashSet<String>();
@@ -1127,234 +1235,552 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
     }
 
     public boolean isEvaluationRunning() {
-        return evaluationRunning;
+        return evaluation.get() != null;
     }
 
-    synchronized public int updatePerformanceEstimates(boolean incremental) throws ClassifierException,
-                                                                           TrainingSetException {
+    @Override
+    public EvaluationProgress getEvaluationProgress() {
+        CrossValidation cv = evaluation.get();
+        return cv == null ? null : cv.getProgress();
+    }
+
+    /**
+     * Performs a k-folds cross validation of the model. The folds are processed concurrently and the topics
+     * of each batch are evaluated by the fold threads and a thread pool shared by all folds. Both together
+     * use at most {@link #evaluationThreads} threads.
+     * <p>
+     * The topics are read once at the start of the evaluation. Concepts added or removed while the
+     * evaluation is running are not considered.
+     * <p>
+     * This does not lock the engine: suggesting topics is still possible while the evaluation is running.
+     * The progress can be tracked by calling {@link #getEvaluationProgress()}. Only a single evaluation can
+     * run at a time.
+     */
+    @Override
+    public int updatePerformanceEstimates(boolean incremental) throws ClassifierException,
+                                                              TrainingSetException {
         checkTrainingSet();
-        if (evaluationRunning) {
+        final CrossValidation cv = new CrossValidation(evaluationFoldCount, evaluationThreads);
+        if (!evaluation.compareAndSet(null, cv)) {
+            cv.close();
             throw new ClassifierException("Another evaluation is already running");
         }
-        int updatedTopics = 0;
-        // NOTE: The folder used to create the SolrServer used for CVFold
-        //       is now created within the #embeddedSolrServerDir
+        // NOTE: The folders used to create the SolrServers used for CVFold
+        //       are now created within the #embeddedSolrServerDir
+        ExecutorService foldExecutor = Executors.newFixedThreadPool(cv.foldThreads,
+            new EvaluationThreadFactory(engineName + " CV fold"));
         try {
-            evaluationRunning = true;
-            int cvFoldCount = 3; // 3-folds CV is hardcoded for now
-            int cvIterationCount = 3; // make it possible to limit the number of folds to use
-
             // We will use the training set quite intensively, ensure that the index is packed and its
             // statistics are up to date
             getTrainingSet().optimize();
-            for (int cvFoldIndex = 0; cvFoldIndex < cvIterationCount; cvFoldIndex++) {
-                updatedTopics = performCVFold(cvFoldIndex, cvFoldCount, cvIterationCount,
-                    incremental);
+            cv.topics = getTopics();
+            CompletionService<Integer> folds = new ExecutorCompletionService<Integer>(foldExecutor);
+            for (int cvFoldIndex = 0; cvFoldIndex < cv.foldCount; cvFoldIndex++) {
+                final int foldIndex = cvFoldIndex;
+                folds.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        return performCVFold(cv, foldIndex);
+                    }
+                });
+            }
+            int updatedTopics = 0;
+            for (int i = 0; i < cv.foldCount; i++) {
+                // take folds in the order they complete to fail fast
+                updatedTopics += getResult(folds.take());
             }
             SolrServer solrServer = getActiveSolrServer();
             solrServer.optimize();
-        } catch (ConfigurationException e) {
-            throw new ClassifierException(e);
+            return updatedTopics;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClassifierException("Interrupted while evaluating the model of classifier " + engineName, e);
         } catch (IOException e) {
             throw new ClassifierException(e);
         } catch (SolrServerException e) {
             throw new ClassifierException(e);
         } finally {
-            FileUtils.deleteQuietly(__evaluationServerDir);
-            evaluationRunning = false;
+            foldExecutor.shutdownNow();
+            cv.close();
+            shutdownEvaluationServers();
+            evaluation.set(null);
         }
-        return updatedTopics;
     }
 
-    protected int performCVFold(int cvFoldIndex, int cvFoldCount, int cvIterations, boolean incremental)
-            throws ConfigurationException, TrainingSetException, ClassifierException {
+    /**
+     * Reads the URIs and the broader concepts of all topics of the model
+     * 
+     * @return the broader concepts (or <code>null</code> if none) by topic URI
+     */
+    private Map<String,List<String>> getTopics() throws TrainingSetException {
+        final Map<String,List<String>> topics = new LinkedHashMap<String,List<String>>();
+        batchOverTopics(new BatchProcessor<SolrDocument>() {
+            @Override
+            public int process(List<SolrDocument> batch) {
+                for (SolrDocument topicEntry : batch) {
+                    String conceptId = topicEntry.getFirstValue(conceptUriField).toString();
+                    Collection<Object> broader = topicEntry.getFieldValues(broaderField);
+                    List<String> broaderConcepts = null;
+                    if (broader != null) {
+                        broaderConcepts = new ArrayList<String>(broader.size());
+                        for (Object broaderConcept : broader) {
+                            broaderConcepts.add(broaderConcept.toString());
+                        }
+                    }
+                    topics.put(conceptId, broaderConcepts);
+                }
+                return batch.size();
+            }
+        });
+        return topics;
+    }
 
-        cvIterations = cvIterations <= 0 ? cvFoldCount : cvFoldCount;
+    /**
+     * Waits for the parsed future and unwraps the exceptions thrown by the evaluation tasks
+     */
+    private static <T> T getResult(Future<T> future) throws ClassifierException, TrainingSetException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClassifierException("Interrupted while waiting for the model evaluation", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ClassifierException) {
+                throw (ClassifierException) cause;
+            } else if (cause instanceof TrainingSetException) {
+                throw (TrainingSetException) cause;
+            } else {
+                throw new ClassifierException(cause);
+            }
+        }
+    }
+
+    protected int performCVFold(final CrossValidation cv, final int cvFoldIndex) throws ConfigurationException,
+                                                                                TrainingSetException,
+                                                                                ClassifierException {
         log.info(String.format("Performing evaluation %d-fold CV iteration %d/%d on classifier %s",
-            cvFoldCount, cvFoldIndex + 1, cvIterations, engineName));
+            cv.foldCount, cvFoldIndex + 1, cv.foldCount, engineName));
         long start = System.currentTimeMillis();
         final TopicClassificationEngine classifier = new TopicClassificationEngine();
         try {
             if (managedSolrServer != null) {
                 // OSGi setup: the evaluation server will be generated automatically using the
-                // managedSolrServer
+                // managedSolrServer. Each fold needs its own core as folds are processed concurrently
                 classifier.bindManagedSolrServer(managedSolrServer);
                 classifier.activate(context, getCanonicalConfiguration(
-                    engineName + "-evaluation", //TODO: maybe we should use the SolrCoreName instead
+                    engineName + "-evaluation-" + cvFoldIndex, //TODO: maybe we should use the SolrCoreName instead
                     solrCoreConfig));
             } else {
-                if(__evaluationServer == null){
-                    __evaluationServerDir = new File(embeddedSolrServerDir,engineName + "-evaluation");
-                    if(!__evaluationServerDir.exists()){
-                        FileUtils.forceMkdir(__evaluationServerDir);
+                classifier.configure(getCanonicalConfiguration(getEvaluationServer(cvFoldIndex), solrCoreConfig));
+            }
+        } catch (Exception e) {
+            throw new ClassifierException(e);
+        }
+        try {
+            // clean all previous concepts from the evaluation classifier in case we are reusing an existing
+            // solr index from OSGi.
+            classifier.removeAllConcepts();
+
+            // register the topics of the evaluation in the evaluation classifier
+            for (Entry<String,List<String>> topic : cv.topics.entrySet()) {
+                classifier.addConcept(topic.getKey(), null, topic.getValue());
+            }
+
+            // build the model on the for the current train CV folds
+            classifier.setCrossValidationInfo(cvFoldIndex, cv.foldCount);
+            // bind our new classifier to the same training set at the parent
+            classifier.setTrainingSet(getTrainingSet());
+            classifier.updateModel(false);
+
+            // iterate over the topics again to compute scores on the test fold
+            List<String> topics = new ArrayList<String>(cv.topics.keySet());
+            int updatedTopics = 0;
+            for (int i = 0; i < topics.size(); i += EVALUATION_BATCH_SIZE) {
+                updatedTopics += evaluateTopics(cv, classifier, cvFoldIndex,
+                    topics.subList(i, Math.min(topics.size(), i + EVALUATION_BATCH_SIZE)));
+            }
+            cv.completedFolds.incrementAndGet();
+            long stop = System.currentTimeMillis();
+            log.info(String.format("Finished CV iteration %d/%d on classifier %s in %fs.", cvFoldIndex + 1,
+                cv.foldCount, engineName, (stop - start) / 1000.0));
+            return updatedTopics;
+        } finally {
+            if (context != null) {
+                // close open trackers
+                classifier.deactivate(context);
+            }
+            if (managedSolrServer != null) {
+                removeEvaluationCore(engineName + "-evaluation-" + cvFoldIndex);
+            }
+        }
+    }
+
+    /**
+     * Evaluates the parsed topics on the test fold. The topics are evaluated concurrently by the thread pool
+     * of the cross validation and the calling fold thread. Commits the updated performance metadata.
+     * 
+     * @return the number of topics with updated performance metadata
+     */
+    private int evaluateTopics(final CrossValidation cv,
+                               final TopicClassificationEngine classifier,
+                               final int cvFoldIndex,
+                               List<String> topics) throws TrainingSetException, ClassifierException {
+        List<FutureTask<Integer>> evaluations = new ArrayList<FutureTask<Integer>>(topics.size());
+        int updated = 0;
+        try {
+            for (final String topic : topics) {
+                FutureTask<Integer> evaluation = new FutureTask<Integer>(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        return cv.addResult(topic, evaluateTopic(classifier, topic, cvFoldIndex, cv.foldCount));
                     }
-                    __evaluationServer = EmbeddedSolrHelper.makeEmbeddedSolrServer(__evaluationServerDir,
-                        "evaluationclassifierserver", "default-topic-model", "default-topic-model");
+                });
+                evaluations.add(evaluation);
+                if (cv.topicExecutor != null) {
+                    cv.topicExecutor.execute(evaluation);
                 }
-                classifier.configure(getCanonicalConfiguration(__evaluationServer,solrCoreConfig));
             }
+            // the fold thread evaluates all topics not yet taken by the thread pool
+            for (FutureTask<Integer> evaluation : evaluations) {
+                evaluation.run();
+            }
+            for (FutureTask<Integer> evaluation : evaluations) {
+                updated += getResult(evaluation);
+            }
+        } finally { // cancel remaining evaluations on errors
+            for (FutureTask<Integer> evaluation : evaluations) {
+                evaluation.cancel(true);
+            }
+        }
+        try {
+            getActiveSolrServer().commit();
         } catch (Exception e) {
             throw new ClassifierException(e);
         }
+        return updated;
+    }
 
-        // clean all previous concepts from the evaluation classifier in case we are reusing an existing solr
-        // index from OSGi.
-        classifier.removeAllConcepts();
+    /**
+     * Removes the core of an evaluation classifier (including its data) from the {@link #managedSolrServer}
+     */
+    private void removeEvaluationCore(String coreName) {
+        ManagedSolrServer server = managedSolrServer;
+        try {
+            if (server != null && server.isManagedIndex(coreName)) {
+                server.removeIndex(coreName, true);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Unable to remove evaluation core " + coreName + " from ManagedSolrServer "
+                     + server.getServerName(), e);
+        }
+    }
 
-        // iterate over all the topics to register them in the evaluation classifier
-        batchOverTopics(new BatchProcessor<SolrDocument>() {
-            @Override
-            public int process(List<SolrDocument> batch) throws ClassifierException {
-                for (SolrDocument topicEntry : batch) {
-                    String conceptId = topicEntry.getFirstValue(conceptUriField).toString();
-                    Collection<Object> broader = topicEntry.getFieldValues(broaderField);
-                    if (broader == null) {
-                        classifier.addConcept(conceptId, null, null);
-                    } else {
-                        List<String> broaderConcepts = new ArrayList<String>();
-                        for (Object broaderConcept : broader) {
-                            broaderConcepts.add(broaderConcept.toString());
+    /**
+     * Evaluates the parsed classifier for a single topic on the test fold.
+     * 
+     * @return the result or <code>null</code> if the topic has too few positive examples
+     */
+    private FoldResult evaluateTopic(TopicClassificationEngine classifier,
+                                     String topic,
+                                     int foldIndex,
+                                     int foldCount) throws TrainingSetException, ClassifierException {
+        List<String> topics = Arrays.asList(topic);
+        List<String> falseNegativeExamples = new ArrayList<String>();
+        int truePositives = 0;
+        int falseNegatives = 0;
+        int positiveSupport = 0;
+        int offset = 0;
+        Batch<Example> examples = Batch.emtpyBatch(Example.class);
+        do {
+            examples = getTrainingSet().getPositiveExamples(topics, examples.nextOffset);
+            if (offset == 0 && examples.items.size() < MIN_EVALUATION_SAMPLES) {
+                // we need a minimum about of examples otherwise it's really not
+                // worth computing statistics
+                log.debug("Skipping evaluation of {} because too few positive examples.", topic);
+                return null;
+            }
+            for (Example example : examples.items) {
+                if (!(offset % foldCount == foldIndex)) {
+                    // this example is not part of the test fold, skip it
+                    offset++;
+                    continue;
+                }
+                positiveSupport++;
+                offset++;
+                List<TopicSuggestion> suggestedTopics = classifier.suggestTopics(example.contents);
+                boolean match = false;
+                for (TopicSuggestion suggestedTopic : suggestedTopics) {
+                    if (topic.equals(suggestedTopic.conceptUri)) {
+                        match = true;
+                        truePositives++;
+                        break;
+                    }
+                }
+                if (!match) {
+                    falseNegatives++;
+                    if (falseNegativeExamples.size() < MAX_COLLECTED_EXAMPLES / foldCount) {
+                        falseNegativeExamples.add(example.id);
+                    }
+                }
+            }
+        } while (examples.hasMore && offset < MAX_EVALUATION_SAMPLES);
+
+        List<String> falsePositiveExamples = new ArrayList<String>();
+        int falsePositives = 0;
+        int negativeSupport = 0;
+        offset = 0;
+        examples = Batch.emtpyBatch(Example.class);
+        do {
+            examples = getTrainingSet().getNegativeExamples(topics, examples.nextOffset);
+            for (Example example : examples.items) {
+                if (!(offset % foldCount == foldIndex)) {
+                    // this example is not part of the test fold, skip it
+                    offset++;
+                    continue;
+                }
+                negativeSupport++;
+                offset++;
+                List<TopicSuggestion> suggestedTopics = classifier.suggestTopics(example.contents);
+                for (TopicSuggestion suggestedTopic : suggestedTopics) {
+                    if (topic.equals(suggestedTopic.conceptUri)) {
+                        falsePositives++;
+                        if (falsePositiveExamples.size() < MAX_COLLECTED_EXAMPLES / foldCount) {
+                            falsePositiveExamples.add(example.id);
                         }
-                        classifier.addConcept(conceptId, null, broaderConcepts);
+                        break;
                     }
                 }
-                return batch.size();
+                // we don't need to collect true negatives
             }
-        });
+        } while (examples.hasMore && offset < MAX_EVALUATION_SAMPLES);
 
-        // build the model on the for the current train CV folds
-        classifier.setCrossValidationInfo(cvFoldIndex, cvFoldCount);
-        // bind our new classifier to the same training set at the parent
-        classifier.setTrainingSet(getTrainingSet());
-        classifier.updateModel(false);
+        // compute precision, recall and f1 score for the current test fold and topic
+        float precision = 0;
+        if (truePositives != 0 || falsePositives != 0) {
+            precision = truePositives / (float) (truePositives + falsePositives);
+        }
+        float recall = 0;
+        if (truePositives != 0 || falseNegatives != 0) {
+            recall = truePositives / (float) (truePositives + falseNegatives);
+        }
+        return new FoldResult(precision, recall, positiveSupport, negativeSupport, falsePositiveExamples,
+                falseNegativeExamples);
+    }
 
-        final int foldCount = cvFoldCount;
-        final int foldIndex = cvFoldIndex;
+    /**
+     * Getter for the embedded Solr server used by the evaluation classifier of the parsed fold
+     */
+    private EmbeddedSolrServer getEvaluationServer(int foldIndex) throws IOException,
+                                                                 ParserConfigurationException,
+                                                                 SAXException {
+        synchronized (__evaluationServers) {
+            EmbeddedSolrServer server = __evaluationServers.get(foldIndex);
+            if (server == null) {
+                if (__evaluationServerDir == null) {
+                    __evaluationServerDir = new File(embeddedSolrServerDir, engineName + "-evaluation");
+                }
+                if (!__evaluationServerDir.exists()) {
+                    FileUtils.forceMkdir(__evaluationServerDir);
+                }
+                server = EmbeddedSolrHelper.makeEmbeddedSolrServer(__evaluationServerDir,
+                    "evaluationclassifierserver-" + foldIndex, "default-topic-model", "default-topic-model");
+                __evaluationServers.put(foldIndex, server);
+            }
+            return server;
+        }
+    }
 
-        // iterate over the topics again to compute scores on the test fold
-        int updatedTopics = batchOverTopics(new BatchProcessor<SolrDocument>() {
+    /**
+     * Shuts down the embedded evaluation servers and deletes their data
+     */
+    private void shutdownEvaluationServers() {
+        synchronized (__evaluationServers) {
+            for (EmbeddedSolrServer server : __evaluationServers.values()) {
+                try {
+                    server.getCoreContainer().shutdown();
+                } catch (Exception e) {
+                    // ignore
+                }
+            }
+            __evaluationServers.clear();
+            if (__evaluationServerDir != null) {
+                FileUtils.deleteQuietly(__evaluationServerDir);
+            }
+        }
+    }
 
-            @Override
-            public int process(List<SolrDocument> batch) throws TrainingSetException, ClassifierException {
-                int offset;
-                int updated = 0;
-                for (SolrDocument topicMetadata : batch) {
-                    String topic = topicMetadata.getFirstValue(conceptUriField).toString();
-                    List<String> topics = Arrays.asList(topic);
-                    List<String> falseNegativeExamples = new ArrayList<String>();
-                    int truePositives = 0;
-                    int falseNegatives = 0;
-                    int positiveSupport = 0;
-                    offset = 0;
-                    Batch<Example> examples = Batch.emtpyBatch(Example.class);
-                    boolean skipTopic = false;
-                    do {
-                        examples = getTrainingSet().getPositiveExamples(topics, examples.nextOffset);
-                        if (offset == 0 && examples.items.size() < MIN_EVALUATION_SAMPLES) {
-                            // we need a minimum about of examples otherwise it's really not
-                            // worth computing statistics
-                            skipTopic = true;
-                            break;
-                        }
-                        for (Example example : examples.items) {
-                            if (!(offset % foldCount == foldIndex)) {
-                                // this example is not part of the test fold, skip it
-                                offset++;
-                                continue;
-                            }
-                            positiveSupport++;
-                            offset++;
-                            List<TopicSuggestion> suggestedTopics = classifier
-                                    .suggestTopics(example.contents);
-                            boolean match = false;
-                            for (TopicSuggestion suggestedTopic : suggestedTopics) {
-                                if (topic.equals(suggestedTopic.conceptUri)) {
-                                    match = true;
-                                    truePositives++;
-                                    break;
-                                }
-                            }
-                            if (!match) {
-                                falseNegatives++;
-                                if (falseNegativeExamples.size() < MAX_COLLECTED_EXAMPLES / foldCount) {
-                                    falseNegativeExamples.add(example.id);
-                                }
-                            }
-                        }
-                    } while (!skipTopic && examples.hasMore && offset < MAX_EVALUATION_SAMPLES);
-
-                    List<String> falsePositiveExamples = new ArrayList<String>();
-                    int falsePositives = 0;
-                    int negativeSupport = 0;
-                    offset = 0;
-                    examples = Batch.emtpyBatch(Example.class);
-                    do {
-                        if (skipTopic) {
-                            break;
-                        }
-                        examples = getTrainingSet().getNegativeExamples(topics, examples.nextOffset);
-                        for (Example example : examples.items) {
-                            if (!(offset % foldCount == foldIndex)) {
-                                // this example is not part of the test fold, skip it
-                                offset++;
-                                continue;
-                            }
-                            negativeSupport++;
-                            offset++;
-                            List<TopicSuggestion> suggestedTopics = classifier
-                                    .suggestTopics(example.contents);
-                            for (TopicSuggestion suggestedTopic : suggestedTopics) {
-                                if (topic.equals(suggestedTopic.conceptUri)) {
-                                    falsePositives++;
-                                    if (falsePositiveExamples.size() < MAX_COLLECTED_EXAMPLES / foldCount) {
-                                        falsePositiveExamples.add(example.id);
-                                    }
-                                    break;
-                                }
-                            }
-                            // we don't need to collect true negatives
-                        }
-                    } while (examples.hasMore && offset < MAX_EVALUATION_SAMPLES);
+    /**
+     * The evaluation result of a single topic for one fold
+     */
+    static final class FoldResult {
 
-                    if (skipTopic) {
-                        log.debug("Skipping evaluation of {} because too few positive examples.", topic);
-                    } else {
-                        // compute precision, recall and f1 score for the current test fold and topic
-                        float precision = 0;
-                        if (truePositives != 0 || falsePositives != 0) {
-                            precision = truePositives / (float) (truePositives + falsePositives);
-                        }
-                        float recall = 0;
-                        if (truePositives != 0 || falseNegatives != 0) {
-                            recall = truePositives / (float) (truePositives + falseNegatives);
-                        }
-                        updatePerformanceMetadata(topic, precision, recall, positiveSupport, negativeSupport,
-                            falsePositiveExamples, falseNegativeExamples);
-                        updated += 1;
+        final float precision;
+
+        final float recall;
+
+        final int positiveSupport;
+
+        final int negativeSupport;
+
+        final List<String> falsePositiveExamples;
+
+        final List<String> falseNegativeExamples;
+
+        FoldResult(float precision,
+                   float recall,
+                   int positiveSupport,
+                   int negativeSupport,
+                   List<String> falsePositiveExamples,
+                   List<String> falseNegativeExamples) {
+            this.precision = precision;
+            this.recall = recall;
+            this.positiveSupport = positiveSupport;
+            this.negativeSupport = negativeSupport;
+            this.falsePositiveExamples = falsePositiveExamples;
+            this.falseNegativeExamples = falseNegativeExamples;
+        }
+    }
+
+    /**
+     * The state of a running cross validation. As folds are processed concurrently the results of the
+     * folds are collected for each topic and the metadata entry of a topic is updated only once (after all
+     * folds have evaluated the topic). This avoids concurrent updates of the same entry.
+     */
+    protected final class CrossValidation {
+
+        final int foldCount;
+
+        /**
+         * The number of folds processed concurrently
+         */
+        final int foldThreads;
+
+        /**
+         * Evaluates topics in addition to the fold threads or <code>null</code> if the thread budget is
+         * used up by the fold threads
+         */
+        final ExecutorService topicExecutor;
+
+        final Date startDate = new Date();
+
+        /**
+         * The topics (and their broader concepts) evaluated by all folds. Read once at the start of the
+         * evaluation so that all folds evaluate the same topics.
+         */
+        volatile Map<String,List<String>> topics = Collections.emptyMap();
+
+        final AtomicInteger completedFolds = new AtomicInteger();
+
+        final AtomicInteger evaluatedTopics = new AtomicInteger();
+
+        /**
+         * The results of topics not yet evaluated by all folds
+         */
+        private final Map<String,List<FoldResult>> pending = new HashMap<String,List<FoldResult>>();
+
+        CrossValidation(int foldCount, int threads) {
+            this.foldCount = foldCount;
+            this.foldThreads = Math.min(foldCount, threads);
+            this.topicExecutor = threads > foldThreads ? Executors.newFixedThreadPool(threads - foldThreads,
+                new EvaluationThreadFactory(engineName + " CV topic")) : null;
+        }
+
+        /**
+         * Adds the result of a fold for the parsed topic. Updates the performance metadata of the topic if
+         * this was the last missing fold.
+         * 
+         * @param result the result or <code>null</code> if the topic was skipped
+         * @return <code>1</code> if the performance metadata of the topic were updated, otherwise
+         *         <code>0</code>
+         */
+        int addResult(String topic, FoldResult result) throws ClassifierException {
+            try {
+                List<FoldResult> results;
+                synchronized (pending) {
+                    results = pending.get(topic);
+                    if (results == null) {
+                        results = new ArrayList<FoldResult>(foldCount);
+                        pending.put(topic, results);
+                    }
+                    results.add(result);
+                    if (results.size() < foldCount) {
+                        return 0; // wait for the other folds
                     }
+                    pending.remove(topic);
                 }
-                try {
-                    getActiveSolrServer().commit();
-                } catch (Exception e) {
-                    throw new ClassifierException(e);
+                List<Float> precisions = new ArrayList<Float>(foldCount);
+                List<Float> recalls = new ArrayList<Float>(foldCount);
+                int positiveSupport = 0;
+                int negativeSupport = 0;
+                List<String> falsePositiveExamples = new ArrayList<String>();
+                List<String> falseNegativeExamples = new ArrayList<String>();
+                for (FoldResult foldResult : results) {
+                    if (foldResult != null) {
+                        precisions.add(foldResult.precision);
+                        recalls.add(foldResult.recall);
+                        positiveSupport += foldResult.positiveSupport;
+                        negativeSupport += foldResult.negativeSupport;
+                        falsePositiveExamples.addAll(foldResult.falsePositiveExamples);
+                        falseNegativeExamples.addAll(foldResult.falseNegativeExamples);
+                    }
                 }
-                return updated;
+                if (precisions.isEmpty()) {
+                    return 0; // skipped by all folds
+                }
+                updatePerformanceMetadata(topic, precisions, recalls, positiveSupport, negativeSupport,
+                    falsePositiveExamples, falseNegativeExamples);
+                return 1;
+            } finally {
+                evaluatedTopics.incrementAndGet();
             }
-        });
+        }
 
-        long stop = System.currentTimeMillis();
-        log.info(String.format("Finished CV iteration %d/%d on classifier %s in %fs.", cvFoldIndex + 1,
-            cvFoldCount, engineName, (stop - start) / 1000.0));
-        if (context != null) {
-            // close open trackers
-            classifier.deactivate(context);
+        /**
+         * @return the number of topics not yet evaluated by all folds
+         */
+        int getPendingCount() {
+            synchronized (pending) {
+                return pending.size();
+            }
+        }
+
+        EvaluationProgress getProgress() {
+            return new EvaluationProgress(foldCount, completedFolds.get(), topics.size(),
+                    evaluatedTopics.get(), startDate);
+        }
+
+        void close() {
+            if (topicExecutor != null) {
+                topicExecutor.shutdownNow();
+            }
         }
-        return updatedTopics;
     }
 
     /**
-     * Update the performance statistics in a metadata entry of a topic. It is the responsibility of the
-     * caller to commit.
+     * Creates named daemon threads for the model evaluation
+     */
+    private static final class EvaluationThreadFactory implements ThreadFactory {
+
+        private final String name;
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        EvaluationThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, name + " evaluation thread " + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Update the performance statistics in a metadata entry of a topic with the results of a single fold.
+     * It is the responsibility of the caller to commit.
      */
     protected void updatePerformanceMetadata(String conceptId,
                                              float precision,
@@ -1363,6 +1789,21 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
                                              int negativeSupport,
                                              List<String> falsePositiveExamples,
                                              List<String> falseNegativeExamples) throws ClassifierException {
+        updatePerformanceMetadata(conceptId, Collections.singleton(precision), Collections.singleton(recall),
+            positiveSupport, negativeSupport, falsePositiveExamples, falseNegativeExamples);
+    }
+
+    /**
+     * Update the performance statistics in a metadata entry of a topic. It is the responsibility of the
+     * caller to commit.
+     */
+    protected void updatePerformanceMetadata(String conceptId,
+                                             Collection<Float> precision,
+                                             Collection<Float> recall,
+                                             int positiveSupport,
+                                             int negativeSupport,
+                                             List<String> falsePositiveExamples,
+                                             List<String> falseNegativeExamples) throws ClassifierException {
         SolrServer solrServer = getActiveSolrServer();
         try {
             SolrQuery query = new SolrQuery("*:*");
@@ -1388,7 +1829,7 @@ public class TopicClassificationEngine extends ConfiguredSolrCoreTracker impleme
                 newEntry.setField(modelEvaluationDateField, UTCTimeStamper.nowUtcDate());
                 solrServer.add(newEntry);
             }
-            log.info(String.format("Performance for concept '%s': precision=%f, recall=%f,"
+            log.info(String.format("Performance for concept '%s': precision=%s, recall=%s,"
                                    + " positiveSupport=%d, negativeSupport=%d", conceptId, precision, recall,
                 positiveSupport, negativeSupport));
         } catch (Exception e) {
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.enhancer.engine.topic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.stanbol.enhancer.topic.training.SolrTrainingSet;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reports the throughput of {@link TopicClassificationEngine#suggestTopics(String)}
+ * for a small trained model. Only executed with the <code>benchmark</code>
+ * profile (<code>mvn test -P benchmark</code>).
+ */
+public class TopicEngineBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(TopicEngineBenchmark.class);
+
+    private static final int ITERATIONS = 200;
+
+    /**
+     * Used to setup the embedded Solr servers, the classifier and the training set
+     */
+    private TopicEngineTest test;
+
+    @BeforeClass
+    public static void initTestFolder() throws IOException {
+        TopicEngineTest.initTestFolder();
+    }
+
+    @AfterClass
+    public static void cleanup(){
+        TopicEngineTest.cleanup();
+    }
+
+    @Before
+    public void setup() throws Exception {
+        test = new TopicEngineTest();
+        test.setup();
+    }
+
+    @After
+    public void cleanupEmbeddedSolrServer() {
+        test.cleanupEmbeddedSolrServer();
+    }
+
+    @Test
+    public void benchmarkSuggestTopics() throws Exception {
+        TopicClassificationEngine classifier = test.classifier;
+        SolrTrainingSet trainingSet = test.trainingSet;
+        String technology = "urn:topics/technology";
+        String apple = "urn:topics/apple";
+        String sport = "urn:topics/sport";
+        String football = "urn:topics/football";
+        String worldcup = "urn:topics/worldcup";
+        classifier.addConcept(technology, null);
+        classifier.addConcept(sport, null);
+        classifier.addConcept(apple, Arrays.asList(technology));
+        classifier.addConcept(football, Arrays.asList(sport));
+        classifier.addConcept(worldcup, Arrays.asList(football));
+        classifier.setTrainingSet(trainingSet);
+
+        String STOP_WORDS = " the a is are be in at ";
+        trainingSet.registerExample(null, "Apple's iPad is a small handheld computer with a touch screen UI"
+                                          + STOP_WORDS, Arrays.asList(apple, technology));
+        trainingSet.registerExample(null, "Manchester United won 3-2 against FC Barcelona." + STOP_WORDS,
+            Arrays.asList(football));
+        trainingSet.registerExample(null, "The 2012 Football Worldcup takes place in Brazil." + STOP_WORDS,
+            Arrays.asList(football, worldcup));
+        assertEquals(5, classifier.updateModel(true));
+
+        String text = "You can watch the worldcup on your iPad.";
+        assertFalse(classifier.suggestTopics(text).isEmpty()); //warm up
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            classifier.suggestTopics(text);
+        }
+        long duration = Math.max(1, (System.nanoTime() - start) / 1000000);
+        log.info(String.format("suggested topics for %d texts in %dms (%.1f suggestions/sec)", ITERATIONS,
+            duration, ITERATIONS * 1000d / duration));
+    }
+}
@@ -28,11 +28,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.TreeMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.clerezza.rdf.core.Graph;
 import org.apache.clerezza.rdf.core.serializedform.Parser;
@@ -48,6 +51,8 @@ import org.apache.solr.client.solrj.embedded.EmbeddedSolrServer;
 import org.apache.solr.client.solrj.response.QueryResponse;
 import org.apache.solr.common.params.CommonParams;
 import org.apache.stanbol.commons.solr.utils.StreamQueryRequest;
+import org.apache.stanbol.enhancer.engine.topic.TopicClassificationEngine.CrossValidation;
+import org.apache.stanbol.enhancer.engine.topic.TopicClassificationEngine.FoldResult;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
 import org.apache.stanbol.enhancer.servicesapi.rdf.OntologicalClasses;
 import org.apache.stanbol.enhancer.servicesapi.rdf.Properties;
@@ -490,7 +495,11 @@ public class TopicEngineTest extends EmbeddedSolrHelper {
         }
 
         // launch an evaluation of the classifier according to the current state of the training set
+        assertNull(classifier.getEvaluationProgress());
         assertEquals(numberOfTopics, classifier.updatePerformanceEstimates(true));
+        // the progress is only available while the evaluation is running
+        assertNull(classifier.getEvaluationProgress());
+        assertFalse(classifier.isEvaluationRunning());
         for (int i = 1; i <= numberOfTopics; i++) {
             String topic = String.format("urn:t/%03d", i);
             performanceEstimates = classifier.getPerformanceEstimates(topic);
@@ -516,6 +525,146 @@ public class TopicEngineTest extends EmbeddedSolrHelper {
         // TODO: test model invalidation by registering a sub topic manually
     }
 
+    @Test
+    public void testCrossValidationConfiguration() throws Exception {
+        Hashtable<String,Object> config = getDefaultClassifierConfigParams();
+        config.put(TopicClassificationEngine.CV_FOLD_COUNT, "5");
+        config.put(TopicClassificationEngine.EVALUATION_THREADS, 2);
+        TopicClassificationEngine engine = TopicClassificationEngine.fromParameters(config);
+        assertEquals(5, engine.evaluationFoldCount);
+        assertEquals(2, engine.evaluationThreads);
+
+        config.put(TopicClassificationEngine.CV_FOLD_COUNT, 1);
+        try {
+            TopicClassificationEngine.fromParameters(config);
+            fail("Should have raised a ConfigurationException for a single fold");
+        } catch (ConfigurationException e) {
+            // expected
+        }
+        config.put(TopicClassificationEngine.CV_FOLD_COUNT, 3);
+        config.put(TopicClassificationEngine.EVALUATION_THREADS, "0");
+        try {
+            TopicClassificationEngine.fromParameters(config);
+            fail("Should have raised a ConfigurationException for zero evaluation threads");
+        } catch (ConfigurationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testCrossValidationThreadBudget() throws Exception {
+        // the remaining threads evaluate topics
+        CrossValidation cv = classifier.new CrossValidation(3, 4);
+        try {
+            assertEquals(3, cv.foldThreads);
+            assertNotNull(cv.topicExecutor);
+            assertEquals(1, ((ThreadPoolExecutor) cv.topicExecutor).getMaximumPoolSize());
+        } finally {
+            cv.close();
+        }
+        // the fold threads evaluate the topics themselves
+        cv = classifier.new CrossValidation(3, 2);
+        try {
+            assertEquals(2, cv.foldThreads);
+            assertNull(cv.topicExecutor);
+        } finally {
+            cv.close();
+        }
+    }
+
+    @Test
+    public void testCrossValidationResults() throws Exception {
+        classifier.addConcept("urn:t/001", null);
+        classifier.addConcept("urn:t/002", null);
+        CrossValidation cv = classifier.new CrossValidation(2, 1);
+        try {
+            // the metadata are only updated after all folds have evaluated a topic
+            assertEquals(0, cv.addResult("urn:t/001", new FoldResult(0.5f, 0.6f, 10, 20,
+                    Arrays.asList("ex1"), Collections.<String> emptyList())));
+            assertEquals(1, cv.getPendingCount());
+            classifier.getActiveSolrServer().commit();
+            assertFalse(classifier.getPerformanceEstimates("urn:t/001").uptodate);
+
+            // topics skipped by all folds are not updated
+            assertEquals(0, cv.addResult("urn:t/002", null));
+            assertEquals(0, cv.addResult("urn:t/002", null));
+
+            assertEquals(1, cv.addResult("urn:t/001", new FoldResult(0.7f, 0.8f, 12, 22,
+                    Collections.<String> emptyList(), Arrays.asList("ex2"))));
+            assertEquals(0, cv.getPendingCount());
+            assertEquals(4, cv.getProgress().evaluatedTopics);
+        } finally {
+            cv.close();
+        }
+        classifier.getActiveSolrServer().commit();
+        ClassificationReport performanceEstimates = classifier.getPerformanceEstimates("urn:t/001");
+        assertTrue(performanceEstimates.uptodate);
+        assertEquals(0.6f, performanceEstimates.precision, 0.01);
+        assertEquals(0.7f, performanceEstimates.recall, 0.01);
+        assertEquals(22, performanceEstimates.positiveSupport);
+        assertEquals(42, performanceEstimates.negativeSupport);
+        assertEquals(Arrays.asList("ex1"), performanceEstimates.falsePositiveExampleIds);
+        assertEquals(Arrays.asList("ex2"), performanceEstimates.falseNegativeExampleIds);
+        assertFalse(classifier.getPerformanceEstimates("urn:t/002").uptodate);
+    }
+
+    /**
+     * Concepts added or removed while the evaluation is running MUST NOT prevent the other folds from
+     * completing the evaluation of a topic. Also checks that the thread budget is honoured.
+     */
+    @Test
+    public void testCrossValidationWithConcurrentModelChanges() throws Exception {
+        log.info(" --- testCrossValidationWithConcurrentModelChanges --- ");
+        final String evaluationThreadPrefix = "test-engine CV";
+        final List<CrossValidation> evaluations = Collections.synchronizedList(new ArrayList<CrossValidation>());
+        final AtomicInteger maxThreads = new AtomicInteger();
+        Hashtable<String,Object> config = getDefaultClassifierConfigParams();
+        config.put(TopicClassificationEngine.CV_FOLD_COUNT, 2);
+        config.put(TopicClassificationEngine.EVALUATION_THREADS, 3);
+        TopicClassificationEngine engine = new TopicClassificationEngine() {
+            @Override
+            protected int performCVFold(CrossValidation cv, int cvFoldIndex) throws ConfigurationException,
+                                                                           TrainingSetException,
+                                                                           ClassifierException {
+                evaluations.add(cv);
+                if (cvFoldIndex == 0) {
+                    removeConcept("urn:t/001");
+                    addConcept("urn:t/new", null);
+                }
+                int updated = super.performCVFold(cv, cvFoldIndex);
+                int threads = 0;
+                for (Thread thread : Thread.getAllStackTraces().keySet()) {
+                    if (thread.getName().startsWith(evaluationThreadPrefix)) {
+                        threads++;
+                    }
+                }
+                synchronized (maxThreads) {
+                    maxThreads.set(Math.max(maxThreads.get(), threads));
+                }
+                return updated;
+            }
+        };
+        engine.configure(config);
+        engine.configureEmbeddedSolrServerDir(solrHome);
+        classifier.deactivate(null);
+        classifier = engine;
+
+        int numberOfTopics = 10;
+        initArtificialTrainingSet(numberOfTopics, 100, 20, 30, new Random(0));
+        // all topics of the snapshot are evaluated by all folds (including the removed one)
+        assertEquals(numberOfTopics, classifier.updatePerformanceEstimates(true));
+        assertEquals(2, evaluations.size());
+        assertEquals(numberOfTopics, evaluations.get(0).getProgress().topicCount);
+        assertEquals(0, evaluations.get(0).getPendingCount());
+        assertEquals(2 * numberOfTopics, evaluations.get(0).getProgress().evaluatedTopics);
+        assertTrue("used " + maxThreads.get() + " evaluation threads", maxThreads.get() <= 3);
+
+        assertFalse(classifier.getPerformanceEstimates("urn:t/new").uptodate);
+        for (int i = 2; i <= numberOfTopics; i++) {
+            assertTrue(classifier.getPerformanceEstimates(String.format("urn:t/%03d", i)).uptodate);
+        }
+    }
+
     protected void assertGreater(float large, float small) {
         if (small > large) {
             throw new AssertionError(String.format("Expected %f to be greater than %f.", large, small));
@@ -50,6 +50,7 @@ import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
 import org.apache.stanbol.enhancer.servicesapi.rdf.OntologicalClasses;
 import org.apache.stanbol.enhancer.servicesapi.rdf.Properties;
 import org.apache.stanbol.enhancer.topic.api.ClassifierException;
+import org.apache.stanbol.enhancer.topic.api.EvaluationProgress;
 import org.apache.stanbol.enhancer.topic.api.TopicClassifier;
 import org.apache.stanbol.enhancer.topic.api.training.TrainingSet;
 import org.apache.stanbol.enhancer.topic.api.training.TrainingSetException;
@@ -144,7 +145,23 @@ public final class TopicModelResource extends BaseStanbolResource {
             return res.build();
         }
 
-        // TODO: make it possible to fetch performance reports and evaluation running state using the GET verb
+        // TODO: make it possible to fetch performance reports using the GET verb
+        @GET
+        @Path("performance")
+        @Produces(MediaType.TEXT_PLAIN)
+        public Response getPerformanceProgress(@Context HttpHeaders headers) {
+            EvaluationProgress progress = classifier.getEvaluationProgress();
+            ResponseBuilder rb;
+            if (progress == null) {
+                rb = Response.ok(String.format("No evaluation running for classifier %s.\n",
+                    classifier.getName()));
+            } else {
+                rb = Response.ok(String.format("Evaluation of classifier %s running: %s.\n",
+                    classifier.getName(), progress));
+            }
+            return rb.build();
+        }
+
         @POST
         @Path("performance")
         @Consumes(MediaType.WILDCARD)
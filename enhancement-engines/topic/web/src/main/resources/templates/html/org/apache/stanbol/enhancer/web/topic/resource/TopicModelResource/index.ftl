@@ -31,6 +31,11 @@
 <em>There are no registered concepts in this model.</em>
 </#if>
 
+<#if it.classifier.evaluationProgress??>
+<h3>Model evaluation</h3>
+<p>${it.classifier.evaluationProgress}</p>
+</#if>
+
 </div>
 </@common.page>
 </#escape>
\ No newline at end of file
@@ -0,0 +1,118 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.nlp.model.impl.columnar;
+
+import java.util.Iterator;
+
+import org.apache.stanbol.enhancer.nlp.model.AnalysedText;
+import org.apache.stanbol.enhancer.nlp.model.Chunk;
+import org.apache.stanbol.enhancer.nlp.model.Sentence;
+import org.apache.stanbol.enhancer.nlp.model.SpanTypeEnum;
+import org.apache.stanbol.enhancer.servicesapi.Blob;
+
+/**
+ * {@link AnalysedText} implementation that stores all spans in a
+ * {@link SpanStore}. {@link Sentence}s, {@link Chunk}s and
+ * {@link org.apache.stanbol.enhancer.nlp.model.Token}s returned by this
+ * implementation are flyweights that are created on demand.
+ */
+public class ColumnarAnalysedText extends ColumnarSection implements AnalysedText {
+
+    /**
+     * The id used for the text itself
+     */
+    private static final int TEXT_ID = 0;
+
+    private final Blob blob;
+    /**
+     * The analysed text
+     */
+    private final String text;
+
+    final SpanStore store;
+
+    public ColumnarAnalysedText(Blob blob, String text){
+        super(TEXT_ID);
+        this.blob = blob;
+        this.text = text;
+        this.store = new SpanStore();
+        int id = store.create(SpanTypeEnum.Text, 0, text.length());
+        assert id == TEXT_ID;
+    }
+
+    @Override
+    public SpanTypeEnum getType() {
+        return SpanTypeEnum.Text;
+    }
+
+    @Override
+    public Sentence addSentence(int start, int end) {
+        return new ColumnarSentence(this, register(SpanTypeEnum.Sentence, start, end));
+    }
+
+    @Override
+    public Iterator<Sentence> getSentences() {
+        return getIterator(1 << SpanTypeEnum.Sentence.ordinal());
+    }
+
+    @Override
+    public Chunk addChunk(int start, int end) {
+        return new ColumnarChunk(this, register(SpanTypeEnum.Chunk, start, end));
+    }
+
+    @Override
+    public Iterator<Chunk> getChunks() {
+        return getIterator(1 << SpanTypeEnum.Chunk.ordinal());
+    }
+
+    @Override
+    public CharSequence getText() {
+        return text;
+    }
+
+    @Override
+    public String getSpan() {
+        return text;
+    }
+
+    @Override
+    public Blob getBlob() {
+        return blob;
+    }
+    /**
+     * Creates the flyweight for the span with the parsed id
+     * @param id the id
+     * @return the span
+     */
+    ColumnarSpan createSpan(int id){
+        switch (store.getType(id)) {
+            case Token:
+                return new ColumnarToken(this, id);
+            case Chunk:
+                return new ColumnarChunk(this, id);
+            case Sentence:
+                return new ColumnarSentence(this, id);
+            case Text:
+                if(id == TEXT_ID){
+                    return this;
+                } //else not supported
+            default:
+                throw new IllegalStateException("Unsupported SpanType "
+                    + store.getType(id) + " (id: " + id + ")!");
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.nlp.model.impl.columnar;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.stanbol.enhancer.nlp.model.Section;
+import org.apache.stanbol.enhancer.nlp.model.Span;
+import org.apache.stanbol.enhancer.nlp.model.SpanTypeEnum;
+import org.apache.stanbol.enhancer.nlp.model.Token;
+
+/**
+ * A {@link ColumnarSpan} that contains other spans
+ */
+public abstract class ColumnarSection extends ColumnarSpan implements Section {
+
+    protected ColumnarSection(ColumnarAnalysedText context, int id) {
+        super(context, id);
+    }
+
+    ColumnarSection(int id) {
+        super(id);
+    }
+
+    @Override
+    public Iterator<Span> getEnclosed(Set<SpanTypeEnum> types) {
+        int mask = 0;
+        for(SpanTypeEnum type : types){
+            mask = mask | (1 << type.ordinal());
+        }
+        return getIterator(mask);
+    }
+
+    /**
+     * Adds a Token <b>relative</b> to the current Span. Negative values for
+     * start and end are allowed (e.g. to add a Token that starts some
+     * characters before this one.
+     * @param start the start relative to this Span
+     * @param end the end relative to this span
+     * @return the created and added token
+     */
+    @Override
+    public Token addToken(int start, int end) {
+        return new ColumnarToken(context, register(SpanTypeEnum.Token, start, end));
+    }
+
+    @Override
+    public Iterator<Token> getTokens() {
+        return getIterator(1 << SpanTypeEnum.Token.ordinal());
+    }
+
+    /**
+     * Registers a span relative to this one with the {@link SpanStore}. If
+     * the span already exists the id of the existing one is returned.
+     * @param type the type
+     * @param start the start relative to this span
+     * @param end the end relative to this span
+     * @return the id of the span
+     * @throws IllegalArgumentException if the span is illegal or if it
+     * would extend this span.
+     */
+    protected int register(SpanTypeEnum type, int start, int end){
+        int offset = getStart();
+        int absStart = offset + start;
+        int absEnd = offset + end;
+        if(absStart < 0 || absEnd < absStart){
+            throw new IllegalArgumentException("Illegal span ["+absStart+','+absEnd+']');
+        }
+        if(getEnd() < absEnd){
+            throw new IllegalArgumentException("Illegal span ["+start+','+end
+                + "] for "+type+" relative to "+this+" : Span of the "
+                + " contained Token MUST NOT extend the others!");
+        }
+        return store().add(type, absStart, absEnd);
+    }
+
+    /**
+     * Iterator over the enclosed spans with a type included in the parsed
+     * bit mask (<code>1 &lt;&lt; {@link SpanTypeEnum#ordinal()}</code>).<p>
+     * Iterators do not throw {@link ConcurrentModificationException}s but
+     * consider additions to the {@link SpanStore}. As long as spans are
+     * only appended the iterator just increments its position. Otherwise it
+     * uses a binary search to re-locate the last returned span.
+     * @param mask the bit mask with the included types
+     * @return the iterator
+     */
+    @SuppressWarnings("unchecked")
+    protected <T extends Span> Iterator<T> getIterator(final int mask){
+        final SpanStore store = store();
+        final int sectionEnd = getEnd();
+        return new Iterator<T>() {
+            /*
+             * the start, end and type of the last returned span (or this
+             * section). Used to re-locate the position on modifications
+             */
+            private int start = getStart();
+            private int end = sectionEnd;
+            private int type = store.getTypeOrdinal(id);
+            private int current = -1;
+            /**
+             * the position of the last returned span (or the position before
+             * the first enclosed span)
+             */
+            private int pos = store.higher(start, end, type) - 1;
+            private int modCount = store.getModCount();
+            /**
+             * The position of the next span or <code>-1</code> if not yet
+             * calculated
+             */
+            private int next = -1;
+
+            @Override
+            public boolean hasNext() {
+                return getNext() >= 0;
+            }
+
+            private int getNext(){
+                if(modCount != store.getModCount()){
+                    pos = store.higher(start, end, type) - 1;
+                    modCount = store.getModCount();
+                    next = -1;
+                }
+                if(next < 0){
+                    for(int p = pos + 1; p < store.size(); p++){
+                        int spanId = store.getId(p);
+                        if(store.getStart(spanId) >= sectionEnd){
+                            return -1;
+                        }
+                        if((mask & (1 << store.getTypeOrdinal(spanId))) != 0){
+                            next = p;
+                            break;
+                        }
+                    }
+                }
+                return next;
+            }
+
+            @Override
+            public T next() {
+                int p = getNext();
+                if(p < 0){
+                    throw new NoSuchElementException();
+                }
+                pos = p;
+                next = -1;
+                current = store.getId(p);
+                start = store.getStart(current);
+                end = store.getEnd(current);
+                type = store.getTypeOrdinal(current);
+                return (T)context.createSpan(current);
+            }
+
+            @Override
+            public void remove() {
+                if(current < 0){
+                    throw new IllegalStateException("the current Span was already removed "
+                        + "or next() was not yet called!");
+                }
+                store.remove(current);
+                current = -1;
+            }
+        };
+    }
+}
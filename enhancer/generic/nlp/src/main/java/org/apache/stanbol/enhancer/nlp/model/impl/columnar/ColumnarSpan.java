@@ -0,0 +1,263 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.nlp.model.impl.columnar;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.stanbol.enhancer.nlp.model.Span;
+import org.apache.stanbol.enhancer.nlp.model.SpanTypeEnum;
+import org.apache.stanbol.enhancer.nlp.model.annotation.Annotation;
+import org.apache.stanbol.enhancer.nlp.model.annotation.Value;
+
+/**
+ * Flyweight {@link Span} implementation. Instances only hold the
+ * {@link ColumnarAnalysedText context} and the id of the span. All the data
+ * (start, end, type and annotations) are stored in the {@link SpanStore} of
+ * the context. Because of that multiple instances may exist for the same
+ * span. They are {@link #equals(Object) equal} and share the same
+ * annotations.
+ */
+public abstract class ColumnarSpan implements Span {
+
+    protected final ColumnarAnalysedText context;
+
+    protected final int id;
+
+    protected ColumnarSpan(ColumnarAnalysedText context, int id){
+        this.context = context;
+        this.id = id;
+    }
+    /**
+     * Only intended to be used by the {@link ColumnarAnalysedText} as the
+     * context can not be parsed to the constructor
+     */
+    ColumnarSpan(int id){
+        this.context = (ColumnarAnalysedText)this;
+        this.id = id;
+    }
+
+    /**
+     * The store of the context
+     */
+    protected final SpanStore store(){
+        return context.store;
+    }
+
+    @Override
+    public SpanTypeEnum getType(){
+        return store().getType(id);
+    }
+
+    @Override
+    public int getStart(){
+        return store().getStart(id);
+    }
+
+    @Override
+    public int getEnd(){
+        return store().getEnd(id);
+    }
+
+    @Override
+    public final ColumnarAnalysedText getContext() {
+        return context;
+    }
+
+    @Override
+    public String getSpan(){
+        return context.getText().subSequence(getStart(), getEnd()).toString();
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 + getStart()) + getEnd();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if(obj == this){
+            return true;
+        }
+        if(obj instanceof ColumnarSpan){
+            ColumnarSpan other = (ColumnarSpan)obj;
+            return getType() == other.getType() && getStart() == other.getStart() &&
+                    getEnd() == other.getEnd();
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: [%d, %d]", getType(), getStart(), getEnd());
+    }
+
+    @Override
+    public int compareTo(Span o) {
+        int start = getStart();
+        int end = getEnd();
+        int c = (start < o.getStart()) ? -1 : ((start == o.getStart()) ? 0 : 1);
+        if(c == 0){
+            //sort end in DESC order
+            c = (end < o.getEnd()) ? 1 : ((end == o.getEnd()) ? 0 : -1);
+            if(c == 0){
+                //Natural order of span types is defined by the Enum.ordinal()
+                int o1 = getType().ordinal();
+                int o2 = o.getType().ordinal();
+                c = (o1 < o2) ? -1 : ((o1 == o2) ? 0 : 1);
+            }
+        }
+        return c;
+    }
+
+    /*
+     * Annotated implementation based on the annotation columns of the store
+     */
+
+    @Override
+    public Set<String> getKeys() {
+        return store().getKeys(id);
+    }
+
+    @Override
+    public final Value<?> getValue(String key) {
+        return getFirst(store().getAnnotation(id, key));
+    }
+
+    @Override
+    public final List<Value<?>> getValues(String key) {
+        return asList(store().getAnnotation(id, key));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final <V> Value<V> getAnnotation(Annotation<V> annotation) {
+        return (Value<V>)getFirst(store().getAnnotation(id, annotation.getKey()));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final <V> List<Value<V>> getAnnotations(Annotation<V> annotation) {
+        List<?> values = asList(store().getAnnotation(id, annotation.getKey()));
+        return (List<Value<V>>)values;
+    }
+
+    @Override
+    public <V> void addAnnotation(Annotation<V> annotation, Value<V> value) {
+        addValue(annotation.getKey(), value);
+    }
+
+    @Override
+    public void addValue(String key, Value<?> value) {
+        if(value != null){
+            addValuesInternal(key, Collections.singletonList(value));
+        }
+    }
+
+    @Override
+    public <V> void addAnnotations(Annotation<V> annotation, List<Value<V>> values) {
+        addValuesInternal(annotation.getKey(), values);
+    }
+
+    @Override
+    public void addValues(String key, List<Value<?>> values) {
+        addValuesInternal(key, values);
+    }
+
+    @Override
+    public <V> void setAnnotation(Annotation<V> annotation, Value<V> value) {
+        setValue(annotation.getKey(), value);
+    }
+
+    @Override
+    public void setValue(String key, Value<?> value) {
+        store().setAnnotation(id, key, value);
+    }
+
+    @Override
+    public <V> void setAnnotations(Annotation<V> annotation, List<Value<V>> values) {
+        setValuesInternal(annotation.getKey(), values);
+    }
+
+    @Override
+    public void setValues(String key, List<Value<?>> values) {
+        setValuesInternal(key, values);
+    }
+
+    private void addValuesInternal(String key, List<?> values) {
+        if(values == null || values.isEmpty()){
+            return;
+        }
+        Object current = store().getAnnotation(id, key);
+        if(current == null && values.size() == 1){
+            store().setAnnotation(id, key, values.get(0));
+            return;
+        }
+        int length = current == null ? 0 : current instanceof Value<?> ? 1 :
+            ((Value<?>[])current).length;
+        Value<?>[] newValues = new Value<?>[length + values.size()];
+        if(current instanceof Value<?>){
+            newValues[0] = (Value<?>)current;
+        } else if(current != null){
+            System.arraycopy(current, 0, newValues, 0, length);
+        }
+        for(Object value : values){
+            newValues[length] = (Value<?>)value;
+            length++;
+        }
+        Arrays.sort(newValues, Value.PROBABILITY_COMPARATOR);
+        store().setAnnotation(id, key, newValues);
+    }
+
+    private void setValuesInternal(String key, List<?> values){
+        if(values == null || values.isEmpty()){
+            store().setAnnotation(id, key, null);
+        } else if(values.size() == 1){
+            store().setAnnotation(id, key, values.get(0));
+        } else {
+            //we need to copy, because users might change the parsed Array!
+            Value<?>[] copy = values.toArray(new Value<?>[values.size()]);
+            Arrays.sort(copy, Value.PROBABILITY_COMPARATOR);
+            store().setAnnotation(id, key, copy);
+        }
+    }
+
+    private static Value<?> getFirst(Object value){
+        if(value instanceof Value<?>){
+            return (Value<?>)value;
+        } else if(value != null){
+            return ((Value<?>[])value)[0];
+        } else {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Value<?>> asList(Object value){
+        if(value instanceof Value<?>){
+            List<?> singleton = Collections.singletonList((Value<?>)value);
+            return (List<Value<?>>)singleton;
+        } else if (value != null){
+            return Arrays.asList((Value<?>[])value);
+        } else {
+            return Collections.emptyList();
+        }
+    }
+}
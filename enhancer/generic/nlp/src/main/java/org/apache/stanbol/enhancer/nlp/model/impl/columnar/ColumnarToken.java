@@ -0,0 +1,37 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.nlp.model.impl.columnar;
+
+import org.apache.stanbol.enhancer.nlp.model.SpanTypeEnum;
+import org.apache.stanbol.enhancer.nlp.model.Token;
+
+public final class ColumnarToken extends ColumnarSpan implements Token {
+
+    protected ColumnarToken(ColumnarAnalysedText context, int id) {
+        super(context, id);
+    }
+
+    @Override
+    public SpanTypeEnum getType() {
+        return SpanTypeEnum.Token;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: [%d, %d] %s", getType(), getStart(), getEnd(), getSpan());
+    }
+}
@@ -0,0 +1,245 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.nlp.model.impl.columnar;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.apache.stanbol.enhancer.nlp.model.Span;
+import org.apache.stanbol.enhancer.nlp.model.SpanTypeEnum;
+
+/**
+ * Stores the spans of a {@link ColumnarAnalysedText} in parallel primitive
+ * arrays.<p>
+ * Every span is identified by an <code>int</code> id (the index within the
+ * {@link #starts}, {@link #ends} and {@link #types} arrays). The
+ * {@link #order} array holds the ids sorted by the natural order of
+ * {@link Span}s (start ASC, end DESC, type ASC). Annotations are stored in
+ * columns (one <code>Object[]</code> per annotation key indexed by the span
+ * id). Values are stored in the same way as by the
+ * {@link org.apache.stanbol.enhancer.nlp.model.impl.AnnotatedImpl}: a single
+ * Value or an array of Values sorted by probability.<p>
+ * Instances of this class are not thread safe.
+ */
+final class SpanStore {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final SpanTypeEnum[] TYPES = SpanTypeEnum.values();
+
+    private int[] starts = new int[INITIAL_CAPACITY];
+    private int[] ends = new int[INITIAL_CAPACITY];
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    /**
+     * The number of ids
+     */
+    private int size = 0;
+    /**
+     * The ids of the sorted spans
+     */
+    private int[] order = new int[INITIAL_CAPACITY];
+    /**
+     * The number of sorted spans
+     */
+    private int orderSize = 0;
+    /**
+     * Incremented if the position of spans within the {@link #order} changes
+     * (insertions before the end and removals). Used by iterators to
+     * detect if cached positions are still valid.
+     */
+    private int modCount = 0;
+    /**
+     * The annotation columns
+     */
+    private final Map<String,Object[]> columns = new HashMap<String,Object[]>();
+
+    /**
+     * Creates a new span that is not part of the {@link #order}. Used for
+     * the {@link SpanTypeEnum#Text}.
+     * @return the id
+     */
+    int create(SpanTypeEnum type, int start, int end){
+        if(size == starts.length){
+            int capacity = size * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            types = Arrays.copyOf(types, capacity);
+        }
+        int id = size;
+        starts[id] = start;
+        ends[id] = end;
+        types[id] = (byte)type.ordinal();
+        size++;
+        return id;
+    }
+    /**
+     * Adds a span. If a span with the same type, start and end is already
+     * present the id of the existing span is returned.
+     * @return the id of the added (or existing) span
+     */
+    int add(SpanTypeEnum type, int start, int end){
+        int pos = binarySearch(start, end, type.ordinal());
+        if(pos >= 0){
+            return order[pos];
+        }
+        pos = -(pos + 1);
+        int id = create(type, start, end);
+        if(orderSize == order.length){
+            order = Arrays.copyOf(order, orderSize * 2);
+        }
+        if(pos < orderSize){
+            System.arraycopy(order, pos, order, pos + 1, orderSize - pos);
+            modCount++;
+        } //else appended (the typical case) - no need to invalidate positions
+        order[pos] = id;
+        orderSize++;
+        return id;
+    }
+    /**
+     * Removes the span with the parsed id
+     * @return <code>true</code> if removed. <code>false</code> if the span
+     * was not present
+     */
+    boolean remove(int id){
+        int pos = binarySearch(starts[id], ends[id], types[id]);
+        if(pos < 0 || order[pos] != id){
+            return false;
+        }
+        System.arraycopy(order, pos + 1, order, pos, orderSize - pos - 1);
+        orderSize--;
+        modCount++;
+        for(Object[] column : columns.values()){
+            if(id < column.length){
+                column[id] = null;
+            }
+        }
+        return true;
+    }
+
+    int getStart(int id){
+        return starts[id];
+    }
+
+    int getEnd(int id){
+        return ends[id];
+    }
+
+    SpanTypeEnum getType(int id){
+        return TYPES[types[id]];
+    }
+
+    int getTypeOrdinal(int id){
+        return types[id];
+    }
+    /**
+     * The number of sorted spans
+     */
+    int size(){
+        return orderSize;
+    }
+    /**
+     * The id of the span at the parsed position of the sorted spans
+     */
+    int getId(int pos){
+        return order[pos];
+    }
+
+    int getModCount(){
+        return modCount;
+    }
+    /**
+     * The position of the first span that is greater than the parsed values
+     * @return the position (might be {@link #size()})
+     */
+    int higher(int start, int end, int type){
+        int pos = binarySearch(start, end, type);
+        return pos >= 0 ? pos + 1 : -(pos + 1);
+    }
+    /**
+     * Binary search over the sorted spans
+     * @return the position or <code>-(insertionPoint + 1)</code>
+     */
+    private int binarySearch(int start, int end, int type){
+        int low = 0;
+        int high = orderSize - 1;
+        while(low <= high){
+            int mid = (low + high) >>> 1;
+            int id = order[mid];
+            //start ASC, end DESC, type ASC
+            int c = starts[id] != start ? (starts[id] < start ? -1 : 1) :
+                ends[id] != end ? (ends[id] > end ? -1 : 1) :
+                    types[id] != type ? (types[id] < type ? -1 : 1) : 0;
+            if(c < 0){
+                low = mid + 1;
+            } else if(c > 0){
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /*
+     * Annotation columns
+     */
+
+    Object getAnnotation(int id, String key){
+        Object[] column = columns.get(key);
+        return column == null || id >= column.length ? null : column[id];
+    }
+
+    void setAnnotation(int id, String key, Object value){
+        Object[] column = columns.get(key);
+        if(column == null){
+            if(value == null){
+                return;
+            }
+            column = new Object[Math.max(starts.length, id + 1)];
+            columns.put(key, column);
+        } else if(id >= column.length){
+            if(value == null){
+                return;
+            }
+            column = Arrays.copyOf(column, Math.max(starts.length, id + 1));
+            columns.put(key, column);
+        }
+        column[id] = value;
+    }
+
+    Set<String> getKeys(int id){
+        Set<String> keys = null;
+        for(Entry<String,Object[]> column : columns.entrySet()){
+            if(id < column.getValue().length && column.getValue()[id] != null){
+                if(keys == null){
+                    keys = new HashSet<String>();
+                }
+                keys.add(column.getKey());
+            }
+        }
+        if(keys == null){
+            return Collections.emptySet();
+        } else {
+            return keys;
+        }
+    }
+}
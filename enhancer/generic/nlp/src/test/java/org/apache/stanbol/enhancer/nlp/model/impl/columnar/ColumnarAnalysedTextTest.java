@@ -0,0 +1,185 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.nlp.model.impl.columnar;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.stanbol.enhancer.nlp.model.AnalysedText;
+import org.apache.stanbol.enhancer.nlp.model.Chunk;
+import org.apache.stanbol.enhancer.nlp.model.Sentence;
+import org.apache.stanbol.enhancer.nlp.model.Span;
+import org.apache.stanbol.enhancer.nlp.model.SpanTypeEnum;
+import org.apache.stanbol.enhancer.nlp.model.Token;
+import org.apache.stanbol.enhancer.nlp.model.annotation.Annotation;
+import org.apache.stanbol.enhancer.nlp.model.annotation.Value;
+import org.apache.stanbol.enhancer.nlp.model.impl.AnalysedTextImpl;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests that the {@link ColumnarAnalysedText} behaves the same as the
+ * {@link AnalysedTextImpl}.
+ */
+public class ColumnarAnalysedTextTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ColumnarAnalysedTextTest.class);
+
+    private static final Annotation<String> POS_ANNOTATION =
+            new Annotation<String>("pos", String.class);
+
+    private static final String TEXT = "The Stanbol enhancer can detect famous " +
+            "cities such as Paris and people such as Bob Marley. With " +
+            "disambiguation it would even be able to detect the Comedian " +
+            "Bob Marley trafeling to Paris in Texas.";
+
+    @Test
+    public void testSpans(){
+        AnalysedText at = new ColumnarAnalysedText(null, TEXT);
+        Sentence sent = at.addSentence(0, TEXT.indexOf('.') + 1);
+        Token stanbol = sent.addToken(4, 11);
+        Assert.assertEquals("Stanbol", stanbol.getSpan());
+        Assert.assertEquals(stanbol, sent.addToken(4, 11)); //same span
+        Chunk chunk = sent.addChunk(4, 20);
+        Assert.assertEquals("Stanbol enhancer", chunk.getSpan());
+        Token enhancer = chunk.addToken(8, 16);
+        Assert.assertEquals("enhancer", enhancer.getSpan());
+        Iterator<Token> tokens = sent.getTokens();
+        Assert.assertEquals(stanbol, tokens.next());
+        Assert.assertEquals(enhancer, tokens.next());
+        Assert.assertFalse(tokens.hasNext());
+        Iterator<Span> spans = at.getEnclosed(EnumSet.allOf(SpanTypeEnum.class));
+        Assert.assertEquals(sent, spans.next());
+        Assert.assertEquals(chunk, spans.next());
+        Assert.assertEquals(stanbol, spans.next());
+        Assert.assertEquals(enhancer, spans.next());
+        Assert.assertFalse(spans.hasNext());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testExceedsRelativeSpan(){
+        AnalysedText at = new ColumnarAnalysedText(null, TEXT);
+        Sentence sent = at.addSentence(0, 10);
+        sent.addChunk(5, 15); //Invalid
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testRelativeNegativeStart(){
+        AnalysedText at = new ColumnarAnalysedText(null, TEXT);
+        Sentence sent = at.addSentence(0, 10);
+        sent.addToken(-1, 5);
+    }
+    /**
+     * Flyweights created for the same span need to share annotations
+     */
+    @Test
+    public void testAnnotations(){
+        AnalysedText at = new ColumnarAnalysedText(null, TEXT);
+        Token token = at.addToken(4, 11);
+        token.addAnnotation(POS_ANNOTATION, Value.value("NN", 0.6));
+        token.addAnnotation(POS_ANNOTATION, Value.value("NP", 0.9));
+        Token other = at.getTokens().next();
+        Assert.assertNotSame(token, other);
+        Assert.assertEquals("NP", other.getAnnotation(POS_ANNOTATION).value());
+        Assert.assertEquals(2, other.getAnnotations(POS_ANNOTATION).size());
+        Assert.assertTrue(other.getKeys().contains(POS_ANNOTATION.getKey()));
+        other.setAnnotation(POS_ANNOTATION, null);
+        Assert.assertNull(token.getAnnotation(POS_ANNOTATION));
+        Assert.assertTrue(token.getKeys().isEmpty());
+        Assert.assertNull(at.getAnnotation(POS_ANNOTATION));
+    }
+    /**
+     * Adds random Sentences, Chunks and Tokens to a {@link ColumnarAnalysedText}
+     * and an {@link AnalysedTextImpl} while iterating over sentences and
+     * validates that both return the same spans.
+     */
+    @Test
+    public void testCompareWithAnalysedTextImpl(){
+        StringBuilder sb = new StringBuilder();
+        while(sb.length() < 100000){
+            sb.append(TEXT).append(' ');
+        }
+        String text = sb.toString();
+        AnalysedText cat = new ColumnarAnalysedText(null, text);
+        AnalysedText at = new AnalysedTextImpl(null, text);
+        Random rnd = new Random(42);
+        int pos = 0;
+        while(pos < text.length()){
+            int end = Math.min(text.length(), pos + 20 + rnd.nextInt(200));
+            cat.addSentence(pos, end);
+            at.addSentence(pos, end);
+            pos = end;
+        }
+        Iterator<Sentence> cSentences = cat.getSentences();
+        Iterator<Sentence> sentences = at.getSentences();
+        while(sentences.hasNext()){
+            Assert.assertTrue(cSentences.hasNext());
+            Sentence cSent = cSentences.next();
+            Sentence sent = sentences.next();
+            assertSpanEquals(sent, cSent);
+            int length = sent.getEnd() - sent.getStart();
+            for(int i = 0; i < 10; i++){ //add tokens in random order
+                int start = rnd.nextInt(length);
+                int end = Math.min(length, start + 1 + rnd.nextInt(10));
+                assertSpanEquals(sent.addToken(start, end), cSent.addToken(start, end));
+                if(i % 3 == 0){
+                    assertSpanEquals(sent.addChunk(start, end), cSent.addChunk(start, end));
+                }
+            }
+        }
+        Assert.assertFalse(cSentences.hasNext());
+        long start = System.currentTimeMillis();
+        List<Span> expected = toList(at.getEnclosed(EnumSet.allOf(SpanTypeEnum.class)));
+        log.info("iterated over {} spans of {} in {}ms", new Object[]{
+                expected.size(), at.getClass().getSimpleName(), System.currentTimeMillis() - start});
+        start = System.currentTimeMillis();
+        List<Span> found = toList(cat.getEnclosed(EnumSet.allOf(SpanTypeEnum.class)));
+        log.info("iterated over {} spans of {} in {}ms", new Object[]{
+                found.size(), cat.getClass().getSimpleName(), System.currentTimeMillis() - start});
+        Assert.assertEquals(expected.size(), found.size());
+        for(int i = 0; i < expected.size(); i++){
+            assertSpanEquals(expected.get(i), found.get(i));
+        }
+        //remove all tokens by using the iterator
+        for(Iterator<Token> tokens = cat.getTokens(); tokens.hasNext();){
+            tokens.next();
+            tokens.remove();
+        }
+        Assert.assertFalse(cat.getTokens().hasNext());
+        Assert.assertTrue(cat.getChunks().hasNext());
+    }
+
+    private static List<Span> toList(Iterator<Span> it){
+        List<Span> list = new ArrayList<Span>();
+        while(it.hasNext()){
+            list.add(it.next());
+        }
+        return list;
+    }
+
+    private static void assertSpanEquals(Span expected, Span span){
+        Assert.assertEquals(expected.getType(), span.getType());
+        Assert.assertEquals(expected.getStart(), span.getStart());
+        Assert.assertEquals(expected.getEnd(), span.getEnd());
+        Assert.assertEquals(0, span.compareTo(expected));
+    }
+}
@@ -0,0 +1,50 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.servicesapi;
+
+/**
+ * An {@link EnhancementJobManager} that also accepts asynchronous enhancement
+ * requests. Implementations are expected to register themselves for both
+ * interfaces, so that users of the {@link EnhancementJobManager} service can
+ * check via <code>instanceof</code> if asynchronous requests are supported.
+ */
+public interface AsyncEnhancementJobManager extends EnhancementJobManager {
+
+    /**
+     * Asynchronously processes the parsed {@link ContentItem} by using the
+     * {@link Chain#getExecutionPlan() execution plan} provided by the
+     * {@link Chain}. This method returns as soon as the enhancement process
+     * is started. The parsed callback is notified about the completion or
+     * failure of the enhancement process.<p>
+     * If the enhancement process does not complete within the maximum
+     * processing time of the implementation the callback is notified about
+     * the failure and the enhancement job is cancelled. Engines that are
+     * already running will complete, but no further engines are executed.<p>
+     * Implementations that do not support asynchronous processing MAY
+     * enhance the parsed content item synchronously and notify the callback
+     * before returning.
+     * @param ci : ContentItem to be enhanced
+     * @param chain : The enhancement Chain used to process the content item
+     * @param callback : The callback notified when the enhancement process
+     * completes or fails
+     * @throws EnhancementException : if the enhancement process could not be
+     * started (e.g. because the execution plan of the parsed chain is not
+     * available)
+     */
+    void enhanceContent(ContentItem ci, Chain chain, EnhancementCallback callback) throws EnhancementException;
+
+}
@@ -0,0 +1,46 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.servicesapi;
+
+/**
+ * Callback used to notify the caller of
+ * {@link AsyncEnhancementJobManager#enhanceContent(ContentItem, Chain, EnhancementCallback)}
+ * about the completion of the asynchronous enhancement of a
+ * {@link ContentItem}.<p>
+ * Implementations are called by threads of the {@link AsyncEnhancementJobManager}
+ * and MUST NOT block for long periods. Exactly one of the two methods is
+ * called for an enhancement request.
+ */
+public interface EnhancementCallback {
+
+    /**
+     * Called after the parsed {@link ContentItem} was successfully enhanced.
+     * @param ci the enhanced content item
+     */
+    void completed(ContentItem ci);
+
+    /**
+     * Called if the enhancement of the parsed {@link ContentItem} failed
+     * or timed out.
+     * @param ci the content item
+     * @param e the cause. Typically an {@link EnhancementException} but
+     * also {@link RuntimeException}s such as {@link SecurityException}s are
+     * parsed as is.
+     */
+    void failed(ContentItem ci, Exception e);
+
+}
@@ -23,8 +23,10 @@ import static org.apache.stanbol.enhancer.jersey.utils.EnhancementPropertiesHelp
 import static org.apache.stanbol.enhancer.servicesapi.helper.EnhancementEngineHelper.randomUUID;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.io.UnsupportedEncodingException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
@@ -60,18 +62,24 @@ import org.apache.commons.fileupload.FileUpload;
 import org.apache.commons.fileupload.FileUploadException;
 import org.apache.commons.fileupload.RequestContext;
 import org.apache.commons.io.IOUtils;
+import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Reference;
+import org.apache.felix.scr.annotations.ReferenceCardinality;
+import org.apache.felix.scr.annotations.ReferencePolicy;
 import org.apache.felix.scr.annotations.Service;
 import org.apache.stanbol.commons.indexedgraph.IndexedMGraph;
 import org.apache.stanbol.enhancer.servicesapi.Blob;
 import org.apache.stanbol.enhancer.servicesapi.ContentItem;
 import org.apache.stanbol.enhancer.servicesapi.ContentItemFactory;
+import org.apache.stanbol.enhancer.servicesapi.ContentSource;
+import org.apache.stanbol.enhancer.servicesapi.impl.ByteArraySource;
 import org.apache.stanbol.enhancer.servicesapi.impl.StreamSource;
 import org.codehaus.jettison.json.JSONArray;
 import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
+import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -83,12 +91,38 @@ public class ContentItemReader implements MessageBodyReader<ContentItem> {
     
     
     private static Logger log = LoggerFactory.getLogger(ContentItemReader.class);
+    /**
+     * The maximum number of bytes of parsed content kept in memory. Larger
+     * contents are streamed to the {@link #getSpillContentItemFactory()}.
+     * Values &lt; 0 deactivate this feature.
+     */
+    @Property(intValue=ContentItemReader.DEFAULT_IN_MEMORY_THRESHOLD)
+    public static final String IN_MEMORY_THRESHOLD = "stanbol.enhancer.jersey.reader.inMemoryThreshold";
+    /**
+     * The default in-memory threshold (1MByte)
+     */
+    public static final int DEFAULT_IN_MEMORY_THRESHOLD = 1024 * 1024;
+    
     FileUpload fu = new FileUpload();
     @Reference
     private Parser parser;
 
     @Reference
     private ContentItemFactory ciFactory;
+    /**
+     * The ContentItemFactory used for contents exceeding the 
+     * {@link #IN_MEMORY_THRESHOLD}. Needs to stream parsed contents (e.g. 
+     * to temporary files) instead of loading them into memory.
+     */
+    @Reference(referenceInterface=ContentItemFactory.class,
+            target="(component.name=org.apache.stanbol.enhancer.contentitem.file.FileContentItemFactory)",
+            cardinality=ReferenceCardinality.OPTIONAL_UNARY,
+            policy=ReferencePolicy.DYNAMIC,
+            bind="bindSpillContentItemFactory",
+            unbind="unbindSpillContentItemFactory")
+    private ContentItemFactory spillCiFactory;
+    
+    private int inMemoryThreshold = DEFAULT_IN_MEMORY_THRESHOLD;
     
     /**
      * Used to read the queryParameter with the ContentItem ID
@@ -105,6 +139,52 @@ public class ContentItemReader implements MessageBodyReader<ContentItem> {
     protected ContentItemFactory getContentItemFactory(){
         return ciFactory;
     }
+    /**
+     * The ContentItemFactory used for contents that exceed the 
+     * {@link #getInMemoryThreshold() in-memory threshold}.
+     * @return the factory or <code>null</code> if not available. In this
+     * case all contents are parsed to the {@link #getContentItemFactory()}.
+     */
+    protected ContentItemFactory getSpillContentItemFactory(){
+        return spillCiFactory;
+    }
+    /**
+     * The maximum number of bytes of a parsed content kept in memory
+     * @return the threshold. Values &lt; 0 if deactivated
+     */
+    protected int getInMemoryThreshold(){
+        return inMemoryThreshold;
+    }
+    
+    protected void bindSpillContentItemFactory(ContentItemFactory factory){
+        this.spillCiFactory = factory;
+    }
+    
+    protected void unbindSpillContentItemFactory(ContentItemFactory factory){
+        if(factory == spillCiFactory){
+            this.spillCiFactory = null;
+        }
+    }
+    
+    @Activate
+    protected void activate(ComponentContext ctx){
+        Object value = ctx.getProperties().get(IN_MEMORY_THRESHOLD);
+        if(value instanceof Number){
+            inMemoryThreshold = ((Number)value).intValue();
+        } else if(value != null && !value.toString().trim().isEmpty()){
+            try {
+                inMemoryThreshold = Integer.parseInt(value.toString().trim());
+            } catch (NumberFormatException e) {
+                log.warn("Unable to parse {} from configured value '{}'! Use default {}",
+                    new Object[]{IN_MEMORY_THRESHOLD, value, DEFAULT_IN_MEMORY_THRESHOLD});
+                inMemoryThreshold = DEFAULT_IN_MEMORY_THRESHOLD;
+            }
+        } else {
+            inMemoryThreshold = DEFAULT_IN_MEMORY_THRESHOLD;
+        }
+        log.debug("activate {} (in-memory threshold: {})", getClass().getSimpleName(),
+            inMemoryThreshold);
+    }
     
     @Override
     public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
@@ -254,9 +334,8 @@ public class ContentItemReader implements MessageBodyReader<ContentItem> {
                 throw new WebApplicationException(e, Response.Status.BAD_REQUEST);
             }
         } else { //normal content
-            ContentItemFactory ciFactory = getContentItemFactory();
-            contentItem = ciFactory.createContentItem(contentItemId,
-                new StreamSource(entityStream, mediaType.toString()));
+            ParsedContent content = readContent(entityStream, mediaType.toString());
+            contentItem = content.factory.createContentItem(contentItemId, content.source);
             //add the URI of the main content
             parsedContentIds.add(contentItem.getPartUri(0).getUnicodeString());
         }
@@ -330,7 +409,6 @@ public class ContentItemReader implements MessageBodyReader<ContentItem> {
     private ContentItem createContentItem(UriRef id, MGraph metadata, FileItemStream content,Set<String> parsedContentParts) throws IOException, FileUploadException {
         MediaType partContentType = MediaType.valueOf(content.getContentType());
         ContentItem contentItem = null;
-        ContentItemFactory ciFactory = getContentItemFactory();
         if(MULTIPART.isCompatible(partContentType)){
             log.debug("  - multiple (alternate) ContentParts"); 
             //multiple contentParts are parsed
@@ -342,12 +420,12 @@ public class ContentItemReader implements MessageBodyReader<ContentItem> {
                 if(contentItem == null){
                     log.debug("  - create ContentItem {} for content (type:{})",
                         id,fis.getContentType());
-                    contentItem = ciFactory.createContentItem(id,
-                        new StreamSource(fis.openStream(),fis.getContentType()), 
-                        metadata);
+                    ParsedContent parsed = readContent(fis.openStream(), fis.getContentType());
+                    contentItem = parsed.factory.createContentItem(id, parsed.source, metadata);
                 } else {
                     log.debug("  - create Blob for content (type:{})", fis.getContentType());
-                    Blob blob = ciFactory.createBlob(new StreamSource(fis.openStream(), fis.getContentType()));
+                    ParsedContent parsed = readContent(fis.openStream(), fis.getContentType());
+                    Blob blob = parsed.factory.createBlob(parsed.source);
                     UriRef contentPartId = null;
                     if(fis.getFieldName() != null && !fis.getFieldName().isEmpty()){
                         contentPartId = new UriRef(fis.getFieldName());
@@ -365,15 +443,71 @@ public class ContentItemReader implements MessageBodyReader<ContentItem> {
         } else {
             log.debug("  - create ContentItem {} for content (type:{})",
                 id,content.getContentType());
-            contentItem = ciFactory.createContentItem(id,
-                new StreamSource(content.openStream(),content.getContentType()), 
-                metadata);
+            ParsedContent parsed = readContent(content.openStream(), content.getContentType());
+            contentItem = parsed.factory.createContentItem(id, parsed.source, metadata);
         }
         //add the URI of the main content to the parsed contentParts
         parsedContentParts.add(contentItem.getPartUri(0).getUnicodeString());
         return contentItem;
     }
     
+    /**
+     * Reads the parsed content and selects the {@link ContentItemFactory}
+     * used to create the {@link Blob}. Contents with up to 
+     * {@link #getInMemoryThreshold()} bytes are read into memory and parsed
+     * as {@link ByteArraySource} to the {@link #getContentItemFactory()}.
+     * If the content is bigger the {@link #getSpillContentItemFactory()} is
+     * used with a {@link StreamSource} so that the content is never fully
+     * loaded into memory.
+     * @param in the stream with the content
+     * @param mediaType the media type of the content
+     * @return the parsed content
+     * @throws IOException on any error while reading from the parsed stream
+     */
+    private ParsedContent readContent(InputStream in, String mediaType) throws IOException {
+        ContentItemFactory factory = getContentItemFactory();
+        ContentItemFactory spillFactory = getSpillContentItemFactory();
+        int threshold = getInMemoryThreshold();
+        if(spillFactory == null || spillFactory == factory || threshold < 0){
+            return new ParsedContent(factory, new StreamSource(in, mediaType));
+        }
+        //read up to threshold bytes into memory
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.min(threshold + 1, 8192));
+        byte[] chunk = new byte[8192];
+        boolean eof = false;
+        while(!eof && buffer.size() <= threshold){
+            int read = in.read(chunk);
+            if(read < 0){
+                eof = true;
+            } else {
+                buffer.write(chunk, 0, read);
+            }
+        }
+        if(eof){ //the content fits into memory
+            return new ParsedContent(factory, new ByteArraySource(buffer.toByteArray(), mediaType));
+        } else { //stream the buffered and remaining data to the spill factory
+            log.debug("  - content (type: {}) exceeds in-memory threshold of {} bytes "
+                + "... stream to {}", new Object[]{mediaType, threshold, 
+                        spillFactory.getClass().getSimpleName()});
+            return new ParsedContent(spillFactory, new StreamSource(new SequenceInputStream(
+                new ByteArrayInputStream(buffer.toByteArray()), in), mediaType));
+        }
+    }
+    /**
+     * The {@link ContentSource} and the {@link ContentItemFactory} used to
+     * create the {@link Blob} for a parsed content.
+     */
+    private static final class ParsedContent {
+        
+        final ContentItemFactory factory;
+        final ContentSource source;
+        
+        ParsedContent(ContentItemFactory factory, ContentSource source){
+            this.factory = factory;
+            this.source = source;
+        }
+    }
+    
     /**
      * Adapter from the parameter present in an {@link MessageBodyReader} to
      * the {@link RequestContext} as used by the commons.fileupload framework
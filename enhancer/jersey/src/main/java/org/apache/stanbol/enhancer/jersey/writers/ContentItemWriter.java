@@ -51,6 +51,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
 
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.HttpHeaders;
@@ -172,7 +173,8 @@ public class ContentItemWriter implements MessageBodyWriter<ContentItem> {
                     httpHeaders.putSingle("Content-Type", mediaType.toString());
                 }
                 try {
-                	getSerializer().serialize(entityStream, ci.getMetadata(), mediaType.toString());
+                    serializeRdf(entityStream, ci.getMetadata(), mediaType.toString(), 
+                        ci.getLock().readLock());
                 } catch (UnsupportedSerializationFormatException e) {
                     throw new WebApplicationException("The enhancement results "
                         + "cannot be serialized in the requested media type: "
@@ -242,7 +244,8 @@ public class ContentItemWriter implements MessageBodyWriter<ContentItem> {
             //(2) serialising the metadata
             if(!isOmitMetadata(properties)){
                 entityBuilder.addPart("metadata", new ClerezzaContentBody(
-                    ci.getUri().getUnicodeString(), ci.getMetadata(), rdfFormat));
+                    ci.getUri().getUnicodeString(), ci.getMetadata(), rdfFormat,
+                    ci.getLock().readLock()));
 //                entity.addBodyPart(new FormBodyPart("metadata", new ClerezzaContentBody(
 //                    ci.getUri().getUnicodeString(), ci.getMetadata(),
 //                    rdfFormat)));
@@ -291,14 +294,38 @@ public class ContentItemWriter implements MessageBodyWriter<ContentItem> {
                         entry.getKey())){
                         entityBuilder.addPart(entry.getKey().getUnicodeString(), 
                             new ClerezzaContentBody(null, //no file name
-                                entry.getValue(),rdfFormat));
+                                entry.getValue(),rdfFormat, ci.getLock().readLock()));
                     } // else ignore this content part
                 }
             }
+            //NOTE: parts are written one after the other to the entityStream.
+            //      As the size is unknown (-1) the response is sent chunked
             entityBuilder.build().writeTo(entityStream);
         }   
             
     }
+    /**
+     * Serializes the parsed graph. N-Triples and Turtle are written while
+     * iterating over the graph by the {@link StreamingRdfSerializer}. All other
+     * formats are serialized by using the Clerezza {@link Serializer}.
+     * @param out the stream
+     * @param graph the graph
+     * @param format the format
+     * @param readLock the read lock for the graph or <code>null</code> if none
+     * @throws IOException on any error while writing the data
+     * @throws UnsupportedSerializationFormatException if the format is not
+     * supported
+     */
+    private void serializeRdf(OutputStream out, TripleCollection graph, String format, Lock readLock) throws IOException {
+        if(StreamingRdfSerializer.isSupported(format)){
+            long start = System.currentTimeMillis();
+            StreamingRdfSerializer.serialize(out, graph, format, readLock);
+            log.debug(" - streamed graph as {} in {}ms", format, 
+                System.currentTimeMillis()-start);
+        } else {
+            getSerializer().serialize(out, graph, format);
+        }
+    }
     /**
      * @param properties
      * @return
@@ -491,8 +518,9 @@ public class ContentItemWriter implements MessageBodyWriter<ContentItem> {
         private TripleCollection graph;
         private String charset;
         private String name;
+        private Lock readLock;
 
-        protected ClerezzaContentBody(String name, TripleCollection graph, MediaType mimeType){
+        protected ClerezzaContentBody(String name, TripleCollection graph, MediaType mimeType, Lock readLock){
             super(ContentType.create(new StringBuilder(mimeType.getType())
             .append('/').append(mimeType.getSubtype()).toString(), UTF8));
             charset = mimeType.getParameters().get("charset");
@@ -501,6 +529,7 @@ public class ContentItemWriter implements MessageBodyWriter<ContentItem> {
             }
             this.name = name;
             this.graph = graph;
+            this.readLock = readLock;
         }
 
         @Override
@@ -525,7 +554,7 @@ public class ContentItemWriter implements MessageBodyWriter<ContentItem> {
 
         @Override
         public void writeTo(OutputStream out) throws IOException {
-            getSerializer().serialize(out, graph, getMediaType()+'/'+getSubType());
+            serializeRdf(out, graph, getMediaType()+'/'+getSubType(), readLock);
         }
     }
     
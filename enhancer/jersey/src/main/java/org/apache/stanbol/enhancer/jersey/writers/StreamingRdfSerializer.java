@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.enhancer.jersey.writers;
+
+import static org.apache.clerezza.rdf.core.serializedform.SupportedFormat.N_TRIPLE;
+import static org.apache.clerezza.rdf.core.serializedform.SupportedFormat.TURTLE;
+import static org.apache.clerezza.rdf.core.serializedform.SupportedFormat.X_TURTLE;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+
+import org.apache.clerezza.rdf.core.BNode;
+import org.apache.clerezza.rdf.core.Language;
+import org.apache.clerezza.rdf.core.NonLiteral;
+import org.apache.clerezza.rdf.core.PlainLiteral;
+import org.apache.clerezza.rdf.core.Resource;
+import org.apache.clerezza.rdf.core.Triple;
+import org.apache.clerezza.rdf.core.TripleCollection;
+import org.apache.clerezza.rdf.core.TypedLiteral;
+import org.apache.clerezza.rdf.core.UriRef;
+
+/**
+ * Serializes {@link TripleCollection}s as N-Triples or Turtle by writing the
+ * triples directly to the {@link OutputStream} while iterating over the graph.
+ * In contrast to the Clerezza serializers no intermediate model of the whole
+ * graph is created. Memory consumption only depends on the number of
+ * {@link BNode}s (labels need to be consistent within a document).<p>
+ * N-Triples are written as US-ASCII (non ASCII chars are escaped).
+ * Turtle is written without prefixes. Consecutive triples with the same
+ * subject are grouped (using '<code>;</code>'). As an
+ * {@link org.apache.stanbol.commons.indexedgraph.IndexedMGraph} iterates
+ * triples sorted by subject this results in a reasonable compact
+ * serialization for the metadata of ContentItems.<p>
+ * Formats other than N-Triples and Turtle are not supported (see
+ * {@link #isSupported(String)}) as their serialization (e.g. JSON-LD
+ * compaction and RDF/XML abbreviations) depends on the whole graph.
+ */
+final class StreamingRdfSerializer {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    /**
+     * Size of the buffer used to write the data. Data are written to the
+     * {@link OutputStream} as soon as the buffer is full.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private StreamingRdfSerializer(){/* no instances */}
+
+    /**
+     * If the parsed format is supported by this serializer
+     * @param format the media type (parameters are ignored)
+     * @return <code>true</code> for N-Triples and Turtle
+     */
+    static boolean isSupported(String format){
+        return isNTriples(format) || isTurtle(format);
+    }
+
+    private static boolean isNTriples(String format){
+        return N_TRIPLE.equalsIgnoreCase(stripParameters(format));
+    }
+
+    private static boolean isTurtle(String format){
+        String type = stripParameters(format);
+        return TURTLE.equalsIgnoreCase(type) || X_TURTLE.equalsIgnoreCase(type);
+    }
+
+    private static String stripParameters(String format){
+        if(format == null){
+            return null;
+        }
+        int index = format.indexOf(';');
+        return (index < 0 ? format : format.substring(0, index)).trim();
+    }
+
+    /**
+     * Serializes the parsed graph. The data are always encoded using UTF-8.
+     * @param out the stream to write the data. The stream is not closed
+     * @param graph the graph
+     * @param format the format. MUST BE {@link #isSupported(String) supported}
+     * @param readLock the lock acquired while iterating over the graph or
+     * <code>null</code> if none
+     * @throws IOException on any error while writing the data
+     * @throws IllegalArgumentException if the parsed format is not supported
+     */
+    static void serialize(OutputStream out, TripleCollection graph, String format, Lock readLock) throws IOException {
+        final boolean turtle;
+        if(isTurtle(format)){
+            turtle = true;
+        } else if(isNTriples(format)){
+            turtle = false;
+        } else {
+            throw new IllegalArgumentException("The parsed format '" + format
+                + "' is not supported by the streaming RDF serializer!");
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, UTF8), BUFFER_SIZE);
+        Map<BNode,String> bNodes = new HashMap<BNode,String>();
+        if(readLock != null){
+            readLock.lock();
+        }
+        try {
+            NonLiteral current = null;
+            for(Iterator<Triple> it = graph.iterator(); it.hasNext();){
+                Triple triple = it.next();
+                NonLiteral subject = triple.getSubject();
+                if(turtle && current != null && current.equals(subject)){
+                    writer.write(" ;\n    ");
+                } else {
+                    if(current != null){
+                        writer.write(" .\n");
+                    }
+                    writeResource(writer, subject, bNodes, !turtle);
+                    writer.write(' ');
+                    current = subject;
+                }
+                writeResource(writer, triple.getPredicate(), bNodes, !turtle);
+                writer.write(' ');
+                writeResource(writer, triple.getObject(), bNodes, !turtle);
+            }
+            if(current != null){
+                writer.write(" .\n");
+            }
+        } finally {
+            if(readLock != null){
+                readLock.unlock();
+            }
+        }
+        writer.flush();
+    }
+
+    private static void writeResource(Writer writer, Resource resource, Map<BNode,String> bNodes, 
+            boolean ascii) throws IOException {
+        if(resource instanceof UriRef){
+            writer.write('<');
+            writeEscapedUri(writer, ((UriRef)resource).getUnicodeString(), ascii);
+            writer.write('>');
+        } else if(resource instanceof BNode){
+            String label = bNodes.get(resource);
+            if(label == null){
+                label = "_:b" + bNodes.size();
+                bNodes.put((BNode)resource, label);
+            }
+            writer.write(label);
+        } else if(resource instanceof PlainLiteral){
+            PlainLiteral literal = (PlainLiteral)resource;
+            writeEscapedLiteral(writer, literal.getLexicalForm(), ascii);
+            Language language = literal.getLanguage();
+            if(language != null){
+                writer.write('@');
+                writer.write(language.toString());
+            }
+        } else if(resource instanceof TypedLiteral){
+            TypedLiteral literal = (TypedLiteral)resource;
+            writeEscapedLiteral(writer, literal.getLexicalForm(), ascii);
+            writer.write("^^<");
+            writeEscapedUri(writer, literal.getDataType().getUnicodeString(), ascii);
+            writer.write('>');
+        } else {
+            throw new IllegalStateException("Unsupported Resource type "
+                + (resource == null ? null : resource.getClass().getName()) + "!");
+        }
+    }
+
+    private static void writeEscapedLiteral(Writer writer, String value, boolean ascii) throws IOException {
+        writer.write('"');
+        for(int i = 0; i < value.length(); i++){
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\': writer.write("\\\\"); break;
+                case '"': writer.write("\\\""); break;
+                case '\n': writer.write("\\n"); break;
+                case '\r': writer.write("\\r"); break;
+                case '\t': writer.write("\\t"); break;
+                default:
+                    if(c < 0x20){
+                        writeUnicodeEscape(writer, c);
+                    } else if(ascii && c > 0x7E){
+                        i = writeNonAscii(writer, value, i);
+                    } else {
+                        writer.write(c);
+                    }
+            }
+        }
+        writer.write('"');
+    }
+
+    private static void writeEscapedUri(Writer writer, String uri, boolean ascii) throws IOException {
+        for(int i = 0; i < uri.length(); i++){
+            char c = uri.charAt(i);
+            if(c <= 0x20 || c == '<' || c == '>' || c == '"' || c == '{' || c == '}'
+                    || c == '|' || c == '^' || c == '`' || c == '\\'){
+                writeUnicodeEscape(writer, c);
+            } else if(ascii && c > 0x7E){
+                i = writeNonAscii(writer, uri, i);
+            } else {
+                writer.write(c);
+            }
+        }
+    }
+    /**
+     * Escapes the non ASCII char at the parsed index. Surrogate pairs are
+     * written as a single '<code>\UXXXXXXXX</code>' escape.
+     * @return the index of the last char consumed
+     */
+    private static int writeNonAscii(Writer writer, String value, int index) throws IOException {
+        char c = value.charAt(index);
+        if(Character.isHighSurrogate(c) && index + 1 < value.length() 
+                && Character.isLowSurrogate(value.charAt(index+1))){
+            int codePoint = Character.toCodePoint(c, value.charAt(index+1));
+            writer.write("\\U");
+            for(int shift = 28; shift >= 0; shift -= 4){
+                writer.write(HEX[(codePoint >> shift) & 0xF]);
+            }
+            return index + 1;
+        } else {
+            writeUnicodeEscape(writer, c);
+            return index;
+        }
+    }
+
+    private static void writeUnicodeEscape(Writer writer, char c) throws IOException {
+        writer.write("\\u");
+        writer.write(HEX[(c >> 12) & 0xF]);
+        writer.write(HEX[(c >> 8) & 0xF]);
+        writer.write(HEX[(c >> 4) & 0xF]);
+        writer.write(HEX[c & 0xF]);
+    }
+}
@@ -30,6 +30,7 @@ import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper
 import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper.writeExecutionNode;
 import static org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionMetadata.CHAIN_EXECUTION;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -51,18 +52,27 @@ import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.ext.RuntimeDelegate;
 
+import org.apache.clerezza.rdf.core.BNode;
+import org.apache.clerezza.rdf.core.Graph;
+import org.apache.clerezza.rdf.core.Language;
+import org.apache.clerezza.rdf.core.LiteralFactory;
 import org.apache.clerezza.rdf.core.MGraph;
 import org.apache.clerezza.rdf.core.NonLiteral;
 import org.apache.clerezza.rdf.core.UriRef;
+import org.apache.clerezza.rdf.core.impl.PlainLiteralImpl;
 import org.apache.clerezza.rdf.core.impl.SimpleMGraph;
 import org.apache.clerezza.rdf.core.impl.TripleImpl;
+import org.apache.clerezza.rdf.core.impl.graphmatching.GraphMatcher;
 import org.apache.clerezza.rdf.core.serializedform.Parser;
 import org.apache.clerezza.rdf.core.serializedform.Serializer;
+import org.apache.clerezza.rdf.core.serializedform.SupportedFormat;
 import org.apache.clerezza.rdf.jena.parser.JenaParserProvider;
 import org.apache.clerezza.rdf.jena.serializer.JenaSerializerProvider;
 import org.apache.clerezza.rdf.ontologies.RDF;
+import org.apache.clerezza.rdf.ontologies.RDFS;
 import org.apache.commons.io.IOUtils;
 import org.apache.stanbol.commons.web.base.writers.JsonLdSerializerProvider;
+import org.apache.stanbol.enhancer.contentitem.file.FileContentItemFactory;
 import org.apache.stanbol.enhancer.contentitem.inmemory.InMemoryContentItemFactory;
 import org.apache.stanbol.enhancer.jersey.reader.ContentItemReader;
 import org.apache.stanbol.enhancer.jersey.writers.ContentItemWriter;
@@ -87,6 +97,8 @@ public class ContentItemReaderWriterTest {
     private static ContentItem contentItem;
     private static ContentItemWriter ciWriter;
     private static ContentItemReader ciReader;
+    private static Serializer serializer;
+    private static Parser parser;
 
     private static ContentItemFactory ciFactory = InMemoryContentItemFactory.getInstance();
     
@@ -120,7 +132,7 @@ public class ContentItemReaderWriterTest {
         NonLiteral ep = createExecutionPlan(em, "testChain");
         writeExecutionNode(em, ep, "testEngine", true, null);
         initExecutionMetadata(em, em, contentItem.getUri(), "testChain", false);
-        final Serializer serializer = new Serializer();
+        serializer = new Serializer();
         serializer.bindSerializingProvider(new JenaSerializerProvider());
         serializer.bindSerializingProvider(new JsonLdSerializerProvider());
         ciWriter = new ContentItemWriter() {
@@ -129,7 +141,7 @@ public class ContentItemReaderWriterTest {
             };
         };
 
-        final Parser parser = new Parser();
+        parser = new Parser();
         parser.bindParsingProvider(new JenaParserProvider());
         ciReader = new ContentItemReader(){
             @Override
@@ -254,4 +266,104 @@ public class ContentItemReaderWriterTest {
         assertEquals(outputContentPart.iterator().next(), "*");
     }
 
+    /**
+     * Tests that contents exceeding the in-memory threshold are streamed to
+     * the spill ContentItemFactory
+     */
+    @Test
+    public void testReaderInMemoryThreshold() throws Exception {
+        final FileContentItemFactory spillFactory = FileContentItemFactory.getInstance();
+        final Parser parser = new Parser();
+        parser.bindParsingProvider(new JenaParserProvider());
+        ContentItemReader spillingReader = new ContentItemReader(){
+            @Override
+            protected Parser getParser() {
+                return parser;
+            }
+            @Override
+            protected ContentItemFactory getContentItemFactory() {
+                return ciFactory;
+            }
+            @Override
+            protected ContentItemFactory getSpillContentItemFactory() {
+                return spillFactory;
+            }
+            @Override
+            protected int getInMemoryThreshold() {
+                return 50;
+            }
+        };
+        //(1) plain content below the threshold is kept in memory
+        String text = "Small content";
+        ContentItem ci = spillingReader.readFrom(ContentItem.class, null, null, 
+            MediaType.TEXT_PLAIN_TYPE, null, new ByteArrayInputStream(text.getBytes("UTF-8")));
+        assertFalse(ci.getBlob() instanceof FileContentItemFactory.FileBlob);
+        assertEquals(text, IOUtils.toString(ci.getBlob().getStream(), "UTF-8"));
+        //(2) plain content above the threshold is streamed to a file
+        StringBuilder large = new StringBuilder();
+        for(int i = 0; i < 1000; i++){
+            large.append("This is line ").append(i).append(" of a large content\n");
+        }
+        ci = spillingReader.readFrom(ContentItem.class, null, null, MediaType.TEXT_PLAIN_TYPE,
+            null, new ByteArrayInputStream(large.toString().getBytes("UTF-8")));
+        assertTrue(ci.getBlob() instanceof FileContentItemFactory.FileBlob);
+        assertEquals(large.toString(), IOUtils.toString(ci.getBlob().getStream(), "UTF-8"));
+        //(3) multipart contents: the html content exceeds the threshold, the
+        //    plain text content does not
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MediaType contentType = serializeContentItem(out);
+        ci = spillingReader.readFrom(ContentItem.class, null, null, contentType, null, 
+            new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(contentItem.getUri(), ci.getUri());
+        Map<UriRef,Blob> expectedBlobs = ContentItemHelper.getContentParts(contentItem, Blob.class);
+        Map<UriRef,Blob> readBlobs = ContentItemHelper.getContentParts(ci, Blob.class);
+        assertEquals(expectedBlobs.keySet(), readBlobs.keySet());
+        for(Entry<UriRef,Blob> expected : expectedBlobs.entrySet()){
+            Blob read = readBlobs.get(expected.getKey());
+            String expectedContent = IOUtils.toString(expected.getValue().getStream(),"UTF-8");
+            assertEquals(expectedContent, IOUtils.toString(read.getStream(),"UTF-8"));
+            assertEquals(expectedContent.getBytes("UTF-8").length > 50, 
+                read instanceof FileContentItemFactory.FileBlob);
+        }
+    }
+
+    /**
+     * Tests that the streaming serialization of N-Triples and Turtle results
+     * in the same graph as the Clerezza Serializer. Performance is compared
+     * by the {@link ContentItemWriterBenchmark}
+     */
+    @Test
+    public void testStreamingRdfSerialization() throws Exception {
+        ContentItem ci = ciFactory.createContentItem(new UriRef("urn:test:streaming"), 
+            new StringSource("Streaming enhancement results test"));
+        MGraph metadata = ci.getMetadata();
+        LiteralFactory lf = LiteralFactory.getInstance();
+        UriRef property = new UriRef("urn:test:property");
+        for(int i = 0; i < 10; i++){
+            UriRef enhancement = new UriRef("urn:test:enhancement-"+i);
+            metadata.add(new TripleImpl(enhancement, RDF.type, new UriRef("urn:types:Enhancement")));
+            metadata.add(new TripleImpl(enhancement, RDFS.label, new PlainLiteralImpl(
+                "Label \"" + i + "\"\n\twith escapes \\ and unicode \u00e4\u00f6\u00fc", 
+                new Language("de"))));
+            metadata.add(new TripleImpl(enhancement, property, lf.createTypedLiteral(i)));
+            if(i % 5 == 0){
+                BNode bNode = new BNode();
+                metadata.add(new TripleImpl(enhancement, property, bNode));
+                metadata.add(new TripleImpl(bNode, RDFS.comment, new PlainLiteralImpl("BNode "+i)));
+            }
+        }
+        for(String format : new String[]{SupportedFormat.N_TRIPLE, SupportedFormat.TURTLE}){
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ciWriter.writeTo(ci, ContentItem.class, null, null, MediaType.valueOf(format), 
+                new MultivaluedHashMap<String, Object>(), out);
+            ByteArrayOutputStream serializerOut = new ByteArrayOutputStream();
+            serializer.serialize(serializerOut, metadata, format);
+            Graph streamed = parser.parse(new ByteArrayInputStream(out.toByteArray()), format);
+            Graph serialized = parser.parse(new ByteArrayInputStream(serializerOut.toByteArray()), format);
+            assertEquals(metadata.size(), streamed.size());
+            assertNotNull("streamed "+format+" is not isomorphic to the Serializer output",
+                GraphMatcher.getValidMapping(serialized, streamed));
+        }
+    }
+
 }
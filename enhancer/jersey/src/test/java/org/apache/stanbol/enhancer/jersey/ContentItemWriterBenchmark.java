@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.enhancer.jersey;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.ext.RuntimeDelegate;
+
+import org.apache.clerezza.rdf.core.BNode;
+import org.apache.clerezza.rdf.core.Language;
+import org.apache.clerezza.rdf.core.LiteralFactory;
+import org.apache.clerezza.rdf.core.MGraph;
+import org.apache.clerezza.rdf.core.UriRef;
+import org.apache.clerezza.rdf.core.impl.PlainLiteralImpl;
+import org.apache.clerezza.rdf.core.impl.TripleImpl;
+import org.apache.clerezza.rdf.core.serializedform.Parser;
+import org.apache.clerezza.rdf.core.serializedform.Serializer;
+import org.apache.clerezza.rdf.core.serializedform.SupportedFormat;
+import org.apache.clerezza.rdf.jena.parser.JenaParserProvider;
+import org.apache.clerezza.rdf.jena.serializer.JenaSerializerProvider;
+import org.apache.clerezza.rdf.ontologies.RDF;
+import org.apache.clerezza.rdf.ontologies.RDFS;
+import org.apache.stanbol.enhancer.contentitem.inmemory.InMemoryContentItemFactory;
+import org.apache.stanbol.enhancer.jersey.writers.ContentItemWriter;
+import org.apache.stanbol.enhancer.servicesapi.ContentItem;
+import org.apache.stanbol.enhancer.servicesapi.impl.StringSource;
+import org.glassfish.jersey.internal.RuntimeDelegateImpl;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the streaming N-Triples and Turtle serialization of the
+ * {@link ContentItemWriter} with the Clerezza {@link Serializer} for large
+ * enhancement results. Only executed with the <code>benchmark</code> profile
+ * (<code>mvn test -P benchmark</code>).
+ */
+public class ContentItemWriterBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentItemWriterBenchmark.class);
+
+    private static final int NUM_ENHANCEMENTS = 20000;
+    private static final int ROUNDS = 5;
+
+    private static ContentItem contentItem;
+    private static ContentItemWriter ciWriter;
+    private static Serializer serializer;
+    private static Parser parser;
+
+    @BeforeClass
+    public static void createLargeContentItem() throws IOException {
+        RuntimeDelegate.setInstance(new RuntimeDelegateImpl());
+        contentItem = InMemoryContentItemFactory.getInstance().createContentItem(
+            new UriRef("urn:test:large"), new StringSource("Large enhancement results test"));
+        MGraph metadata = contentItem.getMetadata();
+        LiteralFactory lf = LiteralFactory.getInstance();
+        UriRef property = new UriRef("urn:test:property");
+        for(int i = 0; i < NUM_ENHANCEMENTS; i++){
+            UriRef enhancement = new UriRef("urn:test:enhancement-"+i);
+            metadata.add(new TripleImpl(enhancement, RDF.type, new UriRef("urn:types:Enhancement")));
+            metadata.add(new TripleImpl(enhancement, RDFS.label, new PlainLiteralImpl(
+                "Label \"" + i + "\"\n\twith escapes \\ and unicode \u00e4\u00f6\u00fc",
+                new Language("de"))));
+            metadata.add(new TripleImpl(enhancement, property, lf.createTypedLiteral(i)));
+            if(i % 100 == 0){
+                BNode bNode = new BNode();
+                metadata.add(new TripleImpl(enhancement, property, bNode));
+                metadata.add(new TripleImpl(bNode, RDFS.comment, new PlainLiteralImpl("BNode "+i)));
+            }
+        }
+        serializer = new Serializer();
+        serializer.bindSerializingProvider(new JenaSerializerProvider());
+        ciWriter = new ContentItemWriter() {
+            protected Serializer getSerializer() {
+                return serializer;
+            };
+        };
+        parser = new Parser();
+        parser.bindParsingProvider(new JenaParserProvider());
+    }
+
+    @Test
+    public void benchmarkRdfSerialization() throws IOException {
+        int size = contentItem.getMetadata().size();
+        for(String format : new String[]{SupportedFormat.N_TRIPLE, SupportedFormat.TURTLE}){
+            MediaType mediaType = MediaType.valueOf(format);
+            ByteArrayOutputStream out = null;
+            ByteArrayOutputStream serializerOut = null;
+            long streaming = 0;
+            long serialized = 0;
+            for(int round = 0; round <= ROUNDS; round++){ //round 0 is the warm up
+                out = new ByteArrayOutputStream();
+                long start = System.currentTimeMillis();
+                ciWriter.writeTo(contentItem, ContentItem.class, null, null, mediaType,
+                    new MultivaluedHashMap<String, Object>(), out);
+                long duration = System.currentTimeMillis() - start;
+                streaming += round > 0 ? duration : 0;
+                serializerOut = new ByteArrayOutputStream();
+                start = System.currentTimeMillis();
+                serializer.serialize(serializerOut, contentItem.getMetadata(), format);
+                duration = System.currentTimeMillis() - start;
+                serialized += round > 0 ? duration : 0;
+            }
+            log.info("{} triples as {}: streaming {}ms ({} bytes) | Serializer {}ms ({} bytes)",
+                new Object[]{size, format, streaming / ROUNDS, out.size(),
+                        serialized / ROUNDS, serializerOut.size()});
+            Assert.assertEquals(size, parser.parse(
+                new ByteArrayInputStream(out.toByteArray()), format).size());
+        }
+    }
+}
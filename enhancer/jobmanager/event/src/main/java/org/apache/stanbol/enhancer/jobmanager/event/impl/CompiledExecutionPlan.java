@@ -0,0 +1,322 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jobmanager.event.impl;
+
+import static org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionPlan.DEPENDS_ON;
+import static org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionPlan.EXECUTION_NODE;
+import static org.apache.stanbol.enhancer.servicesapi.rdf.Properties.RDF_TYPE;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.clerezza.rdf.core.Graph;
+import org.apache.clerezza.rdf.core.NonLiteral;
+import org.apache.clerezza.rdf.core.Resource;
+import org.apache.clerezza.rdf.core.Triple;
+import org.apache.stanbol.enhancer.servicesapi.Chain;
+import org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper;
+
+/**
+ * Immutable, int indexed representation of an ep:ExecutionPlan. The
+ * ep:ExecutionNodes of the plan are assigned to the indexes
+ * <code>[0..{@link #size()})</code> and the ep:dependsOn relations are
+ * compiled to bit masks. This allows {@link EnhancementJob}s to keep track
+ * of completed and running executions by using two small <code>long[]</code>
+ * bit sets and to calculate the executable nodes by a couple of word
+ * operations instead of re-evaluating the RDF execution plan every time an
+ * engine completes.<p>
+ * Instances are created by {@link #compile(Graph)} and are
+ * intended to be shared by all {@link EnhancementJob}s of the same version
+ * of a {@link Chain} (see {@link #getExecutionPlan()}).
+ */
+public final class CompiledExecutionPlan {
+
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+    private static final int BITS_PER_WORD = 1 << ADDRESS_BITS_PER_WORD;
+
+    /**
+     * The execution plan this instance was compiled from
+     */
+    private final Graph executionPlan;
+    /**
+     * The ep:ExecutionNodes. The index within the array is the index of the
+     * node
+     */
+    private final NonLiteral[] nodes;
+    /**
+     * Reverse lookup for {@link #nodes}
+     */
+    private final Map<NonLiteral,Integer> nodeIndex;
+    /**
+     * The engine names by node index
+     */
+    private final String[] engines;
+    /**
+     * The ep:optional state by node index
+     */
+    private final boolean[] optional;
+    /**
+     * The bit masks of the ep:dependsOn relations by node index
+     */
+    private final long[][] dependsOn;
+    /**
+     * The number of words used by bit sets of this plan
+     */
+    private final int words;
+
+    private CompiledExecutionPlan(Graph executionPlan){
+        this.executionPlan = executionPlan;
+        List<NonLiteral> nodeList = new ArrayList<NonLiteral>();
+        for(Iterator<Triple> it = executionPlan.filter(null, RDF_TYPE, EXECUTION_NODE);it.hasNext();){
+            NonLiteral node = it.next().getSubject();
+            if(!nodeList.contains(node)){
+                nodeList.add(node);
+            }
+        }
+        this.nodes = nodeList.toArray(new NonLiteral[nodeList.size()]);
+        this.words = Math.max(1, wordIndex(nodes.length - 1) + 1);
+        this.nodeIndex = new HashMap<NonLiteral,Integer>(nodes.length * 2);
+        for(int i = 0; i < nodes.length; i++){
+            nodeIndex.put(nodes[i], i);
+        }
+        this.engines = new String[nodes.length];
+        this.optional = new boolean[nodes.length];
+        this.dependsOn = new long[nodes.length][];
+        for(int i = 0; i < nodes.length; i++){
+            engines[i] = ExecutionPlanHelper.getEngine(executionPlan, nodes[i]);
+            optional[i] = ExecutionPlanHelper.isOptional(executionPlan, nodes[i]);
+            long[] mask = new long[words];
+            for(Iterator<Triple> it = executionPlan.filter(nodes[i], DEPENDS_ON, null);it.hasNext();){
+                Triple t = it.next();
+                Resource dependent = t.getObject();
+                Integer index = nodeIndex.get(dependent);
+                if(index == null){
+                    throw new IllegalArgumentException("The ep:ExecutionNode " + nodes[i]
+                        + " (engine: " + engines[i] + ") depends on the unknown ep:ExecutionNode "
+                        + dependent + " (triple: " + t + ")!");
+                }
+                set(mask, index);
+            }
+            dependsOn[i] = mask;
+        }
+    }
+    /**
+     * Compiles the parsed execution plan.
+     * @param executionPlan the execution plan
+     * @return the compiled execution plan
+     * @throws IllegalArgumentException if <code>null</code> is parsed or if
+     * the parsed execution plan is not valid
+     */
+    public static CompiledExecutionPlan compile(Graph executionPlan){
+        if(executionPlan == null){
+            throw new IllegalArgumentException("The parsed execution plan MUST NOT be NULL!");
+        }
+        return new CompiledExecutionPlan(executionPlan);
+    }
+    /**
+     * The execution plan used to compile this instance. As {@link Chain}
+     * implementations create a new {@link Graph} whenever their execution
+     * plan changes the identity of the returned instance can be used to
+     * check if a cached {@link CompiledExecutionPlan} is still valid.
+     * @return the execution plan
+     */
+    public Graph getExecutionPlan() {
+        return executionPlan;
+    }
+    /**
+     * The number of ep:ExecutionNodes
+     * @return the number of nodes
+     */
+    public int size(){
+        return nodes.length;
+    }
+    /**
+     * Getter for the index of an ep:ExecutionNode
+     * @param node the node
+     * @return the index or <code>-1</code> if the parsed node is not part of
+     * this execution plan
+     */
+    public int getIndex(NonLiteral node){
+        Integer index = nodeIndex.get(node);
+        return index == null ? -1 : index.intValue();
+    }
+    /**
+     * Getter for the ep:ExecutionNode with the parsed index
+     * @param index the index
+     * @return the node
+     */
+    public NonLiteral getNode(int index){
+        return nodes[index];
+    }
+    /**
+     * Getter for the name of the engine of the node with the parsed index
+     * @param index the index
+     * @return the engine name
+     */
+    public String getEngine(int index){
+        return engines[index];
+    }
+    /**
+     * Getter for the optional state of the node with the parsed index
+     * @param index the index
+     * @return the optional state
+     */
+    public boolean isOptional(int index){
+        return optional[index];
+    }
+    /**
+     * Getter for the ep:ExecutionNodes the node with the parsed index depends
+     * on. Intended to be used for creating messages only.
+     * @param index the index
+     * @return the depended nodes
+     */
+    public Set<NonLiteral> getDependend(int index){
+        return toNodes(dependsOn[index]);
+    }
+    /**
+     * Creates a new (empty) bit set for this execution plan
+     * @return the new bit set
+     */
+    public long[] createBitSet(){
+        return new long[words];
+    }
+    /**
+     * Checks if all nodes the node with the parsed index depends on are
+     * contained in the parsed set of completed nodes
+     * @param index the index of the node
+     * @param completed the completed nodes
+     * @return the state
+     */
+    public boolean isDependendCompleted(int index, long[] completed){
+        long[] mask = dependsOn[index];
+        for(int w = 0; w < words; w++){
+            if((mask[w] & ~completed[w]) != 0L){
+                return false;
+            }
+        }
+        return true;
+    }
+    /**
+     * Calculates the nodes that can be executed next. This are all nodes
+     * that are neither completed nor running and where all nodes they depend
+     * on are completed.
+     * @param completed the completed nodes
+     * @param running the running nodes
+     * @return the executable nodes as new bit set
+     */
+    public long[] getExecutable(long[] completed, long[] running){
+        long[] executable = new long[words];
+        for(int i = 0; i < nodes.length; i++){
+            if(!get(completed, i) && !get(running, i) && isDependendCompleted(i, completed)){
+                set(executable, i);
+            }
+        }
+        return executable;
+    }
+    /**
+     * Converts the parsed bit set to the set of ep:ExecutionNodes
+     * @param bits the bit set
+     * @return the nodes
+     */
+    public Set<NonLiteral> toNodes(long[] bits){
+        int size = cardinality(bits);
+        if(size == 0){
+            return Collections.emptySet();
+        }
+        Set<NonLiteral> set = new HashSet<NonLiteral>(size * 2);
+        for(int i = nextSetBit(bits, 0); i >= 0; i = nextSetBit(bits, i + 1)){
+            set.add(nodes[i]);
+        }
+        return set;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("CompiledExecutionPlan[");
+        for(int i = 0; i < engines.length; i++){
+            if(i > 0){
+                sb.append(", ");
+            }
+            sb.append(i).append(':').append(engines[i]);
+            if(optional[i]){
+                sb.append("(optional)");
+            }
+        }
+        return sb.append(']').toString();
+    }
+    /*
+     * Static utilities for bit sets
+     */
+    private static int wordIndex(int bitIndex){
+        return bitIndex >> ADDRESS_BITS_PER_WORD;
+    }
+
+    static void set(long[] bits, int index){
+        bits[wordIndex(index)] |= (1L << index);
+    }
+
+    static void clear(long[] bits, int index){
+        bits[wordIndex(index)] &= ~(1L << index);
+    }
+
+    static boolean get(long[] bits, int index){
+        return (bits[wordIndex(index)] & (1L << index)) != 0L;
+    }
+
+    static boolean isEmpty(long[] bits){
+        for(int w = 0; w < bits.length; w++){
+            if(bits[w] != 0L){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int cardinality(long[] bits){
+        int count = 0;
+        for(int w = 0; w < bits.length; w++){
+            count += Long.bitCount(bits[w]);
+        }
+        return count;
+    }
+    /**
+     * @return the index of the next set bit starting from the parsed index
+     * (inclusive) or <code>-1</code> if no more bits are set.
+     */
+    static int nextSetBit(long[] bits, int fromIndex){
+        int w = wordIndex(fromIndex);
+        if(w >= bits.length){
+            return -1;
+        }
+        long word = bits[w] & (-1L << fromIndex);
+        while(true){
+            if(word != 0L){
+                return (w * BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+            }
+            if(++w == bits.length){
+                return -1;
+            }
+            word = bits[w];
+        }
+    }
+}
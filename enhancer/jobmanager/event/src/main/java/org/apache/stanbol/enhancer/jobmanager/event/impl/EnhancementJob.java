@@ -26,9 +26,6 @@ import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionMetadataHe
 import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionMetadataHelper.setExecutionCompleted;
 import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionMetadataHelper.setExecutionFaild;
 import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionMetadataHelper.setExecutionInProgress;
-import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper.getDependend;
-import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper.getEngine;
-import static org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper.isOptional;
 import static org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionMetadata.STATUS;
 import static org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionMetadata.STATUS_IN_PROGRESS;
 import static org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionPlan.CHAIN;
@@ -36,6 +33,7 @@ import static org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionPlan.CHAIN;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -47,15 +45,12 @@ import org.apache.clerezza.rdf.core.Graph;
 import org.apache.clerezza.rdf.core.MGraph;
 import org.apache.clerezza.rdf.core.NonLiteral;
 import org.apache.clerezza.rdf.core.UriRef;
-import org.apache.commons.collections.BidiMap;
-import org.apache.commons.collections.bidimap.DualHashBidiMap;
 import org.apache.stanbol.enhancer.servicesapi.Chain;
 import org.apache.stanbol.enhancer.servicesapi.ContentItem;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementJobManager;
 import org.apache.stanbol.enhancer.servicesapi.NoSuchPartException;
 import org.apache.stanbol.enhancer.servicesapi.helper.ExecutionMetadataHelper;
-import org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper;
 import org.apache.stanbol.enhancer.servicesapi.rdf.ExecutionMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,6 +59,11 @@ import org.slf4j.LoggerFactory;
  * Represents the enhancement of a {@link ContentItem} by following the
  * execution plan provided by a {@link Chain} as parsed to an
  * {@link EnhancementJobManager}.<p>
+ * The state of the enhancement job (completed and running executions) is
+ * kept in bit sets over the node indexes of a {@link CompiledExecutionPlan}.
+ * The execution metadata are still written to the {@link MGraph} content
+ * part (see {@link #getExecutionMetadata()}) but are no longer read to
+ * calculate the next executable nodes.<p>
  * TODO: This might become part of the Stanbol Enhancer Services API.
  * 
  * @author Rupert Westenthaler
@@ -89,6 +89,10 @@ public class EnhancementJob {
      * The read only executionPlan
      */
     private final Graph executionPlan;
+    /**
+     * The compiled execution plan used to calculate the executable nodes
+     */
+    private final CompiledExecutionPlan plan;
     /**
      * The read/write able execution metadata. Also accessible via
      * {@link ContentItem#getPart(UriRef, Class)} with the URI
@@ -96,10 +100,14 @@ public class EnhancementJob {
      */
     private final MGraph executionMetadata;
     /**
-     * Map with the em:Execution nodes of the em:ChainExecution for this
-     * ContentItem. Values are are ep:ExecutionNodes of the ep:ExecutionPlan
+     * The em:Execution nodes of the em:ChainExecution for this ContentItem
+     * by the index of the ep:ExecutionNode within the {@link #plan}
+     */
+    private final NonLiteral[] executions;
+    /**
+     * Reverse lookup for {@link #executions}
      */
-    private final BidiMap executionsMap;
+    private final Map<NonLiteral,Integer> executionIndex;
     /**
      * The em:ChainExecution for this {@link ContentItem}
      */
@@ -118,20 +126,18 @@ public class EnhancementJob {
     private final ContentItem contentItem;
 
     /**
-     * The completed ep:ExecutionPlan nodes. <p>
-     * NOTE: This contains ep:ExecutionNodes and NOT em:Exetution instances!
+     * Bit set with the indexes of the completed ep:ExecutionPlan nodes.
      */
-    private final Set<NonLiteral> completed = new HashSet<NonLiteral>();
+    private final long[] completed;
     /**
      * Unmodifiable and final set of completed executables. Replaced by a new
      * instance every time {@link #completed} changes
      */
     private Set<NonLiteral> completedExec = Collections.emptySet();
     /**
-     * The running ep:ExecutionPlan nodes <p>
-     * NOTE: This contains ep:ExecutionNodes and NOT em:Exetution instances!
+     * Bit set with the indexes of the running ep:ExecutionPlan nodes.
      */
-    private final Set<NonLiteral> running = new HashSet<NonLiteral>();
+    private final long[] running;
     /**
      * Unmodifiable and final set of running executables. Replaced by a new
      * instance every time {@link #running} changes.
@@ -144,6 +150,11 @@ public class EnhancementJob {
      * {@link #completed} changes.
      */
     private Set<NonLiteral> executable;
+    /**
+     * If the em:ChainExecution was marked as failed. Mirrors the state in
+     * the {@link #executionMetadata} to avoid graph lookups
+     */
+    private boolean failed;
     /**
      * Used to store any {@link Exception} parsed with the call to
      * {@link #setFailed(NonLiteral, EnhancementEngine, Exception)} causing the
@@ -152,6 +163,12 @@ public class EnhancementJob {
      * @see #getError()
      */
     private Exception error = null;
+    /**
+     * Set by {@link #cancel()}. Cancelled jobs do not execute any further
+     * engines. Not guarded by the read/write lock as it is also set by
+     * threads that do not own the write lock.
+     */
+    private volatile boolean cancelled = false;
     /**
      * Constructor used to create and initialise a new enhancement job. This
      * will create the initial set of ExecutionMetadata and add them as
@@ -163,16 +180,36 @@ public class EnhancementJob {
      * @param isDefaultChain
      */
     public EnhancementJob(ContentItem contentItem, String chainName, Graph executionPlan, boolean isDefaultChain) {
-        if (contentItem == null || chainName == null || executionPlan == null) {
+        this(contentItem, chainName, executionPlan == null ? null :
+            CompiledExecutionPlan.compile(executionPlan), isDefaultChain);
+    }
+    /**
+     * Constructor used to create and initialise a new enhancement job based
+     * on an already {@link CompiledExecutionPlan compiled execution plan}.
+     * This will create the initial set of ExecutionMetadata and add them as
+     * ContentPart with the URI {@link ExecutionMetadata#CHAIN_EXECUTION} to the
+     * ContentItem.
+     * @param contentItem
+     * @param chainName
+     * @param plan the compiled execution plan
+     * @param isDefaultChain
+     */
+    public EnhancementJob(ContentItem contentItem, String chainName, CompiledExecutionPlan plan, boolean isDefaultChain) {
+        if (contentItem == null || chainName == null || plan == null) {
             throw new IllegalArgumentException("The parsed contentItem and executionPlan MUST NOT be NULL");
         }
         this.readLock = contentItem.getLock().readLock();
         this.writeLock = contentItem.getLock().writeLock();
+        this.plan = plan;
+        this.executionPlan = plan.getExecutionPlan();
         executionMetadata = initExecutionMetadataContentPart(contentItem);
         if(executionMetadata.isEmpty()){
             //if we init from scratch 
-            this.executionsMap = new DualHashBidiMap(initExecutionMetadata(executionMetadata, executionPlan, 
-                contentItem.getUri(), chainName, isDefaultChain));
+            Map<NonLiteral,NonLiteral> executionsMap = initExecutionMetadata(executionMetadata,
+                executionPlan, contentItem.getUri(), chainName, isDefaultChain);
+            this.executions = new NonLiteral[plan.size()];
+            this.executionIndex = new HashMap<NonLiteral,Integer>(plan.size() * 2);
+            initExecutions(executionsMap);
             chainExecutionNode = getChainExecution(executionMetadata, contentItem.getUri());
             executionPlanNode = getExecutionPlanNode(executionMetadata, chainExecutionNode);
             executionMetadata.addAll(executionPlan);
@@ -182,8 +219,9 @@ public class EnhancementJob {
                     + "some Execution Metadata!");
         }
         this.contentItem = contentItem;
-        this.executionPlan = executionPlan;
         this.chain = chainName;
+        this.completed = plan.createBitSet();
+        this.running = plan.createBitSet();
         //check the first engines to execute
         checkExecutable();
     }
@@ -230,9 +268,15 @@ public class EnhancementJob {
                     "the ep:ExecutionPlan node '" + executionPlanNode+"' as used to " +
                     "enhance  ContentItem '"+contentItem.getUri()+"'!");
         }
+        this.plan = CompiledExecutionPlan.compile(executionPlan);
+        this.completed = plan.createBitSet();
+        this.running = plan.createBitSet();
         //the executionPlan is part of the execution metadata
         Map<NonLiteral,NonLiteral> executionsMap = initExecutionMetadata(executionMetadata, 
             executionPlan, contentItem.getUri(), null, null);
+        this.executions = new NonLiteral[plan.size()];
+        this.executionIndex = new HashMap<NonLiteral,Integer>(plan.size() * 2);
+        initExecutions(executionsMap);
         for(Entry<NonLiteral,NonLiteral> executionEntry : executionsMap.entrySet()){
             UriRef status = getReference(executionMetadata, executionEntry.getKey(), STATUS);
             if(status == null){
@@ -246,14 +290,44 @@ public class EnhancementJob {
                 ExecutionMetadataHelper.setExecutionScheduled(executionMetadata, executionEntry.getKey());
             } else if(status.equals(ExecutionMetadata.STATUS_COMPLETED) ||
                     status.equals(ExecutionMetadata.STATUS_FAILED)){
-               completed.add(executionEntry.getValue());
+                CompiledExecutionPlan.set(completed, plan.getIndex(executionEntry.getValue()));
             }
         }
-        this.executionsMap = new DualHashBidiMap(executionsMap);
+        updateCompletedExec();
+        this.failed = isExecutionFailed(executionMetadata, chainExecutionNode);
         //check the first engines to execute after continuation
         checkExecutable();
     }
+    /**
+     * Initialises {@link #executions} and {@link #executionIndex} based on
+     * the em:Execution to ep:ExecutionNode mappings
+     * @param executionsMap the em:Execution to ep:ExecutionNode mappings
+     */
+    private void initExecutions(Map<NonLiteral,NonLiteral> executionsMap) {
+        for(Entry<NonLiteral,NonLiteral> executionEntry : executionsMap.entrySet()){
+            int index = plan.getIndex(executionEntry.getValue());
+            if(index < 0){
+                throw new IllegalArgumentException("The ep:ExecutionNode '"
+                    + executionEntry.getValue() + "' of the em:Execution '"
+                    + executionEntry.getKey() + "' is not part of the execution plan!");
+            }
+            executions[index] = executionEntry.getKey();
+            executionIndex.put(executionEntry.getKey(), index);
+        }
+    }
 
+    /**
+     * Getter for the index of the ep:ExecutionNode linked to a em:Execution
+     * @throws IllegalArgumentException if the parsed em:Execution is not
+     * part of the execution metadata of this enhancement job
+     */
+    private int getExecutionIndex(NonLiteral execution){
+        Integer index = executionIndex.get(execution);
+        if(index == null){
+            throw new IllegalArgumentException("Unknown em:Execution instance "+execution);
+        }
+        return index.intValue();
+    }
     /**
      * Getter for the ep:ExecutionNode linked to a em:Execution
      * @return the ep:ExecutionNode instance
@@ -261,11 +335,7 @@ public class EnhancementJob {
      * part of the execution metadata of this enhancement job
      */
     public NonLiteral getExecutionNode(NonLiteral execution){
-        NonLiteral node = (NonLiteral)executionsMap.get(execution);
-        if(node == null){
-            throw new IllegalArgumentException("Unknown sp:ExecutionNode instance "+node);
-        }
-        return node;
+        return plan.getNode(getExecutionIndex(execution));
     }
     /**
      * Getter for the em:Execution linked to a ep:ExecutionNode
@@ -274,12 +344,25 @@ public class EnhancementJob {
      * part of the execution plan of this enhancement job
      */
     public NonLiteral getExecution(NonLiteral executionNode){
-        NonLiteral execution = (NonLiteral)executionsMap.getKey(executionNode);
+        int index = plan.getIndex(executionNode);
+        NonLiteral execution = index < 0 ? null : executions[index];
         if(execution == null){
-            throw new IllegalArgumentException("Unknown em:Execution instance "+executionNode);
+            throw new IllegalArgumentException("Unknown sp:ExecutionNode instance "+executionNode);
         }
         return execution;
     }
+    /**
+     * Getter for the name of the engine executed by the parsed em:Execution.
+     * This uses the {@link CompiledExecutionPlan} and does not need to
+     * access the execution plan graph.
+     * @param execution the em:Execution
+     * @return the name of the engine
+     * @throws IllegalArgumentException if the parsed em:Execution is not
+     * part of the execution metadata of this enhancement job
+     */
+    public String getEngine(NonLiteral execution){
+        return plan.getEngine(getExecutionIndex(execution));
+    }
 
     /**
      * The used execution plan for processing the {@link ContentItem}
@@ -290,6 +373,14 @@ public class EnhancementJob {
         return executionPlan;
     }
 
+    /**
+     * The compiled execution plan used for processing the {@link ContentItem}
+     * @return the compiled execution plan
+     */
+    public final CompiledExecutionPlan getCompiledExecutionPlan() {
+        return plan;
+    }
+
     /**
      * The ContentItem enhanced by this job.
      * 
@@ -375,15 +466,15 @@ public class EnhancementJob {
         if(execution == null) {
             throw new IllegalArgumentException("The parsed em:Execution instance MUST NOT be NULL!");
         }
+        int index = getExecutionIndex(execution);
+        log.trace("++ w: {}: {}","setCompleted",plan.getEngine(index));
         writeLock.lock();
-        NonLiteral executionNode = getExecutionNode(execution);
-        log.trace("++ w: {}: {}","setCompleted",getEngine(executionPlan, executionNode));
         try {
-            log.trace(">> w: {}: {}","setCompleted",getEngine(executionPlan, executionNode));
-            setNodeCompleted(executionNode);
+            log.trace(">> w: {}: {}","setCompleted",plan.getEngine(index));
+            setNodeCompleted(index);
             setExecutionCompleted(executionMetadata, execution, null);
         } finally {
-            log.trace("<< w: {}: {}","setCompleted",getEngine(executionPlan, executionNode));
+            log.trace("<< w: {}: {}","setCompleted",plan.getEngine(index));
             writeLock.unlock();
         }
     }
@@ -393,40 +484,38 @@ public class EnhancementJob {
      * {@link #setCompleted(NonLiteral) completed} or 
      * {@link #setFailed(NonLiteral, EnhancementEngine, Exception) failed}.<p>
      * This method expects to be called within an active {@link #writeLock}.
-     * @param executionNode the ep:ExecutionNode linked to the em:Execution that
-     * finished. 
-     */
-    private void setNodeCompleted(NonLiteral executionNode) {
-        String engine = getEngine(executionPlan, executionNode);
-        boolean optional = isOptional(executionPlan, executionNode);
-        Set<NonLiteral> dependsOn = getDependend(executionPlan, executionNode);
-        if (completed.contains(executionNode)) {
+     * @param index the index of the ep:ExecutionNode linked to the em:Execution
+     * that finished.
+     */
+    private void setNodeCompleted(int index) {
+        if (CompiledExecutionPlan.get(completed, index)) {
             log.warn("Execution of Engine '{}' for ContentItem {} already "
                      + "marked as completed(chain: {}, node: {}, optional {})."
                      + " -> call ignored", 
-                     new Object[] {engine, contentItem.getUri().getUnicodeString(),
-                                   chain, executionNode, optional});
+                     new Object[] {plan.getEngine(index), contentItem.getUri().getUnicodeString(),
+                                   chain, plan.getNode(index), plan.isOptional(index)});
             return;
         }
-        if (!completed.containsAll(dependsOn)) {
+        if (!plan.isDependendCompleted(index, completed)) {
             // TODO maybe define an own Exception for such cases
             throw new IllegalStateException("Unable to set state of ExectionNode '"
-                    + executionNode+ "' (chain '"+ chain
+                    + plan.getNode(index)+ "' (chain '"+ chain
                     + "' | contentItem '"+ contentItem.getUri()
                     + "') to completed, because some of its depended "
                     + "nodes are not marked completed yet. This indicates an Bug in the "
                     + "implementation of the JobManager used to execute the ExecutionPlan. "
-                    + "(this.dependsOn=" + dependsOn + "| chain.completed " + completed
-                    + " | chain.running " + running + ")!");
+                    + "(this.dependsOn=" + plan.getDependend(index) + "| chain.completed "
+                    + plan.toNodes(completed) + " | chain.running " + plan.toNodes(running) + ")!");
         }
-        if (running.remove(executionNode)) {
+        if (CompiledExecutionPlan.get(running, index)) {
+            CompiledExecutionPlan.clear(running, index);
             log.trace(
                 "Execution of '{}' for ContentItem {} completed "
                 + "(chain: {}, node: {}, optional {})",
-                new Object[] {engine, contentItem.getUri().getUnicodeString(), 
-                              chain, executionNode, optional});
+                new Object[] {plan.getEngine(index), contentItem.getUri().getUnicodeString(),
+                              chain, plan.getNode(index), plan.isOptional(index)});
         }
-        completed.add(executionNode);
+        CompiledExecutionPlan.set(completed, index);
         //update the set with the completed and running executables
         updateCompletedExec();
         updateRunningExec();
@@ -451,49 +540,49 @@ public class EnhancementJob {
         if(execution == null) {
             throw new IllegalArgumentException("The parsed em:Execution instance MUST NOT be NULL!");
         }
-        NonLiteral executionNode = getExecutionNode(execution);
-        String engine = getEngine(executionPlan, executionNode);
-        boolean optional = isOptional(executionPlan, executionNode);
-        Set<NonLiteral> dependsOn = getDependend(executionPlan, executionNode);
-        log.trace("++ w: {}: {}","setRunning",ExecutionPlanHelper.getEngine(executionPlan, executionNode));
+        int index = getExecutionIndex(execution);
+        String engine = plan.getEngine(index);
+        log.trace("++ w: {}: {}","setRunning",engine);
         writeLock.lock();
         try {
-            log.trace(">> w: {}: {}","setRunning",ExecutionPlanHelper.getEngine(executionPlan, executionNode));
-            if (completed.contains(executionNode)) {
-                String message = "Unable to set state of ExectionNode '" + executionNode + "'(chain '"
+            log.trace(">> w: {}: {}","setRunning",engine);
+            if (CompiledExecutionPlan.get(completed, index)) {
+                String message = "Unable to set state of ExectionNode '" + plan.getNode(index) + "'(chain '"
                                  + chain + "' | contentItem '" + contentItem.getUri()
                                  + "') to running, because"
                                  + "it is already marked as completed. This indicates "
                                  + "an Bug in the implementation of the JobManager "
                                  + "used to execute the ExecutionPlan (chain state: " + "completed "
-                                 + completed + " | running " + running + ")!";
+                                 + plan.toNodes(completed) + " | running " + plan.toNodes(running) + ")!";
                 log.error(message);
                 throw new IllegalStateException(message);
             }
-            if (!completed.containsAll(dependsOn)) {
+            if (!plan.isDependendCompleted(index, completed)) {
                 // TODO maybe define an own Exception for such cases
-                String message = "Unable to set state of ExectionNode '" + executionNode + "' (chain '"
+                String message = "Unable to set state of ExectionNode '" + plan.getNode(index) + "' (chain '"
                                  + chain + "' | contentItem '" + contentItem.getUri()
                                  + "') to running, because " + "some of its depended nodes are not marked "
                                  + "completed yet. This indicates an Bug in the "
                                  + "implementation of the JobManager used to execute "
-                                 + "the ExecutionPlan (this.dependsOn=" + dependsOn + "| chain.completed "
-                                 + completed + " | chain.running " + running + ")!";
+                                 + "the ExecutionPlan (this.dependsOn=" + plan.getDependend(index)
+                                 + "| chain.completed " + plan.toNodes(completed)
+                                 + " | chain.running " + plan.toNodes(running) + ")!";
                 log.error(message);
                 throw new IllegalStateException(message);
             }
-            if (!running.add(executionNode)) {
+            if (CompiledExecutionPlan.get(running, index)) {
                 log.warn("Execution of Engine '{}' for ContentItem {} already "
                          + "marked as running(chain: {}, node: {}, optional {})."
                          + " -> call ignored", 
                          new Object[] {engine, contentItem.getUri().getUnicodeString(),
-                                       chain, executionNode, optional});
+                                       chain, plan.getNode(index), plan.isOptional(index)});
                 return;
             } else { //added an engine to running
+                CompiledExecutionPlan.set(running, index);
                 log.trace("Started Execution of '{}' for ContentItem {} "
                          + "(chain: {}, node: {}, optional {})",
                     new Object[] {engine, contentItem.getUri().getUnicodeString(), chain,
-                                  executionNode, optional});
+                                  plan.getNode(index), plan.isOptional(index)});
                 //set the status of the execution to be in progress
                 ExecutionMetadataHelper.setExecutionInProgress(executionMetadata, execution);
                 // update the executables ... this will also recognise if finished
@@ -502,7 +591,7 @@ public class EnhancementJob {
                 checkExecutable();
             }
         } finally {
-            log.trace("<< w: {}: {}","setRunning",ExecutionPlanHelper.getEngine(executionPlan, executionNode));
+            log.trace("<< w: {}: {}","setRunning",engine);
             writeLock.unlock();
         }
     }
@@ -510,52 +599,53 @@ public class EnhancementJob {
      * updates the {@link #runningExec} based on {@link #running}
      */
     private void updateRunningExec() {
-        Set<NonLiteral> runningExec = new HashSet<NonLiteral>(running.size());
-        for(NonLiteral node : running){
-            runningExec.add(getExecution(node));
-        }
-        this.runningExec = Collections.unmodifiableSet(runningExec);
+        this.runningExec = toExecutions(running);
     }
     /**
-     * updates the {@link #runningExec} based on {@link #running}
+     * updates the {@link #completedExec} based on {@link #completed}
      */
     private void updateCompletedExec() {
-        Set<NonLiteral> completedExec = new HashSet<NonLiteral>(completed.size());
-        for(NonLiteral node : completed){
-            completedExec.add(getExecution(node));
+        this.completedExec = toExecutions(completed);
+    }
+    /**
+     * Converts a bit set of node indexes to an unmodifiable set with the
+     * em:Execution instances
+     * @param bits the bit set
+     * @return the unmodifiable set of em:Executions
+     */
+    private Set<NonLiteral> toExecutions(long[] bits){
+        int size = CompiledExecutionPlan.cardinality(bits);
+        if(size == 0){
+            return Collections.emptySet();
+        } else if(size == 1){
+            return Collections.singleton(executions[CompiledExecutionPlan.nextSetBit(bits, 0)]);
+        } else {
+            Set<NonLiteral> set = new HashSet<NonLiteral>(size * 2);
+            for(int i = CompiledExecutionPlan.nextSetBit(bits, 0); i >= 0;
+                    i = CompiledExecutionPlan.nextSetBit(bits, i + 1)){
+                set.add(executions[i]);
+            }
+            return Collections.unmodifiableSet(set);
         }
-        this.completedExec = Collections.unmodifiableSet(completedExec);
     }
     /**
      * updated the {@link #executable} and also checks for {@link #finished}<p>
      * Assumed to be called within a write lock!
      */
     private void checkExecutable(){
-        Set<NonLiteral> executeableNodes = 
-                ExecutionPlanHelper.getExecutable(executionPlan, completed);
         //a Chain finishes if no engine is running and no more nodes are executable
-        if(!ExecutionMetadata.STATUS_FAILED.equals(
-                getReference(executionMetadata, chainExecutionNode, STATUS))) { 
-            executeableNodes.removeAll(running);
-            if(log.isDebugEnabled()){
-                Collection<String> engines = new ArrayList<String>(executeableNodes.size());
-                for(NonLiteral node : executeableNodes){
-                    engines.add(getEngine(executionPlan, node));
+        if(!failed) {
+            long[] executeableNodes = plan.getExecutable(completed, running);
+            if(log.isTraceEnabled()){
+                Collection<String> engines = new ArrayList<String>();
+                for(int i = CompiledExecutionPlan.nextSetBit(executeableNodes, 0); i >= 0;
+                        i = CompiledExecutionPlan.nextSetBit(executeableNodes, i + 1)){
+                    engines.add(plan.getEngine(i));
                 }
                 log.trace("MARK {} as executeable",engines);
             }
             //we need to get the em:Executables for the ep:ExecutionNodes ...
-            if(executeableNodes.isEmpty()){
-                this.executable = Collections.emptySet();
-            } else if( executeableNodes.size() == 1){
-                this.executable = Collections.singleton(getExecution(executeableNodes.iterator().next()));
-            } else {
-                Set<NonLiteral> executable = new HashSet<NonLiteral>(executeableNodes.size());
-                for(NonLiteral exeutableNode : executeableNodes){
-                    executable.add(getExecution(exeutableNode));
-                }
-                this.executable = Collections.unmodifiableSet(executable);
-            }
+            this.executable = toExecutions(executeableNodes);
         } else {
             //do not mark engines as executeable if chain already failed
             this.executable = Collections.emptySet();
@@ -590,8 +680,8 @@ public class EnhancementJob {
         readLock.lock();
         try {
             log.trace(">> r: {}","isFinished");
-            return running.isEmpty() && // wait for running engine (regard if failed or not)
-                    (executable.isEmpty() || isFailed()); //no more engines or already failed
+            return CompiledExecutionPlan.isEmpty(running) && // wait for running engine (regard if failed or not)
+                    (executable.isEmpty() || failed); //no more engines or already failed
         } finally {
             log.trace("<< r: {}","isFinished");
             readLock.unlock();
@@ -602,13 +692,13 @@ public class EnhancementJob {
         if(execution == null) {
             throw new IllegalArgumentException("The parsed em:Execution instance MUST NOT be NULL!");
         }
-        NonLiteral executionNode = getExecutionNode(execution);
-        final boolean optional = isOptional(executionPlan, executionNode);
-        final String engineName = getEngine(executionPlan, executionNode);
-        log.trace("++ w: {}: {}","setFailed",ExecutionPlanHelper.getEngine(executionPlan, executionNode));
+        int index = getExecutionIndex(execution);
+        final boolean optional = plan.isOptional(index);
+        final String engineName = plan.getEngine(index);
+        log.trace("++ w: {}: {}","setFailed",engineName);
         writeLock.lock();
         try {
-            log.trace(">> w: {}: {}","setFailed",ExecutionPlanHelper.getEngine(executionPlan, executionNode));
+            log.trace(">> w: {}: {}","setFailed",engineName);
             StringBuilder message = new StringBuilder();
             message.append(String.format("Unable to process ContentItem '%s' with " +
             		"Enhancement Engine '%s' because the engine ", 
@@ -623,21 +713,24 @@ public class EnhancementJob {
                 message.append("(Reason: ").append(exception.getMessage()).append(')');
             }
             message.append('!');
-            setNodeCompleted(executionNode); //update the internal state
+            setNodeCompleted(index); //update the internal state
             //set this execution to failed
             setExecutionFaild(executionMetadata, execution, message.toString());
             //if not optional and the chain is not yet failed
-            if(!optional && !isExecutionFailed(executionMetadata, chainExecutionNode)){
+            if(!optional && !failed){
                 //set also the whole chain to faild!
                 String chainMessage = String.format(
                     "Enhancement Chain failed because of required Engine '%s' failed " +
                     "with Message: %s", engineName, message);
                 setExecutionFaild(executionMetadata, chainExecutionNode, chainMessage);
+                failed = true;
+                //no more executions after a required engine has failed
+                this.executable = Collections.emptySet();
                 error = exception; //this member stores the exception to allow
                 //re-throwing by the EnhancementJobManager.
             }
         } finally {
-            log.trace("<< w: {}: {}","setFailed",ExecutionPlanHelper.getEngine(executionPlan, executionNode));
+            log.trace("<< w: {}: {}","setFailed",engineName);
             writeLock.unlock();
         }
 
@@ -652,12 +745,26 @@ public class EnhancementJob {
         readLock.lock();
         try {
             log.trace(">> r: {}","isFailed");
-            return isExecutionFailed(executionMetadata, chainExecutionNode);
+            return failed;
         } finally {
             log.trace("<< r: {}","isFailed");
             readLock.unlock();
         }
     }
+    /**
+     * Cancels this job. Engines that are currently running will complete,
+     * but no further engines are executed.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+    /**
+     * If this job was {@link #cancel() cancelled}
+     * @return the state
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
 // NOTE: use default implementations of hashCode and equals for now as we need
 //       to support the concurrent enhancement of ContentItems with the same
 //       URI. Also two ContentItems with the same URI might still have other
@@ -27,14 +27,13 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Dictionary;
 import java.util.Hashtable;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.Semaphore;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.clerezza.rdf.core.MGraph;
 import org.apache.clerezza.rdf.core.NonLiteral;
@@ -72,11 +71,15 @@ public class EnhancementJobHandler implements EventHandler {
     /**
      * Keys are {@link EnhancementJob}s currently asynchronously enhancing 
      * contentItems and the values are the objects used to interrupt the 
-     * requesting thread as soon as the enhancement process has finished. 
+     * requesting thread as soon as the enhancement process has finished.<p>
+     * A {@link ConcurrentMap} is used so that registering, finishing and
+     * observing jobs does not require a global lock.
      */
-    private Map<EnhancementJob,EnhancementJobObserver> processingJobs;
-    private final ReadWriteLock processingLock = new ReentrantReadWriteLock();
-    private Thread observerDaemon;
+    private final ConcurrentMap<EnhancementJob,EnhancementJobObserver> processingJobs;
+    /**
+     * Set to <code>true</code> by {@link #close()}
+     */
+    private volatile boolean closed = false;
     
     public EnhancementJobHandler(EventAdmin eventAdmin, 
                                  EnhancementEngineManager engineManager) {
@@ -88,17 +91,7 @@ public class EnhancementJobHandler implements EventHandler {
         }
         this.eventAdmin = eventAdmin;
         this.engineManager = engineManager;
-        processingLock.writeLock().lock();
-        try {
-            processingJobs = new LinkedHashMap<EnhancementJob,EnhancementJobObserver>();
-        } finally{
-            processingLock.writeLock().unlock();
-        }
-        observerDaemon = new Thread(new EnhancementJobObserverDaemon());
-        observerDaemon.setName("Event Job Manager Observer Daemon");
-        observerDaemon.setDaemon(true);
-        observerDaemon.start();
-        
+        processingJobs = new ConcurrentHashMap<EnhancementJob,EnhancementJobObserver>();
     }
     /**
      * Closes this Handler and notifies all components that wait for still
@@ -106,85 +99,107 @@ public class EnhancementJobHandler implements EventHandler {
      */
     public void close(){
         log.info("deactivate {}",getClass().getName());
-        processingLock.writeLock().lock();
-        try {
-            for(Object o : processingJobs.values()){
-                synchronized (o) {
-                    o.notifyAll();
-                }
+        closed = true;
+        for(EnhancementJob job : processingJobs.keySet()){
+            EnhancementJobObserver observer = processingJobs.remove(job);
+            if(observer != null){
+                observer.release();
             }
-            processingJobs = null;
-        } finally {
-            processingLock.writeLock().unlock();
         }
-        observerDaemon = null;
+    }
+    /**
+     * The number of currently processed {@link EnhancementJob}s
+     * @return the number of active enhancement jobs
+     */
+    public int getProcessingJobCount(){
+        return processingJobs.size();
     }
     
     /**
      * Registers an EnhancementJob and will start the enhancement process.
      * When the process is finished or this service is deactivated the
-     * returned oject will be notified. Therefore callers that need to 
-     * wait for the completion of the parsed job will want to
+     * returned {@link EnhancementJobObserver} will be released. Therefore 
+     * callers that need to wait for the completion of the parsed job will 
+     * want to
      * <code><pre>
-     *   Object object = enhancementJobHandler.register();
-     *   while(!job.isFinished() & enhancementJobHandler != null){
-     *       synchronized (object) {
-     *           try {
-     *               object.wait();
-     *           } catch (InterruptedException e) {}
-     *       }
-     *   }
+     *   EnhancementJobObserver observer = enhancementJobHandler.register(job);
+     *   boolean completed = observer.waitForCompletion(maxWaitTime);
      * </pre></code>
      * @param enhancementJob the enhancement job to register
-     * @return An object that will get {@link Object#notifyAll()} as soon as
-     * {@link EnhancementJob#isFinished()} or this instance is deactivated
+     * @return The observer for the parsed job or <code>null</code> if
+     * <code>null</code> was parsed or this handler is already closed.
      */
     public EnhancementJobObserver register(EnhancementJob enhancementJob){
-        final boolean init;
-        EnhancementJobObserver observer;
-        processingLock.writeLock().lock();
-        try {
-            if(enhancementJob == null || processingJobs == null){
-                return null;
+        if(enhancementJob == null || closed){
+            return null;
+        }
+        EnhancementJobObserver observer = new EnhancementJobObserver(enhancementJob);
+        EnhancementJobObserver present = processingJobs.putIfAbsent(enhancementJob, observer);
+        if(present != null){
+            log.warn("Request to register an EnhancementJob for an ContentItem {} that is" +
+                    "already registered "+enhancementJob.getContentItem().getUri());
+            return present;
+        }
+        if(log.isDebugEnabled()){
+            logJobInfo(log, enhancementJob, "Add EnhancementJob:",log.isTraceEnabled());
+            log.debug(" -- {} active Enhancement Jobs",processingJobs.size());
+        }
+        if(closed){ //closed concurrently
+            if(processingJobs.remove(enhancementJob) != null){
+                observer.release();
             }
-            observer = processingJobs.get(enhancementJob);
-            if(observer == null){
-                observer = new EnhancementJobObserver(enhancementJob);
-                if(log.isDebugEnabled()){
-                    logJobInfo(log, enhancementJob, "Add EnhancementJob:",log.isTraceEnabled());
-                }
-                processingJobs.put(enhancementJob, observer);
-                init = true;
-            } else {
-                log.warn("Request to register an EnhancementJob for an ContentItem {} that is" +
-                		"already registered "+enhancementJob.getContentItem().getUri());
-                init = false;
+            return observer;
+        }
+        enhancementJob.startProcessing();
+        boolean finish = false;
+        log.trace("++ w: {}","init execution");
+        enhancementJob.getLock().writeLock().lock();
+        try {
+            log.trace(">> w: {}","init execution");
+            if(!executeNextNodes(enhancementJob)){
+                String message = "Unable to start Execution of "+enhancementJob.getContentItem().getUri();
+                log.warn(message);
+                logJobInfo(log, enhancementJob, null, true);
+                log.warn("finishing job ...");
+                finish = true;
             }
         } finally {
-            processingLock.writeLock().unlock();
+            log.trace("<< w: {}","init execution");
+            enhancementJob.getLock().writeLock().unlock();
         }
-        if(init){
-            observer.acquire();
-            enhancementJob.startProcessing();
-            log.trace("++ w: {}","init execution");
-            enhancementJob.getLock().writeLock().lock();
-            try {
-                log.trace(">> w: {}","init execution");
-                if(!executeNextNodes(enhancementJob)){
-                    String message = "Unable to start Execution of "+enhancementJob.getContentItem().getUri();
-                    log.warn(message);
-                    logJobInfo(log, enhancementJob, null, true);
-                    log.warn("finishing job ...");
-                    finish(enhancementJob);
-                }
-            } finally {
-                log.trace("<< w: {}","init execution");
-                enhancementJob.getLock().writeLock().unlock();
-            }
+        if(finish){ //finish outside of the write lock
+            finish(enhancementJob);
         }
         return observer;
     }
 
+    /**
+     * Cancels a registered {@link EnhancementJob} (e.g. because the caller
+     * does no longer wait for the results). Engines that are currently
+     * running will complete, but no further engines of the job are executed.
+     * The {@link EnhancementJobObserver} of the job is released.
+     * @param enhancementJob the job to cancel
+     * @return <code>true</code> if the parsed job was registered with this
+     * handler and is now cancelled
+     */
+    public boolean cancel(EnhancementJob enhancementJob){
+        if(enhancementJob == null){
+            return false;
+        }
+        //mark the job as cancelled before removing it so that no further
+        //executions are started for it
+        enhancementJob.cancel();
+        EnhancementJobObserver observer = processingJobs.remove(enhancementJob);
+        if(observer != null){
+            log.debug("cancelled EnhancementJob for ContentItem {}",
+                enhancementJob.getContentItem().getUri());
+            observer.release();
+            return true;
+        } else {
+            return false;
+        }
+    }
+
     @Override
     public void handleEvent(Event event) {
         EnhancementJob job = (EnhancementJob)event.getProperty(PROPERTY_JOB_MANAGER);
@@ -193,6 +208,11 @@ public class EnhancementJobHandler implements EventHandler {
             log.warn("Unable to process EnhancementEvent where EnhancementJob " +
             		"{} or Execution node {} is null -> ignore",job,execution);
         }
+        if(job.isCancelled()){
+            log.debug("ignore Execution of Engine {} for cancelled EnhancementJob of ContentItem {}",
+                job.getEngine(execution), job.getContentItem().getUri());
+            return;
+        }
         try {
             processEvent(job, execution);
         } catch (Throwable t) {
@@ -204,25 +224,29 @@ public class EnhancementJobHandler implements EventHandler {
            log.error(message,t);
         }
         //(2) trigger the next actions
+        if(job.isCancelled()){ //cancelled while the engine was running
+            return;
+        }
+        boolean finish = false;
         log.trace("++ w: {}","check for next Executions");
         job.getLock().writeLock().lock();
         log.trace(">> w: {}","check for next Executions");
         try {
             if(job.isFinished()){
-                finish(job);
+                finish = true;
             } else if(!job.isFailed()){
                 if(!executeNextNodes(job) && job.getRunning().isEmpty()){
                     log.warn("Unexpected state in the Execution of ContentItem {}:"
                         + " Job is not finished AND no executions are running AND"
                         + " no further execution could be started! -> finishing"
                         + " this job :(");
-                    finish(job);
+                    finish = true;
                 } //else execution started of other jobs are running
             } else {
                 if(log.isInfoEnabled()){
                     Collection<String> running = new ArrayList<String>(3);
                     for(NonLiteral runningNode : job.getRunning()){
-                        running.add(getEngine(job.getExecutionPlan(), job.getExecutionNode(runningNode)));
+                        running.add(job.getEngine(runningNode));
                     }
                     log.info("Job {} failed, but {} still running!",
                         job.getContentItem().getUri(),running);
@@ -232,14 +256,18 @@ public class EnhancementJobHandler implements EventHandler {
             log.trace("<< w: {}","check for next Executions");
             job.getLock().writeLock().unlock();
         }
+        //notify the observer outside of the write lock as registered
+        //completion listeners might want to read the content item
+        if(finish){
+            finish(job);
+        }
     }
     /**
      * @param job
      * @param execution
      */
     private void processEvent(EnhancementJob job, NonLiteral execution) {
-        String engineName = getEngine(job.getExecutionPlan(), 
-            job.getExecutionNode(execution));
+        String engineName = job.getEngine(execution);
         //(1) execute the parsed ExecutionNode
         EnhancementEngine engine = engineManager.getEngine(engineName);
         if(engine != null){
@@ -304,13 +332,7 @@ public class EnhancementJobHandler implements EventHandler {
      * @param job the finished job
      */
     private void finish(EnhancementJob job){
-        processingLock.writeLock().lock();
-        EnhancementJobObserver observer;
-        try {
-            observer = processingJobs.remove(job);
-        } finally {
-            processingLock.writeLock().unlock();
-        }
+        EnhancementJobObserver observer = processingJobs.remove(job);
         if(observer != null) {
             try {
                 if(log.isDebugEnabled()){
@@ -319,7 +341,7 @@ public class EnhancementJobHandler implements EventHandler {
                 log.trace("++ n: finished processing ContentItem {} with Chain {}",
                     job.getContentItem().getUri(),job.getChainName());
             } finally {
-                //release the semaphore to send signal to the EventJobManager waiting
+                //release the observer to send signal to the EventJobManager waiting
                 //for the results
                 observer.release();
             }
@@ -342,7 +364,7 @@ public class EnhancementJobHandler implements EventHandler {
         for(NonLiteral executable : job.getExecutable()){
             if(log.isTraceEnabled()){
                 log.trace("PREPARE execution of Engine {}",
-                    getEngine(job.getExecutionPlan(), job.getExecutionNode(executable)));
+                    job.getEngine(executable));
             }
             Dictionary<String,Object> properties = new Hashtable<String,Object>();
             properties.put(PROPERTY_JOB_MANAGER, job);
@@ -350,7 +372,7 @@ public class EnhancementJobHandler implements EventHandler {
             job.setRunning(executable);
             if(log.isTraceEnabled()){
                 log.trace("SHEDULE execution of Engine {}",
-                    getEngine(job.getExecutionPlan(), job.getExecutionNode(executable)));
+                    job.getEngine(executable));
             }
             eventAdmin.postEvent(new Event(TOPIC_JOB_MANAGER,properties));
             startedExecution = true;
@@ -437,31 +459,70 @@ public class EnhancementJobHandler implements EventHandler {
             log.info("Reported Exception:",job.getError());
         }
     }
+    /**
+     * Completion handle for an {@link EnhancementJob} registered with the
+     * {@link EnhancementJobHandler}. Released exactly once when the job
+     * finishes or the handler is closed. Waiting callers only block on the
+     * {@link CountDownLatch} of their own job. Callers that do not want to
+     * block can register {@link #addCompletionListener(Runnable) completion
+     * listeners} instead.
+     */
     public class EnhancementJobObserver{
         
         private static final int MIN_WAIT_TIME = 500;
         private final EnhancementJob enhancementJob;
-        private final Semaphore semaphore;
+        private final CountDownLatch latch;
+        private final Queue<Runnable> listeners = new ConcurrentLinkedQueue<Runnable>();
         
         private EnhancementJobObserver(EnhancementJob job){
             if(job == null){
                 throw new IllegalArgumentException("The parsed EnhancementJob MUST NOT be NULL!");
             }
             this.enhancementJob = job;
-            this.semaphore = new Semaphore(1);
-        }
-
-        protected void acquire() {
-            try {
-                semaphore.acquire();
-            } catch (InterruptedException e) {
-                log.warn("Interrupted while acquireing Semaphore for EnhancementJob "
-                        + enhancementJob + "!",e);
-            }
+            this.latch = new CountDownLatch(1);
         }
         
         protected void release() {
-            semaphore.release();
+            latch.countDown();
+            notifyListeners();
+        }
+        /**
+         * Adds a listener that is called (exactly once) as soon as this observer
+         * is released. If the observer is already released the listener is
+         * called by the current thread.
+         * @param listener the listener
+         */
+        public void addCompletionListener(Runnable listener) {
+            if(listener == null){
+                throw new IllegalArgumentException("The parsed listener MUST NOT be NULL!");
+            }
+            listeners.add(listener);
+            if(isReleased()){
+                notifyListeners();
+            }
+        }
+        /**
+         * Calls and removes all registered listeners. Polling the listeners
+         * from the queue ensures that each listener is only called once even
+         * if this method is called concurrently.
+         */
+        private void notifyListeners() {
+            Runnable listener;
+            while((listener = listeners.poll()) != null){
+                try {
+                    listener.run();
+                } catch (RuntimeException e) {
+                    log.warn("Exception while notifying completion listener of "
+                        + enhancementJob + "!", e);
+                }
+            }
+        }
+        /**
+         * If this observer was already released
+         * @return the state
+         */
+        public boolean isReleased(){
+            return latch.getCount() == 0;
         }
 
         public boolean hasCompleted() {
@@ -474,85 +535,15 @@ public class EnhancementJobHandler implements EventHandler {
         }
 
         public boolean waitForCompletion(int maxEnhancementJobWaitTime) {
-            boolean finished = false;
-            if(semaphore.availablePermits() < 1){
-                // The only permit is taken by the EnhancementJobHander
-                try {
-                    finished = semaphore.tryAcquire(1,
-                        Math.max(MIN_WAIT_TIME, maxEnhancementJobWaitTime),TimeUnit.MILLISECONDS);
-                } catch (InterruptedException e) {
-                    //interupted
-                    finished = false;
-                }
-            } else if(!hasCompleted()){
-                log.error("Unexpected {} permit(s) (expected = 0) available for "
-                    + "Semaphore of  EnhancementJob of ContentItem {}. Please "
-                    + "report this on dev@stanbol.apache.org and/or the Apache "
-                    + "Stanbol Issue Tracker.", semaphore.availablePermits(),
-                    enhancementJob.getContentItem().getUri());
-                finished = false;
-            } else { //already completed
-                finished = true;
-            }
-            return finished;
-        }
-    }
-    
-    
-    /**
-     * Currently only used to debug the number of currently registered
-     * Enhancements Jobs (if there are some)
-     * @author Rupert Westenthaler
-     */
-    private class EnhancementJobObserverDaemon implements Runnable {
-
-        /**
-         * The logger of the Observer. Can be used to configure Loglevel specificly
-         * 
-         */
-        private Logger observerLog = LoggerFactory.getLogger(EnhancementJobObserverDaemon.class);
-        
-        @Override
-        public void run() {
-            observerLog.debug(" ... init EnhancementJobObserver");
-            while(processingJobs != null){
-                try {
-                    Thread.sleep(10000);
-                } catch (InterruptedException e) {
-                }
-                Collection<EnhancementJob> jobs;
-                Lock readLock = processingLock.readLock();
-                readLock.lock();
-                try {
-                    if(processingJobs != null){
-                        jobs = new ArrayList<EnhancementJob>(processingJobs.keySet());
-                    } else {
-                        jobs = Collections.emptyList();
-                    }
-                } finally {
-                    readLock.unlock();
-                }
-                if(!jobs.isEmpty()){
-                    observerLog.debug(" -- {} active Enhancement Jobs",jobs.size());
-                    if(observerLog.isDebugEnabled()){
-                        for(EnhancementJob job : jobs){
-                            Lock jobLock = job.getLock().readLock();
-                            jobLock.lock();
-                            try {
-                                logJobInfo(observerLog,job,null,true);
-                            } finally {
-                                jobLock.unlock();
-                            }
-                        }
-                    }
-                } else {
-                    log.debug(" -- No active Enhancement Jobs");
-                }
+            try {
+                return latch.await(Math.max(MIN_WAIT_TIME, maxEnhancementJobWaitTime),
+                    TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                //interupted
+                Thread.currentThread().interrupt();
+                return false;
             }
-            
         }
-        
     }
     
-    
 }
\ No newline at end of file
@@ -24,7 +24,17 @@ import java.util.Dictionary;
 import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.clerezza.rdf.core.Graph;
 import org.apache.clerezza.rdf.core.Triple;
@@ -39,13 +49,16 @@ import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
 import org.apache.stanbol.enhancer.jobmanager.event.impl.EnhancementJobHandler.EnhancementJobObserver;
+import org.apache.stanbol.enhancer.servicesapi.AsyncEnhancementJobManager;
 import org.apache.stanbol.enhancer.servicesapi.Chain;
 import org.apache.stanbol.enhancer.servicesapi.ChainException;
 import org.apache.stanbol.enhancer.servicesapi.ChainManager;
 import org.apache.stanbol.enhancer.servicesapi.ContentItem;
 import org.apache.stanbol.enhancer.servicesapi.EngineException;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementCallback;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementEngineManager;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementException;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementJobManager;
 import org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper;
 import org.apache.stanbol.enhancer.servicesapi.helper.execution.Execution;
@@ -65,7 +78,7 @@ import org.slf4j.LoggerFactory;
     @Property(name=Constants.SERVICE_RANKING,intValue=EventJobManagerImpl.DEFAULT_SERVICE_RANKING),
     @Property(name=EventJobManagerImpl.MAX_ENHANCEMENT_JOB_WAIT_TIME,intValue=EventJobManagerImpl.DEFAULT_MAX_ENHANCEMENT_JOB_WAIT_TIME)
 })
-public class EventJobManagerImpl implements EnhancementJobManager {
+public class EventJobManagerImpl implements EnhancementJobManager, AsyncEnhancementJobManager {
 
     private final Logger log = LoggerFactory.getLogger(EventJobManagerImpl.class);
     /**
@@ -98,8 +111,24 @@ public class EventJobManagerImpl implements EnhancementJobManager {
     protected Serializer serializer;
     
     private ServiceRegistration jobHandlerRegistration;
-    private EnhancementJobHandler jobHandler;
+    private volatile EnhancementJobHandler jobHandler;
     private int maxEnhancementJobWaitTime = DEFAULT_MAX_ENHANCEMENT_JOB_WAIT_TIME;
+    /**
+     * Cache for {@link CompiledExecutionPlan}s by {@link Chain#getName() chain name}.
+     * A cached instance is only used if {@link CompiledExecutionPlan#getExecutionPlan()}
+     * is the same instance as returned by {@link Chain#getExecutionPlan()}.
+     */
+    private final Map<String,CompiledExecutionPlan> compiledPlans = 
+            new ConcurrentHashMap<String,CompiledExecutionPlan>();
+    /**
+     * Used to notify {@link EnhancementCallback}s of asynchronous enhancement
+     * requests.
+     */
+    private volatile ExecutorService callbackExecutor;
+    /**
+     * Used to time out asynchronous enhancement requests
+     */
+    private volatile ScheduledExecutorService timeoutService;
     
     
     /**
@@ -121,6 +150,10 @@ public class EventJobManagerImpl implements EnhancementJobManager {
         if (maxWaitTime instanceof Integer) {
             this.maxEnhancementJobWaitTime = (Integer) maxWaitTime;
         }
+        callbackExecutor = Executors.newCachedThreadPool(
+            new NamedThreadFactory("Enhancement Callback"));
+        timeoutService = Executors.newSingleThreadScheduledExecutor(
+            new NamedThreadFactory("Enhancement Timeout"));
     }
     /**
      * Unregisters the {@link EnhancementJobHandler}
@@ -137,6 +170,34 @@ public class EventJobManagerImpl implements EnhancementJobManager {
         jobHandler.close();
         jobHandlerRegistration.unregister();
         jobHandlerRegistration = null;
+        compiledPlans.clear();
+        //NOTE: the callbackExecutor is shut down after closing the handler so
+        //      that callbacks of closed jobs are still notified
+        if(callbackExecutor != null){
+            callbackExecutor.shutdown();
+            callbackExecutor = null;
+        }
+        if(timeoutService != null){
+            timeoutService.shutdownNow();
+            timeoutService = null;
+        }
+    }
+    /**
+     * {@link ThreadFactory} that creates daemon threads with the parsed name
+     * prefix.
+     */
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+        NamedThreadFactory(String prefix){
+            this.prefix = prefix;
+        }
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, prefix + " Thread-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
     }
     
     @Override
@@ -152,6 +213,90 @@ public class EventJobManagerImpl implements EnhancementJobManager {
 
     @Override
     public void enhanceContent(ContentItem ci, Chain chain) throws EngineException, ChainException {
+        long start = System.currentTimeMillis();
+        EnhancementJob job = createJob(ci, chain);
+        //start the execution
+        EnhancementJobObserver observer = register(job);
+        //now wait for the execution to finish for the configured maximum time
+        boolean completed = observer.waitForCompletion(maxEnhancementJobWaitTime);
+        checkResult(job, chain, start, completed);
+    }
+
+    @Override
+    public void enhanceContent(final ContentItem ci, final Chain chain, 
+            final EnhancementCallback callback) throws EngineException, ChainException {
+        if(callback == null){
+            throw new IllegalArgumentException("The parsed EnhancementCallback MUST NOT be NULL!");
+        }
+        final long start = System.currentTimeMillis();
+        final EnhancementJob job = createJob(ci, chain);
+        final ExecutorService callbackExecutor = this.callbackExecutor;
+        final ScheduledExecutorService timeoutService = this.timeoutService;
+        if(callbackExecutor == null || timeoutService == null){
+            throw new ChainException("Unable to enhance ContentItem '"+ci.getUri()
+                + "' because the EnhancementJobManager is deactivated (EnhancementJobManager type: "
+                + getClass()+")");
+        }
+        //ensures that the callback is only notified once (completion or timeout)
+        final AtomicBoolean notified = new AtomicBoolean(false);
+        final EnhancementJobObserver observer = register(job);
+        final ScheduledFuture<?> timeout = timeoutService.schedule(new Runnable() {
+            @Override
+            public void run() {
+                if(notified.compareAndSet(false, true)){
+                    callbackExecutor.execute(new CallbackTask(job, chain, start, false, callback));
+                }
+            }
+        }, maxEnhancementJobWaitTime, TimeUnit.MILLISECONDS);
+        observer.addCompletionListener(new Runnable() {
+            @Override
+            public void run() {
+                timeout.cancel(false);
+                if(notified.compareAndSet(false, true)){
+                    callbackExecutor.execute(new CallbackTask(job, chain, start, true, callback));
+                }
+            }
+        });
+    }
+    /**
+     * Notifies an {@link EnhancementCallback} about the result of an
+     * {@link EnhancementJob}.
+     */
+    private class CallbackTask implements Runnable {
+        
+        private final EnhancementJob job;
+        private final Chain chain;
+        private final long start;
+        private final boolean completed;
+        private final EnhancementCallback callback;
+
+        CallbackTask(EnhancementJob job, Chain chain, long start, boolean completed,
+                EnhancementCallback callback){
+            this.job = job;
+            this.chain = chain;
+            this.start = start;
+            this.completed = completed;
+            this.callback = callback;
+        }
+        @Override
+        public void run() {
+            ContentItem ci = job.getContentItem();
+            try {
+                checkResult(job, chain, start, completed);
+            } catch (EnhancementException e) {
+                callback.failed(ci, e);
+                return;
+            } catch (RuntimeException e) {
+                callback.failed(ci, e);
+                return;
+            }
+            callback.completed(ci);
+        }
+    }
+    /**
+     * Creates the {@link EnhancementJob} for the parsed content item and chain
+     */
+    private EnhancementJob createJob(ContentItem ci, Chain chain) throws ChainException {
         if(ci == null) {
             throw new IllegalArgumentException("The parsed contentItem MUST NOT be NULL!");
         }
@@ -159,20 +304,49 @@ public class EventJobManagerImpl implements EnhancementJobManager {
             throw new IllegalArgumentException("Unable to enhance ContentItem '"+ci.getUri()+
                 "' because NULL was passed as enhancement chain");
         }
-        long start = System.currentTimeMillis();
         boolean isDefaultChain = chain.equals(chainManager.getDefault());
-        EnhancementJob job = new EnhancementJob(ci, chain.getName(), chain.getExecutionPlan(),isDefaultChain);
-        //start the execution
-        //wait for the results
-        EnhancementJobObserver observer = jobHandler.register(job);
-        //now wait for the execution to finish for the configured maximum time
-        boolean completed = observer.waitForCompletion(maxEnhancementJobWaitTime);
+        return new EnhancementJob(ci, chain.getName(), getCompiledExecutionPlan(chain),isDefaultChain);
+    }
+    /**
+     * Registers the parsed job with the {@link EnhancementJobHandler} and
+     * starts the execution
+     * @return the observer for the job
+     * @throws ChainException if this EnhancementJobManager is deactivated
+     */
+    private EnhancementJobObserver register(EnhancementJob job) throws ChainException {
+        EnhancementJobHandler jobHandler = this.jobHandler;
+        EnhancementJobObserver observer = jobHandler == null ? null : jobHandler.register(job);
+        if(observer == null){
+            throw new ChainException("Unable to enhance ContentItem '"+job.getContentItem().getUri()
+                + "' because the EnhancementJobManager is deactivated (EnhancementJobManager type: "
+                + getClass()+")");
+        }
+        return observer;
+    }
+    /**
+     * Checks the result of an {@link EnhancementJob} and throws the
+     * according exceptions if the job has failed or timed out. Jobs that
+     * timed out are cancelled.
+     * @param job the job
+     * @param chain the chain
+     * @param start the start time of the enhancement process
+     * @param completed if the job completed (<code>false</code> on timeouts)
+     */
+    private void checkResult(EnhancementJob job, Chain chain, long start, boolean completed) 
+            throws ChainException {
+        ContentItem ci = job.getContentItem();
         if(!completed){ //throw timeout exception
             StringBuilder sb = new StringBuilder("Status:\n");
             ExecutionMetadata em = ExecutionMetadata.parseFrom(job.getExecutionMetadata(), ci.getUri());
             for(Entry<String,Execution> ex : em.getEngineExecutions().entrySet()){
                 sb.append("  -").append(ex.getKey()).append(": ").append(ex.getValue().getStatus()).append('\n');
             }
+            //the caller does no longer wait for the results. So cancel the job
+            //to avoid executing the remaining engines
+            EnhancementJobHandler jobHandler = this.jobHandler;
+            if(jobHandler != null){
+                jobHandler.cancel(job);
+            }
             throw new ChainException("Execution timeout after "
                     +((System.currentTimeMillis()-start)/1000f)+"sec (timeout:"+(maxEnhancementJobWaitTime/1000)
                 + "sec) for ContentItem "+ci.getUri()+"\n"+sb.toString()
@@ -213,6 +387,30 @@ public class EventJobManagerImpl implements EnhancementJobManager {
         	//log infos about the execution times to the enhancementJobManager
         	EnhancementJobHandler.logExecutionTimes(enhancementJobManager, job);
         }
+    }
+    /**
+     * Getter for the {@link CompiledExecutionPlan} of the parsed chain. Plans
+     * are only compiled if the {@link Chain#getExecutionPlan()} has changed
+     * since the last call.
+     * @param chain the chain
+     * @return the compiled execution plan
+     * @throws ChainException if the execution plan of the chain is not
+     * available or can not be compiled
+     */
+    private CompiledExecutionPlan getCompiledExecutionPlan(Chain chain) throws ChainException {
+        Graph executionPlan = chain.getExecutionPlan();
+        CompiledExecutionPlan plan = compiledPlans.get(chain.getName());
+        if(plan == null || plan.getExecutionPlan() != executionPlan){
+            try {
+                plan = CompiledExecutionPlan.compile(executionPlan);
+            } catch (IllegalArgumentException e) {
+                throw new ChainException("Unable to compile the execution plan of Chain '"
+                    + chain.getName() + "'!", e);
+            }
+            log.debug("compiled execution plan for Chain {}: {}", chain.getName(), plan);
+            compiledPlans.put(chain.getName(), plan);
+        }
+        return plan;
     }
 	/**
 	 * Logs the ExecutionMetadata 
@@ -0,0 +1,95 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jobmanager.event.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.clerezza.rdf.core.MGraph;
+import org.apache.clerezza.rdf.core.NonLiteral;
+import org.apache.stanbol.commons.indexedgraph.IndexedMGraph;
+import org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests the {@link CompiledExecutionPlan} and its bit set operations.
+ */
+public class CompiledExecutionPlanTest {
+
+    private static CompiledExecutionPlan plan;
+
+    @BeforeClass
+    public static void init(){
+        //e1 -> (e2, e3) -> e4
+        MGraph ep = new IndexedMGraph();
+        NonLiteral epNode = ExecutionPlanHelper.createExecutionPlan(ep, "test-chain");
+        NonLiteral e1 = ExecutionPlanHelper.writeExecutionNode(ep, epNode, "e1", false, null);
+        NonLiteral e2 = ExecutionPlanHelper.writeExecutionNode(ep, epNode, "e2", false, Collections.singleton(e1));
+        NonLiteral e3 = ExecutionPlanHelper.writeExecutionNode(ep, epNode, "e3", true, Collections.singleton(e1));
+        Set<NonLiteral> dependsOn = new HashSet<NonLiteral>();
+        dependsOn.add(e2);
+        dependsOn.add(e3);
+        ExecutionPlanHelper.writeExecutionNode(ep, epNode, "e4", false, dependsOn);
+        plan = CompiledExecutionPlan.compile(ep.getGraph());
+    }
+
+    @Test
+    public void testCompiledExecutionPlan(){
+        assertEquals(4, plan.size());
+        long[] completed = plan.createBitSet();
+        long[] running = plan.createBitSet();
+        long[] executable = plan.getExecutable(completed, running);
+        assertEquals(1, CompiledExecutionPlan.cardinality(executable));
+        int e1 = CompiledExecutionPlan.nextSetBit(executable, 0);
+        assertEquals("e1", plan.getEngine(e1));
+        CompiledExecutionPlan.set(completed, e1);
+        executable = plan.getExecutable(completed, running);
+        assertEquals(2, CompiledExecutionPlan.cardinality(executable));
+        for(int i = CompiledExecutionPlan.nextSetBit(executable, 0); i >= 0;
+                i = CompiledExecutionPlan.nextSetBit(executable, i + 1)){
+            assertTrue(plan.getEngine(i).equals("e2") || plan.getEngine(i).equals("e3"));
+            assertFalse(plan.isDependendCompleted(i, plan.createBitSet()));
+            CompiledExecutionPlan.set(running, i);
+        }
+        assertTrue(CompiledExecutionPlan.isEmpty(plan.getExecutable(completed, running)));
+    }
+
+    @Test
+    public void testBitSetWordBoundaries(){
+        long[] bits = new long[3];
+        assertTrue(CompiledExecutionPlan.isEmpty(bits));
+        assertEquals(-1, CompiledExecutionPlan.nextSetBit(bits, 0));
+        CompiledExecutionPlan.set(bits, 0);
+        CompiledExecutionPlan.set(bits, 63);
+        CompiledExecutionPlan.set(bits, 64);
+        CompiledExecutionPlan.set(bits, 191);
+        assertEquals(4, CompiledExecutionPlan.cardinality(bits));
+        assertEquals(63, CompiledExecutionPlan.nextSetBit(bits, 1));
+        assertEquals(64, CompiledExecutionPlan.nextSetBit(bits, 64));
+        assertEquals(191, CompiledExecutionPlan.nextSetBit(bits, 65));
+        CompiledExecutionPlan.clear(bits, 63);
+        assertFalse(CompiledExecutionPlan.get(bits, 63));
+        assertTrue(CompiledExecutionPlan.get(bits, 64));
+        assertEquals(64, CompiledExecutionPlan.nextSetBit(bits, 1));
+    }
+}
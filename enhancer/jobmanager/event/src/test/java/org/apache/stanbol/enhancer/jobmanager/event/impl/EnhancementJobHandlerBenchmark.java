@@ -0,0 +1,97 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jobmanager.event.impl;
+
+import static org.apache.stanbol.enhancer.jobmanager.event.impl.EnhancementJobHandlerTest.CHAIN;
+import static org.apache.stanbol.enhancer.jobmanager.event.impl.EnhancementJobHandlerTest.MAX_WAIT_TIME;
+import static org.apache.stanbol.enhancer.jobmanager.event.impl.EnhancementJobHandlerTest.createContentItem;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.stanbol.enhancer.jobmanager.event.impl.EnhancementJobHandler.EnhancementJobObserver;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reports the throughput of the {@link EnhancementJobHandler} for 1 to 32
+ * concurrent submitters. Only executed with the <code>benchmark</code>
+ * profile (<code>mvn test -P benchmark</code>).
+ */
+public class EnhancementJobHandlerBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(EnhancementJobHandlerBenchmark.class);
+
+    private static final int JOBS_PER_SUBMITTER = 200;
+
+    @BeforeClass
+    public static void init(){
+        EnhancementJobHandlerTest.init();
+    }
+
+    @AfterClass
+    public static void close(){
+        EnhancementJobHandlerTest.close();
+    }
+
+    @Test
+    public void benchmarkConcurrentSubmitters() throws Exception {
+        for(int submitters = 1; submitters <= 32; submitters = submitters * 2){
+            ExecutorService submitterPool = Executors.newFixedThreadPool(submitters);
+            List<Future<Integer>> results = new ArrayList<Future<Integer>>(submitters);
+            long start = System.nanoTime();
+            for(int i = 0; i < submitters; i++){
+                results.add(submitterPool.submit(new Submitter()));
+            }
+            int completed = 0;
+            for(Future<Integer> result : results){
+                completed = completed + result.get();
+            }
+            long duration = System.nanoTime() - start;
+            submitterPool.shutdown();
+            assertEquals(submitters * JOBS_PER_SUBMITTER, completed);
+            log.info(" - {} submitters: {} jobs in {}ms ({} jobs/sec)", new Object[]{
+                    submitters, completed, TimeUnit.NANOSECONDS.toMillis(duration),
+                    Math.round(completed / (duration / 1000000000d))});
+        }
+    }
+
+    private static class Submitter implements Callable<Integer> {
+        @Override
+        public Integer call() throws Exception {
+            int completed = 0;
+            for(int i = 0; i < JOBS_PER_SUBMITTER; i++){
+                EnhancementJob job = new EnhancementJob(createContentItem(), CHAIN,
+                    EnhancementJobHandlerTest.plan, false);
+                EnhancementJobObserver observer = EnhancementJobHandlerTest.jobHandler.register(job);
+                if(observer.waitForCompletion(MAX_WAIT_TIME) && job.isFinished() && !job.isFailed()){
+                    completed++;
+                }
+            }
+            return completed;
+        }
+    }
+}
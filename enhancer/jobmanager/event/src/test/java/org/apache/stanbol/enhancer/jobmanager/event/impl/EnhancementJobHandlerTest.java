@@ -0,0 +1,252 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jobmanager.event.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.clerezza.rdf.core.Graph;
+import org.apache.clerezza.rdf.core.MGraph;
+import org.apache.clerezza.rdf.core.NonLiteral;
+import org.apache.clerezza.rdf.core.UriRef;
+import org.apache.stanbol.commons.indexedgraph.IndexedMGraph;
+import org.apache.stanbol.enhancer.jobmanager.event.impl.EnhancementJobHandler.EnhancementJobObserver;
+import org.apache.stanbol.enhancer.servicesapi.Blob;
+import org.apache.stanbol.enhancer.servicesapi.ContentItem;
+import org.apache.stanbol.enhancer.servicesapi.EngineException;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementEngineManager;
+import org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper;
+import org.apache.stanbol.enhancer.servicesapi.impl.ContentItemImpl;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.osgi.framework.ServiceReference;
+import org.osgi.service.event.Event;
+import org.osgi.service.event.EventAdmin;
+
+/**
+ * Tests the {@link EnhancementJobHandler} with an {@link EventAdmin} that
+ * delivers events by using a thread pool. The throughput for 1 to 32
+ * concurrent submitters is reported by the
+ * {@link EnhancementJobHandlerBenchmark}.
+ */
+public class EnhancementJobHandlerTest {
+
+    static final String CHAIN = "test-chain";
+    static final int MAX_WAIT_TIME = 10000;
+
+    private static ExecutorService eventExecutor;
+    static EnhancementJobHandler jobHandler;
+    static CompiledExecutionPlan plan;
+    private static final AtomicInteger count = new AtomicInteger();
+
+    @BeforeClass
+    public static void init(){
+        eventExecutor = Executors.newFixedThreadPool(8);
+        jobHandler = new EnhancementJobHandler(new TestEventAdmin(), new TestEngineManager());
+        //e1 -> (e2, e3) -> e4
+        MGraph ep = new IndexedMGraph();
+        NonLiteral epNode = ExecutionPlanHelper.createExecutionPlan(ep, CHAIN);
+        NonLiteral e1 = ExecutionPlanHelper.writeExecutionNode(ep, epNode, "e1", false, null);
+        NonLiteral e2 = ExecutionPlanHelper.writeExecutionNode(ep, epNode, "e2", false, Collections.singleton(e1));
+        NonLiteral e3 = ExecutionPlanHelper.writeExecutionNode(ep, epNode, "e3", true, Collections.singleton(e1));
+        Set<NonLiteral> dependsOn = new HashSet<NonLiteral>();
+        dependsOn.add(e2);
+        dependsOn.add(e3);
+        ExecutionPlanHelper.writeExecutionNode(ep, epNode, "e4", false, dependsOn);
+        Graph executionPlan = ep.getGraph();
+        plan = CompiledExecutionPlan.compile(executionPlan);
+    }
+
+    @AfterClass
+    public static void close(){
+        jobHandler.close();
+        eventExecutor.shutdown();
+    }
+
+    @Test
+    public void testEnhancement() throws Exception {
+        EnhancementJob job = new EnhancementJob(createContentItem(), CHAIN, plan, false);
+        EnhancementJobObserver observer = jobHandler.register(job);
+        assertNotNull(observer);
+        assertTrue(observer.waitForCompletion(MAX_WAIT_TIME));
+        assertTrue(job.isFinished());
+        assertFalse(job.isFailed());
+        assertEquals(4, job.getCompleted().size());
+        assertTrue(job.getRunning().isEmpty());
+    }
+
+    /**
+     * Registers jobs from several threads that are started at the same time
+     * and checks that every job completes and that the completion listener
+     * of every job is called exactly once.
+     */
+    @Test
+    public void testConcurrentRegistration() throws Exception {
+        final int submitters = 8;
+        final int jobsPerSubmitter = 10;
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger notified = new AtomicInteger();
+        ExecutorService submitterPool = Executors.newFixedThreadPool(submitters);
+        List<Future<List<EnhancementJobObserver>>> results =
+                new ArrayList<Future<List<EnhancementJobObserver>>>(submitters);
+        for(int i = 0; i < submitters; i++){
+            results.add(submitterPool.submit(new Callable<List<EnhancementJobObserver>>() {
+                @Override
+                public List<EnhancementJobObserver> call() throws Exception {
+                    start.await();
+                    List<EnhancementJobObserver> observers = new ArrayList<EnhancementJobObserver>();
+                    for(int j = 0; j < jobsPerSubmitter; j++){
+                        EnhancementJobObserver observer = jobHandler.register(
+                            new EnhancementJob(createContentItem(), CHAIN, plan, false));
+                        observer.addCompletionListener(new Runnable() {
+                            @Override
+                            public void run() {
+                                notified.incrementAndGet();
+                            }
+                        });
+                        observers.add(observer);
+                    }
+                    return observers;
+                }
+            }));
+        }
+        start.countDown();
+        Set<EnhancementJobObserver> observers = new HashSet<EnhancementJobObserver>();
+        for(Future<List<EnhancementJobObserver>> result : results){
+            for(EnhancementJobObserver observer : result.get(MAX_WAIT_TIME, TimeUnit.MILLISECONDS)){
+                assertTrue(observer.waitForCompletion(MAX_WAIT_TIME));
+                assertTrue(observer.hasCompleted());
+                observers.add(observer);
+            }
+        }
+        submitterPool.shutdown();
+        assertEquals(submitters * jobsPerSubmitter, observers.size());
+        assertEquals(submitters * jobsPerSubmitter, notified.get());
+        assertEquals(0, jobHandler.getProcessingJobCount());
+    }
+
+    static ContentItem createContentItem(){
+        return new TestContentItem(new UriRef("urn:test:ci:" + count.incrementAndGet()));
+    }
+
+    private static class TestContentItem extends ContentItemImpl {
+        protected TestContentItem(UriRef uri) {
+            super(uri, new TestBlob(), new IndexedMGraph());
+        }
+    }
+
+    private static class TestBlob implements Blob {
+        @Override
+        public String getMimeType() {
+            return "text/plain";
+        }
+        @Override
+        public InputStream getStream() {
+            return new ByteArrayInputStream(new byte[0]);
+        }
+        @Override
+        public Map<String,String> getParameter() {
+            return Collections.emptyMap();
+        }
+        @Override
+        public long getContentLength() {
+            return 0;
+        }
+    }
+
+    private static class TestEventAdmin implements EventAdmin {
+        @Override
+        public void postEvent(final Event event) {
+            eventExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    jobHandler.handleEvent(event);
+                }
+            });
+        }
+        @Override
+        public void sendEvent(Event event) {
+            jobHandler.handleEvent(event);
+        }
+    }
+
+    private static class TestEngine implements EnhancementEngine {
+        private final String name;
+        private TestEngine(String name) {
+            this.name = name;
+        }
+        @Override
+        public int canEnhance(ContentItem ci) throws EngineException {
+            return ENHANCE_ASYNC;
+        }
+        @Override
+        public void computeEnhancements(ContentItem ci) throws EngineException {
+            //nothing to do
+        }
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    private static class TestEngineManager implements EnhancementEngineManager {
+        @Override
+        public ServiceReference getReference(String name) {
+            return null;
+        }
+        @Override
+        public List<ServiceReference> getReferences(String name) {
+            return Collections.emptyList();
+        }
+        @Override
+        public EnhancementEngine getEngine(String name) {
+            return new TestEngine(name);
+        }
+        @Override
+        public boolean isEngine(String name) {
+            return true;
+        }
+        @Override
+        public Set<String> getActiveEngineNames() {
+            return Collections.emptySet();
+        }
+        @Override
+        public EnhancementEngine getEngine(ServiceReference engineReference) {
+            return null;
+        }
+    }
+}
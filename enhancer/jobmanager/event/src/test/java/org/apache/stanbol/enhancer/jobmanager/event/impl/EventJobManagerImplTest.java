@@ -0,0 +1,368 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.enhancer.jobmanager.event.impl;
+
+import static org.apache.stanbol.enhancer.jobmanager.event.Constants.PROPERTY_EXECUTION;
+import static org.apache.stanbol.enhancer.jobmanager.event.Constants.PROPERTY_JOB_MANAGER;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Dictionary;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.clerezza.rdf.core.Graph;
+import org.apache.clerezza.rdf.core.MGraph;
+import org.apache.clerezza.rdf.core.NonLiteral;
+import org.apache.stanbol.commons.indexedgraph.IndexedMGraph;
+import org.apache.stanbol.enhancer.servicesapi.Chain;
+import org.apache.stanbol.enhancer.servicesapi.ChainException;
+import org.apache.stanbol.enhancer.servicesapi.ChainManager;
+import org.apache.stanbol.enhancer.servicesapi.ContentItem;
+import org.apache.stanbol.enhancer.servicesapi.EngineException;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementCallback;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementEngineManager;
+import org.apache.stanbol.enhancer.servicesapi.helper.ExecutionPlanHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.service.component.ComponentContext;
+import org.osgi.service.event.Event;
+import org.osgi.service.event.EventAdmin;
+import org.osgi.service.event.EventHandler;
+
+/**
+ * Tests the asynchronous enhancement requests of the
+ * {@link EventJobManagerImpl} (successful, failed and timed out requests).
+ * Events are delivered by a single thread so that the test can wait for
+ * all events posted before a given point in time.
+ */
+public class EventJobManagerImplTest {
+
+    private static final int MAX_WAIT_TIME = 1000;
+
+    private ExecutorService eventExecutor;
+    private volatile EventHandler eventHandler;
+    /**
+     * The names of the engines scheduled for execution
+     */
+    private final List<String> scheduled = Collections.synchronizedList(new ArrayList<String>());
+    private final Map<String,EnhancementEngine> engines = new HashMap<String,EnhancementEngine>();
+    private final Map<String,Chain> chains = new HashMap<String,Chain>();
+    private EventJobManagerImpl jobManager;
+    /**
+     * Used by the 'blocking' engine
+     */
+    private CountDownLatch unblock;
+
+    @Before
+    public void init(){
+        eventExecutor = Executors.newSingleThreadExecutor();
+        unblock = new CountDownLatch(1);
+        engines.put("e1", new TestEngine("e1"));
+        engines.put("after", new TestEngine("after"));
+        engines.put("failing", new TestEngine("failing"){
+            @Override
+            public void computeEnhancements(ContentItem ci) throws EngineException {
+                throw new EngineException("test failure");
+            }
+        });
+        engines.put("blocking", new TestEngine("blocking"){
+            @Override
+            public void computeEnhancements(ContentItem ci) throws EngineException {
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        addChain("ok", "e1", "after");
+        addChain("fail", "failing", "after");
+        addChain("timeout", "blocking", "after");
+
+        jobManager = new EventJobManagerImpl();
+        jobManager.eventAdmin = new TestEventAdmin();
+        jobManager.engineManager = new TestEngineManager();
+        jobManager.chainManager = new TestChainManager();
+        Dictionary<String,Object> properties = new Hashtable<String,Object>();
+        properties.put(EventJobManagerImpl.MAX_ENHANCEMENT_JOB_WAIT_TIME, MAX_WAIT_TIME);
+        jobManager.activate(createComponentContext(properties));
+        assertNotNull(eventHandler);
+    }
+
+    @After
+    public void close(){
+        unblock.countDown();
+        jobManager.deactivate(null);
+        eventExecutor.shutdown();
+    }
+
+    @Test
+    public void testCompleted() throws Exception {
+        TestCallback callback = new TestCallback();
+        ContentItem ci = EnhancementJobHandlerTest.createContentItem();
+        jobManager.enhanceContent(ci, chains.get("ok"), callback);
+        assertTrue(callback.await());
+        assertSame(ci, callback.ci);
+        assertNull(callback.error);
+        assertEquals(1, callback.count);
+        assertEquals(2, scheduled.size());
+    }
+
+    @Test
+    public void testFailed() throws Exception {
+        TestCallback callback = new TestCallback();
+        ContentItem ci = EnhancementJobHandlerTest.createContentItem();
+        jobManager.enhanceContent(ci, chains.get("fail"), callback);
+        assertTrue(callback.await());
+        assertSame(ci, callback.ci);
+        assertTrue(callback.error instanceof ChainException);
+        assertTrue(callback.error.getCause() instanceof EngineException);
+        assertEquals(1, callback.count);
+        assertFalse(scheduled.contains("after"));
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        TestCallback callback = new TestCallback();
+        ContentItem ci = EnhancementJobHandlerTest.createContentItem();
+        jobManager.enhanceContent(ci, chains.get("timeout"), callback);
+        assertTrue(callback.await());
+        assertTrue(callback.error instanceof ChainException);
+        assertEquals(1, callback.count);
+        //the job was cancelled: completing the running engine MUST NOT
+        //execute the remaining engine nor notify the callback again
+        unblock.countDown();
+        //all events are delivered by a single thread. So this returns after
+        //the event of the 'blocking' engine was processed
+        eventExecutor.submit(new Runnable() {
+            @Override
+            public void run() {}
+        }).get(MAX_WAIT_TIME, TimeUnit.MILLISECONDS);
+        assertEquals(Collections.singletonList("blocking"), scheduled);
+        assertEquals(1, callback.count);
+    }
+
+    private void addChain(String name, String first, String second){
+        MGraph ep = new IndexedMGraph();
+        NonLiteral epNode = ExecutionPlanHelper.createExecutionPlan(ep, name);
+        NonLiteral node = ExecutionPlanHelper.writeExecutionNode(ep, epNode, first, false, null);
+        ExecutionPlanHelper.writeExecutionNode(ep, epNode, second, false, Collections.singleton(node));
+        chains.put(name, new TestChain(name, ep.getGraph(), new HashSet<String>(Arrays.asList(first, second))));
+    }
+
+    private ComponentContext createComponentContext(final Dictionary<String,Object> properties){
+        final ServiceRegistration registration = proxy(ServiceRegistration.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                return null; //unregister
+            }
+        });
+        final BundleContext bundleContext = proxy(BundleContext.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if("registerService".equals(method.getName())){
+                    eventHandler = (EventHandler)args[1];
+                    return registration;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+        return proxy(ComponentContext.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if("getBundleContext".equals(method.getName())){
+                    return bundleContext;
+                } else if("getProperties".equals(method.getName())){
+                    return properties;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler){
+        return type.cast(Proxy.newProxyInstance(EventJobManagerImplTest.class.getClassLoader(),
+            new Class<?>[]{type}, handler));
+    }
+
+    private static class TestCallback implements EnhancementCallback {
+
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile ContentItem ci;
+        private volatile Exception error;
+        private volatile int count;
+
+        @Override
+        public void completed(ContentItem ci) {
+            this.ci = ci;
+            count++;
+            latch.countDown();
+        }
+        @Override
+        public void failed(ContentItem ci, Exception e) {
+            this.ci = ci;
+            this.error = e;
+            count++;
+            latch.countDown();
+        }
+        boolean await() throws InterruptedException {
+            return latch.await(MAX_WAIT_TIME * 5, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private class TestEventAdmin implements EventAdmin {
+        @Override
+        public void postEvent(final Event event) {
+            EnhancementJob job = (EnhancementJob)event.getProperty(PROPERTY_JOB_MANAGER);
+            scheduled.add(job.getEngine((NonLiteral)event.getProperty(PROPERTY_EXECUTION)));
+            eventExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    eventHandler.handleEvent(event);
+                }
+            });
+        }
+        @Override
+        public void sendEvent(Event event) {
+            eventHandler.handleEvent(event);
+        }
+    }
+
+    private static class TestEngine implements EnhancementEngine {
+        private final String name;
+        private TestEngine(String name) {
+            this.name = name;
+        }
+        @Override
+        public int canEnhance(ContentItem ci) throws EngineException {
+            return ENHANCE_ASYNC;
+        }
+        @Override
+        public void computeEnhancements(ContentItem ci) throws EngineException {
+            //nothing to do
+        }
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    private static class TestChain implements Chain {
+        private final String name;
+        private final Graph executionPlan;
+        private final Set<String> engines;
+        private TestChain(String name, Graph executionPlan, Set<String> engines) {
+            this.name = name;
+            this.executionPlan = executionPlan;
+            this.engines = engines;
+        }
+        @Override
+        public Graph getExecutionPlan() throws ChainException {
+            return executionPlan;
+        }
+        @Override
+        public Set<String> getEngines() throws ChainException {
+            return engines;
+        }
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    private class TestEngineManager implements EnhancementEngineManager {
+        @Override
+        public ServiceReference getReference(String name) {
+            return null;
+        }
+        @Override
+        public List<ServiceReference> getReferences(String name) {
+            return Collections.emptyList();
+        }
+        @Override
+        public EnhancementEngine getEngine(String name) {
+            return engines.get(name);
+        }
+        @Override
+        public boolean isEngine(String name) {
+            return engines.containsKey(name);
+        }
+        @Override
+        public Set<String> getActiveEngineNames() {
+            return engines.keySet();
+        }
+        @Override
+        public EnhancementEngine getEngine(ServiceReference engineReference) {
+            return null;
+        }
+    }
+
+    private class TestChainManager implements ChainManager {
+        @Override
+        public Set<String> getActiveChainNames() {
+            return chains.keySet();
+        }
+        @Override
+        public ServiceReference getReference(String name) {
+            return null;
+        }
+        @Override
+        public List<ServiceReference> getReferences(String name) {
+            return Collections.emptyList();
+        }
+        @Override
+        public Chain getChain(String name) {
+            return chains.get(name);
+        }
+        @Override
+        public Chain getChain(ServiceReference chainReference) {
+            return null;
+        }
+        @Override
+        public boolean isChain(String name) {
+            return chains.containsKey(name);
+        }
+        @Override
+        public Chain getDefault() {
+            return chains.get("ok");
+        }
+    }
+}
@@ -24,9 +24,11 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 
+import org.apache.stanbol.enhancer.servicesapi.AsyncEnhancementJobManager;
 import org.apache.stanbol.enhancer.servicesapi.Chain;
 import org.apache.stanbol.enhancer.servicesapi.ContentItem;
 import org.apache.stanbol.enhancer.servicesapi.EngineException;
+import org.apache.stanbol.enhancer.servicesapi.EnhancementCallback;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementEngine;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementException;
 import org.apache.stanbol.enhancer.servicesapi.EnhancementJobManager;
@@ -53,7 +55,7 @@ import org.slf4j.LoggerFactory;
  *               type="Integer"
  */
 @Deprecated
-public class WeightedJobManager implements EnhancementJobManager {
+public class WeightedJobManager implements EnhancementJobManager, AsyncEnhancementJobManager {
     private static final Logger log = LoggerFactory.getLogger(WeightedJobManager.class);
     // handle thread safety efficiently when traversals (e.g. when calling
     // #enhanceContent) are expected to be much more frequent than mutable
@@ -104,6 +106,28 @@ public class WeightedJobManager implements EnhancementJobManager {
     	enhanceContent(ci);
 	}
     
+    /**
+     * This implementation does not support asynchronous processing. The
+     * parsed content item is enhanced synchronously and the callback is
+     * notified before this method returns.
+     */
+    @Override
+    public void enhanceContent(ContentItem ci, Chain chain, EnhancementCallback callback) {
+        if(callback == null){
+            throw new IllegalArgumentException("The parsed EnhancementCallback MUST NOT be NULL!");
+        }
+        try {
+            enhanceContent(ci, chain);
+        } catch (EngineException e) {
+            callback.failed(ci, e);
+            return;
+        } catch (RuntimeException e) {
+            callback.failed(ci, e);
+            return;
+        }
+        callback.completed(ci);
+    }
+    
     public void bindEnhancementEngine(EnhancementEngine e) {
         synchronized (sortedEngineList) {
             List<EnhancementEngine> newList = new ArrayList<EnhancementEngine>(sortedEngineList);
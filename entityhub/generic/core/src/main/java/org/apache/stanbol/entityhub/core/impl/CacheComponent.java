@@ -62,7 +62,9 @@ import org.slf4j.LoggerFactory;
 @Properties(
 value = {
     @Property(name = Cache.CACHE_YARD), 
-    @Property(name = Cache.ADDITIONAL_MAPPINGS, cardinality = Integer.MAX_VALUE)})
+    @Property(name = Cache.ADDITIONAL_MAPPINGS, cardinality = Integer.MAX_VALUE),
+    @Property(name = CacheImpl.WRITE_BEHIND, boolValue = CacheImpl.DEFAULT_WRITE_BEHIND),
+    @Property(name = CacheImpl.WRITE_BEHIND_QUEUE_SIZE, intValue = CacheImpl.DEFAULT_WRITE_BEHIND_QUEUE_SIZE)})
 public class CacheComponent {
 
     private final Logger log = LoggerFactory.getLogger(CacheComponent.class);
@@ -72,8 +74,13 @@ public class CacheComponent {
     private ComponentContext cc;
     
     private ServiceRegistration cacheRegistration;
-    private Cache cache;
+    private CacheImpl cache;
     private String[] additionalMappings;
+    /**
+     * The size of the write-behind queue or <code>0</code> if write-behind
+     * is disabled
+     */
+    private int writeBehindQueueSize;
 
     @Reference(cardinality = ReferenceCardinality.OPTIONAL_UNARY,
             policy = ReferencePolicy.DYNAMIC,
@@ -117,6 +124,37 @@ public class CacheComponent {
         } else {
             additionalMappings = null;
         }
+        value = context.getProperties().get(CacheImpl.WRITE_BEHIND);
+        boolean writeBehind;
+        if(value instanceof Boolean){
+            writeBehind = ((Boolean)value).booleanValue();
+        } else if(value != null){
+            writeBehind = Boolean.parseBoolean(value.toString());
+        } else {
+            writeBehind = CacheImpl.DEFAULT_WRITE_BEHIND;
+        }
+        if(writeBehind){
+            value = context.getProperties().get(CacheImpl.WRITE_BEHIND_QUEUE_SIZE);
+            if(value instanceof Number){
+                writeBehindQueueSize = ((Number)value).intValue();
+            } else if(value != null && !value.toString().trim().isEmpty()){
+                try {
+                    writeBehindQueueSize = Integer.parseInt(value.toString().trim());
+                } catch (NumberFormatException e) {
+                    throw new ConfigurationException(CacheImpl.WRITE_BEHIND_QUEUE_SIZE, 
+                        "The write-behind queue size MUST BE an integer value!",e);
+                }
+            } else {
+                writeBehindQueueSize = CacheImpl.DEFAULT_WRITE_BEHIND_QUEUE_SIZE;
+            }
+            if(writeBehindQueueSize <= 0){
+                throw new ConfigurationException(CacheImpl.WRITE_BEHIND_QUEUE_SIZE, 
+                    "The write-behind queue size MUST BE > 0 (configured: "
+                    + writeBehindQueueSize + ")!");
+            }
+        } else {
+            writeBehindQueueSize = 0;
+        }
         String yardId = OsgiUtils.checkProperty(context.getProperties(), Cache.CACHE_YARD).toString();
         String cacheFilter = String.format("(&(%s=%s)(%s=%s))", Constants.OBJECTCLASS, Yard.class.getName(), Yard.ID, yardId);
         yardTracker = new ServiceTracker(context.getBundleContext(), context.getBundleContext().createFilter(cacheFilter), 
@@ -168,22 +206,28 @@ public class CacheComponent {
         this.yardTracker = null;
         this.cc = null;
         this.yard = null;
-        this.cache = null;
         if(this.cacheRegistration != null){
             cacheRegistration.unregister();
             cacheRegistration = null;
         }
+        if(this.cache != null){
+            cache.close(); //store representations queued for write-behind
+            this.cache = null;
+        }
     }
 
     private synchronized void updateServiceRegistration(ComponentContext cc, Yard yard, String[] additionalMappings, NamespacePrefixService nsPrefixService) {
         if(cacheRegistration != null){
             cacheRegistration.unregister();
             cacheRegistration = null;
+        }
+        if(cache != null){
+            cache.close(); //store representations queued for write-behind
             cache = null;
         }
         if(cc != null && yard != null){
             try {
-                cache = new CacheImpl(yard,additionalMappings, nsPrefixService);
+                cache = new CacheImpl(yard,additionalMappings, nsPrefixService, writeBehindQueueSize);
             } catch (YardException e) {
                 log.warn("Unable to init Cache for Yard '"+yard.getId()+"'!",e);
             }
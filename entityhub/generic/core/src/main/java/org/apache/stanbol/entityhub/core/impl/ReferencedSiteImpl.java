@@ -22,8 +22,13 @@ import static org.apache.stanbol.entityhub.core.utils.SiteUtils.initEntityMetada
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.stanbol.commons.namespaceprefix.NamespacePrefixService;
 import org.apache.stanbol.entityhub.core.mapping.DefaultFieldMapperImpl;
@@ -31,6 +36,7 @@ import org.apache.stanbol.entityhub.core.mapping.FieldMappingUtils;
 import org.apache.stanbol.entityhub.core.mapping.ValueConverterFactory;
 import org.apache.stanbol.entityhub.core.model.EntityImpl;
 import org.apache.stanbol.entityhub.core.query.DefaultQueryFactory;
+import org.apache.stanbol.entityhub.core.query.PagingQueryResultStream;
 import org.apache.stanbol.entityhub.core.query.QueryResultListImpl;
 import org.apache.stanbol.entityhub.servicesapi.mapping.FieldMapper;
 import org.apache.stanbol.entityhub.servicesapi.mapping.FieldMapping;
@@ -40,6 +46,7 @@ import org.apache.stanbol.entityhub.servicesapi.model.rdf.RdfResourceEnum;
 import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
 import org.apache.stanbol.entityhub.servicesapi.query.FieldQueryFactory;
 import org.apache.stanbol.entityhub.servicesapi.query.QueryResultList;
+import org.apache.stanbol.entityhub.servicesapi.query.QueryResultStream;
 import org.apache.stanbol.entityhub.servicesapi.site.EntityDereferencer;
 import org.apache.stanbol.entityhub.servicesapi.site.EntitySearcher;
 import org.apache.stanbol.entityhub.servicesapi.site.ReferencedSiteConfiguration;
@@ -252,6 +259,49 @@ public class ReferencedSiteImpl implements Site {
         }
     }
 
+    /**
+     * Streams results from the {@link Cache} if the {@link CacheStrategy#all}
+     * is used. Otherwise results are requested page by page (by using the
+     * offset and limit) from the {@link EntitySearcher}.
+     */
+    @Override
+    public QueryResultStream<Representation> stream(FieldQuery query, int pageSize) throws SiteException {
+        if (siteConfiguration.getCacheStrategy() == CacheStrategy.all) {
+            try {
+                return cache.stream(query, pageSize);
+            } catch (YardException e) {
+                if (entitySearcher == null) {
+                    throw new SiteException("Unable to execute query on Cache "
+                            + siteConfiguration.getCacheId(), e);
+                } else {
+                    log.warn(
+                        String.format(
+                            "Error while performing query on Cache %s! Try to use remote site %s as fallback!",
+                            siteConfiguration.getCacheId(), siteConfiguration.getQueryUri()), e);
+                }
+            }
+        }
+        final EntitySearcher searcher = entitySearcher;
+        if (searcher == null) {
+            throw new SiteException(String.format("ReferencedSite %s does not support queries!",
+                getId()));
+        }
+        if (query == null) {
+            throw new IllegalArgumentException("The parsed FieldQuery MUST NOT be NULL!");
+        }
+        return new PagingQueryResultStream<Representation>(query.clone(), Representation.class, pageSize) {
+            @Override
+            protected Collection<? extends Representation> fetch(int offset, int limit, Representation last) {
+                try {
+                    return searcher.find(createPageQuery(offset, limit)).results();
+                } catch (IOException e) {
+                    throw new SiteException("Unable execute Query on remote site " 
+                            + siteConfiguration.getQueryUri(), e);
+                }
+            }
+        };
+    }
+
     @Override
     public QueryResultList<String> findReferences(FieldQuery query) throws SiteException {
         if (siteConfiguration.getCacheStrategy() == CacheStrategy.all) {
@@ -365,6 +415,81 @@ public class ReferencedSiteImpl implements Site {
         }
     }
 
+    /**
+     * Retrieves all Representations available in the {@link Cache} with a
+     * single request. Representations not present in the cache are
+     * dereferenced with a single call to
+     * {@link EntityDereferencer#dereference(java.util.Collection)} and
+     * cached afterwards.
+     */
+    @Override
+    public Map<String,Representation> getRepresentations(Iterable<String> ids, Set<String> fields) 
+            throws SiteException {
+        if(ids == null){
+            throw new IllegalArgumentException("The parsed ids MUST NOT be NULL!");
+        }
+        Map<String,Representation> cached = Collections.emptyMap();
+        if (cache != null) {
+            try {
+                cached = cache.getRepresentations(ids, fields);
+                if(dereferencer == null || 
+                        siteConfiguration.getCacheStrategy() == CacheStrategy.all) {
+                    return cached; // do no remote lookups on CacheStrategy.all!!
+                }
+            } catch (YardException e) {
+                if (dereferencer == null) {
+                    throw new SiteException(String.format("Unable to get Represetnations form Cache %s",
+                        siteConfiguration.getCacheId()), e);
+                } else {
+                    log.warn(String.format("Unable to get Represetnations form Cache %s. Will dereference "
+                        + "from remote site %s", siteConfiguration.getCacheId(), 
+                        siteConfiguration.getAccessUri()), e);
+                }
+            }
+        }
+        if(dereferencer == null){
+            return cached;
+        }
+        Set<String> missing = new LinkedHashSet<String>();
+        for(String id : ids){
+            if(id != null && !id.isEmpty() && !cached.containsKey(id)){
+                missing.add(id);
+            }
+        }
+        if(missing.isEmpty()){
+            return cached;
+        }
+        //dereference all missing entities with a single call
+        Map<String,Representation> dereferenced;
+        try {
+            dereferenced = dereferencer.dereference(missing);
+        } catch (IOException e) {
+            throw new SiteException(String.format(
+                "Unable to load Representations for %d entities form remote site %s with dereferencer %s",
+                missing.size(), siteConfiguration.getAccessUri(), 
+                siteConfiguration.getEntityDereferencerType()), e);
+        }
+        Map<String,Representation> representations = new LinkedHashMap<String,Representation>(cached);
+        representations.putAll(dereferenced);
+        if(cache != null && !dereferenced.isEmpty()){ // -> cache the representations
+            try {
+                long start = System.currentTimeMillis();
+                for(Representation rep : cache.store(dereferenced.values())){
+                    if(rep != null){
+                        representations.put(rep.getId(), rep); //use the cached version
+                    }
+                }
+                log.debug("  - cached {} Representations in {} ms", dereferenced.size(),
+                    (System.currentTimeMillis() - start));
+            } catch (YardException e) {
+                log.warn(String.format(
+                    "Unable to cache %d Represetnations in Cache %s! Representations not cached!", 
+                    dereferenced.size(), siteConfiguration.getCacheId()), e);
+            }
+        }
+        return representations;
+    }
+
     @Override
     public SiteConfiguration getConfiguration() {
         return siteConfiguration;
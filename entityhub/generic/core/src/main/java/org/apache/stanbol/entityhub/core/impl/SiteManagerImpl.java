@@ -24,22 +24,43 @@ import java.util.Collections;
 import java.util.Dictionary;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
 import org.apache.felix.scr.annotations.Properties;
+import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.ReferencePolicy;
 import org.apache.felix.scr.annotations.ReferenceStrategy;
 import org.apache.felix.scr.annotations.Service;
 import org.apache.stanbol.entityhub.core.query.QueryResultListImpl;
+import org.apache.stanbol.entityhub.core.site.SiteStatistics;
+import org.apache.stanbol.entityhub.core.site.SiteStatisticsProvider;
 import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.apache.stanbol.entityhub.servicesapi.model.Entity;
 import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
@@ -47,20 +68,83 @@ import org.apache.stanbol.entityhub.servicesapi.query.QueryResultList;
 import org.apache.stanbol.entityhub.servicesapi.site.Site;
 import org.apache.stanbol.entityhub.servicesapi.site.SiteException;
 import org.apache.stanbol.entityhub.servicesapi.site.SiteManager;
+import org.osgi.service.cm.ConfigurationException;
 import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-
-
-@Component(immediate = true)
+/**
+ * The default {@link SiteManager} implementation.<p>
+ * Requests that need to be sent to multiple {@link Site}s (searches and
+ * {@link #getEntity(String)}) are executed concurrently by using a bounded
+ * thread pool. Sites that do not answer within the configured 
+ * {@link #REQUEST_TIMEOUT request timeout} are ignored (partial results).
+ * To avoid that a slow site occupies all threads the number of pending
+ * requests per site is limited by {@link #MAX_PENDING_REQUESTS_PER_SITE}.
+ * Sites with too many pending requests are skipped.
+ * Statistics about the requests sent to the sites are available via
+ * {@link #getSiteStatistics()}.
+ */
+@Component(immediate = true, metatype = true)
 @Service
 @Properties(value={
+    @Property(name=SiteManagerImpl.THREAD_POOL_SIZE,
+        intValue=SiteManagerImpl.DEFAULT_THREAD_POOL_SIZE),
+    @Property(name=SiteManagerImpl.REQUEST_TIMEOUT,
+        longValue=SiteManagerImpl.DEFAULT_REQUEST_TIMEOUT),
+    @Property(name=SiteManagerImpl.MAX_PENDING_REQUESTS_PER_SITE,
+        intValue=SiteManagerImpl.DEFAULT_MAX_PENDING_REQUESTS_PER_SITE)
 })
-public class SiteManagerImpl implements SiteManager {
+public class SiteManagerImpl implements SiteManager, SiteStatisticsProvider {
+
+    /**
+     * The maximum number of threads used to send requests to the
+     * {@link Site}s concurrently. If &lt;= 0 sites are requested one after
+     * the other by the calling thread.
+     */
+    public static final String THREAD_POOL_SIZE = "org.apache.stanbol.entityhub.sitemanager.threadPoolSize";
+    /**
+     * The default size of the thread pool
+     */
+    public static final int DEFAULT_THREAD_POOL_SIZE = 8;
+    /**
+     * The maximum time in milliseconds a request waits for the {@link Site}s.
+     * Results of sites not answering within this time are ignored. If 
+     * &lt;= 0 requests wait until all sites have answered.
+     */
+    public static final String REQUEST_TIMEOUT = "org.apache.stanbol.entityhub.sitemanager.requestTimeout";
+    /**
+     * The default request timeout (10sec)
+     */
+    public static final long DEFAULT_REQUEST_TIMEOUT = 10000;
+    /**
+     * The maximum number of requests for a single {@link Site} that are
+     * queued or executed by the thread pool. If a site has more pending
+     * requests (e.g. because it does not respond) it is skipped for further
+     * requests (partial results). If &lt;= 0 the number is not limited.
+     */
+    public static final String MAX_PENDING_REQUESTS_PER_SITE = "org.apache.stanbol.entityhub.sitemanager.maxPendingRequestsPerSite";
+    /**
+     * The default number of pending requests per site (half of the 
+     * {@link #DEFAULT_THREAD_POOL_SIZE default thread pool size})
+     */
+    public static final int DEFAULT_MAX_PENDING_REQUESTS_PER_SITE = 4;
 
     private final Logger log;
 
+    /**
+     * The executor used to send requests to sites. <code>null</code> if
+     * not active or if requests are sent by the calling thread.
+     */
+    private volatile ExecutorService executor;
+
+    private volatile long requestTimeout = DEFAULT_REQUEST_TIMEOUT;
+
+    private volatile int maxPendingRequestsPerSite = DEFAULT_MAX_PENDING_REQUESTS_PER_SITE;
+
+    private final ConcurrentMap<String,SiteStatisticsImpl> siteStatistics = 
+            new ConcurrentHashMap<String,SiteStatisticsImpl>();
+
 //    private ComponentContext context;
     public SiteManagerImpl(){
         super();
@@ -100,12 +184,51 @@ public class SiteManagerImpl implements SiteManager {
         new HashSet<Site>());
 
     @Activate
-    protected void activate(ComponentContext context) {
+    protected void activate(ComponentContext context) throws ConfigurationException {
         log.debug("Activate ReferenceManager");
+        Dictionary<?,?> properties = context.getProperties();
+        int threadPoolSize = getNumber(properties, THREAD_POOL_SIZE, 
+            DEFAULT_THREAD_POOL_SIZE).intValue();
+        requestTimeout = getNumber(properties, REQUEST_TIMEOUT,
+            DEFAULT_REQUEST_TIMEOUT).longValue();
+        maxPendingRequestsPerSite = getNumber(properties, MAX_PENDING_REQUESTS_PER_SITE,
+            DEFAULT_MAX_PENDING_REQUESTS_PER_SITE).intValue();
+        log.debug(" - thread pool size: {}", threadPoolSize);
+        log.debug(" - request timeout: {}ms", requestTimeout);
+        log.debug(" - max pending requests per site: {}", maxPendingRequestsPerSite);
+        if(threadPoolSize > 0){
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threadPoolSize, 
+                threadPoolSize, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger();
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, "Entityhub SiteManager Thread #"
+                                + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+            executor.allowCoreThreadTimeOut(true);
+            this.executor = executor;
+        }
     }
     @Deactivate
     protected void deactivate(ComponentContext context) {
         log.debug("Deactivate ReferenceManager");
+        ExecutorService executor = this.executor;
+        this.executor = null;
+        if(executor != null){
+            executor.shutdown(); //already submitted requests are completed
+        }
+        if(log.isInfoEnabled()){
+            for(Entry<String,SiteStatisticsImpl> entry : siteStatistics.entrySet()){
+                log.info(" - Site {}: {}", entry.getKey(), entry.getValue());
+            }
+        }
+        siteStatistics.clear();
+        requestTimeout = DEFAULT_REQUEST_TIMEOUT;
+        maxPendingRequestsPerSite = DEFAULT_MAX_PENDING_REQUESTS_PER_SITE;
         synchronized (prefixMap) {
             this.prefixList.clear();
             this.prefixMap.clear();
@@ -114,6 +237,31 @@ public class SiteManagerImpl implements SiteManager {
         this.idMap.clear();
     }
 
+    /**
+     * Parses a number from the parsed configuration
+     * @param properties the configuration
+     * @param key the key
+     * @param defaultValue the value used if not present
+     * @return the number
+     * @throws ConfigurationException if the configured value is not a number
+     */
+    private static Number getNumber(Dictionary<?,?> properties, String key, Number defaultValue) 
+            throws ConfigurationException {
+        Object value = properties == null ? null : properties.get(key);
+        if(value instanceof Number){
+            return (Number)value;
+        } else if(value != null && !value.toString().trim().isEmpty()){
+            try {
+                return Long.valueOf(value.toString().trim());
+            } catch (NumberFormatException e) {
+                throw new ConfigurationException(key, "The configured value '"
+                    + value + "' is not a valid integer number!", e);
+            }
+        } else {
+            return defaultValue;
+        }
+    }
+
     protected void bindReferencedSites(Site referencedSite){
         log.debug(" ... binding ReferencedSite {}",referencedSite.getId());
         referencedSites.add(referencedSite);
@@ -260,26 +408,27 @@ public class SiteManagerImpl implements SiteManager {
         //the first Site that contributes results
         FieldQuery processedQuery = null;
         FieldQuery queryWithResults = null; 
-        for(Site site : referencedSites){
-            if(site.supportsSearch()){
-                log.debug(" > query site {}",site.getId());
-                try {
-                    QueryResultList<String> results = site.findReferences(query);
-                    if(processedQuery == null){
-                        processedQuery = results.getQuery();
-                    }
-                    if(!results.isEmpty() && queryWithResults == null){
-                        processedQuery = results.getQuery();
-                    }
-                    for(String entityId : results){
-                        entityIds.add(entityId);
-                    }
-                } catch (SiteException e) {
-                    log.warn("Unable to access Site "+site.getConfiguration().getName()+
-                        " (id = "+site.getId()+")",e);
+        final FieldQuery siteQuery = query;
+        long deadline = getDeadline();
+        List<SiteTask<QueryResultList<String>>> tasks = submit(getSearchableSites(),
+            new SiteRequest<QueryResultList<String>>() {
+                @Override
+                public QueryResultList<String> execute(Site site) throws SiteException {
+                    return site.findReferences(siteQuery);
+                }
+            });
+        for(SiteTask<QueryResultList<String>> task : tasks){
+            QueryResultList<String> results = await(task, deadline);
+            if(results != null){
+                if(processedQuery == null){
+                    processedQuery = results.getQuery();
+                }
+                if(!results.isEmpty() && queryWithResults == null){
+                    queryWithResults = results.getQuery();
+                }
+                for(String entityId : results){
+                    entityIds.add(entityId);
                 }
-            } else {
-                log.debug(" > Site {} does not support queries",site.getId());
             }
         }
         return new QueryResultListImpl<String>(
@@ -299,32 +448,35 @@ public class SiteManagerImpl implements SiteManager {
         //the first Site that contributes results
         FieldQuery processedQuery = null;
         FieldQuery queryWithResults = null; 
-        for(Site site : referencedSites){
-            if(site.supportsSearch()){
-                log.debug(" > query site {}",site.getId());
-                try {
-                    QueryResultList<Representation> results = site.find(query);
-                    if(processedQuery == null){
-                        processedQuery = results.getQuery();
-                    }
-                    if(!results.isEmpty() && queryWithResults == null){
-                        processedQuery = results.getQuery();
-                    }
-                    for(Representation rep : results){
-                        if(!representations.contains(rep)){ //do not override
-                            representations.add(rep);
-                        } else {
-                            log.info("Entity {} found on more than one Referenced Site" +
-                            		" -> Representation of Site {} is ignored",
-                            		rep.getId(),site.getConfiguration().getName());
-                        }
+        final FieldQuery siteQuery = query;
+        long deadline = getDeadline();
+        List<SiteTask<QueryResultList<Representation>>> tasks = submit(getSearchableSites(),
+            new SiteRequest<QueryResultList<Representation>>() {
+                @Override
+                public QueryResultList<Representation> execute(Site site) throws SiteException {
+                    return site.find(siteQuery);
+                }
+            });
+        //results are processed in the order of the sites so that the
+        //Representation of the first Site is used for duplicates
+        for(SiteTask<QueryResultList<Representation>> task : tasks){
+            QueryResultList<Representation> results = await(task, deadline);
+            if(results != null){
+                if(processedQuery == null){
+                    processedQuery = results.getQuery();
+                }
+                if(!results.isEmpty() && queryWithResults == null){
+                    queryWithResults = results.getQuery();
+                }
+                for(Representation rep : results){
+                    if(!representations.contains(rep)){ //do not override
+                        representations.add(rep);
+                    } else {
+                        log.info("Entity {} found on more than one Referenced Site" +
+                        		" -> Representation of Site {} is ignored",
+                        		rep.getId(),task.getSite().getConfiguration().getName());
                     }
-                } catch (SiteException e) {
-                    log.warn("Unable to access Site "+site.getConfiguration().getName()+
-                        " (id = "+site.getId()+")",e);
                 }
-            } else {
-                log.debug(" > Site {} does not support queries",site.getId());
             }
         }
         return new QueryResultListImpl<Representation>(
@@ -344,34 +496,37 @@ public class SiteManagerImpl implements SiteManager {
         FieldQuery processedQuery = null;
         FieldQuery queryWithResults = null; 
         Set<Entity> entities = new HashSet<Entity>();
-        for(Site site : referencedSites){
-            if(site.supportsSearch()){ //do not search on sites that do not support it
-                log.debug(" > query site {}",site.getId());
-                try {
-                    QueryResultList<Entity> results = site.findEntities(query);
-                    if(processedQuery == null){
-                        processedQuery = results.getQuery();
-                    }
-                    if(!results.isEmpty() && queryWithResults == null){
-                        processedQuery = results.getQuery();
-                    }
-                    for(Entity rep : results){
-                        if(!entities.contains(rep)){ //do not override
-                            entities.add(rep);
-                        } else {
-                            //TODO: find a solution for this problem
-                            //      e.g. allow to add the site for entities
-                            log.info("Entity {} found on more than one Referenced Site" +
-                            		" -> Representation of Site {} is ignored",
-                            		rep.getId(),site.getConfiguration().getName());
-                        }
+        final FieldQuery siteQuery = query;
+        long deadline = getDeadline();
+        List<SiteTask<QueryResultList<Entity>>> tasks = submit(getSearchableSites(),
+            new SiteRequest<QueryResultList<Entity>>() {
+                @Override
+                public QueryResultList<Entity> execute(Site site) throws SiteException {
+                    return site.findEntities(siteQuery);
+                }
+            });
+        //results are processed in the order of the sites so that the
+        //Entity of the first Site is used for duplicates
+        for(SiteTask<QueryResultList<Entity>> task : tasks){
+            QueryResultList<Entity> results = await(task, deadline);
+            if(results != null){
+                if(processedQuery == null){
+                    processedQuery = results.getQuery();
+                }
+                if(!results.isEmpty() && queryWithResults == null){
+                    queryWithResults = results.getQuery();
+                }
+                for(Entity rep : results){
+                    if(!entities.contains(rep)){ //do not override
+                        entities.add(rep);
+                    } else {
+                        //TODO: find a solution for this problem
+                        //      e.g. allow to add the site for entities
+                        log.info("Entity {} found on more than one Referenced Site" +
+                        		" -> Representation of Site {} is ignored",
+                        		rep.getId(),task.getSite().getConfiguration().getName());
                     }
-                } catch (SiteException e) {
-                    log.warn("Unable to access Site "+site.getConfiguration().getName()+
-                        " (id = "+site.getId()+")",e);
                 }
-            } else {
-                log.debug(" > Site {} does not support queries",site.getId());
             }
         }
         return new QueryResultListImpl<Entity>(
@@ -414,25 +569,390 @@ public class SiteManagerImpl implements SiteManager {
             log.debug("Registered Prefixes {}",prefixList);
             return null;
         }
+        final String id = entityId;
+        long deadline = getDeadline();
+        List<SiteTask<Entity>> tasks = submit(sites, new SiteRequest<Entity>() {
+            @Override
+            public Entity execute(Site site) throws SiteException {
+                return site.getEntity(id);
+            }
+        });
+        //the Entity of the first Site (in the order returned by
+        //getSitesByEntityPrefix) that knows the Entity is returned
+        for(SiteTask<Entity> task : tasks){
+            Entity entity = await(task, deadline);
+            if(entity != null){
+                log.debug("Return Representation of Site {} for Entity {}",
+                    task.getSite().getConfiguration().getName(),entityId);
+                cancel(tasks);
+                return entity;
+            }
+        }
+        log.debug("Entity {} not found on any of the following Sites {}",entityId,sites);
+        return null;
+    }
+    /**
+     * Sends a single {@link Site#getRepresentations(Iterable, Set)} request
+     * to every Site that may manage some of the parsed ids. Requests are
+     * sent concurrently. For every id the Representation of the first Site 
+     * (in the order returned by {@link #getSitesByEntityPrefix(String)}) is
+     * returned.
+     */
+    @Override
+    public Map<String,Representation> getRepresentations(Iterable<String> ids, Set<String> fields) {
+        if(ids == null){
+            throw new IllegalArgumentException("The parsed ids MUST NOT be NULL!");
+        }
+        //the sites that may manage an id and the ids to request by site
+        Map<String,Collection<Site>> idSites = new LinkedHashMap<String,Collection<Site>>();
+        final Map<Site,List<String>> siteIds = new LinkedHashMap<Site,List<String>>();
+        for(String id : ids){
+            if(id != null && !id.isEmpty() && !idSites.containsKey(id)){
+                Collection<Site> sites = getSitesByEntityPrefix(id);
+                idSites.put(id, sites);
+                for(Site site : sites){
+                    List<String> requested = siteIds.get(site);
+                    if(requested == null){
+                        requested = new ArrayList<String>();
+                        siteIds.put(site, requested);
+                    }
+                    requested.add(id);
+                }
+            }
+        }
+        if(siteIds.isEmpty()){
+            log.debug("No Referenced Site registered for Entities {}",idSites.keySet());
+            return Collections.emptyMap();
+        }
+        final Set<String> siteFields = fields;
+        long deadline = getDeadline();
+        List<SiteTask<Map<String,Representation>>> tasks = submit(siteIds.keySet(), 
+            new SiteRequest<Map<String,Representation>>() {
+                @Override
+                public Map<String,Representation> execute(Site site) throws SiteException {
+                    return site.getRepresentations(siteIds.get(site), siteFields);
+                }
+            });
+        Map<Site,Map<String,Representation>> siteResults = 
+                new HashMap<Site,Map<String,Representation>>(tasks.size()*2);
+        for(SiteTask<Map<String,Representation>> task : tasks){
+            Map<String,Representation> results = await(task, deadline);
+            if(results != null){
+                siteResults.put(task.getSite(), results);
+            }
+        }
+        Map<String,Representation> representations = new LinkedHashMap<String,Representation>();
+        for(Entry<String,Collection<Site>> entry : idSites.entrySet()){
+            for(Site site : entry.getValue()){
+                Map<String,Representation> results = siteResults.get(site);
+                Representation rep = results == null ? null : results.get(entry.getKey());
+                if(rep != null){
+                    representations.put(entry.getKey(), rep);
+                    break;
+                }
+            }
+        }
+        log.debug("found {}/{} Representations",representations.size(),idSites.size());
+        return representations;
+    }
+    @Override
+    public Map<String,SiteStatistics> getSiteStatistics(){
+        return Collections.<String,SiteStatistics>unmodifiableMap(siteStatistics);
+    }
+    /**
+     * The {@link Site}s that support searches in the order they are 
+     * referenced
+     */
+    private Collection<Site> getSearchableSites(){
+        List<Site> sites = new ArrayList<Site>(referencedSites.size());
+        for(Site site : referencedSites){
+            if(site.supportsSearch()){ //do not search on sites that do not support it
+                log.debug(" > query site {}",site.getId());
+                sites.add(site);
+            } else {
+                log.debug(" > Site {} does not support queries",site.getId());
+            }
+        }
+        return sites;
+    }
+    /**
+     * The deadline for a request started now. Needs to be called before
+     * the tasks are submitted so that the time a task is queued counts
+     * for the timeout.
+     * @return the deadline or {@link Long#MAX_VALUE} if no timeout is configured
+     */
+    private long getDeadline(){
+        return requestTimeout > 0 ? System.currentTimeMillis() + requestTimeout : 
+            Long.MAX_VALUE;
+    }
+    /**
+     * Creates a {@link SiteTask} for every parsed {@link Site}. If the 
+     * executor is available the tasks are submitted so that all sites are
+     * requested concurrently. Otherwise tasks are executed by the calling
+     * thread on the first call to {@link #await(SiteTask, long)}.<p>
+     * Sites that have already {@link #MAX_PENDING_REQUESTS_PER_SITE} pending
+     * requests are skipped.
+     * @param sites the sites
+     * @param request the request
+     * @return the tasks in the order of the parsed sites
+     */
+    private <T> List<SiteTask<T>> submit(Collection<Site> sites, SiteRequest<T> request){
+        ExecutorService executor = this.executor;
+        int maxPending = this.maxPendingRequestsPerSite;
+        List<SiteTask<T>> tasks = new ArrayList<SiteTask<T>>(sites.size());
         for(Site site : sites){
-            Entity entity;
-            try {
-                entity = site.getEntity(entityId);
-                if(entity != null){
-                    log.debug("Return Representation of Site {} for Entity {}",
-                        site.getConfiguration().getName(),entityId);
-                    return entity;
+            SiteTask<T> task = new SiteTask<T>(site, request);
+            if(executor != null){
+                SiteStatisticsImpl stats = getStatistics(site);
+                if(!stats.acquire(maxPending)){
+                    log.warn("Site {} (id = {}) has {} pending requests -> skipped",
+                        new Object[]{site.getConfiguration().getName(), site.getId(), 
+                                stats.getPendingCount()});
+                    continue;
                 }
-            } catch (SiteException e) {
+                task.acquired = true;
+                try {
+                    executor.execute(task);
+                    task.submitted = true;
+                } catch (RejectedExecutionException e) {
+                    //the executor was shut down (deactivate) ... the task is
+                    //executed by the calling thread
+                    task.release();
+                }
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+    /**
+     * Waits until the parsed task is completed or the deadline is reached.
+     * {@link SiteException}s and timeouts are logged and <code>null</code> is
+     * returned so that the results of the other sites are still used.
+     * @param task the task
+     * @param deadline the deadline
+     * @return the result or <code>null</code> if not available
+     */
+    private <T> T await(SiteTask<T> task, long deadline) {
+        Site site = task.getSite();
+        try {
+            if(!task.submitted){
+                task.run(); //execute in the calling thread
+            }
+            if(deadline == Long.MAX_VALUE){
+                return task.get();
+            } else {
+                return task.get(Math.max(0, deadline - System.currentTimeMillis()),
+                    TimeUnit.MILLISECONDS);
+            }
+        } catch (TimeoutException e) {
+            task.cancel(false);
+            getStatistics(site).timeouts.incrementAndGet();
+            log.warn("Site {} (id = {}) did not answer within {}ms -> results are ignored",
+                new Object[]{site.getConfiguration().getName(), site.getId(), requestTimeout});
+            return null;
+        } catch (InterruptedException e) {
+            task.cancel(false);
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for Site "+site.getConfiguration().getName()+
+                " (id = "+site.getId()+")");
+            return null;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof SiteException){
                 log.warn("Unable to access Site "+site.getConfiguration().getName()+
-                    " (id = "+site.getId()+")",e);
+                    " (id = "+site.getId()+")",cause);
+                return null;
+            } else if(cause instanceof RuntimeException){
+                throw (RuntimeException)cause;
+            } else if(cause instanceof Error){
+                throw (Error)cause;
+            } else {
+                throw new IllegalStateException("Unexpected Exception while accessing Site "
+                    + site.getConfiguration().getName()+" (id = "+site.getId()+")",cause);
             }
+        }
+    }
+    /**
+     * Cancels all tasks that are not yet completed. Running requests are not
+     * interrupted as Site implementations (e.g. HTTP clients) may not
+     * recover from interrupts. Queued requests will not be executed.
+     */
+    private void cancel(Collection<? extends Future<?>> tasks){
+        for(Future<?> task : tasks){
+            if(!task.isDone()){
+                task.cancel(false);
+            }
+        }
+    }
 
+    private SiteStatisticsImpl getStatistics(Site site){
+        SiteStatisticsImpl stats = siteStatistics.get(site.getId());
+        if(stats == null){
+            stats = new SiteStatisticsImpl();
+            SiteStatisticsImpl current = siteStatistics.putIfAbsent(site.getId(), stats);
+            if(current != null){
+                stats = current;
+            }
         }
-        log.debug("Entity {} not found on any of the following Sites {}",entityId,sites);
-        return null;
+        return stats;
     }
+    /**
+     * A request sent to a {@link Site}
+     */
+    private interface SiteRequest<T> {
+        T execute(Site site) throws SiteException;
+    }
+    /**
+     * {@link FutureTask} that executes a {@link SiteRequest} for a 
+     * {@link Site} and records the time needed in the {@link SiteStatistics}
+     */
+    private final class SiteTask<T> extends FutureTask<T> {
 
+        private final Site site;
+        /**
+         * If the task was submitted to the executor
+         */
+        private boolean submitted;
+        /**
+         * If the task holds a pending request of the site
+         */
+        private boolean acquired;
+        /**
+         * Ensures that the pending request is released only once
+         */
+        private final AtomicBoolean released = new AtomicBoolean();
+        /**
+         * If the execution of the request has started
+         */
+        private volatile boolean started;
 
+        SiteTask(final Site site, final SiteRequest<T> request){
+            super(new Callable<T>() {
+                @Override
+                public T call() throws SiteException {
+                    long start = System.currentTimeMillis();
+                    boolean failed = true;
+                    try {
+                        T result = request.execute(site);
+                        failed = false;
+                        return result;
+                    } finally {
+                        getStatistics(site).addRequest(
+                            System.currentTimeMillis() - start, failed);
+                    }
+                }
+            });
+            this.site = site;
+        }
 
+        public Site getSite() {
+            return site;
+        }
+        /**
+         * Releases the pending request of the site (if acquired)
+         */
+        void release(){
+            if(acquired && released.compareAndSet(false, true)){
+                getStatistics(site).release();
+            }
+        }
+        @Override
+        public void run() {
+            started = true;
+            try {
+                super.run();
+            } finally {
+                release();
+            }
+        }
+        @Override
+        protected void done() {
+            if(!started){ //cancelled before the request was executed
+                release();
+            } //else released by run() after the request completes
+        }
+    }
+    /**
+     * Thread safe {@link SiteStatistics} implementation
+     */
+    private static final class SiteStatisticsImpl implements SiteStatistics {
+
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+        private final AtomicLong duration = new AtomicLong();
+        private final AtomicLong maxDuration = new AtomicLong();
+        private final AtomicLong rejections = new AtomicLong();
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private SiteStatisticsImpl() {}
+
+        /**
+         * Acquires a pending request
+         * @param max the maximum number of pending requests (&lt;= 0 for
+         * no limit)
+         * @return <code>false</code> if the site has already the maximum
+         * number of pending requests
+         */
+        private boolean acquire(int max){
+            if(pending.incrementAndGet() > max && max > 0){
+                pending.decrementAndGet();
+                rejections.incrementAndGet();
+                return false;
+            }
+            return true;
+        }
+
+        private void release(){
+            pending.decrementAndGet();
+        }
+
+        private void addRequest(long time, boolean failed){
+            requests.incrementAndGet();
+            if(failed){
+                failures.incrementAndGet();
+            }
+            duration.addAndGet(time);
+            long max = maxDuration.get();
+            while(time > max && !maxDuration.compareAndSet(max, time)){
+                max = maxDuration.get();
+            }
+        }
+        @Override
+        public long getRequestCount() {
+            return requests.get();
+        }
+        @Override
+        public long getFailureCount() {
+            return failures.get();
+        }
+        @Override
+        public long getTimeoutCount() {
+            return timeouts.get();
+        }
+        @Override
+        public long getRejectedCount() {
+            return rejections.get();
+        }
+        @Override
+        public int getPendingCount() {
+            return pending.get();
+        }
+        @Override
+        public double getAverageTime() {
+            long requests = this.requests.get();
+            return requests > 0 ? duration.get()/(double)requests : 0d;
+        }
+        @Override
+        public long getMaxTime() {
+            return maxDuration.get();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d requests (failed: %d, timed out: %d, rejected: %d) | "
+                + "avg: %.2fms | max: %dms", requests.get(), failures.get(),
+                timeouts.get(), rejections.get(), getAverageTime(), maxDuration.get());
+        }
+    }
 }
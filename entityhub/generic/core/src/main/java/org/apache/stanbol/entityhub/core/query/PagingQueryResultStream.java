@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.core.query;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
+import org.apache.stanbol.entityhub.servicesapi.query.QueryResultStream;
+
+/**
+ * {@link QueryResultStream} that loads results page by page. Only the
+ * results of the current page are kept in memory. The next page is
+ * {@link #fetch(int, int, Object) fetched} as soon as all results of the
+ * current page are consumed. The stream ends if an empty page is returned or
+ * the limit of the query is reached.<p>
+ * The default implementation of {@link #fetch(int, int, Object)} is not
+ * provided because it depends on the source of the results. Sources that only
+ * support offset/limit based paging can use {@link #createPageQuery(int, int)}.
+ * Sources that support more efficient paging (e.g. by using the last result
+ * of the previous page as lower bound) can use the parsed last result.<p>
+ * Instances are not thread safe.
+ *
+ * @param <T> the type of the results
+ */
+public abstract class PagingQueryResultStream<T> implements QueryResultStream<T> {
+
+    private final FieldQuery query;
+    private final Class<T> type;
+    private final int pageSize;
+    /**
+     * The maximum number of results or <code>null</code> if unlimited
+     */
+    private final Integer limit;
+    /**
+     * The offset of the next page
+     */
+    private int offset;
+    /**
+     * The number of results returned by {@link #next()}
+     */
+    private int count;
+    private Iterator<? extends T> page = Collections.<T>emptyList().iterator();
+    private T last;
+    private boolean finished;
+
+    /**
+     * Creates a stream for the parsed query.
+     * @param query the query. The offset of the query is used as offset of the
+     * first page and the limit as maximum number of results.
+     * @param type the type of the results
+     * @param pageSize the number of results requested for a page
+     * @throws IllegalArgumentException if the parsed query or type is
+     * <code>null</code> or the page size is &lt;= 0
+     */
+    protected PagingQueryResultStream(FieldQuery query, Class<T> type, int pageSize) {
+        if(query == null){
+            throw new IllegalArgumentException("The parsed FieldQuery MUST NOT be NULL!");
+        }
+        if(type == null){
+            throw new IllegalArgumentException("The type of the results MUST NOT be NULL");
+        }
+        if(pageSize <= 0){
+            throw new IllegalArgumentException("The parsed page size MUST BE > 0 (parsed: "
+                + pageSize + ")!");
+        }
+        this.query = query;
+        this.type = type;
+        this.pageSize = pageSize;
+        this.limit = query.getLimit() != null && query.getLimit() > 0 ? query.getLimit() : null;
+        this.offset = query.getOffset();
+    }
+
+    /**
+     * Fetches the results of the next page.
+     * @param offset the offset of the first result of the page. This is the
+     * offset of the query plus the number of results of all previous pages.
+     * @param limit the maximum number of results of the page
+     * @param last the last result of the previous page or <code>null</code>
+     * if the first page is requested
+     * @return the results of the page. <code>null</code> or an empty collection
+     * if there are no further results.
+     */
+    protected abstract Collection<? extends T> fetch(int offset, int limit, T last);
+
+    /**
+     * Creates a clone of the query of this stream with the parsed offset
+     * and limit. Intended to be used by implementations of
+     * {@link #fetch(int, int, Object)} that use offset/limit based paging.
+     * @param offset the offset
+     * @param limit the limit
+     * @return the query for the requested page
+     */
+    protected final FieldQuery createPageQuery(int offset, int limit) {
+        FieldQuery pageQuery = query.clone();
+        pageQuery.setOffset(offset);
+        pageQuery.setLimit(limit);
+        return pageQuery;
+    }
+
+    @Override
+    public final boolean hasNext() {
+        if(limit != null && count >= limit){
+            return false;
+        }
+        if(page.hasNext()){
+            return true;
+        }
+        if(finished){
+            return false;
+        }
+        int size = limit == null ? pageSize : Math.min(pageSize, limit - count);
+        Collection<? extends T> results = fetch(offset, size, last);
+        if(results == null || results.isEmpty()){
+            finished = true;
+            return false;
+        }
+        offset = offset + results.size();
+        page = results.iterator();
+        return page.hasNext();
+    }
+
+    @Override
+    public final T next() {
+        if(!hasNext()){
+            throw new NoSuchElementException();
+        }
+        last = page.next();
+        count++;
+        return last;
+    }
+    /**
+     * Not supported
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public final void remove() {
+        throw new UnsupportedOperationException("Removal of results is not supported!");
+    }
+
+    @Override
+    public final FieldQuery getQuery() {
+        return query;
+    }
+
+    @Override
+    public final Set<String> getSelectedFields() {
+        return query.getSelectedFields();
+    }
+
+    @Override
+    public final Class<T> getType() {
+        return type;
+    }
+    /**
+     * The number of results returned so far
+     * @return the number of returned results
+     */
+    public final int getCount() {
+        return count;
+    }
+}
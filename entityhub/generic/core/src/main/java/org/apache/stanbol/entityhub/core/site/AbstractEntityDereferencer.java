@@ -18,17 +18,21 @@ package org.apache.stanbol.entityhub.core.site;
 
 import static org.apache.stanbol.entityhub.core.site.AbstractEntitySearcher.extractBaseUri;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Dictionary;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.RandomAccess;
 
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Deactivate;
 import org.apache.felix.scr.annotations.Property;
+import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.apache.stanbol.entityhub.servicesapi.site.SiteConfiguration;
 import org.apache.stanbol.entityhub.servicesapi.site.EntityDereferencer;
 import org.osgi.service.component.ComponentContext;
@@ -127,6 +131,28 @@ public abstract class AbstractEntityDereferencer implements EntityDereferencer {
         return pos >= 0 && uri.startsWith(prefixes.get(pos));
     }
 
+    /**
+     * Default implementation that calls {@link #dereference(String)} for
+     * every parsed URI. Subclasses that can load multiple Entities with a
+     * single request should override this method.
+     */
+    @Override
+    public Map<String,Representation> dereference(Collection<String> uris) throws IOException {
+        if(uris == null){
+            throw new IllegalArgumentException("The parsed collection of URIs MUST NOT be NULL!");
+        }
+        Map<String,Representation> representations = new LinkedHashMap<String,Representation>();
+        for(String uri : uris){
+            if(uri != null && !uri.isEmpty() && !representations.containsKey(uri)){
+                Representation rep = dereference(uri);
+                if(rep != null){
+                    representations.put(uri, rep);
+                }
+            }
+        }
+        return representations;
+    }
+
     /**
      * The prefixes as configured for this dereferencer as unmodifiable and
      * sorted list guaranteed to implementing {@link RandomAccess}.
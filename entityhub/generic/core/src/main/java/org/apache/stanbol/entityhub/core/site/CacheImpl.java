@@ -16,6 +16,12 @@
  */
 package org.apache.stanbol.entityhub.core.site;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.ConfigurationPolicy;
@@ -34,6 +40,7 @@ import org.apache.stanbol.entityhub.servicesapi.model.ValueFactory;
 import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
 import org.apache.stanbol.entityhub.servicesapi.query.FieldQueryFactory;
 import org.apache.stanbol.entityhub.servicesapi.query.QueryResultList;
+import org.apache.stanbol.entityhub.servicesapi.query.QueryResultStream;
 import org.apache.stanbol.entityhub.servicesapi.yard.Cache;
 import org.apache.stanbol.entityhub.servicesapi.yard.CacheStrategy;
 import org.apache.stanbol.entityhub.servicesapi.yard.Yard;
@@ -46,15 +53,49 @@ import org.slf4j.LoggerFactory;
 /**
  * This is the Implementation of the {@link Cache} Interface as defined by the
  * entityhub services API.<p>
+ * If write-behind is enabled {@link #store(Representation)} only applies the
+ * cache mappings and queues the Representation. Queued Representations are
+ * stored in batches to the {@link Yard} by a background thread. They are
+ * returned by {@link #getRepresentation(String)}, 
+ * {@link #getRepresentations(Iterable, Set)} and 
+ * {@link #isRepresentation(String)} but are not considered by queries
+ * until they are stored in the {@link Yard}.
  * 
  * @author Rupert Westenthaler
  */
 public class CacheImpl implements Cache {
     private Logger log = LoggerFactory.getLogger(CacheImpl.class);
 
+    /**
+     * Key used to enable write-behind for a cache
+     */
+    public static final String WRITE_BEHIND = "org.apache.stanbol.entityhub.yard.cache.writeBehind";
+    /**
+     * Key used to configure the maximum number of Representations queued
+     * if write-behind is enabled
+     */
+    public static final String WRITE_BEHIND_QUEUE_SIZE = "org.apache.stanbol.entityhub.yard.cache.writeBehindQueueSize";
+    /**
+     * By default write-behind is disabled
+     */
+    public static final boolean DEFAULT_WRITE_BEHIND = false;
+    /**
+     * The default maximum number of queued Representations
+     */
+    public static final int DEFAULT_WRITE_BEHIND_QUEUE_SIZE = 1000;
+    /**
+     * The maximum number of queued Representations stored with a single
+     * call to {@link Yard#store(Iterable)}
+     */
+    public static final int WRITE_BEHIND_BATCH_SIZE = 100;
+
     private FieldMapper baseMapper;
     private FieldMapper additionalMapper;
     private final Yard yard;
+    /**
+     * The queue used for write-behind or <code>null</code> if disabled
+     */
+    private final WriteBehindQueue writeBehind;
 
     /**
      * Constructs a new Cache for the parsed Yard and mappings
@@ -66,6 +107,23 @@ public class CacheImpl implements Cache {
      * throws {@link IllegalArgumentException} if <code>null</code> is parsed as Yard
      */
     public CacheImpl(Yard yard, String[] additionalMappings, NamespacePrefixService nsPrefixService) throws YardException {
+        this(yard, additionalMappings, nsPrefixService, 0);
+    }
+    /**
+     * Constructs a new Cache for the parsed Yard and mappings
+     * @param yard
+     * @param additionalMappings
+     * @param nsPrefixService
+     * @param writeBehindQueueSize the maximum number of Representations
+     * queued for write-behind. If <code>&lt;= 0</code> write-behind is disabled
+     * and Representations are stored synchronously. Caches with write-behind
+     * MUST BE {@link #close() closed} if no longer used.
+     * @throws YardException if loading the base mappings from the Yard fails
+     * @throws IllegalStateException when parsing the additional mappings do fail
+     * throws {@link IllegalArgumentException} if <code>null</code> is parsed as Yard
+     */
+    public CacheImpl(Yard yard, String[] additionalMappings, NamespacePrefixService nsPrefixService,
+            int writeBehindQueueSize) throws YardException {
         if(yard == null){
             throw new IllegalArgumentException("The parsed Yard MUST NOT be NULL!");
         }
@@ -96,6 +154,41 @@ public class CacheImpl implements Cache {
             log.info("Replace Additional Mappings for Cache {} with Mappings configured by OSGI",yard.getId());
             setAdditionalMappings(yard, configuredMappings);
         } //else current config equals configured one -> nothing to do!    
+        if(writeBehindQueueSize > 0){
+            log.info("enable write-behind for Cache {} (queue size: {})",yard.getId(), writeBehindQueueSize);
+            writeBehind = new WriteBehindQueue(yard, writeBehindQueueSize, 
+                Math.min(writeBehindQueueSize, WRITE_BEHIND_BATCH_SIZE));
+        } else {
+            writeBehind = null;
+        }
+    }
+    /**
+     * Stores all Representations queued for write-behind and stops the
+     * background thread. Representations stored after this call are
+     * directly stored to the Yard.
+     */
+    public void close(){
+        if(writeBehind != null){
+            writeBehind.close();
+        }
+    }
+    /**
+     * Waits until all Representations queued for write-behind are stored
+     * in the Yard.
+     * @throws YardException if interrupted while waiting or if the
+     * write-behind Thread has failed
+     */
+    public void flush() throws YardException {
+        if(writeBehind != null){
+            try {
+                writeBehind.flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new YardException("Interrupted while waiting for queued Representations to be stored",e);
+            } catch (IllegalStateException e) {
+                throw new YardException(e.getMessage(),e);
+            }
+        }
     }
     
     @Override
@@ -128,12 +221,30 @@ public class CacheImpl implements Cache {
      */
     @Override
     public Representation store(Representation representation) throws IllegalArgumentException, YardException {
-        return yard.store(applyCacheMappings(yard, representation));
+        Representation mapped = applyCacheMappings(yard, representation);
+        if(writeBehind != null){
+            try {
+                if(writeBehind.add(mapped)){
+                    return mapped;
+                } //else closed ... store synchronously
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new YardException("Interrupted while queuing Representation "
+                    + representation.getId() + " for write-behind", e);
+            }
+        }
+        return yard.store(mapped);
     }
 
     @Override
     public Representation update(Representation representation) throws YardException, IllegalArgumentException {
-        return yard.update(applyCacheMappings(yard, representation));
+        Representation mapped = applyCacheMappings(yard, representation);
+        //if the Representation is still queued we need to replace the queued one
+        if(writeBehind != null && writeBehind.replace(mapped)){
+            return mapped;
+        } else {
+            return yard.update(mapped);
+        }
     }
 
     /**
@@ -158,7 +269,9 @@ public class CacheImpl implements Cache {
             }
             additionalMapper.applyMappings(representation, mapped,valueFactory);
         }
-        log.info("  -- applied mappings in " + (System.currentTimeMillis() - start) + "ms");
+        if(log.isDebugEnabled()){
+            log.debug("  -- applied mappings in " + (System.currentTimeMillis() - start) + "ms");
+        }
         return mapped != null ? mapped : representation;
     }
 
@@ -182,6 +295,12 @@ public class CacheImpl implements Cache {
         return yard.find(query);
     }
 
+    @Override
+    public QueryResultStream<Representation> stream(FieldQuery query, int pageSize) 
+            throws YardException, IllegalArgumentException {
+        return yard.stream(query, pageSize);
+    }
+
     @Override
     public QueryResultList<String> findReferences(FieldQuery query) throws YardException, IllegalArgumentException {
         return yard.findReferences(query);
@@ -214,7 +333,67 @@ public class CacheImpl implements Cache {
 
     @Override
     public Representation getRepresentation(String id) throws YardException, IllegalArgumentException {
-        return yard.getRepresentation(id);
+        Representation rep = writeBehind == null || id == null ? null : writeBehind.get(id);
+        return rep != null ? rep : yard.getRepresentation(id);
+    }
+
+    @Override
+    public Map<String,Representation> getRepresentations(Iterable<String> ids, Set<String> fields) 
+            throws YardException, IllegalArgumentException {
+        if(writeBehind == null || ids == null || writeBehind.size() < 1){
+            return yard.getRepresentations(ids, fields);
+        }
+        //first check the Representations queued for write-behind
+        Map<String,Representation> queued = new LinkedHashMap<String,Representation>();
+        List<String> missing = new ArrayList<String>();
+        for(String id : ids){
+            Representation rep = id == null ? null : writeBehind.get(id);
+            if(rep != null){
+                queued.put(id, selectFields(rep, fields));
+            } else {
+                missing.add(id);
+            }
+        }
+        if(queued.isEmpty()){
+            return yard.getRepresentations(missing, fields);
+        }
+        Map<String,Representation> found = missing.isEmpty() ? queued :
+            yard.getRepresentations(missing, fields);
+        //keep the order of the parsed ids
+        Map<String,Representation> representations = new LinkedHashMap<String,Representation>();
+        for(String id : ids){
+            Representation rep = queued.get(id);
+            if(rep == null){
+                rep = found.get(id);
+            }
+            if(rep != null){
+                representations.put(id, rep);
+            }
+        }
+        return representations;
+    }
+
+    /**
+     * Creates a copy of the parsed Representation that only contains the
+     * parsed fields. Used for Representations queued for write-behind as
+     * those are not yet processed by the Yard.
+     * @param rep the representation
+     * @param fields the fields or <code>null</code> or empty to select all
+     * @return the representation with the selected fields
+     */
+    private Representation selectFields(Representation rep, Set<String> fields){
+        if(fields == null || fields.isEmpty()){
+            return rep;
+        }
+        Representation selected = yard.getValueFactory().createRepresentation(rep.getId());
+        for(String field : fields){
+            if(field != null){
+                for(Iterator<Object> values = rep.get(field); values.hasNext();){
+                    selected.add(field, values.next());
+                }
+            }
+        }
+        return selected;
     }
 
     @Override
@@ -224,11 +403,21 @@ public class CacheImpl implements Cache {
 
     @Override
     public boolean isRepresentation(String id) throws YardException, IllegalArgumentException {
-        return yard.isRepresentation(id);
+        return (writeBehind != null && id != null && writeBehind.get(id) != null) ||
+                yard.isRepresentation(id);
     }
 
     @Override
     public void remove(String id) throws IllegalArgumentException, YardException {
+        if(writeBehind != null && id != null){
+            try {
+                writeBehind.remove(id);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new YardException("Interrupted while removing Representation "
+                    + id + " from the write-behind queue", e);
+            }
+        }
         yard.remove(id);
     }
 
@@ -309,10 +498,31 @@ public class CacheImpl implements Cache {
 
     @Override
     public void remove(Iterable<String> ids) throws IllegalArgumentException, YardException {
+        if(writeBehind != null && ids != null){
+            for(String id : ids){
+                if(id != null){
+                    try {
+                        writeBehind.remove(id);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new YardException("Interrupted while removing Representation "
+                            + id + " from the write-behind queue", e);
+                    }
+                }
+            }
+        }
         yard.remove(ids);
     }
     @Override
     public void removeAll() throws YardException {
+        if(writeBehind != null){
+            try {
+                writeBehind.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new YardException("Interrupted while clearing the write-behind queue", e);
+            }
+        }
         //ensure that the baseConfig (if present) is not deleted by this
         //operation
         Representation baseConfig = yard.getRepresentation(Cache.BASE_CONFIGURATION_URI);
@@ -324,11 +534,61 @@ public class CacheImpl implements Cache {
     
     @Override
     public Iterable<Representation> store(Iterable<Representation> representations) throws IllegalArgumentException, YardException {
-        return yard.store(representations);
+        if(representations == null){
+            throw new IllegalArgumentException("The parsed Representations MUST NOT be NULL!");
+        }
+        List<Representation> mapped = new ArrayList<Representation>();
+        for(Representation representation : representations){
+            if(representation != null){
+                mapped.add(applyCacheMappings(yard, representation));
+            }
+        }
+        if(writeBehind != null){
+            try {
+                boolean queued = true;
+                for(int i = 0; queued && i < mapped.size(); i++){
+                    queued = writeBehind.add(mapped.get(i));
+                }
+                if(queued){
+                    return mapped;
+                } //else closed ... store synchronously
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new YardException("Interrupted while queuing Representations for write-behind", e);
+            }
+        }
+        return yard.store(mapped);
     }
 
+    /**
+     * Like {@link #update(Representation)} this applies the mappings of the
+     * Cache to all parsed Representations before they are updated. Therefore
+     * the returned Representations are the mapped versions. Representations
+     * still queued for write-behind are replaced in the queue.
+     */
     @Override
     public Iterable<Representation> update(Iterable<Representation> representations) throws YardException, IllegalArgumentException {
-        return yard.update(representations);
+        if(representations == null){
+            throw new IllegalArgumentException("The parsed Representations MUST NOT be NULL!");
+        }
+        List<Representation> updated = new ArrayList<Representation>();
+        List<Representation> mapped = new ArrayList<Representation>();
+        for(Representation representation : representations){
+            if(representation != null){
+                Representation rep = applyCacheMappings(yard, representation);
+                //if the Representation is still queued we need to replace the queued one
+                if(writeBehind != null && writeBehind.replace(rep)){
+                    updated.add(rep);
+                } else {
+                    mapped.add(rep);
+                }
+            }
+        }
+        if(!mapped.isEmpty()){
+            for(Representation rep : yard.update(mapped)){
+                updated.add(rep);
+            }
+        }
+        return updated;
     }
 }
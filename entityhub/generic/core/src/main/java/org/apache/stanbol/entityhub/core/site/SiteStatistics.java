@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.core.site;
+
+import org.apache.stanbol.entityhub.servicesapi.site.Site;
+
+/**
+ * Request statistics for a {@link Site} as collected by a 
+ * {@link SiteStatisticsProvider}. Times are in milliseconds.
+ */
+public interface SiteStatistics {
+
+    /**
+     * The number of completed requests (including failed ones)
+     */
+    long getRequestCount();
+    /**
+     * The number of requests that failed with an Exception
+     */
+    long getFailureCount();
+    /**
+     * The number of requests that did not complete before the deadline
+     */
+    long getTimeoutCount();
+    /**
+     * The number of requests not sent to the site because of too many
+     * pending requests
+     */
+    long getRejectedCount();
+    /**
+     * The number of requests that are currently queued or executed
+     */
+    int getPendingCount();
+    /**
+     * The average time needed for completed requests
+     */
+    double getAverageTime();
+    /**
+     * The maximum time needed by a completed request
+     */
+    long getMaxTime();
+
+}
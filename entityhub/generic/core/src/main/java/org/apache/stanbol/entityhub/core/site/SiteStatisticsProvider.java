@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.core.site;
+
+import java.util.Map;
+
+import org.apache.stanbol.entityhub.servicesapi.site.Site;
+
+/**
+ * Implemented by components that send requests to {@link Site}s and collect
+ * {@link SiteStatistics} about them (e.g. the default SiteManager).
+ */
+public interface SiteStatisticsProvider {
+
+    /**
+     * Getter for the request statistics of the {@link Site}s
+     * @return the read-only statistics by site id
+     */
+    Map<String,SiteStatistics> getSiteStatistics();
+
+}
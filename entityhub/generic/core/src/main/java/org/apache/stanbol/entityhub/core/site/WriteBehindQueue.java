@@ -0,0 +1,350 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.core.site;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.stanbol.entityhub.servicesapi.model.Representation;
+import org.apache.stanbol.entityhub.servicesapi.yard.Yard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Queue used by the {@link CacheImpl} to store {@link Representation}s
+ * asynchronously (write-behind). Queued Representations are stored in
+ * batches to the {@link Yard} by a background thread.<p>
+ * The queue is bounded. If it is full {@link #add(Representation)} blocks
+ * until the background thread has taken the next batch (back-pressure).
+ * Representations with the same id are coalesced: only the last added
+ * version is stored.<p>
+ * Representations are visible via {@link #get(String)} from the time they
+ * are added until they are stored in the {@link Yard}.
+ */
+final class WriteBehindQueue {
+
+    private final Logger log = LoggerFactory.getLogger(WriteBehindQueue.class);
+
+    /**
+     * The maximum time in milliseconds {@link #close()} waits for queued
+     * Representations to be stored.
+     */
+    private static final long CLOSE_TIMEOUT = 30000;
+
+    private final Yard yard;
+    private final int maxSize;
+    private final int batchSize;
+
+    private final Lock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition stored = lock.newCondition();
+    /**
+     * Representations waiting to be stored by id
+     */
+    private final Map<String,Representation> queued = new LinkedHashMap<String,Representation>();
+    /**
+     * The batch currently stored by the background thread
+     */
+    private Map<String,Representation> storing = Collections.emptyMap();
+
+    private boolean closed;
+    /**
+     * The Error or RuntimeException that caused the background thread to
+     * fail or <code>null</code>
+     */
+    private Throwable failure;
+
+    private final Thread worker;
+
+    /**
+     * Creates and starts a write-behind queue for the parsed yard
+     * @param yard the yard. MUST NOT be <code>null</code>
+     * @param maxSize the maximum number of queued Representations
+     * @param batchSize the maximum number of Representations stored with a
+     * single call to {@link Yard#store(Iterable)}
+     */
+    WriteBehindQueue(Yard yard, int maxSize, int batchSize){
+        if(yard == null){
+            throw new IllegalArgumentException("The parsed Yard MUST NOT be NULL!");
+        }
+        if(maxSize <= 0){
+            throw new IllegalArgumentException("The parsed maximum queue size MUST BE > 0 (parsed: "
+                + maxSize + ")!");
+        }
+        if(batchSize <= 0){
+            throw new IllegalArgumentException("The parsed batch size MUST BE > 0 (parsed: "
+                + batchSize + ")!");
+        }
+        this.yard = yard;
+        this.maxSize = maxSize;
+        this.batchSize = batchSize;
+        worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    storeQueued();
+                } catch (RuntimeException e) {
+                    failed(e);
+                    throw e;
+                } catch (Error e) {
+                    failed(e);
+                    throw e;
+                }
+            }
+        }, "Entityhub Cache write-behind Thread (yard: " + yard.getId() + ")");
+        worker.setDaemon(true);
+        worker.start();
+    }
+    /**
+     * Adds a Representation to the queue. Blocks if the queue is full.
+     * @param rep the representation
+     * @return <code>true</code> if the representation was queued or
+     * <code>false</code> if this queue is already closed
+     * @throws InterruptedException if interrupted while waiting for the
+     * queue to accept the representation
+     */
+    boolean add(Representation rep) throws InterruptedException {
+        String id = rep.getId();
+        lock.lock();
+        try {
+            //representations with an id already in the queue replace the queued
+            //version and do not need additional space
+            while(!closed && queued.size() >= maxSize && !queued.containsKey(id)){
+                notFull.await();
+            }
+            if(closed){
+                return false;
+            }
+            queued.put(id, rep);
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Replaces the Representation if a version with the same id is queued or
+     * currently stored.
+     * @param rep the representation
+     * @return <code>true</code> if the representation was queued or
+     * <code>false</code> if no version with the same id is queued
+     */
+    boolean replace(Representation rep){
+        String id = rep.getId();
+        lock.lock();
+        try {
+            if(!closed && (queued.containsKey(id) || storing.containsKey(id))){
+                queued.put(id, rep);
+                notEmpty.signal();
+                return true;
+            } else {
+                return false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Getter for a Representation that is not yet stored in the Yard
+     * @param id the id
+     * @return the representation or <code>null</code> if no representation
+     * with the parsed id is queued.
+     */
+    Representation get(String id){
+        lock.lock();
+        try {
+            Representation rep = queued.get(id);
+            return rep != null ? rep : storing.get(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Removes the Representation with the parsed id from the queue. If the
+     * representation is currently stored this waits until the Yard has
+     * completed the store operation so that a subsequent removal from the
+     * Yard is not overridden.
+     * @param id the id
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void remove(String id) throws InterruptedException {
+        lock.lock();
+        try {
+            queued.remove(id);
+            notFull.signalAll();
+            while(storing.containsKey(id)){
+                stored.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Removes all queued Representations and waits for the current batch to
+     * be stored.
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void clear() throws InterruptedException {
+        lock.lock();
+        try {
+            queued.clear();
+            notFull.signalAll();
+            while(!storing.isEmpty()){
+                stored.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Waits until all currently queued Representations are stored in the
+     * Yard.
+     * @throws InterruptedException if interrupted while waiting
+     * @throws IllegalStateException if the background thread has failed and
+     * queued Representations will therefore never be stored
+     */
+    void flush() throws InterruptedException {
+        lock.lock();
+        try {
+            while((!queued.isEmpty() || !storing.isEmpty()) && failure == null){
+                stored.await();
+            }
+            if(failure != null){
+                throw new IllegalStateException("The write-behind Thread for Yard "
+                    + yard.getId() + " has failed! " + queued.size() 
+                    + " queued Representations are not stored.", failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * The number of Representations waiting to be stored
+     */
+    int size(){
+        lock.lock();
+        try {
+            return queued.size() + storing.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Closes the queue. Already queued Representations are stored before the
+     * background thread ends. Calls to {@link #add(Representation)} will
+     * return <code>false</code> after this method was called.
+     */
+    void close(){
+        lock.lock();
+        try {
+            if(closed){
+                return;
+            }
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            worker.join(CLOSE_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if(worker.isAlive()){
+            log.warn("Unable to store {} queued Representations to Yard {} within {}ms",
+                new Object[]{size(), yard.getId(), CLOSE_TIMEOUT});
+        }
+    }
+
+    /**
+     * Called if the background thread fails. Closes the queue and wakes up
+     * all waiting threads.
+     * @param e the cause
+     */
+    private void failed(Throwable e){
+        log.error("The write-behind Thread for Yard " + yard.getId() + " has failed!", e);
+        lock.lock();
+        try {
+            failure = e;
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+            stored.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Run by the background thread. Takes batches of queued Representations
+     * and stores them to the Yard until the queue is closed and empty.
+     */
+    private void storeQueued(){
+        while(true){
+            Map<String,Representation> batch;
+            lock.lock();
+            try {
+                while(queued.isEmpty() && !closed){
+                    try {
+                        notEmpty.await();
+                    } catch (InterruptedException e) {
+                        closed = true; //stop processing
+                    }
+                }
+                if(queued.isEmpty()){ //closed and all representations are stored
+                    return;
+                }
+                batch = new LinkedHashMap<String,Representation>(
+                        Math.min(queued.size(), batchSize)*2);
+                Iterator<Map.Entry<String,Representation>> it = queued.entrySet().iterator();
+                while(batch.size() < batchSize && it.hasNext()){
+                    Map.Entry<String,Representation> entry = it.next();
+                    batch.put(entry.getKey(), entry.getValue());
+                    it.remove();
+                }
+                storing = batch;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            long start = System.currentTimeMillis();
+            try {
+                yard.store(batch.values());
+                log.debug("  - stored {} queued Representations in Yard {} in {}ms",
+                    new Object[]{batch.size(), yard.getId(), System.currentTimeMillis() - start});
+            } catch (RuntimeException e) { //YardException or unchecked errors
+                log.warn(String.format("Unable to store %d queued Representations in Yard %s! "
+                    + "Representations not cached!", batch.size(), yard.getId()), e);
+            } finally {
+                lock.lock();
+                try {
+                    storing = Collections.emptyMap();
+                    stored.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+}
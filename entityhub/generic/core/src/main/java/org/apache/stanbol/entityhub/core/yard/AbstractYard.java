@@ -16,16 +16,24 @@
  */
 package org.apache.stanbol.entityhub.core.yard;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Dictionary;
 import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Properties;
 import org.apache.felix.scr.annotations.Property;
 import org.apache.stanbol.entityhub.core.query.DefaultQueryFactory;
+import org.apache.stanbol.entityhub.core.query.PagingQueryResultStream;
 import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.apache.stanbol.entityhub.servicesapi.model.ValueFactory;
+import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
 import org.apache.stanbol.entityhub.servicesapi.query.FieldQueryFactory;
+import org.apache.stanbol.entityhub.servicesapi.query.QueryResultStream;
 import org.apache.stanbol.entityhub.servicesapi.util.ModelUtils;
 import org.apache.stanbol.entityhub.servicesapi.yard.Yard;
 import org.apache.stanbol.entityhub.servicesapi.yard.YardException;
@@ -207,6 +215,61 @@ public abstract class AbstractYard implements Yard {
         }
         return valueFactory;
     }
+    /**
+     * Default implementation that calls {@link #getRepresentation(String)}
+     * for every parsed id. Subclasses SHOULD override this to retrieve all
+     * representations with a single request. The parsed fields are ignored
+     * (all fields are included).
+     */
+    @Override
+    public Map<String,Representation> getRepresentations(Iterable<String> ids, Set<String> fields) 
+            throws YardException, IllegalArgumentException {
+        if(ids == null){
+            throw new IllegalArgumentException("The parsed ids MUST NOT be NULL!");
+        }
+        Map<String,Representation> representations = null;
+        for(String id : ids){
+            if(id != null && !id.isEmpty() && 
+                    (representations == null || !representations.containsKey(id))){
+                Representation rep = getRepresentation(id);
+                if(rep != null){
+                    if(representations == null){
+                        representations = new LinkedHashMap<String,Representation>();
+                    }
+                    representations.put(id, rep);
+                }
+            }
+        }
+        if(representations == null){
+            return Collections.emptyMap();
+        } else {
+            return representations;
+        }
+    }
+    /**
+     * Default implementation that uses {@link #find(FieldQuery)} with the
+     * offset and limit of the requested page. The page size is reduced to
+     * the maximum number of query results if configured. Subclasses SHOULD
+     * override this if the underlying store supports more efficient paging
+     * for large offsets.
+     */
+    @Override
+    public QueryResultStream<Representation> stream(FieldQuery query, int pageSize) 
+            throws YardException, IllegalArgumentException {
+        if(query == null){
+            throw new IllegalArgumentException("The parsed FieldQuery MUST NOT be NULL!");
+        }
+        int maxResults = getConfig().getMaxQueryResultNumber();
+        if(maxResults > 0 && pageSize > maxResults){
+            pageSize = maxResults;
+        }
+        return new PagingQueryResultStream<Representation>(query.clone(), Representation.class, pageSize) {
+            @Override
+            protected Collection<? extends Representation> fetch(int offset, int limit, Representation last) {
+                return find(createPageQuery(offset, limit)).results();
+            }
+        };
+    }
     /**
      * This provides the prefix for URIs created by this Yard. This is used for
      * creating new unique URIs for Representation if {@link #create()} is
@@ -0,0 +1,315 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.core.impl;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Dictionary;
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.stanbol.entityhub.core.query.FieldQueryImpl;
+import org.apache.stanbol.entityhub.core.query.QueryResultListImpl;
+import org.apache.stanbol.entityhub.core.site.SiteConfigurationImpl;
+import org.apache.stanbol.entityhub.core.site.SiteStatistics;
+import org.apache.stanbol.entityhub.servicesapi.mapping.FieldMapper;
+import org.apache.stanbol.entityhub.servicesapi.model.Entity;
+import org.apache.stanbol.entityhub.servicesapi.model.Representation;
+import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
+import org.apache.stanbol.entityhub.servicesapi.query.FieldQueryFactory;
+import org.apache.stanbol.entityhub.servicesapi.query.QueryResultList;
+import org.apache.stanbol.entityhub.servicesapi.query.QueryResultStream;
+import org.apache.stanbol.entityhub.servicesapi.site.Site;
+import org.apache.stanbol.entityhub.servicesapi.site.SiteConfiguration;
+import org.apache.stanbol.entityhub.servicesapi.site.SiteException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.osgi.service.cm.ConfigurationException;
+
+public class SiteManagerImplTest {
+
+    private SiteManagerImpl siteManager;
+
+    @After
+    public void deactivate(){
+        if(siteManager != null){
+            siteManager.deactivate(null);
+            siteManager = null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private SiteManagerImpl activate(long timeout, int maxPending, TestSite...sites) throws ConfigurationException {
+        MockComponentContext context = new MockComponentContext();
+        context.getProperties().put(SiteManagerImpl.REQUEST_TIMEOUT, timeout);
+        context.getProperties().put(SiteManagerImpl.MAX_PENDING_REQUESTS_PER_SITE, maxPending);
+        siteManager = new SiteManagerImpl();
+        siteManager.activate(context);
+        for(TestSite site : sites){
+            siteManager.bindReferencedSites(site);
+        }
+        return siteManager;
+    }
+    /**
+     * Both sites need to be requested at the same time. A sequential
+     * execution would cause the first site to fail.
+     */
+    @Test
+    public void testConcurrentRequests() throws ConfigurationException, InterruptedException {
+        CountDownLatch running = new CountDownLatch(2);
+        TestSite site1 = new TestSite("site1", "urn:test:1");
+        site1.arrived = running;
+        site1.waitFor = running;
+        TestSite site2 = new TestSite("site2", "urn:test:2");
+        site2.arrived = running;
+        site2.waitFor = running;
+        activate(-1, -1, site1, site2);
+        QueryResultList<String> results = siteManager.findIds(new FieldQueryImpl());
+        Assert.assertEquals(new HashSet<String>(Arrays.asList("urn:test:1","urn:test:2")),
+            new HashSet<String>(results.results()));
+        Map<String,SiteStatistics> statistics = siteManager.getSiteStatistics();
+        Assert.assertEquals(1, statistics.get("site1").getRequestCount());
+        Assert.assertEquals(0, statistics.get("site1").getFailureCount());
+        Assert.assertEquals(1, statistics.get("site2").getRequestCount());
+        //released after the thread has completed the request
+        Assert.assertTrue(waitForPending(statistics.get("site2"), 0));
+    }
+
+    @Test
+    public void testFailedSite() throws ConfigurationException {
+        TestSite site1 = new TestSite("site1", "urn:test:1");
+        site1.fail = true;
+        TestSite site2 = new TestSite("site2", "urn:test:2");
+        activate(-1, -1, site1, site2);
+        QueryResultList<String> results = siteManager.findIds(new FieldQueryImpl());
+        Assert.assertEquals(Arrays.asList("urn:test:2"), results.results());
+        Assert.assertEquals(1, siteManager.getSiteStatistics().get("site1").getFailureCount());
+    }
+    /**
+     * Sites not answering before the deadline are ignored (partial results),
+     * but the running requests are not interrupted
+     */
+    @Test
+    public void testTimeout() throws ConfigurationException, InterruptedException {
+        TestSite slow = new TestSite("slow", "urn:test:slow");
+        slow.arrived = new CountDownLatch(1);
+        slow.waitFor = new CountDownLatch(1);
+        TestSite fast = new TestSite("fast", "urn:test:fast");
+        activate(100, -1, slow, fast);
+        long start = System.currentTimeMillis();
+        QueryResultList<String> results = siteManager.findIds(new FieldQueryImpl());
+        Assert.assertTrue(System.currentTimeMillis() - start < 5000);
+        Assert.assertEquals(Arrays.asList("urn:test:fast"), results.results());
+        SiteStatistics slowStats = siteManager.getSiteStatistics().get("slow");
+        Assert.assertEquals(1, slowStats.getTimeoutCount());
+        Assert.assertEquals(1, slowStats.getPendingCount());
+        slow.waitFor.countDown(); //now let the slow site complete
+        slow.completed.await(5, TimeUnit.SECONDS);
+        Assert.assertFalse("Requests MUST NOT be interrupted", slow.interrupted);
+        Assert.assertTrue(waitForPending(slowStats, 0));
+        Assert.assertEquals(1, slowStats.getRequestCount());
+        Assert.assertEquals(0, slowStats.getFailureCount());
+    }
+    /**
+     * A site with the maximum number of pending requests is skipped
+     */
+    @Test
+    public void testMaxPendingRequests() throws ConfigurationException, InterruptedException {
+        TestSite slow = new TestSite("slow", "urn:test:slow");
+        slow.arrived = new CountDownLatch(1);
+        slow.waitFor = new CountDownLatch(1);
+        TestSite fast = new TestSite("fast", "urn:test:fast");
+        activate(500, 1, slow, fast);
+        siteManager.findIds(new FieldQueryImpl());
+        Assert.assertTrue(slow.arrived.await(5, TimeUnit.SECONDS));
+        SiteStatistics slowStats = siteManager.getSiteStatistics().get("slow");
+        Assert.assertEquals(1, slowStats.getPendingCount());
+        //the 2nd request does not wait for the slow site
+        long start = System.currentTimeMillis();
+        QueryResultList<String> results = siteManager.findIds(new FieldQueryImpl());
+        Assert.assertTrue(System.currentTimeMillis() - start < 500);
+        Assert.assertEquals(Arrays.asList("urn:test:fast"), results.results());
+        Assert.assertEquals(1, slowStats.getRejectedCount());
+        Assert.assertEquals(1, slowStats.getTimeoutCount());
+        Assert.assertEquals(1, slow.requests.get());
+        //after the slow request completes the site is requested again
+        slow.waitFor.countDown();
+        Assert.assertTrue(waitForPending(slowStats, 0));
+        results = siteManager.findIds(new FieldQueryImpl());
+        Assert.assertEquals(2, results.size());
+        Assert.assertEquals(2, slow.requests.get());
+    }
+    /**
+     * Requests queued in the thread pool count for the deadline
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testDeadlineIncludesQueuedTime() throws ConfigurationException, InterruptedException {
+        TestSite slow = new TestSite("slow", "urn:test:slow");
+        slow.waitFor = new CountDownLatch(1);
+        TestSite other = new TestSite("other", "urn:test:other");
+        MockComponentContext context = new MockComponentContext();
+        context.getProperties().put(SiteManagerImpl.THREAD_POOL_SIZE, 1);
+        context.getProperties().put(SiteManagerImpl.REQUEST_TIMEOUT, 200);
+        siteManager = new SiteManagerImpl();
+        siteManager.activate(context);
+        siteManager.bindReferencedSites(slow);
+        siteManager.bindReferencedSites(other);
+        long start = System.currentTimeMillis();
+        QueryResultList<String> results = siteManager.findIds(new FieldQueryImpl());
+        long duration = System.currentTimeMillis() - start;
+        //the other site is queued behind the slow one and also times out
+        Assert.assertTrue(results.isEmpty());
+        Assert.assertTrue("duration "+duration+"ms", duration < 1000);
+        Assert.assertEquals(1, siteManager.getSiteStatistics().get("other").getTimeoutCount());
+        slow.waitFor.countDown();
+        //the queued request is cancelled and not executed
+        Assert.assertTrue(waitForPending(siteManager.getSiteStatistics().get("other"), 0));
+        Assert.assertEquals(0, other.requests.get());
+    }
+
+    private static boolean waitForPending(SiteStatistics stats, int pending) throws InterruptedException {
+        for(int i = 0; i < 500 && stats.getPendingCount() != pending; i++){
+            Thread.sleep(10);
+        }
+        return stats.getPendingCount() == pending;
+    }
+
+    /**
+     * Site that returns a single id for queries. Requests can be blocked
+     * by using {@link CountDownLatch}es
+     */
+    private static class TestSite implements Site {
+
+        private final String id;
+        private final String result;
+        private final SiteConfiguration config;
+        /**
+         * counted down as soon as a request arrives
+         */
+        CountDownLatch arrived;
+        /**
+         * requests wait for this latch (max 5sec)
+         */
+        CountDownLatch waitFor;
+        final CountDownLatch completed = new CountDownLatch(1);
+        volatile boolean fail;
+        volatile boolean interrupted;
+        final AtomicInteger requests = new AtomicInteger();
+
+        TestSite(String id, String result) throws ConfigurationException {
+            this.id = id;
+            this.result = result;
+            Dictionary<String,Object> dict = new Hashtable<String,Object>();
+            dict.put(SiteConfiguration.ID, id);
+            this.config = new SiteConfigurationImpl(dict){};
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public QueryResultList<String> findReferences(FieldQuery query) throws SiteException {
+            requests.incrementAndGet();
+            try {
+                if(arrived != null){
+                    arrived.countDown();
+                }
+                if(waitFor != null){
+                    try {
+                        if(!waitFor.await(5, TimeUnit.SECONDS)){
+                            throw new SiteException("Timeout while waiting for the latch");
+                        }
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                        throw new SiteException("interrupted", e);
+                    }
+                }
+                if(fail){
+                    throw new SiteException("Test Exception");
+                }
+                return new QueryResultListImpl<String>(query, Arrays.asList(result), String.class);
+            } finally {
+                completed.countDown();
+            }
+        }
+
+        @Override
+        public QueryResultList<Representation> find(FieldQuery query) throws SiteException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public QueryResultList<Entity> findEntities(FieldQuery query) throws SiteException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public QueryResultStream<Representation> stream(FieldQuery query, int pageSize) throws SiteException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Entity getEntity(String id) throws SiteException {
+            return null;
+        }
+
+        @Override
+        public Map<String,Representation> getRepresentations(Iterable<String> ids, Set<String> fields)
+                throws SiteException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public InputStream getContent(String id, String contentType) throws SiteException {
+            return null;
+        }
+
+        @Override
+        public FieldMapper getFieldMapper() {
+            return null;
+        }
+
+        @Override
+        public FieldQueryFactory getQueryFactory() {
+            return null;
+        }
+
+        @Override
+        public SiteConfiguration getConfiguration() {
+            return config;
+        }
+
+        @Override
+        public boolean supportsLocalMode() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsSearch() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.core.query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PagingQueryResultStreamTest {
+
+    @Test
+    public void testPaging(){
+        TestStream stream = new TestStream(new FieldQueryImpl(), 10, 3);
+        List<Integer> results = consume(stream);
+        Assert.assertEquals(10, results.size());
+        for(int i = 0; i < results.size(); i++){
+            Assert.assertEquals(i, results.get(i).intValue());
+        }
+        Assert.assertEquals(10, stream.getCount());
+        //4 pages with results and a final empty page
+        Assert.assertEquals(5, stream.requests.size());
+        Assert.assertEquals("0:3:null", stream.requests.get(0));
+        Assert.assertEquals("3:3:2", stream.requests.get(1));
+        Assert.assertEquals("9:3:8", stream.requests.get(3));
+        //no further requests after the end of the stream
+        Assert.assertFalse(stream.hasNext());
+        Assert.assertEquals(5, stream.requests.size());
+    }
+    /**
+     * Only the requested results are loaded and the next page is only
+     * requested after the current one was consumed
+     */
+    @Test
+    public void testLazyLoading(){
+        TestStream stream = new TestStream(new FieldQueryImpl(), 100, 10);
+        Assert.assertTrue(stream.requests.isEmpty());
+        for(int i = 0; i < 10; i++){
+            Assert.assertEquals(i, stream.next().intValue());
+        }
+        Assert.assertEquals(1, stream.requests.size());
+        Assert.assertTrue(stream.hasNext());
+        Assert.assertEquals(2, stream.requests.size());
+    }
+
+    @Test
+    public void testOffsetAndLimit(){
+        FieldQuery query = new FieldQueryImpl();
+        query.setOffset(5);
+        query.setLimit(7);
+        TestStream stream = new TestStream(query, 100, 3);
+        List<Integer> results = consume(stream);
+        Assert.assertEquals(7, results.size());
+        Assert.assertEquals(5, results.get(0).intValue());
+        Assert.assertEquals(11, results.get(6).intValue());
+        //the last page only requests the missing result and no empty page
+        //is requested if the limit is reached
+        Assert.assertEquals(3, stream.requests.size());
+        Assert.assertEquals("5:3:null", stream.requests.get(0));
+        Assert.assertEquals("11:1:10", stream.requests.get(2));
+    }
+
+    @Test
+    public void testEmptyResults(){
+        TestStream stream = new TestStream(new FieldQueryImpl(), 0, 3);
+        Assert.assertFalse(stream.hasNext());
+        Assert.assertEquals(1, stream.requests.size());
+        try {
+            stream.next();
+            Assert.fail("NoSuchElementException expected");
+        } catch (NoSuchElementException e) {
+            //expected
+        }
+    }
+
+    @Test
+    public void testPageQuery(){
+        FieldQuery query = new FieldQueryImpl();
+        query.addSelectedField("urn:test:field");
+        TestStream stream = new TestStream(query, 10, 3);
+        FieldQuery pageQuery = stream.createPageQuery(6, 3);
+        Assert.assertNotSame(query, pageQuery);
+        Assert.assertEquals(6, pageQuery.getOffset());
+        Assert.assertEquals(Integer.valueOf(3), pageQuery.getLimit());
+        Assert.assertEquals(query.getSelectedFields(), pageQuery.getSelectedFields());
+        //the query of the stream is not changed
+        Assert.assertEquals(0, query.getOffset());
+        Assert.assertSame(query, stream.getQuery());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalPageSize(){
+        new TestStream(new FieldQueryImpl(), 10, 0);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testRemove(){
+        TestStream stream = new TestStream(new FieldQueryImpl(), 10, 3);
+        stream.next();
+        stream.remove();
+    }
+
+    private static List<Integer> consume(TestStream stream){
+        List<Integer> results = new ArrayList<Integer>();
+        while(stream.hasNext()){
+            results.add(stream.next());
+        }
+        return results;
+    }
+
+    /**
+     * Stream over the Integers <code>[0..size)</code>. Records the parameters
+     * of all {@link #fetch(int, int, Integer)} calls as
+     * <code>{offset}:{limit}:{last}</code>
+     */
+    private static class TestStream extends PagingQueryResultStream<Integer> {
+
+        private final int size;
+        final List<String> requests = new ArrayList<String>();
+
+        TestStream(FieldQuery query, int size, int pageSize) {
+            super(query, Integer.class, pageSize);
+            this.size = size;
+        }
+
+        @Override
+        protected Collection<? extends Integer> fetch(int offset, int limit, Integer last) {
+            requests.add(offset + ":" + limit + ":" + last);
+            List<Integer> page = new ArrayList<Integer>(limit);
+            for(int i = offset; i < size && i < offset + limit; i++){
+                page.add(i);
+            }
+            return page;
+        }
+    }
+}
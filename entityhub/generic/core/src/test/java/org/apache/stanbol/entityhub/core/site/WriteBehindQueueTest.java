@@ -0,0 +1,405 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.core.site;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.stanbol.entityhub.core.model.InMemoryValueFactory;
+import org.apache.stanbol.entityhub.servicesapi.model.Representation;
+import org.apache.stanbol.entityhub.servicesapi.model.ValueFactory;
+import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
+import org.apache.stanbol.entityhub.servicesapi.query.FieldQueryFactory;
+import org.apache.stanbol.entityhub.servicesapi.query.QueryResultList;
+import org.apache.stanbol.entityhub.servicesapi.query.QueryResultStream;
+import org.apache.stanbol.entityhub.servicesapi.yard.Yard;
+import org.apache.stanbol.entityhub.servicesapi.yard.YardException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WriteBehindQueueTest {
+
+    private static final ValueFactory vf = InMemoryValueFactory.getInstance();
+
+    private static final String FIELD = "urn:test:field";
+
+    private TestYard yard;
+    private WriteBehindQueue queue;
+
+    @After
+    public void close(){
+        if(yard != null && yard.gate != null){
+            yard.gate.countDown();
+        }
+        if(queue != null){
+            queue.close();
+        }
+    }
+    /**
+     * Creates the queue and blocks storing until {@link TestYard#gate}
+     * is counted down
+     */
+    private void init(int maxSize, int batchSize, boolean blocking){
+        yard = new TestYard();
+        if(blocking){
+            yard.gate = new CountDownLatch(1);
+        }
+        queue = new WriteBehindQueue(yard, maxSize, batchSize);
+    }
+
+    /**
+     * Representations with the same id are coalesced: only the last version
+     * is stored
+     */
+    @Test
+    public void testCoalescing() throws InterruptedException {
+        init(10, 10, true);
+        queue.add(create("urn:test:a", 1));
+        //wait until the first version is stored
+        Assert.assertTrue(yard.started.await(5, TimeUnit.SECONDS));
+        queue.add(create("urn:test:b", 1));
+        queue.add(create("urn:test:a", 2));
+        queue.add(create("urn:test:a", 3));
+        //one stored and two queued representations
+        Assert.assertEquals(3, queue.size());
+        Assert.assertEquals(3, queue.get("urn:test:a").getFirst(FIELD));
+        yard.gate.countDown();
+        queue.flush();
+        Assert.assertEquals(0, queue.size());
+        Assert.assertEquals(2, yard.batches.size());
+        Assert.assertEquals(Collections.singletonList("urn:test:a:1"), yard.batches.get(0));
+        Assert.assertEquals(2, yard.batches.get(1).size());
+        Assert.assertTrue(yard.batches.get(1).contains("urn:test:a:3"));
+        Assert.assertEquals(3, yard.stored.get("urn:test:a").getFirst(FIELD));
+    }
+    /**
+     * If the queue is full {@link WriteBehindQueue#add(Representation)} blocks
+     * until the background thread takes the next batch
+     */
+    @Test
+    public void testBackPressure() throws InterruptedException {
+        init(2, 1, true);
+        queue.add(create("urn:test:a", 1));
+        Assert.assertTrue(yard.started.await(5, TimeUnit.SECONDS));
+        queue.add(create("urn:test:b", 1));
+        queue.add(create("urn:test:c", 1));
+        //a version of an already queued Representation does not need space
+        queue.add(create("urn:test:c", 2));
+        final CountDownLatch added = new CountDownLatch(1);
+        Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    queue.add(create("urn:test:d", 1));
+                    added.countDown();
+                } catch (InterruptedException e) {
+                    //test fails
+                }
+            }
+        });
+        producer.start();
+        Assert.assertFalse("add MUST block while the queue is full",
+            added.await(200, TimeUnit.MILLISECONDS));
+        yard.gate.countDown();
+        Assert.assertTrue(added.await(5, TimeUnit.SECONDS));
+        queue.flush();
+        Assert.assertEquals(4, yard.stored.size());
+        Assert.assertEquals(2, yard.stored.get("urn:test:c").getFirst(FIELD));
+    }
+    /**
+     * Representations are visible from the time they are added until they
+     * are stored in the Yard
+     */
+    @Test
+    public void testVisibilityWhileStoring() throws InterruptedException {
+        init(10, 10, true);
+        Assert.assertNull(queue.get("urn:test:a"));
+        queue.add(create("urn:test:a", 1));
+        Assert.assertNotNull(queue.get("urn:test:a"));
+        Assert.assertTrue(yard.started.await(5, TimeUnit.SECONDS));
+        //still visible while the Yard stores the batch
+        Assert.assertNotNull(queue.get("urn:test:a"));
+        Assert.assertNull(yard.stored.get("urn:test:a"));
+        Assert.assertEquals(1, queue.size());
+        //a version added while storing replaces the stored one
+        Assert.assertTrue(queue.replace(create("urn:test:a", 2)));
+        Assert.assertFalse(queue.replace(create("urn:test:b", 1)));
+        yard.gate.countDown();
+        queue.flush();
+        Assert.assertNull(queue.get("urn:test:a"));
+        Assert.assertEquals(2, yard.stored.get("urn:test:a").getFirst(FIELD));
+    }
+    /**
+     * Removing a Representation currently stored needs to wait for the Yard
+     * so that a subsequent removal from the Yard is not overridden
+     */
+    @Test
+    public void testRemoveWaitsForStoring() throws InterruptedException {
+        init(10, 10, true);
+        queue.add(create("urn:test:a", 1));
+        Assert.assertTrue(yard.started.await(5, TimeUnit.SECONDS));
+        queue.add(create("urn:test:b", 1));
+        //queued representations are removed without waiting
+        queue.remove("urn:test:b");
+        Assert.assertNull(queue.get("urn:test:b"));
+        final CountDownLatch removed = new CountDownLatch(1);
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    queue.remove("urn:test:a");
+                    removed.countDown();
+                } catch (InterruptedException e) {
+                    //test fails
+                }
+            }
+        }).start();
+        Assert.assertFalse("remove MUST wait for the stored batch",
+            removed.await(200, TimeUnit.MILLISECONDS));
+        yard.gate.countDown();
+        Assert.assertTrue(removed.await(5, TimeUnit.SECONDS));
+        Assert.assertNotNull(yard.stored.get("urn:test:a"));
+        queue.flush();
+        Assert.assertNull(yard.stored.get("urn:test:b"));
+    }
+
+    @Test
+    public void testClearWaitsForStoring() throws InterruptedException {
+        init(10, 1, true);
+        queue.add(create("urn:test:a", 1));
+        Assert.assertTrue(yard.started.await(5, TimeUnit.SECONDS));
+        queue.add(create("urn:test:b", 1));
+        final CountDownLatch cleared = new CountDownLatch(1);
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    queue.clear();
+                    cleared.countDown();
+                } catch (InterruptedException e) {
+                    //test fails
+                }
+            }
+        }).start();
+        Assert.assertFalse("clear MUST wait for the stored batch",
+            cleared.await(200, TimeUnit.MILLISECONDS));
+        yard.gate.countDown();
+        Assert.assertTrue(cleared.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(0, queue.size());
+        queue.flush();
+        Assert.assertNotNull(yard.stored.get("urn:test:a"));
+        Assert.assertNull(yard.stored.get("urn:test:b"));
+    }
+    /**
+     * Queued Representations are stored on close. Representations added
+     * after closing are rejected.
+     */
+    @Test
+    public void testFlushOnClose() throws InterruptedException {
+        init(100, 3, false);
+        for(int i = 0; i < 10; i++){
+            Assert.assertTrue(queue.add(create("urn:test:" + i, i)));
+        }
+        queue.close();
+        Assert.assertEquals(0, queue.size());
+        Assert.assertEquals(10, yard.stored.size());
+        for(List<String> batch : yard.batches){
+            Assert.assertTrue(batch.size() <= 3);
+        }
+        Assert.assertFalse(queue.add(create("urn:test:10", 10)));
+        Assert.assertFalse(queue.replace(create("urn:test:1", 11)));
+    }
+
+    /**
+     * If the background thread dies {@link WriteBehindQueue#flush()} MUST NOT
+     * wait forever and new Representations are no longer accepted
+     */
+    @Test(timeout = 10000)
+    public void testWorkerFailure() throws InterruptedException {
+        init(10, 1, true);
+        queue.add(create("urn:test:a", 1));
+        Assert.assertTrue(yard.started.await(5, TimeUnit.SECONDS));
+        queue.add(create("urn:test:b", 1));
+        yard.error = new Error("test error");
+        yard.gate.countDown();
+        try {
+            queue.flush();
+            Assert.fail("IllegalStateException expected");
+        } catch (IllegalStateException e) {
+            Assert.assertSame(yard.error, e.getCause());
+        }
+        Assert.assertFalse(queue.add(create("urn:test:c", 1)));
+        Assert.assertTrue(yard.stored.isEmpty());
+    }
+
+    private static Representation create(String id, int version){
+        Representation rep = vf.createRepresentation(id);
+        rep.add(FIELD, version);
+        return rep;
+    }
+
+    /**
+     * Yard that records stored batches. Storing blocks until the
+     * {@link #gate} is counted down (if present).
+     */
+    private static class TestYard implements Yard {
+
+        final Map<String,Representation> stored = new ConcurrentHashMap<String,Representation>();
+        /**
+         * The stored batches as <code>{id}:{version}</code>
+         */
+        final List<List<String>> batches = Collections.synchronizedList(new ArrayList<List<String>>());
+        final CountDownLatch started = new CountDownLatch(1);
+        volatile CountDownLatch gate;
+        /**
+         * Thrown by {@link #store(Iterable)} (if present)
+         */
+        volatile Error error;
+
+        @Override
+        public Iterable<Representation> store(Iterable<Representation> representations) throws YardException {
+            started.countDown();
+            if(gate != null){
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new YardException("interrupted", e);
+                }
+            }
+            if(error != null){
+                throw error;
+            }
+            List<String> batch = new ArrayList<String>();
+            for(Representation rep : representations){
+                batch.add(rep.getId() + ":" + rep.getFirst(FIELD));
+                stored.put(rep.getId(), rep);
+            }
+            batches.add(batch);
+            return representations;
+        }
+
+        @Override
+        public String getId() {
+            return "test";
+        }
+
+        @Override
+        public String getName() {
+            return "Test Yard";
+        }
+
+        @Override
+        public String getDescription() {
+            return null;
+        }
+
+        @Override
+        public Representation create() throws YardException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Representation create(String id) throws YardException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Representation store(Representation representation) throws YardException {
+            return store(Collections.singleton(representation)).iterator().next();
+        }
+
+        @Override
+        public void remove(String id) throws YardException {
+            stored.remove(id);
+        }
+
+        @Override
+        public void remove(Iterable<String> ids) throws YardException {
+            for(String id : ids){
+                remove(id);
+            }
+        }
+
+        @Override
+        public void removeAll() throws YardException {
+            stored.clear();
+        }
+
+        @Override
+        public boolean isRepresentation(String id) throws YardException {
+            return stored.containsKey(id);
+        }
+
+        @Override
+        public Representation getRepresentation(String id) throws YardException {
+            return stored.get(id);
+        }
+
+        @Override
+        public Map<String,Representation> getRepresentations(Iterable<String> ids, Set<String> fields)
+                throws YardException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Representation update(Representation representation) throws YardException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Iterable<Representation> update(Iterable<Representation> representations) throws YardException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public QueryResultList<String> findReferences(FieldQuery query) throws YardException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public QueryResultList<Representation> find(FieldQuery query) throws YardException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public QueryResultList<Representation> findRepresentation(FieldQuery query) throws YardException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public QueryResultStream<Representation> stream(FieldQuery query, int pageSize) throws YardException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FieldQueryFactory getQueryFactory() {
+            return null;
+        }
+
+        @Override
+        public ValueFactory getValueFactory() {
+            return vf;
+        }
+    }
+}
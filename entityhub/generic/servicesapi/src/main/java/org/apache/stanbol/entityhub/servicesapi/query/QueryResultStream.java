@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.servicesapi.query;
+
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Iterator over the results of a {@link FieldQuery} that does not hold all
+ * results in memory. In contrast to a {@link QueryResultList} results are
+ * loaded page by page while iterating. The next page is only requested after
+ * all results of the current page were consumed. Because of that consumers
+ * control the rate results are loaded and memory usage is independent of
+ * the number of results.<p>
+ * Errors while loading a page are thrown by {@link #hasNext()} and
+ * {@link #next()} as {@link org.apache.stanbol.entityhub.servicesapi.EntityhubException}.
+ * <p>
+ * {@link #remove()} is not supported.
+ *
+ * @param <T> the type of the results
+ */
+public interface QueryResultStream<T> extends Iterator<T> {
+
+    /**
+     * Getter for the query of this result stream.
+     * @return the query used to create this result stream
+     */
+    FieldQuery getQuery();
+    /**
+     * The selected fields of this query
+     * @return the selected fields
+     */
+    Set<String> getSelectedFields();
+    /**
+     * The type of the results
+     * @return the type
+     */
+    Class<T> getType();
+}
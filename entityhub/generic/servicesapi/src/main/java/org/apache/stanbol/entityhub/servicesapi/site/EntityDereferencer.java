@@ -18,6 +18,8 @@ package org.apache.stanbol.entityhub.servicesapi.site;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collection;
+import java.util.Map;
 
 import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 
@@ -66,6 +68,18 @@ public interface EntityDereferencer {
      * for the parsed entity reference.
      */
     Representation dereference(String uri) throws IOException;
+    /**
+     * Dereferences the Representations of multiple Entities. Implementations
+     * SHOULD load the Representations with as few requests as possible (e.g.
+     * a single query for all the parsed URIs).
+     * @param uris the uris of the referred entities. <code>null</code> and
+     * empty values are ignored.
+     * @return the Representations of the found Entities by URI. Entities that
+     * were not found are not contained in the returned map.
+     * @throws IOException on any error while dereferencing the Entities
+     * @throws IllegalArgumentException if the parsed collection is <code>null</code>
+     */
+    Map<String,Representation> dereference(Collection<String> uris) throws IOException;
 
 //    /**
 //     * NOTE Moved to ReferencedSite
@@ -17,6 +17,7 @@
 package org.apache.stanbol.entityhub.servicesapi.site;
 
 import java.io.InputStream;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.stanbol.entityhub.servicesapi.Entityhub;
@@ -28,7 +29,9 @@ import org.apache.stanbol.entityhub.servicesapi.query.Constraint;
 import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
 import org.apache.stanbol.entityhub.servicesapi.query.FieldQueryFactory;
 import org.apache.stanbol.entityhub.servicesapi.query.QueryResultList;
+import org.apache.stanbol.entityhub.servicesapi.query.QueryResultStream;
 import org.apache.stanbol.entityhub.servicesapi.yard.Cache;
+import org.apache.stanbol.entityhub.servicesapi.yard.Yard;
 
 /**
  * A site that provides Entities for the Entityhub. Sites are read-only and
@@ -97,6 +100,23 @@ public interface Site {
      * Sites are usually IOExceptions.
      */
     QueryResultList<Entity> findEntities(FieldQuery query) throws SiteException;
+    /**
+     * Streams the Representations selected by the parsed query. Results are
+     * loaded in pages while iterating over the returned stream. This allows to
+     * process (e.g. export) large result sets with constant memory. The limit
+     * of the query is the maximum number of results. If no limit is set all
+     * results are streamed. See {@link Yard#stream(FieldQuery, int)} for
+     * details.
+     * @param query the query
+     * @param pageSize the number of results loaded by a single request
+     * @return the stream over the selected representations
+     * @throws SiteException If the request can not be executed both on
+     * the {@link Cache} and by using the {@link EntitySearcher} accessing the
+     * remote site.
+     * @throws IllegalArgumentException if <code>null</code> is parsed as Query
+     * or the parsed page size is &lt;= 0
+     */
+    QueryResultStream<Representation> stream(FieldQuery query, int pageSize) throws SiteException;
 
     /**
      * Getter for the Entity by the id
@@ -109,6 +129,24 @@ public interface Site {
      * Sites are usually IOExceptions.
      */
     Entity getEntity(String id) throws SiteException;
+    /**
+     * Getter for the Representations of the parsed ids. Implementations
+     * SHOULD use a single request to retrieve the representations (e.g.
+     * from the {@link Cache}).
+     * @param ids the ids of the entities. <code>null</code> and empty ids
+     * are ignored
+     * @param fields the fields that need to be included in the returned
+     * representations. If <code>null</code> or empty all fields are included.
+     * Other fields MAY also be included.
+     * @return the found Representations by id in the order of the parsed ids.
+     * Ids of entities that are not found are not contained.
+     * @throws IllegalArgumentException if <code>null</code> is parsed as ids
+     * @throws SiteException If the request can not be executed both on
+     * the {@link Cache} and by using the {@link EntityDereferencer}
+     * accessing the remote site.
+     */
+    Map<String,Representation> getRepresentations(Iterable<String> ids, Set<String> fields) 
+            throws SiteException;
     /**
      * Getter for the Content of the Entity
      * @param id the id of the Entity
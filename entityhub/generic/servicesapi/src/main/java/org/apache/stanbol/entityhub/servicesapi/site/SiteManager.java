@@ -19,6 +19,8 @@ package org.apache.stanbol.entityhub.servicesapi.site;
 import java.io.InputStream;
 import java.util.Collection;
 import java.util.Dictionary;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.apache.stanbol.entityhub.servicesapi.model.Entity;
@@ -61,6 +63,18 @@ public interface SiteManager {
      * @return the Sign or <code>null</code> if not found
      */
     Entity getEntity(String reference);
+    /**
+     * Getter for the Representations of the parsed ids. Sites are requested
+     * by using {@link Site#getRepresentations(Iterable, Set)} so that
+     * all the ids managed by a single Site are retrieved with a single call.
+     * @param ids the ids of the entities
+     * @param fields the fields that need to be included in the returned
+     * representations. If <code>null</code> or empty all fields are included.
+     * @return the found Representations by id in the order of the parsed ids.
+     * Ids of entities that are not found are not contained.
+     * @throws IllegalArgumentException if <code>null</code> is parsed as ids
+     */
+    Map<String,Representation> getRepresentations(Iterable<String> ids, Set<String> fields);
 
     /**
      * Returns the Entities that confirm to the parsed Query
@@ -16,12 +16,16 @@
  */
 package org.apache.stanbol.entityhub.servicesapi.yard;
 
+import java.util.Map;
+import java.util.Set;
+
 import org.apache.stanbol.entityhub.servicesapi.Entityhub;
 import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.apache.stanbol.entityhub.servicesapi.model.ValueFactory;
 import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
 import org.apache.stanbol.entityhub.servicesapi.query.FieldQueryFactory;
 import org.apache.stanbol.entityhub.servicesapi.query.QueryResultList;
+import org.apache.stanbol.entityhub.servicesapi.query.QueryResultStream;
 import org.apache.stanbol.entityhub.servicesapi.site.Site;
 import org.apache.stanbol.entityhub.servicesapi.site.SiteManager;
 
@@ -182,6 +186,24 @@ public interface Yard {
      */
     Representation getRepresentation(String id) throws YardException, IllegalArgumentException;
 
+    /**
+     * Getter for the representations of the parsed ids. Implementations 
+     * SHOULD retrieve all representations with a single request to the
+     * underlying store. <code>null</code> and empty ids are ignored.
+     *
+     * @param ids the ids
+     * @param fields the fields that need to be included in the returned
+     * representations. If <code>null</code> or empty all fields are included.
+     * Other fields MAY also be included.
+     * @return the found representations by id. The iteration order follows
+     * the parsed ids. Ids of representations not present in the Yard are
+     * not contained.
+     * @throws IllegalArgumentException if <code>null</code> is parsed as ids
+     * @throws YardException On any error related to the Yard
+     */
+    Map<String,Representation> getRepresentations(Iterable<String> ids, Set<String> fields) 
+            throws YardException, IllegalArgumentException;
+
     /**
      * Updates the store with the new state of the parsed representation
      *
@@ -247,6 +269,29 @@ public interface Yard {
      */
     QueryResultList<Representation> findRepresentation(FieldQuery query) throws YardException, IllegalArgumentException;
 
+    /**
+     * Streams the Representations selected by the parsed query. In contrast
+     * to {@link #find(FieldQuery)} results are loaded in pages of the parsed
+     * size while iterating over the returned stream. This allows to process
+     * (e.g. export) large result sets with constant memory.<p>
+     * The offset of the query is the index of the first result. The limit of
+     * the query is the maximum number of results. If no limit is set all
+     * results are streamed. The configured maximum number of query results of
+     * this Yard is not applied to streams. As with {@link #find(FieldQuery)}
+     * the returned Representations only contain the selected fields. The order
+     * of the results is implementation specific and may be different from
+     * the order of results returned by {@link #find(FieldQuery)}.
+     *
+     * @param query the query
+     * @param pageSize the number of results loaded by a single request.
+     * Implementations MAY use smaller pages.
+     * @return the stream over the selected representations
+     * @throws IllegalArgumentException if <code>null</code> is parsed as Query
+     * or the parsed page size is &lt;= 0
+     * @throws YardException On any error related to the Yard
+     */
+    QueryResultStream<Representation> stream(FieldQuery query, int pageSize) throws YardException, IllegalArgumentException;
+
     /**
      * Getter for the FieldQueryFactory used by this Yard
      *
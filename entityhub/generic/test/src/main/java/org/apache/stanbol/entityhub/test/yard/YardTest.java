@@ -24,6 +24,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.apache.stanbol.entityhub.test.Utils.asCollection;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -299,6 +300,43 @@ public abstract class YardTest {
 
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetRepresentationsWithNull() throws YardException {
+        getYard().getRepresentations(null, null);
+    }
+
+    @Test
+    public void testGetRepresentations() throws YardException {
+        String id1 = "urn:yard.test.testGetRepresentations:representation.id1";
+        String id2 = "urn:yard.test.testGetRepresentations:representation.id2";
+        String nonExistant = "urn:yard.test.testGetRepresentations:representation.nonExistant";
+        String field = "urn:the.field:used.for.this.Test";
+        Yard yard = getYard();
+        Representation test1 = create(id1, false);
+        test1.add(field, "test value 1");
+        Representation test2 = create(id2, false);
+        test2.add(field, "test value 2");
+        yard.store(Arrays.asList(test1, test2));
+        // null, empty and duplicated ids are ignored, non existent are not
+        // contained and the order of the parsed ids is kept
+        Map<String,Representation> retrieved = yard.getRepresentations(
+            Arrays.asList(id2, null, "", nonExistant, id1, id2), null);
+        assertNotNull(retrieved);
+        assertEquals(Arrays.asList(id2, id1), new ArrayList<String>(retrieved.keySet()));
+        assertEquals(test1, retrieved.get(id1));
+        assertEquals("test value 1", retrieved.get(id1).getFirst(field));
+        assertEquals(test2, retrieved.get(id2));
+        assertEquals("test value 2", retrieved.get(id2).getFirst(field));
+        // selected fields MUST BE included
+        retrieved = yard.getRepresentations(Arrays.asList(id1), Collections.singleton(field));
+        assertEquals(1, retrieved.size());
+        assertEquals("test value 1", retrieved.get(id1).getFirst(field));
+        // no ids
+        retrieved = yard.getRepresentations(Arrays.asList(nonExistant), null);
+        assertNotNull(retrieved);
+        assertTrue(retrieved.isEmpty());
+    }
+
     @Test
     public void testIsRepresentation() throws YardException {
         String id = "urn:yard.test.testIsRepresentation:representation.id";
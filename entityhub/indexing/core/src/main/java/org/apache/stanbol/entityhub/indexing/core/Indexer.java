@@ -43,7 +43,9 @@ public interface Indexer {
         /**
          * All {@link IndexingSource}s are initialised, but the actual indexing
          * of the entities has not yet started.
-         * This is the last opportunity to call {@link Indexer#setChunkSize(int)}
+         * This is the last opportunity to call {@link Indexer#setChunkSize(int)},
+         * {@link Indexer#setProcessingThreads(int)}, 
+         * {@link Indexer#setPersistingThreads(int)}
          * and {@link Indexer#setIndexAllEntitiesState(boolean)}
          */
         INITIALISED,
@@ -95,6 +97,39 @@ public interface Indexer {
      * @return the chunkSize
      */
     int getChunkSize();
+    /**
+     * The default number of threads used to process and to store entities
+     */
+    int DEFAULT_THREADS = 1;
+    /**
+     * Setter for the number of threads used to process entities with the 
+     * configured {@link EntityProcessor}s. Parsing values &lt;= 0 results in
+     * the number to be set to {@link #DEFAULT_THREADS}. If more as one
+     * thread is used the {@link EntityProcessor}s MUST BE thread safe.
+     * @param threads the number of processing threads
+     * @throws IllegalStateException if {@link #getState()} &gt; 
+     * {@link State#INITIALISED}
+     */
+    void setProcessingThreads(int threads) throws IllegalStateException;
+    /**
+     * Getter for the number of threads used to process entities
+     * @return the number of processing threads
+     */
+    int getProcessingThreads();
+    /**
+     * Setter for the number of threads used to store entities to the 
+     * {@link Yard}. Parsing values &lt;= 0 results in the number to be set 
+     * to {@link #DEFAULT_THREADS}.
+     * @param threads the number of persisting threads
+     * @throws IllegalStateException if {@link #getState()} &gt; 
+     * {@link State#INITIALISED}
+     */
+    void setPersistingThreads(int threads) throws IllegalStateException;
+    /**
+     * Getter for the number of threads used to store entities
+     * @return the number of persisting threads
+     */
+    int getPersistingThreads();
 
     /**
      * Getter for the Yard used to store the indexed entities.
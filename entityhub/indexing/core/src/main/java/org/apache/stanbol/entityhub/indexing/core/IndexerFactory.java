@@ -164,6 +164,10 @@ public class IndexerFactory {
             "configure an EntityIterator and an EntityDataProvider");
             throw new IllegalArgumentException("Invalid Indexing Source configuration");
         }
+        indexer.setProcessingThreads(config.getProcessingThreads());
+        indexer.setPersistingThreads(config.getPersistingThreads());
+        log.info(" - threads: processing {} | persisting {}", 
+            indexer.getProcessingThreads(), indexer.getPersistingThreads());
         return indexer;
     }
 
@@ -795,6 +795,37 @@ public class IndexingConfig {
         }
     	return failOnError;
     }
+    /**
+     * Getter for the number of threads used to process entities as configured 
+     * by the {@link IndexingConstants#KEY_PROCESSING_THREADS}
+     * @return the number of threads or <code>-1</code> if not configured
+     * @throws IllegalArgumentException if the configured value is not an integer
+     */
+    public int getProcessingThreads(){
+        return getIntValue(IndexingConstants.KEY_PROCESSING_THREADS);
+    }
+    /**
+     * Getter for the number of threads used to store entities as configured 
+     * by the {@link IndexingConstants#KEY_PERSISTING_THREADS}
+     * @return the number of threads or <code>-1</code> if not configured
+     * @throws IllegalArgumentException if the configured value is not an integer
+     */
+    public int getPersistingThreads(){
+        return getIntValue(IndexingConstants.KEY_PERSISTING_THREADS);
+    }
+    
+    private int getIntValue(String key){
+        Object value = configuration.get(key);
+        if(value == null || value.toString().trim().isEmpty()){
+            return -1;
+        }
+        try {
+            return Integer.parseInt(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The value '"+value+"' of the '"
+                + key + "' parameter is not an integer!", e);
+        }
+    }
     /**
      * The {@link ScoreNormaliser} as configured by the {@link IndexingConstants#KEY_SCORE_NORMALIZER}
      * by the main indexing configuration.
@@ -49,5 +49,17 @@ public interface IndexingConstants {
     String KEY_ENTITY_PROCESSOR      = "entityProcessor";
     String KEY_ENTITY_POST_PROCESSOR = "entityPostProcessor";
     String KEY_FAIL_ON_ERROR_LOADING_RESOURCE = "failOnErrorLoadingResource";
+    /**
+     * The number of threads used to process entities by the configured
+     * {@link #KEY_ENTITY_PROCESSOR entityProcessors} (and 
+     * {@link #KEY_ENTITY_POST_PROCESSOR entityPostProcessors}). If set to a
+     * value &gt; 1 the configured processors MUST BE thread safe.
+     */
+    String KEY_PROCESSING_THREADS = "processingThreads";
+    /**
+     * The number of threads used to store processed entities to the
+     * {@link #KEY_INDEXING_DESTINATION indexingDestination}.
+     */
+    String KEY_PERSISTING_THREADS = "persistingThreads";
 
 }
@@ -19,6 +19,7 @@ package org.apache.stanbol.entityhub.indexing.core.impl;
 import static org.apache.stanbol.entityhub.indexing.core.impl.IndexerConstants.SCORE_FIELD;
 import static org.apache.stanbol.entityhub.indexing.core.impl.IndexerConstants.SOURCE_COMPLETE;
 import static org.apache.stanbol.entityhub.indexing.core.impl.IndexerConstants.SOURCE_DURATION;
+import static org.apache.stanbol.entityhub.indexing.core.impl.IndexerConstants.SOURCE_SEQUENCE;
 import static org.apache.stanbol.entityhub.indexing.core.impl.IndexerConstants.SOURCE_STARTED;
 
 import java.util.concurrent.BlockingQueue;
@@ -29,6 +30,10 @@ import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 
 public abstract class AbstractEntityIndexingDaemon extends IndexingDaemon<Object,Representation> {
 
+    /**
+     * The sequence number of the last produced entity
+     */
+    private long sequence = 0;
     
     protected AbstractEntityIndexingDaemon(String name,
                                            BlockingQueue<QueueItem<Representation>> produce,
@@ -54,6 +59,7 @@ public abstract class AbstractEntityIndexingDaemon extends IndexingDaemon<Object
         if(normalisedScore != null && normalisedScore.compareTo(ScoreNormaliser.ZERO) >= 0){
             item.setProperty(SCORE_FIELD, normalisedScore);
         }
+        item.setProperty(SOURCE_SEQUENCE, Long.valueOf(++sequence));
         item.setProperty(SOURCE_STARTED, started);
         Long completed = Long.valueOf(System.currentTimeMillis());
         item.setProperty(SOURCE_COMPLETE, completed);
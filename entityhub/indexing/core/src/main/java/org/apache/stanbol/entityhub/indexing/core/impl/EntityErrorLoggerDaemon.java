@@ -23,12 +23,23 @@ import org.slf4j.Logger;
 public class EntityErrorLoggerDaemon extends IndexingDaemon<IndexingError,Object> {
 
     private final Logger err;
+    private final OrderedCompletionTracker completionTracker;
     public EntityErrorLoggerDaemon(BlockingQueue<QueueItem<IndexingError>> consume,
                              Logger err) {
+        this(consume,err,null);
+    }
+    /**
+     * Creates the daemon that marks failed entities as completed
+     * @param completionTracker used to mark failed entities as completed
+     * or <code>null</code> if completion is not tracked
+     */
+    public EntityErrorLoggerDaemon(BlockingQueue<QueueItem<IndexingError>> consume,
+                             Logger err, OrderedCompletionTracker completionTracker) {
         super("Indexer: Entity Error Logging Daemon",
             IndexerConstants.SEQUENCE_NUMBER_ERROR_HANDLING_DAEMON,
             consume, null, null);
         this.err = err;
+        this.completionTracker = completionTracker;
     }
 
     @Override
@@ -39,6 +50,9 @@ public class EntityErrorLoggerDaemon extends IndexingDaemon<IndexingError,Object
                 IndexingError error = errorItem.getItem();
                 err.error(String.format("Error while indexing %s: %s",
                     error.getEntity(),error.getMessage()),error.getException());
+                if(completionTracker != null){
+                    completionTracker.completed(errorItem);
+                }
             }
         }
         setFinished();
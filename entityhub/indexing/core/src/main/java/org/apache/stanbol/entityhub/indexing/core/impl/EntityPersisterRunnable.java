@@ -37,15 +37,31 @@ public class EntityPersisterRunnable extends IndexingDaemon<Representation,Repre
 
     private int chunkSize;
     private Yard yard;
+    private final OrderedCompletionTracker completionTracker;
     public EntityPersisterRunnable(String name,
                                    BlockingQueue<QueueItem<Representation>> consume, 
                                    BlockingQueue<QueueItem<Representation>> produce,
                                    BlockingQueue<QueueItem<IndexingError>> error,
                                    int chunkSize, Yard yard){
+        this(name,consume,produce,error,chunkSize,yard,null);
+    }
+    /**
+     * Creates a persister that marks entities replaced by a later version
+     * with the same id as completed
+     * @param completionTracker used to mark replaced entities as completed
+     * or <code>null</code> if completion is not tracked
+     */
+    public EntityPersisterRunnable(String name,
+                                   BlockingQueue<QueueItem<Representation>> consume, 
+                                   BlockingQueue<QueueItem<Representation>> produce,
+                                   BlockingQueue<QueueItem<IndexingError>> error,
+                                   int chunkSize, Yard yard,
+                                   OrderedCompletionTracker completionTracker){
         super(name,IndexerConstants.SEQUENCE_NUMBER_PERSIT_DAEMON,
             consume,produce,error);
         this.chunkSize = chunkSize;
         this.yard = yard;
+        this.completionTracker = completionTracker;
     }
     @Override
     public void run() {
@@ -55,7 +71,13 @@ public class EntityPersisterRunnable extends IndexingDaemon<Representation,Repre
             item = consume();
             if(item != null){
                 if(item.getItem() != null){
-                    toStore.put(item.getItem().getId(),item);
+                    QueueItem<Representation> replaced = toStore.put(item.getItem().getId(),item);
+                    //the replaced version is never stored nor failed. It needs
+                    //to be completed as otherwise its sequence number would
+                    //block the completion of all later entities
+                    if(replaced != null && completionTracker != null){
+                        completionTracker.completed(replaced);
+                    }
                 }
             }
             if(toStore.size() >= chunkSize){
@@ -39,14 +39,29 @@ import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 public class EntityProcessorRunnable extends IndexingDaemon<Representation,Representation> {
     private final List<EntityProcessor> processors;
     private final Set<String> keys;
+    private final OrderedCompletionTracker completionTracker;
     public EntityProcessorRunnable(String name,
                                    BlockingQueue<QueueItem<Representation>> consume,
                                    BlockingQueue<QueueItem<Representation>> produce,
                                    BlockingQueue<QueueItem<IndexingError>> error,
                                    List<EntityProcessor> processors,Set<String> keys) {
+        this(name,consume,produce,error,processors,keys,null);
+    }
+    /**
+     * Creates a processor that marks filtered entities as completed
+     * @param completionTracker used to mark filtered entities as completed
+     * or <code>null</code> if completion is not tracked
+     */
+    public EntityProcessorRunnable(String name,
+                                   BlockingQueue<QueueItem<Representation>> consume,
+                                   BlockingQueue<QueueItem<Representation>> produce,
+                                   BlockingQueue<QueueItem<IndexingError>> error,
+                                   List<EntityProcessor> processors,Set<String> keys,
+                                   OrderedCompletionTracker completionTracker) {
         super(name,IndexerConstants.SEQUENCE_NUMBER_PROCESSOR_DAEMON,
             consume,produce,error);
         this.processors = processors;
+        this.completionTracker = completionTracker;
         if(keys == null){
             this.keys = Collections.emptySet();
         } else {
@@ -69,6 +84,9 @@ public class EntityProcessorRunnable extends IndexingDaemon<Representation,Repre
                 }
                 if(processed == null){
                     log.debug("Item {} filtered by processor {}",item.getItem().getId(),processor);
+                    if(completionTracker != null){
+                        completionTracker.completed(item);
+                    }
                 } else {
                     for(String key : keys){
                         //consume the property and add it to the
@@ -70,12 +70,53 @@ public class FinishedEntityDaemon extends IndexingDaemon<Representation,Object>
      * The charset used for the {@link #idWriter}
      */
     private static final Charset UTF8 = Charset.forName("UTF-8");
-    
+    /**
+     * The number of threads used to process entities. Used to calculate
+     * the throughput of the processing step.
+     */
+    private final int processingThreads;
+    /**
+     * The number of threads used to store entities. Used to calculate
+     * the throughput of the persisting step.
+     */
+    private final int persistingThreads;
+    /**
+     * Tracks the completion of entities in the order they were read from
+     * the source. Needed because entities complete out of order if multiple
+     * threads are used to process or store entities. 
+     */
+    private final OrderedCompletionTracker completionTracker;
     
     public FinishedEntityDaemon(BlockingQueue<QueueItem<Representation>> consume,
                                   int majorInterval,
                                   Logger out,
                                   OutputStream idOut) {
+        this(consume, majorInterval, out, idOut, 1, 1, null);
+    }
+    /**
+     * Creates the daemon for an indexing process that uses multiple threads
+     * to process and store entities. The number of threads are used to
+     * report the throughput of the different steps. The ids written to the
+     * parsed idOut are in the order entities have finished. The
+     * completionTracker reports up to which entity of the source all
+     * entities have completed.
+     * @param consume the queue with the finished entities
+     * @param majorInterval the number of entities between major log outputs
+     * @param out the logger used for the output
+     * @param idOut used to write the ids of finished entities or <code>null</code>
+     * @param processingThreads the number of threads used to process entities
+     * @param persistingThreads the number of threads used to store entities
+     * @param completionTracker the tracker shared with the daemons that
+     * filter entities or log errors or <code>null</code> if completion is
+     * not tracked
+     */
+    public FinishedEntityDaemon(BlockingQueue<QueueItem<Representation>> consume,
+                                  int majorInterval,
+                                  Logger out,
+                                  OutputStream idOut,
+                                  int processingThreads,
+                                  int persistingThreads,
+                                  OrderedCompletionTracker completionTracker) {
         super("Indexing: Finished Entity Logger Deamon",
             IndexerConstants.SEQUENCE_NUMBER_FINISHED_DAEMON,
             consume, null, null);
@@ -91,6 +132,9 @@ public class FinishedEntityDaemon extends IndexingDaemon<Representation,Object>
         } else {
             this.idWriter = null;
         }
+        this.processingThreads = Math.max(1, processingThreads);
+        this.persistingThreads = Math.max(1, persistingThreads);
+        this.completionTracker = completionTracker;
     }
 
     @Override
@@ -126,6 +170,9 @@ public class FinishedEntityDaemon extends IndexingDaemon<Representation,Object>
                     startMinor = current;
                 }
                 count++;
+                if(completionTracker != null){
+                    completionTracker.completed(item);
+                }
                 try {
                     long startSource = ((Long)item.getProperty(SOURCE_STARTED)).longValue();
                     if(count < minor){ //for the first few item
@@ -224,6 +271,38 @@ public class FinishedEntityDaemon extends IndexingDaemon<Representation,Object>
             itemProcessingDurationAll,itemProcessingDurationMajor));
         out.info(String.format("  - store     : all: %7.3fms | current: %7.3fms/item",
             itemStoreDurationAll,itemStoreDurationMajor));
+        printThroughput(itemSourceDurationMajor, itemProcessingDurationMajor, 
+            itemStoreDurationMajor);
+        printCompletion();
+    }
+    /**
+     * Prints the number of entities read from the source that have completed
+     * in order and the number of entities that have completed out of order
+     */
+    private void printCompletion(){
+        if(completionTracker != null){
+            out.info(String.format("  - completed : %d items in order | %d items out of order",
+                completionTracker.getCompleted(), completionTracker.getOutOfOrder()));
+        }
+    }
+    /**
+     * Prints the maximum throughput of the different steps based on the
+     * average duration per item and the number of threads used for the step.
+     * The step with the lowest throughput limits the indexing process.
+     * @param sourceDuration the average duration of the source in ms/item
+     * @param processDuration the average duration of the processing in ms/item
+     * @param storeDuration the average duration of the storing in ms/item
+     */
+    private void printThroughput(double sourceDuration, double processDuration,
+            double storeDuration){
+        out.info(String.format("  - throughput: source: %s | processing: %s (%d threads) | "
+            + "store: %s (%d threads)", getThroughput(sourceDuration,1),
+            getThroughput(processDuration,processingThreads),processingThreads,
+            getThroughput(storeDuration,persistingThreads),persistingThreads));
+    }
+    
+    private static String getThroughput(double duration, int threads){
+        return duration > 0 ? String.format("%.1f items/sec",threads*1000/duration) : "n.a.";
     }
     private void printSummary(long current){
         long interval = current-start;
@@ -231,7 +310,7 @@ public class FinishedEntityDaemon extends IndexingDaemon<Representation,Object>
         double itemTimeAll = countedAll>0?timeAll/countedAll:-1;
         double itemSourceDurationAll = countedAll>0? sourceDurationAll/countedAll:-1;
         double itemProcessingDurationAll = countedAll>0? processDurationAll/countedAll:-1;
-        double itemStoreDurationAll = countedAll>0? sourceDurationAll/countedAll:-1;
+        double itemStoreDurationAll = countedAll>0? storeDurationAll/countedAll:-1;
         out.info(String.format("Indexed %d items in %dsec (%7.3fms/item): processing: %7.3fms/item | queue: %7.3fms",
             count,(int)interval/1000,(float)interval/count,itemDurationAll,itemTimeAll));
         out.info(String.format("  - source   : %7.3fms/item",
@@ -240,7 +319,10 @@ public class FinishedEntityDaemon extends IndexingDaemon<Representation,Object>
             itemProcessingDurationAll));
         out.info(String.format("  - store     : %7.3fms/item",
             itemStoreDurationAll));
-        
+        printThroughput(itemSourceDurationAll, itemProcessingDurationAll, 
+            itemStoreDurationAll);
+        printCompletion();
+
     }
 
 }
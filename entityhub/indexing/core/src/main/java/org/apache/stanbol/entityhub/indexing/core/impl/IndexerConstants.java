@@ -33,6 +33,12 @@ public interface IndexerConstants {
      */
     String SCORE_FIELD = RdfResourceEnum.entityRank.getUri();
     
+    /**
+     * Key used to store the sequence number of the entity in the order it was
+     * read from the source ({@link Long} starting with <code>1</code>). Used
+     * by the {@link OrderedCompletionTracker}.
+     */
+    String SOURCE_SEQUENCE = "entity.source.sequence";
     /**
      * Key used to store the time when the reading from the source started
      */
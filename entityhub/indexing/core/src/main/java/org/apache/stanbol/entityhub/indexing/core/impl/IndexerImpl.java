@@ -98,6 +98,14 @@ public class IndexerImpl implements Indexer {
 
     private int chunkSize;
     public static final int MIN_QUEUE_SIZE = 500;
+    /**
+     * The number of {@link EntityProcessorRunnable}s
+     */
+    private int processingThreads = DEFAULT_THREADS;
+    /**
+     * The number of {@link EntityPersisterRunnable}s
+     */
+    private int persistingThreads = DEFAULT_THREADS;
     
     private boolean indexAllEntitiesState = false;
     
@@ -255,6 +263,34 @@ public class IndexerImpl implements Indexer {
     public int getChunkSize() {
         return chunkSize;
     }
+    
+    @Override
+    public void setProcessingThreads(int threads) throws IllegalStateException {
+        if(getState().ordinal() >= State.INDEXING.ordinal()){
+            throw new IllegalStateException("Setting the number of processing threads is only "
+                + "allowed before starting the indexing process!");
+        }
+        this.processingThreads = threads <= 0 ? DEFAULT_THREADS : threads;
+    }
+    
+    @Override
+    public int getProcessingThreads() {
+        return processingThreads;
+    }
+    
+    @Override
+    public void setPersistingThreads(int threads) throws IllegalStateException {
+        if(getState().ordinal() >= State.INDEXING.ordinal()){
+            throw new IllegalStateException("Setting the number of persisting threads is only "
+                + "allowed before starting the indexing process!");
+        }
+        this.persistingThreads = threads <= 0 ? DEFAULT_THREADS : threads;
+    }
+    
+    @Override
+    public int getPersistingThreads() {
+        return persistingThreads;
+    }
     /* (non-Javadoc)
      * @see org.apache.stanbol.entityhub.indexing.core.IndexerInterface#getYard()
      */
@@ -433,7 +469,7 @@ public class IndexerImpl implements Indexer {
 
         //initialisation complete ... now setup the poet processing
         //init the queues
-        int queueSize = Math.max(MIN_QUEUE_SIZE, chunkSize*2);
+        int queueSize = getQueueSize();
         BlockingQueue<QueueItem<Representation>> indexedEntityQueue = 
                 new ArrayBlockingQueue<QueueItem<Representation>>(queueSize);
         BlockingQueue<QueueItem<Representation>> processedEntityQueue = 
@@ -443,12 +479,17 @@ public class IndexerImpl implements Indexer {
         BlockingQueue<QueueItem<IndexingError>> errorEntityQueue = 
                 new ArrayBlockingQueue<QueueItem<IndexingError>>(queueSize);
 
+        //tracks the completion of entities in the order of the source
+        OrderedCompletionTracker completionTracker = new OrderedCompletionTracker();
         //Set holding all active post processing deamons
         final SortedSet<IndexingDaemon<?,?>> activeIndexingDeamons = 
             new TreeSet<IndexingDaemon<?,?>>();
         //create the IndexingDaemos
-        //TODO: Here we would need to create multiple instances in case
-        //      one would e.g. like to use several threads for processing entities
+        //NOTE: Multiple daemons are created for processing and persisting
+        //      entities. All daemons of the same sequence consume from and
+        //      produce to the same queues. The next step receives the
+        //      end-of-queue item as soon as all of them have finished (see
+        //      handleFinishedIndexingDaemon(..))
         //(1) the daemon reading from the IndexingSources
         String entitySourceReaderName = "Post-processing: Entity Reader Deamon";
         activeIndexingDeamons.add(
@@ -459,34 +500,41 @@ public class IndexerImpl implements Indexer {
                 dataProvider, 
                 null, //no score normaliser
                 true)); //post-process all indexed entities
-        //(2) The daemon for post-processing the entities
-        activeIndexingDeamons.add(
-            new EntityProcessorRunnable(
-                "Post-processing: Entity Processor Deamon",
-                indexedEntityQueue, //it consumes indexed Entities
-                processedEntityQueue,  //it produces processed Entities
-                errorEntityQueue,
-                entityPostProcessors, 
-                //TODO: check that the score is not overriden by the NULL
-                //      parsed by the used LineBasedEntityIterator!
-                Collections.singleton(SCORE_FIELD))); //ensure the score not changed
-        //(3) The daemon for persisting the entities
-        activeIndexingDeamons.add(
-            new EntityPersisterRunnable(
-                "Indexing: Entity Perstisting Deamon",
-                processedEntityQueue, //it consumes processed Entities
-                finishedEntityQueue, //it produces finished Entities
-                errorEntityQueue,
-                chunkSize, indexingDestination.getYard()));
+        //(2) The daemons for post-processing the entities
+        for(int i = 0; i < processingThreads; i++){
+            activeIndexingDeamons.add(
+                new EntityProcessorRunnable(
+                    getDaemonName("Post-processing: Entity Processor Deamon",i,processingThreads),
+                    indexedEntityQueue, //it consumes indexed Entities
+                    processedEntityQueue,  //it produces processed Entities
+                    errorEntityQueue,
+                    entityPostProcessors, 
+                    //TODO: check that the score is not overriden by the NULL
+                    //      parsed by the used LineBasedEntityIterator!
+                    Collections.singleton(SCORE_FIELD), //ensure the score not changed
+                    completionTracker));
+        }
+        //(3) The daemons for persisting the entities
+        for(int i = 0; i < persistingThreads; i++){
+            activeIndexingDeamons.add(
+                new EntityPersisterRunnable(
+                    getDaemonName("Indexing: Entity Perstisting Deamon",i,persistingThreads),
+                    processedEntityQueue, //it consumes processed Entities
+                    finishedEntityQueue, //it produces finished Entities
+                    errorEntityQueue,
+                    chunkSize, indexingDestination.getYard(),
+                    completionTracker));
+        }
         //(4) The daemon for logging finished entities
         activeIndexingDeamons.add(
             new FinishedEntityDaemon(
                 finishedEntityQueue, -1, log, 
-                null)); //we have already all entity ids!
+                null, //we have already all entity ids!
+                processingThreads, persistingThreads, completionTracker));
         //(5) The daemon for logging errors
         activeIndexingDeamons.add(
             new EntityErrorLoggerDaemon(
-            errorEntityQueue, log));
+            errorEntityQueue, log, completionTracker));
         //start post-processing and wait until it has finished
         startAndWait(activeIndexingDeamons);        
         //close all post processors
@@ -603,7 +651,7 @@ public class IndexerImpl implements Indexer {
             log.info("Indexing started ...");
         }
         //init the queues
-        int queueSize = Math.max(MIN_QUEUE_SIZE, chunkSize*2);
+        int queueSize = getQueueSize();
         BlockingQueue<QueueItem<Representation>> indexedEntityQueue = 
                 new ArrayBlockingQueue<QueueItem<Representation>>(queueSize);
         BlockingQueue<QueueItem<Representation>> processedEntityQueue = 
@@ -613,12 +661,13 @@ public class IndexerImpl implements Indexer {
         BlockingQueue<QueueItem<IndexingError>> errorEntityQueue = 
                 new ArrayBlockingQueue<QueueItem<IndexingError>>(queueSize);
         
+        //tracks the completion of entities in the order of the source
+        OrderedCompletionTracker completionTracker = new OrderedCompletionTracker();
         //Set holding all active IndexingDaemons
         final SortedSet<IndexingDaemon<?,?>> activeIndexingDeamons = 
             new TreeSet<IndexingDaemon<?,?>>();
         //create the IndexingDaemos
-        //TODO: Here we would need to create multiple instances in case
-        //      one would e.g. like to use several threads for processing entities
+        //NOTE: see postProcessEntities() for using multiple daemons per step
         //(1) the daemon reading from the IndexingSources
         String entitySourceReaderName = "Indexing: Entity Source Reader Deamon";
         if(entityIterator != null){
@@ -640,31 +689,38 @@ public class IndexerImpl implements Indexer {
                     scoreNormaliser,
                     indexAllEntitiesState));
         }
-        //(2) The daemon for processing the entities
-        activeIndexingDeamons.add(
-            new EntityProcessorRunnable(
-                "Indexing: Entity Processor Deamon",
-                indexedEntityQueue, //it consumes indexed Entities
-                processedEntityQueue,  //it produces processed Entities
-                errorEntityQueue,
-                entityProcessors, 
-                Collections.singleton(SCORE_FIELD)));
-        //(3) The daemon for persisting the entities
-        activeIndexingDeamons.add(
-            new EntityPersisterRunnable(
-                "Indexing: Entity Perstisting Deamon",
-                processedEntityQueue, //it consumes processed Entities
-                finishedEntityQueue, //it produces finished Entities
-                errorEntityQueue,
-                chunkSize, indexingDestination.getYard()));
+        //(2) The daemons for processing the entities
+        for(int i = 0; i < processingThreads; i++){
+            activeIndexingDeamons.add(
+                new EntityProcessorRunnable(
+                    getDaemonName("Indexing: Entity Processor Deamon",i,processingThreads),
+                    indexedEntityQueue, //it consumes indexed Entities
+                    processedEntityQueue,  //it produces processed Entities
+                    errorEntityQueue,
+                    entityProcessors, 
+                    Collections.singleton(SCORE_FIELD),
+                    completionTracker));
+        }
+        //(3) The daemons for persisting the entities
+        for(int i = 0; i < persistingThreads; i++){
+            activeIndexingDeamons.add(
+                new EntityPersisterRunnable(
+                    getDaemonName("Indexing: Entity Perstisting Deamon",i,persistingThreads),
+                    processedEntityQueue, //it consumes processed Entities
+                    finishedEntityQueue, //it produces finished Entities
+                    errorEntityQueue,
+                    chunkSize, indexingDestination.getYard(),
+                    completionTracker));
+        }
         //(4) The daemon for logging finished entities
         activeIndexingDeamons.add(
             new FinishedEntityDaemon(
-                finishedEntityQueue, -1, log, indexedEntityIdOutputStream));
+                finishedEntityQueue, -1, log, indexedEntityIdOutputStream,
+                processingThreads, persistingThreads, completionTracker));
         //(5) The daemon for logging errors
         activeIndexingDeamons.add(
             new EntityErrorLoggerDaemon(
-            errorEntityQueue, log));
+            errorEntityQueue, log, completionTracker));
         //start indexing and wait until it has finished
         startAndWait(activeIndexingDeamons);
         //close the stream with IDs
@@ -676,6 +732,26 @@ public class IndexerImpl implements Indexer {
         //set the new state to INDEXED
         setState(State.INDEXED);
     }
+    /**
+     * The size of the queues between the indexing steps. Considers the
+     * {@link #chunkSize} and the number of persisting threads as each of them
+     * collects a chunk before storing entities.
+     * @return the queue size
+     */
+    private int getQueueSize(){
+        return Math.max(MIN_QUEUE_SIZE, chunkSize*2*persistingThreads);
+    }
+    /**
+     * The name of the daemon. Appends the number of the daemon if multiple
+     * daemons are used for the same step.
+     * @param name the name of the step
+     * @param index the index of the daemon
+     * @param num the number of daemons for the step
+     * @return the name
+     */
+    private static String getDaemonName(String name, int index, int num){
+        return num > 1 ? name + " #" + (index+1) : name;
+    }
     /**
      * Handles the necessary actions if an {@link IndexingDaemon} used for the
      * work done within {@link #indexEntities()} completes its work (meaning
@@ -235,7 +235,9 @@ public abstract class IndexingDaemon<CI,PI> implements Comparable<IndexingDaemon
                     return -1; //no idea if that is OK
                 }
             } else {
-                return hashCode()-o.hashCode();
+                //NOTE: do not use hashCode()-o.hashCode() as this can
+                //overflow (important if multiple daemons use the same sequence)
+                return hashCode() < o.hashCode() ? -1 : 1;
             }
         }
     }
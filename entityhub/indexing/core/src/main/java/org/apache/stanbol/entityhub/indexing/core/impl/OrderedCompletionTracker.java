@@ -0,0 +1,95 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.entityhub.indexing.core.impl;
+
+import static org.apache.stanbol.entityhub.indexing.core.impl.IndexerConstants.SOURCE_SEQUENCE;
+
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Tracks the completion of entities in the order they were read from the
+ * source. If multiple daemons process or persist entities they complete in
+ * a different order than they were read. This tracker keeps the sequence number
+ * (see {@link IndexerConstants#SOURCE_SEQUENCE}) up to which all entities
+ * have completed.<p>
+ * An entity is completed if it was stored, filtered by an EntityProcessor,
+ * replaced by a later entity with the same id before it was stored or if
+ * indexing failed. Therefore the {@link FinishedEntityDaemon}, the
+ * {@link EntityProcessorRunnable}s, the {@link EntityPersisterRunnable}s and
+ * the {@link EntityErrorLoggerDaemon} share the same instance.<p>
+ * This class is thread safe.
+ */
+public class OrderedCompletionTracker {
+
+    /**
+     * All entities with a sequence number &lt;= this value have completed
+     */
+    private long completed = 0;
+    /**
+     * The sequence numbers of entities that have completed before an entity
+     * with a lower sequence number.
+     */
+    private final SortedSet<Long> outOfOrder = new TreeSet<Long>();
+
+    /**
+     * Marks the entity of the parsed item as completed. Items without a
+     * {@link IndexerConstants#SOURCE_SEQUENCE} are ignored.
+     * @param item the item
+     */
+    public void completed(QueueItem<?> item){
+        Object sequence = item == null ? null : item.getProperty(SOURCE_SEQUENCE);
+        if(sequence instanceof Long){
+            completed(((Long)sequence).longValue());
+        }
+    }
+    /**
+     * Marks the entity with the parsed sequence number as completed
+     * @param sequence the sequence number (starting with <code>1</code>)
+     */
+    public synchronized void completed(long sequence){
+        if(sequence <= completed){
+            return; //already completed
+        }
+        if(sequence == completed+1){
+            completed = sequence;
+            //check if this closes a gap
+            while(!outOfOrder.isEmpty() && outOfOrder.first().longValue() == completed+1){
+                completed = outOfOrder.first().longValue();
+                outOfOrder.remove(outOfOrder.first());
+            }
+        } else {
+            outOfOrder.add(Long.valueOf(sequence));
+        }
+    }
+    /**
+     * Getter for the sequence number up to that all entities have completed.
+     * This is the point from where indexing would need to be resumed.
+     * @return the sequence number of the last entity completed in order
+     */
+    public synchronized long getCompleted(){
+        return completed;
+    }
+    /**
+     * Getter for the number of entities that have completed but are still
+     * waiting for entities read earlier from the source.
+     * @return the number of entities completed out of order
+     */
+    public synchronized int getOutOfOrder(){
+        return outOfOrder.size();
+    }
+}
@@ -21,7 +21,9 @@ package org.apache.stanbol.entityhub.indexing.core;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.stanbol.entityhub.core.model.InMemoryValueFactory;
 import org.apache.stanbol.entityhub.core.query.DefaultQueryFactory;
@@ -30,6 +32,7 @@ import org.apache.stanbol.entityhub.servicesapi.model.ValueFactory;
 import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
 import org.apache.stanbol.entityhub.servicesapi.query.FieldQueryFactory;
 import org.apache.stanbol.entityhub.servicesapi.query.QueryResultList;
+import org.apache.stanbol.entityhub.servicesapi.query.QueryResultStream;
 import org.apache.stanbol.entityhub.servicesapi.yard.Yard;
 import org.apache.stanbol.entityhub.servicesapi.yard.YardException;
 /**
@@ -111,6 +114,19 @@ public class DummyIndexingDestination implements IndexingDestination {
             return IndexerTest.indexedData.get(id);
         }
         
+        @Override
+        public Map<String,Representation> getRepresentations(Iterable<String> ids, Set<String> fields) 
+                throws YardException, IllegalArgumentException {
+            Map<String,Representation> representations = new LinkedHashMap<String,Representation>();
+            for(String id : ids){
+                Representation rep = IndexerTest.indexedData.get(id);
+                if(rep != null){
+                    representations.put(id, rep);
+                }
+            }
+            return representations;
+        }
+        
         @Override
         public FieldQueryFactory getQueryFactory() {
             return DefaultQueryFactory.getInstance();
@@ -146,6 +162,11 @@ public class DummyIndexingDestination implements IndexingDestination {
             throw new UnsupportedOperationException("I think this is not needed for testing");
        }
         
+        @Override
+        public QueryResultStream<Representation> stream(FieldQuery query, int pageSize) throws YardException, IllegalArgumentException {
+            throw new UnsupportedOperationException("I think this is not needed for testing");
+        }
+        
         @Override
         public Representation create(String id) throws IllegalArgumentException, YardException {
             return InMemoryValueFactory.getInstance().createRepresentation(id);
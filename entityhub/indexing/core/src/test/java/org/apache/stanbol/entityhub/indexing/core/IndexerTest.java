@@ -66,7 +66,8 @@ public class IndexerTest {
     /**
      * Hold the results of the indexing process
      */
-    protected static final Map<String,Representation> indexedData = new HashMap<String,Representation>();
+    protected static final Map<String,Representation> indexedData = 
+            Collections.synchronizedMap(new HashMap<String,Representation>());
     protected static Logger log = LoggerFactory.getLogger(IndexerTest.class);
     private static String rootDir;
     private static IndexerFactory factory;
@@ -136,6 +137,17 @@ public class IndexerTest {
         validateAllIndexed();
         
     }
+    @Test
+    public void testMultipleDaemons(){
+        Indexer indexer = factory.create(CONFIG_ROOT+"dataIterating",CONFIG_ROOT+"idIterating");
+        indexer.setProcessingThreads(4);
+        indexer.setPersistingThreads(2);
+        assertEquals(4, indexer.getProcessingThreads());
+        assertEquals(2, indexer.getPersistingThreads());
+        indexer.index();
+        //check that all entities have been indexed
+        validateAllIndexed();
+    }
     /**
      * validate the all the indexed resources!<p>
      * NOTE: That the asserts expect a specific configuration as provided by the
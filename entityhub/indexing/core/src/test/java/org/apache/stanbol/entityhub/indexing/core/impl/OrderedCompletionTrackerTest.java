@@ -0,0 +1,194 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one or more
+* contributor license agreements.  See the NOTICE file distributed with
+* this work for additional information regarding copyright ownership.
+* The ASF licenses this file to You under the Apache License, Version 2.0
+* (the "License"); you may not use this file except in compliance with
+* the License.  You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.apache.stanbol.entityhub.indexing.core.impl;
+
+import static org.apache.stanbol.entityhub.indexing.core.impl.IndexerConstants.INDEXING_COMPLETED_QUEUE_ITEM;
+import static org.apache.stanbol.entityhub.indexing.core.impl.IndexerConstants.SOURCE_SEQUENCE;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.apache.stanbol.entityhub.core.model.InMemoryValueFactory;
+import org.apache.stanbol.entityhub.indexing.core.EntityProcessor;
+import org.apache.stanbol.entityhub.servicesapi.model.Representation;
+import org.apache.stanbol.entityhub.servicesapi.model.ValueFactory;
+import org.apache.stanbol.entityhub.servicesapi.yard.Yard;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class OrderedCompletionTrackerTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderedCompletionTrackerTest.class);
+
+    private static ValueFactory vf = InMemoryValueFactory.getInstance();
+
+    @Test
+    public void testOrderedCompletion(){
+        OrderedCompletionTracker tracker = new OrderedCompletionTracker();
+        Assert.assertEquals(0, tracker.getCompleted());
+        tracker.completed(1);
+        tracker.completed(3);
+        tracker.completed(5);
+        Assert.assertEquals(1, tracker.getCompleted());
+        Assert.assertEquals(2, tracker.getOutOfOrder());
+        tracker.completed(2); //closes the gap to 3
+        Assert.assertEquals(3, tracker.getCompleted());
+        Assert.assertEquals(1, tracker.getOutOfOrder());
+        tracker.completed(3); //completing twice is ignored
+        tracker.completed(4);
+        Assert.assertEquals(5, tracker.getCompleted());
+        Assert.assertEquals(0, tracker.getOutOfOrder());
+    }
+
+    @Test
+    public void testItemsWithoutSequence(){
+        OrderedCompletionTracker tracker = new OrderedCompletionTracker();
+        tracker.completed(new QueueItem<String>("test"));
+        tracker.completed((QueueItem<?>)null);
+        Assert.assertEquals(0, tracker.getCompleted());
+        Assert.assertEquals(0, tracker.getOutOfOrder());
+        tracker.completed(createItem(1));
+        Assert.assertEquals(1, tracker.getCompleted());
+    }
+    /**
+     * Entities filtered by the {@link EntityProcessorRunnable} and failed
+     * entities logged by the {@link EntityErrorLoggerDaemon} need to be
+     * completed. Otherwise the tracker would wait for them forever.
+     */
+    @Test
+    public void testFilteredAndFailedEntities() throws InterruptedException {
+        OrderedCompletionTracker tracker = new OrderedCompletionTracker();
+        BlockingQueue<QueueItem<Representation>> consume =
+                new ArrayBlockingQueue<QueueItem<Representation>>(10);
+        BlockingQueue<QueueItem<Representation>> produce =
+                new ArrayBlockingQueue<QueueItem<Representation>>(10);
+        BlockingQueue<QueueItem<IndexingError>> error =
+                new ArrayBlockingQueue<QueueItem<IndexingError>>(10);
+        for(int i = 1; i <= 4; i++){
+            consume.put(createItem(i));
+        }
+        consume.put(endOfQueue());
+        //filters entities with an even sequence number
+        EntityProcessor filter = new EntityProcessor() {
+            @Override
+            public Representation process(Representation source) {
+                String id = source.getId();
+                return Integer.parseInt(id.substring(id.length()-1))%2 == 0 ? null : source;
+            }
+            @Override
+            public void setConfiguration(Map<String,Object> config) {}
+            @Override
+            public boolean needsInitialisation() { return false; }
+            @Override
+            public void initialise() {}
+            @Override
+            public void close() {}
+        };
+        new EntityProcessorRunnable("test", consume, produce, error,
+            Collections.singletonList(filter), Collections.<String>emptySet(),
+            tracker).run();
+        Assert.assertEquals(2, produce.size());
+        //entity 2 and 4 are filtered
+        Assert.assertEquals(0, tracker.getCompleted());
+        Assert.assertEquals(2, tracker.getOutOfOrder());
+        //entity 1 fails
+        QueueItem<Representation> failed = produce.take();
+        error.put(new QueueItem<IndexingError>(new IndexingError(
+            failed.getItem().getId(), "test error", null), failed));
+        error.put(endOfQueue());
+        new EntityErrorLoggerDaemon(error, log, tracker).run();
+        Assert.assertEquals(2, tracker.getCompleted());
+        //entity 3 is stored
+        produce.put(endOfQueue());
+        new FinishedEntityDaemon(produce, -1, log, null, 1, 1, tracker).run();
+        Assert.assertEquals(4, tracker.getCompleted());
+        Assert.assertEquals(0, tracker.getOutOfOrder());
+    }
+
+    /**
+     * Entities replaced by a later entity with the same id before they are
+     * stored need to be completed by the {@link EntityPersisterRunnable}.
+     * Otherwise their sequence number would block the completion of all
+     * later entities.
+     */
+    @Test
+    public void testDuplicateIds() throws InterruptedException {
+        OrderedCompletionTracker tracker = new OrderedCompletionTracker();
+        BlockingQueue<QueueItem<Representation>> consume =
+                new ArrayBlockingQueue<QueueItem<Representation>>(10);
+        BlockingQueue<QueueItem<Representation>> produce =
+                new ArrayBlockingQueue<QueueItem<Representation>>(10);
+        BlockingQueue<QueueItem<IndexingError>> error =
+                new ArrayBlockingQueue<QueueItem<IndexingError>>(10);
+        consume.put(createItem("urn:test:a", 1));
+        consume.put(createItem("urn:test:b", 2));
+        consume.put(createItem("urn:test:a", 3)); //replaces entity 1
+        consume.put(createItem("urn:test:c", 4));
+        consume.put(endOfQueue());
+        final List<String> stored = new ArrayList<String>();
+        Yard yard = (Yard)Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[]{Yard.class}, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    if("store".equals(method.getName()) && args[0] instanceof Iterable<?>){
+                        for(Object rep : (Iterable<?>)args[0]){
+                            stored.add(((Representation)rep).getId());
+                        }
+                        return args[0];
+                    } else if("getId".equals(method.getName())){
+                        return "test";
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                }
+            });
+        new EntityPersisterRunnable("test", consume, produce, error, 10, yard, tracker).run();
+        //entity 1 was replaced and is therefore completed
+        Assert.assertEquals(3, stored.size());
+        Assert.assertEquals(1, tracker.getCompleted());
+        Assert.assertEquals(0, tracker.getOutOfOrder());
+        Assert.assertTrue(error.isEmpty());
+        produce.put(endOfQueue());
+        new FinishedEntityDaemon(produce, -1, log, null, 1, 1, tracker).run();
+        Assert.assertEquals(4, tracker.getCompleted());
+        Assert.assertEquals(0, tracker.getOutOfOrder());
+    }
+
+    private static QueueItem<Representation> createItem(long sequence){
+        return createItem("urn:test:entity" + sequence, sequence);
+    }
+
+    private static QueueItem<Representation> createItem(String id, long sequence){
+        QueueItem<Representation> item = new QueueItem<Representation>(
+                vf.createRepresentation(id));
+        item.setProperty(SOURCE_SEQUENCE, Long.valueOf(sequence));
+        return item;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> QueueItem<T> endOfQueue(){
+        return INDEXING_COMPLETED_QUEUE_ITEM;
+    }
+}
@@ -88,6 +88,7 @@ import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.apache.stanbol.entityhub.servicesapi.model.ValueFactory;
 import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
 import org.apache.stanbol.entityhub.servicesapi.query.QueryResultList;
+import org.apache.stanbol.entityhub.servicesapi.query.QueryResultStream;
 import org.apache.stanbol.entityhub.servicesapi.site.License;
 import org.apache.stanbol.entityhub.servicesapi.site.ManagedSite;
 import org.apache.stanbol.entityhub.servicesapi.site.ManagedSiteException;
@@ -153,6 +154,11 @@ public class ReferencedSiteRootResource extends BaseStanbolResource {
      * The default number of maximal results.
      */
     private static final int DEFAULT_FIND_RESULT_LIMIT = 5;
+    /**
+     * The default number of results loaded with a single request to the
+     * Site by {@link #exportEntities(String, FieldQuery, int, HttpHeaders)}
+     */
+    private static final int DEFAULT_EXPORT_PAGE_SIZE = 1000;
     
     //private Site site;
 
@@ -603,6 +609,44 @@ public class ReferencedSiteRootResource extends BaseStanbolResource {
                                   @Context HttpHeaders headers) {
         return executeQuery(getSite(siteId), query,headers);
     }
+    /**
+     * Streams all results of the parsed {@link FieldQuery}. In contrast to
+     * {@link #queryEntities(String, FieldQuery, HttpHeaders)} the results are
+     * loaded page by page while writing the response. Therefore the number
+     * of results is not restricted by the maximum number of results supported
+     * by the Site. If no limit is set by the query all results are returned.
+     * <p>
+     * LDPath selects are not supported by this method.
+     * @param query The field query as parsed by {@link FieldQueryReader}
+     * @param pageSize the number of results loaded with a single request
+     * @param headers the header information of the request
+     * @return the results of the query
+     */
+    @POST
+    @Path("/export")
+    @Consumes( {APPLICATION_JSON})
+    public Response exportEntities(@PathParam(value = "site") String siteId,
+                                   FieldQuery query,
+                                   @QueryParam(value = "pageSize") @DefaultValue(value = "-1") int pageSize,
+                                   @Context HttpHeaders headers) {
+        Site site = getSite(siteId);
+        MediaType mediaType = getAcceptableMediaType(headers, ENTITY_SUPPORTED_MEDIA_TYPES, 
+            APPLICATION_JSON_TYPE);
+        QueryResultStream<Representation> result;
+        try {
+            result = site.stream(query, pageSize > 0 ? pageSize : DEFAULT_EXPORT_PAGE_SIZE);
+        } catch (SiteException e) {
+            String message = String.format("Unable to Query Site '%s' (message: %s)",
+                site.getId(),e.getMessage());
+            log.error(message, e);
+            return Response.status(Status.INTERNAL_SERVER_ERROR)
+            .entity(message)
+            .header(HttpHeaders.ACCEPT, mediaType).build();
+        }
+        ResponseBuilder rb = Response.ok(result);
+        rb.header(HttpHeaders.CONTENT_TYPE, mediaType+"; charset=utf-8");
+        return rb.build();
+    }
     @GET
     @Path("/query")
     @Produces(TEXT_HTML)
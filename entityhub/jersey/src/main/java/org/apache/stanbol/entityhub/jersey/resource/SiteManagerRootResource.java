@@ -37,6 +37,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -66,6 +67,8 @@ import org.apache.stanbol.commons.namespaceprefix.NamespacePrefixService;
 import org.apache.stanbol.commons.viewable.Viewable;
 import org.apache.stanbol.commons.web.base.resource.BaseStanbolResource;
 import org.apache.stanbol.entityhub.core.query.QueryResultListImpl;
+import org.apache.stanbol.entityhub.core.site.SiteStatistics;
+import org.apache.stanbol.entityhub.core.site.SiteStatisticsProvider;
 import org.apache.stanbol.entityhub.jersey.utils.JerseyUtils;
 import org.apache.stanbol.entityhub.ldpath.EntityhubLDPath;
 import org.apache.stanbol.entityhub.ldpath.backend.SiteManagerBackend;
@@ -79,6 +82,8 @@ import org.apache.stanbol.entityhub.servicesapi.query.QueryResultList;
 import org.apache.stanbol.entityhub.servicesapi.site.SiteManager;
 import org.apache.stanbol.entityhub.servicesapi.util.AdaptingIterator;
 import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -196,6 +201,44 @@ public class SiteManagerRootResource extends BaseStanbolResource {
         }
     }
     
+    /**
+     * Getter for the request statistics of the referenced sites. Only
+     * available if the {@link SiteManager} is a {@link SiteStatisticsProvider}.
+     * 
+     * @return the statistics as JSON object with the site ids as keys
+     */
+    @GET
+    @Path(value = "/statistics")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getSiteStatistics(@Context HttpHeaders headers) {
+        if(!(referencedSiteManager instanceof SiteStatisticsProvider)){
+            return Response.status(Status.NOT_FOUND)
+                .entity("The SiteManager does not provide statistics for referenced sites\n")
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON).build();
+        }
+        JSONObject statistics = new JSONObject();
+        try {
+            for(Entry<String,SiteStatistics> entry : 
+                    ((SiteStatisticsProvider)referencedSiteManager).getSiteStatistics().entrySet()){
+                SiteStatistics siteStats = entry.getValue();
+                JSONObject jSiteStats = new JSONObject();
+                jSiteStats.put("requests", siteStats.getRequestCount());
+                jSiteStats.put("failures", siteStats.getFailureCount());
+                jSiteStats.put("timeouts", siteStats.getTimeoutCount());
+                jSiteStats.put("rejections", siteStats.getRejectedCount());
+                jSiteStats.put("pending", siteStats.getPendingCount());
+                jSiteStats.put("averageTime", siteStats.getAverageTime());
+                jSiteStats.put("maxTime", siteStats.getMaxTime());
+                statistics.put(entry.getKey(), jSiteStats);
+            }
+        } catch (JSONException e) {
+            throw new WebApplicationException(e, Status.INTERNAL_SERVER_ERROR);
+        }
+        ResponseBuilder rb =  Response.ok(statistics.toString());
+        rb.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON+"; charset=utf-8");
+        return rb.build();
+    }
+    
     @OPTIONS
     @Path("/entity")
     public Response handleCorsPreflightEntity(@Context HttpHeaders headers){
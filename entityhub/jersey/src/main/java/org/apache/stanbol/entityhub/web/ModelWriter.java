@@ -10,6 +10,7 @@ import javax.ws.rs.core.MediaType;
 import org.apache.stanbol.entityhub.servicesapi.model.Entity;
 import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.apache.stanbol.entityhub.servicesapi.query.QueryResultList;
+import org.apache.stanbol.entityhub.servicesapi.query.QueryResultStream;
 /**
  * The ModelWirter extension point allows to have native serialiszation support
  * for specific Entityhub model implementation. <p>
@@ -81,5 +82,19 @@ public interface ModelWriter {
      * @throws IOException on any Error while writing to the stream
      */
     public void write(QueryResultList<?> result, OutputStream out, MediaType mediaType) throws WebApplicationException, IOException;
+    /**
+     * Writes the results of a {@link QueryResultStream} to the stream. 
+     * Implementations SHOULD write results while iterating over the parsed
+     * stream so that the memory used does not depend on the number of results.
+     * @param result the {@link QueryResultStream} over {@link String},
+     * {@link Entity} or {@link Representation} instances. Also empty streams
+     * need to be supported.
+     * @param out the stream
+     * @param mediaType the {@link MediaType}
+     * @throws WebApplicationException If the parsed query results can not be
+     * serialized for some reasons
+     * @throws IOException on any Error while writing to the stream
+     */
+    public void write(QueryResultStream<?> result, OutputStream out, MediaType mediaType) throws WebApplicationException, IOException;
 
 }
@@ -2,6 +2,8 @@ package org.apache.stanbol.entityhub.web.impl;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
@@ -27,7 +29,9 @@ import org.apache.stanbol.entityhub.servicesapi.model.Entity;
 import org.apache.stanbol.entityhub.servicesapi.model.Reference;
 import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.apache.stanbol.entityhub.servicesapi.model.Text;
+import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
 import org.apache.stanbol.entityhub.servicesapi.query.QueryResultList;
+import org.apache.stanbol.entityhub.servicesapi.query.QueryResultStream;
 import org.apache.stanbol.entityhub.web.ModelWriter;
 import org.apache.stanbol.entityhub.web.fieldquery.FieldQueryToJsonUtils;
 import org.codehaus.jettison.json.JSONArray;
@@ -137,12 +141,57 @@ public class JsonModelWriter implements ModelWriter {
     @Override
     public void write(QueryResultList<?> result, OutputStream out, MediaType mediaType) 
             throws WebApplicationException, IOException {
+        writeResults(result.getQuery(), result.iterator(), result.getType(), out, mediaType);
+    }
+
+    @Override
+    public void write(QueryResultStream<?> result, OutputStream out, MediaType mediaType) 
+            throws WebApplicationException, IOException {
+        writeResults(result.getQuery(), result, result.getType(), out, mediaType);
+    }
+    /**
+     * Writes the query and the results. Results are converted to JSON and
+     * written one by one. This avoids to build the JSON object for the
+     * whole result list in memory.
+     * @param query the query or <code>null</code> if not available
+     * @param results the results
+     * @param type the type of the results
+     * @param out the stream
+     * @param mediaType the media type
+     * @throws IOException on any error while writing to the stream
+     */
+    private void writeResults(FieldQuery query, Iterator<?> results, Class<?> type, 
+            OutputStream out, MediaType mediaType) throws IOException {
+        Writer writer = new OutputStreamWriter(out, getCharset(mediaType));
         try {
-            writeJsonObject(toJSON(result,nsPrefixService), out,getCharset(mediaType));
+            writer.write('{');
+            if(query != null){
+                writer.write("\"query\":");
+                writeJsonObject(FieldQueryToJsonUtils.toJSON(query,nsPrefixService), writer);
+                writer.write(',');
+            }
+            writer.write("\"results\":[");
+            boolean first = true;
+            while(results.hasNext()){
+                Object result = results.next();
+                if(first){
+                    first = false;
+                } else {
+                    writer.write(',');
+                }
+                if(String.class.isAssignableFrom(type)){
+                    writer.write(JSONObject.quote(result.toString()));
+                } else if(Representation.class.isAssignableFrom(type)){
+                    writeJsonObject(toJSON((Representation)result), writer);
+                } else if(Entity.class.isAssignableFrom(type)){
+                    writeJsonObject(toJSON((Entity)result), writer);
+                }
+            }
+            writer.write("]}");
         } catch (JSONException e) {
             throw new WebApplicationException(e, Status.INTERNAL_SERVER_ERROR);
         }
-
+        writer.flush();
     }
     private JSONObject toJSON(Entity entity) throws JSONException {
         return convertEntityToJSON(entity);
@@ -162,6 +211,18 @@ public class JsonModelWriter implements ModelWriter {
                 out, charset);
     }
 
+    /**
+     * Writes the {@link JSONObject} to the writer
+     * @param jObject the object to write
+     * @param writer the writer
+     * @throws IOException
+     * @throws JSONException
+     */
+    private void writeJsonObject(JSONObject jObject, Writer writer) 
+            throws IOException, JSONException {
+        writer.write(indent > 0 ? jObject.toString(indent) : jObject.toString());
+    }
+
     /**
      * @param mediaType
      * @return
@@ -257,32 +318,5 @@ public class JsonModelWriter implements ModelWriter {
         }
         return jValue;
     }
-    
-    private <T> JSONObject toJSON(QueryResultList<?> resultList, NamespacePrefixService nsPrefixService) throws JSONException{
-        JSONObject jResultList = new JSONObject();
-        if(resultList.getQuery() != null){
-            jResultList.put("query", FieldQueryToJsonUtils.toJSON(resultList.getQuery(),nsPrefixService));
-        }
-        jResultList.put("results", convertResultsToJSON(resultList,resultList.getType()));
-        return jResultList;
-    }
-
-    private <T> JSONArray convertResultsToJSON(Iterable<?> results,Class<?> type) throws JSONException{
-        JSONArray jResults = new JSONArray();
-        if(String.class.isAssignableFrom(type)){
-            for(Object result : results){
-                jResults.put(result);
-            }
-        } else if(Representation.class.isAssignableFrom(type)){
-            for(Object result : results){
-                jResults.put(toJSON((Representation)result));
-            }
-        } else if(Entity.class.isAssignableFrom(type)){
-            for(Object result : results){
-                jResults.put(toJSON((Entity)result));
-            }
-        }
-        return jResults;
-    }
 
 }
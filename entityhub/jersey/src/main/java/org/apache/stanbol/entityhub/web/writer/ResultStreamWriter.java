@@ -0,0 +1,205 @@
+package org.apache.stanbol.entityhub.web.writer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+
+import org.apache.felix.scr.annotations.Component;
+import org.apache.felix.scr.annotations.Property;
+import org.apache.felix.scr.annotations.Reference;
+import org.apache.felix.scr.annotations.Service;
+import org.apache.stanbol.entityhub.servicesapi.model.Entity;
+import org.apache.stanbol.entityhub.servicesapi.model.Representation;
+import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
+import org.apache.stanbol.entityhub.servicesapi.query.QueryResultStream;
+import org.apache.stanbol.entityhub.web.ModelWriter;
+import org.apache.stanbol.entityhub.web.ModelWriterRegistry;
+import org.osgi.framework.ServiceReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link MessageBodyWriter} for {@link QueryResultStream}s. Works like the
+ * {@link ResultListWriter} but reads only the first result to determine the
+ * native type used to select the {@link ModelWriter}. All other results are
+ * consumed by the {@link ModelWriter} while writing the response.
+ */
+@Component(immediate=true)
+@Service(Object.class)
+@Property(name="javax.ws.rs", boolValue=true)
+@Provider
+public class ResultStreamWriter implements MessageBodyWriter<QueryResultStream<?>> {
+
+    private final Logger log = LoggerFactory.getLogger(ResultStreamWriter.class);
+
+    @Reference
+    protected ModelWriterRegistry writerRegistry;
+
+    @Override
+    public long getSize(QueryResultStream<?> stream,
+                        Class<?> type,
+                        Type genericType,
+                        Annotation[] annotations,
+                        MediaType mediaType) {
+        return -1;
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        if(QueryResultStream.class.isAssignableFrom(type)){
+            if(mediaType.isWildcardType() && mediaType.isWildcardSubtype()){
+                mediaType = ModelWriter.DEFAULT_MEDIA_TYPE;
+            }
+            return writerRegistry.isWriteable(getMatchType(mediaType), null);
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public void writeTo(QueryResultStream<?> stream,
+                        Class<?> type,
+                        Type genericType,
+                        Annotation[] annotations,
+                        MediaType mediaType,
+                        MultivaluedMap<String,Object> httpHeaders,
+                        OutputStream entityStream) throws IOException, WebApplicationException {
+        //check for wildcard
+        if(mediaType.isWildcardType() && mediaType.isWildcardSubtype()){
+            mediaType = ModelWriter.DEFAULT_MEDIA_TYPE;
+        }
+        String charset = mediaType.getParameters().get("charset");
+        if(charset == null){
+            charset = ModelWriter.DEFAULT_CHARSET;
+            mediaType = mediaType.withCharset(charset);
+            httpHeaders.putSingle(HttpHeaders.CONTENT_TYPE, mediaType.toString());
+        }
+        PeekingResultStream<?> results = PeekingResultStream.wrap(stream);
+        Object first = results.peek();
+        Class<? extends Representation> nativeType;
+        if(first == null){ //for empty streams
+            nativeType = null; //the type does not matter
+        } else if(first instanceof Representation){
+            nativeType = ((Representation)first).getClass();
+        } else if(first instanceof Entity){
+            nativeType = ((Entity)first).getRepresentation().getClass();
+        } else { //only a stream of string ids
+            nativeType = null;
+        }
+        Iterator<ServiceReference> refs = writerRegistry.getModelWriters(
+            getMatchType(mediaType), nativeType).iterator();
+        ModelWriter writer = null;
+        MediaType selectedMediaType = null;
+        while((writer == null || selectedMediaType == null) && refs.hasNext()){
+            writer = writerRegistry.getService(refs.next());
+            if(writer != null){
+                if(mediaType.isWildcardType() || mediaType.isWildcardSubtype()){
+                    selectedMediaType = writer.getBestMediaType(mediaType);
+                } else {
+                    selectedMediaType = mediaType;
+                }
+            }
+        }
+        if(writer == null || selectedMediaType == null){
+            throw new WebApplicationException(new IllegalStateException(
+                "Unable to serialize ResultStream with " + stream.getType()
+                + " (nativeType: " + nativeType + ") to " + mediaType));
+        }
+        selectedMediaType = selectedMediaType.withCharset(charset);
+        httpHeaders.putSingle(HttpHeaders.CONTENT_TYPE, selectedMediaType.toString());
+        log.debug("serialize ResultStream of {} with ModelWriter {}",nativeType, writer.getClass().getName());
+        writer.write(results, entityStream, selectedMediaType);
+    }
+
+    /**
+     * Strips all parameters from the parsed mediaType
+     * @param mediaType
+     */
+    protected MediaType getMatchType(MediaType mediaType) {
+        final MediaType matchType;
+        if(!mediaType.getParameters().isEmpty()){
+            matchType = new MediaType(mediaType.getType(), mediaType.getSubtype());
+        } else {
+            matchType = mediaType;
+        }
+        return matchType;
+    }
+
+    /**
+     * Wraps a {@link QueryResultStream} and allows to {@link #peek()} the
+     * next result without consuming it.
+     */
+    private static final class PeekingResultStream<T> implements QueryResultStream<T> {
+
+        private final QueryResultStream<T> stream;
+        private T next;
+
+        private PeekingResultStream(QueryResultStream<T> stream){
+            this.stream = stream;
+        }
+
+        static <T> PeekingResultStream<T> wrap(QueryResultStream<T> stream){
+            return new PeekingResultStream<T>(stream);
+        }
+        /**
+         * The next result without consuming it
+         * @return the next result or <code>null</code> if the stream has no
+         * more results
+         */
+        T peek(){
+            if(next == null && stream.hasNext()){
+                next = stream.next();
+            }
+            return next;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null || stream.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if(next != null){
+                T result = next;
+                next = null;
+                return result;
+            } else if(stream.hasNext()){
+                return stream.next();
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Removal of results is not supported!");
+        }
+
+        @Override
+        public FieldQuery getQuery() {
+            return stream.getQuery();
+        }
+
+        @Override
+        public Set<String> getSelectedFields() {
+            return stream.getSelectedFields();
+        }
+
+        @Override
+        public Class<T> getType() {
+            return stream.getType();
+        }
+    }
+}
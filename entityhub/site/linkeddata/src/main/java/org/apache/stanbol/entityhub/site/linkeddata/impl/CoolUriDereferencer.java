@@ -16,22 +16,35 @@
  */
 package org.apache.stanbol.entityhub.site.linkeddata.impl;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URL;
-import java.net.URLConnection;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.apache.clerezza.rdf.core.MGraph;
 import org.apache.clerezza.rdf.core.UriRef;
 import org.apache.clerezza.rdf.core.serializedform.Parser;
 import org.apache.clerezza.rdf.core.serializedform.SupportedFormat;
+import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
+import org.apache.felix.scr.annotations.Deactivate;
 import org.apache.felix.scr.annotations.Reference;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpResponseException;
 import org.apache.stanbol.commons.indexedgraph.IndexedMGraph;
 import org.apache.stanbol.entityhub.core.site.AbstractEntityDereferencer;
 import org.apache.stanbol.entityhub.model.clerezza.RdfValueFactory;
 import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.apache.stanbol.entityhub.servicesapi.site.EntityDereferencer;
+import org.osgi.service.component.ComponentContext;
 import org.slf4j.LoggerFactory;
 
 
@@ -47,18 +60,39 @@ public class CoolUriDereferencer extends AbstractEntityDereferencer implements E
 
     private final RdfValueFactory valueFactory = RdfValueFactory.getInstance();
 
+    private LinkedDataHttpClient httpClient;
 
     public CoolUriDereferencer(){
         super(LoggerFactory.getLogger(CoolUriDereferencer.class));
     }
 
+    @Activate
+    @Override
+    protected void activate(ComponentContext context) {
+        super.activate(context);
+        httpClient = LinkedDataHttpClient.acquire();
+    }
+
+    @Deactivate
+    @Override
+    protected void deactivate(ComponentContext context) {
+        httpClient = null;
+        LinkedDataHttpClient.release();
+        super.deactivate(context);
+    }
+
+    /**
+     * Uses the shared {@link LinkedDataHttpClient}. Concurrent requests for
+     * the same URI are therefore only sent once to the remote server.
+     */
     @Override
     public final InputStream dereference(String uri, String contentType) throws IOException{
         if(uri!=null){
-            final URL url = new URL(uri);
-            final URLConnection con = url.openConnection();
-            con.addRequestProperty("Accept", contentType);
-            return con.getInputStream();
+            try {
+                return httpClient.get(new URI(uri), contentType);
+            } catch (URISyntaxException e) {
+                throw new IOException("Unable to dereference invalid URI '"+uri+"'!",e);
+            }
         } else {
             return null;
         }
@@ -80,4 +114,52 @@ public class CoolUriDereferencer extends AbstractEntityDereferencer implements E
             return null;
         }
     }
+    /**
+     * Sends the requests for all parsed URIs before waiting for the
+     * responses. This allows the {@link LinkedDataHttpClient} to execute
+     * them concurrently. URIs the server responds with
+     * <code>404 Not Found</code> are not contained in the returned map.
+     */
+    @Override
+    public final Map<String,Representation> dereference(Collection<String> uris) throws IOException {
+        if(uris == null){
+            throw new IllegalArgumentException("The parsed collection of URIs MUST NOT be NULL!");
+        }
+        String format = SupportedFormat.RDF_XML;
+        Map<String,Future<byte[]>> requests = new LinkedHashMap<String,Future<byte[]>>();
+        for(String uri : uris){
+            if(uri != null && !uri.isEmpty() && !requests.containsKey(uri)){
+                try {
+                    requests.put(uri, httpClient.execute(new URI(uri), format));
+                } catch (URISyntaxException e) {
+                    throw new IOException("Unable to dereference invalid URI '"+uri+"'!",e);
+                }
+            }
+        }
+        Map<String,Representation> representations = new LinkedHashMap<String,Representation>();
+        for(Entry<String,Future<byte[]>> request : requests.entrySet()){
+            byte[] data;
+            try {
+                data = request.getValue().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                InterruptedIOException ie = new InterruptedIOException(
+                    "Interrupted while dereferencing "+request.getKey());
+                ie.initCause(e);
+                throw ie;
+            } catch (ExecutionException e) {
+                if(e.getCause() instanceof HttpResponseException && 
+                        ((HttpResponseException)e.getCause()).getStatusCode() == HttpStatus.SC_NOT_FOUND){
+                    log.debug("  > Entity {} not found",request.getKey());
+                    continue;
+                }
+                throw new IOException("Unable to dereference "+request.getKey(), e.getCause());
+            }
+            MGraph rdfData = new IndexedMGraph(parser.parse(new ByteArrayInputStream(data), 
+                format, new UriRef(getBaseUri())));
+            representations.put(request.getKey(), 
+                valueFactory.createRdfRepresentation(new UriRef(request.getKey()), rdfData));
+        }
+        return representations;
+    }
 }
@@ -27,7 +27,9 @@ import org.apache.clerezza.rdf.core.MGraph;
 import org.apache.clerezza.rdf.core.TripleCollection;
 import org.apache.clerezza.rdf.core.UriRef;
 import org.apache.clerezza.rdf.core.serializedform.Parser;
+import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
+import org.apache.felix.scr.annotations.Deactivate;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.stanbol.commons.indexedgraph.IndexedMGraph;
 import org.apache.stanbol.entityhub.core.query.QueryResultListImpl;
@@ -40,6 +42,7 @@ import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
 import org.apache.stanbol.entityhub.servicesapi.query.QueryResultList;
 import org.apache.stanbol.entityhub.servicesapi.site.EntitySearcher;
+import org.osgi.service.component.ComponentContext;
 import org.slf4j.LoggerFactory;
 
 
@@ -56,6 +59,23 @@ public class LarqSearcher extends AbstractEntitySearcher implements EntitySearch
     @Reference
     private Parser parser;
 
+    private LinkedDataHttpClient httpClient;
+
+    @Activate
+    @Override
+    protected void activate(ComponentContext context) {
+        super.activate(context);
+        httpClient = LinkedDataHttpClient.acquire();
+    }
+
+    @Deactivate
+    @Override
+    protected void deactivate(ComponentContext context) {
+        httpClient = null;
+        LinkedDataHttpClient.release();
+        super.deactivate(context);
+    }
+
     @Override
     public final QueryResultList<Representation> find(FieldQuery parsedQuery) throws IOException {
         long start = System.currentTimeMillis();
@@ -65,7 +85,7 @@ public class LarqSearcher extends AbstractEntitySearcher implements EntitySearch
         long initEnd = System.currentTimeMillis();
         log.debug("  > InitTime: "+(initEnd-start));
         log.debug("  > SPARQL query:\n"+sparqlQuery);
-        InputStream in = SparqlEndpointUtils.sendSparqlRequest(getQueryUri(), sparqlQuery, SparqlSearcher.DEFAULT_RDF_CONTENT_TYPE);
+        InputStream in = SparqlEndpointUtils.sendSparqlRequest(httpClient, getQueryUri(), sparqlQuery, SparqlSearcher.DEFAULT_RDF_CONTENT_TYPE);
         long queryEnd = System.currentTimeMillis();
         log.debug("  > QueryTime: "+(queryEnd-initEnd));
         if(in != null){
@@ -90,7 +110,7 @@ public class LarqSearcher extends AbstractEntitySearcher implements EntitySearch
         final SparqlFieldQuery query = SparqlFieldQueryFactory.getSparqlFieldQuery(parsedQuery);
         query.setSparqlEndpointType(SparqlEndpointTypeEnum.LARQ);
         String sparqlQuery = query.toSparqlSelect(false);
-        InputStream in = sendSparqlRequest(getQueryUri(), sparqlQuery, SparqlSearcher.DEFAULT_SPARQL_RESULT_CONTENT_TYPE);
+        InputStream in = sendSparqlRequest(httpClient, getQueryUri(), sparqlQuery, SparqlSearcher.DEFAULT_SPARQL_RESULT_CONTENT_TYPE);
         //Move to util class!
         final List<String> entities = extractEntitiesFromJsonResult(in,query.getRootVariableName());
         return new QueryResultListImpl<String>(query, entities.iterator(),String.class);
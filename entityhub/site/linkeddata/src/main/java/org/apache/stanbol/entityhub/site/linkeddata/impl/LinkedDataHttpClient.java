@@ -0,0 +1,310 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.site.linkeddata.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.StatusLine;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.CoreConnectionPNames;
+import org.apache.http.params.CoreProtocolPNames;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * HTTP client shared by the LinkedData {@link org.apache.stanbol.entityhub.servicesapi.site.EntityDereferencer}
+ * and {@link org.apache.stanbol.entityhub.servicesapi.site.EntitySearcher}
+ * implementations of this bundle.<p>
+ * Requests are executed asynchronously by a thread pool using connections of
+ * a pool of keep-alive connections. This avoids to pay the TCP (and TLS)
+ * setup for every dereferenced entity. Concurrent requests for the same URI
+ * and content type are coalesced: only a single request is sent to the
+ * remote server and all callers get the same response.<p>
+ * Responses are fully read into memory so that the connection can be
+ * returned to the pool immediately and the data can be shared by coalesced
+ * requests.<p>
+ * Components {@link #acquire() acquire} the shared instance on activation and
+ * {@link #release() release} it on deactivation. The shared instance is shut
+ * down as soon as it is no longer used by any component.
+ */
+public final class LinkedDataHttpClient {
+
+    private static final Logger log = LoggerFactory.getLogger(LinkedDataHttpClient.class);
+
+    /**
+     * The maximum number of concurrent connections (and requests)
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS = 50;
+    /**
+     * The maximum number of concurrent connections to a single host
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 10;
+    /**
+     * The timeout in milliseconds for establishing a connection
+     */
+    public static final int DEFAULT_CONNECTION_TIMEOUT = 10000;
+    /**
+     * The timeout in milliseconds waiting for data (SO_TIMEOUT)
+     */
+    public static final int DEFAULT_SOCKET_TIMEOUT = 60000;
+
+    private static LinkedDataHttpClient instance;
+    private static int references;
+
+    /**
+     * Acquires the shared instance. Needs to be {@link #release() released}
+     * if no longer needed.
+     * @return the shared instance
+     */
+    public static synchronized LinkedDataHttpClient acquire(){
+        if(instance == null){
+            log.debug("create shared LinkedData HTTP client");
+            instance = new LinkedDataHttpClient(DEFAULT_MAX_CONNECTIONS,
+                DEFAULT_MAX_CONNECTIONS_PER_ROUTE, DEFAULT_CONNECTION_TIMEOUT,
+                DEFAULT_SOCKET_TIMEOUT);
+        }
+        references++;
+        return instance;
+    }
+    /**
+     * Releases the shared instance previously {@link #acquire() acquired}.
+     * The shared instance is shut down after the last reference was released.
+     */
+    public static synchronized void release(){
+        if(references > 0){
+            references--;
+            if(references == 0 && instance != null){
+                log.debug("shutdown shared LinkedData HTTP client");
+                instance.shutdown();
+                instance = null;
+            }
+        }
+    }
+
+    private final PoolingClientConnectionManager connectionManager;
+    private final DefaultHttpClient httpClient;
+    private final ThreadPoolExecutor executor;
+    /**
+     * Requests currently in progress. Used to coalesce requests for the same
+     * URI and content type
+     */
+    private final ConcurrentMap<String,Future<byte[]>> pending =
+            new ConcurrentHashMap<String,Future<byte[]>>();
+
+    /**
+     * Creates a new client. Components should use the shared instance
+     * ({@link #acquire()}) instead.
+     * @param maxConnections the maximum number of concurrent connections
+     * @param maxConnectionsPerRoute the maximum number of concurrent connections
+     * to a single host
+     * @param connectionTimeout the connection timeout in milliseconds
+     * @param socketTimeout the socket timeout in milliseconds
+     */
+    LinkedDataHttpClient(int maxConnections, int maxConnectionsPerRoute,
+            int connectionTimeout, int socketTimeout){
+        if(maxConnections <= 0){
+            throw new IllegalArgumentException("The maximum number of connections MUST BE > 0 (parsed: "
+                + maxConnections + ")!");
+        }
+        BasicHttpParams httpParams = new BasicHttpParams();
+        httpParams.setParameter(CoreProtocolPNames.USER_AGENT, "Apache Stanbol Entityhub LinkedData Site");
+        httpParams.setBooleanParameter(ClientPNames.HANDLE_REDIRECTS, true);
+        httpParams.setIntParameter(ClientPNames.MAX_REDIRECTS, 3);
+        httpParams.setBooleanParameter(CoreConnectionPNames.SO_KEEPALIVE, true);
+        httpParams.setIntParameter(CoreConnectionPNames.CONNECTION_TIMEOUT, connectionTimeout);
+        httpParams.setIntParameter(CoreConnectionPNames.SO_TIMEOUT, socketTimeout);
+
+        connectionManager = new PoolingClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(Math.min(maxConnections, maxConnectionsPerRoute));
+        httpClient = new DefaultHttpClient(connectionManager,httpParams);
+
+        executor = new ThreadPoolExecutor(maxConnections, maxConnections,
+            60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+            new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "Entityhub LinkedData HTTP Thread #"
+                            + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Asynchronously sends a GET request for the parsed URI. If a request for
+     * the same URI and content type is already in progress the {@link Future}
+     * of that request is returned.
+     * @param uri the URI
+     * @param contentType the requested content type (used as Accept header)
+     * or <code>null</code> if none
+     * @return the future for the data of the response. If the server responds
+     * with an error status the future throws an {@link ExecutionException}
+     * with a {@link HttpResponseException} as cause.
+     * @throws IllegalStateException if this client is already shut down
+     */
+    public Future<byte[]> execute(final URI uri, final String contentType){
+        if(uri == null){
+            throw new IllegalArgumentException("The parsed URI MUST NOT be NULL!");
+        }
+        final String key = contentType == null ? uri.toString() :
+            uri.toString() + '\n' + contentType;
+        Future<byte[]> future = pending.get(key);
+        if(future != null){
+            log.trace("coalesce request for {} (contentType: {})",uri,contentType);
+            return future;
+        }
+        FutureTask<byte[]> task = new FutureTask<byte[]>(new Callable<byte[]>() {
+            @Override
+            public byte[] call() throws Exception {
+                HttpGet request = new HttpGet(uri);
+                if(contentType != null){
+                    request.addHeader(HttpHeaders.ACCEPT, contentType);
+                }
+                return httpClient.execute(request, ResponseDataHandler.INSTANCE);
+            }
+        }){
+            @Override
+            protected void done() {
+                pending.remove(key, this);
+            }
+        };
+        future = pending.putIfAbsent(key, task);
+        if(future != null){ //concurrently added by an other thread
+            return future;
+        }
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            pending.remove(key, task);
+            throw new IllegalStateException("Unable to send request for "+uri
+                + " because this LinkedData HTTP client is already shut down",e);
+        }
+        return task;
+    }
+    /**
+     * Sends a GET request for the parsed URI and waits for the response.
+     * @param uri the URI
+     * @param contentType the requested content type (used as Accept header)
+     * or <code>null</code> if none
+     * @return the data of the response
+     * @throws IOException on any error while sending the request or if the
+     * server responds with an error status ({@link HttpResponseException})
+     */
+    public InputStream get(URI uri, String contentType) throws IOException {
+        Future<byte[]> future = execute(uri, contentType);
+        try {
+            return new ByteArrayInputStream(future.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException ie = new InterruptedIOException(
+                "Interrupted while waiting for the response for "+uri);
+            ie.initCause(e);
+            throw ie;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof HttpResponseException){
+                //keep the status code
+                throw new HttpResponseException(((HttpResponseException)cause).getStatusCode(),
+                    cause.getMessage());
+            } else if(cause instanceof IOException){
+                throw new IOException(cause.getMessage(), cause);
+            } else if(cause instanceof RuntimeException){
+                throw (RuntimeException)cause;
+            } else {
+                throw new IOException("Unable to get "+uri,cause);
+            }
+        }
+    }
+    /**
+     * The number of requests currently in progress
+     */
+    public int getPendingRequests(){
+        return pending.size();
+    }
+    /**
+     * Shuts down this client. Requests in progress are completed.
+     */
+    public void shutdown(){
+        executor.shutdown();
+        try {
+            if(!executor.awaitTermination(DEFAULT_CONNECTION_TIMEOUT, TimeUnit.MILLISECONDS)){
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        connectionManager.shutdown();
+    }
+
+    /**
+     * Reads the data of the response. Throws an {@link HttpResponseException}
+     * including the content of the response (e.g. error messages of SPARQL
+     * endpoints) for responses with an error status.
+     */
+    private static final class ResponseDataHandler implements ResponseHandler<byte[]> {
+
+        private static final ResponseDataHandler INSTANCE = new ResponseDataHandler();
+
+        @Override
+        public byte[] handleResponse(HttpResponse response) throws IOException {
+            StatusLine statusLine = response.getStatusLine();
+            HttpEntity entity = response.getEntity();
+            if(statusLine.getStatusCode() >= 300){
+                String reason = statusLine.getReasonPhrase();
+                if(entity != null){
+                    String content = EntityUtils.toString(entity);
+                    if(content != null && !content.isEmpty()){
+                        reason = reason + " with Content: \n" + content;
+                    }
+                }
+                throw new HttpResponseException(statusLine.getStatusCode(), reason);
+            }
+            return entity == null ? new byte[0] : EntityUtils.toByteArray(entity);
+        }
+    }
+}
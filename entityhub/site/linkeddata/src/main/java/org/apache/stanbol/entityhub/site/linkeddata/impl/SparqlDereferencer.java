@@ -16,14 +16,27 @@
  */
 package org.apache.stanbol.entityhub.site.linkeddata.impl;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.apache.clerezza.rdf.core.MGraph;
 import org.apache.clerezza.rdf.core.UriRef;
 import org.apache.clerezza.rdf.core.serializedform.Parser;
 import org.apache.clerezza.rdf.core.serializedform.SupportedFormat;
+import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
+import org.apache.felix.scr.annotations.Deactivate;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.Service;
 import org.apache.stanbol.commons.indexedgraph.IndexedMGraph;
@@ -31,6 +44,7 @@ import org.apache.stanbol.entityhub.core.site.AbstractEntityDereferencer;
 import org.apache.stanbol.entityhub.model.clerezza.RdfValueFactory;
 import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.apache.stanbol.entityhub.servicesapi.site.EntityDereferencer;
+import org.osgi.service.component.ComponentContext;
 import org.slf4j.LoggerFactory;
 
 
@@ -46,8 +60,17 @@ import org.slf4j.LoggerFactory;
         )
 @Service(value=EntityDereferencer.class)
 public class SparqlDereferencer extends AbstractEntityDereferencer {
+    /**
+     * The maximum number of entities dereferenced by a single SPARQL query.
+     * Queries are sent as GET requests so this also limits the length of the
+     * request URI.
+     */
+    protected static final int MAX_BATCH_SIZE = 20;
+
     private final RdfValueFactory valueFactory = RdfValueFactory.getInstance();
 
+    private LinkedDataHttpClient httpClient;
+
     public SparqlDereferencer(){
         super(LoggerFactory.getLogger(SparqlDereferencer.class));
     }
@@ -55,6 +78,20 @@ public class SparqlDereferencer extends AbstractEntityDereferencer {
     @Reference
     private Parser parser;
 
+    @Activate
+    @Override
+    protected void activate(ComponentContext context) {
+        super.activate(context);
+        httpClient = LinkedDataHttpClient.acquire();
+    }
+
+    @Deactivate
+    @Override
+    protected void deactivate(ComponentContext context) {
+        httpClient = null;
+        LinkedDataHttpClient.release();
+        super.deactivate(context);
+    }
 
     /*
      * TODO: Supports only Triple serialisations as content types.
@@ -76,7 +113,7 @@ public class SparqlDereferencer extends AbstractEntityDereferencer {
         query.append(" ?p ?o }");
 
         //String format = SupportedFormat.RDF_XML;
-        return SparqlEndpointUtils.sendSparqlRequest(getAccessUri(),query.toString(),contentType);
+        return SparqlEndpointUtils.sendSparqlRequest(httpClient, getAccessUri(),query.toString(),contentType);
     }
 
     public final Representation dereference(String uri) throws IOException {
@@ -94,21 +131,88 @@ public class SparqlDereferencer extends AbstractEntityDereferencer {
             return null;
         }
     }
-
-//    /**
-//     * We need also to check for the endpointURI of the SPARQL service. So override
-//     * the default implementation and check for the additional property!
-//     */
-//    @Activate
-//    @Override
-//    public void activate(ComponentContext context) {
-//        //super config
-//        super.activate(context);
-//        log.info("  init sparql endpoint property");
-//    }
-//    @Deactivate
-//    @Override
-//    protected void deactivate(ComponentContext context) {
-//        super.deactivate(context);
-//    }
+    /**
+     * Dereferences up to {@link #MAX_BATCH_SIZE} entities with a single
+     * SPARQL CONSTRUCT query. The queries for the different batches are
+     * sent concurrently.
+     */
+    @Override
+    public final Map<String,Representation> dereference(Collection<String> uris) throws IOException {
+        if(uris == null){
+            throw new IllegalArgumentException("The parsed collection of URIs MUST NOT be NULL!");
+        }
+        Set<String> entities = new LinkedHashSet<String>();
+        for(String uri : uris){
+            if(uri != null && !uri.isEmpty()){
+                entities.add(uri);
+            }
+        }
+        String format = SupportedFormat.RDF_XML;
+        //send all requests
+        List<List<String>> batches = new ArrayList<List<String>>();
+        List<Future<byte[]>> requests = new ArrayList<Future<byte[]>>();
+        List<String> batch = new ArrayList<String>(MAX_BATCH_SIZE);
+        for(String uri : entities){
+            batch.add(uri);
+            if(batch.size() >= MAX_BATCH_SIZE){
+                batches.add(batch);
+                requests.add(httpClient.execute(SparqlEndpointUtils.createSparqlRequestUri(
+                    getAccessUri(), createConstructQuery(batch), format), format));
+                batch = new ArrayList<String>(MAX_BATCH_SIZE);
+            }
+        }
+        if(!batch.isEmpty()){
+            batches.add(batch);
+            requests.add(httpClient.execute(SparqlEndpointUtils.createSparqlRequestUri(
+                getAccessUri(), createConstructQuery(batch), format), format));
+        }
+        //process the responses
+        Map<String,Representation> representations = new LinkedHashMap<String,Representation>();
+        for(int i = 0; i < requests.size(); i++){
+            byte[] data;
+            try {
+                data = requests.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                InterruptedIOException ie = new InterruptedIOException(
+                    "Interrupted while dereferencing "+batches.get(i));
+                ie.initCause(e);
+                throw ie;
+            } catch (ExecutionException e) {
+                throw new IOException("Unable to dereference "+batches.get(i)
+                    + " from SPARQL endpoint " + getAccessUri(), e.getCause());
+            }
+            MGraph rdfData = new IndexedMGraph(parser.parse(new ByteArrayInputStream(data), 
+                format, new UriRef(getBaseUri())));
+            for(String uri : batches.get(i)){
+                UriRef reference = new UriRef(uri);
+                //only return entities with data
+                if(rdfData.filter(reference, null, null).hasNext()){
+                    representations.put(uri, valueFactory.createRdfRepresentation(reference, rdfData));
+                }
+            }
+        }
+        return representations;
+    }
+    /**
+     * Creates a CONSTRUCT query for the parsed entities. The query uses a
+     * UNION of graph patterns with a bound subject (one per entity) so that
+     * it is also supported by SPARQL 1.0 endpoints.
+     * @param uris the URIs of the entities
+     * @return the query
+     */
+    private String createConstructQuery(List<String> uris){
+        StringBuilder construct = new StringBuilder("CONSTRUCT { ");
+        StringBuilder where = new StringBuilder(" } WHERE { ");
+        for(int i = 0; i < uris.size(); i++){
+            UriRef reference = new UriRef(uris.get(i));
+            construct.append(reference).append(" ?p").append(i).append(" ?o").append(i).append(" . ");
+            if(i > 0){
+                where.append(" UNION ");
+            }
+            where.append("{ ").append(reference).append(" ?p").append(i)
+                .append(" ?o").append(i).append(" }");
+        }
+        return construct.append(where).append(" }").toString();
+    }
 }
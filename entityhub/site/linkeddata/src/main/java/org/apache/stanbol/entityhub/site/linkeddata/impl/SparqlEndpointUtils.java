@@ -18,14 +18,11 @@ package org.apache.stanbol.entityhub.site.linkeddata.impl;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URI;
-import java.net.URLConnection;
 
 import javax.ws.rs.core.UriBuilder;
 
-import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,6 +39,8 @@ public final class SparqlEndpointUtils {
      * Sends an SPARQL Request to the accessUri. Please note that based on the type of the SPARQL query
      * different content are supported by the Site
      * 
+     * @param client
+     *            the client used to send the request
      * @param accessUri
      *            the uri of the SPARQL endpoint
      * @param contentType
@@ -52,39 +51,24 @@ public final class SparqlEndpointUtils {
      * @throws IOException
      * @throws MalformedURLException
      */
-    public static InputStream sendSparqlRequest(String accessUri, String query, String contentType) 
-            throws IOException, MalformedURLException {
+    public static InputStream sendSparqlRequest(LinkedDataHttpClient client, String accessUri, 
+            String query, String contentType) throws IOException, MalformedURLException {
 
 
         log.trace("Sending SPARQL request [accessUri :: {}][query :: {}][contentType :: {}].", 
             new Object[]{accessUri, query,contentType});
 
-        final URI dereferenceUri = UriBuilder.fromUri(accessUri).queryParam("query", "{query}")
+        return client.get(createSparqlRequestUri(accessUri, query, contentType), contentType);
+    }
+    /**
+     * Creates the URI for a SPARQL request
+     * @param accessUri the uri of the SPARQL endpoint
+     * @param query the SPARQL query
+     * @param contentType the contentType of the results
+     * @return the URI
+     */
+    public static URI createSparqlRequestUri(String accessUri, String query, String contentType){
+        return UriBuilder.fromUri(accessUri).queryParam("query", "{query}")
                 .queryParam("format", "{format}").build(query, contentType);
-        final URLConnection con = dereferenceUri.toURL().openConnection();
-        con.addRequestProperty("Accept", contentType);
-        try {
-            return con.getInputStream();
-        } catch (IOException e) {
-            if (con instanceof HttpURLConnection) {
-                // try to create a better Error Message
-                InputStream reason = ((HttpURLConnection) con).getErrorStream();
-                if (reason != null) {
-                    String errorMessage = null;
-                    try {
-                        errorMessage = IOUtils.toString(reason);
-                    } catch (IOException e1) {
-                        // ignore ...
-                    }
-                    IOUtils.closeQuietly(reason);
-                    if (errorMessage != null && !errorMessage.isEmpty()) {
-                        throw new IOException(((HttpURLConnection) con).getRequestMethod()
-                                              + " with Content: \n" + errorMessage, e);
-                    }
-                }
-            }
-            // if still here re-throw the original exception
-            throw e;
-        }
     }
 }
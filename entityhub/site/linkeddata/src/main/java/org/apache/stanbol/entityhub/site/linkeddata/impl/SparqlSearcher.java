@@ -28,7 +28,9 @@ import org.apache.clerezza.rdf.core.UriRef;
 import org.apache.clerezza.rdf.core.serializedform.Parser;
 import org.apache.clerezza.rdf.core.serializedform.SupportedFormat;
 import org.apache.commons.io.IOUtils;
+import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
+import org.apache.felix.scr.annotations.Deactivate;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.stanbol.commons.indexedgraph.IndexedMGraph;
 import org.apache.stanbol.entityhub.core.query.QueryResultListImpl;
@@ -43,6 +45,7 @@ import org.apache.stanbol.entityhub.servicesapi.site.EntitySearcher;
 import org.codehaus.jettison.json.JSONArray;
 import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
+import org.osgi.service.component.ComponentContext;
 import org.slf4j.LoggerFactory;
 
 
@@ -60,13 +63,30 @@ public class SparqlSearcher extends AbstractEntitySearcher implements EntitySear
     @Reference
     private Parser parser;
 
+    private LinkedDataHttpClient httpClient;
+
+    @Activate
+    @Override
+    protected void activate(ComponentContext context) {
+        super.activate(context);
+        httpClient = LinkedDataHttpClient.acquire();
+    }
+
+    @Deactivate
+    @Override
+    protected void deactivate(ComponentContext context) {
+        httpClient = null;
+        LinkedDataHttpClient.release();
+        super.deactivate(context);
+    }
+
     protected static final String DEFAULT_RDF_CONTENT_TYPE = SupportedFormat.RDF_XML;
     protected static final String DEFAULT_SPARQL_RESULT_CONTENT_TYPE = SparqlEndpointUtils.SPARQL_RESULT_JSON;
     @Override
     public final QueryResultList<String> findEntities(FieldQuery parsedQuery)  throws IOException {
         final SparqlFieldQuery query = SparqlFieldQueryFactory.getSparqlFieldQuery(parsedQuery);
         String sparqlQuery = query.toSparqlSelect(false);
-        InputStream in = SparqlEndpointUtils.sendSparqlRequest(getQueryUri(), sparqlQuery, DEFAULT_SPARQL_RESULT_CONTENT_TYPE);
+        InputStream in = SparqlEndpointUtils.sendSparqlRequest(httpClient, getQueryUri(), sparqlQuery, DEFAULT_SPARQL_RESULT_CONTENT_TYPE);
         //Move to util class!
         final List<String> entities = extractEntitiesFromJsonResult(in,query.getRootVariableName());
         return new QueryResultListImpl<String>(query, entities.iterator(),String.class);
@@ -122,7 +142,7 @@ public class SparqlSearcher extends AbstractEntitySearcher implements EntitySear
         long initEnd = System.currentTimeMillis();
         log.debug("  > InitTime: "+(initEnd-start));
         log.debug("  > SPARQL query:\n"+sparqlQuery);
-        InputStream in = SparqlEndpointUtils.sendSparqlRequest(getQueryUri(), sparqlQuery, DEFAULT_RDF_CONTENT_TYPE);
+        InputStream in = SparqlEndpointUtils.sendSparqlRequest(httpClient, getQueryUri(), sparqlQuery, DEFAULT_RDF_CONTENT_TYPE);
         long queryEnd = System.currentTimeMillis();
         log.debug("  > QueryTime: "+(queryEnd-initEnd));
         if(in != null){
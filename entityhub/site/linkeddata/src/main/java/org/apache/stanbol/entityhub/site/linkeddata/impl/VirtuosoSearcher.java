@@ -27,7 +27,9 @@ import org.apache.clerezza.rdf.core.MGraph;
 import org.apache.clerezza.rdf.core.TripleCollection;
 import org.apache.clerezza.rdf.core.UriRef;
 import org.apache.clerezza.rdf.core.serializedform.Parser;
+import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
+import org.apache.felix.scr.annotations.Deactivate;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.stanbol.commons.indexedgraph.IndexedMGraph;
 import org.apache.stanbol.entityhub.core.query.QueryResultListImpl;
@@ -40,6 +42,7 @@ import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
 import org.apache.stanbol.entityhub.servicesapi.query.QueryResultList;
 import org.apache.stanbol.entityhub.servicesapi.site.EntitySearcher;
+import org.osgi.service.component.ComponentContext;
 import org.slf4j.LoggerFactory;
 
 @Component(name = "org.apache.stanbol.entityhub.searcher.VirtuosoSearcher", 
@@ -49,6 +52,23 @@ public class VirtuosoSearcher extends AbstractEntitySearcher implements EntitySe
     @Reference
     private Parser parser;
 
+    private LinkedDataHttpClient httpClient;
+
+    @Activate
+    @Override
+    protected void activate(ComponentContext context) {
+        super.activate(context);
+        httpClient = LinkedDataHttpClient.acquire();
+    }
+
+    @Deactivate
+    @Override
+    protected void deactivate(ComponentContext context) {
+        httpClient = null;
+        LinkedDataHttpClient.release();
+        super.deactivate(context);
+    }
+
     public VirtuosoSearcher() {
         super(LoggerFactory.getLogger(VirtuosoSearcher.class));
     }
@@ -62,7 +82,7 @@ public class VirtuosoSearcher extends AbstractEntitySearcher implements EntitySe
         long initEnd = System.currentTimeMillis();
         log.info("  > InitTime: " + (initEnd - start));
         log.info("  > SPARQL query:\n" + sparqlQuery);
-        InputStream in = SparqlEndpointUtils.sendSparqlRequest(getQueryUri(), sparqlQuery,
+        InputStream in = SparqlEndpointUtils.sendSparqlRequest(httpClient, getQueryUri(), sparqlQuery,
             SparqlSearcher.DEFAULT_RDF_CONTENT_TYPE);
         long queryEnd = System.currentTimeMillis();
         log.info("  > QueryTime: " + (queryEnd - initEnd));
@@ -89,7 +109,7 @@ public class VirtuosoSearcher extends AbstractEntitySearcher implements EntitySe
         query.setSparqlEndpointType(SparqlEndpointTypeEnum.Virtuoso);
         String sparqlQuery = query.toSparqlSelect(false);
         log.trace("Sending Sparql request [{}].", sparqlQuery);
-        InputStream in = sendSparqlRequest(getQueryUri(), sparqlQuery,
+        InputStream in = sendSparqlRequest(httpClient, getQueryUri(), sparqlQuery,
             SparqlSearcher.DEFAULT_SPARQL_RESULT_CONTENT_TYPE);
         // Move to util class!
         final List<String> entities = extractEntitiesFromJsonResult(in, query.getRootVariableName());
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.site.linkeddata.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.client.HttpResponseException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests the {@link LinkedDataHttpClient} against a local stub HTTP server
+ */
+public class LinkedDataHttpClientTest {
+
+    private HttpServer server;
+    private String baseUri;
+    private LinkedDataHttpClient client;
+    /**
+     * The number of requests received by the stub server
+     */
+    private final AtomicInteger requests = new AtomicInteger();
+    /**
+     * Used to block responses of the "/slow" resource
+     */
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/entity", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                requests.incrementAndGet();
+                //echo the accept header
+                respond(exchange, 200, exchange.getRequestHeaders().getFirst("Accept"));
+            }
+        });
+        server.createContext("/slow", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                requests.incrementAndGet();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                respond(exchange, 200, "slow");
+            }
+        });
+        server.createContext("/error", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                requests.incrementAndGet();
+                respond(exchange, 500, "Syntax error in query");
+            }
+        });
+        server.start();
+        baseUri = "http://localhost:" + server.getAddress().getPort();
+        client = new LinkedDataHttpClient(4, 4, 1000, 10000);
+    }
+
+    @After
+    public void stopServer(){
+        release.countDown();
+        client.shutdown();
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String content) throws IOException {
+        byte[] data = content == null ? new byte[0] : content.getBytes("UTF-8");
+        exchange.sendResponseHeaders(status, data.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(data);
+        out.close();
+    }
+
+    @Test
+    public void testGet() throws IOException {
+        String data = IOUtils.toString(client.get(URI.create(baseUri + "/entity"),
+            "application/rdf+xml"), "UTF-8");
+        Assert.assertEquals("application/rdf+xml", data);
+        //connections are reused for subsequent requests
+        data = IOUtils.toString(client.get(URI.create(baseUri + "/entity"),
+            "text/turtle"), "UTF-8");
+        Assert.assertEquals("text/turtle", data);
+        Assert.assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void testCoalescing() throws Exception {
+        URI uri = URI.create(baseUri + "/slow");
+        List<Future<byte[]>> futures = new ArrayList<Future<byte[]>>();
+        for(int i = 0; i < 5; i++){
+            futures.add(client.execute(uri, "text/plain"));
+        }
+        //a request with a different content type is not coalesced
+        Future<byte[]> other = client.execute(uri, "text/turtle");
+        release.countDown();
+        for(Future<byte[]> future : futures){
+            Assert.assertSame(futures.get(0), future);
+            Assert.assertEquals("slow", new String(future.get(10, TimeUnit.SECONDS), "UTF-8"));
+        }
+        Assert.assertNotSame(futures.get(0), other);
+        Assert.assertEquals("slow", new String(other.get(10, TimeUnit.SECONDS), "UTF-8"));
+        Assert.assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void testErrorStatus() throws IOException {
+        try {
+            client.get(URI.create(baseUri + "/error"), "text/plain");
+            Assert.fail("HttpResponseException expected");
+        } catch (HttpResponseException e) {
+            Assert.assertEquals(500, e.getStatusCode());
+            Assert.assertTrue(e.getMessage().contains("Syntax error in query"));
+        }
+    }
+}
@@ -21,6 +21,7 @@ import static org.apache.stanbol.entityhub.core.utils.SiteUtils.extractSiteMetad
 import java.io.InputStream;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.stanbol.commons.namespaceprefix.NamespacePrefixService;
 import org.apache.stanbol.entityhub.core.mapping.DefaultFieldMapperImpl;
@@ -40,6 +41,7 @@ import org.apache.stanbol.entityhub.servicesapi.model.rdf.RdfResourceEnum;
 import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
 import org.apache.stanbol.entityhub.servicesapi.query.FieldQueryFactory;
 import org.apache.stanbol.entityhub.servicesapi.query.QueryResultList;
+import org.apache.stanbol.entityhub.servicesapi.query.QueryResultStream;
 import org.apache.stanbol.entityhub.servicesapi.site.ManagedSite;
 import org.apache.stanbol.entityhub.servicesapi.site.ManagedSiteException;
 import org.apache.stanbol.entityhub.servicesapi.site.Site;
@@ -116,6 +118,15 @@ public final class YardSite implements ManagedSite {
         }
     }
 
+    @Override
+    public QueryResultStream<Representation> stream(FieldQuery query, int pageSize) throws ManagedSiteException {
+        try {
+            return getYard().stream(query, pageSize);
+        } catch (YardException e) {
+            throw new ManagedSiteException(e.getMessage(), e);
+        }
+    }
+
     @Override
     public QueryResultList<Entity> findEntities(FieldQuery query) throws ManagedSiteException {
         QueryResultList<Representation> results;
@@ -154,6 +165,16 @@ public final class YardSite implements ManagedSite {
             return null;
         }
     }
+
+    @Override
+    public Map<String,Representation> getRepresentations(Iterable<String> ids, Set<String> fields) 
+            throws ManagedSiteException {
+        try {
+            return getYard().getRepresentations(ids, fields);
+        } catch (YardException e) {
+            throw new ManagedSiteException(e.getMessage(), e);
+        }
+    }
     
     /**
      * Stores the parsed representation to the Yard and also applies the
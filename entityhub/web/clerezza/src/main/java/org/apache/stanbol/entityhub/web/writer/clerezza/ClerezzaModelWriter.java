@@ -1,5 +1,6 @@
 package org.apache.stanbol.entityhub.web.writer.clerezza;
 
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.Charset;
@@ -27,6 +28,7 @@ import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
 import org.apache.stanbol.commons.indexedgraph.IndexedMGraph;
 import org.apache.stanbol.commons.namespaceprefix.NamespacePrefixService;
+import org.apache.stanbol.entityhub.core.query.QueryResultListImpl;
 import org.apache.stanbol.entityhub.model.clerezza.RdfRepresentation;
 import org.apache.stanbol.entityhub.model.clerezza.RdfValueFactory;
 import org.apache.stanbol.entityhub.query.clerezza.RdfQueryResultList;
@@ -36,6 +38,7 @@ import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.apache.stanbol.entityhub.servicesapi.model.rdf.RdfResourceEnum;
 import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
 import org.apache.stanbol.entityhub.servicesapi.query.QueryResultList;
+import org.apache.stanbol.entityhub.servicesapi.query.QueryResultStream;
 import org.apache.stanbol.entityhub.web.ModelWriter;
 import org.apache.stanbol.entityhub.web.fieldquery.FieldQueryToJsonUtils;
 import org.codehaus.jettison.json.JSONException;
@@ -80,6 +83,17 @@ public class ClerezzaModelWriter implements ModelWriter {
      */
     public static final List<MediaType> SUPPORTED_RDF_TYPES = Collections.unmodifiableList(
         Arrays.asList(TURTLE_TYPE, JSONLD_TYPE, N3_TYPE, N_TRIPLE_TYPE, RDF_JSON_TYPE, RDF_XML_TYPE, X_TURTLE_TYPE));
+    /**
+     * Read-only list of the RDF formats that allow to concatenate serialised
+     * graphs. {@link QueryResultStream}s are serialised in chunks for those.
+     */
+    public static final List<MediaType> STREAMABLE_RDF_TYPES = Collections.unmodifiableList(
+        Arrays.asList(TURTLE_TYPE, N3_TYPE, N_TRIPLE_TYPE, X_TURTLE_TYPE));
+    /**
+     * The number of results of a {@link QueryResultStream} serialised at once
+     * for {@link #STREAMABLE_RDF_TYPES}.
+     */
+    public static final int STREAM_CHUNK_SIZE = 100;
 
     //some Concepts and Relations we use to represent Entities
     private final static UriRef FOAF_DOCUMENT = new UriRef(NamespaceEnum.foaf+"Document");
@@ -161,14 +175,108 @@ public class ClerezzaModelWriter implements ModelWriter {
         MGraph queryRdf = toRDF(result);
         //we need also to the JSON formatted FieldQuery as a literal to the
         //RDF data.
-        FieldQuery query = result.getQuery();
+        addFieldQueryTo(queryRdf, result.getQuery());
+        //now serialise the data
+        writeRdf(queryRdf,out,mediaType);
+    }
+
+    /**
+     * The Clerezza {@link Serializer} requires the whole {@link TripleCollection}.
+     * For formats where the concatenation of serialised graphs is again a
+     * valid serialisation (see {@link #STREAMABLE_RDF_TYPES}) results are
+     * therefore serialised in chunks of {@link #STREAM_CHUNK_SIZE} results.
+     * For all other formats (RDF/XML and the JSON based ones) all results of
+     * the parsed stream are collected before serialising them. Use a writer
+     * that supports streaming (e.g. the Sesame or JSON one) for big result
+     * sets in such formats.
+     */
+    @Override
+    public void write(QueryResultStream<?> result, OutputStream out, MediaType mediaType) throws WebApplicationException,
+            IOException {
+        if(!isStreamable(mediaType)){
+            write(toResultList(result), out, mediaType);
+            return;
+        }
+        Class<?> type = result.getType();
+        if(!String.class.isAssignableFrom(type) && !Representation.class.isAssignableFrom(type)
+                && !Entity.class.isAssignableFrom(type)){
+            throw new IllegalArgumentException("Parsed type " + type + " is not supported");
+        }
+        //the serializer is called for every chunk. Make sure that it does not
+        //close the parsed stream
+        OutputStream chunkOut = new FilterOutputStream(out){
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+        MGraph chunk = new IndexedMGraph();
+        addFieldQueryTo(chunk, result.getQuery());
+        int count = 0;
+        while(result.hasNext()){
+            addResultTo(chunk, result.next());
+            count++;
+            if(count%STREAM_CHUNK_SIZE == 0){
+                writeRdf(chunk, chunkOut, mediaType);
+                chunk = new IndexedMGraph();
+            }
+        }
+        if(!chunk.isEmpty() || count == 0){
+            writeRdf(chunk, chunkOut, mediaType);
+        }
+        chunkOut.flush();
+    }
+    /**
+     * Checks if the concatenation of serialised graphs is a valid document
+     * for the parsed media type.
+     * @param mediaType the media type
+     * @return <code>true</code> if results can be serialised in chunks
+     */
+    private static boolean isStreamable(MediaType mediaType){
+        for(MediaType streamable : STREAMABLE_RDF_TYPES){
+            if(streamable.isCompatible(mediaType)){
+                return true;
+            }
+        }
+        return false;
+    }
+    /**
+     * Adds the RDF data of a single result of a {@link QueryResultStream}
+     * as well as the triple linking it with the result list to the parsed
+     * graph.
+     * @param graph the graph
+     * @param result the result (a String, {@link Representation} or {@link Entity})
+     */
+    private void addResultTo(MGraph graph, Object result){
+        UriRef resultId;
+        if(result instanceof Representation){
+            addRDFTo(graph, (Representation)result);
+            resultId = new UriRef(((Representation)result).getId());
+        } else if(result instanceof Entity){
+            addRDFTo(graph, (Entity)result);
+            resultId = new UriRef(((Entity)result).getId());
+        } else {
+            resultId = new UriRef(result.toString());
+        }
+        graph.add(new TripleImpl(QUERY_RESULT_LIST, QUERY_RESULT, resultId));
+    }
+    /**
+     * Adds the JSON serialised FieldQuery (STANBOL-298) to the parsed graph
+     * @param graph the graph
+     * @param query the query or <code>null</code>
+     */
+    private void addFieldQueryTo(MGraph graph, FieldQuery query){
         if(query != null){
             try {
                 JSONObject fieldQueryJson = FieldQueryToJsonUtils.toJSON(query,
                     nsPrefixService);
                 if(fieldQueryJson != null){
                     //add the triple with the fieldQuery
-                    queryRdf.add(new TripleImpl(QUERY_RESULT_LIST, FIELD_QUERY, 
+                    graph.add(new TripleImpl(QUERY_RESULT_LIST, FIELD_QUERY, 
                         literalFactory.createTypedLiteral(fieldQueryJson.toString())));
                 }
             } catch (JSONException e) {
@@ -177,8 +285,10 @@ public class ClerezzaModelWriter implements ModelWriter {
                     query),e);
             }
         }
-        //now serialise the data
-        writeRdf(queryRdf,out,mediaType);
+    }
+
+    private <T> QueryResultList<T> toResultList(QueryResultStream<T> stream){
+        return new QueryResultListImpl<T>(stream.getQuery(), stream, stream.getType());
     }
     
     /**
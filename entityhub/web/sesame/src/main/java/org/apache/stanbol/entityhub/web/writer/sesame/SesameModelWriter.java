@@ -27,6 +27,7 @@ import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.apache.stanbol.entityhub.servicesapi.model.rdf.RdfResourceEnum;
 import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
 import org.apache.stanbol.entityhub.servicesapi.query.QueryResultList;
+import org.apache.stanbol.entityhub.servicesapi.query.QueryResultStream;
 import org.apache.stanbol.entityhub.web.ModelWriter;
 import org.apache.stanbol.entityhub.web.fieldquery.FieldQueryToJsonUtils;
 import org.apache.stanbol.entityhub.yard.sesame.SesameQueryResultList;
@@ -34,12 +35,14 @@ import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
 import org.openrdf.model.Literal;
 import org.openrdf.model.Model;
+import org.openrdf.model.Statement;
 import org.openrdf.model.URI;
 import org.openrdf.model.ValueFactory;
 import org.openrdf.model.impl.LinkedHashModel;
 import org.openrdf.model.impl.ValueFactoryImpl;
 import org.openrdf.rio.RDFFormat;
 import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.RDFWriter;
 import org.openrdf.rio.Rio;
 import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
@@ -168,11 +171,70 @@ public class SesameModelWriter implements ModelWriter {
     }
 
     /**
-     * @param data
-     * @param out
+     * Writes the results while iterating over the parsed stream. Triples of
+     * a result are directly forwarded to the {@link RDFWriter} so that only
+     * the {@link Model} of the current result is kept in memory.
+     */
+    @Override
+    public void write(QueryResultStream<?> result, OutputStream out, MediaType mediaType) throws WebApplicationException,
+            IOException {
+        RDFFormat rdfFormat = getRdfFormat(mediaType);
+        Class<?> type = result.getType();
+        if(!String.class.isAssignableFrom(type) && !Representation.class.isAssignableFrom(type)
+                && !Entity.class.isAssignableFrom(type)){
+            throw new IllegalArgumentException("Parsed type " + type + " is not supported");
+        }
+        RDFWriter writer = Rio.createWriter(rdfFormat, out);
+        try {
+            writer.startRDF();
+            FieldQuery query = result.getQuery();
+            if(query != null){
+                try {
+                    JSONObject fieldQueryJson = FieldQueryToJsonUtils.toJSON(query,
+                        nsPrefixService);
+                    if(fieldQueryJson != null){
+                        writer.handleStatement(sesameFactory.createStatement(
+                            QUERY_RESULT_LIST, FIELD_QUERY, 
+                            sesameFactory.createLiteral(fieldQueryJson.toString())));
+                    }
+                } catch (JSONException e) {
+                    log.warn(String.format("Unable to serialize Fieldquery '%s' to JSON! "
+                        + "Query response will not contain the serialized query.",
+                        query),e);
+                }
+            }
+            while(result.hasNext()){
+                Object next = result.next();
+                final URI resultId;
+                if(next instanceof Entity){
+                    Entity entity = (Entity)next;
+                    for(Statement stmt : toRDF(entity)){
+                        writer.handleStatement(stmt);
+                    }
+                    resultId = sesameFactory.createURI(entity.getId());
+                } else if(next instanceof Representation){
+                    for(Statement stmt : toRDF((Representation)next)){
+                        writer.handleStatement(stmt);
+                    }
+                    resultId = sesameFactory.createURI(((Representation)next).getId());
+                } else {
+                    resultId = sesameFactory.createURI(next.toString());
+                }
+                writer.handleStatement(sesameFactory.createStatement(
+                    QUERY_RESULT_LIST, QUERY_RESULT, resultId));
+            }
+            writer.endRDF();
+        } catch (RDFHandlerException e) {
+            throw new WebApplicationException("Unable to serialize QueryResultStream with requested Format '" +
+                    rdfFormat +"'!", e);
+        }
+    }
+
+    /**
      * @param mediaType
+     * @return the {@link RDFFormat} for the parsed media type
      */
-    private void writeRdf(Model data, OutputStream out, MediaType mediaType) {
+    private RDFFormat getRdfFormat(MediaType mediaType) {
         RDFFormat rdfFormat = Rio.getWriterFormatForMIMEType(mediaType.toString());
         if(rdfFormat == null){
             throw new IllegalStateException("JAX-RS called for unsupported mediaType '"
@@ -180,6 +242,16 @@ public class SesameModelWriter implements ModelWriter {
                 + "Sesame Serializer implementation. Otherwise please report this "
                 + "as a bug for the Stanbol Issue Tracker.");
         }
+        return rdfFormat;
+    }
+
+    /**
+     * @param data
+     * @param out
+     * @param mediaType
+     */
+    private void writeRdf(Model data, OutputStream out, MediaType mediaType) {
+        RDFFormat rdfFormat = getRdfFormat(mediaType);
         try {
             Rio.write(data, out, rdfFormat);
         } catch (RDFHandlerException e) {
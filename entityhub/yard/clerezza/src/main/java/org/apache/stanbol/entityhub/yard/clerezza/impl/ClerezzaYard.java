@@ -21,6 +21,8 @@ import java.util.Dictionary;
 import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
 
@@ -241,6 +243,33 @@ public class ClerezzaYard extends AbstractYard implements Yard {
         }
         return getRepresentation(new UriRef(id),true);
     }
+    /**
+     * Creates all Representations while holding a single read lock on the
+     * graph. The parsed fields are ignored.
+     */
+    @Override
+    public Map<String,Representation> getRepresentations(Iterable<String> ids, Set<String> fields) {
+        if(ids == null){
+            throw new IllegalArgumentException("The parsed representation ids MUST NOT be NULL!");
+        }
+        Map<String,Representation> representations = new LinkedHashMap<String,Representation>();
+        final Lock readLock = readLockGraph();
+        try {
+            for(String id : ids){
+                if(id != null && !id.isEmpty() && !representations.containsKey(id)){
+                    Representation rep = getRepresentation(new UriRef(id), true);
+                    if(rep != null){
+                        representations.put(id, rep);
+                    }
+                }
+            }
+        } finally {
+            if(readLock != null){
+                readLock.unlock();
+            }
+        }
+        return representations;
+    }
     /**
      * Internally used to create Representations for URIs
      * @param uri the uri
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -267,6 +268,41 @@ public class SesameYard extends AbstractYard implements Yard {
             }
         }
     }
+    /**
+     * Creates all Representations by using a single {@link RepositoryConnection}
+     * and transaction. The parsed fields are ignored.
+     */
+    @Override
+    public Map<String,Representation> getRepresentations(Iterable<String> ids, Set<String> fields) 
+            throws YardException {
+        if(ids == null){
+            throw new IllegalArgumentException("The parsed representation ids MUST NOT be NULL!");
+        }
+        Map<String,Representation> representations = new LinkedHashMap<String,Representation>();
+        RepositoryConnection con = null;
+        try {
+            con = repository.getConnection();
+            con.begin();
+            for(String id : ids){
+                if(id != null && !id.isEmpty() && !representations.containsKey(id)){
+                    Representation rep = getRepresentation(con, sesameFactory.createURI(id), true);
+                    if(rep != null){
+                        representations.put(id, rep);
+                    }
+                }
+            }
+            con.commit();
+            return representations;
+        } catch (RepositoryException e) {
+            throw new YardException("Unable to get Representations", e);
+        } finally {
+            if(con != null){
+                try {
+                    con.close();
+                } catch (RepositoryException ignore) {}
+            }
+        }
+    }
     /**
      * Internally used to create Representations for URIs
      * @param uri the uri
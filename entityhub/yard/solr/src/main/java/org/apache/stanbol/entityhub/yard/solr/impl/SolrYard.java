@@ -23,13 +23,18 @@ import java.security.PrivilegedExceptionAction;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.solr.client.solrj.SolrQuery;
 import org.apache.solr.client.solrj.SolrRequest.METHOD;
@@ -44,8 +49,10 @@ import org.apache.solr.common.SolrInputField;
 import org.apache.stanbol.commons.namespaceprefix.NamespacePrefixService;
 import org.apache.stanbol.commons.solr.utils.SolrUtil;
 import org.apache.stanbol.commons.solr.utils.StreamQueryRequest;
+import org.apache.stanbol.entityhub.core.model.InMemoryRepresentation;
 import org.apache.stanbol.entityhub.core.model.InMemoryValueFactory;
 import org.apache.stanbol.entityhub.core.query.DefaultQueryFactory;
+import org.apache.stanbol.entityhub.core.query.PagingQueryResultStream;
 import org.apache.stanbol.entityhub.core.query.QueryResultListImpl;
 import org.apache.stanbol.entityhub.core.yard.AbstractYard;
 import org.apache.stanbol.entityhub.servicesapi.model.Representation;
@@ -53,16 +60,20 @@ import org.apache.stanbol.entityhub.servicesapi.model.rdf.RdfResourceEnum;
 import org.apache.stanbol.entityhub.servicesapi.query.Constraint;
 import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
 import org.apache.stanbol.entityhub.servicesapi.query.QueryResultList;
+import org.apache.stanbol.entityhub.servicesapi.query.QueryResultStream;
+import org.apache.stanbol.entityhub.servicesapi.query.SimilarityConstraint;
 import org.apache.stanbol.entityhub.servicesapi.util.AdaptingIterator;
 import org.apache.stanbol.entityhub.servicesapi.yard.Yard;
 import org.apache.stanbol.entityhub.servicesapi.yard.YardException;
 import org.apache.stanbol.entityhub.yard.solr.defaults.IndexDataTypeEnum;
 import org.apache.stanbol.entityhub.yard.solr.impl.SolrQueryFactory.SELECT;
 import org.apache.stanbol.entityhub.yard.solr.model.FieldMapper;
+import org.apache.stanbol.entityhub.yard.solr.model.IndexDataType;
 import org.apache.stanbol.entityhub.yard.solr.model.IndexField;
 import org.apache.stanbol.entityhub.yard.solr.model.IndexValue;
 import org.apache.stanbol.entityhub.yard.solr.model.IndexValueFactory;
 import org.apache.stanbol.entityhub.yard.solr.model.NoConverterException;
+import org.apache.stanbol.entityhub.yard.solr.model.TypeConverter;
 import org.apache.stanbol.entityhub.yard.solr.query.IndexConstraintTypeEnum;
 import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
@@ -151,6 +162,23 @@ public class SolrYard extends AbstractYard implements Yard {
      * boost for the Document if present.
      */
     private final Map<String,Float> fieldBoostMap;
+    /**
+     * The maximum number of cached {@link FieldReader}s. If exceeded the cache is cleared.
+     */
+    private static final int MAX_FIELD_READERS = 4096;
+    /**
+     * Caches the {@link FieldReader}s for the field names of {@link SolrDocument}s. This ensures that the
+     * {@link IndexField}, language, data type and {@link TypeConverter} are only resolved once per field
+     * name and not for every value of every document (see {@link #createRepresentation(SolrDocument, Set)}).
+     * Field names that do not represent a field of a {@link Representation} are mapped to
+     * {@link FieldReader#IGNORED}.
+     */
+    private final ConcurrentMap<String,FieldReader> fieldReaders = new ConcurrentHashMap<String,FieldReader>();
+    /**
+     * If <code>false</code> the {@link FieldReader}s are created for every field of every
+     * {@link SolrDocument}. Only used to compare the performance with and without the cache.
+     */
+    private volatile boolean fieldReaderCache = true;
 
     /**
      * If update(..) and store(..) calls should be immediately committed.
@@ -266,6 +294,35 @@ public class SolrYard extends AbstractYard implements Yard {
 
         final SolrQuery query = solrQueryFactoy.parseFieldQuery(fieldQuery, select);
         long queryGeneration = System.currentTimeMillis();
+        QueryResponse response = executeQuery(query);
+        long queryTime = System.currentTimeMillis();
+        // return a queryResultList
+        QueryResultListImpl<Representation> resultList = new QueryResultListImpl<Representation>(fieldQuery,
+        // by adapting SolrDocuments to Representations
+                new AdaptingIterator<SolrDocument,Representation>(response.getResults().iterator(),
+                // inline Adapter Implementation
+                        new AdaptingIterator.Adapter<SolrDocument,Representation>() {
+                            @Override
+                            public Representation adapt(SolrDocument doc, Class<Representation> type) {
+                                // use this method for the conversion!
+                                return createRepresentation(doc, selected);
+                            }
+                        }, Representation.class), Representation.class);
+        long resultProcessing = System.currentTimeMillis();
+        log.debug(String.format(
+            "  ... done [queryGeneration=%dms|queryTime=%dms|resultProcessing=%dms|sum=%dms]",
+            (queryGeneration - start), (queryTime - queryGeneration), (resultProcessing - queryTime),
+            (resultProcessing - start)));
+        return resultList;
+    }
+
+    /**
+     * Executes the parsed {@link SolrQuery} by using a {@link StreamQueryRequest}
+     * @param query the query
+     * @return the response
+     * @throws YardException on any error while executing the query
+     */
+    private QueryResponse executeQuery(final SolrQuery query) throws YardException {
         if(closed){
             log.warn("The SolrYard '{}' was already closed!",config.getName());
         }
@@ -295,25 +352,73 @@ public class SolrYard extends AbstractYard implements Yard {
         if(query.getRequestHandler() == SolrQueryFactory.MLT_QUERY_TYPE){
             log.debug("{}",response);
         }
-        long queryTime = System.currentTimeMillis();
-        // return a queryResultList
-        QueryResultListImpl<Representation> resultList = new QueryResultListImpl<Representation>(fieldQuery,
-        // by adapting SolrDocuments to Representations
-                new AdaptingIterator<SolrDocument,Representation>(response.getResults().iterator(),
-                // inline Adapter Implementation
-                        new AdaptingIterator.Adapter<SolrDocument,Representation>() {
-                            @Override
-                            public Representation adapt(SolrDocument doc, Class<Representation> type) {
-                                // use this method for the conversion!
-                                return createRepresentation(doc, selected);
-                            }
-                        }, Representation.class), Representation.class);
-        long resultProcessing = System.currentTimeMillis();
-        log.debug(String.format(
-            "  ... done [queryGeneration=%dms|queryTime=%dms|resultProcessing=%dms|sum=%dms]",
-            (queryGeneration - start), (queryTime - queryGeneration), (resultProcessing - queryTime),
-            (resultProcessing - start)));
-        return resultList;
+        return response;
+    }
+
+    /**
+     * Streams results by using the id of the last result of the previous page
+     * as exclusive lower bound for the next page. For that results are sorted
+     * by the id. In contrast to requests with big offsets (deep paging) this
+     * ensures that the time needed to load a page does not increase with the
+     * number of already consumed results.<p>
+     * Queries with a {@link SimilarityConstraint} are processed by the
+     * MoreLikeThis handler. Such results need to be sorted by similarity and
+     * are therefore streamed by using the offset and limit (see
+     * {@link AbstractYard#stream(FieldQuery, int)}).
+     */
+    @Override
+    public final QueryResultStream<Representation> stream(FieldQuery parsedQuery, int pageSize) 
+            throws YardException {
+        if (parsedQuery == null) {
+            throw new IllegalArgumentException("The parsed FieldQuery MUST NOT be NULL!");
+        }
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("The parsed page size MUST BE > 0 (parsed: "
+                + pageSize + ")!");
+        }
+        int rows = Math.min(pageSize, SolrQueryFactory.MAX_QUERY_RESULTS);
+        FieldQuery fieldQuery = parsedQuery.clone();
+        fieldQuery.setLimit(rows);
+        fieldQuery.setOffset(0);
+        final SolrQuery query = solrQueryFactoy.parseFieldQuery(fieldQuery, SELECT.QUERY);
+        if (SolrQueryFactory.MLT_QUERY_TYPE.equals(query.getRequestHandler())) {
+            return super.stream(parsedQuery, pageSize);
+        }
+        //the stream uses the limit and offset of the parsed query
+        fieldQuery.setLimit(parsedQuery.getLimit());
+        fieldQuery.setOffset(parsedQuery.getOffset());
+        final Set<String> selected = new HashSet<String>(fieldQuery.getSelectedFields());
+        selected.add(RdfResourceEnum.resultScore.getUri());
+        final String idField = fieldMapper.getDocumentIdField();
+        query.addSort(idField, SolrQuery.ORDER.asc);
+        return new PagingQueryResultStream<Representation>(fieldQuery, Representation.class, rows) {
+            /**
+             * The filter query used as lower bound for the current page
+             */
+            private String lowerBound;
+
+            @Override
+            protected Collection<? extends Representation> fetch(int offset, int limit, Representation last) {
+                if (last == null) { //first page
+                    query.setStart(offset);
+                } else {
+                    query.setStart(0);
+                    if (lowerBound != null) {
+                        query.removeFilterQuery(lowerBound);
+                    }
+                    lowerBound = String.format("%s:{\"%s\" TO *]", idField, 
+                        last.getId().replace("\\", "\\\\").replace("\"", "\\\""));
+                    query.addFilterQuery(lowerBound);
+                }
+                query.setRows(limit);
+                QueryResponse response = executeQuery(query);
+                List<Representation> results = new ArrayList<Representation>(response.getResults().size());
+                for (SolrDocument doc : response.getResults()) {
+                    results.add(createRepresentation(doc, selected));
+                }
+                return results;
+            }
+        };
     }
 
     @Override
@@ -398,8 +503,66 @@ public class SolrYard extends AbstractYard implements Yard {
         return rep;
     }
 
+    /**
+     * Retrieves the SolrDocuments of all parsed ids with a single query (or
+     * multiple if there are more ids than allowed boolean clauses)
+     */
+    @Override
+    public final Map<String,Representation> getRepresentations(Iterable<String> ids, Set<String> fields) 
+            throws YardException {
+        if (ids == null) {
+            throw new IllegalArgumentException("The parsed Representation ids MUST NOT be NULL!");
+        }
+        Set<String> uris = new LinkedHashSet<String>();
+        for(String id : ids){
+            if(id != null && !id.isEmpty()){
+                uris.add(id);
+            }
+        }
+        if(uris.isEmpty()){
+            return Collections.emptyMap();
+        }
+        if(closed){
+            log.warn("The SolrYard '{}' was already closed!",config.getName());
+        }
+        long start = System.currentTimeMillis();
+        Collection<SolrDocument> docs;
+        try {
+            docs = getSolrDocuments(uris, null);
+        } catch (SolrServerException e) {
+            throw new YardException("Error while getting SolrDocuments for "+uris.size()+" ids", e);
+        } catch (IOException e) {
+            throw new YardException("Unable to access SolrServer", e);
+        }
+        long retrieve = System.currentTimeMillis();
+        Map<String,Representation> found = new HashMap<String,Representation>();
+        if(docs != null){
+            Set<String> selected = fields == null || fields.isEmpty() ? null : fields;
+            for(SolrDocument doc : docs){
+                Representation rep = createRepresentation(doc, selected);
+                found.put(rep.getId(), rep);
+            }
+        }
+        //return the representations in the order of the parsed ids
+        Map<String,Representation> representations = new LinkedHashMap<String,Representation>(found.size()*2);
+        for(String uri : uris){
+            Representation rep = found.get(uri);
+            if(rep != null){
+                representations.put(uri, rep);
+            }
+        }
+        long create = System.currentTimeMillis();
+        log.debug(String.format("  ... found %d/%d [retrieve=%dms|create=%dms|sum=%dms]", 
+            representations.size(), uris.size(), (retrieve - start), (create - retrieve), 
+            (create - start)));
+        return representations;
+    }
+
     /**
      * Creates the Representation for the parsed SolrDocument!
+     * <p>
+     * The values of fields that are not selected are not converted. The converted values are directly
+     * collected in the map used by the created {@link Representation}.
      * 
      * @param doc
      *            The Solr Document to convert
@@ -420,41 +583,102 @@ public class SolrYard extends AbstractYard implements Yard {
                 "The parsed Solr Document does not contain a value for the %s Field!",
                 fieldMapper.getDocumentIdField()));
         }
-        Representation rep = getValueFactory().createRepresentation(id.toString());
+        Map<String,Object> data = new HashMap<String,Object>();
         for (String fieldName : doc.getFieldNames()) {
-            IndexField indexField = fieldMapper.getField(fieldName);
-            if (indexField != null && indexField.getPath().size() == 1) {
-                String lang = indexField.getLanguages().isEmpty() ? null : indexField.getLanguages()
-                        .iterator().next();
-                if (fields == null || fields.contains(indexField.getPath().get(0))) {
-                    for (Object value : doc.getFieldValues(fieldName)) {
-                        if (value != null) {
-                            IndexDataTypeEnum dataTypeEnumEntry = IndexDataTypeEnum.forIndexType(indexField
-                                    .getDataType());
-                            if (dataTypeEnumEntry != null) {
-                                Object javaValue = indexValueFactory.createValue(
-                                    dataTypeEnumEntry.getJavaType(), indexField.getDataType(), value, lang);
-                                if (javaValue != null) {
-                                    rep.add(indexField.getPath().iterator().next(), javaValue);
-                                } else {
-                                    log.warn(String.format("java value=null for index value %s", value));
-                                }
-                            } else {
-                                log.warn(String.format(
-                                    "No DataType Configuration found for Index Data Type %s!",
-                                    indexField.getDataType()));
-                            }
-                        } // else index value == null -> ignore
-                    } // end for all values
-                }
-            } else {
-                if (indexField != null) {
-                    log.warn(String.format("Unable to prozess Index Field %s (for IndexDocument Field: %s)",
-                        indexField, fieldName));
-                }
-            }
+            FieldReader reader = getFieldReader(fieldName);
+            if (reader != FieldReader.IGNORED && (fields == null || fields.contains(reader.field))) {
+                for (Object value : doc.getFieldValues(fieldName)) {
+                    if (value != null) {
+                        Object javaValue = reader.converter.createObject(reader.dataType, value, 
+                            reader.language);
+                        if (javaValue != null) {
+                            addValue(data, reader.field, javaValue);
+                        } else {
+                            log.warn(String.format("java value=null for index value %s", value));
+                        }
+                    } // else index value == null -> ignore
+                } // end for all values
+            } // else ignored or not selected field
         } // end for all fields
-        return rep;
+        return new SolrRepresentation(id.toString(), data);
+    }
+    /**
+     * Adds a value to the data of a {@link SolrRepresentation}. Uses the same
+     * structure as the {@link InMemoryRepresentation} (the value for single
+     * values and a {@link HashSet} for multiple values).
+     * @param data the data
+     * @param field the field
+     * @param value the value
+     */
+    @SuppressWarnings("unchecked")
+    private static void addValue(Map<String,Object> data, String field, Object value) {
+        Object current = data.get(field);
+        if (current == null) {
+            data.put(field, value);
+        } else if (current instanceof Collection<?>) {
+            ((Collection<Object>) current).add(value);
+        } else if (!current.equals(value)) {
+            Collection<Object> values = new HashSet<Object>();
+            values.add(current);
+            values.add(value);
+            data.put(field, values);
+        }
+    }
+    /**
+     * Getter for the {@link FieldReader} of the parsed field name of a {@link SolrDocument}
+     * @param fieldName the field name
+     * @return the reader or {@link FieldReader#IGNORED} if the values of the field are not
+     * part of the {@link Representation}
+     * @throws NoConverterException if no {@link TypeConverter} is registered for the 
+     * data type of the field
+     */
+    private FieldReader getFieldReader(String fieldName) {
+        if (!fieldReaderCache) {
+            return createFieldReader(fieldName);
+        }
+        FieldReader reader = fieldReaders.get(fieldName);
+        if (reader == null) {
+            reader = createFieldReader(fieldName);
+            if (fieldReaders.size() >= MAX_FIELD_READERS) {
+                fieldReaders.clear();
+            }
+            fieldReaders.put(fieldName, reader);
+        }
+        return reader;
+    }
+
+    /**
+     * Enables/disables the cache for the {@link FieldReader}s. Only intended to be used by benchmarks.
+     * @param state the state
+     */
+    final void setFieldReaderCache(boolean state) {
+        fieldReaderCache = state;
+        fieldReaders.clear();
+    }
+
+    private FieldReader createFieldReader(String fieldName) {
+        IndexField indexField = fieldMapper.getField(fieldName);
+        if (indexField == null) {
+            return FieldReader.IGNORED;
+        }
+        if (indexField.getPath().size() != 1) {
+            log.warn(String.format("Unable to prozess Index Field %s (for IndexDocument Field: %s)",
+                indexField, fieldName));
+            return FieldReader.IGNORED;
+        }
+        IndexDataTypeEnum dataTypeEnumEntry = IndexDataTypeEnum.forIndexType(indexField.getDataType());
+        if (dataTypeEnumEntry == null) {
+            log.warn(String.format("No DataType Configuration found for Index Data Type %s!",
+                indexField.getDataType()));
+            return FieldReader.IGNORED;
+        }
+        TypeConverter<?> converter = indexValueFactory.getConverter(dataTypeEnumEntry.getJavaType());
+        if (converter == null) {
+            throw new NoConverterException(dataTypeEnumEntry.getJavaType());
+        }
+        String lang = indexField.getLanguages().isEmpty() ? null : 
+            indexField.getLanguages().iterator().next();
+        return new FieldReader(indexField.getPath().get(0), lang, indexField.getDataType(), converter);
     }
 
     @Override
@@ -1025,7 +1249,7 @@ public class SolrYard extends AbstractYard implements Yard {
                     num++;
                 }
             }
-            log.info("Get SolrDocuments for Query: " + queryBuilder.toString());
+            log.debug("Get SolrDocuments for Query: {}", queryBuilder);
             // no more items or all boolean clauses used -> send a request
             solrQuery.setQuery(queryBuilder.toString());
             queryBuilder = new StringBuilder(); // and a new StringBuilder
@@ -1194,4 +1418,38 @@ public class SolrYard extends AbstractYard implements Yard {
      * @deprecated use {@link SolrYardConfig#DEFAULT_COMMIT_WITHIN_DURATION} instead
      */
     public static final int DEFAULT_COMMIT_WITHIN_DURATION = SolrYardConfig.DEFAULT_COMMIT_WITHIN_DURATION;
+    /**
+     * Holds the information needed to read the values of a field of a {@link SolrDocument}: The field of
+     * the {@link Representation}, the language and data type of the values and the {@link TypeConverter}
+     * used to convert the values.
+     */
+    private static final class FieldReader {
+        /**
+         * Used for fields of {@link SolrDocument}s that are not represented in the {@link Representation}
+         */
+        static final FieldReader IGNORED = new FieldReader(null, null, null, null);
+
+        final String field;
+        final String language;
+        final IndexDataType dataType;
+        final TypeConverter<?> converter;
+
+        FieldReader(String field, String language, IndexDataType dataType, TypeConverter<?> converter) {
+            this.field = field;
+            this.language = language;
+            this.dataType = dataType;
+            this.converter = converter;
+        }
+    }
+    /**
+     * {@link InMemoryRepresentation} initialised with the values read from a {@link SolrDocument}. The map
+     * with the values is directly used by the Representation. This avoids the overhead of
+     * {@link Representation#add(String, Object)} (type checks and a temporary collection for every value).
+     */
+    private static final class SolrRepresentation extends InMemoryRepresentation {
+
+        SolrRepresentation(String id, Map<String,Object> data) {
+            super(id, data);
+        }
+    }
 }
@@ -28,6 +28,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.stanbol.entityhub.core.model.InMemoryValueFactory;
 import org.apache.stanbol.entityhub.servicesapi.model.Reference;
@@ -87,9 +88,10 @@ public class IndexValueFactory {
      * NOTE: this implementation distinguishes between classed and interfaces, because for Classes a simple
      * get lookup in the Map can be used while for Interfaces we need to Iterate over the entries of the Map
      * and check with {@link Class#isAssignableFrom(Class)}.
+     * <p>
+     * A {@link ConcurrentHashMap} is used because this map is accessed for every value read from the index.
      */
-    private Map<Class<?>,TypeConverter<?>> javaClassConverters = Collections
-            .synchronizedMap(new HashMap<Class<?>,TypeConverter<?>>());
+    private final Map<Class<?>,TypeConverter<?>> javaClassConverters = new ConcurrentHashMap<Class<?>,TypeConverter<?>>();
     /**
      * Holds the java interface to {@link TypeConverter} mappings for all converters registered for a Java
      * Interface
@@ -231,7 +233,6 @@ public class IndexValueFactory {
      * @throws IllegalArgumentException
      *             if any of the two parameter is <code>null</code>
      */
-    @SuppressWarnings("unchecked")
     public <T> T createValue(Class<T> javaType, IndexDataType indexType, Object indexValue, String language) throws NoConverterException,
                                                                                                             UnsupportedIndexTypeException,
                                                                                                             IllegalArgumentException {
@@ -241,9 +242,7 @@ public class IndexValueFactory {
         if (indexValue == null) {
             throw new IllegalArgumentException("Parameter IndexValue MUST NOT be NULL");
         }
-        // search interface converter map if the parsed type is an interface
-        TypeConverter<T> converter = (TypeConverter<T>) (javaType.isInterface() ? javaInterfaceConverters
-                .get(javaType) : javaClassConverters.get(javaType));
+        TypeConverter<T> converter = getConverter(javaType);
         if (converter != null) {
             return converter.createObject(indexType, indexValue, language);
         } else {
@@ -251,6 +250,27 @@ public class IndexValueFactory {
         }
     }
 
+    /**
+     * Getter for the converter registered for the parsed java type. This allows components that convert a
+     * lot of values of the same type (e.g. all values of a field) to lookup the converter only once.
+     * 
+     * @param <T>
+     * @param javaType
+     *            the java type
+     * @return the converter or <code>null</code> if none is registered for the parsed type
+     * @throws IllegalArgumentException
+     *             if the parsed type is <code>null</code>
+     */
+    @SuppressWarnings("unchecked")
+    public <T> TypeConverter<T> getConverter(Class<T> javaType) throws IllegalArgumentException {
+        if (javaType == null) {
+            throw new IllegalArgumentException("Parameter Class<T> type MUST NOT be NULL");
+        }
+        // search interface converter map if the parsed type is an interface
+        return (TypeConverter<T>) (javaType.isInterface() ? javaInterfaceConverters.get(javaType)
+                : javaClassConverters.get(javaType));
+    }
+
     // TODO: add support for IndexTypeConverter
     // /**
     // * Converts a IndexValue instance to an java object. The type of the java
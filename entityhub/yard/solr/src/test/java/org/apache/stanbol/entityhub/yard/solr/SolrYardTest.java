@@ -23,8 +23,10 @@ import static org.junit.Assert.assertNull;
 import java.io.File;
 import java.io.IOError;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.ServiceLoader;
 
 import org.apache.solr.client.solrj.SolrServer;
@@ -41,6 +43,7 @@ import org.apache.stanbol.entityhub.servicesapi.model.Representation;
 import org.apache.stanbol.entityhub.servicesapi.model.Text;
 import org.apache.stanbol.entityhub.servicesapi.query.FieldQuery;
 import org.apache.stanbol.entityhub.servicesapi.query.QueryResultList;
+import org.apache.stanbol.entityhub.servicesapi.query.QueryResultStream;
 import org.apache.stanbol.entityhub.servicesapi.query.SimilarityConstraint;
 import org.apache.stanbol.entityhub.servicesapi.query.TextConstraint;
 import org.apache.stanbol.entityhub.servicesapi.yard.Yard;
@@ -267,6 +270,52 @@ public class SolrYardTest extends YardTest {
         assertEquals("urn:yard.test.testFieldQueryWithSimilarityConstraint:representation.id2", first.getId());
     }
 
+    /**
+     * Tests that {@link SolrYard#stream(FieldQuery, int)} returns all results
+     * sorted by id if the results are loaded page by page by using the id of
+     * the last result as lower bound of the next page.
+     */
+    @Test
+    public void testStream() throws YardException {
+        Yard yard = getYard();
+        String field = "urn:the.field:used.for.testStream";
+        List<Representation> representations = new ArrayList<Representation>();
+        //create the representations in reverse order of their ids
+        for(int i = 9; i >= 0; i--){
+            Representation rep = create("urn:yard.test.testStream:representation.id"+i, true);
+            rep.add(field, "Some text content of entity "+i);
+            representations.add(rep);
+        }
+        yard.update(representations);
+        FieldQuery query = yard.getQueryFactory().createFieldQuery();
+        query.setConstraint(field, new TextConstraint(Arrays.asList("text content")));
+        query.addSelectedField(field);
+        //use a page size that does not divide the number of results
+        QueryResultStream<Representation> stream = yard.stream(query, 3);
+        List<String> ids = new ArrayList<String>();
+        while(stream.hasNext()){
+            Representation result = stream.next();
+            assertNotNull(result.getFirst(field));
+            ids.add(result.getId());
+        }
+        assertEquals(10, ids.size());
+        for(int i = 0; i < ids.size(); i++){
+            assertEquals("urn:yard.test.testStream:representation.id"+i, ids.get(i));
+        }
+        Assert.assertFalse(stream.hasNext());
+        //the offset and limit of the query are used for the stream
+        query.setOffset(2);
+        query.setLimit(5);
+        stream = yard.stream(query, 2);
+        ids.clear();
+        while(stream.hasNext()){
+            ids.add(stream.next().getId());
+        }
+        assertEquals(5, ids.size());
+        assertEquals("urn:yard.test.testStream:representation.id2", ids.get(0));
+        assertEquals("urn:yard.test.testStream:representation.id6", ids.get(4));
+    }
+
     /**
      * This Method removes all Representations create via {@link #create()} or
      * {@link #create(String, boolean)} from the tested {@link Yard}. It also removes all Representations
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.entityhub.yard.solr.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.solr.client.solrj.SolrServer;
+import org.apache.stanbol.commons.solr.IndexReference;
+import org.apache.stanbol.commons.solr.managed.ManagedSolrServer;
+import org.apache.stanbol.commons.solr.managed.standalone.StandaloneEmbeddedSolrServerProvider;
+import org.apache.stanbol.entityhub.servicesapi.defaults.NamespaceEnum;
+import org.apache.stanbol.entityhub.servicesapi.model.Representation;
+import org.apache.stanbol.entityhub.servicesapi.yard.YardException;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the materialisation of {@link Representation}s by
+ * {@link SolrYard#getRepresentations(Iterable, Set)} with and without the cache
+ * for the FieldReaders used by {@link SolrYard#createRepresentation(
+ * org.apache.solr.common.SolrDocument, Set)}. Only executed with the
+ * <code>benchmark</code> profile (<code>mvn test -P benchmark</code>).
+ */
+public class SolrYardBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(SolrYardBenchmark.class);
+
+    private static final int NUM_ENTITIES = 5000;
+    private static final int BATCH_SIZE = 100;
+    private static final int ROUNDS = 5;
+
+    private static final String LABEL = NamespaceEnum.rdfs + "label";
+    private static final String COMMENT = NamespaceEnum.rdfs + "comment";
+    private static final String TYPE = NamespaceEnum.rdf + "type";
+    private static final String POPULATION = "http://www.example.org/population";
+    private static final String AREA = "http://www.example.org/area";
+    private static final String FOUNDED = "http://www.example.org/founded";
+
+    private static SolrYard yard;
+    private static List<String> ids;
+
+    @BeforeClass
+    public static void initYard() throws YardException, IOException {
+        String prefix = System.getProperty("basedir") == null ? "." : "${basedir}";
+        String solrServerDir = prefix + File.separatorChar + "target" + File.separatorChar
+                + ManagedSolrServer.DEFAULT_SOLR_DATA_DIR;
+        SolrYardConfig config = new SolrYardConfig("benchmarkYard", "benchmark");
+        config.setName("Solr Yard Benchmark");
+        config.setAllowInitialisation(true);
+        config.setImmediateCommit(true);
+        System.setProperty(ManagedSolrServer.MANAGED_SOLR_DIR_PROPERTY, solrServerDir);
+        SolrServer server = StandaloneEmbeddedSolrServerProvider.getInstance().getSolrServer(
+            IndexReference.parse(config.getSolrServerLocation()),
+            config.getIndexConfigurationName());
+        yard = new SolrYard(server, config, null);
+        ids = new ArrayList<String>(NUM_ENTITIES);
+        List<Representation> reps = new ArrayList<Representation>(NUM_ENTITIES);
+        for (int i = 0; i < NUM_ENTITIES; i++) {
+            String id = "http://www.example.org/entity" + i;
+            Representation rep = yard.getValueFactory().createRepresentation(id);
+            rep.addNaturalText(LABEL, "Entity " + i, "en");
+            rep.addNaturalText(LABEL, "Entitaet " + i, "de");
+            rep.addNaturalText(LABEL, "Entite " + i, "fr");
+            rep.addNaturalText(COMMENT, "The comment of the entity with the number " + i, "en");
+            rep.addReference(TYPE, "http://www.example.org/Place");
+            rep.addReference(TYPE, "http://www.example.org/Type" + (i % 10));
+            rep.add(POPULATION, Integer.valueOf(i * 100));
+            rep.add(AREA, Double.valueOf(i / 3d));
+            rep.add(FOUNDED, new Date(i * 86400000L));
+            reps.add(rep);
+            ids.add(id);
+        }
+        yard.store(reps);
+    }
+
+    @AfterClass
+    public static void cleanup() throws YardException {
+        if (yard != null) {
+            yard.remove(ids);
+            yard.close();
+        }
+    }
+
+    @Test
+    public void benchmarkGetRepresentations() throws YardException {
+        log.info("Materialise {} Representations in batches of {} ({} rounds)",
+            new Object[] {NUM_ENTITIES, BATCH_SIZE, ROUNDS});
+        getRepresentations(true, null); //warm up
+        long uncached = getRepresentations(false, null);
+        long cached = getRepresentations(true, null);
+        Assert.assertEquals(uncached, cached);
+        Set<String> selected = Collections.singleton(LABEL);
+        uncached = getRepresentations(false, selected);
+        cached = getRepresentations(true, selected);
+        Assert.assertEquals(uncached, cached);
+    }
+
+    /**
+     * Gets all Representations in batches
+     * @return the number of values of the materialised Representations
+     */
+    private long getRepresentations(boolean fieldReaderCache, Set<String> fields) throws YardException {
+        yard.setFieldReaderCache(fieldReaderCache);
+        long values = 0;
+        long start = System.currentTimeMillis();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < ids.size(); i += BATCH_SIZE) {
+                Map<String,Representation> reps = yard.getRepresentations(
+                    ids.subList(i, Math.min(i + BATCH_SIZE, ids.size())), fields);
+                for (Representation rep : reps.values()) {
+                    values += countValues(rep);
+                }
+            }
+        }
+        long duration = Math.max(1, System.currentTimeMillis() - start);
+        log.info("  ... {} FieldReader cache, fields {}: {}ms ({} Representations/sec)",
+            new Object[] {fieldReaderCache ? "with" : "without", fields == null ? "all" : fields,
+                    duration, ROUNDS * NUM_ENTITIES * 1000L / duration});
+        return values;
+    }
+
+    private static int countValues(Representation rep) {
+        int count = 0;
+        for (Iterator<String> fields = rep.getFieldNames(); fields.hasNext();) {
+            for (Iterator<Object> values = rep.get(fields.next()); values.hasNext(); values.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
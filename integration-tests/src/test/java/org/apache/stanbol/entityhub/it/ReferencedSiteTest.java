@@ -24,11 +24,16 @@ import static org.apache.stanbol.entityhub.test.it.AssertEntityhubJson.assertEnt
 import static org.apache.stanbol.entityhub.test.it.AssertEntityhubJson.assertRepresentation;
 
 import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.apache.stanbol.commons.testing.http.RequestExecutor;
 import org.apache.stanbol.entityhub.it.query.DbpediaQueryTest;
+import org.apache.stanbol.entityhub.servicesapi.model.rdf.RdfResourceEnum;
+import org.codehaus.jettison.json.JSONArray;
 import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
+import org.junit.Assert;
 import org.junit.Test;
 
 /**
@@ -42,6 +47,26 @@ import org.junit.Test;
  */
 public final class ReferencedSiteTest extends DbpediaQueryTest {
 
+    /**
+     * Cities with more than 3 million inhabitants
+     */
+    private static final String CITY_QUERY = "{ "+
+        "'selected': ["+
+            "'http:\\/\\/www.w3.org\\/2000\\/01\\/rdf-schema#label'],"+
+        "'limit': '7',"+
+        "'constraints': [{ "+
+            "'type': 'range', "+
+            "'field': 'http:\\/\\/dbpedia.org\\/ontology\\/populationTotal', "+
+            "'lowerBound': 3000000,"+
+            "'inclusive': true,"+
+            "'datatype': 'xsd:long'"+
+        "},{ "+
+            "'type': 'reference', "+
+            "'field': 'http:\\/\\/www.w3.org\\/1999\\/02\\/22-rdf-syntax-ns#type', "+
+            "'value': 'http:\\/\\/dbpedia.org\\/ontology\\/City', "+
+        "}]"+
+     "}";
+
     /**
      * Executes the {@link DbpediaQueryTest} on the 'dbpedia' referenced
      * site (assuming the default dataset
@@ -53,6 +78,53 @@ public final class ReferencedSiteTest extends DbpediaQueryTest {
     protected String getDefaultFindQueryField() {
         return RDFS_LABEL;
     }
+    /**
+     * Tests the export of all results of a FieldQuery. A page size lower
+     * than the limit ensures that results are loaded page by page.
+     * @throws IOException
+     * @throws JSONException
+     */
+    @Test
+    public void testExport() throws IOException, JSONException {
+        RequestExecutor re = executor.execute(
+            builder.buildPostRequest(DBPEDIA_SITE_PATH+"/export?pageSize=2")
+            .withHeader("Accept", "application/json")
+            .withHeader("Content-Type", "application/json")
+            .withContent(CITY_QUERY));
+        re.assertStatus(200);
+        JSONObject jResult = new JSONObject(re.getContent());
+        Assert.assertTrue(jResult.has("query"));
+        JSONArray jResults = jResult.getJSONArray("results");
+        Assert.assertEquals(7, jResults.length());
+        Set<String> ids = new HashSet<String>();
+        for(int i = 0; i < jResults.length(); i++){
+            JSONObject jRepresentation = jResults.getJSONObject(i);
+            Assert.assertTrue(jRepresentation.has(RDFS_LABEL));
+            Assert.assertTrue("duplicate result "+jRepresentation.getString("id"),
+                ids.add(jRepresentation.getString("id")));
+        }
+    }
+    /**
+     * Tests the export by using a RDF format that is written in chunks.
+     * @throws IOException
+     */
+    @Test
+    public void testExportNTriples() throws IOException {
+        RequestExecutor re = executor.execute(
+            builder.buildPostRequest(DBPEDIA_SITE_PATH+"/export?pageSize=2")
+            .withHeader("Accept", "text/rdf+nt")
+            .withHeader("Content-Type", "application/json")
+            .withContent(CITY_QUERY));
+        re.assertStatus(200);
+        int results = 0;
+        for(String line : re.getContent().split("\n")){
+            if(line.contains("<"+RdfResourceEnum.queryResult.getUri()+">")){
+                results++;
+            }
+        }
+        Assert.assertEquals(7, results);
+    }
+
     /**
      * Tests retrieval of Entities
      * @throws IOException
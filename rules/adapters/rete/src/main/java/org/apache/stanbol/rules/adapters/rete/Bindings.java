@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.rules.adapters.rete;
+
+import java.util.Map;
+
+import org.apache.clerezza.rdf.core.Resource;
+
+/**
+ * The variable bindings of a (partial) match of the body of a rule. Values are stored in an array indexed
+ * by the slots the {@link RuleNetwork} assigned to the variables of the rule when it was compiled.
+ */
+public final class Bindings {
+
+    private final Map<String,Integer> slots;
+    final Resource[] values;
+
+    Bindings(Map<String,Integer> slots) {
+        this.slots = slots;
+        this.values = new Resource[slots.size()];
+    }
+
+    /**
+     * Getter for the value of a term
+     *
+     * @param term
+     *            the term
+     * @return the constant value of the term, the value bound to the variable or <code>null</code> if the
+     *         variable is not bound.
+     */
+    public Resource get(Term term) {
+        if (!term.isVariable()) {
+            return term.getConstant();
+        }
+        Integer slot = slots.get(term.getVariable());
+        return slot == null ? null : values[slot];
+    }
+
+    /**
+     * @param variable
+     *            the name of the variable
+     * @return if a value is bound to the parsed variable
+     */
+    public boolean isBound(String variable) {
+        Integer slot = slots.get(variable);
+        return slot != null && values[slot] != null;
+    }
+
+}
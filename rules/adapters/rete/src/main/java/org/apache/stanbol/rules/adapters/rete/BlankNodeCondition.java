@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.rules.adapters.rete;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.apache.clerezza.rdf.core.BNode;
+
+/**
+ * Checks if a term is a {@link BNode}. Used for the <code>isBlank</code> atom.
+ */
+public class BlankNodeCondition implements Condition {
+
+    private final Term term;
+    private final Set<String> variables;
+
+    public BlankNodeCondition(Term term) {
+        if (term == null) {
+            throw new IllegalArgumentException("The parsed Term MUST NOT be NULL!");
+        }
+        this.term = term;
+        this.variables = term.isVariable() ? Collections.singleton(term.getVariable()) : Collections
+                .<String> emptySet();
+    }
+
+    @Override
+    public Set<String> getVariables() {
+        return variables;
+    }
+
+    @Override
+    public boolean evaluate(Bindings bindings) {
+        return bindings.get(term) instanceof BNode;
+    }
+
+    @Override
+    public String toString() {
+        return "isBlank(" + term + ")";
+    }
+}
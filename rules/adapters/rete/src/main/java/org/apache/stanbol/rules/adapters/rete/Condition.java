@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.rules.adapters.rete;
+
+import java.util.Set;
+
+/**
+ * A condition (filter) in the body of a rule. The {@link RuleNetwork} evaluates a condition as soon as all
+ * its {@link #getVariables() variables} are bound by the triple patterns matched so far.
+ */
+public interface Condition {
+
+    /**
+     * @return the names of the variables used by this condition
+     */
+    Set<String> getVariables();
+
+    /**
+     * Evaluates this condition against the parsed bindings. Variables that are not bound are represented by
+     * <code>null</code> values. Conditions MUST evaluate to <code>false</code> in that case.
+     *
+     * @param bindings
+     *            the bindings of the current match
+     * @return the result of the evaluation
+     */
+    boolean evaluate(Bindings bindings);
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.rules.adapters.rete;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.clerezza.rdf.core.Resource;
+
+/**
+ * Checks two terms for (in)equality. Used for the <code>same</code> and <code>different</code> atoms.
+ */
+public class EqualityCondition implements Condition {
+
+    private final Term term1;
+    private final Term term2;
+    private final boolean equal;
+    private final Set<String> variables;
+
+    /**
+     * @param term1
+     *            the first term
+     * @param term2
+     *            the second term
+     * @param equal
+     *            <code>true</code> to check for equality, <code>false</code> to check for inequality
+     */
+    public EqualityCondition(Term term1, Term term2, boolean equal) {
+        if (term1 == null || term2 == null) {
+            throw new IllegalArgumentException("The parsed Terms MUST NOT be NULL!");
+        }
+        this.term1 = term1;
+        this.term2 = term2;
+        this.equal = equal;
+        Set<String> variables = new HashSet<String>();
+        if (term1.isVariable()) {
+            variables.add(term1.getVariable());
+        }
+        if (term2.isVariable()) {
+            variables.add(term2.getVariable());
+        }
+        this.variables = Collections.unmodifiableSet(variables);
+    }
+
+    @Override
+    public Set<String> getVariables() {
+        return variables;
+    }
+
+    @Override
+    public boolean evaluate(Bindings bindings) {
+        Resource value1 = bindings.get(term1);
+        Resource value2 = bindings.get(term2);
+        if (value1 == null || value2 == null) {
+            return false;
+        }
+        return value1.equals(value2) == equal;
+    }
+
+    @Override
+    public String toString() {
+        return (equal ? "same(" : "different(") + term1 + ", " + term2 + ")";
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.rules.adapters.rete;
+
+import java.util.Set;
+
+/**
+ * Negates an other {@link Condition}. Used for the <code>not</code> atom.<br/>
+ * As for the negated condition, the result is <code>false</code> if any of the variables is not bound.
+ */
+public class NegatedCondition implements Condition {
+
+    private final Condition condition;
+
+    public NegatedCondition(Condition condition) {
+        if (condition == null) {
+            throw new IllegalArgumentException("The parsed Condition MUST NOT be NULL!");
+        }
+        this.condition = condition;
+    }
+
+    @Override
+    public Set<String> getVariables() {
+        return condition.getVariables();
+    }
+
+    @Override
+    public boolean evaluate(Bindings bindings) {
+        for (String variable : condition.getVariables()) {
+            if (!bindings.isBound(variable)) {
+                return false;
+            }
+        }
+        return !condition.evaluate(bindings);
+    }
+
+    @Override
+    public String toString() {
+        return "not(" + condition + ")";
+    }
+}
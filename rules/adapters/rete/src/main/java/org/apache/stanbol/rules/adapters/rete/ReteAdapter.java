@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.stanbol.rules.adapters.rete;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Dictionary;
+import java.util.List;
+
+import org.apache.felix.scr.annotations.Activate;
+import org.apache.felix.scr.annotations.Component;
+import org.apache.felix.scr.annotations.Deactivate;
+import org.apache.felix.scr.annotations.Reference;
+import org.apache.felix.scr.annotations.Service;
+import org.apache.stanbol.rules.adapters.AbstractRuleAdapter;
+import org.apache.stanbol.rules.adapters.AdaptableAtom;
+import org.apache.stanbol.rules.base.api.Adaptable;
+import org.apache.stanbol.rules.base.api.Recipe;
+import org.apache.stanbol.rules.base.api.Rule;
+import org.apache.stanbol.rules.base.api.RuleAdapter;
+import org.apache.stanbol.rules.base.api.RuleAdaptersFactory;
+import org.apache.stanbol.rules.base.api.RuleAtom;
+import org.apache.stanbol.rules.base.api.RuleAtomCallExeption;
+import org.apache.stanbol.rules.base.api.UnavailableRuleObjectException;
+import org.apache.stanbol.rules.base.api.UnsupportedTypeForExportException;
+import org.osgi.service.component.ComponentContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Rule Adapter for the native forward chaining engine.<br/>
+ * This adapter compiles Stanbol Rules to a {@link RuleNetwork}. All the rules of a recipe are compiled to
+ * a single network, so that rules sharing body patterns also share the matching of those patterns.<br/>
+ * The network can be applied to any Clerezza {@link org.apache.clerezza.rdf.core.TripleCollection} by
+ * calling {@link RuleNetwork#apply(org.apache.clerezza.rdf.core.TripleCollection,
+ * org.apache.clerezza.rdf.core.TripleCollection)}.<br/>
+ * Supported are class, property and value atoms (in the body and the head) as well as the
+ * <code>same</code>, <code>different</code>, <code>isBlank</code> and <code>not</code> atoms (in the body).
+ * For other atoms a {@link RuleAtomCallExeption} is thrown.
+ */
+@Component(immediate = true, metatype = true)
+@Service(RuleAdapter.class)
+public class ReteAdapter extends AbstractRuleAdapter {
+
+    public static final String ARTIFACT = "org.apache.stanbol.rules.adapters.rete.atoms";
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Reference
+    RuleAdaptersFactory ruleAdaptersFactory;
+
+    ComponentContext componentContext;
+
+    /**
+     * For OSGi environments.
+     */
+    public ReteAdapter() {
+
+    }
+
+    /**
+     * For non-OSGi environments.
+     */
+    public ReteAdapter(Dictionary<String,Object> configuration, RuleAdaptersFactory ruleAdaptersFactory) {
+        this.ruleAdaptersFactory = ruleAdaptersFactory;
+
+        try {
+            activate(configuration);
+        } catch (IOException e) {
+            log.error("Failed to load configuration");
+        }
+
+        try {
+            this.ruleAdaptersFactory.addRuleAdapter(this);
+        } catch (UnavailableRuleObjectException e) {
+            log.error("Failed to add the adapter to the registry.", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected <T> T adaptRecipeTo(Recipe recipe, Class<T> type) throws RuleAtomCallExeption,
+                                                               UnsupportedTypeForExportException,
+                                                               UnavailableRuleObjectException {
+        checkType(type);
+        RuleNetwork network = new RuleNetwork();
+        for (Rule rule : recipe.getRuleList()) {
+            addRule(network, rule);
+        }
+        log.debug("compiled {} rules of recipe {} to a network with {} alpha nodes",
+            new Object[] {network.getRuleCount(), recipe.getRecipeID(), network.getAlphaNodeCount()});
+        return (T) network;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected <T> T adaptRuleTo(Rule rule, Class<T> type) throws RuleAtomCallExeption,
+                                                         UnsupportedTypeForExportException,
+                                                         UnavailableRuleObjectException {
+        checkType(type);
+        RuleNetwork network = new RuleNetwork();
+        addRule(network, rule);
+        return (T) network;
+    }
+
+    /**
+     * Adapts the atoms of the rule and adds the rule to the parsed network
+     */
+    private void addRule(RuleNetwork network, Rule rule) throws RuleAtomCallExeption,
+                                                        UnsupportedTypeForExportException,
+                                                        UnavailableRuleObjectException {
+        List<TriplePattern> body = new ArrayList<TriplePattern>();
+        List<Condition> conditions = new ArrayList<Condition>();
+        for (RuleAtom ruleAtom : rule.getBody()) {
+            Object reteObject = adaptAtom(ruleAtom);
+            if (reteObject instanceof TriplePattern) {
+                body.add((TriplePattern) reteObject);
+            } else if (reteObject instanceof Condition) {
+                conditions.add((Condition) reteObject);
+            } else {
+                throw new RuleAtomCallExeption(ruleAtom.getClass());
+            }
+        }
+        List<TriplePattern> head = new ArrayList<TriplePattern>();
+        for (RuleAtom ruleAtom : rule.getHead()) {
+            Object reteObject = adaptAtom(ruleAtom);
+            if (reteObject instanceof TriplePattern) {
+                head.add((TriplePattern) reteObject);
+            } else {
+                throw new RuleAtomCallExeption(ruleAtom.getClass());
+            }
+        }
+        network.addRule(rule.getRuleName(), body, conditions, head);
+    }
+
+    /**
+     * Adapts an atom of the body or head of a rule
+     *
+     * @return the {@link ReteObject#getReteObject() adapted object}
+     */
+    private Object adaptAtom(RuleAtom ruleAtom) throws RuleAtomCallExeption,
+                                               UnsupportedTypeForExportException,
+                                               UnavailableRuleObjectException {
+        // atoms are adapted to ReteObjects and not to the RuleNetwork export type
+        Object adapted = adaptRuleAtomTo(ruleAtom, RuleNetwork.class);
+        return ((ReteObject) adapted).getReteObject();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected <T> T adaptRuleAtomTo(RuleAtom ruleAtom, Class<T> type) throws RuleAtomCallExeption,
+                                                                     UnsupportedTypeForExportException,
+                                                                     UnavailableRuleObjectException {
+        checkType(type);
+
+        String className = ruleAtom.getClass().getSimpleName();
+
+        String canonicalName = ARTIFACT + "." + className;
+
+        Class<AdaptableAtom> reteAtomClass;
+        try {
+            reteAtomClass = (Class<AdaptableAtom>) Class.forName(canonicalName);
+        } catch (ClassNotFoundException e) {
+            log.debug("The atom {} is not supported by the Rete adapter", className);
+            throw new RuleAtomCallExeption(ruleAtom.getClass());
+        }
+        try {
+            AdaptableAtom reteAtom = reteAtomClass.newInstance();
+
+            reteAtom.setRuleAdapter(this);
+
+            return (T) reteAtom.adapt(ruleAtom);
+
+        } catch (InstantiationException e) {
+            log.error(e.getMessage(), e);
+        } catch (IllegalAccessException e) {
+            log.error(e.getMessage(), e);
+        }
+        throw new RuleAtomCallExeption(ruleAtom.getClass());
+    }
+
+    private static void checkType(Class<?> type) throws UnsupportedTypeForExportException {
+        if (type != RuleNetwork.class) {
+            throw new UnsupportedTypeForExportException(
+                    "The Rete adapter does not support the selected serialization : "
+                            + type.getCanonicalName());
+        }
+    }
+
+    /**
+     * Used to configure an instance within an OSGi container.
+     *
+     * @throws IOException
+     */
+    @SuppressWarnings("unchecked")
+    @Activate
+    protected void activate(ComponentContext context) throws IOException {
+
+        log.info("in " + ReteAdapter.class + " activate with context " + context);
+        if (context == null) {
+            throw new IllegalStateException("No valid" + ComponentContext.class + " parsed in activate!");
+        }
+
+        componentContext = context;
+
+        activate((Dictionary<String,Object>) context.getProperties());
+    }
+
+    /**
+     * Should be called within both OSGi and non-OSGi environments.
+     *
+     * @param configuration
+     * @throws IOException
+     */
+    protected void activate(Dictionary<String,Object> configuration) throws IOException {
+
+        log.info("The Rete adapter for Stanbol Rules is active", this);
+    }
+
+    @Deactivate
+    protected void deactivate(ComponentContext context) {
+        log.info("in " + ReteAdapter.class + " deactivate with context " + context);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Class<T> getExportClass() {
+        return (Class<T>) RuleNetwork.class;
+    }
+
+    @Override
+    public <T> boolean canAdaptTo(Adaptable adaptable, Class<T> type) {
+        return type == RuleNetwork.class;
+    }
+
+}
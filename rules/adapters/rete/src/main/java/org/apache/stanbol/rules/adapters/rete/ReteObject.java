@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.rules.adapters.rete;
+
+/**
+ * This object represents either a {@link TriplePattern}, a {@link Condition} or a {@link Term} internally to
+ * the Rete adapter.
+ */
+public class ReteObject {
+
+    private TriplePattern triplePattern;
+    private Condition condition;
+    private Term term;
+
+    public ReteObject(TriplePattern triplePattern) {
+        this.triplePattern = triplePattern;
+    }
+
+    public ReteObject(Condition condition) {
+        this.condition = condition;
+    }
+
+    public ReteObject(Term term) {
+        this.term = term;
+    }
+
+    /**
+     * It returns the actual value.<br/>
+     *
+     * It can be:
+     * <ul>
+     * <li>a {@link TriplePattern}
+     * <li>a {@link Condition}
+     * <li>a {@link Term}
+     * </ul>
+     *
+     * @return the object that can be in turn a {@link TriplePattern}, a {@link Condition} or a {@link Term}
+     */
+    public Object getReteObject() {
+        if (triplePattern != null) {
+            return triplePattern;
+        } else if (condition != null) {
+            return condition;
+        } else {
+            return term;
+        }
+    }
+}
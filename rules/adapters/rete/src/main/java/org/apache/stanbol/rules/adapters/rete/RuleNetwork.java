@@ -0,0 +1,639 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.rules.adapters.rete;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.clerezza.rdf.core.MGraph;
+import org.apache.clerezza.rdf.core.NonLiteral;
+import org.apache.clerezza.rdf.core.Resource;
+import org.apache.clerezza.rdf.core.Triple;
+import org.apache.clerezza.rdf.core.TripleCollection;
+import org.apache.clerezza.rdf.core.UriRef;
+import org.apache.clerezza.rdf.core.impl.TripleImpl;
+import org.apache.stanbol.commons.indexedgraph.IndexedMGraph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A forward chaining rule engine for Clerezza {@link TripleCollection}s.<br/>
+ * <br/>
+ * The triple patterns in the bodies of all rules are compiled into a single network of alpha nodes. Rules
+ * that share a body pattern also share the alpha node of that pattern, so each triple is tested only once
+ * per distinct pattern. Rather than keeping partial matches in beta memories, joins are performed by
+ * lookups on the indexes of the matched graphs, which keeps the memory footprint independent of the number
+ * of partial matches.<br/>
+ * <br/>
+ * {@link #apply(TripleCollection, TripleCollection)} computes the fixpoint by semi-naive evaluation: the
+ * first round matches all rules against the dataset. Every later round only propagates the triples
+ * inferred by the previous round (the delta) through the alpha network and joins them with all known
+ * triples. Consequently the work done scales with the number of matches rather than with the number of
+ * rules times the size of the dataset.<br/>
+ * <br/>
+ * Heads can only use terms bound by the body. Because no new resources are created, the evaluation always
+ * terminates.<br/>
+ * <br/>
+ * Rules MUST be added before the network is used. After that, instances are thread safe and can be used to
+ * refactor several datasets concurrently.
+ */
+public class RuleNetwork {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    /**
+     * The alpha nodes by their key (see {@link #getAlphaKey(TriplePattern)})
+     */
+    private final Map<List<Object>,AlphaNode> alphaNodes = new LinkedHashMap<List<Object>,AlphaNode>();
+    /**
+     * Alpha nodes with a constant predicate indexed by the predicate. Used to dispatch inferred triples.
+     */
+    private final Map<UriRef,List<AlphaNode>> predicateIndex = new HashMap<UriRef,List<AlphaNode>>();
+    /**
+     * Alpha nodes with a variable predicate
+     */
+    private final List<AlphaNode> wildcardAlphaNodes = new ArrayList<AlphaNode>();
+
+    private final List<Production> productions = new ArrayList<Production>();
+
+    /**
+     * Compiles a rule and adds it to the network.
+     *
+     * @param name
+     *            the name of the rule (used for logging)
+     * @param body
+     *            the triple patterns of the body
+     * @param conditions
+     *            the conditions of the body
+     * @param head
+     *            the triple patterns of the head
+     * @throws IllegalArgumentException
+     *             if <code>null</code> is parsed as body, conditions or head or if a constant used in a body
+     *             pattern is not valid for its position in a triple.
+     */
+    public void addRule(String name,
+                        List<TriplePattern> body,
+                        List<Condition> conditions,
+                        List<TriplePattern> head) {
+        if (body == null || conditions == null || head == null) {
+            throw new IllegalArgumentException("The parsed body, conditions and head MUST NOT be NULL!");
+        }
+        Map<String,Integer> slots = new HashMap<String,Integer>();
+        CompiledPattern[] compiledBody = new CompiledPattern[body.size()];
+        for (int i = 0; i < compiledBody.length; i++) {
+            TriplePattern pattern = body.get(i);
+            if (!pattern.getSubject().isVariable()
+                && !(pattern.getSubject().getConstant() instanceof NonLiteral)) {
+                throw new IllegalArgumentException("The subject of the pattern '" + pattern + "' of rule "
+                                                   + name + " MUST BE a variable or a NonLiteral!");
+            }
+            if (!pattern.getPredicate().isVariable()
+                && !(pattern.getPredicate().getConstant() instanceof UriRef)) {
+                throw new IllegalArgumentException("The predicate of the pattern '" + pattern + "' of rule "
+                                                   + name + " MUST BE a variable or an UriRef!");
+            }
+            compiledBody[i] = new CompiledPattern(pattern, slots);
+        }
+        Set<String> bodyVariables = new HashSet<String>(slots.keySet());
+        CompiledPattern[] compiledHead = new CompiledPattern[head.size()];
+        for (int i = 0; i < compiledHead.length; i++) {
+            TriplePattern pattern = head.get(i);
+            for (Term term : Arrays.asList(pattern.getSubject(), pattern.getPredicate(), pattern.getObject())) {
+                if (term.isVariable() && !bodyVariables.contains(term.getVariable())) {
+                    log.warn("Variable {} in the head of rule {} is not bound by the body. "
+                             + "The triple pattern '{}' will never produce any triple.",
+                        new Object[] {term, name, pattern});
+                }
+            }
+            compiledHead[i] = new CompiledPattern(pattern, slots);
+        }
+        for (Condition condition : conditions) {
+            for (String variable : condition.getVariables()) {
+                if (!bodyVariables.contains(variable)) {
+                    log.warn("Variable ?{} of condition {} is not bound by the body of rule {}. "
+                             + "The rule will never fire.", new Object[] {variable, condition, name});
+                    if (!slots.containsKey(variable)) {
+                        slots.put(variable, slots.size());
+                    }
+                }
+            }
+        }
+        Production production = new Production(slots, compiledBody, compiledHead);
+        if (compiledBody.length == 0) {
+            production.plans = new Plan[] {new Plan(new int[0], compiledBody, conditions, slots)};
+        } else {
+            production.plans = new Plan[compiledBody.length];
+            for (int i = 0; i < compiledBody.length; i++) {
+                production.plans[i] = new Plan(getJoinOrder(compiledBody, i), compiledBody, conditions,
+                        slots);
+                compiledBody[i].alpha = getAlphaNode(body.get(i));
+                compiledBody[i].alpha.activations.add(new Activation(production, i));
+            }
+        }
+        productions.add(production);
+    }
+
+    /**
+     * @return the number of rules compiled into this network
+     */
+    public int getRuleCount() {
+        return productions.size();
+    }
+
+    /**
+     * @return the number of distinct body patterns (alpha nodes) of this network
+     */
+    public int getAlphaNodeCount() {
+        return alphaNodes.size();
+    }
+
+    /**
+     * Applies the rules of this network to the parsed dataset until no more triples can be inferred and adds
+     * all triples produced by the heads of the rules to the target.<br/>
+     * The dataset is not modified. Target and dataset MAY be the same collection, as the target is only
+     * modified after the fixpoint was reached.
+     *
+     * @param dataset
+     *            the dataset
+     * @param target
+     *            the collection the produced triples are added to
+     * @return the number of distinct triples produced by the rules. This also includes triples already
+     *         present in the dataset.
+     */
+    public int apply(TripleCollection dataset, TripleCollection target) {
+        if (dataset == null || target == null) {
+            throw new IllegalArgumentException("The parsed dataset and target MUST NOT be NULL!");
+        }
+        long start = System.currentTimeMillis();
+        Evaluation evaluation = new Evaluation(dataset);
+        // round 0: match the whole dataset. Alpha nodes are evaluated only once for all
+        // rules starting with the same pattern
+        for (AlphaNode alpha : alphaNodes.values()) {
+            List<Activation> activations = new ArrayList<Activation>();
+            for (Activation activation : alpha.activations) {
+                if (activation.position == 0) {
+                    activations.add(activation);
+                }
+            }
+            if (!activations.isEmpty()) {
+                Iterator<Triple> matches = dataset.filter(alpha.subject, alpha.predicate, alpha.object);
+                while (matches.hasNext()) {
+                    Triple triple = matches.next();
+                    if (alpha.matches(triple)) {
+                        for (Activation activation : activations) {
+                            evaluation.activate(activation, triple);
+                        }
+                    }
+                }
+            }
+        }
+        for (Production production : productions) {
+            if (production.body.length == 0) {
+                evaluation.join(production, production.plans[0], 0, new Bindings(production.slots));
+            }
+        }
+        Collection<Triple> delta = evaluation.commit();
+        int rounds = 1;
+        // following rounds: only propagate the triples inferred by the previous round
+        while (!delta.isEmpty()) {
+            for (Triple triple : delta) {
+                List<AlphaNode> candidates = predicateIndex.get(triple.getPredicate());
+                if (candidates != null) {
+                    evaluation.activate(candidates, triple);
+                }
+                evaluation.activate(wildcardAlphaNodes, triple);
+            }
+            delta = evaluation.commit();
+            rounds++;
+        }
+        int produced = evaluation.entailed.size() + evaluation.inferred.size();
+        target.addAll(evaluation.entailed);
+        target.addAll(evaluation.inferred);
+        log.debug("applied {} rules in {} rounds ({} triples produced, {}ms)",
+            new Object[] {productions.size(), rounds, produced, System.currentTimeMillis() - start});
+        return produced;
+    }
+
+    /**
+     * Getter for the shared alpha node of a triple pattern. Creates and registers a new node if none
+     * exists.
+     */
+    private AlphaNode getAlphaNode(TriplePattern pattern) {
+        List<Object> key = getAlphaKey(pattern);
+        AlphaNode alpha = alphaNodes.get(key);
+        if (alpha == null) {
+            alpha = new AlphaNode(pattern);
+            alphaNodes.put(key, alpha);
+            if (alpha.predicate == null) {
+                wildcardAlphaNodes.add(alpha);
+            } else {
+                List<AlphaNode> indexed = predicateIndex.get(alpha.predicate);
+                if (indexed == null) {
+                    indexed = new ArrayList<AlphaNode>();
+                    predicateIndex.put(alpha.predicate, indexed);
+                }
+                indexed.add(alpha);
+            }
+        }
+        return alpha;
+    }
+
+    /**
+     * The key of a pattern replaces variables with the index of their first occurrence within the pattern.
+     * This allows to share alpha nodes between rules regardless of the names of the variables.
+     */
+    private static List<Object> getAlphaKey(TriplePattern pattern) {
+        List<Object> key = new ArrayList<Object>(3);
+        List<String> variables = new ArrayList<String>(3);
+        for (Term term : Arrays.asList(pattern.getSubject(), pattern.getPredicate(), pattern.getObject())) {
+            if (term.isVariable()) {
+                int index = variables.indexOf(term.getVariable());
+                if (index < 0) {
+                    index = variables.size();
+                    variables.add(term.getVariable());
+                }
+                key.add(Integer.valueOf(index));
+            } else {
+                key.add(term.getConstant());
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Computes the order in which the patterns of a body are joined if a match of the pattern at the parsed
+     * position is known. The remaining patterns are ordered greedily so that the pattern with the most
+     * constant or already bound positions (and therefore the most selective index lookup) comes first.
+     */
+    private static int[] getJoinOrder(CompiledPattern[] body, int seed) {
+        int[] order = new int[body.length];
+        boolean[] used = new boolean[body.length];
+        Set<Integer> bound = new HashSet<Integer>();
+        order[0] = seed;
+        used[seed] = true;
+        body[seed].addSlots(bound);
+        for (int step = 1; step < order.length; step++) {
+            int best = -1;
+            int bestScore = -1;
+            for (int i = 0; i < body.length; i++) {
+                if (!used[i]) {
+                    int score = body[i].getBoundPositions(bound);
+                    if (score > bestScore) {
+                        best = i;
+                        bestScore = score;
+                    }
+                }
+            }
+            order[step] = best;
+            used[best] = true;
+            body[best].addSlots(bound);
+        }
+        return order;
+    }
+
+    /**
+     * A (shared) node of the alpha network. Matches triples against the constants of a body pattern and
+     * checks that positions sharing a variable have the same value.
+     */
+    private static final class AlphaNode {
+
+        final NonLiteral subject;
+        final UriRef predicate;
+        final Resource object;
+        final boolean subjectIsPredicate;
+        final boolean subjectIsObject;
+        final boolean predicateIsObject;
+        final List<Activation> activations = new ArrayList<Activation>();
+
+        AlphaNode(TriplePattern pattern) {
+            Term s = pattern.getSubject();
+            Term p = pattern.getPredicate();
+            Term o = pattern.getObject();
+            subject = (NonLiteral) s.getConstant();
+            predicate = (UriRef) p.getConstant();
+            object = o.getConstant();
+            subjectIsPredicate = s.isVariable() && s.equals(p);
+            subjectIsObject = s.isVariable() && s.equals(o);
+            predicateIsObject = p.isVariable() && p.equals(o);
+        }
+
+        boolean matches(Triple triple) {
+            return (subject == null || subject.equals(triple.getSubject()))
+                   && (predicate == null || predicate.equals(triple.getPredicate()))
+                   && (object == null || object.equals(triple.getObject()))
+                   && (!subjectIsPredicate || triple.getSubject().equals(triple.getPredicate()))
+                   && (!subjectIsObject || triple.getSubject().equals(triple.getObject()))
+                   && (!predicateIsObject || triple.getPredicate().equals(triple.getObject()));
+        }
+    }
+
+    /**
+     * Links an {@link AlphaNode} with the position of its pattern in the body of a {@link Production}
+     */
+    private static final class Activation {
+
+        final Production production;
+        final int position;
+
+        Activation(Production production, int position) {
+            this.production = production;
+            this.position = position;
+        }
+    }
+
+    /**
+     * A compiled rule
+     */
+    private static final class Production {
+
+        final Map<String,Integer> slots;
+        final CompiledPattern[] body;
+        final CompiledPattern[] head;
+        /**
+         * The join plans by the position of the pattern used as entry point
+         */
+        Plan[] plans;
+
+        Production(Map<String,Integer> slots, CompiledPattern[] body, CompiledPattern[] head) {
+            this.slots = slots;
+            this.body = body;
+            this.head = head;
+        }
+    }
+
+    /**
+     * A triple pattern with the variables replaced by the slots of the {@link Bindings}.
+     */
+    private static final class CompiledPattern {
+
+        /**
+         * The slots of the subject, predicate and object or <code>-1</code> for constants
+         */
+        final int[] slots = new int[3];
+        /**
+         * The constants of the subject, predicate and object or <code>null</code> for variables
+         */
+        final Resource[] constants = new Resource[3];
+        /**
+         * The alpha node (only set for body patterns)
+         */
+        AlphaNode alpha;
+
+        CompiledPattern(TriplePattern pattern, Map<String,Integer> slotMap) {
+            Term[] terms = new Term[] {pattern.getSubject(), pattern.getPredicate(), pattern.getObject()};
+            for (int i = 0; i < terms.length; i++) {
+                if (terms[i].isVariable()) {
+                    Integer slot = slotMap.get(terms[i].getVariable());
+                    if (slot == null) {
+                        slot = slotMap.size();
+                        slotMap.put(terms[i].getVariable(), slot);
+                    }
+                    slots[i] = slot;
+                } else {
+                    slots[i] = -1;
+                    constants[i] = terms[i].getConstant();
+                }
+            }
+        }
+
+        Resource getValue(int position, Bindings bindings) {
+            return slots[position] < 0 ? constants[position] : bindings.values[slots[position]];
+        }
+
+        void addSlots(Set<Integer> bound) {
+            for (int slot : slots) {
+                if (slot >= 0) {
+                    bound.add(slot);
+                }
+            }
+        }
+
+        int getBoundPositions(Set<Integer> bound) {
+            int count = 0;
+            for (int slot : slots) {
+                if (slot < 0 || bound.contains(slot)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * The order in which the patterns of a body are joined and the conditions that can be evaluated after
+     * each step.
+     */
+    private static final class Plan {
+
+        final int[] order;
+        final Condition[][] conditions;
+
+        Plan(int[] order, CompiledPattern[] body, List<Condition> conditions, Map<String,Integer> slots) {
+            this.order = order;
+            int steps = Math.max(order.length, 1);
+            List<List<Condition>> scheduled = new ArrayList<List<Condition>>(steps);
+            for (int i = 0; i < steps; i++) {
+                scheduled.add(new ArrayList<Condition>());
+            }
+            List<Set<Integer>> boundAfterStep = new ArrayList<Set<Integer>>(order.length);
+            Set<Integer> bound = new HashSet<Integer>();
+            for (int step = 0; step < order.length; step++) {
+                body[order[step]].addSlots(bound);
+                boundAfterStep.add(new HashSet<Integer>(bound));
+            }
+            for (Condition condition : conditions) {
+                Set<Integer> required = new HashSet<Integer>();
+                for (String variable : condition.getVariables()) {
+                    required.add(slots.get(variable));
+                }
+                // conditions with variables never bound by the body are evaluated last
+                int step = required.isEmpty() ? 0 : steps - 1;
+                for (int i = 0; i < order.length; i++) {
+                    if (boundAfterStep.get(i).containsAll(required)) {
+                        step = i;
+                        break;
+                    }
+                }
+                scheduled.get(step).add(condition);
+            }
+            this.conditions = new Condition[steps][];
+            for (int i = 0; i < steps; i++) {
+                this.conditions[i] = scheduled.get(i).toArray(new Condition[scheduled.get(i).size()]);
+            }
+        }
+    }
+
+    /**
+     * The state of a single call to {@link RuleNetwork#apply(TripleCollection, TripleCollection)}
+     */
+    private static final class Evaluation {
+
+        final TripleCollection dataset;
+        /**
+         * The collections matched by the joins: the dataset and the inferred triples
+         */
+        final TripleCollection[] sources;
+        /**
+         * Produced triples that are not contained in the dataset. Matched together with the dataset.
+         */
+        final MGraph inferred = new IndexedMGraph();
+        /**
+         * Produced triples that are already contained in the dataset
+         */
+        final Set<Triple> entailed = new HashSet<Triple>();
+        /**
+         * Triples produced during the current round
+         */
+        final Set<Triple> pending = new LinkedHashSet<Triple>();
+
+        Evaluation(TripleCollection dataset) {
+            this.dataset = dataset;
+            this.sources = new TripleCollection[] {dataset, inferred};
+        }
+
+        void activate(List<AlphaNode> candidates, Triple triple) {
+            for (AlphaNode alpha : candidates) {
+                if (alpha.matches(triple)) {
+                    for (Activation activation : alpha.activations) {
+                        activate(activation, triple);
+                    }
+                }
+            }
+        }
+
+        void activate(Activation activation, Triple triple) {
+            Production production = activation.production;
+            Plan plan = production.plans[activation.position];
+            Bindings bindings = new Bindings(production.slots);
+            if (bind(production.body[activation.position], triple, bindings, new int[3]) >= 0
+                && evaluate(plan.conditions[0], bindings)) {
+                join(production, plan, 1, bindings);
+            }
+        }
+
+        void join(Production production, Plan plan, int step, Bindings bindings) {
+            if (step >= plan.order.length) {
+                if (plan.order.length == 0 && !evaluate(plan.conditions[0], bindings)) {
+                    return;
+                }
+                fire(production, bindings);
+                return;
+            }
+            CompiledPattern pattern = production.body[plan.order[step]];
+            Resource s = pattern.getValue(0, bindings);
+            Resource p = pattern.getValue(1, bindings);
+            Resource o = pattern.getValue(2, bindings);
+            if ((s != null && !(s instanceof NonLiteral)) || (p != null && !(p instanceof UriRef))) {
+                return; // a literal bound to the subject or predicate can never match
+            }
+            int[] bound = new int[3];
+            for (TripleCollection tc : sources) {
+                Iterator<Triple> matches = tc.filter((NonLiteral) s, (UriRef) p, o);
+                while (matches.hasNext()) {
+                    int count = bind(pattern, matches.next(), bindings, bound);
+                    if (count >= 0) {
+                        if (evaluate(plan.conditions[step], bindings)) {
+                            join(production, plan, step + 1, bindings);
+                        }
+                        for (int i = 0; i < count; i++) {
+                            bindings.values[bound[i]] = null;
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Binds the values of the triple to the unbound slots of the pattern.
+         *
+         * @return the number of newly bound slots (stored in the parsed array) or <code>-1</code> if the
+         *         triple is not compatible with the current bindings.
+         */
+        private static int bind(CompiledPattern pattern, Triple triple, Bindings bindings, int[] bound) {
+            int count = 0;
+            for (int i = 0; i < 3; i++) {
+                int slot = pattern.slots[i];
+                if (slot >= 0) {
+                    Resource value = i == 0 ? triple.getSubject() : i == 1 ? triple.getPredicate() : triple
+                            .getObject();
+                    Resource current = bindings.values[slot];
+                    if (current == null) {
+                        bindings.values[slot] = value;
+                        bound[count] = slot;
+                        count++;
+                    } else if (!current.equals(value)) {
+                        for (int j = 0; j < count; j++) {
+                            bindings.values[bound[j]] = null;
+                        }
+                        return -1;
+                    }
+                }
+            }
+            return count;
+        }
+
+        private static boolean evaluate(Condition[] conditions, Bindings bindings) {
+            for (Condition condition : conditions) {
+                if (!condition.evaluate(bindings)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void fire(Production production, Bindings bindings) {
+            for (CompiledPattern pattern : production.head) {
+                Resource s = pattern.getValue(0, bindings);
+                Resource p = pattern.getValue(1, bindings);
+                Resource o = pattern.getValue(2, bindings);
+                if (s instanceof NonLiteral && p instanceof UriRef && o != null) {
+                    Triple triple = new TripleImpl((NonLiteral) s, (UriRef) p, o);
+                    if (!entailed.contains(triple) && !inferred.contains(triple)) {
+                        pending.add(triple);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Commits the triples produced by the current round.
+         *
+         * @return the newly inferred triples (the delta for the next round)
+         */
+        Collection<Triple> commit() {
+            List<Triple> delta = new ArrayList<Triple>();
+            for (Triple triple : pending) {
+                if (dataset.contains(triple)) {
+                    entailed.add(triple);
+                } else if (inferred.add(triple)) {
+                    delta.add(triple);
+                }
+            }
+            pending.clear();
+            return delta;
+        }
+    }
+}
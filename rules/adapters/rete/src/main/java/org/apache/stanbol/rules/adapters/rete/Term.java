@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.rules.adapters.rete;
+
+import org.apache.clerezza.rdf.core.Resource;
+
+/**
+ * A term used by {@link TriplePattern}s and {@link Condition}s of a {@link RuleNetwork}. A term is either a
+ * constant {@link Resource} or a variable identified by its name.
+ */
+public final class Term {
+
+    private final Resource constant;
+    private final String variable;
+
+    private Term(Resource constant, String variable) {
+        this.constant = constant;
+        this.variable = variable;
+    }
+
+    /**
+     * Creates a variable term
+     *
+     * @param name
+     *            the name of the variable. MUST NOT be <code>null</code> nor empty
+     * @return the term
+     */
+    public static Term variable(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("The parsed variable name MUST NOT be NULL nor empty!");
+        }
+        return new Term(null, name);
+    }
+
+    /**
+     * Creates a constant term
+     *
+     * @param resource
+     *            the value of the term. MUST NOT be <code>null</code>
+     * @return the term
+     */
+    public static Term constant(Resource resource) {
+        if (resource == null) {
+            throw new IllegalArgumentException("The parsed Resource MUST NOT be NULL!");
+        }
+        return new Term(resource, null);
+    }
+
+    public boolean isVariable() {
+        return variable != null;
+    }
+
+    /**
+     * @return the name of the variable or <code>null</code> if this term is a constant
+     */
+    public String getVariable() {
+        return variable;
+    }
+
+    /**
+     * @return the constant value or <code>null</code> if this term is a variable
+     */
+    public Resource getConstant() {
+        return constant;
+    }
+
+    @Override
+    public int hashCode() {
+        return variable != null ? variable.hashCode() : constant.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof Term)) {
+            return false;
+        }
+        Term other = (Term) obj;
+        return variable != null ? variable.equals(other.variable) : constant.equals(other.constant);
+    }
+
+    @Override
+    public String toString() {
+        return variable != null ? "?" + variable : constant.toString();
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.rules.adapters.rete;
+
+/**
+ * A triple pattern used in the body (matched against the data) or in the head (instantiated with the
+ * bindings of a match) of a rule.
+ */
+public final class TriplePattern {
+
+    private final Term subject;
+    private final Term predicate;
+    private final Term object;
+
+    public TriplePattern(Term subject, Term predicate, Term object) {
+        if (subject == null || predicate == null || object == null) {
+            throw new IllegalArgumentException("The subject, predicate and object MUST NOT be NULL!");
+        }
+        this.subject = subject;
+        this.predicate = predicate;
+        this.object = object;
+    }
+
+    public Term getSubject() {
+        return subject;
+    }
+
+    public Term getPredicate() {
+        return predicate;
+    }
+
+    public Term getObject() {
+        return object;
+    }
+
+    @Override
+    public int hashCode() {
+        return subject.hashCode() + 31 * predicate.hashCode() + 961 * object.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof TriplePattern)) {
+            return false;
+        }
+        TriplePattern other = (TriplePattern) obj;
+        return subject.equals(other.subject) && predicate.equals(other.predicate)
+               && object.equals(other.object);
+    }
+
+    @Override
+    public String toString() {
+        return subject + " " + predicate + " " + object;
+    }
+}
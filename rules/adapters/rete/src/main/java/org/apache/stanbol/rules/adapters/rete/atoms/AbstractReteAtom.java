@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.rules.adapters.rete.atoms;
+
+import org.apache.clerezza.rdf.core.UriRef;
+import org.apache.stanbol.rules.adapters.AbstractAdaptableAtom;
+import org.apache.stanbol.rules.adapters.rete.ReteObject;
+import org.apache.stanbol.rules.adapters.rete.RuleNetwork;
+import org.apache.stanbol.rules.adapters.rete.Term;
+import org.apache.stanbol.rules.base.api.RuleAtom;
+import org.apache.stanbol.rules.base.api.RuleAtomCallExeption;
+import org.apache.stanbol.rules.base.api.UnavailableRuleObjectException;
+import org.apache.stanbol.rules.base.api.UnsupportedTypeForExportException;
+
+/**
+ * Base class for the atoms of the Rete adapter. Provides utilities to adapt the arguments of atoms to
+ * {@link Term}s.
+ */
+public abstract class AbstractReteAtom extends AbstractAdaptableAtom {
+
+    /**
+     * Adapts the parsed argument to a {@link Term}.
+     * 
+     * @throws RuleAtomCallExeption
+     *             if the argument is not adapted to a {@link Term}
+     */
+    protected Term adaptTerm(RuleAtom argument) throws RuleAtomCallExeption,
+                                               UnavailableRuleObjectException,
+                                               UnsupportedTypeForExportException {
+        // atoms are adapted to ReteObjects and not to the RuleNetwork export type
+        Object adapted = adapter.adaptTo(argument, RuleNetwork.class);
+        Object term = ((ReteObject) adapted).getReteObject();
+        if (term instanceof Term) {
+            return (Term) term;
+        } else {
+            throw new RuleAtomCallExeption(getClass());
+        }
+    }
+
+    /**
+     * Adapts the parsed argument to a {@link Term} that is either a variable or an {@link UriRef}.
+     * 
+     * @throws RuleAtomCallExeption
+     *             if the argument is not adapted to a variable or an {@link UriRef}
+     */
+    protected Term adaptResourceTerm(RuleAtom argument) throws RuleAtomCallExeption,
+                                                       UnavailableRuleObjectException,
+                                                       UnsupportedTypeForExportException {
+        Term term = adaptTerm(argument);
+        if (term.isVariable() || term.getConstant() instanceof UriRef) {
+            return term;
+        } else {
+            throw new RuleAtomCallExeption(getClass());
+        }
+    }
+
+}
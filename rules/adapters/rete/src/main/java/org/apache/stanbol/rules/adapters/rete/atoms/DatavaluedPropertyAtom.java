@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.rules.adapters.rete.atoms;
+
+import org.apache.clerezza.rdf.core.Literal;
+import org.apache.stanbol.rules.adapters.rete.ReteObject;
+import org.apache.stanbol.rules.adapters.rete.Term;
+import org.apache.stanbol.rules.adapters.rete.TriplePattern;
+import org.apache.stanbol.rules.base.api.RuleAtom;
+import org.apache.stanbol.rules.base.api.RuleAtomCallExeption;
+import org.apache.stanbol.rules.base.api.UnavailableRuleObjectException;
+import org.apache.stanbol.rules.base.api.UnsupportedTypeForExportException;
+
+/**
+ * It adapts any DatavaluedPropertyAtom to a triple pattern with a literal or a variable as object.
+ */
+public class DatavaluedPropertyAtom extends AbstractReteAtom {
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T adapt(RuleAtom ruleAtom) throws RuleAtomCallExeption,
+                                         UnavailableRuleObjectException,
+                                         UnsupportedTypeForExportException {
+
+        org.apache.stanbol.rules.manager.atoms.DatavaluedPropertyAtom tmp = (org.apache.stanbol.rules.manager.atoms.DatavaluedPropertyAtom) ruleAtom;
+
+        Term subject = adaptResourceTerm(tmp.getArgument1());
+        Term predicate = adaptResourceTerm(tmp.getDatatypeProperty());
+        Term object = adaptTerm(tmp.getArgument2());
+
+        if (!object.isVariable() && !(object.getConstant() instanceof Literal)) {
+            throw new RuleAtomCallExeption(getClass());
+        }
+
+        return (T) new ReteObject(new TriplePattern(subject, predicate, object));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.rules.adapters.rete.atoms;
+
+import org.apache.clerezza.rdf.core.LiteralFactory;
+import org.apache.stanbol.rules.adapters.rete.ReteObject;
+import org.apache.stanbol.rules.adapters.rete.Term;
+import org.apache.stanbol.rules.base.api.RuleAtom;
+import org.apache.stanbol.rules.base.api.RuleAtomCallExeption;
+import org.apache.stanbol.rules.base.api.Symbols;
+
+/**
+ * It adapts any NumberAtom to a typed literal or a variable {@link Term}.
+ */
+public class NumberAtom extends AbstractReteAtom {
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T adapt(RuleAtom ruleAtom) throws RuleAtomCallExeption {
+
+        org.apache.stanbol.rules.manager.atoms.NumberAtom tmp = (org.apache.stanbol.rules.manager.atoms.NumberAtom) ruleAtom;
+
+        String number = tmp.getNumber();
+
+        if (number.startsWith("\"") && number.endsWith("\"")) {
+            number = number.substring(1, number.length() - 1);
+        }
+
+        Term term;
+        if (number.startsWith(Symbols.variablesPrefix)) {
+            term = Term.variable(number.replace(Symbols.variablesPrefix, ""));
+        } else {
+            Object value;
+            try {
+                if (number.indexOf('.') >= 0) {
+                    value = Double.valueOf(number);
+                } else {
+                    long longValue = Long.parseLong(number);
+                    if (longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE) {
+                        value = Integer.valueOf((int) longValue);
+                    } else {
+                        value = Long.valueOf(longValue);
+                    }
+                }
+            } catch (NumberFormatException e) {
+                throw new RuleAtomCallExeption(getClass());
+            }
+            term = Term.constant(LiteralFactory.getInstance().createTypedLiteral(value));
+        }
+
+        return (T) new ReteObject(term);
+    }
+
+}
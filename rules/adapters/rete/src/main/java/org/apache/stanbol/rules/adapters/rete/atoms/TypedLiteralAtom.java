@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.rules.adapters.rete.atoms;
+
+import org.apache.clerezza.rdf.core.UriRef;
+import org.apache.clerezza.rdf.core.impl.TypedLiteralImpl;
+import org.apache.stanbol.rules.adapters.rete.ReteObject;
+import org.apache.stanbol.rules.adapters.rete.Term;
+import org.apache.stanbol.rules.base.api.RuleAtom;
+import org.apache.stanbol.rules.base.api.RuleAtomCallExeption;
+import org.apache.stanbol.rules.base.api.URIResource;
+import org.apache.stanbol.rules.base.api.UnavailableRuleObjectException;
+import org.apache.stanbol.rules.base.api.UnsupportedTypeForExportException;
+import org.apache.stanbol.rules.manager.atoms.ExpressionAtom;
+import org.apache.stanbol.rules.manager.atoms.NumberAtom;
+import org.apache.stanbol.rules.manager.atoms.StringAtom;
+
+/**
+ * It adapts any TypedLiteralAtom to a constant {@link Term} with a typed literal value. The lexical form
+ * of the value is used as is, so that it matches literals with the same datatype in the data.
+ */
+public class TypedLiteralAtom extends AbstractReteAtom {
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T adapt(RuleAtom ruleAtom) throws RuleAtomCallExeption,
+                                         UnavailableRuleObjectException,
+                                         UnsupportedTypeForExportException {
+
+        org.apache.stanbol.rules.manager.atoms.TypedLiteralAtom tmp = (org.apache.stanbol.rules.manager.atoms.TypedLiteralAtom) ruleAtom;
+
+        ExpressionAtom expressionAtom = tmp.getValue();
+        URIResource xsdType = tmp.getXsdType();
+
+        if (xsdType == null) {
+            return (T) new ReteObject(adaptTerm(expressionAtom));
+        }
+
+        String value;
+        if (expressionAtom instanceof StringAtom) {
+            value = ((StringAtom) expressionAtom).getString();
+        } else if (expressionAtom instanceof NumberAtom) {
+            value = ((NumberAtom) expressionAtom).getNumber();
+        } else {
+            throw new RuleAtomCallExeption(getClass());
+        }
+        if (value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+
+        UriRef dataType = new UriRef(xsdType.getURI().toString());
+
+        return (T) new ReteObject(Term.constant(new TypedLiteralImpl(value, dataType)));
+    }
+
+}
@@ -0,0 +1,358 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.rules.adapters.rete;
+
+import java.util.Dictionary;
+import java.util.Hashtable;
+
+import junit.framework.Assert;
+
+import org.apache.clerezza.rdf.core.BNode;
+import org.apache.clerezza.rdf.core.LiteralFactory;
+import org.apache.clerezza.rdf.core.MGraph;
+import org.apache.clerezza.rdf.core.UriRef;
+import org.apache.clerezza.rdf.core.impl.PlainLiteralImpl;
+import org.apache.clerezza.rdf.core.impl.SimpleMGraph;
+import org.apache.clerezza.rdf.core.impl.TripleImpl;
+import org.apache.clerezza.rdf.core.impl.TypedLiteralImpl;
+import org.apache.clerezza.rdf.ontologies.RDF;
+import org.apache.stanbol.rules.adapters.impl.RuleAdaptersFactoryImpl;
+import org.apache.stanbol.rules.base.api.Recipe;
+import org.apache.stanbol.rules.base.api.RuleAdapter;
+import org.apache.stanbol.rules.base.api.RuleAdaptersFactory;
+import org.apache.stanbol.rules.base.api.RuleAtomCallExeption;
+import org.apache.stanbol.rules.base.api.UnavailableRuleObjectException;
+import org.apache.stanbol.rules.base.api.UnsupportedTypeForExportException;
+import org.apache.stanbol.rules.manager.KB;
+import org.apache.stanbol.rules.manager.RecipeImpl;
+import org.apache.stanbol.rules.manager.parse.RuleParserImpl;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class ReteAdapterTest {
+
+    private static Logger log = LoggerFactory.getLogger(ReteAdapterTest.class);
+
+    private static final String NS = "http://example.org/";
+    private static final UriRef KNOWS = new UriRef(NS + "knows");
+    private static final UriRef PERSON = new UriRef(NS + "Person");
+    private static final UriRef A = new UriRef(NS + "a");
+    private static final UriRef B = new UriRef(NS + "b");
+    private static final UriRef C = new UriRef(NS + "c");
+    private static final UriRef D = new UriRef(NS + "d");
+    private static final UriRef NAME = new UriRef(NS + "name");
+    private static final UriRef AGE = new UriRef(NS + "age");
+    private static final UriRef BIRTHDAY = new UriRef(NS + "birthday");
+    private static final UriRef PART_OF = new UriRef(NS + "partOf");
+    private static final String XSD = "http://www.w3.org/2001/XMLSchema#";
+
+    private Recipe recipeGood;
+    private Recipe recipeWrong;
+    private static RuleAdapter ruleAdapter;
+
+    @BeforeClass
+    public static void setUpClass() {
+        Dictionary<String,Object> configuration = new Hashtable<String,Object>();
+        RuleAdaptersFactory ruleAdaptersFactory = new RuleAdaptersFactoryImpl();
+
+        ruleAdapter = new ReteAdapter(configuration, ruleAdaptersFactory);
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        ruleAdapter = null;
+    }
+
+    @Before
+    public void setUp() {
+        String separator = System.getProperty("line.separator");
+        String recipeString = "ex = <" + NS + "> . "
+                              + separator
+                              + "knows[ has(ex:knows, ?x, ?y) . has(ex:knows, ?y, ?z) . different(?x, ?z) -> has(ex:knows, ?x, ?z) ] . "
+                              + "person[ is(ex:Person, ?x) . has(ex:knows, ?x, ?y) -> is(ex:Person, ?y) ]";
+
+        KB kb = RuleParserImpl.parse("http://incubator.apache.com/stanbol/rules/adapters/rete/test/",
+            recipeString);
+
+        recipeGood = new RecipeImpl(
+                new UriRef("http://incubator.apache.com/stanbol/rules/adapters/rete/test"), "A recipe.",
+                kb.getRuleList());
+
+        recipeString = "kres = <http://kres.iks-project.eu/ontology.owl#> . "
+                       + separator
+                       + "rule2[ is(kres:Person, ?x) . same(\"Andrea\", localname(?x)) -> is(kres:OldPerson, ?x)]";
+
+        kb = RuleParserImpl.parse("http://incubator.apache.com/stanbol/rules/adapters/rete/test/",
+            recipeString);
+
+        recipeWrong = new RecipeImpl(new UriRef(
+                "http://incubator.apache.com/stanbol/rules/adapters/rete/test"), "A recipe.",
+                kb.getRuleList());
+    }
+
+    @After
+    public void tearDown() {
+        recipeGood = null;
+        recipeWrong = null;
+    }
+
+    @Test
+    public void forwardChainingTest() {
+        try {
+            RuleNetwork network = ruleAdapter.adaptTo(recipeGood, RuleNetwork.class);
+
+            Assert.assertEquals(2, network.getRuleCount());
+            // the three has(ex:knows, ...) patterns share a single alpha node
+            Assert.assertEquals(2, network.getAlphaNodeCount());
+
+            MGraph dataset = new SimpleMGraph();
+            dataset.add(new TripleImpl(A, KNOWS, B));
+            dataset.add(new TripleImpl(B, KNOWS, C));
+            dataset.add(new TripleImpl(C, KNOWS, A));
+            dataset.add(new TripleImpl(A, RDF.type, PERSON));
+
+            MGraph target = new SimpleMGraph();
+            int produced = network.apply(dataset, target);
+            log.debug("produced {} triples", produced);
+
+            // the "knows" relation is a cycle, so each individual knows all others. The "person" rule
+            // only fires for individuals inferred by the "knows" rule in a later round
+            UriRef[] individuals = new UriRef[] {A, B, C};
+            for (UriRef x : individuals) {
+                Assert.assertTrue(target.contains(new TripleImpl(x, RDF.type, PERSON)));
+                for (UriRef z : individuals) {
+                    Assert.assertEquals(x != z, target.contains(new TripleImpl(x, KNOWS, z)));
+                }
+            }
+            Assert.assertEquals(9, target.size());
+            Assert.assertEquals(9, produced);
+            Assert.assertEquals(4, dataset.size());
+        } catch (UnavailableRuleObjectException e) {
+            Assert.fail(e.getMessage());
+        } catch (UnsupportedTypeForExportException e) {
+            Assert.fail(e.getMessage());
+        } catch (RuleAtomCallExeption e) {
+            Assert.fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void wrongAdaptabeClassTest() {
+        try {
+            Object adapted = ruleAdapter.adaptTo(recipeGood, String.class);
+            Assert.fail("The Rete adapter should not accept " + String.class.getCanonicalName()
+                        + " objects (adapted: " + adapted + ").");
+        } catch (UnavailableRuleObjectException e) {
+            Assert.fail(e.getMessage());
+        } catch (UnsupportedTypeForExportException e) {
+            log.debug(e.getMessage());
+        } catch (RuleAtomCallExeption e) {
+            Assert.fail(e.getMessage());
+        }
+    }
+
+    @Test
+    public void comparisonAtomsTest() throws RuleAtomCallExeption,
+                                     UnsupportedTypeForExportException,
+                                     UnavailableRuleObjectException {
+        RuleNetwork network = compile("andrea[ has(ex:knows, ?x, ?y) . values(ex:name, ?y, ?n) . same(?n, \"Andrea\") -> is(ex:Andrea, ?y) ] . "
+                                      + "other[ has(ex:knows, ?x, ?y) . values(ex:name, ?y, ?n) . not(same(?n, \"Andrea\")) -> is(ex:Other, ?y) ] . "
+                                      + "anonymous[ has(ex:knows, ?x, ?y) . isBlank(?y) -> is(ex:Anonymous, ?y) ] . "
+                                      + "named[ has(ex:knows, ?x, ?y) . not(isBlank(?y)) -> is(ex:Named, ?y) ] . "
+                                      + "self[ has(ex:knows, ?x, ?y) . same(?x, ?y) -> has(ex:knowsSelf, ?x, ?y) ] . "
+                                      + "different[ has(ex:knows, ?x, ?y) . different(?x, ?y) -> has(ex:knowsOther, ?x, ?y) ]");
+        // conditions do not create alpha nodes
+        Assert.assertEquals(2, network.getAlphaNodeCount());
+
+        BNode anonymous = new BNode();
+        MGraph dataset = new SimpleMGraph();
+        dataset.add(new TripleImpl(A, KNOWS, A));
+        dataset.add(new TripleImpl(A, KNOWS, B));
+        dataset.add(new TripleImpl(A, KNOWS, C));
+        dataset.add(new TripleImpl(A, KNOWS, anonymous));
+        dataset.add(new TripleImpl(B, NAME, new PlainLiteralImpl("Andrea")));
+        dataset.add(new TripleImpl(C, NAME, new PlainLiteralImpl("Bob")));
+
+        MGraph target = new SimpleMGraph();
+        Assert.assertEquals(10, network.apply(dataset, target));
+
+        Assert.assertTrue(target.contains(new TripleImpl(B, RDF.type, new UriRef(NS + "Andrea"))));
+        Assert.assertFalse(target.contains(new TripleImpl(C, RDF.type, new UriRef(NS + "Andrea"))));
+        Assert.assertTrue(target.contains(new TripleImpl(C, RDF.type, new UriRef(NS + "Other"))));
+        Assert.assertFalse(target.contains(new TripleImpl(B, RDF.type, new UriRef(NS + "Other"))));
+
+        Assert.assertTrue(target.contains(new TripleImpl(anonymous, RDF.type, new UriRef(NS + "Anonymous"))));
+        Assert.assertFalse(target.contains(new TripleImpl(anonymous, RDF.type, new UriRef(NS + "Named"))));
+        for (UriRef named : new UriRef[] {A, B, C}) {
+            Assert.assertTrue(target.contains(new TripleImpl(named, RDF.type, new UriRef(NS + "Named"))));
+            Assert.assertFalse(target.contains(new TripleImpl(named, RDF.type, new UriRef(NS + "Anonymous"))));
+        }
+
+        Assert.assertTrue(target.contains(new TripleImpl(A, new UriRef(NS + "knowsSelf"), A)));
+        Assert.assertFalse(target.contains(new TripleImpl(A, new UriRef(NS + "knowsSelf"), B)));
+        Assert.assertFalse(target.contains(new TripleImpl(A, new UriRef(NS + "knowsOther"), A)));
+        Assert.assertTrue(target.contains(new TripleImpl(A, new UriRef(NS + "knowsOther"), anonymous)));
+    }
+
+    @Test
+    public void datavaluedAtomsTest() throws RuleAtomCallExeption,
+                                     UnsupportedTypeForExportException,
+                                     UnavailableRuleObjectException {
+        RuleNetwork network = compile("adult[ values(ex:age, ?x, 18) -> values(ex:status, ?x, \"adult\") ] . "
+                                      + "birthday[ values(ex:birthday, ?x, \"1980-01-01\"^^xsd:date) -> is(ex:Eighties, ?x) ] . "
+                                      + "label[ values(ex:name, ?x, ?n) -> values(ex:label, ?x, ?n) ]");
+
+        MGraph dataset = new SimpleMGraph();
+        LiteralFactory lf = LiteralFactory.getInstance();
+        dataset.add(new TripleImpl(A, AGE, lf.createTypedLiteral(18)));
+        dataset.add(new TripleImpl(B, AGE, lf.createTypedLiteral(17)));
+        dataset.add(new TripleImpl(A, BIRTHDAY, new TypedLiteralImpl("1980-01-01", new UriRef(XSD + "date"))));
+        // same lexical form but a different datatype
+        dataset.add(new TripleImpl(B, BIRTHDAY, new PlainLiteralImpl("1980-01-01")));
+        dataset.add(new TripleImpl(C, NAME, new PlainLiteralImpl("Carl")));
+
+        MGraph target = new SimpleMGraph();
+        Assert.assertEquals(3, network.apply(dataset, target));
+        Assert.assertTrue(target.contains(new TripleImpl(A, new UriRef(NS + "status"),
+                new PlainLiteralImpl("adult"))));
+        Assert.assertTrue(target.contains(new TripleImpl(A, RDF.type, new UriRef(NS + "Eighties"))));
+        Assert.assertTrue(target.contains(new TripleImpl(C, new UriRef(NS + "label"),
+                new PlainLiteralImpl("Carl"))));
+    }
+
+    @Test
+    public void variablePredicateJoinTest() throws RuleAtomCallExeption,
+                                           UnsupportedTypeForExportException,
+                                           UnavailableRuleObjectException {
+        // all patterns are joined on the variable predicate ?p
+        RuleNetwork network = compile("transitive[ has(?p, ?x, ?y) . has(?p, ?y, ?z) . is(ex:TransitiveProperty, ?p) -> has(?p, ?x, ?z) ]");
+
+        MGraph dataset = new SimpleMGraph();
+        dataset.add(new TripleImpl(PART_OF, RDF.type, new UriRef(NS + "TransitiveProperty")));
+        dataset.add(new TripleImpl(A, PART_OF, B));
+        dataset.add(new TripleImpl(B, PART_OF, C));
+        dataset.add(new TripleImpl(C, PART_OF, D));
+        // knows is not transitive
+        dataset.add(new TripleImpl(A, KNOWS, B));
+        dataset.add(new TripleImpl(B, KNOWS, C));
+
+        MGraph target = new SimpleMGraph();
+        Assert.assertEquals(3, network.apply(dataset, target));
+        Assert.assertTrue(target.contains(new TripleImpl(A, PART_OF, C)));
+        Assert.assertTrue(target.contains(new TripleImpl(B, PART_OF, D)));
+        // needs the triples inferred in the first round
+        Assert.assertTrue(target.contains(new TripleImpl(A, PART_OF, D)));
+        Assert.assertFalse(target.contains(new TripleImpl(A, KNOWS, C)));
+    }
+
+    @Test
+    public void fixpointTest() throws RuleAtomCallExeption,
+                              UnsupportedTypeForExportException,
+                              UnavailableRuleObjectException {
+        RuleNetwork network = compile("transitive[ has(ex:knows, ?x, ?y) . has(ex:knows, ?y, ?z) -> has(ex:knows, ?x, ?z) ] . "
+                                      + "person[ is(ex:Person, ?x) . has(ex:knows, ?x, ?y) -> is(ex:Person, ?y) ]");
+
+        // a chain of individuals: the transitive closure needs several rounds
+        int length = 8;
+        MGraph dataset = new SimpleMGraph();
+        for (int i = 0; i < length; i++) {
+            dataset.add(new TripleImpl(new UriRef(NS + "i" + i), KNOWS, new UriRef(NS + "i" + (i + 1))));
+        }
+        dataset.add(new TripleImpl(new UriRef(NS + "i0"), RDF.type, PERSON));
+
+        MGraph target = new SimpleMGraph();
+        int produced = network.apply(dataset, target);
+        for (int i = 0; i <= length; i++) {
+            UriRef x = new UriRef(NS + "i" + i);
+            Assert.assertEquals(i > 0, target.contains(new TripleImpl(x, RDF.type, PERSON)));
+            for (int j = 0; j <= length; j++) {
+                UriRef z = new UriRef(NS + "i" + j);
+                // only pairs with a distance > 1 are inferred
+                Assert.assertEquals(j > i + 1, target.contains(new TripleImpl(x, KNOWS, z)));
+            }
+        }
+        // (length + 1) * length / 2 - length inferred knows and length persons
+        int expected = (length + 1) * length / 2;
+        Assert.assertEquals(expected, target.size());
+        Assert.assertEquals(expected, produced);
+
+        // applying the rules to the inferred triples does not infer more triples
+        dataset.addAll(target);
+        int size = dataset.size();
+        network.apply(dataset, dataset);
+        Assert.assertEquals(size, dataset.size());
+    }
+
+    @Test
+    public void datasetAsTargetTest() throws RuleAtomCallExeption,
+                                     UnsupportedTypeForExportException,
+                                     UnavailableRuleObjectException {
+        RuleNetwork network = ruleAdapter.adaptTo(recipeGood, RuleNetwork.class);
+
+        MGraph dataset = new SimpleMGraph();
+        dataset.add(new TripleImpl(A, KNOWS, B));
+        dataset.add(new TripleImpl(B, KNOWS, C));
+        dataset.add(new TripleImpl(C, KNOWS, A));
+        dataset.add(new TripleImpl(A, RDF.type, PERSON));
+
+        // the same results as with a separate target
+        Assert.assertEquals(9, network.apply(dataset, dataset));
+        Assert.assertEquals(9, dataset.size());
+        UriRef[] individuals = new UriRef[] {A, B, C};
+        for (UriRef x : individuals) {
+            Assert.assertTrue(dataset.contains(new TripleImpl(x, RDF.type, PERSON)));
+            for (UriRef z : individuals) {
+                Assert.assertEquals(x != z, dataset.contains(new TripleImpl(x, KNOWS, z)));
+            }
+        }
+    }
+
+    @Test
+    public void unavailableRuleObjectTest() {
+        try {
+            ruleAdapter.adaptTo(recipeWrong, RuleNetwork.class);
+            Assert.fail("The Rete adapter should not support the localname atom.");
+        } catch (UnavailableRuleObjectException e) {
+            Assert.fail(e.getMessage());
+        } catch (UnsupportedTypeForExportException e) {
+            Assert.fail(e.getMessage());
+        } catch (RuleAtomCallExeption e) {
+            log.debug(e.getMessage());
+        }
+    }
+
+    /**
+     * Parses the rules (using the <code>ex</code> and <code>xsd</code> prefixes) and adapts them to a
+     * {@link RuleNetwork}
+     */
+    private static RuleNetwork compile(String rules) throws RuleAtomCallExeption,
+                                                    UnsupportedTypeForExportException,
+                                                    UnavailableRuleObjectException {
+        String separator = System.getProperty("line.separator");
+        KB kb = RuleParserImpl.parse("http://incubator.apache.com/stanbol/rules/adapters/rete/test/",
+            "ex = <" + NS + "> . " + separator + "xsd = <" + XSD + "> . " + separator + rules);
+        Recipe recipe = new RecipeImpl(
+                new UriRef("http://incubator.apache.com/stanbol/rules/adapters/rete/test"), "A recipe.",
+                kb.getRuleList());
+        return ruleAdapter.adaptTo(recipe, RuleNetwork.class);
+    }
+}
@@ -264,4 +264,21 @@ public interface RuleStore {
      */
     RuleList findRulesByDescription(String term);
 
+    /**
+     * Registers a listener that is notified about changes of the recipes in the store.
+     *
+     * @param listener
+     *            the listener to be registered.
+     */
+    void addRuleStoreListener(RuleStoreListener listener);
+
+    /**
+     * Unregisters a listener. Has no effect if the supplied listener was not registered with this store in
+     * the first place.
+     *
+     * @param listener
+     *            the listener to be unregistered.
+     */
+    void removeRuleStoreListener(RuleStoreListener listener);
+
 }
@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.stanbol.rules.base.api;
+
+import org.apache.clerezza.rdf.core.UriRef;
+
+/**
+ * Objects that want to be notified about changes of the recipes managed by a {@link RuleStore} should
+ * implement this interface and add themselves as listener to the rule store (see
+ * {@link RuleStore#addRuleStoreListener(RuleStoreListener)}).<br/>
+ * Typical listeners are components that keep recipes (or representations derived from them) in memory.
+ */
+public interface RuleStoreListener {
+
+    /**
+     * Called <i>after</i> a recipe was created or removed or rules were added to or removed from a recipe.
+     *
+     * @param ruleStore
+     *            the {@link RuleStore} that fired the event
+     * @param recipeID
+     *            the ID of the changed recipe
+     */
+    void recipeChanged(RuleStore ruleStore, UriRef recipeID);
+
+}
@@ -30,6 +30,8 @@ import java.util.ArrayList;
 import java.util.Dictionary;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.apache.clerezza.rdf.core.Literal;
 import org.apache.clerezza.rdf.core.Resource;
@@ -63,6 +65,7 @@ import org.apache.stanbol.rules.base.api.RecipeConstructionException;
 import org.apache.stanbol.rules.base.api.RecipeEliminationException;
 import org.apache.stanbol.rules.base.api.Rule;
 import org.apache.stanbol.rules.base.api.RuleStore;
+import org.apache.stanbol.rules.base.api.RuleStoreListener;
 import org.apache.stanbol.rules.base.api.Symbols;
 import org.apache.stanbol.rules.base.api.util.RecipeList;
 import org.apache.stanbol.rules.base.api.util.RuleList;
@@ -96,6 +99,8 @@ public class ClerezzaRuleStore implements RuleStore {
 
     private List<UriRef> recipes;
 
+    private final Set<RuleStoreListener> listeners = new CopyOnWriteArraySet<RuleStoreListener>();
+
     /**
      * This construct returns RuleStoreImpl object with inside an ontology where to store the rules.
      * 
@@ -210,6 +215,8 @@ public class ClerezzaRuleStore implements RuleStore {
         // add the recpe ID to the list of known recipes
         recipes.add(recipeID);
 
+        fireRecipeChanged(recipeID);
+
         return new RecipeImpl(recipeID, recipeDescription, null);
     }
 
@@ -263,6 +270,8 @@ public class ClerezzaRuleStore implements RuleStore {
 
         recipe.addRule(new RecipeRule(recipe, rule));
 
+        fireRecipeChanged(recipeID);
+
         return recipe;
     }
 
@@ -451,6 +460,8 @@ public class ClerezzaRuleStore implements RuleStore {
         // remove the recipe ID from in-memory list
         recipes.remove(recipeID);
 
+        fireRecipeChanged(recipeID);
+
         return true;
 
     }
@@ -477,6 +488,8 @@ public class ClerezzaRuleStore implements RuleStore {
 
         recipe.removeRule(rule);
 
+        fireRecipeChanged(recipe.getRecipeID());
+
         return recipe;
     }
 
@@ -667,6 +680,29 @@ public class ClerezzaRuleStore implements RuleStore {
         return matchingRules;
     }
     
+    @Override
+    public void addRuleStoreListener(RuleStoreListener listener) {
+        if (listener != null) {
+            listeners.add(listener);
+        }
+    }
+
+    @Override
+    public void removeRuleStoreListener(RuleStoreListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void fireRecipeChanged(UriRef recipeID) {
+        for (RuleStoreListener listener : listeners) {
+            try {
+                listener.recipeChanged(this, recipeID);
+            } catch (RuntimeException e) {
+                log.warn("Exception while notifying RuleStoreListener " + listener + " about changes of recipe "
+                         + recipeID, e);
+            }
+        }
+    }
+
     public static void main(String[] args){
         
         InputStream inputStream;
@@ -88,4 +88,23 @@ public interface Refactorer {
      */
     TripleCollection graphRefactoring(TripleCollection dataset, Recipe recipe) throws RefactoringException;
 
+    /**
+     * The refactoring is perfomed by the {@code Refactorer} by invoking this method. The recipe identified by
+     * {@code recipeID} in the {@link RuleStore} is applied to the {@code dataset} and the refactored triples
+     * are added to the {@code target}.<br/>
+     * Implementations are expected to keep the compiled form of the recipe in memory, so this method is
+     * preferable if the same recipe is applied to many datasets.
+     *
+     * @param dataset
+     *            {@link TripleCollection}
+     * @param recipeID
+     *            {@link UriRef}
+     * @param target
+     *            the {@link TripleCollection} the refactored triples are added to
+     * @throws RefactoringException
+     * @throws NoSuchRecipeException
+     */
+    void graphRefactoring(TripleCollection dataset, UriRef recipeID, TripleCollection target) throws RefactoringException,
+                                                                                              NoSuchRecipeException;
+
 }
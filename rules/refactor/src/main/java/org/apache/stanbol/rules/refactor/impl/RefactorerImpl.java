@@ -17,8 +17,13 @@
 package org.apache.stanbol.rules.refactor.impl;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Dictionary;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.clerezza.rdf.core.Graph;
 import org.apache.clerezza.rdf.core.MGraph;
@@ -36,12 +41,15 @@ import org.apache.felix.scr.annotations.Service;
 import org.apache.stanbol.rules.base.api.NoSuchRecipeException;
 import org.apache.stanbol.rules.base.api.Recipe;
 import org.apache.stanbol.rules.base.api.RecipeConstructionException;
+import org.apache.stanbol.rules.base.api.Rule;
 import org.apache.stanbol.rules.base.api.RuleAdapter;
 import org.apache.stanbol.rules.base.api.RuleAdapterManager;
 import org.apache.stanbol.rules.base.api.RuleAtomCallExeption;
 import org.apache.stanbol.rules.base.api.RuleStore;
+import org.apache.stanbol.rules.base.api.RuleStoreListener;
 import org.apache.stanbol.rules.base.api.UnavailableRuleObjectException;
 import org.apache.stanbol.rules.base.api.UnsupportedTypeForExportException;
+import org.apache.stanbol.rules.base.api.util.RuleList;
 import org.apache.stanbol.rules.manager.arqextention.CreatePropertyURIStringFromLabel;
 import org.apache.stanbol.rules.manager.arqextention.CreateStandardLabel;
 import org.apache.stanbol.rules.manager.arqextention.CreateURI;
@@ -57,6 +65,9 @@ import com.hp.hpl.jena.sparql.pfunction.PropertyFunctionRegistry;
 /**
  * The RefactorerImpl is the concrete implementation of the Refactorer interface defined in the rule APIs of
  * Stanbol. A Refacter is able to perform RDF graph refactorings and mappings.
+ * <p>
+ * Recipes are adapted to {@link ConstructQuery}s only once and cached by recipe ID. Cached recipes are
+ * invalidated by {@link RuleStoreListener} events of the {@link RuleStore}.
  * 
  * @author anuzzolese
  * 
@@ -80,6 +91,25 @@ public class RefactorerImpl implements Refactorer {
     @Reference
     protected RuleAdapterManager ruleAdapterManager;
 
+    /**
+     * Recipes adapted to {@link ConstructQuery}s by recipe ID
+     */
+    private final ConcurrentMap<UriRef,CompiledRecipe> compiledRecipes = new ConcurrentHashMap<UriRef,CompiledRecipe>();
+
+    /**
+     * Incremented on every change in the {@link RuleStore}. Used to detect changes while a recipe is
+     * compiled.
+     */
+    private final AtomicLong ruleStoreRevision = new AtomicLong();
+
+    private final RuleStoreListener ruleStoreListener = new RuleStoreListener() {
+        @Override
+        public void recipeChanged(RuleStore ruleStore, UriRef recipeID) {
+            ruleStoreRevision.incrementAndGet();
+            compiledRecipes.remove(recipeID);
+        }
+    };
+
     /**
      * This default constructor is <b>only</b> intended to be used by the OSGI environment with Service
      * Component Runtime support.
@@ -141,6 +171,8 @@ public class RefactorerImpl implements Refactorer {
         FunctionRegistry.get().put("http://www.stlab.istc.cnr.it/semion/function#propString",
             CreatePropertyURIStringFromLabel.class);
 
+        ruleStore.addRuleStoreListener(ruleStoreListener);
+
         log.debug(Refactorer.class + "activated.");
     }
 
@@ -148,6 +180,10 @@ public class RefactorerImpl implements Refactorer {
     protected void deactivate(ComponentContext context) {
         log.info("in " + getClass() + " deactivate with context " + context);
 
+        if (ruleStore != null) {
+            ruleStore.removeRuleStoreListener(ruleStoreListener);
+        }
+        compiledRecipes.clear();
         this.weightedTcProvider = null;
         this.tcManager = null;
         this.ruleStore = null;
@@ -159,127 +195,137 @@ public class RefactorerImpl implements Refactorer {
         return weightedTcProvider.getMGraph(uriRef);
     }
 
-    /**
-     * Execute a sparql construct on Clerezza.
-     * 
-     * @param sparql
-     * @param datasetID
-     * @return
-     */
-    private Graph sparqlConstruct(ConstructQuery constructQuery, UriRef datasetID) {
-
-        MGraph graph = weightedTcProvider.getMGraph(datasetID);
-        return sparqlConstruct(constructQuery, graph);
-
-    }
-
     private Graph sparqlConstruct(ConstructQuery constructQuery, TripleCollection tripleCollection) {
 
         return tcManager.executeSparqlQuery(constructQuery, tripleCollection);
 
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Executes the construct queries of a compiled recipe and adds the results to the target.
+     */
+    private void sparqlConstruct(List<ConstructQuery> constructQueries,
+                                 TripleCollection tripleCollection,
+                                 TripleCollection target) {
+        for (ConstructQuery constructQuery : constructQueries) {
+            target.addAll(sparqlConstruct(constructQuery, tripleCollection));
+        }
+    }
+
     @Override
     public void graphRefactoring(UriRef refactoredOntologyID, UriRef datasetID, UriRef recipeID) throws RefactoringException,
                                                                                                 NoSuchRecipeException {
-
-        Recipe recipe;
         try {
-            try {
-                recipe = ruleStore.getRecipe(recipeID);
-
-                RuleAdapter ruleAdapter = ruleAdapterManager.getAdapter(recipe, ConstructQuery.class);
-                List<ConstructQuery> constructQueries = (List<ConstructQuery>) ruleAdapter.adaptTo(recipe,
-                    ConstructQuery.class);
-
-                MGraph mGraph = tcManager.createMGraph(refactoredOntologyID);
-                for (ConstructQuery constructQuery : constructQueries) {
-                    mGraph.addAll(this.sparqlConstruct(constructQuery, datasetID));
-                }
-            } catch (RecipeConstructionException e) {
-                throw new RefactoringException(
-                        "The cause of the refactoring excpetion is: " + e.getMessage(), e);
-            } catch (UnavailableRuleObjectException e) {
-                throw new RefactoringException(
-                        "The cause of the refactoring excpetion is: " + e.getMessage(), e);
-            } catch (UnsupportedTypeForExportException e) {
-                throw new RefactoringException(
-                        "The cause of the refactoring excpetion is: " + e.getMessage(), e);
-            } catch (RuleAtomCallExeption e) {
-                throw new RefactoringException(
-                        "The cause of the refactoring excpetion is: " + e.getMessage(), e);
-            }
+            List<ConstructQuery> constructQueries = getConstructQueries(recipeID);
 
+            MGraph mGraph = tcManager.createMGraph(refactoredOntologyID);
+            sparqlConstruct(constructQueries, weightedTcProvider.getMGraph(datasetID), mGraph);
         } catch (NoSuchRecipeException e1) {
             log.error("No Such recipe in the Rule Store", e1);
             throw e1;
         }
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public TripleCollection graphRefactoring(UriRef graphID, UriRef recipeID) throws RefactoringException,
                                                                              NoSuchRecipeException {
-        MGraph unionMGraph = null;
-
-        // JenaToOwlConvert jenaToOwlConvert = new JenaToOwlConvert();
-
-        // OntModel ontModel =
-        // jenaToOwlConvert.ModelOwlToJenaConvert(inputOntology, "RDF/XML");
-
-        Recipe recipe;
+        List<ConstructQuery> constructQueries;
         try {
-            recipe = ruleStore.getRecipe(recipeID);
-
-            RuleAdapter ruleAdapter = ruleAdapterManager.getAdapter(recipe, ConstructQuery.class);
-
-            List<ConstructQuery> constructQueries = (List<ConstructQuery>) ruleAdapter.adaptTo(recipe,
-                ConstructQuery.class);
-
-            unionMGraph = new SimpleMGraph();
-
-            for (ConstructQuery constructQuery : constructQueries) {
-                unionMGraph.addAll(this.sparqlConstruct(constructQuery, graphID));
-            }
-
+            constructQueries = getConstructQueries(recipeID);
         } catch (NoSuchRecipeException e1) {
             log.error("Refactor : No Such recipe in the Rule Store", e1);
             throw e1;
-        } catch (RecipeConstructionException e) {
-            throw new RefactoringException("The cause of the refactoring excpetion is: " + e.getMessage(), e);
-        } catch (UnavailableRuleObjectException e) {
-            throw new RefactoringException("The cause of the refactoring excpetion is: " + e.getMessage(), e);
-        } catch (UnsupportedTypeForExportException e) {
-            throw new RefactoringException("The cause of the refactoring excpetion is: " + e.getMessage(), e);
-        } catch (RuleAtomCallExeption e) {
-            throw new RefactoringException("The cause of the refactoring excpetion is: " + e.getMessage(), e);
         }
-
+        MGraph graph = weightedTcProvider.getMGraph(graphID);
+        if (constructQueries.size() == 1) {
+            // no need to copy the result of a single query
+            return sparqlConstruct(constructQueries.get(0), graph);
+        }
+        MGraph unionMGraph = new SimpleMGraph();
+        sparqlConstruct(constructQueries, graph, unionMGraph);
         return unionMGraph.getGraph();
-
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public TripleCollection graphRefactoring(TripleCollection inputGraph, Recipe recipe) throws RefactoringException {
 
-        RuleAdapter ruleAdapter;
-        try {
-            ruleAdapter = ruleAdapterManager.getAdapter(recipe, ConstructQuery.class);
-            List<ConstructQuery> constructQueries = (List<ConstructQuery>) ruleAdapter.adaptTo(recipe,
-                ConstructQuery.class);
+        List<ConstructQuery> constructQueries = getConstructQueries(recipe);
+        if (constructQueries.size() == 1) {
+            // no need to copy the result of a single query
+            return sparqlConstruct(constructQueries.get(0), inputGraph);
+        }
+        MGraph unionMGraph = new SimpleMGraph();
+        sparqlConstruct(constructQueries, inputGraph, unionMGraph);
+        return unionMGraph;
+    }
 
-            for(ConstructQuery constructQuery : constructQueries){
-                System.out.println(constructQuery.toString());
+    @Override
+    public void graphRefactoring(TripleCollection inputGraph, UriRef recipeID, TripleCollection target) throws RefactoringException,
+                                                                                                        NoSuchRecipeException {
+        sparqlConstruct(getConstructQueries(recipeID), inputGraph, target);
+    }
+
+    /**
+     * Getter for the construct queries of the recipe with the parsed ID in the {@link RuleStore}. Recipes
+     * are only read from the store and compiled if they are not already cached.
+     */
+    private List<ConstructQuery> getConstructQueries(UriRef recipeID) throws RefactoringException,
+                                                                      NoSuchRecipeException {
+        CompiledRecipe compiled = compiledRecipes.get(recipeID);
+        if (compiled == null || !compiled.fromStore) {
+            long revision = ruleStoreRevision.get();
+            Recipe recipe;
+            try {
+                recipe = ruleStore.getRecipe(recipeID);
+            } catch (RecipeConstructionException e) {
+                throw new RefactoringException("The cause of the refactoring excpetion is: " + e.getMessage(), e);
+            }
+            compiled = compile(recipe, true);
+            compiledRecipes.put(recipeID, compiled);
+            if (revision != ruleStoreRevision.get()) {
+                // the store was changed while compiling: use the result only for this call
+                compiledRecipes.remove(recipeID, compiled);
             }
+        }
+        return compiled.constructQueries;
+    }
 
-            MGraph unionMGraph = new SimpleMGraph();
-            for (ConstructQuery constructQuery : constructQueries) {
-                unionMGraph.addAll(sparqlConstruct(constructQuery, inputGraph));
+    /**
+     * Getter for the construct queries of the parsed recipe. The parsed recipe is compiled only if the rules
+     * are different from the cached version.
+     */
+    private List<ConstructQuery> getConstructQueries(Recipe recipe) throws RefactoringException {
+        UriRef recipeID = recipe.getRecipeID();
+        if (recipeID == null) { // recipes not managed by the RuleStore can not be cached
+            return compile(recipe, false).constructQueries;
+        }
+        CompiledRecipe compiled = compiledRecipes.get(recipeID);
+        if (compiled == null || !compiled.signature.equals(getSignature(recipe))) {
+            long revision = ruleStoreRevision.get();
+            compiled = compile(recipe, false);
+            // do not replace recipes compiled from the RuleStore with in-memory versions
+            if (compiledRecipes.putIfAbsent(recipeID, compiled) == null && revision != ruleStoreRevision.get()) {
+                compiledRecipes.remove(recipeID, compiled);
             }
+        }
+        return compiled.constructQueries;
+    }
 
-            return unionMGraph;
+    @SuppressWarnings("unchecked")
+    private CompiledRecipe compile(Recipe recipe, boolean fromStore) throws RefactoringException {
+        try {
+            RuleAdapter ruleAdapter = ruleAdapterManager.getAdapter(recipe, ConstructQuery.class);
+            List<ConstructQuery> constructQueries = (List<ConstructQuery>) ruleAdapter.adaptTo(recipe,
+                ConstructQuery.class);
+            if (log.isDebugEnabled()) {
+                log.debug("Compiled recipe {} to {} construct queries", recipe.getRecipeID(),
+                    constructQueries.size());
+                for (ConstructQuery constructQuery : constructQueries) {
+                    log.debug(" > {}", constructQuery);
+                }
+            }
+            return new CompiledRecipe(getSignature(recipe), new ArrayList<ConstructQuery>(constructQueries),
+                    fromStore);
         } catch (UnavailableRuleObjectException e) {
             throw new RefactoringException("The cause of the refactoring excpetion is: " + e.getMessage(), e);
         } catch (UnsupportedTypeForExportException e) {
@@ -287,8 +333,41 @@ public class RefactorerImpl implements Refactorer {
         } catch (RuleAtomCallExeption e) {
             throw new RefactoringException("The cause of the refactoring excpetion is: " + e.getMessage(), e);
         }
+    }
 
+    /**
+     * The rules of the recipe in Stanbol syntax. Used to detect in-memory changes of recipes.
+     */
+    private static String getSignature(Recipe recipe) {
+        StringBuilder signature = new StringBuilder();
+        RuleList ruleList = recipe.getRuleList();
+        if (ruleList != null) {
+            for (Rule rule : ruleList) {
+                signature.append(rule.toString()).append('\n');
+            }
+        }
+        return signature.toString();
     }
 
+    /**
+     * A recipe adapted to {@link ConstructQuery}s
+     */
+    private static final class CompiledRecipe {
+
+        private final String signature;
+
+        private final List<ConstructQuery> constructQueries;
+
+        /**
+         * If the recipe was read from the {@link RuleStore} or parsed by the caller
+         */
+        private final boolean fromStore;
+
+        private CompiledRecipe(String signature, List<ConstructQuery> constructQueries, boolean fromStore) {
+            this.signature = signature;
+            this.constructQueries = Collections.unmodifiableList(constructQueries);
+            this.fromStore = fromStore;
+        }
+    }
 
 }
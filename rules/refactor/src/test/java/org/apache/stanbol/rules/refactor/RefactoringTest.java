@@ -30,6 +30,7 @@ import org.apache.clerezza.rdf.core.TripleCollection;
 import org.apache.clerezza.rdf.core.UriRef;
 import org.apache.clerezza.rdf.core.access.TcManager;
 import org.apache.clerezza.rdf.core.access.WeightedTcProvider;
+import org.apache.clerezza.rdf.core.impl.SimpleMGraph;
 import org.apache.clerezza.rdf.core.sparql.QueryEngine;
 import org.apache.clerezza.rdf.jena.sparql.JenaSparqlEngine;
 import org.apache.clerezza.rdf.simple.storage.SimpleTcProvider;
@@ -250,6 +251,35 @@ public class RefactoringTest {
         }
     }
 
+    @Test
+    public void cachedRecipeRefactoringTest() throws Exception {
+        UriRef recipeID = new UriRef("http://incubator.apache.com/stanbol/rules/refactor/test/recipeA");
+
+        // the compiled recipe is cached after the first call
+        MGraph first = new SimpleMGraph();
+        refactorer.graphRefactoring(tripleCollection, recipeID, first);
+        MGraph second = new SimpleMGraph();
+        refactorer.graphRefactoring(tripleCollection, recipeID, second);
+        // graphs are compared by isomorphism
+        Assert.assertEquals(first.getGraph(), second.getGraph());
+        MGraph third = new SimpleMGraph(refactorer.graphRefactoring(tripleCollection,
+            store.getRecipe(recipeID)));
+        Assert.assertEquals(first.getGraph(), third.getGraph());
+
+        // changes in the rule store need to invalidate the cached recipe
+        String separator = System.getProperty("line.separator");
+        String rule = "kres = <http://kres.iks-project.eu/ontology.owl#> . " + separator
+                      + "foaf = <http://xmlns.com/foaf/0.1/> . " + separator
+                      + "rule2[ is(kres:Person, ?x) . same(localname(?y), \"text\") -> is(foaf:Person, ?x) ]";
+        store.addRulesToRecipe(store.getRecipe(recipeID), rule, "Test");
+        try {
+            refactorer.graphRefactoring(tripleCollection, recipeID, new SimpleMGraph());
+            Assert.fail("The modified recipe contains atoms not supported by the clerezza adapter");
+        } catch (RefactoringException e) {
+            // expected
+        }
+    }
+
     @Test
     public void brokenRecipeTest() throws Exception {
         // broken recipe